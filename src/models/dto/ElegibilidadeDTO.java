@@ -2,6 +2,7 @@ package br.com.austa.experiencia.model.dto;
 
 import lombok.Builder;
 import lombok.Data;
+import java.time.LocalDate;
 
 @Data
 @Builder
@@ -11,4 +12,5 @@ public class ElegibilidadeDTO {
     private String statusPlano;
     private String beneficiarioId;
     private String nomeBeneficiario;
+    private LocalDate dataAdesao;
 }
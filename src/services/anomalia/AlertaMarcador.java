@@ -0,0 +1,88 @@
+package br.com.austa.experiencia.service.anomalia;
+
+import br.com.austa.experiencia.service.timeseries.Marcador;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Alert raised by {@link DetectorAnomalias} when a series breaches its limits.
+ */
+public final class AlertaMarcador {
+
+    /** Which rule fired. */
+    public enum Tipo {
+        FAIXA_CRITICA,
+        Z_SCORE,
+        CUSUM_ALTA,
+        CUSUM_BAIXA
+    }
+
+    private final String beneficiarioId;
+    private final Marcador marcador;
+    private final String condicao;
+    private final Tipo tipo;
+    private final long timestamp;
+    private final double valor;
+    private final double linhaBase;
+    private final double estatistica;
+    private final long latenciaNanos;
+
+    AlertaMarcador(LeituraMarcador leitura, Tipo tipo, double linhaBase, double estatistica) {
+        this.beneficiarioId = leitura.beneficiarioId;
+        this.marcador = leitura.marcador;
+        this.condicao = leitura.condicao;
+        this.tipo = tipo;
+        this.timestamp = leitura.timestamp;
+        this.valor = leitura.valor;
+        this.linhaBase = linhaBase;
+        this.estatistica = estatistica;
+        this.latenciaNanos = System.nanoTime() - leitura.recebidoEmNanos;
+    }
+
+    public String getBeneficiarioId() {
+        return beneficiarioId;
+    }
+
+    public Marcador getMarcador() {
+        return marcador;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public double getValor() {
+        return valor;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /** Time from the reading entering the detector to the alert being raised. */
+    public long getLatenciaNanos() {
+        return latenciaNanos;
+    }
+
+    /**
+     * Process variables sent with the correlated message.
+     */
+    public Map<String, Object> toVariaveis() {
+        Map<String, Object> variaveis = new HashMap<>();
+        variaveis.put("alertaMarcador", marcador.getChave());
+        variaveis.put("alertaTipo", tipo.name());
+        variaveis.put("alertaValor", valor);
+        variaveis.put("alertaLinhaBase", linhaBase);
+        variaveis.put("alertaEstatistica", estatistica);
+        variaveis.put("alertaTimestamp", timestamp);
+        variaveis.put("alertaCondicao", condicao);
+        return variaveis;
+    }
+
+    @Override
+    public String toString() {
+        return "AlertaMarcador{" + beneficiarioId + " " + marcador + " " + tipo + " valor=" + valor
+            + " base=" + linhaBase + " estatistica=" + estatistica + "}";
+    }
+}
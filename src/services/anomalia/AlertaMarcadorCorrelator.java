@@ -0,0 +1,86 @@
+package br.com.austa.experiencia.service.anomalia;
+
+import br.com.austa.experiencia.service.rastreamento.ContextoSpan;
+import br.com.austa.experiencia.service.rastreamento.Rastreador;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.runtime.MessageCorrelationResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers {@link AlertaMarcador} to the beneficiary's SUB-008 instance by
+ * correlating {@link #MENSAGEM}, caught by the non-interrupting event
+ * sub-process of the continuous monitoring sub-process.
+ *
+ * Correlation runs on its own small pool so detector shards never wait on
+ * the engine database.
+ */
+@Component("alertaMarcadorCorrelator")
+public class AlertaMarcadorCorrelator {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertaMarcadorCorrelator.class);
+
+    public static final String MENSAGEM = "Msg_AlertaMarcadorCritico";
+
+    @Autowired
+    private RuntimeService runtimeService;
+
+    @Autowired
+    private Rastreador rastreador;
+
+    @Value("${anomalia.correlacao.threads:4}")
+    private int threads;
+
+    @Value("${anomalia.correlacao.fila:10000}")
+    private int capacidadeFila;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void iniciar() {
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(capacidadeFila),
+            // Saturated: correlate on the caller rather than lose a clinical alert
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void parar() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    public void enfileirar(AlertaMarcador alerta) {
+        // The pool thread continues the trace of whoever queued it (usually a Kafka record)
+        ContextoSpan origem = rastreador.atual();
+        executor.execute(() -> rastreador.executar("correlacionar " + MENSAGEM, origem, () -> correlacionar(alerta)));
+    }
+
+    void correlacionar(AlertaMarcador alerta) {
+        try {
+            List<MessageCorrelationResult> resultados = runtimeService.createMessageCorrelation(MENSAGEM)
+                .processInstanceVariableEquals("beneficiarioId", alerta.getBeneficiarioId())
+                .setVariables(alerta.toVariaveis())
+                .correlateAllWithResult();
+
+            if (resultados.isEmpty()) {
+                logger.warn("No active chronic program for alert {}", alerta);
+            } else {
+                logger.info("Marker alert correlated to {} instance(s): {} (latency {} us)",
+                    resultados.size(), alerta, alerta.getLatenciaNanos() / 1000);
+            }
+        } catch (Exception e) {
+            logger.error("Error correlating marker alert {}: {}", alerta, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package br.com.austa.experiencia.service.anomalia;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Detector Anomalias - streaming anomaly detection over health-marker streams
+ *
+ * Readings are routed by series (beneficiary + marker) to a fixed number of
+ * shards. Each shard is owned by one thread and keeps the state of its series
+ * in primitive arrays (struct of arrays), so a series costs a constant ~80
+ * bytes regardless of how many readings it has seen, and no locks are taken
+ * on the hot path.
+ *
+ * Per reading, in order:
+ * - critical range of the condition ({@link LimitesClinicos}): immediate alert
+ * - z-score against the EWMA mean/variance baseline
+ * - two-sided CUSUM on the standardized residual, for slow sustained drifts
+ *
+ * The baseline is updated with the reading winsorized at zMaximo, so single
+ * spikes do not drag it while genuine level shifts are still absorbed. Alerts
+ * per series are rate-limited by a cooldown and handed to a non-blocking sink.
+ */
+@Component("detectorAnomalias")
+public class DetectorAnomalias {
+
+    private static final Logger logger = LoggerFactory.getLogger(DetectorAnomalias.class);
+
+    private static final int LOTE = 256;
+
+    private final Shard[] shards;
+    private final Consumer<AlertaMarcador> destino;
+    private final double alfa;
+    private final int aquecimento;
+    private final long cooldownMillis;
+    private final long timeoutSubmissaoMillis;
+
+    private final LongAdder leiturasProcessadas = new LongAdder();
+    private final LongAdder leiturasDescartadas = new LongAdder();
+    private final LongAdder alertasEmitidos = new LongAdder();
+    private final LongAdder alertasSuprimidos = new LongAdder();
+    private final LongAccumulator latenciaMaximaNanos = new LongAccumulator(Math::max, 0);
+
+    @Autowired
+    public DetectorAnomalias(@Value("${anomalia.shards:8}") int numeroShards,
+                             @Value("${anomalia.fila-por-shard:65536}") int capacidadeFila,
+                             @Value("${anomalia.ewma-alfa:0.05}") double alfa,
+                             @Value("${anomalia.aquecimento:20}") int aquecimento,
+                             @Value("${anomalia.cooldown-minutos:30}") long cooldownMinutos,
+                             @Value("${anomalia.timeout-submissao-ms:200}") long timeoutSubmissaoMillis,
+                             AlertaMarcadorCorrelator correlator) {
+        this(numeroShards, capacidadeFila, alfa, aquecimento, cooldownMinutos, timeoutSubmissaoMillis,
+            (Consumer<AlertaMarcador>) correlator::enfileirar);
+    }
+
+    public DetectorAnomalias(int numeroShards, int capacidadeFila, double alfa, int aquecimento,
+                             long cooldownMinutos, long timeoutSubmissaoMillis,
+                             Consumer<AlertaMarcador> destino) {
+        this.destino = destino;
+        this.alfa = alfa;
+        this.aquecimento = aquecimento;
+        this.cooldownMillis = TimeUnit.MINUTES.toMillis(cooldownMinutos);
+        this.timeoutSubmissaoMillis = timeoutSubmissaoMillis;
+        this.shards = new Shard[numeroShards];
+        for (int i = 0; i < numeroShards; i++) {
+            shards[i] = new Shard(i, capacidadeFila);
+        }
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        for (Shard shard : shards) {
+            shard.thread.start();
+        }
+        logger.info("Anomaly detector started with {} shards", shards.length);
+    }
+
+    @PreDestroy
+    public void parar() throws InterruptedException {
+        for (Shard shard : shards) {
+            shard.ativo = false;
+            shard.thread.interrupt();
+        }
+        for (Shard shard : shards) {
+            shard.thread.join(5000);
+        }
+    }
+
+    /**
+     * Routes a reading to its shard. Blocks up to the submission timeout when
+     * the shard queue is full (backpressure to the consumer), then drops it.
+     *
+     * @return false if the reading was dropped
+     */
+    public boolean submeter(LeituraMarcador leitura) {
+        Shard shard = shards[(chave(leitura).hashCode() & 0x7fffffff) % shards.length];
+        try {
+            if (shard.fila.offer(leitura, timeoutSubmissaoMillis, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        leiturasDescartadas.increment();
+        logger.warn("Anomaly detector shard {} saturated; reading dropped: {} {}",
+            shard.id, leitura.beneficiarioId, leitura.marcador);
+        return false;
+    }
+
+    public long getLeiturasProcessadas() {
+        return leiturasProcessadas.sum();
+    }
+
+    public long getLeiturasDescartadas() {
+        return leiturasDescartadas.sum();
+    }
+
+    public long getAlertasEmitidos() {
+        return alertasEmitidos.sum();
+    }
+
+    public long getAlertasSuprimidos() {
+        return alertasSuprimidos.sum();
+    }
+
+    public long getLatenciaMaximaNanos() {
+        return latenciaMaximaNanos.get();
+    }
+
+    public int getSeriesMonitoradas() {
+        int total = 0;
+        for (Shard shard : shards) {
+            total += shard.total;
+        }
+        return total;
+    }
+
+    public int getProfundidadeFilas() {
+        int total = 0;
+        for (Shard shard : shards) {
+            total += shard.fila.size();
+        }
+        return total;
+    }
+
+    private static String chave(LeituraMarcador leitura) {
+        return leitura.beneficiarioId + '|' + leitura.marcador.ordinal();
+    }
+
+    /**
+     * Single-threaded partition of the series space.
+     */
+    private final class Shard implements Runnable {
+
+        final int id;
+        final ArrayBlockingQueue<LeituraMarcador> fila;
+        final Thread thread;
+        volatile boolean ativo = true;
+
+        // series state, indexed by slot
+        final HashMap<String, Integer> indice = new HashMap<>();
+        volatile int total;
+        double[] media = new double[1024];
+        double[] variancia = new double[1024];
+        double[] cusumAlta = new double[1024];
+        double[] cusumBaixa = new double[1024];
+        long[] contagem = new long[1024];
+        long[] ultimoAlerta = new long[1024];
+        LimitesClinicos.Limite[] limites = new LimitesClinicos.Limite[1024];
+
+        Shard(int id, int capacidadeFila) {
+            this.id = id;
+            this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+            this.thread = new Thread(this, "detector-anomalias-" + id);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<LeituraMarcador> lote = new ArrayList<>(LOTE);
+            while (ativo) {
+                try {
+                    lote.add(fila.take());
+                    fila.drainTo(lote, LOTE - 1);
+                    for (LeituraMarcador leitura : lote) {
+                        processar(leitura);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException e) {
+                    logger.error("Anomaly detector shard {} failed on a reading: {}", id, e.getMessage(), e);
+                } finally {
+                    lote.clear();
+                }
+            }
+        }
+
+        private void processar(LeituraMarcador leitura) {
+            int i = slot(leitura);
+            LimitesClinicos.Limite limite = limites[i];
+            double valor = leitura.valor;
+            long n = ++contagem[i];
+
+            AlertaMarcador.Tipo tipo = null;
+            double estatistica = valor;
+
+            if (limite.foraDaFaixa(valor)) {
+                tipo = AlertaMarcador.Tipo.FAIXA_CRITICA;
+            }
+
+            double desvio = Math.sqrt(variancia[i]);
+            double valorBase = valor;
+            if (n > aquecimento && desvio > 0) {
+                double z = (valor - media[i]) / desvio;
+                if (tipo == null && Math.abs(z) > limite.zMaximo) {
+                    tipo = AlertaMarcador.Tipo.Z_SCORE;
+                    estatistica = z;
+                }
+
+                double zLimitado = Math.max(-limite.zMaximo, Math.min(limite.zMaximo, z));
+                cusumAlta[i] = Math.max(0, cusumAlta[i] + zLimitado - limite.cusumK);
+                cusumBaixa[i] = Math.max(0, cusumBaixa[i] - zLimitado - limite.cusumK);
+                if (tipo == null && cusumAlta[i] > limite.cusumH) {
+                    tipo = AlertaMarcador.Tipo.CUSUM_ALTA;
+                    estatistica = cusumAlta[i];
+                } else if (tipo == null && cusumBaixa[i] > limite.cusumH) {
+                    tipo = AlertaMarcador.Tipo.CUSUM_BAIXA;
+                    estatistica = cusumBaixa[i];
+                }
+                if (tipo == AlertaMarcador.Tipo.CUSUM_ALTA || tipo == AlertaMarcador.Tipo.CUSUM_BAIXA) {
+                    cusumAlta[i] = 0;
+                    cusumBaixa[i] = 0;
+                }
+                valorBase = media[i] + zLimitado * desvio;
+            }
+
+            double linhaBase = media[i];
+            if (n == 1) {
+                media[i] = valor;
+                variancia[i] = 0;
+            } else {
+                // 1/n while warming up: the baseline starts as the plain running
+                // mean/variance instead of an EWMA biased towards the first reading
+                double peso = Math.max(alfa, 1.0 / n);
+                double diferenca = valorBase - media[i];
+                double incremento = peso * diferenca;
+                media[i] += incremento;
+                variancia[i] = (1 - peso) * (variancia[i] + diferenca * incremento);
+            }
+
+            leiturasProcessadas.increment();
+            if (tipo != null) {
+                emitir(i, leitura, tipo, n == 1 ? valor : linhaBase, estatistica);
+            }
+        }
+
+        private void emitir(int i, LeituraMarcador leitura, AlertaMarcador.Tipo tipo,
+                            double linhaBase, double estatistica) {
+            if (ultimoAlerta[i] != 0 && leitura.timestamp - ultimoAlerta[i] < cooldownMillis) {
+                alertasSuprimidos.increment();
+                return;
+            }
+            ultimoAlerta[i] = leitura.timestamp;
+            AlertaMarcador alerta = new AlertaMarcador(leitura, tipo, linhaBase, estatistica);
+            latenciaMaximaNanos.accumulate(alerta.getLatenciaNanos());
+            alertasEmitidos.increment();
+            destino.accept(alerta);
+        }
+
+        private int slot(LeituraMarcador leitura) {
+            String chave = chave(leitura);
+            Integer slot = indice.get(chave);
+            if (slot != null) {
+                return slot;
+            }
+            int novo = total;
+            if (novo == media.length) {
+                int tamanho = novo * 2;
+                media = Arrays.copyOf(media, tamanho);
+                variancia = Arrays.copyOf(variancia, tamanho);
+                cusumAlta = Arrays.copyOf(cusumAlta, tamanho);
+                cusumBaixa = Arrays.copyOf(cusumBaixa, tamanho);
+                contagem = Arrays.copyOf(contagem, tamanho);
+                ultimoAlerta = Arrays.copyOf(ultimoAlerta, tamanho);
+                limites = Arrays.copyOf(limites, tamanho);
+            }
+            limites[novo] = LimitesClinicos.para(leitura.condicao, leitura.marcador);
+            indice.put(chave, novo);
+            total = novo + 1;
+            return novo;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.austa.experiencia.service.anomalia;
+
+import br.com.austa.experiencia.service.timeseries.Marcador;
+
+/**
+ * One reading of a health-marker stream as it enters the detector.
+ */
+public final class LeituraMarcador {
+
+    final String beneficiarioId;
+    final Marcador marcador;
+    final String condicao;
+    final long timestamp;
+    final double valor;
+    final long recebidoEmNanos;
+
+    public LeituraMarcador(String beneficiarioId, Marcador marcador, String condicao,
+                           long timestamp, double valor) {
+        this.beneficiarioId = beneficiarioId;
+        this.marcador = marcador;
+        this.condicao = condicao;
+        this.timestamp = timestamp;
+        this.valor = valor;
+        this.recebidoEmNanos = System.nanoTime();
+    }
+
+    public String getBeneficiarioId() {
+        return beneficiarioId;
+    }
+
+    public Marcador getMarcador() {
+        return marcador;
+    }
+
+    public String getCondicao() {
+        return condicao;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public double getValor() {
+        return valor;
+    }
+}
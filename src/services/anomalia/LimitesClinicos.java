@@ -0,0 +1,95 @@
+package br.com.austa.experiencia.service.anomalia;
+
+import br.com.austa.experiencia.service.timeseries.Marcador;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Condition-specific alert thresholds for health-marker streams.
+ *
+ * Each marker has a default {@link Limite}; chronic conditions override it
+ * where clinical protocols are stricter (e.g. glucose for DIABETES, blood
+ * pressure for HIPERTENSAO, weight gain for ICC).
+ */
+public final class LimitesClinicos {
+
+    /**
+     * Absolute critical range plus statistical sensitivity for one series.
+     *
+     * - minimo / maximo: critical bounds, alert on the first reading outside them
+     * - zMaximo: |z| of a reading against the EWMA baseline that raises an alert
+     * - cusumK / cusumH: CUSUM slack and decision interval, in standard deviations
+     */
+    public static final class Limite {
+
+        final double minimo;
+        final double maximo;
+        final double zMaximo;
+        final double cusumK;
+        final double cusumH;
+
+        public Limite(double minimo, double maximo, double zMaximo, double cusumK, double cusumH) {
+            this.minimo = minimo;
+            this.maximo = maximo;
+            this.zMaximo = zMaximo;
+            this.cusumK = cusumK;
+            this.cusumH = cusumH;
+        }
+
+        public boolean foraDaFaixa(double valor) {
+            return valor < minimo || valor > maximo;
+        }
+    }
+
+    private static final double SEM_LIMITE = Double.MAX_VALUE;
+
+    private static final Map<Marcador, Limite> PADRAO = new EnumMap<>(Marcador.class);
+    private static final Map<String, Map<Marcador, Limite>> POR_CONDICAO = new HashMap<>();
+
+    static {
+        PADRAO.put(Marcador.GLICOSE_CGM, new Limite(54, 300, 4.0, 0.5, 5.0));
+        PADRAO.put(Marcador.GLICEMIA_JEJUM, new Limite(54, 250, 4.0, 0.5, 5.0));
+        PADRAO.put(Marcador.HBA1C, new Limite(0, 9.0, SEM_LIMITE, 0.5, 4.0));
+        PADRAO.put(Marcador.PA_SISTOLICA, new Limite(90, 180, 4.0, 0.5, 5.0));
+        PADRAO.put(Marcador.PA_DIASTOLICA, new Limite(50, 120, 4.0, 0.5, 5.0));
+        PADRAO.put(Marcador.FREQUENCIA_CARDIACA, new Limite(40, 130, 4.0, 0.5, 5.0));
+        PADRAO.put(Marcador.PESO, new Limite(0, SEM_LIMITE, 4.0, 0.5, 5.0));
+        PADRAO.put(Marcador.PASSOS_DIARIOS, new Limite(-SEM_LIMITE, SEM_LIMITE, SEM_LIMITE, 1.0, 8.0));
+        PADRAO.put(Marcador.COLESTEROL_TOTAL, new Limite(0, 300, SEM_LIMITE, 0.5, 5.0));
+
+        Map<Marcador, Limite> diabetes = new EnumMap<>(Marcador.class);
+        diabetes.put(Marcador.GLICOSE_CGM, new Limite(70, 250, 3.5, 0.5, 4.0));
+        diabetes.put(Marcador.GLICEMIA_JEJUM, new Limite(70, 200, 3.5, 0.5, 4.0));
+        POR_CONDICAO.put("DIABETES", diabetes);
+
+        Map<Marcador, Limite> hipertensao = new EnumMap<>(Marcador.class);
+        hipertensao.put(Marcador.PA_SISTOLICA, new Limite(90, 160, 3.5, 0.5, 4.0));
+        hipertensao.put(Marcador.PA_DIASTOLICA, new Limite(50, 100, 3.5, 0.5, 4.0));
+        POR_CONDICAO.put("HIPERTENSAO", hipertensao);
+
+        // Heart failure: small sustained weight gain (fluid retention) matters
+        Map<Marcador, Limite> icc = new EnumMap<>(Marcador.class);
+        icc.put(Marcador.PESO, new Limite(0, SEM_LIMITE, 3.5, 0.5, 4.0));
+        icc.put(Marcador.FREQUENCIA_CARDIACA, new Limite(45, 110, 3.5, 0.5, 4.0));
+        POR_CONDICAO.put("ICC", icc);
+
+        Map<Marcador, Limite> dpoc = new EnumMap<>(Marcador.class);
+        dpoc.put(Marcador.FREQUENCIA_CARDIACA, new Limite(45, 115, 3.5, 0.5, 4.0));
+        POR_CONDICAO.put("DPOC", dpoc);
+    }
+
+    private LimitesClinicos() {
+    }
+
+    public static Limite para(String condicao, Marcador marcador) {
+        if (condicao != null) {
+            Map<Marcador, Limite> especificos = POR_CONDICAO.get(condicao.toUpperCase());
+            if (especificos != null && especificos.containsKey(marcador)) {
+                return especificos.get(marcador);
+            }
+        }
+        return PADRAO.get(marcador);
+    }
+}
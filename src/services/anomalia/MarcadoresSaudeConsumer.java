@@ -0,0 +1,59 @@
+package br.com.austa.experiencia.service.anomalia;
+
+import br.com.austa.experiencia.service.timeseries.Marcador;
+import br.com.austa.experiencia.service.timeseries.TimeSeriesStore;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Consumes device and app readings from the marcadores-saude topic, appends
+ * them to the marker history and feeds the streaming anomaly detector.
+ *
+ * Expected payload:
+ * {"beneficiarioId": "...", "marcador": "glicoseCgm", "valor": 182.0,
+ *  "timestamp": "2025-12-11T10:15:00Z", "condicaoCronica": "DIABETES"}
+ */
+@Component("marcadoresSaudeConsumer")
+public class MarcadoresSaudeConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MarcadoresSaudeConsumer.class);
+
+    @Autowired
+    private DetectorAnomalias detectorAnomalias;
+
+    @Autowired
+    private TimeSeriesStore timeSeriesStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @KafkaListener(topics = "${anomalia.topico:marcadores-saude}",
+                   groupId = "${anomalia.kafka.group-id:detector-anomalias}",
+                   concurrency = "${anomalia.kafka.concurrency:4}")
+    public void onLeitura(String mensagem) throws Exception {
+        Map<String, Object> evento = objectMapper.readValue(mensagem, new TypeReference<Map<String, Object>>() {});
+
+        String beneficiarioId = (String) evento.get("beneficiarioId");
+        Marcador marcador = Marcador.porChave(String.valueOf(evento.get("marcador")));
+        Number valor = (Number) evento.get("valor");
+        if (beneficiarioId == null || marcador == null || valor == null) {
+            logger.warn("Ignoring invalid marker reading: {}", mensagem);
+            return;
+        }
+
+        Object ts = evento.get("timestamp");
+        long timestamp = ts != null ? Instant.parse(ts.toString()).toEpochMilli() : System.currentTimeMillis();
+
+        timeSeriesStore.registrar(beneficiarioId, marcador, timestamp, valor.doubleValue());
+        detectorAnomalias.submeter(new LeituraMarcador(beneficiarioId, marcador,
+            (String) evento.get("condicaoCronica"), timestamp, valor.doubleValue()));
+    }
+}
@@ -0,0 +1,633 @@
+package br.com.austa.experiencia.service.auditoria;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Journal Auditoria - append-only, hash-chained audit log with group commit
+ *
+ * Callers enqueue a record and get a future that completes once the record
+ * is on disk. A single writer thread drains whatever is queued (up to
+ * {@code auditoria.journal.grupo-max} records), appends it to the current
+ * memory-mapped segment and forces it with one fsync, so concurrent process
+ * steps share the cost of a commit instead of paying one insert each.
+ *
+ * Segment file {@code auditoria-<first sequence>.seg}, preallocated to
+ * {@code auditoria.journal.tamanho-segmento} bytes:
+ * - header: magic(4) reserved(4) firstSequence(8) previousHash(32)
+ * - records: length(4) body(length) hash(32), where body is
+ *   sequence(8) epochMillis(8) pidLen(2) processInstanceId actLen(2)
+ *   activityId JSON data, and hash = SHA-256(previous hash || body)
+ * - a zero length marks the end of the written part
+ * Every record is chained to the one before it, across segments, so editing,
+ * removing or reordering any record breaks {@link #verificar()}.
+ *
+ * A background indexer follows the committed end of the journal and indexes
+ * record positions by processInstanceId and activityId for the auditor
+ * queries; the index is rebuilt from the segments on start. *
+ * The journal is local to the instance that writes it: {@code
+ * auditoria.journal.diretorio} belongs to one node (one volume per
+ * StatefulSet replica, never shared between writers), sequences and the hash
+ * chain are per node, and the queries only see this node's records. The
+ * controller names the node ({@code ids.no}) in every answer so auditors
+ * can tell which part of a process's trail they are looking at.
+ */
+@Component("journalAuditoria")
+public class JournalAuditoria {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalAuditoria.class);
+
+    private static final int MAGIC = 0x41554431; // "AUD1"
+    private static final int CABECALHO = 48;
+    private static final int TAMANHO_HASH = 32;
+    private static final byte[] GENESE = new byte[TAMANHO_HASH];
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final Path diretorio;
+    private final int tamanhoSegmento;
+    private final int grupoMax;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final BlockingQueue<Pendente> fila;
+
+    private final List<MappedByteBuffer> segmentos = new CopyOnWriteArrayList<>();
+    private final List<FileChannel> canais = new CopyOnWriteArrayList<>();
+
+    // writer thread only
+    private final MessageDigest digest = sha256();
+    private long ultimaSequencia;
+    private byte[] ultimoHash;
+    private int posicao;
+
+    // committed end of the journal: segment index << 32 | offset
+    private volatile long confirmado;
+    private volatile long sequenciaConfirmada;
+
+    private final Map<String, Posicoes> porProcesso = new ConcurrentHashMap<>();
+    private final Map<String, Posicoes> porAtividade = new ConcurrentHashMap<>();
+    private long cursorIndice;
+    private volatile long sequenciaIndexada;
+
+    private final LongAdder registros = new LongAdder();
+    private final LongAdder commits = new LongAdder();
+
+    private volatile boolean ativo;
+    private volatile Throwable falha;
+    private Thread escritor;
+    private Thread indexador;
+
+    @Autowired
+    public JournalAuditoria(ObjectMapper objectMapper,
+                            @Value("${auditoria.journal.diretorio:./data/auditoria}") String diretorio,
+                            @Value("${auditoria.journal.tamanho-segmento:67108864}") int tamanhoSegmento,
+                            @Value("${auditoria.journal.grupo-max:512}") int grupoMax,
+                            @Value("${auditoria.journal.fila:65536}") int capacidadeFila) {
+        this(objectMapper, Paths.get(diretorio), tamanhoSegmento, grupoMax, capacidadeFila, Clock.systemUTC());
+    }
+
+    public JournalAuditoria(ObjectMapper objectMapper, Path diretorio, int tamanhoSegmento, int grupoMax,
+                            int capacidadeFila, Clock clock) {
+        if (tamanhoSegmento < 4096) {
+            throw new IllegalArgumentException("auditoria.journal.tamanho-segmento must be at least 4096 bytes");
+        }
+        this.objectMapper = objectMapper;
+        this.diretorio = diretorio;
+        this.tamanhoSegmento = tamanhoSegmento;
+        this.grupoMax = Math.max(1, grupoMax);
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void iniciar() throws IOException {
+        abrir();
+        ativo = true;
+        escritor = new Thread(this::escrever, "auditoria-journal");
+        escritor.setDaemon(true);
+        escritor.start();
+        indexador = new Thread(this::indexar, "auditoria-indexador");
+        indexador.setDaemon(true);
+        indexador.start();
+        logger.info("Audit journal open at {}: {} segment(s), last sequence {}",
+            diretorio, segmentos.size(), ultimaSequencia);
+    }
+
+    /**
+     * Stops accepting records, commits what is queued and closes the segments.
+     */
+    @PreDestroy
+    public void parar() throws InterruptedException, IOException {
+        ativo = false;
+        if (escritor != null) {
+            escritor.join();
+        }
+        if (indexador != null) {
+            LockSupport.unpark(indexador);
+            indexador.join();
+        }
+        for (FileChannel canal : canais) {
+            canal.close();
+        }
+        canais.clear();
+        segmentos.clear();
+    }
+
+    /**
+     * Queues an audit record; blocks only while the queue is full.
+     *
+     * @return future completed with the record's sequence once it is durable
+     */
+    public CompletableFuture<Long> registrar(String processInstanceId, String activityId,
+                                             Map<String, Object> dados) {
+        Throwable erro = falha;
+        if (erro != null) {
+            throw new IllegalStateException("Audit journal stopped after a write failure", erro);
+        }
+        if (!ativo) {
+            throw new IllegalStateException("Audit journal is not running");
+        }
+        byte[] pid = utf8(processInstanceId);
+        byte[] atividade = utf8(activityId);
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(dados);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Audit data is not serializable: " + e.getMessage(), e);
+        }
+        if (pid.length > 0xFFFF || atividade.length > 0xFFFF
+                || 4 + 20 + pid.length + atividade.length + json.length + TAMANHO_HASH > tamanhoSegmento - CABECALHO) {
+            throw new IllegalArgumentException("Audit record does not fit in a journal segment");
+        }
+        Pendente pendente = new Pendente(clock.millis(), pid, atividade, json);
+        try {
+            fila.put(pendente);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pendente.futuro.completeExceptionally(e);
+        }
+        return pendente.futuro;
+    }
+
+    /**
+     * Every committed record of a process instance, in order.
+     */
+    public List<RegistroAuditoria> porProcesso(String processInstanceId) {
+        return ler(porProcesso.get(processInstanceId), null, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Records of an activity with {@code de <= dataEvento < ate} (null for no
+     * bound), oldest first, at most {@code limite}.
+     */
+    public List<RegistroAuditoria> porAtividade(String activityId, Instant de, Instant ate, int limite) {
+        return ler(porAtividade.get(activityId), de, ate, limite);
+    }
+
+    /**
+     * Re-walks every committed record and checks sequences and the hash chain.
+     */
+    public ResultadoVerificacao verificar() {
+        long fim = confirmado;
+        int ultimoSegmento = (int) (fim >>> 32);
+        MessageDigest verificador = sha256();
+        byte[] hashAnterior = GENESE;
+        long esperada = 1;
+        long verificados = 0;
+
+        for (int s = 0; s <= ultimoSegmento; s++) {
+            MappedByteBuffer segmento = segmentos.get(s);
+            byte[] anteriorCabecalho = new byte[TAMANHO_HASH];
+            segmento.get(16, anteriorCabecalho);
+            if (segmento.getInt(0) != MAGIC || segmento.getLong(8) != esperada) {
+                return new ResultadoVerificacao(verificados, esperada, "segment " + s + " header out of sequence");
+            }
+            if (!Arrays.equals(anteriorCabecalho, hashAnterior)) {
+                return new ResultadoVerificacao(verificados, esperada, "segment " + s + " does not chain to the previous one");
+            }
+            int limite = s == ultimoSegmento ? (int) fim : segmento.capacity();
+            int pos = CABECALHO;
+            while (pos + 4 <= limite) {
+                int tamanho = segmento.getInt(pos);
+                if (tamanho == 0) {
+                    break;
+                }
+                if (tamanho < 20 || pos + 4 + tamanho + TAMANHO_HASH > limite) {
+                    return new ResultadoVerificacao(verificados, esperada, "invalid record length");
+                }
+                byte[] corpo = new byte[tamanho];
+                segmento.get(pos + 4, corpo);
+                if (lerLong(corpo, 0) != esperada) {
+                    return new ResultadoVerificacao(verificados, esperada, "sequence gap");
+                }
+                verificador.update(hashAnterior);
+                verificador.update(corpo);
+                byte[] calculado = verificador.digest();
+                byte[] gravado = new byte[TAMANHO_HASH];
+                segmento.get(pos + 4 + tamanho, gravado);
+                if (!Arrays.equals(calculado, gravado)) {
+                    return new ResultadoVerificacao(verificados, esperada, "hash mismatch");
+                }
+                hashAnterior = calculado;
+                esperada++;
+                verificados++;
+                pos += 4 + tamanho + TAMANHO_HASH;
+            }
+        }
+        return new ResultadoVerificacao(verificados, -1, null);
+    }
+
+    public long getSequenciaConfirmada() {
+        return sequenciaConfirmada;
+    }
+
+    public long getSequenciaIndexada() {
+        return sequenciaIndexada;
+    }
+
+    public long getRegistros() {
+        return registros.sum();
+    }
+
+    /**
+     * Number of fsyncs; {@link #getRegistros()} / commits is the group size achieved.
+     */
+    public long getCommits() {
+        return commits.sum();
+    }
+
+    public int getPendentes() {
+        return fila.size();
+    }
+
+    // ---------------------------------------------------------------- writer
+
+    private void escrever() {
+        List<Pendente> lote = new ArrayList<>(grupoMax);
+        while (ativo || !fila.isEmpty()) {
+            Pendente primeiro;
+            try {
+                primeiro = fila.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (primeiro == null) {
+                continue;
+            }
+            lote.add(primeiro);
+            fila.drainTo(lote, grupoMax - 1);
+            if (falha != null) {
+                lote.forEach(p -> p.futuro.completeExceptionally(falha));
+            } else {
+                try {
+                    gravarLote(lote);
+                } catch (IOException | RuntimeException e) {
+                    logger.error("Audit journal write failed, rejecting further records", e);
+                    falha = e;
+                    lote.forEach(p -> p.futuro.completeExceptionally(e));
+                }
+            }
+            lote.clear();
+        }
+    }
+
+    private void gravarLote(List<Pendente> lote) throws IOException {
+        int inicioLote = posicao;
+        for (Pendente pendente : lote) {
+            long sequencia = ultimaSequencia + 1;
+            byte[] corpo = pendente.corpo(sequencia);
+            int total = 4 + corpo.length + TAMANHO_HASH;
+            if (posicao + total > segmentoAtual().capacity()) {
+                segmentoAtual().force(inicioLote, posicao - inicioLote);
+                criarSegmento(sequencia, ultimoHash);
+                inicioLote = 0;
+            }
+            digest.update(ultimoHash);
+            digest.update(corpo);
+            byte[] hash = digest.digest();
+
+            MappedByteBuffer segmento = segmentoAtual();
+            segmento.putInt(posicao, corpo.length);
+            segmento.put(posicao + 4, corpo);
+            segmento.put(posicao + 4 + corpo.length, hash);
+            posicao += total;
+            ultimaSequencia = sequencia;
+            ultimoHash = hash;
+            pendente.sequencia = sequencia;
+        }
+        segmentoAtual().force(inicioLote, posicao - inicioLote);
+        commits.increment();
+        registros.add(lote.size());
+
+        confirmado = ((long) (segmentos.size() - 1) << 32) | posicao;
+        sequenciaConfirmada = ultimaSequencia;
+        LockSupport.unpark(indexador);
+        for (Pendente pendente : lote) {
+            pendente.futuro.complete(pendente.sequencia);
+        }
+    }
+
+    private MappedByteBuffer segmentoAtual() {
+        return segmentos.get(segmentos.size() - 1);
+    }
+
+    private void criarSegmento(long primeiraSequencia, byte[] hashAnterior) throws IOException {
+        Path arquivo = diretorio.resolve(String.format("auditoria-%020d.seg", primeiraSequencia));
+        FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer segmento = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanhoSegmento);
+        segmento.putInt(0, MAGIC);
+        segmento.putLong(8, primeiraSequencia);
+        segmento.put(16, hashAnterior);
+        segmento.force(0, CABECALHO);
+        canais.add(canal);
+        segmentos.add(segmento);
+        posicao = CABECALHO;
+    }
+
+    /**
+     * Maps existing segments and finds the end of the last one. A record at
+     * the tail that does not match its hash is a write torn by a crash before
+     * its commit completed; it is moved aside and its sequence reused.
+     */
+    private void abrir() throws IOException {
+        Files.createDirectories(diretorio);
+        List<Path> arquivos;
+        try (Stream<Path> lista = Files.list(diretorio)) {
+            arquivos = lista.filter(p -> p.getFileName().toString().matches("auditoria-\\d{20}\\.seg"))
+                .sorted().toList();
+        }
+        if (arquivos.isEmpty()) {
+            ultimaSequencia = 0;
+            ultimoHash = GENESE;
+            criarSegmento(1, GENESE);
+        } else {
+            for (Path arquivo : arquivos) {
+                FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                canais.add(canal);
+                segmentos.add(canal.map(FileChannel.MapMode.READ_WRITE, 0, canal.size()));
+            }
+            recuperarFim(segmentoAtual());
+        }
+        confirmado = ((long) (segmentos.size() - 1) << 32) | posicao;
+        sequenciaConfirmada = ultimaSequencia;
+        cursorIndice = (long) CABECALHO;
+    }
+
+    /**
+     * Moves the unverifiable tail to {@code auditoria-<sequence>.descartado}
+     * so it stays available to auditors, then clears it for new records.
+     */
+    private void descartarCauda(MappedByteBuffer segmento, int pos, long sequencia) throws IOException {
+        int fim = segmento.capacity();
+        while (fim > pos && segmento.get(fim - 1) == 0) {
+            fim--;
+        }
+        byte[] cauda = new byte[fim - pos];
+        segmento.get(pos, cauda);
+        Path arquivo = diretorio.resolve(String.format("auditoria-%020d.descartado", sequencia));
+        Files.write(arquivo, cauda);
+        logger.error("Audit journal tail from sequence {} does not match its hash chain (torn write or tampering); "
+            + "{} bytes moved to {}", sequencia, cauda.length, arquivo);
+        segmento.put(pos, new byte[fim - pos]);
+        segmento.force();
+    }
+
+    private void recuperarFim(MappedByteBuffer segmento) throws IOException {
+        long esperada = segmento.getLong(8);
+        byte[] hash = new byte[TAMANHO_HASH];
+        segmento.get(16, hash);
+        int pos = CABECALHO;
+        while (pos + 4 <= segmento.capacity()) {
+            int tamanho = segmento.getInt(pos);
+            if (tamanho == 0) {
+                break;
+            }
+            boolean valido = tamanho >= 20 && pos + 4 + tamanho + TAMANHO_HASH <= segmento.capacity();
+            if (valido) {
+                byte[] corpo = new byte[tamanho];
+                segmento.get(pos + 4, corpo);
+                digest.update(hash);
+                digest.update(corpo);
+                byte[] calculado = digest.digest();
+                byte[] gravado = new byte[TAMANHO_HASH];
+                segmento.get(pos + 4 + tamanho, gravado);
+                valido = lerLong(corpo, 0) == esperada && Arrays.equals(calculado, gravado);
+                if (valido) {
+                    hash = calculado;
+                    esperada++;
+                    pos += 4 + tamanho + TAMANHO_HASH;
+                    continue;
+                }
+            }
+            descartarCauda(segmento, pos, esperada);
+            break;
+        }
+        ultimaSequencia = esperada - 1;
+        ultimoHash = hash;
+        posicao = pos;
+    }
+
+    // --------------------------------------------------------------- indexer
+
+    private void indexar() {
+        while (true) {
+            long alvo = confirmado;
+            if (cursorIndice != alvo) {
+                try {
+                    indexarAte(alvo);
+                } catch (RuntimeException e) {
+                    logger.error("Audit indexer failed at {}", Long.toHexString(cursorIndice), e);
+                    return;
+                }
+            } else if (!ativo) {
+                return;
+            } else {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+            }
+        }
+    }
+
+    private void indexarAte(long alvo) {
+        int s = (int) (cursorIndice >>> 32);
+        int pos = (int) cursorIndice;
+        int segmentoAlvo = (int) (alvo >>> 32);
+        while (s < segmentoAlvo || pos < (int) alvo) {
+            MappedByteBuffer segmento = segmentos.get(s);
+            if (s < segmentoAlvo && (pos + 4 > segmento.capacity() || segmento.getInt(pos) == 0)) {
+                s++;
+                pos = CABECALHO;
+                continue;
+            }
+            int tamanho = segmento.getInt(pos);
+            long ponteiro = ((long) s << 32) | pos;
+            long sequencia = segmento.getLong(pos + 4);
+            int tamanhoPid = segmento.getShort(pos + 20) & 0xFFFF;
+            String pid = texto(segmento, pos + 22, tamanhoPid);
+            int tamanhoAtividade = segmento.getShort(pos + 22 + tamanhoPid) & 0xFFFF;
+            String atividade = texto(segmento, pos + 24 + tamanhoPid, tamanhoAtividade);
+            porProcesso.computeIfAbsent(pid, k -> new Posicoes()).adicionar(ponteiro);
+            porAtividade.computeIfAbsent(atividade, k -> new Posicoes()).adicionar(ponteiro);
+            sequenciaIndexada = sequencia;
+            pos += 4 + tamanho + TAMANHO_HASH;
+        }
+        cursorIndice = ((long) s << 32) | pos;
+    }
+
+    // ---------------------------------------------------------------- reads
+
+    private List<RegistroAuditoria> ler(Posicoes posicoes, Instant de, Instant ate, int limite) {
+        List<RegistroAuditoria> resultado = new ArrayList<>();
+        if (posicoes == null) {
+            return resultado;
+        }
+        for (long ponteiro : posicoes.copia()) {
+            if (resultado.size() >= limite) {
+                break;
+            }
+            MappedByteBuffer segmento = segmentos.get((int) (ponteiro >>> 32));
+            int pos = (int) ponteiro;
+            Instant dataEvento = Instant.ofEpochMilli(segmento.getLong(pos + 12));
+            if ((de != null && dataEvento.isBefore(de)) || (ate != null && !dataEvento.isBefore(ate))) {
+                continue;
+            }
+            resultado.add(lerRegistro(segmento, pos, dataEvento));
+        }
+        return resultado;
+    }
+
+    @SuppressWarnings("unchecked")
+    private RegistroAuditoria lerRegistro(MappedByteBuffer segmento, int pos, Instant dataEvento) {
+        int tamanho = segmento.getInt(pos);
+        long sequencia = segmento.getLong(pos + 4);
+        int tamanhoPid = segmento.getShort(pos + 20) & 0xFFFF;
+        String pid = texto(segmento, pos + 22, tamanhoPid);
+        int inicioAtividade = pos + 24 + tamanhoPid;
+        int tamanhoAtividade = segmento.getShort(inicioAtividade - 2) & 0xFFFF;
+        String atividade = texto(segmento, inicioAtividade, tamanhoAtividade);
+        int inicioJson = inicioAtividade + tamanhoAtividade;
+        byte[] json = new byte[pos + 4 + tamanho - inicioJson];
+        segmento.get(inicioJson, json);
+        byte[] hash = new byte[TAMANHO_HASH];
+        segmento.get(pos + 4 + tamanho, hash);
+        Map<String, Object> dados;
+        try {
+            dados = objectMapper.readValue(json, Map.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable audit record " + sequencia, e);
+        }
+        return new RegistroAuditoria(sequencia, dataEvento, pid, atividade, dados, HEX.formatHex(hash));
+    }
+
+    private static String texto(MappedByteBuffer segmento, int pos, int tamanho) {
+        byte[] bytes = new byte[tamanho];
+        segmento.get(pos, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] utf8(String valor) {
+        return valor == null ? new byte[0] : valor.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long lerLong(byte[] bytes, int pos) {
+        long valor = 0;
+        for (int i = 0; i < 8; i++) {
+            valor = (valor << 8) | (bytes[pos + i] & 0xFF);
+        }
+        return valor;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class Pendente {
+        final long epochMillis;
+        final byte[] processInstanceId;
+        final byte[] activityId;
+        final byte[] json;
+        final CompletableFuture<Long> futuro = new CompletableFuture<>();
+        long sequencia;
+
+        Pendente(long epochMillis, byte[] processInstanceId, byte[] activityId, byte[] json) {
+            this.epochMillis = epochMillis;
+            this.processInstanceId = processInstanceId;
+            this.activityId = activityId;
+            this.json = json;
+        }
+
+        byte[] corpo(long sequencia) {
+            byte[] corpo = new byte[20 + processInstanceId.length + activityId.length + json.length];
+            ByteBuffer buffer = ByteBuffer.wrap(corpo);
+            buffer.putLong(sequencia).putLong(epochMillis);
+            buffer.putShort((short) processInstanceId.length).put(processInstanceId);
+            buffer.putShort((short) activityId.length).put(activityId);
+            buffer.put(json);
+            return corpo;
+        }
+    }
+
+    /**
+     * Append-only list of record positions; one writer (the indexer), any number of readers.
+     */
+    private static final class Posicoes {
+        private volatile long[] valores = new long[4];
+        private volatile int tamanho;
+
+        void adicionar(long ponteiro) {
+            long[] atual = valores;
+            int n = tamanho;
+            if (n == atual.length) {
+                atual = Arrays.copyOf(atual, n * 2);
+                atual[n] = ponteiro;
+                valores = atual;
+            } else {
+                atual[n] = ponteiro;
+            }
+            tamanho = n + 1;
+        }
+
+        long[] copia() {
+            int n = tamanho;
+            return Arrays.copyOf(valores, n);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.austa.experiencia.service.auditoria;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Auditor queries over the audit journal of this node.
+ *
+ * GET /api/v1/auditoria/processos/{processInstanceId}/registros
+ * GET /api/v1/auditoria/atividades/{activityId}/registros?de=&ate=&limite=
+ * GET /api/v1/auditoria/integridade
+ *
+ * Each instance keeps its own journal and a process's steps run on whichever
+ * instance picks them up, so these answers cover only the records written on
+ * the node that serves them. Every response names that node ({@code ids.no})
+ * in the {@code X-Auditoria-No} header and in each record or verification
+ * body; a complete trail is every node's answer merged by {@code dataEvento},
+ * and each node's chain is verified on that node.
+ */
+@RestController
+@RequestMapping("/api/v1/auditoria")
+public class JournalAuditoriaController {
+
+    static final String CABECALHO_NO = "X-Auditoria-No";
+
+    private final JournalAuditoria journalAuditoria;
+    private final int no;
+
+    @Autowired
+    public JournalAuditoriaController(JournalAuditoria journalAuditoria, @Value("${ids.no:0}") int no) {
+        this.journalAuditoria = journalAuditoria;
+        this.no = no;
+    }
+
+    @GetMapping("/processos/{processInstanceId}/registros")
+    public ResponseEntity<List<Map<String, Object>>> porProcesso(@PathVariable String processInstanceId) {
+        return doNo(200, paraMapas(journalAuditoria.porProcesso(processInstanceId)));
+    }
+
+    @GetMapping("/atividades/{activityId}/registros")
+    public ResponseEntity<List<Map<String, Object>>> porAtividade(
+            @PathVariable String activityId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant ate,
+            @RequestParam(defaultValue = "1000") int limite) {
+        return doNo(200, paraMapas(journalAuditoria.porAtividade(activityId, de, ate, limite)));
+    }
+
+    /**
+     * Re-walks this node's hash chain; 409 when a record was altered or removed.
+     */
+    @GetMapping("/integridade")
+    public ResponseEntity<Map<String, Object>> integridade() {
+        ResultadoVerificacao resultado = journalAuditoria.verificar();
+        Map<String, Object> corpo = resultado.toMap();
+        corpo.put("no", no);
+        return doNo(resultado.isIntegro() ? 200 : 409, corpo);
+    }
+
+    private <T> ResponseEntity<T> doNo(int status, T corpo) {
+        return ResponseEntity.status(status).header(CABECALHO_NO, String.valueOf(no)).body(corpo);
+    }
+
+    private List<Map<String, Object>> paraMapas(List<RegistroAuditoria> registros) {
+        return registros.stream().map(registro -> {
+            Map<String, Object> mapa = registro.toMap();
+            mapa.put("no", no);
+            return mapa;
+        }).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.austa.experiencia.service.auditoria;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One audited activity as read back from the journal.
+ */
+public final class RegistroAuditoria {
+
+    private final long sequencia;
+    private final Instant dataEvento;
+    private final String processInstanceId;
+    private final String activityId;
+    private final Map<String, Object> dados;
+    private final String hash;
+
+    RegistroAuditoria(long sequencia, Instant dataEvento, String processInstanceId, String activityId,
+                      Map<String, Object> dados, String hash) {
+        this.sequencia = sequencia;
+        this.dataEvento = dataEvento;
+        this.processInstanceId = processInstanceId;
+        this.activityId = activityId;
+        this.dados = dados;
+        this.hash = hash;
+    }
+
+    public long getSequencia() {
+        return sequencia;
+    }
+
+    public Instant getDataEvento() {
+        return dataEvento;
+    }
+
+    public String getProcessInstanceId() {
+        return processInstanceId;
+    }
+
+    public String getActivityId() {
+        return activityId;
+    }
+
+    public Map<String, Object> getDados() {
+        return dados;
+    }
+
+    /**
+     * SHA-256 chaining this record to all records before it.
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> mapa = new LinkedHashMap<>();
+        mapa.put("sequencia", sequencia);
+        mapa.put("dataEvento", dataEvento.toString());
+        mapa.put("processInstanceId", processInstanceId);
+        mapa.put("activityId", activityId);
+        mapa.put("dados", dados);
+        mapa.put("hash", hash);
+        return mapa;
+    }
+}
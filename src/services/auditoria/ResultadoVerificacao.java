@@ -0,0 +1,50 @@
+package br.com.austa.experiencia.service.auditoria;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome of re-walking the journal's hash chain.
+ */
+public final class ResultadoVerificacao {
+
+    private final long registrosVerificados;
+    private final long sequenciaInvalida;
+    private final String motivo;
+
+    ResultadoVerificacao(long registrosVerificados, long sequenciaInvalida, String motivo) {
+        this.registrosVerificados = registrosVerificados;
+        this.sequenciaInvalida = sequenciaInvalida;
+        this.motivo = motivo;
+    }
+
+    public boolean isIntegro() {
+        return motivo == null;
+    }
+
+    public long getRegistrosVerificados() {
+        return registrosVerificados;
+    }
+
+    /**
+     * First sequence that does not match the chain, or -1 when the journal is intact.
+     */
+    public long getSequenciaInvalida() {
+        return sequenciaInvalida;
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> mapa = new LinkedHashMap<>();
+        mapa.put("integro", isIntegro());
+        mapa.put("registrosVerificados", registrosVerificados);
+        if (!isIntegro()) {
+            mapa.put("sequenciaInvalida", sequenciaInvalida);
+            mapa.put("motivo", motivo);
+        }
+        return mapa;
+    }
+}
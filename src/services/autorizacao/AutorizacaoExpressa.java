@@ -0,0 +1,295 @@
+package br.com.austa.experiencia.service.autorizacao;
+
+import br.com.austa.experiencia.model.dto.ElegibilidadeDTO;
+import br.com.austa.experiencia.service.autorizacao.ResultadoAutorizacaoExpressa.Etapa;
+import br.com.austa.experiencia.service.cobertura.MotorCobertura;
+import br.com.austa.experiencia.service.cobertura.VerificacaoCobertura;
+import br.com.austa.experiencia.service.domain.TissService;
+import br.com.austa.experiencia.service.metricas.HistogramaLatencia;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Autorização Expressa - straight-through authorization for SUB-006
+ *
+ * Fuses the checks of the full path into one in-memory evaluation inside the
+ * start transaction:
+ * - TISS guide validation (same rules as tissService.validarGuia)
+ * - coverage, carência and CPT from the compiled {@link MotorCobertura}
+ * - eligibility and provider status: the only remote calls, run in parallel
+ *   on a bounded pool while the protocol table is evaluated
+ * - DMN_ProtocoloClinico, then DMN_RegrasAutorizacao with its result
+ *
+ * Only a clean approval (APROVADO without análise técnica) is decided here.
+ * Anything that needs review, a denial with justification, or a lookup that
+ * misses {@code autorizacao.expressa.prazo-ms} goes to the full BPMN path,
+ * which repeats the checks with its own variable trail.
+ */
+@Component("autorizacaoExpressa")
+public class AutorizacaoExpressa {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutorizacaoExpressa.class);
+
+    private final TissService tissService;
+    private final MotorCobertura motorCobertura;
+    private final ConsultasAutorizacao consultas;
+    private final TabelasDecisao tabelas;
+    private final long prazoNanos;
+    private final ThreadPoolExecutor executor;
+
+    private final HistogramaLatencia latencia = new HistogramaLatencia();
+    private final HistogramaLatencia latenciaAprovadas = new HistogramaLatencia();
+    private final LongAdder aprovadas = new LongAdder();
+    private final Map<Etapa, LongAdder> encaminhadas = new EnumMap<>(Etapa.class);
+
+    @Autowired
+    public AutorizacaoExpressa(TissService tissService, MotorCobertura motorCobertura,
+                               ConsultasAutorizacao consultas, TabelasDecisao tabelas,
+                               @Value("${autorizacao.expressa.threads:32}") int threads,
+                               @Value("${autorizacao.expressa.fila:512}") int capacidadeFila,
+                               @Value("${autorizacao.expressa.prazo-ms:40}") long prazoMillis) {
+        this.tissService = tissService;
+        this.motorCobertura = motorCobertura;
+        this.consultas = consultas;
+        this.tabelas = tabelas;
+        this.prazoNanos = TimeUnit.MILLISECONDS.toNanos(prazoMillis);
+
+        AtomicInteger sequencia = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(capacidadeFila), r -> {
+                Thread thread = new Thread(r, "autorizacao-expressa-" + sequencia.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.executor.prestartAllCoreThreads();
+        for (Etapa etapa : Etapa.values()) {
+            encaminhadas.put(etapa, new LongAdder());
+        }
+    }
+
+    @PreDestroy
+    public void parar() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Evaluates the guide; never throws, failures route to the full path.
+     */
+    public ResultadoAutorizacaoExpressa avaliar(SolicitacaoAutorizacao solicitacao) {
+        long inicio = System.nanoTime();
+        ResultadoAutorizacaoExpressa resultado;
+        try {
+            resultado = executar(solicitacao, inicio);
+        } catch (RuntimeException e) {
+            logger.warn("Falha na autorização expressa da guia {}: {}", solicitacao.getNumeroGuia(),
+                e.getMessage(), e);
+            resultado = ResultadoAutorizacaoExpressa.fluxoCompleto(Etapa.FALHA_TECNICA, e.getMessage(),
+                System.nanoTime() - inicio);
+        }
+
+        latencia.registrar(resultado.getDuracaoNanos());
+        if (resultado.isAprovada()) {
+            aprovadas.increment();
+            latenciaAprovadas.registrar(resultado.getDuracaoNanos());
+            logger.info("Guia {} aprovada na via expressa em {} µs", solicitacao.getNumeroGuia(),
+                resultado.getDuracaoNanos() / 1_000);
+        } else {
+            encaminhadas.get(resultado.getEtapa()).increment();
+            logger.info("Guia {} encaminhada ao fluxo completo - etapa: {}, motivo: {}",
+                solicitacao.getNumeroGuia(), resultado.getEtapa(), resultado.getMotivo());
+        }
+        return resultado;
+    }
+
+    private ResultadoAutorizacaoExpressa executar(SolicitacaoAutorizacao solicitacao, long inicio) {
+        // 1. Guide: structure and TUSS codes
+        String faltante = campoFaltante(solicitacao);
+        if (faltante != null) {
+            return fluxoCompleto(Etapa.GUIA_TISS, "Dado obrigatório ausente para a via expressa: " + faltante, inicio);
+        }
+        List<String> erros = tissService.validarGuia(solicitacao.getGuia(), new ArrayList<>());
+        if (!erros.isEmpty()) {
+            return fluxoCompleto(Etapa.GUIA_TISS, erros.get(0), inicio);
+        }
+
+        // 2. Coverage, carência and CPT from the compiled matrix: sub-microsecond, so it
+        //    runs before any remote call is spent on a guide that cannot be approved here
+        if (!motorCobertura.isCarregado()) {
+            return fluxoCompleto(Etapa.COBERTURA, "Matriz de cobertura ainda não carregada", inicio);
+        }
+        VerificacaoCobertura cobertura = motorCobertura.verificar(solicitacao.getBeneficiarioId(),
+            solicitacao.getCodigoProcedimento(), solicitacao.getDataProcedimento(), solicitacao.isUrgencia());
+        if (!cobertura.isCoberto()) {
+            return fluxoCompleto(Etapa.COBERTURA, cobertura.getMotivo(), inicio);
+        }
+
+        // 3. Remote lookups in flight while the protocol table is evaluated
+        Future<ElegibilidadeDTO> elegibilidadeFutura = null;
+        Future<SituacaoPrestador> prestadorFuturo = null;
+        boolean atendeProtocolo;
+        ElegibilidadeDTO elegibilidade;
+        SituacaoPrestador prestador;
+        try {
+            try {
+                elegibilidadeFutura = executor.submit(() -> consultas.elegibilidade(solicitacao));
+                prestadorFuturo = executor.submit(() -> consultas.situacaoPrestador(solicitacao.getPrestadorId()));
+            } catch (RejectedExecutionException e) {
+                return fluxoCompleto(Etapa.CONSULTA_REMOTA, "Capacidade da via expressa esgotada", inicio);
+            }
+
+            // 4. Clinical protocol: only needs the guide
+            Map<String, Object> protocolo = tabelas.avaliar(TabelasDecisao.PROTOCOLO_CLINICO,
+                solicitacao.variaveisProtocolo());
+            atendeProtocolo = Boolean.TRUE.equals(protocolo.get("atendeProtocolo"));
+
+            // 5. Join the remote lookups within what is left of the deadline
+            try {
+                elegibilidade = aguardar(elegibilidadeFutura, inicio);
+                prestador = aguardar(prestadorFuturo, inicio);
+            } catch (TimeoutException e) {
+                return fluxoCompleto(Etapa.CONSULTA_REMOTA,
+                    "Consultas remotas excederam " + TimeUnit.NANOSECONDS.toMillis(prazoNanos) + " ms", inicio);
+            } catch (ExecutionException e) {
+                return fluxoCompleto(Etapa.CONSULTA_REMOTA, e.getCause().getMessage(), inicio);
+            }
+        } finally {
+            // Scope exit: a lookup that missed the deadline, or whose sibling failed,
+            // does not keep holding a pool thread after the guide has been routed
+            cancelar(elegibilidadeFutura);
+            cancelar(prestadorFuturo);
+        }
+
+        if (!elegibilidade.isElegivel()) {
+            return fluxoCompleto(Etapa.ELEGIBILIDADE, elegibilidade.getMotivoInelegibilidade(), inicio);
+        }
+        if (elegibilidade.getBeneficiarioId() != null
+                && !elegibilidade.getBeneficiarioId().equals(solicitacao.getBeneficiarioId())) {
+            return fluxoCompleto(Etapa.ELEGIBILIDADE, "Cartão não pertence ao beneficiário da guia", inicio);
+        }
+        if (elegibilidade.getDataAdesao() == null) {
+            return fluxoCompleto(Etapa.ELEGIBILIDADE, "Data de adesão não informada pelo Tasy", inicio);
+        }
+        if (prestador.isSuspenso()) {
+            return fluxoCompleto(Etapa.PRESTADOR, prestador.getMotivo(), inicio);
+        }
+
+        // 6. Authorization rules
+        long diasDesdeAdesao = ChronoUnit.DAYS.between(elegibilidade.getDataAdesao(),
+            solicitacao.getDataProcedimento());
+        Map<String, Object> entradaRegras = new HashMap<>();
+        entradaRegras.put("tipoProcedimento", solicitacao.getTipoProcedimento());
+        entradaRegras.put("diasDesdeAdesao", diasDesdeAdesao);
+        entradaRegras.put("valorProcedimento", solicitacao.getValorProcedimento());
+        entradaRegras.put("atendeProtocolo", atendeProtocolo);
+        entradaRegras.put("prestadorRede", prestador.isRede());
+        Map<String, Object> regras = tabelas.avaliar(TabelasDecisao.REGRAS_AUTORIZACAO, entradaRegras);
+
+        String decisao = (String) regras.get("decisaoAutorizacao");
+        String motivoDecisao = (String) regras.get("motivoDecisao");
+        if (!"APROVADO".equals(decisao) || !Boolean.FALSE.equals(regras.get("requerAnaliseTecnica"))) {
+            return fluxoCompleto(Etapa.REGRAS,
+                motivoDecisao != null ? motivoDecisao : "Nenhuma regra de autorização aplicável", inicio);
+        }
+
+        Map<String, Object> variaveis = new HashMap<>();
+        variaveis.put("beneficiarioElegivel", true);
+        variaveis.put("nomeBeneficiario", elegibilidade.getNomeBeneficiario());
+        variaveis.put("statusPlano", elegibilidade.getStatusPlano());
+        variaveis.put("diasDesdeAdesao", diasDesdeAdesao);
+        variaveis.put("prestadorRede", prestador.isRede());
+        variaveis.put("coberturaValida", true);
+        variaveis.put("carenciaAtiva", false);
+        variaveis.put("diasCarenciaRestantes", 0);
+        variaveis.put("valorCoparticipacao", cobertura.getCoparticipacao() != null
+            ? cobertura.getCoparticipacao() : BigDecimal.ZERO);
+        variaveis.put("atendeProtocolo", atendeProtocolo);
+        variaveis.put("decisaoAutorizacao", decisao);
+        variaveis.put("motivoDecisao", motivoDecisao);
+        variaveis.put("requerAnaliseTecnica", false);
+        variaveis.put("requerAuditoria", false);
+        variaveis.put("statusAutorizacao", "APROVADA");
+        return ResultadoAutorizacaoExpressa.aprovada(motivoDecisao, variaveis, System.nanoTime() - inicio);
+    }
+
+    private <T> T aguardar(Future<T> futuro, long inicio) throws TimeoutException, ExecutionException {
+        long restante = prazoNanos - (System.nanoTime() - inicio);
+        try {
+            return futuro.get(Math.max(0, restante), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrompido aguardando consulta remota");
+        }
+    }
+
+    private static void cancelar(Future<?> futuro) {
+        if (futuro != null && !futuro.isDone()) {
+            futuro.cancel(true);
+        }
+    }
+
+    private static String campoFaltante(SolicitacaoAutorizacao solicitacao) {
+        if (solicitacao.getBeneficiarioId() == null) {
+            return "beneficiarioId";
+        }
+        if (solicitacao.getCartaoNumero() == null) {
+            return "cartaoNumero";
+        }
+        if (solicitacao.getCodigoProcedimento() == null) {
+            return "codigoProcedimento";
+        }
+        if (solicitacao.getTipoProcedimento() == null) {
+            return "tipoProcedimento";
+        }
+        if (solicitacao.getValorProcedimento() == null) {
+            return "valorProcedimento";
+        }
+        if (solicitacao.getPrestadorId() == null) {
+            return "prestadorId";
+        }
+        if (solicitacao.getDataProcedimento() == null) {
+            return "dataProcedimento";
+        }
+        return null;
+    }
+
+    private static ResultadoAutorizacaoExpressa fluxoCompleto(Etapa etapa, String motivo, long inicio) {
+        return ResultadoAutorizacaoExpressa.fluxoCompleto(etapa, motivo, System.nanoTime() - inicio);
+    }
+
+    public HistogramaLatencia getLatencia() {
+        return latencia;
+    }
+
+    public HistogramaLatencia getLatenciaAprovadas() {
+        return latenciaAprovadas;
+    }
+
+    public long getAprovadas() {
+        return aprovadas.sum();
+    }
+
+    public long getEncaminhadas(Etapa etapa) {
+        return encaminhadas.get(etapa).sum();
+    }
+}
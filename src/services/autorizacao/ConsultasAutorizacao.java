@@ -0,0 +1,22 @@
+package br.com.austa.experiencia.service.autorizacao;
+
+import br.com.austa.experiencia.model.dto.ElegibilidadeDTO;
+
+/**
+ * Remote lookups of the straight-through authorization path.
+ *
+ * Both are blocking calls; {@link AutorizacaoExpressa} runs them in parallel
+ * on its own bounded pool under the fast-path deadline.
+ */
+public interface ConsultasAutorizacao {
+
+    /**
+     * Eligibility of the card holder on the procedure date (Tasy).
+     */
+    ElegibilidadeDTO elegibilidade(SolicitacaoAutorizacao solicitacao);
+
+    /**
+     * Network and suspension status of the requesting provider.
+     */
+    SituacaoPrestador situacaoPrestador(String prestadorId);
+}
@@ -0,0 +1,66 @@
+package br.com.austa.experiencia.service.autorizacao;
+
+import br.com.austa.experiencia.exception.IntegrationException;
+import br.com.austa.experiencia.model.dto.ElegibilidadeDTO;
+import br.com.austa.experiencia.service.integration.TasyBeneficiarioService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+
+/**
+ * Tasy-backed lookups for the straight-through authorization path
+ *
+ * - Eligibility: TasyBeneficiarioService, i.e. the local replica with live
+ *   fallback to /api/v1/beneficiarios/elegibilidade?cartao=&data=
+ * - Provider status: /api/v1/prestadores/{id}/situacao
+ *
+ * Failures surface as IntegrationException; the fast path treats them as
+ * "route to the full BPMN path", never as a denial.
+ */
+@Component("consultasAutorizacao")
+public class ConsultasAutorizacaoTasy implements ConsultasAutorizacao {
+
+    private final TasyBeneficiarioService tasyBeneficiarioService;
+    private final RestTemplate restTemplate;
+    private final String baseUrl;
+
+    @Autowired
+    public ConsultasAutorizacaoTasy(TasyBeneficiarioService tasyBeneficiarioService, RestTemplate restTemplate,
+                                    @Value("${tasy.api.base-url}") String baseUrl) {
+        this.tasyBeneficiarioService = tasyBeneficiarioService;
+        this.restTemplate = restTemplate;
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public ElegibilidadeDTO elegibilidade(SolicitacaoAutorizacao solicitacao) {
+        return tasyBeneficiarioService.verificarElegibilidade(
+            solicitacao.getCartaoNumero(), solicitacao.getCpf(), solicitacao.getDataProcedimento());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public SituacaoPrestador situacaoPrestador(String prestadorId) {
+        String url = String.format("%s/api/v1/prestadores/%s/situacao", baseUrl, prestadorId);
+        try {
+            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+            if (response == null) {
+                throw new IntegrationException("Resposta vazia do Tasy para prestador " + prestadorId);
+            }
+            return new SituacaoPrestador(prestadorId,
+                Boolean.TRUE.equals(response.get("rede_credenciada")),
+                Boolean.TRUE.equals(response.get("suspenso")),
+                (String) response.get("motivo"));
+        } catch (HttpClientErrorException.NotFound e) {
+            return new SituacaoPrestador(prestadorId, false, false, "Prestador não cadastrado");
+        } catch (IntegrationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IntegrationException("Falha ao consultar situação do prestador " + prestadorId, e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.austa.experiencia.service.autorizacao;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Outcome of the straight-through authorization path.
+ *
+ * Either the guide is approved with every decision variable the full path
+ * would have produced, or it is routed to the full BPMN path with the step
+ * that needs it; the process receives it in one {@link #toVariaveis()} write.
+ */
+public final class ResultadoAutorizacaoExpressa {
+
+    public enum Desfecho {
+        APROVADA,
+        FLUXO_COMPLETO
+    }
+
+    /**
+     * Step that routed the guide to the full path.
+     */
+    public enum Etapa {
+        GUIA_TISS,
+        ELEGIBILIDADE,
+        PRESTADOR,
+        COBERTURA,
+        REGRAS,
+        CONSULTA_REMOTA,
+        FALHA_TECNICA
+    }
+
+    private final Desfecho desfecho;
+    private final Etapa etapa;
+    private final String motivo;
+    private final Map<String, Object> variaveis;
+    private final long duracaoNanos;
+
+    private ResultadoAutorizacaoExpressa(Desfecho desfecho, Etapa etapa, String motivo,
+                                         Map<String, Object> variaveis, long duracaoNanos) {
+        this.desfecho = desfecho;
+        this.etapa = etapa;
+        this.motivo = motivo;
+        this.variaveis = Collections.unmodifiableMap(variaveis);
+        this.duracaoNanos = duracaoNanos;
+    }
+
+    static ResultadoAutorizacaoExpressa aprovada(String motivo, Map<String, Object> variaveis, long duracaoNanos) {
+        return new ResultadoAutorizacaoExpressa(Desfecho.APROVADA, null, motivo, variaveis, duracaoNanos);
+    }
+
+    static ResultadoAutorizacaoExpressa fluxoCompleto(Etapa etapa, String motivo, long duracaoNanos) {
+        return new ResultadoAutorizacaoExpressa(Desfecho.FLUXO_COMPLETO, etapa, motivo, Map.of(), duracaoNanos);
+    }
+
+    public boolean isAprovada() {
+        return desfecho == Desfecho.APROVADA;
+    }
+
+    /**
+     * Process variables to set in a single write: the outcome, and for
+     * approved guides the variables Task_GerarAutorizacao and the
+     * notification steps read.
+     */
+    public Map<String, Object> toVariaveis() {
+        Map<String, Object> resultado = new HashMap<>(variaveis);
+        resultado.put("autorizacaoExpressa", desfecho.name());
+        resultado.put("etapaAutorizacaoExpressa", etapa != null ? etapa.name() : null);
+        resultado.put("motivoAutorizacaoExpressa", motivo);
+        resultado.put("duracaoAutorizacaoExpressaMs", duracaoNanos / 1_000_000L);
+        return resultado;
+    }
+
+    public Desfecho getDesfecho() {
+        return desfecho;
+    }
+
+    public Etapa getEtapa() {
+        return etapa;
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+
+    public Map<String, Object> getVariaveis() {
+        return variaveis;
+    }
+
+    public long getDuracaoNanos() {
+        return duracaoNanos;
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.austa.experiencia.service.autorizacao;
+
+/**
+ * Network status of the requesting provider: credentialed and not suspended.
+ */
+public final class SituacaoPrestador {
+
+    private final String prestadorId;
+    private final boolean rede;
+    private final boolean suspenso;
+    private final String motivo;
+
+    public SituacaoPrestador(String prestadorId, boolean rede, boolean suspenso, String motivo) {
+        this.prestadorId = prestadorId;
+        this.rede = rede;
+        this.suspenso = suspenso;
+        this.motivo = motivo;
+    }
+
+    public String getPrestadorId() {
+        return prestadorId;
+    }
+
+    public boolean isRede() {
+        return rede;
+    }
+
+    public boolean isSuspenso() {
+        return suspenso;
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+}
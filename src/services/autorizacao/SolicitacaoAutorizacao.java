@@ -0,0 +1,138 @@
+package br.com.austa.experiencia.service.autorizacao;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Authorization request as read once from the SUB-006 start variables.
+ *
+ * Keeps the raw guide variables for the TISS validation and the clinical
+ * inputs of DMN_ProtocoloClinico next to the typed fields the fast path uses.
+ */
+public final class SolicitacaoAutorizacao {
+
+    static final List<String> VARIAVEIS_CLINICAS = List.of(
+        "cid10", "tratamentosPrevios", "tempoTratamento", "examesComplementares", "indicadorGravidade");
+
+    private final Map<String, Object> guia;
+    private final String numeroGuia;
+    private final String beneficiarioId;
+    private final String cartaoNumero;
+    private final String cpf;
+    private final String codigoProcedimento;
+    private final String tipoProcedimento;
+    private final BigDecimal valorProcedimento;
+    private final String prestadorId;
+    private final LocalDate dataProcedimento;
+    private final String tipoAtendimento;
+
+    private SolicitacaoAutorizacao(Map<String, Object> guia) {
+        this.guia = Collections.unmodifiableMap(new HashMap<>(guia));
+        this.numeroGuia = texto(guia.get("numeroGuia"));
+        this.beneficiarioId = texto(guia.get("beneficiarioId"));
+        this.cartaoNumero = texto(guia.get("cartaoNumero"));
+        this.cpf = texto(guia.getOrDefault("cpf", guia.get("beneficiarioCpf")));
+        this.codigoProcedimento = texto(guia.getOrDefault("codigoProcedimento", guia.get("procedimentoId")));
+        this.tipoProcedimento = texto(guia.get("tipoProcedimento"));
+        this.valorProcedimento = valor(guia.get("valorProcedimento"));
+        this.prestadorId = texto(guia.getOrDefault("prestadorId", guia.get("prestadorCodigo")));
+        this.dataProcedimento = data(guia.getOrDefault("dataProcedimento", guia.get("dataAtendimento")));
+        this.tipoAtendimento = texto(guia.get("tipoAtendimento"));
+    }
+
+    /**
+     * @param variaveis process variables of the SUB-006 instance
+     */
+    public static SolicitacaoAutorizacao deVariaveis(Map<String, Object> variaveis) {
+        return new SolicitacaoAutorizacao(variaveis);
+    }
+
+    public boolean isUrgencia() {
+        return "URGENCIA".equalsIgnoreCase(tipoAtendimento) || "EMERGENCIA".equalsIgnoreCase(tipoAtendimento);
+    }
+
+    /**
+     * Inputs of DMN_ProtocoloClinico; absent clinical data stays null.
+     */
+    Map<String, Object> variaveisProtocolo() {
+        Map<String, Object> variaveis = new HashMap<>();
+        variaveis.put("tipoProcedimento", tipoProcedimento);
+        for (String nome : VARIAVEIS_CLINICAS) {
+            variaveis.put(nome, guia.get(nome));
+        }
+        return variaveis;
+    }
+
+    public Map<String, Object> getGuia() {
+        return guia;
+    }
+
+    public String getNumeroGuia() {
+        return numeroGuia;
+    }
+
+    public String getBeneficiarioId() {
+        return beneficiarioId;
+    }
+
+    public String getCartaoNumero() {
+        return cartaoNumero;
+    }
+
+    public String getCpf() {
+        return cpf;
+    }
+
+    public String getCodigoProcedimento() {
+        return codigoProcedimento;
+    }
+
+    public String getTipoProcedimento() {
+        return tipoProcedimento;
+    }
+
+    public BigDecimal getValorProcedimento() {
+        return valorProcedimento;
+    }
+
+    public String getPrestadorId() {
+        return prestadorId;
+    }
+
+    public LocalDate getDataProcedimento() {
+        return dataProcedimento;
+    }
+
+    public String getTipoAtendimento() {
+        return tipoAtendimento;
+    }
+
+    private static String texto(Object valor) {
+        return valor != null ? valor.toString() : null;
+    }
+
+    private static BigDecimal valor(Object valor) {
+        if (valor == null) {
+            return null;
+        }
+        if (valor instanceof BigDecimal) {
+            return (BigDecimal) valor;
+        }
+        return new BigDecimal(valor.toString());
+    }
+
+    private static LocalDate data(Object valor) {
+        if (valor == null) {
+            return null;
+        }
+        if (valor instanceof LocalDate) {
+            return (LocalDate) valor;
+        }
+        String texto = valor.toString();
+        return LocalDate.parse(texto.length() > 10 ? texto.substring(0, 10) : texto);
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.austa.experiencia.service.autorizacao;
+
+import java.util.Map;
+
+/**
+ * In-memory evaluation of the deployed authorization decision tables
+ * (DMN_RegrasAutorizacao, DMN_ProtocoloClinico).
+ */
+public interface TabelasDecisao {
+
+    String REGRAS_AUTORIZACAO = "DMN_RegrasAutorizacao";
+    String PROTOCOLO_CLINICO = "DMN_ProtocoloClinico";
+
+    /**
+     * @return outputs of the matched rule (hit policy FIRST), empty when no rule matches
+     */
+    Map<String, Object> avaliar(String chaveDecisao, Map<String, Object> variaveis);
+}
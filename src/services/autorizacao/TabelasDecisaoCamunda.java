@@ -0,0 +1,102 @@
+package br.com.austa.experiencia.service.autorizacao;
+
+import br.com.austa.experiencia.exception.IntegrationException;
+import org.camunda.bpm.dmn.engine.DmnDecision;
+import org.camunda.bpm.dmn.engine.DmnDecisionRuleResult;
+import org.camunda.bpm.dmn.engine.DmnEngine;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.repository.DecisionDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Evaluates the deployed DMN tables directly on the engine's DMN engine
+ *
+ * DecisionService looks up the latest decision definition in the database
+ * on every call; here the parsed decision is kept per key and the latest
+ * deployed version is re-checked at most every
+ * {@code autorizacao.expressa.dmn-verificacao-ms}, so an evaluation is
+ * pure in-memory work and a redeployed table is picked up shortly after.
+ */
+@Component("tabelasDecisao")
+public class TabelasDecisaoCamunda implements TabelasDecisao {
+
+    private static final Logger logger = LoggerFactory.getLogger(TabelasDecisaoCamunda.class);
+
+    private final RepositoryService repositoryService;
+    private final DmnEngine dmnEngine;
+    private final long intervaloVerificacaoNanos;
+    private final ConcurrentHashMap<String, DecisaoCarregada> decisoes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TabelasDecisaoCamunda(ProcessEngine processEngine,
+                                 @Value("${autorizacao.expressa.dmn-verificacao-ms:30000}") long intervaloVerificacaoMillis) {
+        this.repositoryService = processEngine.getRepositoryService();
+        this.dmnEngine = ((ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration())
+            .getDmnEngine();
+        this.intervaloVerificacaoNanos = intervaloVerificacaoMillis * 1_000_000L;
+    }
+
+    @Override
+    public Map<String, Object> avaliar(String chaveDecisao, Map<String, Object> variaveis) {
+        DmnDecisionRuleResult resultado = dmnEngine.evaluateDecisionTable(decisao(chaveDecisao), variaveis)
+            .getFirstResult();
+        return resultado != null ? new HashMap<>(resultado) : Map.of();
+    }
+
+    private DmnDecision decisao(String chave) {
+        DecisaoCarregada atual = decisoes.get(chave);
+        long agora = System.nanoTime();
+        if (atual != null && agora - atual.verificadaEm < intervaloVerificacaoNanos) {
+            return atual.decisao;
+        }
+        return decisoes.compute(chave, (k, anterior) -> carregar(k, anterior, agora)).decisao;
+    }
+
+    private DecisaoCarregada carregar(String chave, DecisaoCarregada anterior, long agora) {
+        if (anterior != null && agora - anterior.verificadaEm < intervaloVerificacaoNanos) {
+            return anterior;
+        }
+        DecisionDefinition definicao = repositoryService.createDecisionDefinitionQuery()
+            .decisionDefinitionKey(chave)
+            .latestVersion()
+            .singleResult();
+        if (definicao == null) {
+            throw new IntegrationException("Tabela de decisão não implantada: " + chave);
+        }
+        if (anterior != null && anterior.definicaoId.equals(definicao.getId())) {
+            return new DecisaoCarregada(anterior.definicaoId, anterior.decisao, agora);
+        }
+        try (InputStream modelo = repositoryService.getDecisionModel(definicao.getId())) {
+            DmnDecision decisao = dmnEngine.parseDecision(chave, modelo);
+            logger.info("Tabela de decisão {} carregada - versão {}", chave, definicao.getVersion());
+            return new DecisaoCarregada(definicao.getId(), decisao, agora);
+        } catch (IOException e) {
+            throw new IntegrationException("Falha ao ler tabela de decisão " + chave, e);
+        }
+    }
+
+    private static final class DecisaoCarregada {
+
+        final String definicaoId;
+        final DmnDecision decisao;
+        final long verificadaEm;
+
+        DecisaoCarregada(String definicaoId, DmnDecision decisao, long verificadaEm) {
+            this.definicaoId = definicaoId;
+            this.decisao = decisao;
+            this.verificadaEm = verificadaEm;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.austa.experiencia.service.blobs;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Backend holding immutable objects for {@link RepositorioConteudo}.
+ *
+ * Keys are relative paths such as {@code blocos/ab/abcd...}; an object never
+ * changes once written, so implementations may skip writes of existing keys
+ * and cache freely. Local disk is the default; object stores plug in here.
+ */
+public interface ArmazenamentoBlobs {
+
+    boolean existe(String chave) throws IOException;
+
+    /**
+     * Stores the first {@code tamanho} bytes of {@code dados} under {@code chave}.
+     * Readers must never observe a partially written object.
+     */
+    void gravar(String chave, byte[] dados, int tamanho) throws IOException;
+
+    /**
+     * @throws java.nio.file.NoSuchFileException if the key does not exist
+     */
+    InputStream abrir(String chave) throws IOException;
+
+    /**
+     * Whether every instance of the service reads the same objects. Callers
+     * drop their own copy of a payload (process variables, uploads) only when
+     * this is true; a node-local store may not be reachable by the node that
+     * runs the next step.
+     */
+    boolean isCompartilhado();
+}
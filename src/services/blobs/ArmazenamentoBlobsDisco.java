@@ -0,0 +1,93 @@
+package br.com.austa.experiencia.service.blobs;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Local-disk blob backend: one file per key under {@code blobs.diretorio}.
+ *
+ * Objects are written to a temporary file in the target directory and moved
+ * into place atomically; two writers of the same key write identical bytes,
+ * so whichever move lands first wins.
+ *
+ * A process archived on one node is read back on whichever node runs its
+ * next step, so with more than one instance {@code blobs.diretorio} must be
+ * a volume mounted by all of them (NFS, EFS, ...) and
+ * {@code blobs.compartilhado=true} declares it so. Until then the directory
+ * is treated as node-local and callers keep their own copy of the payload
+ * (see {@link ArmazenamentoBlobs#isCompartilhado()}).
+ */
+@Component("armazenamentoBlobs")
+public class ArmazenamentoBlobsDisco implements ArmazenamentoBlobs {
+
+    private final Path base;
+    private final boolean compartilhado;
+
+    /**
+     * Node-local store, for tests and single-instance tools.
+     */
+    public ArmazenamentoBlobsDisco(String diretorio) throws IOException {
+        this(diretorio, false);
+    }
+
+    @Autowired
+    public ArmazenamentoBlobsDisco(@Value("${blobs.diretorio:./data/blobs}") String diretorio,
+                                   @Value("${blobs.compartilhado:false}") boolean compartilhado)
+            throws IOException {
+        this.base = Files.createDirectories(Paths.get(diretorio)).toAbsolutePath().normalize();
+        this.compartilhado = compartilhado;
+    }
+
+    @Override
+    public boolean isCompartilhado() {
+        return compartilhado;
+    }
+
+    @Override
+    public boolean existe(String chave) {
+        return Files.exists(caminho(chave));
+    }
+
+    @Override
+    public void gravar(String chave, byte[] dados, int tamanho) throws IOException {
+        Path destino = caminho(chave);
+        if (Files.exists(destino)) {
+            return;
+        }
+        Path diretorio = Files.createDirectories(destino.getParent());
+        Path temporario = Files.createTempFile(diretorio, ".blob", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temporario)) {
+                out.write(dados, 0, tamanho);
+            }
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // written concurrently with the same content
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+    }
+
+    @Override
+    public InputStream abrir(String chave) throws IOException {
+        return Files.newInputStream(caminho(chave));
+    }
+
+    private Path caminho(String chave) {
+        Path caminho = base.resolve(chave).normalize();
+        if (!caminho.startsWith(base)) {
+            throw new IllegalArgumentException("Invalid blob key: " + chave);
+        }
+        return caminho;
+    }
+}
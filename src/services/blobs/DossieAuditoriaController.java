@@ -0,0 +1,47 @@
+package br.com.austa.experiencia.service.blobs;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+
+/**
+ * Download of an audit dossier as a ZIP, streamed from the content store
+ * while the response is written; nothing is assembled on the heap.
+ *
+ * GET /api/v1/auditoria/dossies/{hash}.zip
+ */
+@RestController
+@RequestMapping("/api/v1/auditoria/dossies")
+public class DossieAuditoriaController {
+
+    private final DossiesAuditoria dossiesAuditoria;
+
+    @Autowired
+    public DossieAuditoriaController(DossiesAuditoria dossiesAuditoria) {
+        this.dossiesAuditoria = dossiesAuditoria;
+    }
+
+    @GetMapping("/{hash}.zip")
+    public ResponseEntity<StreamingResponseBody> baixar(@PathVariable String hash) throws IOException {
+        try {
+            if (!dossiesAuditoria.existe(hash)) {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody corpo = saida -> dossiesAuditoria.escreverZip(hash, saida);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/zip"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"dossie-" + hash.substring(0, 12) + ".zip\"")
+            .body(corpo);
+    }
+}
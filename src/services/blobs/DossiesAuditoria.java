@@ -0,0 +1,74 @@
+package br.com.austa.experiencia.service.blobs;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Audit dossiers kept in the content store instead of process variables.
+ *
+ * Each clinical evidence is stored as its own JSON object; the dossier JSON
+ * carries an {@code arquivos} map (ZIP entry name -> content hash) and is
+ * itself content-addressed, so one hash identifies the whole dossier and
+ * identical evidence attached to several requests is stored once.
+ */
+@Component("dossiesAuditoria")
+public class DossiesAuditoria {
+
+    public static final String ARQUIVO_DOSSIE = "dossie.json";
+
+    private final RepositorioConteudo repositorioConteudo;
+
+    @Autowired
+    public DossiesAuditoria(RepositorioConteudo repositorioConteudo) {
+        this.repositorioConteudo = repositorioConteudo;
+    }
+
+    /**
+     * Stores the evidence and the dossier; {@code dossie} must not hold the evidence inline.
+     */
+    public ReferenciaConteudo arquivar(Map<String, Object> dossie, List<Map<String, Object>> evidencias)
+            throws IOException {
+        Map<String, String> arquivos = new LinkedHashMap<>();
+        for (int i = 0; i < evidencias.size(); i++) {
+            ReferenciaConteudo evidencia = repositorioConteudo.gravarJson(evidencias.get(i));
+            arquivos.put(String.format("evidencias/evidencia-%03d.json", i + 1), evidencia.getHash());
+        }
+        Map<String, Object> indice = new LinkedHashMap<>(dossie);
+        indice.put("arquivos", arquivos);
+        return repositorioConteudo.gravarJson(indice);
+    }
+
+    /**
+     * Streams the dossier JSON and every file it lists as one ZIP.
+     *
+     * @throws java.nio.file.NoSuchFileException if the dossier does not exist
+     */
+    @SuppressWarnings("unchecked")
+    public void escreverZip(String hashDossie, OutputStream saida) throws IOException {
+        Map<String, Object> dossie = repositorioConteudo.lerJson(hashDossie, Map.class);
+        Map<String, String> arquivos = new LinkedHashMap<>();
+        arquivos.put(ARQUIVO_DOSSIE, hashDossie);
+        Object listados = dossie.get("arquivos");
+        if (listados instanceof Map) {
+            arquivos.putAll((Map<String, String>) listados);
+        }
+        repositorioConteudo.escreverZip(arquivos, saida);
+    }
+
+    public boolean existe(String hashDossie) throws IOException {
+        return repositorioConteudo.existe(hashDossie);
+    }
+
+    /**
+     * @see ArmazenamentoBlobs#isCompartilhado()
+     */
+    public boolean isCompartilhado() {
+        return repositorioConteudo.isCompartilhado();
+    }
+}
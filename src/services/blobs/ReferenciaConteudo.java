@@ -0,0 +1,38 @@
+package br.com.austa.experiencia.service.blobs;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * What a process keeps instead of the content itself: its SHA-256 and size.
+ */
+public final class ReferenciaConteudo {
+
+    private final String hash;
+    private final long tamanho;
+
+    public ReferenciaConteudo(String hash, long tamanho) {
+        this.hash = hash;
+        this.tamanho = tamanho;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public long getTamanho() {
+        return tamanho;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> mapa = new LinkedHashMap<>();
+        mapa.put("hash", hash);
+        mapa.put("tamanho", tamanho);
+        return mapa;
+    }
+
+    @Override
+    public String toString() {
+        return hash + " (" + tamanho + " bytes)";
+    }
+}
@@ -0,0 +1,313 @@
+package br.com.austa.experiencia.service.blobs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Repositorio Conteudo - content-addressed store for large process payloads
+ *
+ * Audit dossiers, clinical evidence and OCR documents live here instead of in
+ * Camunda variables; processes keep only the SHA-256 returned by {@link #gravar}.
+ *
+ * Layout on the {@link ArmazenamentoBlobs} backend:
+ * - blocos/ab/{sha256}: fixed-size chunks of {@code blobs.tamanho-bloco} bytes,
+ *   keyed by their own hash and shared by every content that contains them
+ * - manifestos/ab/{sha256}: total size and ordered chunk hashes of one content
+ * Writes and reads stream one chunk at a time, and every chunk is verified
+ * against its hash as it is read, so corrupted evidence is never served
+ * silently. {@link #escreverZip} streams several contents into one ZIP the
+ * same way.
+ */
+@Component("repositorioConteudo")
+public class RepositorioConteudo {
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositorioConteudo.class);
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final ArmazenamentoBlobs armazenamento;
+    private final ObjectMapper objectMapper;
+    private final int tamanhoBloco;
+
+    private final LongAdder blocosGravados = new LongAdder();
+    private final LongAdder blocosDeduplicados = new LongAdder();
+    private final LongAdder bytesRecebidos = new LongAdder();
+
+    @Autowired
+    public RepositorioConteudo(ArmazenamentoBlobs armazenamento, ObjectMapper objectMapper,
+                               @Value("${blobs.tamanho-bloco:1048576}") int tamanhoBloco) {
+        this.armazenamento = armazenamento;
+        this.objectMapper = objectMapper;
+        this.tamanhoBloco = tamanhoBloco;
+    }
+
+    /**
+     * Stores the stream, reading at most one chunk into memory at a time.
+     * Storing the same content twice costs only the hashing.
+     */
+    public ReferenciaConteudo gravar(InputStream entrada) throws IOException {
+        MessageDigest digestConteudo = sha256();
+        MessageDigest digestBloco = sha256();
+        byte[] bloco = new byte[tamanhoBloco];
+        List<String> blocos = new ArrayList<>();
+        long tamanho = 0;
+
+        int lidos;
+        while ((lidos = entrada.readNBytes(bloco, 0, tamanhoBloco)) > 0) {
+            digestConteudo.update(bloco, 0, lidos);
+            blocos.add(gravarBloco(digestBloco, bloco, lidos));
+            tamanho += lidos;
+        }
+        return gravarManifesto(HEX.formatHex(digestConteudo.digest()), tamanho, blocos);
+    }
+
+    public ReferenciaConteudo gravar(byte[] conteudo) throws IOException {
+        return gravar(conteudo, conteudo.length);
+    }
+
+    /**
+     * Stores the first {@code tamanho} bytes of {@code conteudo}, chunking
+     * straight from the array: no chunk buffer for contents that fit in one
+     * chunk, such as rendered documents.
+     */
+    public ReferenciaConteudo gravar(byte[] conteudo, int tamanho) throws IOException {
+        MessageDigest digestConteudo = sha256();
+        MessageDigest digestBloco = sha256();
+        digestConteudo.update(conteudo, 0, tamanho);
+        List<String> blocos = new ArrayList<>(tamanho / tamanhoBloco + 1);
+        for (int inicio = 0; inicio < tamanho; inicio += tamanhoBloco) {
+            int lidos = Math.min(tamanhoBloco, tamanho - inicio);
+            byte[] bloco = inicio == 0 ? conteudo : Arrays.copyOfRange(conteudo, inicio, inicio + lidos);
+            blocos.add(gravarBloco(digestBloco, bloco, lidos));
+        }
+        return gravarManifesto(HEX.formatHex(digestConteudo.digest()), tamanho, blocos);
+    }
+
+    /**
+     * Stores {@code valor} serialized as JSON.
+     */
+    public ReferenciaConteudo gravarJson(Object valor) throws IOException {
+        return gravar(objectMapper.writeValueAsBytes(valor));
+    }
+
+    /**
+     * @see ArmazenamentoBlobs#isCompartilhado()
+     */
+    public boolean isCompartilhado() {
+        return armazenamento.isCompartilhado();
+    }
+
+    public boolean existe(String hash) throws IOException {
+        return armazenamento.existe(chaveManifesto(hash));
+    }
+
+    public long tamanho(String hash) throws IOException {
+        return lerManifesto(hash).tamanho;
+    }
+
+    /**
+     * Streams the content back chunk by chunk. A chunk that does not match its
+     * hash fails the read with an IOException when its end is reached.
+     */
+    public InputStream abrir(String hash) throws IOException {
+        return new LeitorBlocos(lerManifesto(hash).blocos);
+    }
+
+    /**
+     * Whole content in memory; only for small objects such as a dossier index.
+     */
+    public byte[] lerBytes(String hash) throws IOException {
+        try (InputStream in = abrir(hash)) {
+            return in.readAllBytes();
+        }
+    }
+
+    public <T> T lerJson(String hash, Class<T> tipo) throws IOException {
+        try (InputStream in = abrir(hash)) {
+            return objectMapper.readValue(in, tipo);
+        }
+    }
+
+    /**
+     * Writes a ZIP with one entry per (name, content hash), copying straight
+     * from the chunks; memory stays at one copy buffer whatever the sizes.
+     * The caller owns {@code saida} and closes it.
+     */
+    public void escreverZip(Map<String, String> arquivos, OutputStream saida) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(saida);
+        byte[] buffer = new byte[64 * 1024];
+        for (Map.Entry<String, String> arquivo : arquivos.entrySet()) {
+            zip.putNextEntry(new ZipEntry(arquivo.getKey()));
+            try (InputStream in = abrir(arquivo.getValue())) {
+                int lidos;
+                while ((lidos = in.read(buffer)) > 0) {
+                    zip.write(buffer, 0, lidos);
+                }
+            }
+            zip.closeEntry();
+        }
+        zip.finish();
+        zip.flush();
+    }
+
+    public long getBlocosGravados() {
+        return blocosGravados.sum();
+    }
+
+    public long getBlocosDeduplicados() {
+        return blocosDeduplicados.sum();
+    }
+
+    public long getBytesRecebidos() {
+        return bytesRecebidos.sum();
+    }
+
+    private String gravarBloco(MessageDigest digestBloco, byte[] bloco, int tamanho) throws IOException {
+        digestBloco.update(bloco, 0, tamanho);
+        String hashBloco = HEX.formatHex(digestBloco.digest());
+        String chave = chaveBloco(hashBloco);
+        if (armazenamento.existe(chave)) {
+            blocosDeduplicados.increment();
+        } else {
+            armazenamento.gravar(chave, bloco, tamanho);
+            blocosGravados.increment();
+        }
+        return hashBloco;
+    }
+
+    private ReferenciaConteudo gravarManifesto(String hash, long tamanho, List<String> blocos) throws IOException {
+        bytesRecebidos.add(tamanho);
+        String chaveManifesto = chaveManifesto(hash);
+        if (!armazenamento.existe(chaveManifesto)) {
+            StringBuilder manifesto = new StringBuilder(20 + blocos.size() * 65).append(tamanho).append('\n');
+            blocos.forEach(b -> manifesto.append(b).append('\n'));
+            byte[] bytes = manifesto.toString().getBytes(StandardCharsets.US_ASCII);
+            armazenamento.gravar(chaveManifesto, bytes, bytes.length);
+        }
+        logger.debug("Stored content {} ({} bytes, {} chunks)", hash, tamanho, blocos.size());
+        return new ReferenciaConteudo(hash, tamanho);
+    }
+
+    private Manifesto lerManifesto(String hash) throws IOException {
+        byte[] bytes;
+        try (InputStream in = armazenamento.abrir(chaveManifesto(hash))) {
+            bytes = in.readAllBytes();
+        }
+        String[] linhas = new String(bytes, StandardCharsets.US_ASCII).split("\n");
+        List<String> blocos = new ArrayList<>(linhas.length - 1);
+        for (int i = 1; i < linhas.length; i++) {
+            blocos.add(linhas[i]);
+        }
+        return new Manifesto(Long.parseLong(linhas[0]), blocos);
+    }
+
+    private static String chaveBloco(String hash) {
+        return "blocos/" + validar(hash).substring(0, 2) + "/" + hash;
+    }
+
+    private static String chaveManifesto(String hash) {
+        return "manifestos/" + validar(hash).substring(0, 2) + "/" + hash;
+    }
+
+    private static String validar(String hash) {
+        if (hash == null || hash.length() != 64
+                || !hash.chars().allMatch(c -> (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+            throw new IllegalArgumentException("Not a SHA-256 content hash: " + hash);
+        }
+        return hash;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class Manifesto {
+        final long tamanho;
+        final List<String> blocos;
+
+        Manifesto(long tamanho, List<String> blocos) {
+            this.tamanho = tamanho;
+            this.blocos = blocos;
+        }
+    }
+
+    /**
+     * Concatenates the chunks, opening each only when the previous one is done.
+     */
+    private final class LeitorBlocos extends InputStream {
+
+        private final List<String> blocos;
+        private final MessageDigest digest = sha256();
+        private int proximo;
+        private InputStream atual;
+        private String hashAtual;
+
+        LeitorBlocos(List<String> blocos) {
+            this.blocos = blocos;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] um = new byte[1];
+            return read(um, 0, 1) < 0 ? -1 : um[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] destino, int inicio, int tamanho) throws IOException {
+            if (tamanho == 0) {
+                return 0;
+            }
+            while (true) {
+                if (atual == null) {
+                    if (proximo == blocos.size()) {
+                        return -1;
+                    }
+                    hashAtual = blocos.get(proximo++);
+                    atual = armazenamento.abrir(chaveBloco(hashAtual));
+                }
+                int lidos = atual.read(destino, inicio, tamanho);
+                if (lidos > 0) {
+                    digest.update(destino, inicio, lidos);
+                    return lidos;
+                }
+                atual.close();
+                atual = null;
+                String calculado = HEX.formatHex(digest.digest());
+                if (!calculado.equals(hashAtual)) {
+                    throw new IOException("Corrupted chunk " + hashAtual + " (read " + calculado + ")");
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (atual != null) {
+                atual.close();
+                atual = null;
+            }
+            proximo = blocos.size();
+        }
+    }
+}
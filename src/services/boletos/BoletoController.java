@@ -0,0 +1,58 @@
+package br.com.austa.experiencia.service.boletos;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+/**
+ * Download of a second copy, streamed from the content store. The hash in
+ * the URL must be the current document of the invoice, so a link to a boleto
+ * that was paid or renegotiated since stops working.
+ *
+ * GET /api/v1/boletos/{beneficiarioId}/{competencia}/{hash}.html
+ */
+@RestController
+@RequestMapping("/api/v1/boletos")
+public class BoletoController {
+
+    private final CacheBoletos cacheBoletos;
+
+    @Autowired
+    public BoletoController(CacheBoletos cacheBoletos) {
+        this.cacheBoletos = cacheBoletos;
+    }
+
+    @GetMapping("/{beneficiarioId}/{competencia}/{hash}.html")
+    public ResponseEntity<StreamingResponseBody> baixar(@PathVariable String beneficiarioId,
+                                                        @PathVariable String competencia,
+                                                        @PathVariable String hash) throws IOException {
+        Optional<InputStream> documento;
+        try {
+            documento = cacheBoletos.abrirDocumento(beneficiarioId, YearMonth.parse(competencia), hash);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (documento.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        StreamingResponseBody corpo = saida -> {
+            try (InputStream in = documento.get()) {
+                in.transferTo(saida);
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.TEXT_HTML)
+            .body(corpo);
+    }
+}
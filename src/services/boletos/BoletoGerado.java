@@ -0,0 +1,105 @@
+package br.com.austa.experiencia.service.boletos;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A rendered boleto in the cache: the version of (beneficiário, competência)
+ * it belongs to, the content hash of its document in the content store, and
+ * the payment fields shown to the beneficiary.
+ */
+public final class BoletoGerado {
+
+    private final String beneficiarioId;
+    private final YearMonth competencia;
+    private final int versao;
+    private final String hash;
+    private final long tamanho;
+    private final String nossoNumero;
+    private final BigDecimal valor;
+    private final LocalDate dataVencimento;
+    private final String linhaDigitavel;
+    private final String codigoBarras;
+
+    BoletoGerado(String beneficiarioId, YearMonth competencia, int versao, String hash, long tamanho,
+                 String nossoNumero, BigDecimal valor, LocalDate dataVencimento,
+                 String linhaDigitavel, String codigoBarras) {
+        this.beneficiarioId = beneficiarioId;
+        this.competencia = competencia;
+        this.versao = versao;
+        this.hash = hash;
+        this.tamanho = tamanho;
+        this.nossoNumero = nossoNumero;
+        this.valor = valor;
+        this.dataVencimento = dataVencimento;
+        this.linhaDigitavel = linhaDigitavel;
+        this.codigoBarras = codigoBarras;
+    }
+
+    public String getBeneficiarioId() {
+        return beneficiarioId;
+    }
+
+    public YearMonth getCompetencia() {
+        return competencia;
+    }
+
+    public int getVersao() {
+        return versao;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public long getTamanho() {
+        return tamanho;
+    }
+
+    public String getNossoNumero() {
+        return nossoNumero;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public LocalDate getDataVencimento() {
+        return dataVencimento;
+    }
+
+    public String getLinhaDigitavel() {
+        return linhaDigitavel;
+    }
+
+    public String getCodigoBarras() {
+        return codigoBarras;
+    }
+
+    /**
+     * @return whether this document was rendered from the same billing data,
+     *         so re-emitting the invoice does not need a new render
+     */
+    boolean corresponde(FaturaBoleto fatura) {
+        return nossoNumero.equals(fatura.getNossoNumero())
+            && valor.compareTo(fatura.getValor()) == 0
+            && dataVencimento.equals(fatura.getDataVencimento());
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> mapa = new LinkedHashMap<>();
+        mapa.put("beneficiarioId", beneficiarioId);
+        mapa.put("competencia", competencia.toString());
+        mapa.put("versao", versao);
+        mapa.put("hash", hash);
+        mapa.put("nossoNumero", nossoNumero);
+        mapa.put("valor", valor);
+        mapa.put("dataVencimento", dataVencimento.toString());
+        mapa.put("linhaDigitavel", linhaDigitavel);
+        mapa.put("codigoBarras", codigoBarras);
+        return mapa;
+    }
+}
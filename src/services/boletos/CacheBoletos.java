@@ -0,0 +1,502 @@
+package br.com.austa.experiencia.service.boletos;
+
+import br.com.austa.experiencia.service.blobs.ReferenciaConteudo;
+import br.com.austa.experiencia.service.blobs.RepositorioConteudo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache Boletos - boletos pre-rendered when a competência opens, second copies served from cache
+ *
+ * Second copies used to query the invoice and render the document on every
+ * request. Documents are now rendered once per billing version:
+ * - invoices emitted when a competência opens are grouped into batches of
+ *   {@code boletos.tamanho-lote} and rendered in parallel by
+ *   {@code boletos.threads} workers, each borrowing a {@link RenderizadorBoleto}
+ *   from a pool and filling the {@link ModeloBoleto} compiled at startup
+ * - documents go to the {@link RepositorioConteudo} content store; the index
+ *   keeps, per (beneficiário, competência), the version and the content hash
+ *   of its current document
+ * - a payment or renegotiation bumps the version and drops the document; a
+ *   render that started from an older version is discarded instead of cached
+ *
+ * A second copy is then a map lookup plus a streamed read from the content
+ * store. A miss (invoice never emitted through the feed, or renegotiated
+ * without new billing data) has no second copy: amount, due date and nosso
+ * número only come from the feed. Re-emitting unchanged billing data is a
+ * no-op.
+ *
+ * Index changes are written to {@link ChangelogBoletos} under one lock, once
+ * per batch; a restart rebuilds the index without rendering anything. Every
+ * instance keeps its own cache, fed from the whole billing feed
+ * ({@link FaturamentoBoletosConsumer}).
+ * Competências older than {@code boletos.meses-retidos} are dropped when the
+ * changelog is compacted.
+ */
+@Component("cacheBoletos")
+public class CacheBoletos {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheBoletos.class);
+
+    private final ChangelogBoletos changelog;
+    private final RepositorioConteudo repositorio;
+    private final ModeloBoleto modelo;
+    private final String banco;
+    private final String convenio;
+    private final String carteira;
+    private final int tamanhoLote;
+    private final long flushMillis;
+    private final int compactarApos;
+    private final int mesesRetidos;
+    private final Clock clock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ConcurrentHashMap<String, EntradaBoleto> entradas = new ConcurrentHashMap<>();
+    private final ArrayBlockingQueue<RenderizadorBoleto> renderizadores;
+    private final ThreadPoolExecutor executor;
+
+    private final Object lockPendentes = new Object();
+    private List<FaturaBoleto> pendentes = new ArrayList<>();
+    private ScheduledExecutorService ticker;
+    private volatile boolean replicado = true;
+
+    private final LongAdder boletosGerados = new LongAdder();
+    private final LongAdder boletosReaproveitados = new LongAdder();
+    private final LongAdder boletosDescartados = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+
+    @Autowired
+    public CacheBoletos(@Value("${boletos.path:./data/boletos}") String diretorio,
+                        @Value("${boletos.modelo:}") String arquivoModelo,
+                        @Value("${boletos.banco:001}") String banco,
+                        @Value("${boletos.convenio:000000}") String convenio,
+                        @Value("${boletos.carteira:17}") String carteira,
+                        @Value("${boletos.threads:4}") int threads,
+                        @Value("${boletos.tamanho-lote:500}") int tamanhoLote,
+                        @Value("${boletos.flush-ms:1000}") long flushMillis,
+                        @Value("${boletos.compactar-apos:1000000}") int compactarApos,
+                        @Value("${boletos.meses-retidos:24}") int mesesRetidos,
+                        @Value("${boletos.fsync:false}") boolean fsync,
+                        RepositorioConteudo repositorio) throws IOException {
+        this(new ChangelogBoletos(Paths.get(diretorio), fsync), repositorio,
+            arquivoModelo.isBlank() ? ModeloBoleto.padrao() : ModeloBoleto.de(Paths.get(arquivoModelo)),
+            banco, convenio, carteira, threads, tamanhoLote, flushMillis, compactarApos, mesesRetidos,
+            Clock.systemUTC());
+    }
+
+    /**
+     * Standalone constructor (tests, tools): default template and bank
+     * parameters, no periodic flush of queued invoices until {@link #iniciar()}.
+     */
+    public CacheBoletos(Path diretorio, RepositorioConteudo repositorio, int threads, int tamanhoLote,
+                        int compactarApos, Clock clock) throws IOException {
+        this(new ChangelogBoletos(diretorio, false), repositorio, ModeloBoleto.padrao(), "001", "000000", "17",
+            threads, tamanhoLote, 1000, compactarApos, 24, clock);
+    }
+
+    private CacheBoletos(ChangelogBoletos changelog, RepositorioConteudo repositorio, ModeloBoleto modelo,
+                         String banco, String convenio, String carteira, int threads, int tamanhoLote,
+                         long flushMillis, int compactarApos, int mesesRetidos, Clock clock) throws IOException {
+        this.changelog = changelog;
+        this.repositorio = repositorio;
+        this.modelo = modelo;
+        this.banco = banco;
+        this.convenio = convenio;
+        this.carteira = carteira;
+        this.tamanhoLote = tamanhoLote;
+        this.flushMillis = flushMillis;
+        this.compactarApos = compactarApos;
+        this.mesesRetidos = mesesRetidos;
+        this.clock = clock;
+
+        // Request threads rendering a miss borrow from the same pool
+        this.renderizadores = new ArrayBlockingQueue<>(threads + 2);
+        for (int i = 0; i < threads; i++) {
+            renderizadores.add(new RenderizadorBoleto());
+        }
+        // Bounded queue: a burst of emissions blocks the feed instead of piling up batches
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(threads * 4),
+            r -> {
+                Thread thread = new Thread(r, "boletos-render");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
+        changelog.recuperar(entrada -> entradas.put(entrada.chave(), entrada));
+        logger.info("Boleto cache recovered: {} entries", entradas.size());
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "boletos-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(() -> {
+            try {
+                descarregar();
+            } catch (Exception e) {
+                logger.error("Error dispatching queued boletos: {}", e.getMessage(), e);
+            }
+        }, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void parar() throws IOException, InterruptedException {
+        if (ticker != null) {
+            ticker.shutdown();
+            ticker.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        descarregar();
+        executor.shutdown();
+        executor.awaitTermination(60, TimeUnit.SECONDS);
+        lock.lock();
+        try {
+            changelog.fechar();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Renders the invoices of a billing run in parallel batches and waits for
+     * all of them.
+     */
+    public ResultadoPreGeracao preGerar(Collection<FaturaBoleto> faturas) throws IOException, InterruptedException {
+        List<Future<ResultadoPreGeracao>> lotes = new ArrayList<>();
+        List<FaturaBoleto> lote = new ArrayList<>(tamanhoLote);
+        for (FaturaBoleto fatura : faturas) {
+            lote.add(fatura);
+            if (lote.size() == tamanhoLote) {
+                List<FaturaBoleto> cheio = lote;
+                lotes.add(executor.submit(() -> processarLote(cheio)));
+                lote = new ArrayList<>(tamanhoLote);
+            }
+        }
+        if (!lote.isEmpty()) {
+            List<FaturaBoleto> ultimo = lote;
+            lotes.add(executor.submit(() -> processarLote(ultimo)));
+        }
+
+        ResultadoPreGeracao total = new ResultadoPreGeracao();
+        for (Future<ResultadoPreGeracao> resultado : lotes) {
+            try {
+                total.somar(resultado.get());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) e.getCause()).getCause();
+                }
+                throw new IllegalStateException("Boleto batch failed", e.getCause());
+            }
+        }
+        logger.info("Boleto pre-generation finished for {} invoices: {}", faturas.size(), total);
+        return total;
+    }
+
+    /**
+     * Queues one emitted invoice (billing feed). Full batches are dispatched
+     * right away, partial ones by the periodic flush.
+     */
+    public void enfileirar(FaturaBoleto fatura) {
+        List<FaturaBoleto> cheio = null;
+        synchronized (lockPendentes) {
+            pendentes.add(fatura);
+            if (pendentes.size() >= tamanhoLote) {
+                cheio = pendentes;
+                pendentes = new ArrayList<>(tamanhoLote);
+            }
+        }
+        if (cheio != null) {
+            despachar(cheio);
+        }
+    }
+
+    /**
+     * Dispatches the queued invoices even if they do not fill a batch.
+     */
+    public void descarregar() {
+        List<FaturaBoleto> lote;
+        synchronized (lockPendentes) {
+            if (pendentes.isEmpty()) {
+                return;
+            }
+            lote = pendentes;
+            pendentes = new ArrayList<>(tamanhoLote);
+        }
+        despachar(lote);
+    }
+
+    /**
+     * Current second copy, if one is cached.
+     */
+    public Optional<BoletoGerado> segundaVia(String beneficiarioId, YearMonth competencia) {
+        EntradaBoleto entrada = entradas.get(chave(beneficiarioId, competencia));
+        if (entrada != null && entrada.boleto != null) {
+            acertos.increment();
+            return Optional.of(entrada.boleto);
+        }
+        faltas.increment();
+        return Optional.empty();
+    }
+
+    public boolean pago(String beneficiarioId, YearMonth competencia) {
+        EntradaBoleto entrada = entradas.get(chave(beneficiarioId, competencia));
+        return entrada != null && entrada.situacao == EntradaBoleto.Situacao.PAGO;
+    }
+
+    /**
+     * Renders one invoice from the billing feed on the calling thread.
+     *
+     * @return the cached boleto for the invoice, empty if it is already paid
+     *         or was invalidated while rendering
+     */
+    public Optional<BoletoGerado> gerar(FaturaBoleto fatura) throws IOException {
+        try {
+            processarLote(List.of(fatura));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        EntradaBoleto entrada = entradas.get(fatura.chave());
+        return entrada != null ? Optional.ofNullable(entrada.boleto) : Optional.empty();
+    }
+
+    /**
+     * Marks the invoice paid; a no-op when it already is (replayed payment).
+     */
+    public void registrarPagamento(String beneficiarioId, YearMonth competencia) throws IOException {
+        if (pago(beneficiarioId, competencia)) {
+            return;
+        }
+        atualizarSituacao(beneficiarioId, competencia, EntradaBoleto.Situacao.PAGO);
+    }
+
+    /**
+     * Drops the cached document (renegotiation); the invoice is rendered again
+     * on its next emission or second copy request.
+     */
+    public void invalidar(String beneficiarioId, YearMonth competencia) throws IOException {
+        atualizarSituacao(beneficiarioId, competencia, EntradaBoleto.Situacao.PENDENTE);
+    }
+
+    /**
+     * The document of a second copy, streamed from the content store.
+     *
+     * @return empty unless {@code hash} is the current document of the invoice
+     */
+    public Optional<InputStream> abrirDocumento(String beneficiarioId, YearMonth competencia, String hash)
+            throws IOException {
+        EntradaBoleto entrada = entradas.get(chave(beneficiarioId, competencia));
+        if (entrada == null || entrada.boleto == null || !entrada.boleto.getHash().equals(hash)) {
+            return Optional.empty();
+        }
+        return Optional.of(repositorio.abrir(hash));
+    }
+
+    public int tamanho() {
+        return entradas.size();
+    }
+
+    /**
+     * Whether the billing feed has been replayed up to where it stood at
+     * startup; before that a payment or renegotiation may be missing.
+     */
+    public boolean isReplicado() {
+        return replicado;
+    }
+
+    /**
+     * Set by the feed consumer: false while it replays the billing feed after
+     * startup. At the end of the replay, invoices still queued are dispatched
+     * at once.
+     */
+    public void setReplicado(boolean replicado) {
+        this.replicado = replicado;
+        if (replicado) {
+            descarregar();
+        }
+    }
+
+    public long getBoletosGerados() {
+        return boletosGerados.sum();
+    }
+
+    public long getBoletosReaproveitados() {
+        return boletosReaproveitados.sum();
+    }
+
+    public long getBoletosDescartados() {
+        return boletosDescartados.sum();
+    }
+
+    public long getFalhas() {
+        return falhas.sum();
+    }
+
+    public long getAcertos() {
+        return acertos.sum();
+    }
+
+    public long getFaltas() {
+        return faltas.sum();
+    }
+
+    static String chave(String beneficiarioId, YearMonth competencia) {
+        return beneficiarioId + '|' + competencia;
+    }
+
+    private void despachar(List<FaturaBoleto> lote) {
+        executor.execute(() -> {
+            try {
+                processarLote(lote);
+            } catch (Exception e) {
+                logger.error("Error rendering a batch of {} boletos: {}", lote.size(), e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Renders outside the lock, then records the whole batch under it with a
+     * single changelog sync.
+     */
+    private ResultadoPreGeracao processarLote(List<FaturaBoleto> lote) {
+        ResultadoPreGeracao resultado = new ResultadoPreGeracao();
+        List<BoletoGerado> renderizados = new ArrayList<>(lote.size());
+
+        RenderizadorBoleto renderizador = renderizadores.poll();
+        if (renderizador == null) {
+            renderizador = new RenderizadorBoleto();
+        }
+        try {
+            for (FaturaBoleto fatura : lote) {
+                EntradaBoleto atual = entradas.get(fatura.chave());
+                if (atual != null && atual.situacao == EntradaBoleto.Situacao.PAGO) {
+                    resultado.pago();
+                    continue;
+                }
+                if (atual != null && atual.boleto != null && atual.boleto.corresponde(fatura)) {
+                    resultado.reaproveitado();
+                    boletosReaproveitados.increment();
+                    continue;
+                }
+                int versao = atual != null ? atual.versao + 1 : 1;
+                try {
+                    renderizados.add(renderizar(renderizador, fatura, versao));
+                } catch (IOException | RuntimeException e) {
+                    resultado.falha();
+                    falhas.increment();
+                    logger.warn("Could not render boleto {}: {}", fatura, e.getMessage());
+                }
+            }
+        } finally {
+            renderizadores.offer(renderizador);
+        }
+
+        if (!renderizados.isEmpty()) {
+            try {
+                confirmar(renderizados, resultado);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return resultado;
+    }
+
+    private BoletoGerado renderizar(RenderizadorBoleto renderizador, FaturaBoleto fatura, int versao)
+            throws IOException {
+        String codigoBarras = CodigoBarrasBoleto.codigoBarras(banco, convenio, carteira, fatura);
+        String linhaDigitavel = CodigoBarrasBoleto.linhaDigitavel(codigoBarras);
+        renderizador.renderizar(modelo, fatura, codigoBarras, linhaDigitavel);
+        ReferenciaConteudo referencia = repositorio.gravar(renderizador.documento(), renderizador.tamanho());
+        return new BoletoGerado(fatura.getBeneficiarioId(), fatura.getCompetencia(), versao,
+            referencia.getHash(), referencia.getTamanho(), fatura.getNossoNumero(), fatura.getValor(),
+            fatura.getDataVencimento(), linhaDigitavel, codigoBarras);
+    }
+
+    /**
+     * Caches each rendered boleto whose starting version is still current.
+     */
+    private void confirmar(List<BoletoGerado> renderizados, ResultadoPreGeracao resultado) throws IOException {
+        lock.lock();
+        try {
+            for (BoletoGerado boleto : renderizados) {
+                String chave = chave(boleto.getBeneficiarioId(), boleto.getCompetencia());
+                EntradaBoleto atual = entradas.get(chave);
+                int versaoAtual = atual != null ? atual.versao : 0;
+                if (versaoAtual != boleto.getVersao() - 1) {
+                    resultado.descartado();
+                    boletosDescartados.increment();
+                    continue;
+                }
+                EntradaBoleto nova = new EntradaBoleto(boleto);
+                changelog.registrar(nova);
+                entradas.put(chave, nova);
+                resultado.gerado();
+                boletosGerados.increment();
+            }
+            changelog.sincronizar();
+            compactarSeNecessario();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void atualizarSituacao(String beneficiarioId, YearMonth competencia, EntradaBoleto.Situacao situacao)
+            throws IOException {
+        String chave = chave(beneficiarioId, competencia);
+        lock.lock();
+        try {
+            EntradaBoleto atual = entradas.get(chave);
+            EntradaBoleto nova = new EntradaBoleto(beneficiarioId, competencia,
+                atual != null ? atual.versao + 1 : 1, situacao);
+            changelog.registrar(nova);
+            changelog.sincronizar();
+            entradas.put(chave, nova);
+            compactarSeNecessario();
+        } finally {
+            lock.unlock();
+        }
+        logger.debug("Boleto {} {}: cached document dropped", chave, situacao);
+    }
+
+    private void compactarSeNecessario() throws IOException {
+        if (changelog.getRegistrosDesdeSnapshot() < compactarApos) {
+            return;
+        }
+        YearMonth limite = YearMonth.now(clock).minusMonths(mesesRetidos);
+        entradas.values().removeIf(entrada -> entrada.competencia.isBefore(limite));
+        changelog.compactar(visitante -> entradas.values().forEach(visitante));
+        logger.info("Boleto changelog compacted: {} entries", entradas.size());
+    }
+}
@@ -0,0 +1,192 @@
+package br.com.austa.experiencia.service.boletos;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Changelog of the boleto cache index: snapshot plus append-only log.
+ *
+ * Both files hold the same framed records, [len(4) crc32(4) payload], each the
+ * full {@link EntradaBoleto} of one (beneficiário, competência), replacing the
+ * previous one. The documents themselves live in the content store; only
+ * their hashes are recorded here. Recovery replays snapshot then log; a torn
+ * record at the end of the log is detected by its CRC and truncated.
+ */
+final class ChangelogBoletos {
+
+    private final Path snapshot;
+    private final Path log;
+    private final boolean fsync;
+    private FileChannel canal;
+    private int registrosDesdeSnapshot;
+
+    ChangelogBoletos(Path diretorio, boolean fsync) throws IOException {
+        Files.createDirectories(diretorio);
+        this.snapshot = diretorio.resolve("snapshot.dat");
+        this.log = diretorio.resolve("boletos.log");
+        this.fsync = fsync;
+    }
+
+    /**
+     * Replays snapshot and log, then opens the log for appending.
+     */
+    void recuperar(Consumer<EntradaBoleto> entrada) throws IOException {
+        if (Files.exists(snapshot)) {
+            ler(snapshot, entrada);
+        }
+        long valido = Files.exists(log) ? ler(log, entrada) : 0;
+        canal = FileChannel.open(log, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        canal.truncate(valido);
+        canal.position(valido);
+    }
+
+    /**
+     * Appends without forcing; a batch calls {@link #sincronizar} once at its end.
+     */
+    void registrar(EntradaBoleto entrada) throws IOException {
+        escrever(canal, codificar(entrada));
+        registrosDesdeSnapshot++;
+    }
+
+    void sincronizar() throws IOException {
+        if (fsync) {
+            canal.force(false);
+        }
+    }
+
+    int getRegistrosDesdeSnapshot() {
+        return registrosDesdeSnapshot;
+    }
+
+    /**
+     * Writes the given entries to a new snapshot and starts an empty log.
+     *
+     * @param entradas visits every entry to keep
+     */
+    void compactar(Consumer<Consumer<EntradaBoleto>> entradas) throws IOException {
+        Path temporario = snapshot.resolveSibling("snapshot.tmp");
+        try (FileChannel destino = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            try {
+                entradas.accept(entrada -> {
+                    try {
+                        escrever(destino, codificar(entrada));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            destino.force(true);
+        }
+        Files.move(temporario, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        canal.truncate(0);
+        canal.position(0);
+        registrosDesdeSnapshot = 0;
+    }
+
+    void fechar() throws IOException {
+        if (canal != null) {
+            canal.force(true);
+            canal.close();
+        }
+    }
+
+    private static void escrever(FileChannel destino, byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer buffer = ByteBuffer.allocate(8 + payload.length);
+        buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        while (buffer.hasRemaining()) {
+            destino.write(buffer);
+        }
+    }
+
+    private static byte[] codificar(EntradaBoleto entrada) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeUTF(entrada.beneficiarioId);
+        out.writeUTF(entrada.competencia.toString());
+        out.writeInt(entrada.versao);
+        out.writeByte(entrada.situacao.ordinal());
+        BoletoGerado boleto = entrada.boleto;
+        if (boleto != null) {
+            out.writeUTF(boleto.getHash());
+            out.writeLong(boleto.getTamanho());
+            out.writeUTF(boleto.getNossoNumero());
+            out.writeUTF(boleto.getValor().toPlainString());
+            out.writeLong(boleto.getDataVencimento().toEpochDay());
+            out.writeUTF(boleto.getLinhaDigitavel());
+            out.writeUTF(boleto.getCodigoBarras());
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return offset just past the last intact record
+     */
+    private static long ler(Path arquivo, Consumer<EntradaBoleto> entrada) throws IOException {
+        long valido = 0;
+        try (InputStream stream = Channels.newInputStream(FileChannel.open(arquivo, StandardOpenOption.READ));
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16))) {
+            while (true) {
+                int tamanho;
+                try {
+                    tamanho = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                int crcEsperado = in.readInt();
+                if (tamanho <= 0 || tamanho > (1 << 20)) {
+                    break;
+                }
+                byte[] payload = new byte[tamanho];
+                in.readFully(payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != crcEsperado) {
+                    break;
+                }
+                entrada.accept(decodificar(payload));
+                valido += 8 + tamanho;
+            }
+        } catch (EOFException e) {
+            // torn record at the tail
+        }
+        return valido;
+    }
+
+    private static EntradaBoleto decodificar(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        String beneficiarioId = in.readUTF();
+        YearMonth competencia = YearMonth.parse(in.readUTF());
+        int versao = in.readInt();
+        EntradaBoleto.Situacao situacao = EntradaBoleto.Situacao.values()[in.readByte()];
+        if (situacao != EntradaBoleto.Situacao.GERADO) {
+            return new EntradaBoleto(beneficiarioId, competencia, versao, situacao);
+        }
+        return new EntradaBoleto(new BoletoGerado(beneficiarioId, competencia, versao,
+            in.readUTF(), in.readLong(), in.readUTF(), new BigDecimal(in.readUTF()),
+            LocalDate.ofEpochDay(in.readLong()), in.readUTF(), in.readUTF()));
+    }
+}
@@ -0,0 +1,99 @@
+package br.com.austa.experiencia.service.boletos;
+
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * FEBRABAN barcode and typeable line of a boleto.
+ *
+ * Barcode, 44 digits: bank(3) currency(1) check digit(1) due-date factor(4)
+ * amount in cents(10) free field(25). The free field here is the agreement
+ * code (6) + nosso número (17) + wallet (2). The typeable line splits the same
+ * digits into five fields, the first three with their own modulo 10 digit.
+ */
+final class CodigoBarrasBoleto {
+
+    private static final LocalDate BASE_FATOR = LocalDate.of(1997, 10, 7);
+    private static final char MOEDA_REAL = '9';
+
+    private CodigoBarrasBoleto() {
+    }
+
+    static String codigoBarras(String banco, String convenio, String carteira, FaturaBoleto fatura) {
+        String campoLivre = digitos(convenio, 6) + digitos(fatura.getNossoNumero(), 17) + digitos(carteira, 2);
+        String valor = fatura.getValor().setScale(2, RoundingMode.HALF_EVEN).unscaledValue().toString();
+        if (valor.length() > 10 || fatura.getValor().signum() < 0) {
+            throw new IllegalArgumentException("Valor fora do limite do boleto: " + fatura.getValor());
+        }
+        String semDigito = digitos(banco, 3) + MOEDA_REAL
+            + fatorVencimento(fatura.getDataVencimento()) + "0".repeat(10 - valor.length()) + valor + campoLivre;
+        return semDigito.substring(0, 4) + digitoModulo11(semDigito) + semDigito.substring(4);
+    }
+
+    static String linhaDigitavel(String codigoBarras) {
+        String campo1 = codigoBarras.substring(0, 4) + codigoBarras.substring(19, 24);
+        String campo2 = codigoBarras.substring(24, 34);
+        String campo3 = codigoBarras.substring(34, 44);
+        campo1 += digitoModulo10(campo1);
+        campo2 += digitoModulo10(campo2);
+        campo3 += digitoModulo10(campo3);
+        return campo1.substring(0, 5) + '.' + campo1.substring(5) + ' '
+            + campo2.substring(0, 5) + '.' + campo2.substring(5) + ' '
+            + campo3.substring(0, 5) + '.' + campo3.substring(5) + ' '
+            + codigoBarras.charAt(4) + ' '
+            + codigoBarras.substring(5, 19);
+    }
+
+    /**
+     * Days since 1997-10-07; the factor restarted at 1000 on 2025-02-22 when it
+     * reached 9999, and wraps every 9000 days from there.
+     */
+    static String fatorVencimento(LocalDate vencimento) {
+        long dias = ChronoUnit.DAYS.between(BASE_FATOR, vencimento);
+        if (dias < 1000) {
+            throw new IllegalArgumentException("Vencimento anterior ao fator FEBRABAN: " + vencimento);
+        }
+        long fator = dias <= 9999 ? dias : (dias - 10000) % 9000 + 1000;
+        return Long.toString(fator);
+    }
+
+    static char digitoModulo11(String digitos) {
+        int soma = 0;
+        int peso = 2;
+        for (int i = digitos.length() - 1; i >= 0; i--) {
+            soma += (digitos.charAt(i) - '0') * peso;
+            peso = peso == 9 ? 2 : peso + 1;
+        }
+        int digito = 11 - soma % 11;
+        return digito >= 10 ? '1' : (char) ('0' + digito);
+    }
+
+    static char digitoModulo10(String digitos) {
+        int soma = 0;
+        int peso = 2;
+        for (int i = digitos.length() - 1; i >= 0; i--) {
+            int produto = (digitos.charAt(i) - '0') * peso;
+            soma += produto / 10 + produto % 10;
+            peso = peso == 2 ? 1 : 2;
+        }
+        return (char) ('0' + (10 - soma % 10) % 10);
+    }
+
+    /**
+     * Digits of {@code valor}, left-padded with zeros to {@code tamanho}.
+     */
+    private static String digitos(String valor, int tamanho) {
+        StringBuilder apenasDigitos = new StringBuilder(tamanho);
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c >= '0' && c <= '9') {
+                apenasDigitos.append(c);
+            }
+        }
+        if (apenasDigitos.length() > tamanho) {
+            throw new IllegalArgumentException("Campo com mais de " + tamanho + " dígitos: " + valor);
+        }
+        return "0".repeat(tamanho - apenasDigitos.length()) + apenasDigitos;
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.austa.experiencia.service.boletos;
+
+import java.time.YearMonth;
+
+/**
+ * Cache state of one (beneficiário, competência), replaced as a whole on
+ * every change.
+ *
+ * {@code versao} grows with every render, payment or renegotiation. A render
+ * is accepted only if the version it started from is still current, so a
+ * boleto rendered before the invoice was paid or renegotiated never reaches
+ * the cache.
+ */
+final class EntradaBoleto {
+
+    enum Situacao {
+        /** Invalidated; the next request or emission renders it again. */
+        PENDENTE,
+        GERADO,
+        /** Paid; no second copy is served. */
+        PAGO
+    }
+
+    final String beneficiarioId;
+    final YearMonth competencia;
+    final int versao;
+    final Situacao situacao;
+    /** Only when {@link Situacao#GERADO}. */
+    final BoletoGerado boleto;
+
+    EntradaBoleto(String beneficiarioId, YearMonth competencia, int versao, Situacao situacao) {
+        this.beneficiarioId = beneficiarioId;
+        this.competencia = competencia;
+        this.versao = versao;
+        this.situacao = situacao;
+        this.boleto = null;
+    }
+
+    EntradaBoleto(BoletoGerado boleto) {
+        this.beneficiarioId = boleto.getBeneficiarioId();
+        this.competencia = boleto.getCompetencia();
+        this.versao = boleto.getVersao();
+        this.situacao = Situacao.GERADO;
+        this.boleto = boleto;
+    }
+
+    String chave() {
+        return CacheBoletos.chave(beneficiarioId, competencia);
+    }
+}
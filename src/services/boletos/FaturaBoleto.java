@@ -0,0 +1,63 @@
+package br.com.austa.experiencia.service.boletos;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Objects;
+
+/**
+ * Billing data of one beneficiary's invoice for a competência, as emitted by
+ * Tasy: everything the boleto document is rendered from.
+ */
+public final class FaturaBoleto {
+
+    private final String beneficiarioId;
+    private final String nomeBeneficiario;
+    private final YearMonth competencia;
+    private final String nossoNumero;
+    private final BigDecimal valor;
+    private final LocalDate dataVencimento;
+
+    public FaturaBoleto(String beneficiarioId, String nomeBeneficiario, YearMonth competencia,
+                        String nossoNumero, BigDecimal valor, LocalDate dataVencimento) {
+        this.beneficiarioId = Objects.requireNonNull(beneficiarioId, "beneficiarioId");
+        this.nomeBeneficiario = nomeBeneficiario != null ? nomeBeneficiario : "";
+        this.competencia = Objects.requireNonNull(competencia, "competencia");
+        this.nossoNumero = Objects.requireNonNull(nossoNumero, "nossoNumero");
+        this.valor = Objects.requireNonNull(valor, "valor");
+        this.dataVencimento = Objects.requireNonNull(dataVencimento, "dataVencimento");
+    }
+
+    public String getBeneficiarioId() {
+        return beneficiarioId;
+    }
+
+    public String getNomeBeneficiario() {
+        return nomeBeneficiario;
+    }
+
+    public YearMonth getCompetencia() {
+        return competencia;
+    }
+
+    public String getNossoNumero() {
+        return nossoNumero;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public LocalDate getDataVencimento() {
+        return dataVencimento;
+    }
+
+    String chave() {
+        return CacheBoletos.chave(beneficiarioId, competencia);
+    }
+
+    @Override
+    public String toString() {
+        return beneficiarioId + " " + competencia + " (" + nossoNumero + ")";
+    }
+}
@@ -0,0 +1,116 @@
+package br.com.austa.experiencia.service.boletos;
+
+import br.com.austa.experiencia.service.kafka.ReposicaoTopico;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Feeds the boleto cache from the Tasy billing feed. Opening a competência
+ * emits one FATURA_EMITIDA per beneficiary; those are batched and pre-rendered.
+ * A payment drops the cached boleto; a renegotiation drops it and, when it
+ * carries the new billing data, renders the new one.
+ *
+ * {"evento": "FATURA_EMITIDA" | "PAGAMENTO_CONFIRMADO" | "FATURA_RENEGOCIADA",
+ *  "beneficiarioId": "...", "nomeBeneficiario": "...", "competencia": "2025-11",
+ *  "nossoNumero": "00012345678", "valor": 450.00, "dataVencimento": "2025-11-10"}
+ *
+ * A second copy can be requested on any instance and each keeps its own
+ * cache, so each instance consumes every partition under its own group from
+ * the beginning. The recovered index makes the replay cheap: unchanged
+ * emissions and repeated payments are no-ops, only invoices renegotiated
+ * within the topic's retention are rendered again. Until the replay has
+ * reached the end offsets read at startup the cache reports itself not
+ * replicated.
+ */
+@Component("faturamentoBoletosConsumer")
+public class FaturamentoBoletosConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(FaturamentoBoletosConsumer.class);
+
+    @Autowired
+    private CacheBoletos cacheBoletos;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private KafkaAdmin kafkaAdmin;
+
+    @Value("${boletos.topico:tasy-faturamento}")
+    private String topico;
+
+    private ReposicaoTopico reposicao;
+
+    @PostConstruct
+    public void iniciar() {
+        reposicao = ReposicaoTopico.iniciar(kafkaAdmin, topico);
+        cacheBoletos.setReplicado(reposicao.isConcluida());
+    }
+
+    @KafkaListener(topics = "${boletos.topico:tasy-faturamento}",
+                   groupId = "#{'${boletos.kafka.group-id:boletos-pre-geracao}-' + T(java.util.UUID).randomUUID()}",
+                   properties = "auto.offset.reset=earliest")
+    public void onEvento(ConsumerRecord<String, String> registro) throws Exception {
+        try {
+            aplicar(registro.value());
+        } finally {
+            // a record that keeps failing is skipped by the error handler; the replay must still end
+            if (reposicao.avancar(registro.partition(), registro.offset())) {
+                cacheBoletos.setReplicado(true);
+            }
+        }
+    }
+
+    private void aplicar(String mensagem) throws Exception {
+        JsonNode evento = objectMapper.readTree(mensagem);
+        String beneficiarioId = evento.path("beneficiarioId").asText(null);
+        String competencia = evento.path("competencia").asText(null);
+        if (beneficiarioId == null || competencia == null) {
+            logger.warn("Ignoring billing event without beneficiary or competência: {}", mensagem);
+            return;
+        }
+        YearMonth mes = YearMonth.parse(competencia);
+
+        switch (evento.path("evento").asText()) {
+            case "FATURA_EMITIDA" -> {
+                FaturaBoleto fatura = fatura(evento, beneficiarioId, mes);
+                if (fatura == null) {
+                    logger.warn("Ignoring invoice without billing data: {}", mensagem);
+                    return;
+                }
+                cacheBoletos.enfileirar(fatura);
+            }
+            case "PAGAMENTO_CONFIRMADO" -> cacheBoletos.registrarPagamento(beneficiarioId, mes);
+            case "FATURA_RENEGOCIADA" -> {
+                cacheBoletos.invalidar(beneficiarioId, mes);
+                FaturaBoleto fatura = fatura(evento, beneficiarioId, mes);
+                if (fatura != null) {
+                    cacheBoletos.enfileirar(fatura);
+                }
+            }
+            default -> logger.debug("Ignoring billing event {}", evento.path("evento").asText());
+        }
+    }
+
+    private static FaturaBoleto fatura(JsonNode evento, String beneficiarioId, YearMonth competencia) {
+        String nossoNumero = evento.path("nossoNumero").asText(null);
+        String dataVencimento = evento.path("dataVencimento").asText(null);
+        if (nossoNumero == null || dataVencimento == null || !evento.hasNonNull("valor")) {
+            return null;
+        }
+        return new FaturaBoleto(beneficiarioId, evento.path("nomeBeneficiario").asText(null), competencia,
+            nossoNumero, evento.path("valor").decimalValue(), LocalDate.parse(dataVencimento));
+    }
+}
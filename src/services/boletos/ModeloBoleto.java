@@ -0,0 +1,105 @@
+package br.com.austa.experiencia.service.boletos;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boleto document template, compiled once at startup.
+ *
+ * The template text holds {@code ${campo}} placeholders. Compiling splits it
+ * into UTF-8 encoded literal segments and the field between each pair, so a
+ * render is a sequence of array copies plus the field values; nothing is
+ * parsed or encoded per boleto. An unknown placeholder fails the compilation,
+ * not the billing run.
+ */
+final class ModeloBoleto {
+
+    enum Campo {
+        BENEFICIARIO_ID("beneficiarioId"),
+        NOME_BENEFICIARIO("nomeBeneficiario"),
+        COMPETENCIA("competencia"),
+        NOSSO_NUMERO("nossoNumero"),
+        DATA_VENCIMENTO("dataVencimento"),
+        VALOR("valor"),
+        LINHA_DIGITAVEL("linhaDigitavel"),
+        CODIGO_BARRAS("codigoBarras"),
+        /** Interleaved 2 of 5 bars of the barcode, as HTML. */
+        BARRAS("barras");
+
+        final String nome;
+
+        Campo(String nome) {
+            this.nome = nome;
+        }
+
+        static Campo de(String nome) {
+            for (Campo campo : values()) {
+                if (campo.nome.equals(nome)) {
+                    return campo;
+                }
+            }
+            throw new IllegalArgumentException("Campo desconhecido no modelo de boleto: ${" + nome + "}");
+        }
+    }
+
+    static final String MODELO_PADRAO = """
+        <!DOCTYPE html>
+        <html lang="pt-BR"><head><meta charset="UTF-8"><title>Boleto ${competencia}</title>
+        <style>
+        body{font-family:Arial,sans-serif;font-size:12px}table{border-collapse:collapse;width:680px}
+        td{border:1px solid #000;padding:2px 4px;vertical-align:top}.r{font-size:9px;display:block}
+        .linha{font-size:15px;font-weight:bold;text-align:right}.barras{height:50px;margin-top:8px}
+        .barras b,.barras i{display:inline-block;height:50px}.barras b{background:#000}
+        .n{width:1px}.w{width:3px}
+        </style></head><body>
+        <table>
+        <tr><td colspan="3" class="linha">${linhaDigitavel}</td></tr>
+        <tr><td colspan="2"><span class="r">Beneficiário</span>${nomeBeneficiario} (${beneficiarioId})</td>
+        <td><span class="r">Vencimento</span>${dataVencimento}</td></tr>
+        <tr><td><span class="r">Competência</span>${competencia}</td>
+        <td><span class="r">Nosso número</span>${nossoNumero}</td>
+        <td><span class="r">Valor do documento</span>${valor}</td></tr>
+        </table>
+        <div class="barras" title="${codigoBarras}">${barras}</div>
+        </body></html>
+        """;
+
+    /** One more than {@link #campos}: literal, field, literal, ..., literal. */
+    final byte[][] literais;
+    final Campo[] campos;
+
+    private ModeloBoleto(byte[][] literais, Campo[] campos) {
+        this.literais = literais;
+        this.campos = campos;
+    }
+
+    static ModeloBoleto padrao() {
+        return compilar(MODELO_PADRAO);
+    }
+
+    static ModeloBoleto de(Path arquivo) throws IOException {
+        return compilar(Files.readString(arquivo, StandardCharsets.UTF_8));
+    }
+
+    static ModeloBoleto compilar(String texto) {
+        List<byte[]> literais = new ArrayList<>();
+        List<Campo> campos = new ArrayList<>();
+        int inicio = 0;
+        int abertura;
+        while ((abertura = texto.indexOf("${", inicio)) >= 0) {
+            int fechamento = texto.indexOf('}', abertura);
+            if (fechamento < 0) {
+                throw new IllegalArgumentException("Campo não fechado no modelo de boleto na posição " + abertura);
+            }
+            literais.add(texto.substring(inicio, abertura).getBytes(StandardCharsets.UTF_8));
+            campos.add(Campo.de(texto.substring(abertura + 2, fechamento)));
+            inicio = fechamento + 1;
+        }
+        literais.add(texto.substring(inicio).getBytes(StandardCharsets.UTF_8));
+        return new ModeloBoleto(literais.toArray(new byte[0][]), campos.toArray(new Campo[0]));
+    }
+}
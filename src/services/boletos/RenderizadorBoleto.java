@@ -0,0 +1,130 @@
+package br.com.austa.experiencia.service.boletos;
+
+import java.io.ByteArrayOutputStream;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Renders boletos from a compiled {@link ModeloBoleto}. Not thread-safe: the
+ * cache keeps a pool of them so the output buffer, text scratch space and
+ * currency format are allocated once per renderer, not once per boleto.
+ */
+final class RenderizadorBoleto {
+
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter FORMATO_COMPETENCIA = DateTimeFormatter.ofPattern("MM/yyyy");
+
+    /** Interleaved 2 of 5 widths per digit, N = narrow, W = wide. */
+    private static final String[] ITF = {
+        "NNWWN", "WNNNW", "NWNNW", "WWNNN", "NNWNW", "WNWNN", "NWWNN", "NNNWW", "WNNWN", "NWNWN"
+    };
+
+    private final Saida saida = new Saida(16 * 1024);
+    private final StringBuilder texto = new StringBuilder(1024);
+    private final DecimalFormat moeda = new DecimalFormat("'R$ '#,##0.00", new DecimalFormatSymbols(new Locale("pt", "BR")));
+
+    /**
+     * Renders into this renderer's buffer; read it back with {@link #documento()}
+     * and {@link #tamanho()} before the next call.
+     */
+    void renderizar(ModeloBoleto modelo, FaturaBoleto fatura, String codigoBarras, String linhaDigitavel) {
+        saida.reset();
+        for (int i = 0; i < modelo.campos.length; i++) {
+            saida.write(modelo.literais[i], 0, modelo.literais[i].length);
+            texto.setLength(0);
+            switch (modelo.campos[i]) {
+                case BENEFICIARIO_ID -> escapar(fatura.getBeneficiarioId());
+                case NOME_BENEFICIARIO -> escapar(fatura.getNomeBeneficiario());
+                case COMPETENCIA -> FORMATO_COMPETENCIA.formatTo(fatura.getCompetencia(), texto);
+                case NOSSO_NUMERO -> escapar(fatura.getNossoNumero());
+                case DATA_VENCIMENTO -> FORMATO_DATA.formatTo(fatura.getDataVencimento(), texto);
+                case VALOR -> texto.append(moeda.format(fatura.getValor()));
+                case LINHA_DIGITAVEL -> texto.append(linhaDigitavel);
+                case CODIGO_BARRAS -> texto.append(codigoBarras);
+                case BARRAS -> barras(codigoBarras);
+            }
+            escreverTexto();
+        }
+        byte[] ultimo = modelo.literais[modelo.campos.length];
+        saida.write(ultimo, 0, ultimo.length);
+    }
+
+    /**
+     * The output buffer itself, valid up to {@link #tamanho()}.
+     */
+    byte[] documento() {
+        return saida.buffer();
+    }
+
+    int tamanho() {
+        return saida.size();
+    }
+
+    private void escapar(String valor) {
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '<' -> texto.append("&lt;");
+                case '>' -> texto.append("&gt;");
+                case '&' -> texto.append("&amp;");
+                case '"' -> texto.append("&quot;");
+                default -> texto.append(c);
+            }
+        }
+    }
+
+    /**
+     * Start pattern, digit pairs (first digit in the bars, second in the
+     * spaces), stop pattern.
+     */
+    private void barras(String codigoBarras) {
+        texto.append("<b class=\"n\"></b><i class=\"n\"></i><b class=\"n\"></b><i class=\"n\"></i>");
+        for (int i = 0; i + 1 < codigoBarras.length(); i += 2) {
+            String barras = ITF[codigoBarras.charAt(i) - '0'];
+            String espacos = ITF[codigoBarras.charAt(i + 1) - '0'];
+            for (int j = 0; j < 5; j++) {
+                texto.append(barras.charAt(j) == 'W' ? "<b class=\"w\"></b>" : "<b class=\"n\"></b>");
+                texto.append(espacos.charAt(j) == 'W' ? "<i class=\"w\"></i>" : "<i class=\"n\"></i>");
+            }
+        }
+        texto.append("<b class=\"w\"></b><i class=\"n\"></i><b class=\"n\"></b>");
+    }
+
+    /**
+     * UTF-8 encodes the scratch text straight into the output buffer.
+     */
+    private void escreverTexto() {
+        for (int i = 0; i < texto.length(); i++) {
+            int c = texto.charAt(i);
+            if (c < 0x80) {
+                saida.write(c);
+            } else if (c < 0x800) {
+                saida.write(0xC0 | c >> 6);
+                saida.write(0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate((char) c) && i + 1 < texto.length()) {
+                int ponto = Character.toCodePoint((char) c, texto.charAt(++i));
+                saida.write(0xF0 | ponto >> 18);
+                saida.write(0x80 | ponto >> 12 & 0x3F);
+                saida.write(0x80 | ponto >> 6 & 0x3F);
+                saida.write(0x80 | ponto & 0x3F);
+            } else {
+                saida.write(0xE0 | c >> 12);
+                saida.write(0x80 | c >> 6 & 0x3F);
+                saida.write(0x80 | c & 0x3F);
+            }
+        }
+    }
+
+    private static final class Saida extends ByteArrayOutputStream {
+
+        Saida(int capacidade) {
+            super(capacidade);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+}
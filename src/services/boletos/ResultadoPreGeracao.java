@@ -0,0 +1,71 @@
+package br.com.austa.experiencia.service.boletos;
+
+/**
+ * Outcome of a pre-generation run over the invoices of a competência.
+ */
+public final class ResultadoPreGeracao {
+
+    private int gerados;
+    private int reaproveitados;
+    private int pagos;
+    private int descartados;
+    private int falhas;
+
+    /** Rendered and cached. */
+    public int getGerados() {
+        return gerados;
+    }
+
+    /** Already cached from the same billing data; not rendered again. */
+    public int getReaproveitados() {
+        return reaproveitados;
+    }
+
+    /** Invoice already paid; nothing to render. */
+    public int getPagos() {
+        return pagos;
+    }
+
+    /** Rendered, but paid, renegotiated or rendered again meanwhile. */
+    public int getDescartados() {
+        return descartados;
+    }
+
+    public int getFalhas() {
+        return falhas;
+    }
+
+    void gerado() {
+        gerados++;
+    }
+
+    void reaproveitado() {
+        reaproveitados++;
+    }
+
+    void pago() {
+        pagos++;
+    }
+
+    void descartado() {
+        descartados++;
+    }
+
+    void falha() {
+        falhas++;
+    }
+
+    void somar(ResultadoPreGeracao outro) {
+        gerados += outro.gerados;
+        reaproveitados += outro.reaproveitados;
+        pagos += outro.pagos;
+        descartados += outro.descartados;
+        falhas += outro.falhas;
+    }
+
+    @Override
+    public String toString() {
+        return gerados + " rendered, " + reaproveitados + " reused, " + pagos + " paid, "
+            + descartados + " superseded, " + falhas + " failed";
+    }
+}
@@ -0,0 +1,274 @@
+package br.com.austa.experiencia.service.carteirinha;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Ed25519 keyring of the card issuer.
+ *
+ * With several instances issuing cards the keys come from configuration
+ * ({@link #configuradas}): every instance signs with the same key and
+ * publishes the same set. Rotation is then an operations task:
+ * - add the next public key to {@code carteirinha.chaves.publicadas} and
+ *   wait one bundle validity, so verifiers learn it first
+ * - switch {@code carteirinha.chave.*} to the next key, moving the old
+ *   public key to {@code carteirinha.chaves.publicadas}
+ * - drop the old public key once every token it signed has expired
+ *
+ * A single issuer (tests, tools) can keep a generated keyring on disk instead,
+ * one file per key ({@code {id}.chave}). A key there goes through three
+ * states:
+ * - next: generated one rotation period ahead and already published, so
+ *   verifiers learn it from bundles signed by the active key
+ * - active: signs tokens and bundles; replaced by the next key after
+ *   {@code rotacao} seconds
+ * - retired: still published until every token it signed has expired
+ *   ({@code retencao} seconds after retirement), then deleted
+ *
+ * Key ids are one byte and reused modulo 256. Files are written to a
+ * temporary name and moved into place; private key material is owner-only
+ * where the file system supports POSIX permissions. Not thread-safe; the
+ * issuer serializes access.
+ */
+final class ChavesCarteirinha {
+
+    private static final String EXTENSAO = ".chave";
+
+    private final Path diretorio;
+    private final TreeMap<Integer, Chave> chaves = new TreeMap<>();
+    private final Map<Integer, PublicKey> outrasPublicadas = new TreeMap<>();
+    private Chave ativa;
+    private Chave proxima;
+
+    /**
+     * Keys from configuration; never generated, rotated or deleted here.
+     *
+     * @param privada     base64 PKCS#8 private key of the signing key
+     * @param publica     base64 X.509 public key of the signing key
+     * @param publicadas  other keys to publish, {@code id:base64 X.509} separated by commas
+     */
+    static ChavesCarteirinha configuradas(int id, String privada, String publica, String publicadas)
+            throws GeneralSecurityException {
+        if (id < 0 || id > 0xFF) {
+            throw new IllegalArgumentException("Card signing key id must be 0-255: " + id);
+        }
+        KeyFactory fabrica = KeyFactory.getInstance("Ed25519");
+        ChavesCarteirinha configuradas = new ChavesCarteirinha();
+        Base64.Decoder base64 = Base64.getDecoder();
+        configuradas.ativa = new Chave(id, -1,
+            fabrica.generatePublic(new X509EncodedKeySpec(base64.decode(publica.trim()))),
+            fabrica.generatePrivate(new PKCS8EncodedKeySpec(base64.decode(privada.trim()))));
+        configuradas.chaves.put(id, configuradas.ativa);
+        for (String entrada : publicadas.split(",")) {
+            if (entrada.isBlank()) {
+                continue;
+            }
+            int separador = entrada.indexOf(':');
+            if (separador < 0) {
+                throw new IllegalArgumentException("Published card key must be id:base64, got " + entrada.trim());
+            }
+            int outra = Integer.parseInt(entrada.substring(0, separador).trim());
+            if (outra == id || outra < 0 || outra > 0xFF) {
+                throw new IllegalArgumentException("Invalid published card key id " + outra);
+            }
+            configuradas.outrasPublicadas.put(outra,
+                fabrica.generatePublic(new X509EncodedKeySpec(base64.decode(entrada.substring(separador + 1).trim()))));
+        }
+        return configuradas;
+    }
+
+    private ChavesCarteirinha() {
+        this.diretorio = null;
+    }
+
+    ChavesCarteirinha(Path diretorio) throws IOException, GeneralSecurityException {
+        this.diretorio = diretorio;
+        Files.createDirectories(diretorio);
+        KeyFactory fabrica = KeyFactory.getInstance("Ed25519");
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, "*" + EXTENSAO)) {
+            for (Path arquivo : arquivos) {
+                Chave chave = Chave.ler(arquivo, fabrica);
+                chaves.put(chave.id, chave);
+            }
+        }
+        for (Chave chave : chaves.values()) {
+            if (chave.desativadaEm >= 0) {
+                continue;
+            }
+            if (chave.ativadaEm < 0) {
+                proxima = chave;
+            } else if (ativa == null || chave.ativadaEm > ativa.ativadaEm) {
+                ativa = chave;
+            }
+        }
+        // A rotation interrupted between activating the next key and retiring the old one
+        for (Chave chave : chaves.values()) {
+            if (chave != ativa && chave.ativadaEm >= 0 && chave.desativadaEm < 0) {
+                chave.desativadaEm = ativa.ativadaEm;
+            }
+        }
+    }
+
+    /**
+     * Creates missing keys, rotates when the active key is due and deletes
+     * retired keys whose tokens have all expired.
+     *
+     * @return whether the published key set changed
+     */
+    boolean manter(long agora, long rotacao, long retencao) throws IOException, GeneralSecurityException {
+        if (diretorio == null) {
+            return false;
+        }
+        boolean alterado = false;
+        if (ativa == null) {
+            // First start, or the next key was already published: promote it
+            ativa = proxima != null ? proxima : gerar(agora);
+            proxima = null;
+            ativa.ativadaEm = agora;
+            gravar(ativa);
+            alterado = true;
+        }
+        if (proxima == null) {
+            proxima = gerar(agora);
+            gravar(proxima);
+            alterado = true;
+        }
+        if (agora >= ativa.ativadaEm + rotacao) {
+            proxima.ativadaEm = agora;
+            gravar(proxima);
+            ativa.desativadaEm = agora;
+            gravar(ativa);
+            ativa = proxima;
+            proxima = gerar(agora);
+            gravar(proxima);
+            alterado = true;
+        }
+        for (Chave chave : chaves.values().toArray(new Chave[0])) {
+            if (chave.desativadaEm >= 0 && agora >= chave.desativadaEm + retencao) {
+                Files.deleteIfExists(arquivo(chave.id));
+                chaves.remove(chave.id);
+                alterado = true;
+            }
+        }
+        return alterado;
+    }
+
+    int idAtiva() {
+        return ativa.id;
+    }
+
+    PrivateKey privadaAtiva() {
+        return ativa.privada;
+    }
+
+    /**
+     * Whether the active key is due for rotation; never for configured keys.
+     */
+    boolean rotacaoVencida(long agora, long rotacao) {
+        return diretorio != null && agora >= ativa.ativadaEm + rotacao;
+    }
+
+    /**
+     * Active, next and retired-but-unexpired keys; for configured keys the
+     * signing key and the other configured ones.
+     */
+    Map<Integer, PublicKey> publicadas() {
+        Map<Integer, PublicKey> publicadas = new TreeMap<>(outrasPublicadas);
+        chaves.forEach((id, chave) -> publicadas.put(id, chave.publica));
+        return publicadas;
+    }
+
+    private Chave gerar(long agora) throws GeneralSecurityException {
+        int id = chaves.isEmpty() ? 1 : (chaves.lastKey() + 1) & 0xFF;
+        for (int tentativas = 0; chaves.containsKey(id); tentativas++) {
+            if (tentativas == 256) {
+                throw new IllegalStateException("No free card signing key id");
+            }
+            id = (id + 1) & 0xFF;
+        }
+        KeyPair par = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        Chave chave = new Chave(id, agora, par.getPublic(), par.getPrivate());
+        chaves.put(id, chave);
+        return chave;
+    }
+
+    private void gravar(Chave chave) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(160);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(chave.id);
+        out.writeLong(chave.criadaEm);
+        out.writeLong(chave.ativadaEm);
+        out.writeLong(chave.desativadaEm);
+        byte[] publica = chave.publica.getEncoded();
+        out.writeShort(publica.length);
+        out.write(publica);
+        byte[] privada = chave.privada.getEncoded();
+        out.writeShort(privada.length);
+        out.write(privada);
+
+        Path temporario = diretorio.resolve(chave.id + EXTENSAO + ".tmp");
+        Files.deleteIfExists(temporario);
+        try {
+            Files.createFile(temporario, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } catch (UnsupportedOperationException e) {
+            Files.createFile(temporario);
+        }
+        Files.write(temporario, bytes.toByteArray());
+        Files.move(temporario, arquivo(chave.id), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path arquivo(int id) {
+        return diretorio.resolve(id + EXTENSAO);
+    }
+
+    private static final class Chave {
+
+        final int id;
+        final long criadaEm;
+        final PublicKey publica;
+        final PrivateKey privada;
+        long ativadaEm = -1;
+        long desativadaEm = -1;
+
+        Chave(int id, long criadaEm, PublicKey publica, PrivateKey privada) {
+            this.id = id;
+            this.criadaEm = criadaEm;
+            this.publica = publica;
+            this.privada = privada;
+        }
+
+        static Chave ler(Path arquivo, KeyFactory fabrica) throws IOException, GeneralSecurityException {
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(arquivo))) {
+                int id = in.readUnsignedByte();
+                long criadaEm = in.readLong();
+                long ativadaEm = in.readLong();
+                long desativadaEm = in.readLong();
+                byte[] publica = in.readNBytes(in.readUnsignedShort());
+                byte[] privada = in.readNBytes(in.readUnsignedShort());
+                Chave chave = new Chave(id, criadaEm, fabrica.generatePublic(new X509EncodedKeySpec(publica)),
+                    fabrica.generatePrivate(new PKCS8EncodedKeySpec(privada)));
+                chave.ativadaEm = ativadaEm;
+                chave.desativadaEm = desativadaEm;
+                return chave;
+            }
+        }
+    }
+}
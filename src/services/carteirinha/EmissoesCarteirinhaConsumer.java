@@ -0,0 +1,91 @@
+package br.com.austa.experiencia.service.carteirinha;
+
+import br.com.austa.experiencia.service.elegibilidade.ReplicaElegibilidade;
+import br.com.austa.experiencia.service.elegibilidade.StatusPlano;
+import br.com.austa.experiencia.service.kafka.ReposicaoTopico;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Feeds every card issuer with the tokens issued on all instances.
+ *
+ * carteirinha-emissoes is a compacted topic keyed by card number, written by
+ * {@link EmissorCarteirinha#emitir}:
+ * {"cartao": "0012345678901234", "emitidoEm": 1762171200}
+ *
+ * Each instance consumes every partition under its own group from the
+ * beginning; the issuer serves no verification bundle until the replay has
+ * reached the end offsets read at startup. The eligibility feed revokes a
+ * card only if the issuer knows it holds a token, and the two topics are read
+ * independently, so an issuance for a card the eligibility replica already
+ * has as not ATIVO is revoked here.
+ */
+@Component("emissoesCarteirinhaConsumer")
+public class EmissoesCarteirinhaConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmissoesCarteirinhaConsumer.class);
+
+    @Autowired
+    private EmissorCarteirinha emissorCarteirinha;
+
+    @Autowired
+    private ReplicaElegibilidade replicaElegibilidade;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private KafkaAdmin kafkaAdmin;
+
+    @Value("${carteirinha.topico-emissoes:carteirinha-emissoes}")
+    private String topico;
+
+    private ReposicaoTopico reposicao;
+
+    @PostConstruct
+    public void iniciar() {
+        reposicao = ReposicaoTopico.iniciar(kafkaAdmin, topico);
+        emissorCarteirinha.setReplicado(reposicao.isConcluida());
+    }
+
+    @KafkaListener(topics = "${carteirinha.topico-emissoes:carteirinha-emissoes}",
+                   groupId = "#{'${carteirinha.kafka.group-id:emissoes-carteirinha}-' + T(java.util.UUID).randomUUID()}",
+                   properties = "auto.offset.reset=earliest")
+    public void onEmissao(ConsumerRecord<String, String> registro) throws Exception {
+        try {
+            aplicar(registro.value());
+        } finally {
+            // a record that keeps failing is skipped by the error handler; the replay must still end
+            if (reposicao.avancar(registro.partition(), registro.offset())) {
+                emissorCarteirinha.setReplicado(true);
+            }
+        }
+    }
+
+    private void aplicar(String mensagem) throws Exception {
+        JsonNode evento = objectMapper.readTree(mensagem);
+        String cartao = evento.path("cartao").asText(null);
+        long emitidoEm = evento.path("emitidoEm").asLong(-1);
+        if (cartao == null || emitidoEm < 0) {
+            logger.warn("Ignoring invalid card issuance event: {}", mensagem);
+            return;
+        }
+        if (!emissorCarteirinha.registrarEmissao(cartao, emitidoEm)) {
+            return;
+        }
+        StatusPlano status = replicaElegibilidade.status(cartao);
+        if (status != null && status != StatusPlano.ATIVO) {
+            emissorCarteirinha.revogar(cartao);
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package br.com.austa.experiencia.service.carteirinha;
+
+import br.com.austa.experiencia.exception.IntegrationException;
+import br.com.austa.experiencia.service.carteirinha.verificacao.CoberturaCarteirinha;
+import br.com.austa.experiencia.service.carteirinha.verificacao.PacoteVerificacao;
+import br.com.austa.experiencia.service.carteirinha.verificacao.TokenCarteirinha;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Emissor Carteirinha - signed member card QR codes that providers verify offline
+ *
+ * The digital card used to carry an opaque link, so reception desks had to
+ * reach our APIs to check it. The QR code now carries the card itself:
+ * - card number, plan, validity window, segmentation and CPT flags and the
+ *   end of waiting periods, binary-packed ({@link TokenCarteirinha}) and
+ *   signed with Ed25519; under 150 QR characters in alphanumeric mode
+ * - tokens are valid for {@code carteirinha.validade-dias}; the app asks for
+ *   a fresh one when the member opens the card
+ * - every instance signs with the key configured in {@code carteirinha.chave.*}
+ *   and publishes the same key set; rotation follows the steps in
+ *   {@link ChavesCarteirinha}
+ * - cards that become ineligible while holding an unexpired token are
+ *   revoked ({@link RegistroEmissoes})
+ *
+ * Providers sync a {@link PacoteVerificacao} (published keys + revocations,
+ * valid for {@code carteirinha.pacote.validade-horas}) and verify with the
+ * JDK-only {@code verificacao} package.
+ *
+ * A token may be issued on one instance and the card revoked on another, so
+ * every issuance is published to {@code carteirinha.topico-emissoes} (keyed by
+ * card, compacted) and every instance reads it back
+ * ({@link EmissoesCarteirinhaConsumer}). Each instance revokes from the
+ * eligibility feed it replays in full, so all of them list the same cards.
+ * Issuances and revocations are rebuilt from both topics on startup, and no
+ * bundle is served until the issuance replay is over.
+ *
+ * The standalone constructor keeps a generated keyring and the registry on
+ * disk instead, flushed every {@code carteirinha.gravacao-ms}; that is only
+ * valid for a single issuing instance.
+ */
+@Component("emissorCarteirinha")
+public class EmissorCarteirinha {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmissorCarteirinha.class);
+
+    private static final ThreadLocal<Signature> ASSINATURA = ThreadLocal.withInitial(() -> {
+        try {
+            return Signature.getInstance("Ed25519");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Ed25519 not available", e);
+        }
+    });
+
+    private final ChavesCarteirinha chaves;
+    private final RegistroEmissoes registro;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final String topicoEmissoes;
+    private final int validadeDias;
+    private final long rotacaoSegundos;
+    private final long validadePacoteSegundos;
+    private final long vidaTokenSegundos;
+    private final long gravacaoMillis;
+    private final ZoneId zona;
+    private final Clock clock;
+
+    private byte[] pacote;
+    private long pacoteEmitidoEm;
+    private ScheduledExecutorService ticker;
+    private volatile boolean replicado = true;
+
+    private final LongAdder tokensEmitidos = new LongAdder();
+    private final LongAdder emissoesNaoPublicadas = new LongAdder();
+    private final LongAdder cartoesRevogados = new LongAdder();
+    private final LongAdder pacotesGerados = new LongAdder();
+
+    @Autowired
+    public EmissorCarteirinha(@Value("${carteirinha.chave.id}") int idChave,
+                              @Value("${carteirinha.chave.privada}") String chavePrivada,
+                              @Value("${carteirinha.chave.publica}") String chavePublica,
+                              @Value("${carteirinha.chaves.publicadas:}") String chavesPublicadas,
+                              @Value("${carteirinha.validade-dias:30}") int validadeDias,
+                              @Value("${carteirinha.pacote.validade-horas:24}") int validadePacoteHoras,
+                              @Value("${carteirinha.fuso:America/Sao_Paulo}") String fuso,
+                              @Value("${carteirinha.gravacao-ms:60000}") long gravacaoMillis,
+                              @Value("${carteirinha.topico-emissoes:carteirinha-emissoes}") String topicoEmissoes,
+                              KafkaTemplate<String, String> kafkaTemplate)
+            throws IOException, GeneralSecurityException {
+        this(ChavesCarteirinha.configuradas(idChave, chavePrivada, chavePublica, chavesPublicadas),
+            new RegistroEmissoes(null), validadeDias, 0, validadePacoteHoras, ZoneId.of(fuso), gravacaoMillis,
+            Clock.systemUTC(), kafkaTemplate, topicoEmissoes);
+    }
+
+    /**
+     * Configured keys without a broker (tests, tools): issuances of other
+     * instances only arrive through {@link #registrarEmissao}.
+     *
+     * @param chavesPublicadas other keys to publish, {@code id:base64 X.509} separated by commas
+     */
+    public EmissorCarteirinha(int idChave, String chavePrivada, String chavePublica, String chavesPublicadas,
+                              int validadeDias, int validadePacoteHoras, ZoneId zona, Clock clock)
+            throws IOException, GeneralSecurityException {
+        this(ChavesCarteirinha.configuradas(idChave, chavePrivada, chavePublica, chavesPublicadas),
+            new RegistroEmissoes(null), validadeDias, 0, validadePacoteHoras, zona, 60000, clock, null, null);
+    }
+
+    /**
+     * Standalone constructor (tests, tools) for a single issuing instance:
+     * generated keyring and registry under {@code diretorio}. No periodic
+     * flush or rotation until {@link #iniciar()}; both also happen on demand.
+     */
+    public EmissorCarteirinha(Path diretorio, int validadeDias, int rotacaoDias, int validadePacoteHoras,
+                              ZoneId zona, Clock clock) throws IOException, GeneralSecurityException {
+        this(new ChavesCarteirinha(diretorio.resolve("chaves")),
+            new RegistroEmissoes(diretorio.resolve("emissoes.dat")), validadeDias, rotacaoDias, validadePacoteHoras, zona, 60000, clock, null, null);
+    }
+
+    private EmissorCarteirinha(ChavesCarteirinha chaves, RegistroEmissoes registro, int validadeDias,
+                               int rotacaoDias, int validadePacoteHoras, ZoneId zona, long gravacaoMillis,
+                               Clock clock, KafkaTemplate<String, String> kafkaTemplate, String topicoEmissoes)
+            throws IOException, GeneralSecurityException {
+        this.chaves = chaves;
+        this.registro = registro;
+        this.kafkaTemplate = kafkaTemplate;
+        this.topicoEmissoes = topicoEmissoes;
+        this.validadeDias = validadeDias;
+        this.rotacaoSegundos = Duration.ofDays(rotacaoDias).toSeconds();
+        this.validadePacoteSegundos = Duration.ofHours(validadePacoteHoras).toSeconds();
+        // Valid through the last day in the card's zone, whatever the offset
+        this.vidaTokenSegundos = Duration.ofDays(validadeDias + 2L).toSeconds();
+        this.gravacaoMillis = gravacaoMillis;
+        this.zona = zona;
+        this.clock = clock;
+
+        chaves.manter(agora(), rotacaoSegundos, vidaTokenSegundos);
+        logger.info("Card issuer ready: signing key {}, {} published keys, {} revoked cards",
+            chaves.idAtiva(), chaves.publicadas().size(), registro.revogacoes().size());
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "carteirinha-manutencao");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(() -> {
+            try {
+                manutencao();
+            } catch (Exception e) {
+                logger.error("Error in card key/revocation maintenance: {}", e.getMessage(), e);
+            }
+        }, gravacaoMillis, gravacaoMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void parar() throws IOException, InterruptedException {
+        if (ticker != null) {
+            ticker.shutdown();
+            ticker.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        synchronized (this) {
+            registro.gravar();
+        }
+    }
+
+    /**
+     * Signs a card token valid from today for {@code carteirinha.validade-dias}.
+     *
+     * @param fimCarencias last day of the longest pending waiting period, null if none
+     * @return QR code text
+     */
+    public String emitir(String cartaoNumero, String codigoPlano, Set<CoberturaCarteirinha> coberturas, boolean cpt,
+                         LocalDate fimCarencias) {
+        long agora = agora();
+        LocalDate hoje = LocalDate.now(clock.withZone(zona));
+        int idChave;
+        PrivateKey privada;
+        TokenCarteirinha token;
+        synchronized (this) {
+            rotacionarSeVencida(agora);
+            idChave = chaves.idAtiva();
+            privada = chaves.privadaAtiva();
+            token = new TokenCarteirinha(idChave, agora, cartaoNumero, codigoPlano, hoje,
+                hoje.plusDays(validadeDias), fimCarencias, coberturas, cpt);
+            registro.emitido(token.getChaveCartao(), agora);
+        }
+        byte[] payload = token.empacotar();
+        String codigo;
+        try {
+            Signature assinatura = ASSINATURA.get();
+            assinatura.initSign(privada);
+            assinatura.update(payload);
+            codigo = TokenCarteirinha.codificar(payload, assinatura.sign());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not sign card token with key " + idChave, e);
+        }
+        tokensEmitidos.increment();
+        if (kafkaTemplate != null) {
+            publicar(cartaoNumero, agora);
+        }
+        return codigo;
+    }
+
+    /**
+     * Records a token issued by any instance, read back from the issuance
+     * topic. Issuances whose tokens have all expired are ignored.
+     *
+     * @return whether the card may hold an unexpired token
+     */
+    public synchronized boolean registrarEmissao(String cartaoNumero, long emitidoEm) {
+        long cartao = TokenCarteirinha.chaveCartao(cartaoNumero);
+        if (cartao < 0 || emitidoEm + vidaTokenSegundos <= agora()) {
+            return false;
+        }
+        registro.emitido(cartao, emitidoEm);
+        return true;
+    }
+
+    /**
+     * Revokes every token issued to the card so far. No-op when the card
+     * holds no unexpired token.
+     *
+     * @return whether a revocation was added to the list
+     */
+    public synchronized boolean revogar(String cartaoNumero) {
+        long cartao = TokenCarteirinha.chaveCartao(cartaoNumero);
+        if (cartao < 0 || !registro.revogar(cartao, agora(), vidaTokenSegundos)) {
+            return false;
+        }
+        pacote = null;
+        cartoesRevogados.increment();
+        logger.info("Card {} revoked for offline verification", cartaoNumero);
+        return true;
+    }
+
+    /**
+     * Current signed verification bundle; re-signed when the keys or the
+     * revocation list changed or half its validity has passed.
+     *
+     * @throws IntegrationException while the issuance topic is still replaying
+     */
+    public synchronized byte[] pacoteVerificacao() {
+        if (!replicado) {
+            throw new IntegrationException("Card verification bundle unavailable: card issuances still replaying");
+        }
+        long agora = agora();
+        rotacionarSeVencida(agora);
+        if (pacote != null && agora < pacoteEmitidoEm + validadePacoteSegundos / 2) {
+            return pacote;
+        }
+        manterChaves(agora);
+        try {
+            registro.podar(agora, vidaTokenSegundos);
+            registro.gravar();
+            // Strictly increasing, verifiers reject anything not newer than what they hold
+            long emitidoEm = Math.max(agora, pacoteEmitidoEm + 1);
+            pacote = PacoteVerificacao.assinar(emitidoEm, emitidoEm + validadePacoteSegundos,
+                chaves.publicadas(), registro.revogacoes(), chaves.idAtiva(), chaves.privadaAtiva());
+            pacoteEmitidoEm = emitidoEm;
+            pacotesGerados.increment();
+            return pacote;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not sign verification bundle", e);
+        }
+    }
+
+    /**
+     * Keys to pin when installing a verifier.
+     */
+    public synchronized Map<Integer, PublicKey> chavesPublicadas() {
+        return chaves.publicadas();
+    }
+
+    /**
+     * Rotates keys when due, prunes expired issuances and revocations and
+     * flushes the registry.
+     */
+    public synchronized void manutencao() throws IOException {
+        long agora = agora();
+        manterChaves(agora);
+        registro.podar(agora, vidaTokenSegundos);
+        registro.gravar();
+    }
+
+    /**
+     * Set by the issuance consumer: false while it replays the issuance topic
+     * after startup.
+     */
+    public void setReplicado(boolean replicado) {
+        this.replicado = replicado;
+    }
+
+    public boolean isReplicado() {
+        return replicado;
+    }
+
+    public long getTokensEmitidos() {
+        return tokensEmitidos.sum();
+    }
+
+    public long getEmissoesNaoPublicadas() {
+        return emissoesNaoPublicadas.sum();
+    }
+
+    public long getCartoesRevogados() {
+        return cartoesRevogados.sum();
+    }
+
+    public long getPacotesGerados() {
+        return pacotesGerados.sum();
+    }
+
+    public synchronized int getRevogacoesPublicadas() {
+        return registro.revogacoes().size();
+    }
+
+    private void rotacionarSeVencida(long agora) {
+        if (chaves.rotacaoVencida(agora, rotacaoSegundos)) {
+            manterChaves(agora);
+        }
+    }
+
+    private void manterChaves(long agora) {
+        try {
+            if (chaves.manter(agora, rotacaoSegundos, vidaTokenSegundos)) {
+                pacote = null;
+                logger.info("Card signing keys updated: signing key {}, published {}",
+                    chaves.idAtiva(), chaves.publicadas().keySet());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not rotate card signing keys", e);
+        }
+    }
+
+    private void publicar(String cartaoNumero, long emitidoEm) {
+        // Card numbers are digits only, TokenCarteirinha rejected anything else
+        kafkaTemplate.send(topicoEmissoes, cartaoNumero,
+            "{\"cartao\":\"" + cartaoNumero + "\",\"emitidoEm\":" + emitidoEm + "}").addCallback(
+            resultado -> { },
+            e -> {
+                // Other instances will not revoke this token
+                emissoesNaoPublicadas.increment();
+                logger.error("Could not publish card issuance for {}: {}", cartaoNumero, e.getMessage(), e);
+            });
+    }
+
+    private long agora() {
+        return clock.instant().getEpochSecond();
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.austa.experiencia.service.carteirinha;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verification bundle synced by provider reception software. The bundle is
+ * signed, so it can be mirrored or cached anywhere; providers reject one that
+ * is not newer than what they hold.
+ *
+ * GET /api/v1/carteirinha/pacote-verificacao
+ */
+@RestController
+@RequestMapping("/api/v1/carteirinha")
+public class PacoteVerificacaoController {
+
+    private final EmissorCarteirinha emissorCarteirinha;
+
+    @Autowired
+    public PacoteVerificacaoController(EmissorCarteirinha emissorCarteirinha) {
+        this.emissorCarteirinha = emissorCarteirinha;
+    }
+
+    @GetMapping("/pacote-verificacao")
+    public ResponseEntity<byte[]> pacoteVerificacao() {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+            .body(emissorCarteirinha.pacoteVerificacao());
+    }
+}
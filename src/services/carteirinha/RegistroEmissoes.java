@@ -0,0 +1,159 @@
+package br.com.austa.experiencia.service.carteirinha;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Last issuance and revocation instant per card, keyed by
+ * {@code TokenCarteirinha.chaveCartao}, in epoch seconds.
+ *
+ * Only cards holding a possibly unexpired token need a revocation entry, so
+ * a revocation is recorded only when the card was issued a token within the
+ * token lifetime, and both maps drop entries once that lifetime has passed.
+ * This keeps the published list short and makes a replay of the eligibility
+ * feed harmless.
+ *
+ * Persisted as one framed record, [len(4) crc32(4) payload], rewritten to a
+ * temporary file and moved into place when dirty; without a file it lives in
+ * memory only and is rebuilt from the shared issuance and eligibility feeds.
+ * Not thread-safe; the issuer serializes access.
+ */
+final class RegistroEmissoes {
+
+    private final Path arquivo;
+    private final Map<Long, Long> emissoes = new HashMap<>();
+    private final Map<Long, Long> revogacoes = new HashMap<>();
+    private boolean alterado;
+
+    /**
+     * @param arquivo null to keep the registry in memory only
+     */
+    RegistroEmissoes(Path arquivo) throws IOException {
+        this.arquivo = arquivo;
+        if (arquivo != null && Files.exists(arquivo)) {
+            ler();
+        }
+    }
+
+    /**
+     * Records an issuance; an older one than the card's latest is ignored.
+     */
+    void emitido(long cartao, long emitidoEm) {
+        Long anterior = emissoes.get(cartao);
+        if (anterior == null || anterior < emitidoEm) {
+            emissoes.put(cartao, emitidoEm);
+            alterado = true;
+        }
+    }
+
+    /**
+     * @return false if the card holds no token that could still be valid
+     */
+    boolean revogar(long cartao, long agora, long vidaToken) {
+        Long emitidoEm = emissoes.get(cartao);
+        if (emitidoEm == null || emitidoEm + vidaToken <= agora) {
+            return false;
+        }
+        Long anterior = revogacoes.get(cartao);
+        if (anterior != null && anterior >= emitidoEm) {
+            return false;
+        }
+        revogacoes.put(cartao, agora);
+        alterado = true;
+        return true;
+    }
+
+    /**
+     * Drops issuances and revocations older than the token lifetime.
+     */
+    void podar(long agora, long vidaToken) {
+        long limite = agora - vidaToken;
+        alterado |= emissoes.values().removeIf(emitidoEm -> emitidoEm < limite);
+        alterado |= revogacoes.values().removeIf(revogadoEm -> revogadoEm < limite);
+    }
+
+    Map<Long, Long> revogacoes() {
+        return revogacoes;
+    }
+
+    int getEmissoes() {
+        return emissoes.size();
+    }
+
+    boolean isAlterado() {
+        return alterado;
+    }
+
+    void gravar() throws IOException {
+        if (!alterado || arquivo == null) {
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + (emissoes.size() + revogacoes.size()) * 16);
+        DataOutputStream out = new DataOutputStream(bytes);
+        escrever(out, emissoes);
+        escrever(out, revogacoes);
+        byte[] payload = bytes.toByteArray();
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer buffer = ByteBuffer.allocate(8 + payload.length);
+        buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            canal.force(true);
+        }
+        Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        alterado = false;
+    }
+
+    private void ler() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(arquivo));
+        try {
+            int tamanho = buffer.getInt();
+            int esperado = buffer.getInt();
+            if (tamanho != buffer.remaining()) {
+                throw new IOException("Truncated card issuance registry " + arquivo);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.array(), 8, tamanho);
+            if ((int) crc.getValue() != esperado) {
+                throw new IOException("Corrupt card issuance registry " + arquivo);
+            }
+            ler(buffer, emissoes);
+            ler(buffer, revogacoes);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated card issuance registry " + arquivo, e);
+        }
+    }
+
+    private static void escrever(DataOutputStream out, Map<Long, Long> mapa) throws IOException {
+        out.writeInt(mapa.size());
+        for (Map.Entry<Long, Long> entrada : mapa.entrySet()) {
+            out.writeLong(entrada.getKey());
+            out.writeLong(entrada.getValue());
+        }
+    }
+
+    private static void ler(ByteBuffer buffer, Map<Long, Long> mapa) {
+        int quantidade = buffer.getInt();
+        for (int i = 0; i < quantidade; i++) {
+            mapa.put(buffer.getLong(), buffer.getLong());
+        }
+    }
+}
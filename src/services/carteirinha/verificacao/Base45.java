@@ -0,0 +1,83 @@
+package br.com.austa.experiencia.service.carteirinha.verificacao;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Base45 (RFC 9285): binary to the QR alphanumeric alphabet. QR alphanumeric
+ * mode packs 5.5 bits per character, so a Base45 payload makes a smaller code
+ * than Base64 in byte mode for the same bytes.
+ */
+public final class Base45 {
+
+    private static final byte[] ALFABETO = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ $%*+-./:"
+        .getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] VALOR = new byte[128];
+
+    static {
+        Arrays.fill(VALOR, (byte) -1);
+        for (int i = 0; i < ALFABETO.length; i++) {
+            VALOR[ALFABETO[i]] = (byte) i;
+        }
+    }
+
+    private Base45() {
+    }
+
+    public static String codificar(byte[] dados) {
+        byte[] saida = new byte[dados.length / 2 * 3 + (dados.length % 2) * 2];
+        int j = 0;
+        for (int i = 0; i + 1 < dados.length; i += 2) {
+            int n = (dados[i] & 0xFF) << 8 | (dados[i + 1] & 0xFF);
+            saida[j++] = ALFABETO[n % 45];
+            saida[j++] = ALFABETO[n / 45 % 45];
+            saida[j++] = ALFABETO[n / 2025];
+        }
+        if (dados.length % 2 == 1) {
+            int n = dados[dados.length - 1] & 0xFF;
+            saida[j++] = ALFABETO[n % 45];
+            saida[j] = ALFABETO[n / 45];
+        }
+        return new String(saida, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Decodes {@code texto} from {@code inicio} to its end.
+     *
+     * @throws IllegalArgumentException if it is not valid Base45
+     */
+    public static byte[] decodificar(String texto, int inicio) {
+        int tamanho = texto.length() - inicio;
+        if (tamanho < 0 || tamanho % 3 == 1) {
+            throw new IllegalArgumentException("Invalid Base45 length");
+        }
+        byte[] saida = new byte[tamanho / 3 * 2 + (tamanho % 3 == 2 ? 1 : 0)];
+        int j = 0;
+        int i = inicio;
+        for (; i + 2 < texto.length(); i += 3) {
+            int n = valor(texto, i) + valor(texto, i + 1) * 45 + valor(texto, i + 2) * 2025;
+            if (n > 0xFFFF) {
+                throw new IllegalArgumentException("Invalid Base45 triplet at " + i);
+            }
+            saida[j++] = (byte) (n >> 8);
+            saida[j++] = (byte) n;
+        }
+        if (i < texto.length()) {
+            int n = valor(texto, i) + valor(texto, i + 1) * 45;
+            if (n > 0xFF) {
+                throw new IllegalArgumentException("Invalid Base45 pair at " + i);
+            }
+            saida[j] = (byte) n;
+        }
+        return saida;
+    }
+
+    private static int valor(String texto, int i) {
+        char c = texto.charAt(i);
+        int valor = c < 128 ? VALOR[c] : -1;
+        if (valor < 0) {
+            throw new IllegalArgumentException("Invalid Base45 character '" + c + "' at " + i);
+        }
+        return valor;
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.austa.experiencia.service.carteirinha.verificacao;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Assistance segmentations printed on the card, one bit each in the token.
+ */
+public enum CoberturaCarteirinha {
+
+    AMBULATORIAL,
+    HOSPITALAR,
+    OBSTETRICIA,
+    ODONTOLOGICA;
+
+    private static final CoberturaCarteirinha[] VALORES = values();
+
+    static int bits(Set<CoberturaCarteirinha> coberturas) {
+        int bits = 0;
+        for (CoberturaCarteirinha cobertura : coberturas) {
+            bits |= 1 << cobertura.ordinal();
+        }
+        return bits;
+    }
+
+    static Set<CoberturaCarteirinha> de(int bits) {
+        Set<CoberturaCarteirinha> coberturas = EnumSet.noneOf(CoberturaCarteirinha.class);
+        for (CoberturaCarteirinha cobertura : VALORES) {
+            if ((bits & 1 << cobertura.ordinal()) != 0) {
+                coberturas.add(cobertura);
+            }
+        }
+        return coberturas;
+    }
+}
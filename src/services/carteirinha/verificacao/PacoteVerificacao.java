@@ -0,0 +1,186 @@
+package br.com.austa.experiencia.service.carteirinha.verificacao;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * What a provider syncs to verify cards offline: the published public keys
+ * and the revocation list, signed by the issuer's active key.
+ *
+ * Binary, big-endian:
+ * - magic "ACPV" (4), version (1), issued at and valid until, epoch seconds (8 each)
+ * - key count (1), then per key: id (1), length (2), X.509 encoded Ed25519 key
+ * - revocation count (4), then per revoked card, ascending by card key:
+ *   card key (8) and revoked at, epoch seconds (8); tokens of that card issued
+ *   up to that instant are revoked
+ * - signing key id (1) and Ed25519 signature (64) of everything before it
+ *
+ * A revocation is listed only until every token it covers has expired, so
+ * the list stays as short as the token validity.
+ */
+public final class PacoteVerificacao {
+
+    private static final int MAGICO = 0x41435056;
+    private static final int VERSAO = 1;
+
+    private final long emitidoEm;
+    private final long validoAte;
+    private final PublicKey[] chaves;
+    private final long[] cartoesRevogados;
+    private final long[] revogadoEm;
+    private final int idAssinante;
+    private final byte[] dados;
+
+    private PacoteVerificacao(long emitidoEm, long validoAte, PublicKey[] chaves, long[] cartoesRevogados,
+                              long[] revogadoEm, int idAssinante, byte[] dados) {
+        this.emitidoEm = emitidoEm;
+        this.validoAte = validoAte;
+        this.chaves = chaves;
+        this.cartoesRevogados = cartoesRevogados;
+        this.revogadoEm = revogadoEm;
+        this.idAssinante = idAssinante;
+        this.dados = dados;
+    }
+
+    /**
+     * Builds and signs a bundle (issuer side).
+     *
+     * @param revogacoes card key → revoked at, epoch seconds
+     */
+    public static byte[] assinar(long emitidoEm, long validoAte, Map<Integer, PublicKey> chaves,
+                                 Map<Long, Long> revogacoes, int idAssinante, PrivateKey chaveAssinante)
+            throws GeneralSecurityException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + chaves.size() * 48 + revogacoes.size() * 16);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeInt(MAGICO);
+            out.writeByte(VERSAO);
+            out.writeLong(emitidoEm);
+            out.writeLong(validoAte);
+            out.writeByte(chaves.size());
+            for (Map.Entry<Integer, PublicKey> chave : new TreeMap<>(chaves).entrySet()) {
+                byte[] codificada = chave.getValue().getEncoded();
+                out.writeByte(chave.getKey());
+                out.writeShort(codificada.length);
+                out.write(codificada);
+            }
+            out.writeInt(revogacoes.size());
+            for (Map.Entry<Long, Long> revogacao : new TreeMap<>(revogacoes).entrySet()) {
+                out.writeLong(revogacao.getKey());
+                out.writeLong(revogacao.getValue());
+            }
+            out.writeByte(idAssinante);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] assinado = bytes.toByteArray();
+
+        Signature assinatura = Signature.getInstance("Ed25519");
+        assinatura.initSign(chaveAssinante);
+        assinatura.update(assinado);
+        bytes.writeBytes(assinatura.sign());
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Parses a bundle without checking its signature; see {@link #assinadoPor}.
+     *
+     * @throws IllegalArgumentException if it is not a well-formed bundle
+     */
+    public static PacoteVerificacao ler(byte[] dados) throws GeneralSecurityException {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(dados);
+            if (buffer.getInt() != MAGICO || buffer.get() != VERSAO) {
+                throw new IllegalArgumentException("Not a version " + VERSAO + " verification bundle");
+            }
+            long emitidoEm = buffer.getLong();
+            long validoAte = buffer.getLong();
+
+            KeyFactory fabrica = KeyFactory.getInstance("Ed25519");
+            PublicKey[] chaves = new PublicKey[256];
+            int quantidadeChaves = buffer.get() & 0xFF;
+            for (int i = 0; i < quantidadeChaves; i++) {
+                int id = buffer.get() & 0xFF;
+                byte[] codificada = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(codificada);
+                chaves[id] = fabrica.generatePublic(new X509EncodedKeySpec(codificada));
+            }
+
+            int quantidadeRevogacoes = buffer.getInt();
+            if (quantidadeRevogacoes < 0 || quantidadeRevogacoes > buffer.remaining() / 16) {
+                throw new IllegalArgumentException("Invalid revocation count " + quantidadeRevogacoes);
+            }
+            long[] cartoes = new long[quantidadeRevogacoes];
+            long[] revogadoEm = new long[quantidadeRevogacoes];
+            for (int i = 0; i < quantidadeRevogacoes; i++) {
+                cartoes[i] = buffer.getLong();
+                revogadoEm[i] = buffer.getLong();
+                if (i > 0 && cartoes[i] <= cartoes[i - 1]) {
+                    throw new IllegalArgumentException("Revocation list is not sorted");
+                }
+            }
+            int idAssinante = buffer.get() & 0xFF;
+            if (buffer.remaining() != TokenCarteirinha.TAMANHO_ASSINATURA) {
+                throw new IllegalArgumentException("Invalid bundle signature length");
+            }
+            return new PacoteVerificacao(emitidoEm, validoAte, chaves, cartoes, revogadoEm, idAssinante, dados);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated verification bundle", e);
+        }
+    }
+
+    /**
+     * Whether the bundle was signed with {@code chave}.
+     */
+    public boolean assinadoPor(PublicKey chave) throws GeneralSecurityException {
+        int assinado = dados.length - TokenCarteirinha.TAMANHO_ASSINATURA;
+        Signature assinatura = Signature.getInstance("Ed25519");
+        assinatura.initVerify(chave);
+        assinatura.update(dados, 0, assinado);
+        return assinatura.verify(dados, assinado, TokenCarteirinha.TAMANHO_ASSINATURA);
+    }
+
+    public long getEmitidoEm() {
+        return emitidoEm;
+    }
+
+    public long getValidoAte() {
+        return validoAte;
+    }
+
+    public int getIdAssinante() {
+        return idAssinante;
+    }
+
+    public int getRevogacoes() {
+        return cartoesRevogados.length;
+    }
+
+    /**
+     * Public keys indexed by key id; null where no key is published.
+     */
+    PublicKey[] chaves() {
+        return chaves;
+    }
+
+    /**
+     * @return the instant up to which tokens of the card are revoked, -1 if none
+     */
+    long revogadoEm(long chaveCartao) {
+        int i = Arrays.binarySearch(cartoesRevogados, chaveCartao);
+        return i >= 0 ? revogadoEm[i] : -1;
+    }
+}
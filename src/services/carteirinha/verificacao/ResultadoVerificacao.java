@@ -0,0 +1,35 @@
+package br.com.austa.experiencia.service.carteirinha.verificacao;
+
+/**
+ * Situation of a checked card plus, once its signature is verified, its contents.
+ */
+public final class ResultadoVerificacao {
+
+    private final SituacaoVerificacao situacao;
+    private final TokenCarteirinha token;
+
+    ResultadoVerificacao(SituacaoVerificacao situacao, TokenCarteirinha token) {
+        this.situacao = situacao;
+        this.token = token;
+    }
+
+    public SituacaoVerificacao getSituacao() {
+        return situacao;
+    }
+
+    public boolean isValida() {
+        return situacao == SituacaoVerificacao.VALIDA;
+    }
+
+    /**
+     * Signed card contents; null unless the signature was verified.
+     */
+    public TokenCarteirinha getToken() {
+        return token;
+    }
+
+    @Override
+    public String toString() {
+        return token == null ? situacao.name() : situacao + " " + token.getCartaoNumero();
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.austa.experiencia.service.carteirinha.verificacao;
+
+/**
+ * Outcome of an offline card check. Only {@link #VALIDA} admits the member
+ * without a call to the operator; {@link #LISTA_VENCIDA} means the card
+ * itself checked out but revocations are unknown, so check online.
+ */
+public enum SituacaoVerificacao {
+
+    VALIDA,
+    /** Not a card QR code, or damaged. */
+    FORMATO_INVALIDO,
+    /** Signed with a key that is not (or no longer) published. */
+    CHAVE_DESCONHECIDA,
+    ASSINATURA_INVALIDA,
+    /** The synced verification bundle is past its validity. */
+    LISTA_VENCIDA,
+    REVOGADA,
+    /** Before the card's first valid day. */
+    NAO_VIGENTE,
+    EXPIRADA
+}
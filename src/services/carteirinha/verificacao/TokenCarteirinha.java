@@ -0,0 +1,208 @@
+package br.com.austa.experiencia.service.carteirinha.verificacao;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Signed contents of the member card QR code.
+ *
+ * QR text: {@code AC1:} + Base45(payload + Ed25519 signature of the payload).
+ * Payload, big-endian, 22 bytes plus the plan code:
+ * - version (1), key id (1), issued at, epoch seconds (4)
+ * - card (8): number of digits in the top bits, numeric value below, so
+ *   leading zeros survive
+ * - valid from, valid until, end of waiting periods (2 each, epoch days;
+ *   0 = no waiting period)
+ * - flags (1): one bit per {@link CoberturaCarteirinha}, top bit = CPT
+ * - plan code length (1) and ASCII plan code
+ */
+public final class TokenCarteirinha {
+
+    public static final String PREFIXO = "AC1:";
+    public static final int TAMANHO_ASSINATURA = 64;
+
+    static final int VERSAO = 1;
+    static final int TAMANHO_FIXO = 22;
+
+    private static final int MAX_DIGITOS_CARTAO = 17;
+    private static final int BIT_CPT = 0x80;
+    private static final int MAX_DIA = 0xFFFF;
+
+    private final int idChave;
+    private final long emitidoEm;
+    private final long cartao;
+    private final String codigoPlano;
+    private final LocalDate inicioValidade;
+    private final LocalDate fimValidade;
+    private final LocalDate fimCarencias;
+    private final Set<CoberturaCarteirinha> coberturas;
+    private final boolean cpt;
+
+    /**
+     * @param emitidoEm    epoch seconds
+     * @param fimCarencias last day of the longest waiting period, null if none
+     */
+    public TokenCarteirinha(int idChave, long emitidoEm, String cartaoNumero, String codigoPlano,
+                            LocalDate inicioValidade, LocalDate fimValidade, LocalDate fimCarencias,
+                            Set<CoberturaCarteirinha> coberturas, boolean cpt) {
+        this(idChave, emitidoEm, chaveCartao(cartaoNumero), codigoPlano, inicioValidade, fimValidade,
+            fimCarencias, coberturas, cpt);
+        if (cartao < 0) {
+            throw new IllegalArgumentException("Card number must have 1 to " + MAX_DIGITOS_CARTAO
+                + " digits: " + cartaoNumero);
+        }
+    }
+
+    private TokenCarteirinha(int idChave, long emitidoEm, long cartao, String codigoPlano,
+                             LocalDate inicioValidade, LocalDate fimValidade, LocalDate fimCarencias,
+                             Set<CoberturaCarteirinha> coberturas, boolean cpt) {
+        this.idChave = idChave;
+        this.emitidoEm = emitidoEm;
+        this.cartao = cartao;
+        this.codigoPlano = codigoPlano != null ? codigoPlano : "";
+        this.inicioValidade = inicioValidade;
+        this.fimValidade = fimValidade;
+        this.fimCarencias = fimCarencias;
+        this.coberturas = Collections.unmodifiableSet(coberturas);
+        this.cpt = cpt;
+    }
+
+    /**
+     * Card number as the 8-byte key used in tokens and revocation lists.
+     *
+     * @return -1 if not 1 to 17 digits
+     */
+    public static long chaveCartao(String cartaoNumero) {
+        if (cartaoNumero == null || cartaoNumero.isEmpty() || cartaoNumero.length() > MAX_DIGITOS_CARTAO) {
+            return -1;
+        }
+        long numero = 0;
+        for (int i = 0; i < cartaoNumero.length(); i++) {
+            char c = cartaoNumero.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            numero = numero * 10 + (c - '0');
+        }
+        return (long) cartaoNumero.length() << 57 | numero;
+    }
+
+    /**
+     * The bytes that are signed.
+     */
+    public byte[] empacotar() {
+        byte[] plano = codigoPlano.getBytes(StandardCharsets.US_ASCII);
+        if (plano.length > 255) {
+            throw new IllegalArgumentException("Plan code too long: " + codigoPlano);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_FIXO + plano.length);
+        buffer.put((byte) VERSAO)
+            .put((byte) idChave)
+            .putInt((int) emitidoEm)
+            .putLong(cartao)
+            .putShort(dia(inicioValidade))
+            .putShort(dia(fimValidade))
+            .putShort(fimCarencias != null ? dia(fimCarencias) : 0)
+            .put((byte) (CoberturaCarteirinha.bits(coberturas) | (cpt ? BIT_CPT : 0)))
+            .put((byte) plano.length)
+            .put(plano);
+        return buffer.array();
+    }
+
+    /**
+     * Text for the QR code.
+     */
+    public static String codificar(byte[] payload, byte[] assinatura) {
+        byte[] dados = new byte[payload.length + assinatura.length];
+        System.arraycopy(payload, 0, dados, 0, payload.length);
+        System.arraycopy(assinatura, 0, dados, payload.length, assinatura.length);
+        return PREFIXO + Base45.codificar(dados);
+    }
+
+    /**
+     * Reads the first {@code tamanho} bytes of {@code dados} as a payload.
+     *
+     * @throws IllegalArgumentException if it is not a version 1 payload
+     */
+    static TokenCarteirinha desempacotar(byte[] dados, int tamanho) {
+        if (tamanho < TAMANHO_FIXO || dados[0] != VERSAO) {
+            throw new IllegalArgumentException("Not a version " + VERSAO + " card token");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(dados, 0, tamanho);
+        buffer.get();
+        int idChave = buffer.get() & 0xFF;
+        long emitidoEm = buffer.getInt() & 0xFFFFFFFFL;
+        long cartao = buffer.getLong();
+        LocalDate inicio = LocalDate.ofEpochDay(buffer.getShort() & 0xFFFF);
+        LocalDate fim = LocalDate.ofEpochDay(buffer.getShort() & 0xFFFF);
+        int carencias = buffer.getShort() & 0xFFFF;
+        int flags = buffer.get() & 0xFF;
+        int tamanhoPlano = buffer.get() & 0xFF;
+        if (TAMANHO_FIXO + tamanhoPlano != tamanho) {
+            throw new IllegalArgumentException("Card token length does not match its plan code");
+        }
+        String plano = new String(dados, TAMANHO_FIXO, tamanhoPlano, StandardCharsets.US_ASCII);
+        return new TokenCarteirinha(idChave, emitidoEm, cartao, plano, inicio, fim,
+            carencias == 0 ? null : LocalDate.ofEpochDay(carencias),
+            CoberturaCarteirinha.de(flags), (flags & BIT_CPT) != 0);
+    }
+
+    public int getIdChave() {
+        return idChave;
+    }
+
+    public long getEmitidoEm() {
+        return emitidoEm;
+    }
+
+    public long getChaveCartao() {
+        return cartao;
+    }
+
+    public String getCartaoNumero() {
+        int digitos = (int) (cartao >>> 57);
+        String numero = Long.toString(cartao & ((1L << 57) - 1));
+        return "0".repeat(Math.max(0, digitos - numero.length())) + numero;
+    }
+
+    public String getCodigoPlano() {
+        return codigoPlano;
+    }
+
+    public LocalDate getInicioValidade() {
+        return inicioValidade;
+    }
+
+    public LocalDate getFimValidade() {
+        return fimValidade;
+    }
+
+    /**
+     * Last day of the longest waiting period, null if none was pending at issuance.
+     */
+    public LocalDate getFimCarencias() {
+        return fimCarencias;
+    }
+
+    public Set<CoberturaCarteirinha> getCoberturas() {
+        return coberturas;
+    }
+
+    /**
+     * Partial temporary coverage (pre-existing conditions) in force.
+     */
+    public boolean isCpt() {
+        return cpt;
+    }
+
+    private static short dia(LocalDate data) {
+        long dia = data.toEpochDay();
+        if (dia < 1 || dia > MAX_DIA) {
+            throw new IllegalArgumentException("Date out of token range: " + data);
+        }
+        return (short) dia;
+    }
+}
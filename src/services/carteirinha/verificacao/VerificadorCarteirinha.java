@@ -0,0 +1,152 @@
+package br.com.austa.experiencia.service.carteirinha.verificacao;
+
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Verificador Carteirinha - offline verification of member card QR codes at provider reception
+ *
+ * Depends on the JDK only, so providers can embed this package as is:
+ * - install time: pin the issuer's public keys ({@code ancoras})
+ * - periodically: {@link #atualizar} with the latest {@link PacoteVerificacao}
+ *   (keys + revocation list); a bundle is accepted only if signed by a key
+ *   already trusted and newer than the current one
+ * - per visit: {@link #verificar} checks format, key, Ed25519 signature,
+ *   bundle freshness, revocation and validity dates with no network call
+ *
+ * Key rotation: the issuer publishes the next key one rotation period before
+ * it starts signing, so a verifier that syncs at least once per period
+ * follows the rotation without re-pinning.
+ *
+ * Thread-safe; the state is swapped atomically on update and each thread
+ * keeps its own {@link Signature}.
+ */
+public final class VerificadorCarteirinha {
+
+    private static final ThreadLocal<Signature> ASSINATURA = ThreadLocal.withInitial(() -> {
+        try {
+            return Signature.getInstance("Ed25519");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Ed25519 not available", e);
+        }
+    });
+
+    private final ZoneId zona;
+    private final Clock clock;
+
+    private volatile PublicKey[] chaves = new PublicKey[256];
+    private volatile PacoteVerificacao pacote;
+
+    private final LongAdder verificacoes = new LongAdder();
+    private final LongAdder validas = new LongAdder();
+
+    /**
+     * @param ancoras pinned issuer keys by key id
+     * @param zona    time zone of the card validity dates
+     */
+    public VerificadorCarteirinha(Map<Integer, PublicKey> ancoras, ZoneId zona, Clock clock) {
+        PublicKey[] iniciais = new PublicKey[256];
+        ancoras.forEach((id, chave) -> iniciais[id] = chave);
+        this.chaves = iniciais;
+        this.zona = zona;
+        this.clock = clock;
+    }
+
+    /**
+     * Installs a newer bundle.
+     *
+     * @throws GeneralSecurityException if it is not signed by a trusted key
+     * @throws IllegalArgumentException if it is malformed or not newer than the current one
+     */
+    public synchronized void atualizar(byte[] dados) throws GeneralSecurityException {
+        PacoteVerificacao novo = PacoteVerificacao.ler(dados);
+        PublicKey assinante = chaves[novo.getIdAssinante()];
+        if (assinante == null || !novo.assinadoPor(assinante)) {
+            throw new GeneralSecurityException("Verification bundle not signed by a trusted key (key "
+                + novo.getIdAssinante() + ")");
+        }
+        if (pacote != null && novo.getEmitidoEm() <= pacote.getEmitidoEm()) {
+            throw new IllegalArgumentException("Verification bundle is not newer than the installed one");
+        }
+        chaves = novo.chaves();
+        pacote = novo;
+    }
+
+    public ResultadoVerificacao verificar(String qrCode) {
+        verificacoes.increment();
+        if (qrCode == null || !qrCode.startsWith(TokenCarteirinha.PREFIXO)) {
+            return new ResultadoVerificacao(SituacaoVerificacao.FORMATO_INVALIDO, null);
+        }
+        byte[] dados;
+        try {
+            dados = Base45.decodificar(qrCode, TokenCarteirinha.PREFIXO.length());
+        } catch (IllegalArgumentException e) {
+            return new ResultadoVerificacao(SituacaoVerificacao.FORMATO_INVALIDO, null);
+        }
+        int assinado = dados.length - TokenCarteirinha.TAMANHO_ASSINATURA;
+        if (assinado < TokenCarteirinha.TAMANHO_FIXO) {
+            return new ResultadoVerificacao(SituacaoVerificacao.FORMATO_INVALIDO, null);
+        }
+
+        PublicKey chave = chaves[dados[1] & 0xFF];
+        if (chave == null) {
+            return new ResultadoVerificacao(SituacaoVerificacao.CHAVE_DESCONHECIDA, null);
+        }
+        try {
+            Signature assinatura = ASSINATURA.get();
+            assinatura.initVerify(chave);
+            assinatura.update(dados, 0, assinado);
+            if (!assinatura.verify(dados, assinado, TokenCarteirinha.TAMANHO_ASSINATURA)) {
+                return new ResultadoVerificacao(SituacaoVerificacao.ASSINATURA_INVALIDA, null);
+            }
+        } catch (GeneralSecurityException e) {
+            return new ResultadoVerificacao(SituacaoVerificacao.ASSINATURA_INVALIDA, null);
+        }
+
+        TokenCarteirinha token;
+        try {
+            token = TokenCarteirinha.desempacotar(dados, assinado);
+        } catch (IllegalArgumentException e) {
+            return new ResultadoVerificacao(SituacaoVerificacao.FORMATO_INVALIDO, null);
+        }
+
+        PacoteVerificacao atual = pacote;
+        if (atual == null || clock.instant().getEpochSecond() > atual.getValidoAte()) {
+            return new ResultadoVerificacao(SituacaoVerificacao.LISTA_VENCIDA, token);
+        }
+        if (token.getEmitidoEm() <= atual.revogadoEm(token.getChaveCartao())) {
+            return new ResultadoVerificacao(SituacaoVerificacao.REVOGADA, token);
+        }
+        LocalDate hoje = LocalDate.now(clock.withZone(zona));
+        if (hoje.isBefore(token.getInicioValidade())) {
+            return new ResultadoVerificacao(SituacaoVerificacao.NAO_VIGENTE, token);
+        }
+        if (hoje.isAfter(token.getFimValidade())) {
+            return new ResultadoVerificacao(SituacaoVerificacao.EXPIRADA, token);
+        }
+        validas.increment();
+        return new ResultadoVerificacao(SituacaoVerificacao.VALIDA, token);
+    }
+
+    /**
+     * Issue time of the installed bundle, epoch seconds; -1 before the first sync.
+     */
+    public long getPacoteEmitidoEm() {
+        PacoteVerificacao atual = pacote;
+        return atual != null ? atual.getEmitidoEm() : -1;
+    }
+
+    public long getVerificacoes() {
+        return verificacoes.sum();
+    }
+
+    public long getValidas() {
+        return validas.sum();
+    }
+}
@@ -0,0 +1,160 @@
+package br.com.austa.experiencia.service.cobertura;
+
+import br.com.austa.experiencia.service.kafka.ReposicaoTopico;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Feeds the coverage engine from the registration topics.
+ *
+ * The engine holds rol and contracts in memory only, and every instance needs
+ * all of them, so each instance consumes every partition of both topics under
+ * its own group from the beginning. Until both replays have reached the end
+ * offsets read at startup the engine reports itself not loaded.
+ *
+ * - rol-cobertura: full rol + product rules, published when the ANS rol is
+ *   updated or a product changes (rare, recompiled at once; the last one
+ *   replayed is the one in force)
+ *   {"versaoRol": "RN 465/2021 + 2025-10", "procedimentos": [{"codigoTuss": "10101012",
+ *    "descricao": "...", "segmentacoes": ["AMBULATORIAL"], "grupoCarencia": "CONSULTAS_EXAMES_SIMPLES",
+ *    "altaComplexidade": false}], "produtos": [{"codigo": "123456789", "segmentacoes": [...],
+ *    "coberturasAdicionais": [...], "exclusoes": [...], "coparticipacao": {"CONSULTAS_EXAMES_SIMPLES": 25.00}}]}
+ * - contratos-beneficiario: compacted topic keyed by beneficiarioId, so the
+ *   replay yields the latest contract of every beneficiary
+ *   {"beneficiarioId": "...", "codigoProduto": "123456789", "inicioVigencia": "2025-03-01",
+ *    "possuiCpt": false, "carenciasDias": {"PARTO": 0}, "cancelado": false}
+ */
+@Component("cadastroCoberturaConsumer")
+public class CadastroCoberturaConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(CadastroCoberturaConsumer.class);
+
+    @Autowired
+    private MotorCobertura motorCobertura;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private KafkaAdmin kafkaAdmin;
+
+    @Value("${cobertura.topico.rol:rol-cobertura}")
+    private String topicoRol;
+
+    @Value("${cobertura.topico.contratos:contratos-beneficiario}")
+    private String topicoContratos;
+
+    private ReposicaoTopico reposicaoRol;
+    private ReposicaoTopico reposicaoContratos;
+
+    @PostConstruct
+    public void iniciar() {
+        reposicaoRol = ReposicaoTopico.iniciar(kafkaAdmin, topicoRol);
+        reposicaoContratos = ReposicaoTopico.iniciar(kafkaAdmin, topicoContratos);
+        motorCobertura.setReplicado(reposicaoRol.isConcluida() && reposicaoContratos.isConcluida());
+    }
+
+    @KafkaListener(topics = "${cobertura.topico.rol:rol-cobertura}",
+                   groupId = "#{'${cobertura.kafka.group-id:motor-cobertura}-rol-' + T(java.util.UUID).randomUUID()}",
+                   properties = "auto.offset.reset=earliest")
+    public void onRol(ConsumerRecord<String, String> registro) throws Exception {
+        try {
+            aplicarRol(registro.value());
+        } finally {
+            // a record that keeps failing is skipped by the error handler; the replay must still end
+            if (reposicaoRol.avancar(registro.partition(), registro.offset()) && reposicaoContratos.isConcluida()) {
+                motorCobertura.setReplicado(true);
+            }
+        }
+    }
+
+    private void aplicarRol(String mensagem) throws Exception {
+        JsonNode evento = objectMapper.readTree(mensagem);
+
+        List<ProcedimentoRol> rol = new ArrayList<>();
+        for (JsonNode item : evento.path("procedimentos")) {
+            rol.add(new ProcedimentoRol(item.path("codigoTuss").asText(), item.path("descricao").asText(null),
+                segmentacoes(item.path("segmentacoes")),
+                GrupoCarencia.valueOf(item.path("grupoCarencia").asText("DEMAIS_PROCEDIMENTOS")),
+                item.path("altaComplexidade").asBoolean(false)));
+        }
+
+        List<ProdutoPlano> produtos = new ArrayList<>();
+        for (JsonNode item : evento.path("produtos")) {
+            Map<GrupoCarencia, BigDecimal> coparticipacao = new EnumMap<>(GrupoCarencia.class);
+            item.path("coparticipacao").fields().forEachRemaining(e ->
+                coparticipacao.put(GrupoCarencia.valueOf(e.getKey()), e.getValue().decimalValue()));
+            produtos.add(new ProdutoPlano(item.path("codigo").asText(), segmentacoes(item.path("segmentacoes")),
+                textos(item.path("coberturasAdicionais")), textos(item.path("exclusoes")), coparticipacao));
+        }
+
+        motorCobertura.publicarRol(evento.path("versaoRol").asText(), rol, produtos);
+    }
+
+    @KafkaListener(topics = "${cobertura.topico.contratos:contratos-beneficiario}",
+                   groupId = "#{'${cobertura.kafka.group-id:motor-cobertura}-contratos-' + T(java.util.UUID).randomUUID()}",
+                   properties = "auto.offset.reset=earliest",
+                   concurrency = "${cobertura.kafka.concurrency:2}")
+    public void onContrato(ConsumerRecord<String, String> registro) throws Exception {
+        try {
+            aplicarContrato(registro.value());
+        } finally {
+            // a record that keeps failing is skipped by the error handler; the replay must still end
+            if (reposicaoContratos.avancar(registro.partition(), registro.offset()) && reposicaoRol.isConcluida()) {
+                motorCobertura.setReplicado(true);
+            }
+        }
+    }
+
+    private void aplicarContrato(String mensagem) throws Exception {
+        JsonNode evento = objectMapper.readTree(mensagem);
+
+        String beneficiarioId = evento.path("beneficiarioId").asText(null);
+        if (beneficiarioId == null) {
+            logger.warn("Ignoring contract event without beneficiarioId: {}", mensagem);
+            return;
+        }
+        if (evento.path("cancelado").asBoolean(false)) {
+            motorCobertura.registrarContrato(ContratoBeneficiario.cancelado(beneficiarioId));
+            return;
+        }
+
+        Map<GrupoCarencia, Integer> carenciasDias = new EnumMap<>(GrupoCarencia.class);
+        evento.path("carenciasDias").fields().forEachRemaining(e ->
+            carenciasDias.put(GrupoCarencia.valueOf(e.getKey()), e.getValue().asInt()));
+        motorCobertura.registrarContrato(new ContratoBeneficiario(beneficiarioId,
+            evento.path("codigoProduto").asText(), LocalDate.parse(evento.path("inicioVigencia").asText()),
+            evento.path("possuiCpt").asBoolean(false), carenciasDias));
+    }
+
+    private static Set<Segmentacao> segmentacoes(JsonNode lista) {
+        Set<Segmentacao> segmentacoes = EnumSet.noneOf(Segmentacao.class);
+        lista.forEach(s -> segmentacoes.add(Segmentacao.valueOf(s.asText())));
+        return segmentacoes;
+    }
+
+    private static Set<String> textos(JsonNode lista) {
+        Set<String> textos = new HashSet<>();
+        lista.forEach(s -> textos.add(s.asText()));
+        return textos;
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.austa.experiencia.service.cobertura;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Contract state of one beneficiary as far as coverage is concerned.
+ *
+ * Waiting periods run from {@code inicioVigencia}; groups without an entry
+ * in {@code carenciasDias} use {@link GrupoCarencia#getDiasPadrao()}
+ * (reduced periods from portability or group contracts are given
+ * explicitly, 0 meaning exempt). The CPT period only exists when the
+ * beneficiary declared a pre-existing condition.
+ */
+public final class ContratoBeneficiario {
+
+    private final String beneficiarioId;
+    private final String codigoProduto;
+    private final LocalDate inicioVigencia;
+    private final boolean possuiCpt;
+    private final Map<GrupoCarencia, Integer> carenciasDias;
+    private final boolean cancelado;
+
+    public ContratoBeneficiario(String beneficiarioId, String codigoProduto, LocalDate inicioVigencia,
+                                boolean possuiCpt, Map<GrupoCarencia, Integer> carenciasDias) {
+        this(beneficiarioId, codigoProduto, inicioVigencia, possuiCpt, carenciasDias, false);
+    }
+
+    private ContratoBeneficiario(String beneficiarioId, String codigoProduto, LocalDate inicioVigencia,
+                                 boolean possuiCpt, Map<GrupoCarencia, Integer> carenciasDias, boolean cancelado) {
+        this.beneficiarioId = beneficiarioId;
+        this.codigoProduto = codigoProduto;
+        this.inicioVigencia = inicioVigencia;
+        this.possuiCpt = possuiCpt;
+        this.carenciasDias = carenciasDias.isEmpty()
+            ? new EnumMap<>(GrupoCarencia.class) : new EnumMap<>(carenciasDias);
+        this.cancelado = cancelado;
+    }
+
+    /**
+     * Contract ended: the beneficiary loses all coverage.
+     */
+    public static ContratoBeneficiario cancelado(String beneficiarioId) {
+        return new ContratoBeneficiario(beneficiarioId, null, null, false, Map.of(), true);
+    }
+
+    /**
+     * Last day of the waiting period of a group, as epoch day; a procedure
+     * on this day or earlier is still waiting.
+     */
+    int fimCarencia(GrupoCarencia grupo) {
+        if (grupo == GrupoCarencia.CPT && !possuiCpt) {
+            return Integer.MIN_VALUE;
+        }
+        int dias = carenciasDias.getOrDefault(grupo, grupo.getDiasPadrao());
+        return dias <= 0 ? Integer.MIN_VALUE : (int) inicioVigencia.toEpochDay() + dias - 1;
+    }
+
+    public String getBeneficiarioId() {
+        return beneficiarioId;
+    }
+
+    public String getCodigoProduto() {
+        return codigoProduto;
+    }
+
+    public LocalDate getInicioVigencia() {
+        return inicioVigencia;
+    }
+
+    public boolean isPossuiCpt() {
+        return possuiCpt;
+    }
+
+    public Map<GrupoCarencia, Integer> getCarenciasDias() {
+        return carenciasDias;
+    }
+
+    public boolean isCancelado() {
+        return cancelado;
+    }
+}
@@ -0,0 +1,36 @@
+package br.com.austa.experiencia.service.cobertura;
+
+/**
+ * Waiting-period groups of a contract.
+ *
+ * Default periods are the usual contract terms, within the limits of
+ * Lei 9.656/98 art. 12, V; CPT (Cobertura Parcial Temporária) only applies
+ * to beneficiaries with a declared pre-existing condition and restricts
+ * high-complexity procedures (PAC), surgeries and ICU beds.
+ */
+public enum GrupoCarencia {
+
+    URGENCIA_EMERGENCIA(1),
+    CONSULTAS_EXAMES_SIMPLES(30),
+    DEMAIS_PROCEDIMENTOS(180),
+    PARTO(300),
+    CPT(730);
+
+    static final int QUANTIDADE = values().length;
+
+    private static final GrupoCarencia[] VALORES = values();
+
+    private final int diasPadrao;
+
+    GrupoCarencia(int diasPadrao) {
+        this.diasPadrao = diasPadrao;
+    }
+
+    public int getDiasPadrao() {
+        return diasPadrao;
+    }
+
+    static GrupoCarencia de(int ordinal) {
+        return VALORES[ordinal];
+    }
+}
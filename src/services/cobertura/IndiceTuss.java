@@ -0,0 +1,88 @@
+package br.com.austa.experiencia.service.cobertura;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps TUSS codes to dense indices (0..n-1) of the compiled rol.
+ *
+ * TUSS codes are numeric (8 digits, sometimes written with dots and a dash
+ * like 1.01.01.01-2), so they are parsed straight into an int key and looked
+ * up in an open-addressing table: no String hashing, no boxing.
+ */
+final class IndiceTuss {
+
+    private static final int VAZIO = -1;
+
+    private final int[] chaves;
+    private final int[] indices;
+    private final int mascara;
+    private final int deslocamento;
+    private final int tamanho;
+
+    IndiceTuss(List<String> codigos) {
+        int capacidade = Integer.highestOneBit(Math.max(4, codigos.size() * 2 - 1)) << 1;
+        this.chaves = new int[capacidade];
+        this.indices = new int[capacidade];
+        this.mascara = capacidade - 1;
+        this.deslocamento = Integer.numberOfLeadingZeros(capacidade) + 1;
+        Arrays.fill(chaves, VAZIO);
+        for (int i = 0; i < codigos.size(); i++) {
+            int chave = chave(codigos.get(i));
+            if (chave == VAZIO) {
+                throw new IllegalArgumentException("Invalid TUSS code: " + codigos.get(i));
+            }
+            int slot = slot(chave);
+            if (chaves[slot] == chave) {
+                throw new IllegalArgumentException("Duplicate TUSS code in rol: " + codigos.get(i));
+            }
+            chaves[slot] = chave;
+            indices[slot] = i;
+        }
+        this.tamanho = codigos.size();
+    }
+
+    /**
+     * @return dense index, or -1 when the code is not in the rol
+     */
+    int indice(String codigo) {
+        int chave = chave(codigo);
+        if (chave == VAZIO) {
+            return -1;
+        }
+        int slot = slot(chave);
+        return chaves[slot] == chave ? indices[slot] : -1;
+    }
+
+    int tamanho() {
+        return tamanho;
+    }
+
+    private int slot(int chave) {
+        int slot = (chave * 0x9E3779B1) >>> deslocamento;
+        while (chaves[slot] != VAZIO && chaves[slot] != chave) {
+            slot = (slot + 1) & mascara;
+        }
+        return slot;
+    }
+
+    static int chave(String codigo) {
+        if (codigo == null) {
+            return VAZIO;
+        }
+        int valor = 0;
+        int digitos = 0;
+        for (int i = 0; i < codigo.length(); i++) {
+            char c = codigo.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digitos > 9) {
+                    return VAZIO;
+                }
+                valor = valor * 10 + (c - '0');
+            } else if (c != '.' && c != '-' && c != ' ') {
+                return VAZIO;
+            }
+        }
+        return digitos == 0 ? VAZIO : valor;
+    }
+}
@@ -0,0 +1,227 @@
+package br.com.austa.experiencia.service.cobertura;
+
+import br.com.austa.experiencia.service.cobertura.VerificacaoCobertura.Situacao;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * Immutable coverage snapshot: the compiled {@link TabelaRol} plus the
+ * contract state of every beneficiary.
+ *
+ * Beneficiary state is CAMPOS ints per beneficiary (product index and the
+ * last waiting day, as epoch day, of each {@link GrupoCarencia}) stored in
+ * pages of 4096 beneficiaries. A contract update copies only the pages it
+ * touches plus the page table, so publishing a new snapshot costs
+ * O(changed pages) and readers holding the previous one are unaffected.
+ *
+ * The beneficiary id → index map is shared by all snapshots and only ever
+ * grows; a snapshot ignores indices at or beyond its own count.
+ */
+public final class MatrizCobertura {
+
+    static final int PAGINA_BITS = 12;
+    static final int PAGINA = 1 << PAGINA_BITS;
+    static final int CAMPOS = 1 + GrupoCarencia.QUANTIDADE;
+    static final int SEM_PRODUTO = -1;
+
+    private static final int URGENCIA = GrupoCarencia.URGENCIA_EMERGENCIA.ordinal();
+    private static final int CPT = GrupoCarencia.CPT.ordinal();
+
+    private final long versao;
+    private final TabelaRol rol;
+    private final Map<String, Integer> indiceBeneficiarios;
+    private final int[][] paginas;
+    private final int beneficiarios;
+
+    private MatrizCobertura(long versao, TabelaRol rol, Map<String, Integer> indiceBeneficiarios,
+                            int[][] paginas, int beneficiarios) {
+        this.versao = versao;
+        this.rol = rol;
+        this.indiceBeneficiarios = indiceBeneficiarios;
+        this.paginas = paginas;
+        this.beneficiarios = beneficiarios;
+    }
+
+    static MatrizCobertura vazia(Map<String, Integer> indiceBeneficiarios) {
+        return new MatrizCobertura(0, TabelaRol.VAZIA, indiceBeneficiarios, new int[0][], 0);
+    }
+
+    /**
+     * Coverage and waiting period of a procedure for a beneficiary on a date.
+     *
+     * Urgent/emergency care only waits for the 24h period and is exempt from
+     * CPT; elective care waits for the procedure's group and, for PAC items of
+     * a beneficiary with CPT, for whichever of the two ends last.
+     */
+    public VerificacaoCobertura verificar(String beneficiarioId, String codigoTuss, LocalDate data,
+                                          boolean urgencia) {
+        Integer indice = indiceBeneficiarios.get(beneficiarioId);
+        if (indice == null || indice >= beneficiarios) {
+            return resultado(Situacao.SEM_CONTRATO, null, 0, null);
+        }
+        int[] pagina = paginas[indice >>> PAGINA_BITS];
+        int base = (indice & (PAGINA - 1)) * CAMPOS;
+        int produto = pagina[base];
+        if (produto == SEM_PRODUTO) {
+            return resultado(Situacao.SEM_CONTRATO, null, 0, null);
+        }
+
+        int procedimento = rol.tuss.indice(codigoTuss);
+        if (procedimento < 0) {
+            return resultado(Situacao.FORA_DO_ROL, null, 0, null);
+        }
+        long[] cobertura = rol.cobertura(produto);
+        if (cobertura == null || !TabelaRol.contem(cobertura, procedimento)) {
+            return resultado(TabelaRol.contem(rol.rolAns, procedimento)
+                ? Situacao.NAO_COBERTO_PELO_PLANO : Situacao.FORA_DO_ROL, null, 0, null);
+        }
+
+        long dia = data.toEpochDay();
+        int grupo = urgencia ? URGENCIA : rol.grupo[procedimento];
+        long restantes = pagina[base + 1 + grupo] - dia + 1;
+        int decisivo = grupo;
+        if (!urgencia && TabelaRol.contem(rol.altaComplexidade, procedimento)) {
+            long restantesCpt = pagina[base + 1 + CPT] - dia + 1;
+            if (restantesCpt > restantes) {
+                restantes = restantesCpt;
+                decisivo = CPT;
+            }
+        }
+
+        BigDecimal coparticipacao = rol.coparticipacao[produto][grupo];
+        return restantes > 0
+            ? resultado(Situacao.EM_CARENCIA, GrupoCarencia.de(decisivo), (int) restantes, coparticipacao)
+            : resultado(Situacao.COBERTO, GrupoCarencia.de(grupo), 0, coparticipacao);
+    }
+
+    /**
+     * Whether the beneficiary's product covers the procedure at all, ignoring waiting periods.
+     */
+    public boolean cobre(String beneficiarioId, String codigoTuss) {
+        Situacao situacao = verificar(beneficiarioId, codigoTuss, LocalDate.MAX, false).getSituacao();
+        return situacao == Situacao.COBERTO || situacao == Situacao.EM_CARENCIA;
+    }
+
+    /**
+     * Segmentations of the beneficiary's product; empty without a contract or
+     * published product rules.
+     */
+    public Set<Segmentacao> segmentacoes(String beneficiarioId) {
+        Set<Segmentacao> segmentacoes = EnumSet.noneOf(Segmentacao.class);
+        Integer indice = indiceBeneficiarios.get(beneficiarioId);
+        if (indice == null || indice >= beneficiarios) {
+            return segmentacoes;
+        }
+        int produto = paginas[indice >>> PAGINA_BITS][(indice & (PAGINA - 1)) * CAMPOS];
+        int mascara = produto == SEM_PRODUTO ? 0 : rol.segmentacoes(produto);
+        for (Segmentacao segmentacao : Segmentacao.values()) {
+            if ((mascara & segmentacao.bit()) != 0) {
+                segmentacoes.add(segmentacao);
+            }
+        }
+        return segmentacoes;
+    }
+
+    /**
+     * Last day of a waiting period of the beneficiary; null without a contract
+     * or when the group has no waiting period.
+     */
+    public LocalDate fimCarencia(String beneficiarioId, GrupoCarencia grupo) {
+        Integer indice = indiceBeneficiarios.get(beneficiarioId);
+        if (indice == null || indice >= beneficiarios) {
+            return null;
+        }
+        int[] pagina = paginas[indice >>> PAGINA_BITS];
+        int base = (indice & (PAGINA - 1)) * CAMPOS;
+        int dia = pagina[base + 1 + grupo.ordinal()];
+        return pagina[base] == SEM_PRODUTO || dia == Integer.MIN_VALUE ? null : LocalDate.ofEpochDay(dia);
+    }
+
+    /**
+     * Same contracts, new rol/product rules.
+     */
+    MatrizCobertura comRol(TabelaRol novoRol) {
+        return new MatrizCobertura(versao + 1, novoRol, indiceBeneficiarios, paginas, beneficiarios);
+    }
+
+    /**
+     * Same rol, with the given contracts applied (later entries win).
+     *
+     * Must be called by a single writer: new beneficiaries are appended to the
+     * shared index.
+     */
+    MatrizCobertura comContratos(Collection<ContratoBeneficiario> contratos, ToIntFunction<String> indiceProduto) {
+        int[][] novasPaginas = paginas.clone();
+        boolean[] copiada = new boolean[novasPaginas.length];
+        int total = beneficiarios;
+
+        for (ContratoBeneficiario contrato : contratos) {
+            Integer indice = indiceBeneficiarios.get(contrato.getBeneficiarioId());
+            if (indice == null || indice >= total) {
+                if (contrato.isCancelado()) {
+                    continue;
+                }
+                if (indice == null) {
+                    indice = indiceBeneficiarios.size();
+                    indiceBeneficiarios.put(contrato.getBeneficiarioId(), indice);
+                }
+                total = Math.max(total, indice + 1);
+            }
+
+            int numeroPagina = indice >>> PAGINA_BITS;
+            if (numeroPagina >= novasPaginas.length) {
+                novasPaginas = Arrays.copyOf(novasPaginas, Math.max(numeroPagina + 1, novasPaginas.length * 2));
+                copiada = Arrays.copyOf(copiada, novasPaginas.length);
+            }
+            if (novasPaginas[numeroPagina] == null) {
+                novasPaginas[numeroPagina] = new int[PAGINA * CAMPOS];
+                copiada[numeroPagina] = true;
+            } else if (!copiada[numeroPagina]) {
+                novasPaginas[numeroPagina] = novasPaginas[numeroPagina].clone();
+                copiada[numeroPagina] = true;
+            }
+
+            int[] pagina = novasPaginas[numeroPagina];
+            int base = (indice & (PAGINA - 1)) * CAMPOS;
+            if (contrato.isCancelado()) {
+                pagina[base] = SEM_PRODUTO;
+                continue;
+            }
+            pagina[base] = indiceProduto.applyAsInt(contrato.getCodigoProduto());
+            for (GrupoCarencia grupo : GrupoCarencia.values()) {
+                pagina[base + 1 + grupo.ordinal()] = contrato.fimCarencia(grupo);
+            }
+        }
+        return new MatrizCobertura(versao + 1, rol, indiceBeneficiarios, novasPaginas, total);
+    }
+
+    public long getVersao() {
+        return versao;
+    }
+
+    /**
+     * Version label of the published rol, null until the first rol is published.
+     */
+    public String getVersaoRol() {
+        return rol.versaoRol;
+    }
+
+    public int getProcedimentos() {
+        return rol.tuss.tamanho();
+    }
+
+    public int getBeneficiarios() {
+        return beneficiarios;
+    }
+
+    private VerificacaoCobertura resultado(Situacao situacao, GrupoCarencia grupo, int dias, BigDecimal coparticipacao) {
+        return new VerificacaoCobertura(situacao, grupo, dias, coparticipacao, versao);
+    }
+}
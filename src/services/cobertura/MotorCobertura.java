@@ -0,0 +1,177 @@
+package br.com.austa.experiencia.service.cobertura;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Motor Cobertura - in-memory coverage and waiting-period engine
+ *
+ * Answers "is this TUSS procedure covered for this beneficiary on this date,
+ * and is a carência still running" from a compiled {@link MatrizCobertura}
+ * with a hash probe, two bit tests and an int compare, instead of a remote
+ * call per authorization (SUB-006) or self-service question.
+ *
+ * Writers never touch a published snapshot:
+ * - publicarRol: recompiles the rol × product × segmentation bitsets when the
+ *   ANS rol or a product's rules change, keeping the contract pages
+ * - atualizarContratos / registrarContrato: copy-on-write of the touched
+ *   beneficiary pages; single contract events are coalesced and published
+ *   every {@code cobertura.publicacao-ms}
+ * Each change is published with one volatile write, so a check always sees
+ * one consistent version of rol and contracts.
+ */
+@Component("motorCobertura")
+public class MotorCobertura {
+
+    private static final Logger logger = LoggerFactory.getLogger(MotorCobertura.class);
+
+    private final ConcurrentHashMap<String, Integer> indiceProdutos = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<ContratoBeneficiario> pendentes = new ConcurrentLinkedQueue<>();
+    private final long intervaloPublicacaoMillis;
+
+    private volatile MatrizCobertura matriz = MatrizCobertura.vazia(new ConcurrentHashMap<>());
+    private volatile long ultimaCompilacaoMicros;
+    private volatile boolean replicado = true;
+    private ScheduledExecutorService publicador;
+
+    @Autowired
+    public MotorCobertura(@Value("${cobertura.publicacao-ms:500}") long intervaloPublicacaoMillis) {
+        this.intervaloPublicacaoMillis = intervaloPublicacaoMillis;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        publicador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cobertura-publicador");
+            thread.setDaemon(true);
+            return thread;
+        });
+        publicador.scheduleWithFixedDelay(() -> {
+            try {
+                publicarPendentes();
+            } catch (RuntimeException e) {
+                logger.error("Failed to publish contract changes: {}", e.getMessage(), e);
+            }
+        }, intervaloPublicacaoMillis, intervaloPublicacaoMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void parar() throws InterruptedException {
+        if (publicador != null) {
+            publicador.shutdown();
+            publicador.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        publicarPendentes();
+    }
+
+    /**
+     * Current snapshot; callers needing several consistent answers should
+     * hold on to it instead of calling {@link #verificar} repeatedly.
+     */
+    public MatrizCobertura matriz() {
+        return matriz;
+    }
+
+    public VerificacaoCobertura verificar(String beneficiarioId, String codigoTuss, LocalDate data,
+                                          boolean urgencia) {
+        return matriz.verificar(beneficiarioId, codigoTuss, data, urgencia);
+    }
+
+    /**
+     * Whether a rol has been published and the registration topics have been
+     * replayed; before that every procedure is FORA_DO_ROL and a beneficiary
+     * not replayed yet would read as having no contract.
+     */
+    public boolean isCarregado() {
+        return replicado && matriz.getVersaoRol() != null;
+    }
+
+    /**
+     * Set by the feed consumer: false while it replays the registration
+     * topics after startup. Contracts queued during the replay are published
+     * before the engine reports itself loaded.
+     */
+    public void setReplicado(boolean replicado) {
+        if (replicado) {
+            publicarPendentes();
+        }
+        this.replicado = replicado;
+    }
+
+    /**
+     * Compiles and publishes a new rol and product rule set. Products missing
+     * from {@code produtos} lose all coverage.
+     */
+    public synchronized void publicarRol(String versaoRol, Collection<ProcedimentoRol> rol,
+                                         Collection<ProdutoPlano> produtos) {
+        long inicio = System.nanoTime();
+        TabelaRol tabela = TabelaRol.compilar(versaoRol, rol, produtos, this::indiceProduto);
+        matriz = matriz.comRol(tabela);
+        ultimaCompilacaoMicros = (System.nanoTime() - inicio) / 1_000;
+
+        logger.info("Published coverage matrix v{}: rol {} with {} procedures, {} products in {} us",
+            matriz.getVersao(), versaoRol, tabela.tuss.tamanho(), produtos.size(), ultimaCompilacaoMicros);
+    }
+
+    /**
+     * Applies and publishes contract changes right away (bulk loads).
+     */
+    public synchronized void atualizarContratos(Collection<ContratoBeneficiario> contratos) {
+        if (contratos.isEmpty()) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        matriz = matriz.comContratos(contratos, this::indiceProduto);
+        ultimaCompilacaoMicros = (System.nanoTime() - inicio) / 1_000;
+
+        logger.debug("Published coverage matrix v{}: {} contract changes, {} beneficiaries in {} us",
+            matriz.getVersao(), contratos.size(), matriz.getBeneficiarios(), ultimaCompilacaoMicros);
+    }
+
+    /**
+     * Queues a single contract change for the next coalesced publication.
+     */
+    public void registrarContrato(ContratoBeneficiario contrato) {
+        pendentes.add(contrato);
+    }
+
+    /**
+     * @return number of queued contract changes published
+     */
+    public int publicarPendentes() {
+        List<ContratoBeneficiario> lote = new ArrayList<>();
+        ContratoBeneficiario contrato;
+        while ((contrato = pendentes.poll()) != null) {
+            lote.add(contrato);
+        }
+        atualizarContratos(lote);
+        return lote.size();
+    }
+
+    public int getPendentes() {
+        return pendentes.size();
+    }
+
+    public long getUltimaCompilacaoMicros() {
+        return ultimaCompilacaoMicros;
+    }
+
+    private int indiceProduto(String codigo) {
+        return indiceProdutos.computeIfAbsent(codigo, c -> indiceProdutos.size());
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.austa.experiencia.service.cobertura;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * One entry of the ANS rol (Rol de Procedimentos e Eventos em Saúde), keyed
+ * by TUSS code.
+ */
+public final class ProcedimentoRol {
+
+    private final String codigoTuss;
+    private final String descricao;
+    private final Set<Segmentacao> segmentacoes;
+    private final GrupoCarencia grupoCarencia;
+    private final boolean altaComplexidade;
+
+    /**
+     * @param segmentacoes     segmentations under which the procedure is mandatory
+     * @param grupoCarencia    waiting-period group for elective care
+     * @param altaComplexidade PAC / surgical / ICU item, subject to CPT
+     */
+    public ProcedimentoRol(String codigoTuss, String descricao, Set<Segmentacao> segmentacoes,
+                           GrupoCarencia grupoCarencia, boolean altaComplexidade) {
+        if (grupoCarencia == GrupoCarencia.CPT) {
+            throw new IllegalArgumentException("CPT is not a procedure waiting-period group: " + codigoTuss);
+        }
+        this.codigoTuss = codigoTuss;
+        this.descricao = descricao;
+        this.segmentacoes = segmentacoes.isEmpty()
+            ? EnumSet.noneOf(Segmentacao.class) : EnumSet.copyOf(segmentacoes);
+        this.grupoCarencia = grupoCarencia;
+        this.altaComplexidade = altaComplexidade;
+    }
+
+    public String getCodigoTuss() {
+        return codigoTuss;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public Set<Segmentacao> getSegmentacoes() {
+        return segmentacoes;
+    }
+
+    public GrupoCarencia getGrupoCarencia() {
+        return grupoCarencia;
+    }
+
+    public boolean isAltaComplexidade() {
+        return altaComplexidade;
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.austa.experiencia.service.cobertura;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A registered plan product: its segmentations plus the contractual
+ * deviations from the rol (additional coverage, exclusions allowed by the
+ * segmentation) and the fixed coparticipação per waiting-period group.
+ */
+public final class ProdutoPlano {
+
+    private final String codigo;
+    private final Set<Segmentacao> segmentacoes;
+    private final Set<String> coberturasAdicionais;
+    private final Set<String> exclusoes;
+    private final Map<GrupoCarencia, BigDecimal> coparticipacao;
+
+    /**
+     * @param codigo               ANS product registration number
+     * @param coberturasAdicionais TUSS codes covered beyond the rol
+     * @param exclusoes            TUSS codes excluded from the rol coverage
+     * @param coparticipacao       fixed amount per group; absent groups have none
+     */
+    public ProdutoPlano(String codigo, Set<Segmentacao> segmentacoes, Set<String> coberturasAdicionais,
+                        Set<String> exclusoes, Map<GrupoCarencia, BigDecimal> coparticipacao) {
+        this.codigo = codigo;
+        this.segmentacoes = segmentacoes.isEmpty()
+            ? EnumSet.noneOf(Segmentacao.class) : EnumSet.copyOf(segmentacoes);
+        this.coberturasAdicionais = Set.copyOf(coberturasAdicionais);
+        this.exclusoes = Set.copyOf(exclusoes);
+        this.coparticipacao = coparticipacao.isEmpty()
+            ? new EnumMap<>(GrupoCarencia.class) : new EnumMap<>(coparticipacao);
+    }
+
+    public String getCodigo() {
+        return codigo;
+    }
+
+    public Set<Segmentacao> getSegmentacoes() {
+        return segmentacoes;
+    }
+
+    public Set<String> getCoberturasAdicionais() {
+        return coberturasAdicionais;
+    }
+
+    public Set<String> getExclusoes() {
+        return exclusoes;
+    }
+
+    public Map<GrupoCarencia, BigDecimal> getCoparticipacao() {
+        return coparticipacao;
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.austa.experiencia.service.cobertura;
+
+/**
+ * Assistance segmentations of a health plan (Lei 9.656/98, art. 12).
+ *
+ * A rol item lists the segmentations under which it is mandatory; a plan
+ * product covers the union of its segmentations. The reference plan
+ * (art. 10) is AMBULATORIAL + HOSPITALAR + OBSTETRICIA.
+ */
+public enum Segmentacao {
+
+    AMBULATORIAL,
+    HOSPITALAR,
+    OBSTETRICIA,
+    ODONTOLOGICA;
+
+    int bit() {
+        return 1 << ordinal();
+    }
+}
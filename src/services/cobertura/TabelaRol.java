@@ -0,0 +1,145 @@
+package br.com.austa.experiencia.service.cobertura;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Compiled rol × product × segmentation matrix.
+ *
+ * Procedures are numbered densely by {@link IndiceTuss}; each product gets a
+ * bitset (long[]) with one bit per procedure, built as the union of the rol
+ * bitsets of its segmentations plus its additional coverage minus its
+ * exclusions. Per procedure, the waiting-period group is a byte and the
+ * PAC/CPT flag is another bitset. Immutable once built.
+ */
+final class TabelaRol {
+
+    static final TabelaRol VAZIA = new TabelaRol(null, new IndiceTuss(List.of()), new byte[0], new long[0],
+        new long[0], new long[0][], new int[0], new BigDecimal[0][]);
+
+    final String versaoRol;
+    final IndiceTuss tuss;
+    final byte[] grupo;
+    final long[] rolAns;
+    final long[] altaComplexidade;
+    final long[][] cobertura;
+    final int[] segmentacoes;
+    final BigDecimal[][] coparticipacao;
+
+    private TabelaRol(String versaoRol, IndiceTuss tuss, byte[] grupo, long[] rolAns, long[] altaComplexidade,
+                      long[][] cobertura, int[] segmentacoes, BigDecimal[][] coparticipacao) {
+        this.versaoRol = versaoRol;
+        this.tuss = tuss;
+        this.grupo = grupo;
+        this.rolAns = rolAns;
+        this.altaComplexidade = altaComplexidade;
+        this.cobertura = cobertura;
+        this.segmentacoes = segmentacoes;
+        this.coparticipacao = coparticipacao;
+    }
+
+    /**
+     * @param indiceProduto dense index of a product code, stable across compilations
+     */
+    static TabelaRol compilar(String versaoRol, Collection<ProcedimentoRol> rol, Collection<ProdutoPlano> produtos,
+                              ToIntFunction<String> indiceProduto) {
+        // rol codes first, then codes only reachable through additional coverage
+        Map<Integer, String> codigos = new LinkedHashMap<>();
+        for (ProcedimentoRol procedimento : rol) {
+            codigos.put(IndiceTuss.chave(procedimento.getCodigoTuss()), procedimento.getCodigoTuss());
+        }
+        for (ProdutoPlano produto : produtos) {
+            for (String adicional : produto.getCoberturasAdicionais()) {
+                codigos.putIfAbsent(IndiceTuss.chave(adicional), adicional);
+            }
+        }
+        IndiceTuss tuss = new IndiceTuss(new ArrayList<>(codigos.values()));
+        int palavras = (tuss.tamanho() + 63) >>> 6;
+
+        byte[] grupo = new byte[tuss.tamanho()];
+        Arrays.fill(grupo, (byte) GrupoCarencia.DEMAIS_PROCEDIMENTOS.ordinal());
+        long[] rolAns = new long[palavras];
+        long[] altaComplexidade = new long[palavras];
+        long[][] porSegmentacao = new long[Segmentacao.values().length][palavras];
+        for (ProcedimentoRol procedimento : rol) {
+            int i = tuss.indice(procedimento.getCodigoTuss());
+            grupo[i] = (byte) procedimento.getGrupoCarencia().ordinal();
+            marcar(rolAns, i);
+            if (procedimento.isAltaComplexidade()) {
+                marcar(altaComplexidade, i);
+            }
+            for (Segmentacao segmentacao : procedimento.getSegmentacoes()) {
+                marcar(porSegmentacao[segmentacao.ordinal()], i);
+            }
+        }
+
+        List<long[]> cobertura = new ArrayList<>();
+        List<BigDecimal[]> coparticipacao = new ArrayList<>();
+        int[] segmentacoes = new int[0];
+        for (ProdutoPlano produto : produtos) {
+            long[] bits = new long[palavras];
+            int mascara = 0;
+            for (Segmentacao segmentacao : produto.getSegmentacoes()) {
+                mascara |= segmentacao.bit();
+                long[] rolSegmentacao = porSegmentacao[segmentacao.ordinal()];
+                for (int w = 0; w < palavras; w++) {
+                    bits[w] |= rolSegmentacao[w];
+                }
+            }
+            for (String adicional : produto.getCoberturasAdicionais()) {
+                marcar(bits, tuss.indice(adicional));
+            }
+            for (String excluido : produto.getExclusoes()) {
+                int i = tuss.indice(excluido);
+                if (i >= 0) {
+                    bits[i >>> 6] &= ~(1L << i);
+                }
+            }
+            BigDecimal[] valores = new BigDecimal[GrupoCarencia.QUANTIDADE];
+            produto.getCoparticipacao().forEach((g, valor) -> valores[g.ordinal()] = valor);
+
+            int p = indiceProduto.applyAsInt(produto.getCodigo());
+            while (cobertura.size() <= p) {
+                cobertura.add(null);
+                coparticipacao.add(null);
+            }
+            cobertura.set(p, bits);
+            coparticipacao.set(p, valores);
+            if (segmentacoes.length <= p) {
+                segmentacoes = Arrays.copyOf(segmentacoes, p + 1);
+            }
+            segmentacoes[p] = mascara;
+        }
+
+        return new TabelaRol(versaoRol, tuss, grupo, rolAns, altaComplexidade,
+            cobertura.toArray(new long[0][]), segmentacoes, coparticipacao.toArray(new BigDecimal[0][]));
+    }
+
+    /**
+     * @return coverage bitset of a product, null when it has no published rules
+     */
+    long[] cobertura(int produto) {
+        return produto < cobertura.length ? cobertura[produto] : null;
+    }
+
+    /**
+     * @return {@link Segmentacao#bit()} mask of a product, 0 when it has no published rules
+     */
+    int segmentacoes(int produto) {
+        return produto < segmentacoes.length ? segmentacoes[produto] : 0;
+    }
+
+    static boolean contem(long[] bits, int i) {
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    private static void marcar(long[] bits, int i) {
+        bits[i >>> 6] |= 1L << i;
+    }
+}
@@ -0,0 +1,89 @@
+package br.com.austa.experiencia.service.cobertura;
+
+import java.math.BigDecimal;
+
+/**
+ * Outcome of a coverage + waiting-period check against one {@link MatrizCobertura}.
+ */
+public final class VerificacaoCobertura {
+
+    public enum Situacao {
+        COBERTO,
+        EM_CARENCIA,
+        NAO_COBERTO_PELO_PLANO,
+        FORA_DO_ROL,
+        SEM_CONTRATO
+    }
+
+    private final Situacao situacao;
+    private final GrupoCarencia grupoCarencia;
+    private final int diasCarenciaRestantes;
+    private final BigDecimal coparticipacao;
+    private final long versaoMatriz;
+
+    VerificacaoCobertura(Situacao situacao, GrupoCarencia grupoCarencia, int diasCarenciaRestantes,
+                         BigDecimal coparticipacao, long versaoMatriz) {
+        this.situacao = situacao;
+        this.grupoCarencia = grupoCarencia;
+        this.diasCarenciaRestantes = diasCarenciaRestantes;
+        this.coparticipacao = coparticipacao;
+        this.versaoMatriz = versaoMatriz;
+    }
+
+    /**
+     * Procedure covered by the plan, waiting period included.
+     */
+    public boolean isCoberto() {
+        return situacao == Situacao.COBERTO;
+    }
+
+    /**
+     * Procedure covered by the plan but still in a waiting period.
+     */
+    public boolean isEmCarencia() {
+        return situacao == Situacao.EM_CARENCIA;
+    }
+
+    public Situacao getSituacao() {
+        return situacao;
+    }
+
+    /**
+     * Group that decided the waiting period (CPT when the CPT period is the
+     * one still running); null when the procedure is not covered at all.
+     */
+    public GrupoCarencia getGrupoCarencia() {
+        return grupoCarencia;
+    }
+
+    public int getDiasCarenciaRestantes() {
+        return diasCarenciaRestantes;
+    }
+
+    /**
+     * Fixed coparticipação of the product for the procedure's group, null when none.
+     */
+    public BigDecimal getCoparticipacao() {
+        return coparticipacao;
+    }
+
+    public long getVersaoMatriz() {
+        return versaoMatriz;
+    }
+
+    public String getMotivo() {
+        switch (situacao) {
+            case EM_CARENCIA:
+                return (grupoCarencia == GrupoCarencia.CPT ? "Cobertura Parcial Temporária" : "Carência")
+                    + " em curso: " + diasCarenciaRestantes + " dia(s) restante(s)";
+            case NAO_COBERTO_PELO_PLANO:
+                return "Procedimento não coberto pela segmentação/contrato do plano";
+            case FORA_DO_ROL:
+                return "Procedimento fora do Rol ANS e sem cobertura contratual adicional";
+            case SEM_CONTRATO:
+                return "Beneficiário sem contrato ativo";
+            default:
+                return null;
+        }
+    }
+}
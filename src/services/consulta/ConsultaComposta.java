@@ -0,0 +1,215 @@
+package br.com.austa.experiencia.service.consulta;
+
+import br.com.austa.experiencia.service.metricas.HistogramaLatencia;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Consulta Composta - independent lookups of one request fanned out in parallel, each with its own deadline
+ *
+ * The app home screen needs several self-service queries (plan, claims,
+ * authorizations, financial, history) that used to be five SUB-004
+ * instances. {@link #executar} runs them as one scoped fan-out:
+ * - every part is submitted to a bounded pool at once; the caller joins
+ *   them shortest deadline first, each within its own deadline measured
+ *   from the start ({@code consulta.composta.prazo-ms}, overridable per type with
+ *   {@code consulta.composta.prazos=SINISTROS:1500,...})
+ * - a part that misses its deadline is cancelled (interrupted) and reported
+ *   as {@link SituacaoParte#PRAZO_EXCEDIDO}; one that throws is
+ *   {@link SituacaoParte#FALHA}; neither fails the others
+ * - no part outlives the call: anything still running when the caller
+ *   leaves, including on interruption, is cancelled first
+ *
+ * Total latency is the slowest part within its deadline instead of the sum.
+ * Parts run off the caller's thread, so they must not touch thread-bound
+ * state such as the engine's command context; read process variables
+ * before building them.
+ */
+@Component("consultaComposta")
+public class ConsultaComposta {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsultaComposta.class);
+
+    private final ThreadPoolExecutor executor;
+    private final long prazoPadraoNanos;
+    private final Map<String, Long> prazosNanos;
+
+    private final HistogramaLatencia latencia = new HistogramaLatencia();
+    private final LongAdder consultas = new LongAdder();
+    private final LongAdder parciais = new LongAdder();
+    private final LongAdder partesExcedidas = new LongAdder();
+    private final LongAdder partesComFalha = new LongAdder();
+    private final LongAdder partesRejeitadas = new LongAdder();
+
+    @Autowired
+    public ConsultaComposta(@Value("${consulta.composta.threads:32}") int threads,
+                            @Value("${consulta.composta.fila:256}") int capacidadeFila,
+                            @Value("${consulta.composta.prazo-ms:800}") long prazoPadraoMillis,
+                            @Value("${consulta.composta.prazos:}") String prazos) {
+        this(threads, capacidadeFila, prazoPadraoMillis, parsePrazos(prazos));
+    }
+
+    /**
+     * @param prazosMillis deadline per part type, overriding {@code prazoPadraoMillis}
+     */
+    public ConsultaComposta(int threads, int capacidadeFila, long prazoPadraoMillis, Map<String, Long> prazosMillis) {
+        this.prazoPadraoNanos = TimeUnit.MILLISECONDS.toNanos(prazoPadraoMillis);
+        this.prazosNanos = new HashMap<>();
+        prazosMillis.forEach((tipo, prazo) -> prazosNanos.put(tipo, TimeUnit.MILLISECONDS.toNanos(prazo)));
+
+        AtomicInteger sequencia = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(capacidadeFila), r -> {
+                Thread thread = new Thread(r, "consulta-composta-" + sequencia.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void parar() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs the parts in parallel and waits for each within its deadline.
+     * Never throws for a part; see {@link ResultadoParte#getSituacao()}.
+     *
+     * @param partes lookups by type, in the order the result should list them
+     */
+    public ResultadoConsultaComposta executar(Map<String, ? extends Callable<?>> partes) {
+        long inicio = System.nanoTime();
+        Map<String, Future<?>> futuros = new LinkedHashMap<>();
+        Map<String, ResultadoParte> resultados = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, ? extends Callable<?>> parte : partes.entrySet()) {
+                try {
+                    futuros.put(parte.getKey(), executor.submit(parte.getValue()));
+                } catch (RejectedExecutionException e) {
+                    futuros.put(parte.getKey(), null);
+                }
+            }
+
+            // Joined by deadline, so a short deadline is not stretched by waiting on a longer one
+            List<String> porPrazo = new ArrayList<>(futuros.keySet());
+            porPrazo.sort(Comparator.comparingLong(this::prazo));
+            Map<String, ResultadoParte> concluidas = new HashMap<>();
+            for (String tipo : porPrazo) {
+                concluidas.put(tipo, aguardar(tipo, futuros.get(tipo), inicio));
+            }
+            for (String tipo : futuros.keySet()) {
+                resultados.put(tipo, concluidas.get(tipo));
+            }
+        } finally {
+            // Scope exit: nothing started here keeps running after the caller leaves
+            for (Future<?> futuro : futuros.values()) {
+                if (futuro != null && !futuro.isDone()) {
+                    futuro.cancel(true);
+                }
+            }
+        }
+
+        long duracao = System.nanoTime() - inicio;
+        ResultadoConsultaComposta resultado = new ResultadoConsultaComposta(resultados, duracao);
+        consultas.increment();
+        latencia.registrar(duracao);
+        if (!resultado.isCompleta()) {
+            parciais.increment();
+            logger.info("Composite query returned partial result in {} ms, pending: {}",
+                TimeUnit.NANOSECONDS.toMillis(duracao), resultado.getPendentes());
+        }
+        return resultado;
+    }
+
+    private ResultadoParte aguardar(String tipo, Future<?> futuro, long inicio) {
+        if (futuro == null) {
+            partesRejeitadas.increment();
+            return new ResultadoParte(tipo, SituacaoParte.REJEITADA, null,
+                "Capacidade de consultas paralelas esgotada", System.nanoTime() - inicio);
+        }
+        long prazo = prazo(tipo);
+        try {
+            Object dados = futuro.get(Math.max(0, prazo - (System.nanoTime() - inicio)), TimeUnit.NANOSECONDS);
+            return new ResultadoParte(tipo, SituacaoParte.CONCLUIDA, dados, null, System.nanoTime() - inicio);
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            partesExcedidas.increment();
+            return new ResultadoParte(tipo, SituacaoParte.PRAZO_EXCEDIDO, null,
+                "Consulta excedeu " + TimeUnit.NANOSECONDS.toMillis(prazo) + " ms", System.nanoTime() - inicio);
+        } catch (ExecutionException e) {
+            partesComFalha.increment();
+            logger.warn("Composite query part {} failed: {}", tipo, e.getCause().getMessage(), e.getCause());
+            return new ResultadoParte(tipo, SituacaoParte.FALHA, null, e.getCause().getMessage(),
+                System.nanoTime() - inicio);
+        } catch (InterruptedException e) {
+            // Keep the flag: the remaining joins give up at once and the scope cancels them
+            Thread.currentThread().interrupt();
+            futuro.cancel(true);
+            partesExcedidas.increment();
+            return new ResultadoParte(tipo, SituacaoParte.PRAZO_EXCEDIDO, null, "Consulta interrompida",
+                System.nanoTime() - inicio);
+        }
+    }
+
+    private long prazo(String tipo) {
+        return prazosNanos.getOrDefault(tipo, prazoPadraoNanos);
+    }
+
+    public HistogramaLatencia getLatencia() {
+        return latencia;
+    }
+
+    public long getConsultas() {
+        return consultas.sum();
+    }
+
+    public long getParciais() {
+        return parciais.sum();
+    }
+
+    public long getPartesExcedidas() {
+        return partesExcedidas.sum();
+    }
+
+    public long getPartesComFalha() {
+        return partesComFalha.sum();
+    }
+
+    public long getPartesRejeitadas() {
+        return partesRejeitadas.sum();
+    }
+
+    static Map<String, Long> parsePrazos(String valor) {
+        Map<String, Long> prazos = new HashMap<>();
+        for (String entrada : valor.split(",")) {
+            String[] partes = entrada.split(":");
+            if (partes.length == 2) {
+                prazos.put(partes[0].trim().toUpperCase(Locale.ROOT), Long.parseLong(partes[1].trim()));
+            }
+        }
+        return prazos;
+    }
+}
@@ -0,0 +1,79 @@
+package br.com.austa.experiencia.service.consulta;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of a composite query, parts in request order. Partial when any part
+ * missed its deadline, failed or was rejected; the concluded parts are still
+ * returned.
+ */
+public final class ResultadoConsultaComposta {
+
+    private final Map<String, ResultadoParte> partes;
+    private final long duracaoNanos;
+
+    ResultadoConsultaComposta(Map<String, ResultadoParte> partes, long duracaoNanos) {
+        this.partes = Collections.unmodifiableMap(partes);
+        this.duracaoNanos = duracaoNanos;
+    }
+
+    public Map<String, ResultadoParte> getPartes() {
+        return partes;
+    }
+
+    public ResultadoParte getParte(String tipo) {
+        return partes.get(tipo);
+    }
+
+    public boolean isCompleta() {
+        return partes.values().stream().allMatch(ResultadoParte::isConcluida);
+    }
+
+    /**
+     * Types that did not conclude, in request order.
+     */
+    public List<String> getPendentes() {
+        List<String> pendentes = new ArrayList<>();
+        partes.forEach((tipo, parte) -> {
+            if (!parte.isConcluida()) {
+                pendentes.add(tipo);
+            }
+        });
+        return pendentes;
+    }
+
+    public long getDuracaoNanos() {
+        return duracaoNanos;
+    }
+
+    /**
+     * Process-variable form: data per concluded type, situation per type,
+     * the pending types and the total duration.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> dados = new LinkedHashMap<>();
+        Map<String, Object> situacoes = new LinkedHashMap<>();
+        Map<String, Object> erros = new LinkedHashMap<>();
+        partes.forEach((tipo, parte) -> {
+            situacoes.put(tipo, parte.getSituacao().name());
+            if (parte.isConcluida()) {
+                dados.put(tipo, parte.getDados());
+            } else {
+                erros.put(tipo, parte.getErro());
+            }
+        });
+        Map<String, Object> mapa = new LinkedHashMap<>();
+        mapa.put("dados", dados);
+        mapa.put("situacoes", situacoes);
+        mapa.put("erros", erros);
+        mapa.put("pendentes", getPendentes());
+        mapa.put("completa", isCompleta());
+        mapa.put("duracaoMs", TimeUnit.NANOSECONDS.toMillis(duracaoNanos));
+        return mapa;
+    }
+}
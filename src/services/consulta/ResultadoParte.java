@@ -0,0 +1,55 @@
+package br.com.austa.experiencia.service.consulta;
+
+/**
+ * One part of a {@link ResultadoConsultaComposta}: its data when it completed,
+ * otherwise why it is missing.
+ */
+public final class ResultadoParte {
+
+    private final String tipo;
+    private final SituacaoParte situacao;
+    private final Object dados;
+    private final String erro;
+    private final long duracaoNanos;
+
+    ResultadoParte(String tipo, SituacaoParte situacao, Object dados, String erro, long duracaoNanos) {
+        this.tipo = tipo;
+        this.situacao = situacao;
+        this.dados = dados;
+        this.erro = erro;
+        this.duracaoNanos = duracaoNanos;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public SituacaoParte getSituacao() {
+        return situacao;
+    }
+
+    public boolean isConcluida() {
+        return situacao == SituacaoParte.CONCLUIDA;
+    }
+
+    /**
+     * Data returned by the lookup, null unless {@link #isConcluida()}.
+     */
+    public Object getDados() {
+        return dados;
+    }
+
+    /**
+     * Failure message or deadline description, null when concluded.
+     */
+    public String getErro() {
+        return erro;
+    }
+
+    /**
+     * Time from the start of the composite query until this part concluded or was given up.
+     */
+    public long getDuracaoNanos() {
+        return duracaoNanos;
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.austa.experiencia.service.consulta;
+
+/**
+ * Outcome of one part of a composite query.
+ */
+public enum SituacaoParte {
+
+    CONCLUIDA,
+    /** Missed its deadline; cancelled and left out of the result */
+    PRAZO_EXCEDIDO,
+    /** The lookup threw */
+    FALHA,
+    /** The pool and its queue were full when the query started */
+    REJEITADA
+}
@@ -1,11 +1,17 @@
 package br.com.austa.experiencia.service.domain;
 
+import br.com.austa.experiencia.exception.IntegrationException;
+import br.com.austa.experiencia.model.dto.CoberturaDTO;
+import br.com.austa.experiencia.service.cobertura.MotorCobertura;
+import br.com.austa.experiencia.service.cobertura.VerificacaoCobertura;
 import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.JavaDelegate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
 import java.util.Map;
 import java.util.HashMap;
 
@@ -17,6 +23,9 @@ import java.util.HashMap;
  * - Validar carências
  * - Consultar rol ANS
  *
+ * As decisões vêm da matriz compilada do {@link MotorCobertura} (rol ANS ×
+ * produto × segmentação e carências por beneficiário), sem chamada remota.
+ *
  * Uso no BPMN:
  * <serviceTask id="Task_VerificarCobertura"
  *              name="Verificar Cobertura"
@@ -28,6 +37,9 @@ public class CoberturaService implements JavaDelegate {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CoberturaService.class);
 
+    @Autowired
+    private MotorCobertura motorCobertura;
+
     @Override
     public void execute(DelegateExecution execution) throws Exception {
         LOGGER.info("Verificando cobertura para processo: {}", execution.getProcessInstanceId());
@@ -47,6 +59,7 @@ public class CoberturaService implements JavaDelegate {
      * - beneficiarioId (String)
      * - codigoProcedimento (String)
      * - tipoGuia (String)
+     * - tipoAtendimento (String, opcional): ELETIVO (padrão), URGENCIA ou EMERGENCIA
      *
      * Output:
      * - coberturaValida (Boolean): Se tem cobertura
@@ -57,20 +70,27 @@ public class CoberturaService implements JavaDelegate {
         String beneficiarioId = (String) execution.getVariable("beneficiarioId");
         String codigoProcedimento = (String) execution.getVariable("codigoProcedimento");
         String tipoGuia = (String) execution.getVariable("tipoGuia");
+        String tipoAtendimento = (String) execution.getVariable("tipoAtendimento");
 
         LOGGER.info("Verificando cobertura - Beneficiário: {}, Procedimento: {}",
                    beneficiarioId, codigoProcedimento);
 
-        // Simulação de verificação de cobertura
-        boolean coberturaValida = true; // Simulado
-        boolean carenciaAtiva = false; // Simulado
-        int diasCarenciaRestantes = 0; // Simulado
+        VerificacaoCobertura verificacao = consultar(beneficiarioId, codigoProcedimento, LocalDate.now(),
+            tipoAtendimento);
+        boolean coberturaValida = verificacao.isCoberto();
+        boolean carenciaAtiva = verificacao.isEmCarencia();
+        int diasCarenciaRestantes = verificacao.getDiasCarenciaRestantes();
 
         Map<String, Object> detalhesCobertura = new HashMap<>();
         detalhesCobertura.put("codigoProcedimento", codigoProcedimento);
         detalhesCobertura.put("tipoGuia", tipoGuia);
-        detalhesCobertura.put("rolANS", true);
-        detalhesCobertura.put("coberturaContratual", true);
+        detalhesCobertura.put("rolANS", verificacao.getSituacao() != VerificacaoCobertura.Situacao.FORA_DO_ROL);
+        detalhesCobertura.put("coberturaContratual", coberturaValida || carenciaAtiva);
+        detalhesCobertura.put("situacao", verificacao.getSituacao().name());
+        detalhesCobertura.put("grupoCarencia",
+            verificacao.getGrupoCarencia() != null ? verificacao.getGrupoCarencia().name() : null);
+        detalhesCobertura.put("motivo", verificacao.getMotivo());
+        detalhesCobertura.put("versaoMatriz", verificacao.getVersaoMatriz());
 
         execution.setVariable("coberturaValida", coberturaValida);
         execution.setVariable("carenciaAtiva", carenciaAtiva);
@@ -80,4 +100,35 @@ public class CoberturaService implements JavaDelegate {
         LOGGER.info("Cobertura verificada - Válida: {}, Carência: {}",
                    coberturaValida, carenciaAtiva);
     }
+
+    /**
+     * Verifica cobertura e carência de um procedimento TUSS numa data
+     *
+     * Usado por verificarCoberturaCarenciaDelegate (SUB-006) e pelo self-service.
+     *
+     * @param tipoAtendimento ELETIVO, URGENCIA ou EMERGENCIA
+     */
+    public CoberturaDTO verificarCoberturaCarencia(String beneficiarioId, String procedimentoId,
+                                                   LocalDate dataProcedimento, String tipoAtendimento) {
+        VerificacaoCobertura verificacao = consultar(beneficiarioId, procedimentoId, dataProcedimento,
+            tipoAtendimento);
+
+        return CoberturaDTO.builder()
+            .coberto(verificacao.isCoberto())
+            .emCarencia(verificacao.isEmCarencia())
+            .diasCarenciaRestantes(verificacao.getDiasCarenciaRestantes())
+            .motivoNaoCobertura(verificacao.getMotivo())
+            .valorCoparticipacao(verificacao.getCoparticipacao())
+            .build();
+    }
+
+    private VerificacaoCobertura consultar(String beneficiarioId, String codigoTuss, LocalDate data,
+                                           String tipoAtendimento) {
+        if (!motorCobertura.isCarregado()) {
+            throw new IntegrationException("Matriz de cobertura ainda não carregada (rol ANS não publicado)");
+        }
+        boolean urgencia = "URGENCIA".equalsIgnoreCase(tipoAtendimento)
+            || "EMERGENCIA".equalsIgnoreCase(tipoAtendimento);
+        return motorCobertura.verificar(beneficiarioId, codigoTuss, data, urgencia);
+    }
 }
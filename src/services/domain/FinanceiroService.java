@@ -1,23 +1,27 @@
 package br.com.austa.experiencia.services.domain;
 
+import br.com.austa.experiencia.service.ids.GeradorIds;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.util.UUID;
 
 /**
  * Serviço Financeiro para compensações e créditos
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class FinanceiroService {
 
+    private final GeradorIds geradorIds;
+
     /**
      * Aplica desconto na mensalidade do beneficiário
      */
     public String aplicarDesconto(String beneficiarioId, BigDecimal valor, int meses) {
-        String codigo = "DESC-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        String codigo = "DESC-" + geradorIds.proximoIdTexto();
 
         log.info("Desconto aplicado: {} para beneficiário: {} no valor de {} por {} meses",
                  codigo, beneficiarioId, valor, meses);
@@ -30,7 +34,7 @@ public class FinanceiroService {
      * Adiciona crédito na conta do beneficiário
      */
     public String adicionarCredito(String beneficiarioId, BigDecimal valor) {
-        String codigo = "CRED-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        String codigo = "CRED-" + geradorIds.proximoIdTexto();
 
         log.info("Crédito adicionado: {} para beneficiário: {} no valor de {}",
                  codigo, beneficiarioId, valor);
@@ -42,7 +46,7 @@ public class FinanceiroService {
      * Processa reembolso para o beneficiário
      */
     public String processarReembolso(String beneficiarioId, BigDecimal valor, String dadosBancarios) {
-        String codigo = "REMB-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        String codigo = "REMB-" + geradorIds.proximoIdTexto();
 
         log.info("Reembolso processado: {} para beneficiário: {} no valor de {}",
                  codigo, beneficiarioId, valor);
@@ -1,5 +1,8 @@
 package br.com.austa.experiencia.service.domain;
 
+import br.com.austa.experiencia.exception.IntegrationException;
+import br.com.austa.experiencia.service.jornada.EventStoreJornada;
+import br.com.austa.experiencia.service.jornada.ResumoEtapasJornada;
 import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.JavaDelegate;
 import org.slf4j.Logger;
@@ -7,6 +10,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -16,6 +20,10 @@ import java.util.*;
  * Tracks journey milestones, consolidates outcomes, and maintains
  * comprehensive audit trail of customer interactions.
  *
+ * Milestones are published to the jornada-milestone topic, which every
+ * instance appends to its {@link EventStoreJornada}; the process only keeps
+ * the milestone counter (numeroEtapas) and the last milestone (ultimaEtapa).
+ *
  * BPMN Coverage:
  * - jornadaService.consolidarDesfechos (Consolidate journey outcomes)
  * - jornadaService.registrarEtapa (Register journey milestone)
@@ -31,6 +39,9 @@ public class JornadaService implements JavaDelegate {
     @Autowired
     private KafkaPublisherService kafkaPublisher;
 
+    @Autowired
+    private EventStoreJornada eventStoreJornada;
+
     @Override
     public void execute(DelegateExecution execution) throws Exception {
         String method = (String) execution.getVariable("jornadaMethod");
@@ -93,11 +104,18 @@ public class JornadaService implements JavaDelegate {
             desfechoConsolidado.put("negativas", execution.getVariable("numeroNegativas"));
             desfechoConsolidado.put("motivosNegativas", execution.getVariable("motivosNegativas"));
 
-            // Milestones achieved
-            List<Map<String, Object>> etapas = (List<Map<String, Object>>)
-                execution.getVariable("etapasPercorridas");
-            desfechoConsolidado.put("etapasPercorridas", etapas != null ? etapas : new ArrayList<>());
-            desfechoConsolidado.put("numeroEtapas", etapas != null ? etapas.size() : 0);
+            // Milestones achieved, streamed from the journey event store
+            ResumoEtapasJornada resumoEtapas = new ResumoEtapasJornada();
+            int numeroEtapas = numeroEtapas(execution);
+            eventStoreJornada.percorrer(execution.getProcessInstanceId(), numeroEtapas, resumoEtapas);
+            if (resumoEtapas.getNumeroEtapas() < numeroEtapas) {
+                // the milestone topic has not reached this instance yet; the job is retried
+                throw new IntegrationException("Journey event store behind for process "
+                    + execution.getProcessInstanceId() + ": " + resumoEtapas.getNumeroEtapas() + " of "
+                    + numeroEtapas + " milestones");
+            }
+            desfechoConsolidado.put("resumoEtapas", resumoEtapas.toMap());
+            desfechoConsolidado.put("numeroEtapas", resumoEtapas.getNumeroEtapas());
 
             // Cost and efficiency
             desfechoConsolidado.put("custoOperacional", calcularCustoOperacional(execution));
@@ -159,30 +177,27 @@ public class JornadaService implements JavaDelegate {
             etapa.put("canal", execution.getVariable("canal"));
             etapa.put("agenteResponsavel", execution.getVariable("agenteResponsavel"));
             etapa.put("tempoNaEtapa", execution.getVariable("tempoNaEtapa"));
+            etapa.put("comparecimento", execution.getVariable("comparecimentoConsulta"));
 
-            // Retrieve existing milestones
-            List<Map<String, Object>> etapasPercorridas =
-                (List<Map<String, Object>>) execution.getVariable("etapasPercorridas");
-
-            if (etapasPercorridas == null) {
-                etapasPercorridas = new ArrayList<>();
-            }
+            migrarEtapasLegadas(execution);
+            int sequencia = numeroEtapas(execution) + 1;
 
-            // Add new milestone
-            etapasPercorridas.add(etapa);
-            execution.setVariable("etapasPercorridas", etapasPercorridas);
-            execution.setVariable("ultimaEtapa", etapaNome);
-            execution.setVariable("numeroEtapas", etapasPercorridas.size());
-
-            // Publish milestone event for real-time monitoring
+            // Publish the milestone: real-time monitoring and every instance's journey event store
             Map<String, Object> milestoneEvent = new HashMap<>();
             milestoneEvent.put("processInstanceId", execution.getProcessInstanceId());
             milestoneEvent.put("beneficiarioId", execution.getVariable("beneficiarioId"));
             milestoneEvent.put("etapa", etapa);
             milestoneEvent.put("progressoPercentual", calcularProgresso(etapaNome));
+            milestoneEvent.put("sequencia", sequencia);
+            milestoneEvent.put("registradoEm", Instant.now().toString());
+            milestoneEvent.put("prazoProximaEtapaDias", execution.getVariable("prazoEtapa"));
 
             kafkaPublisher.publicar(execution, "jornada-milestone", milestoneEvent);
 
+            // Only the counter and the last milestone stay in the process; not advanced if publishing failed
+            execution.setVariable("ultimaEtapa", etapaNome);
+            execution.setVariable("numeroEtapas", sequencia);
+
             logger.info("Journey milestone registered: {} - {}", etapaNome, statusEtapa);
 
         } catch (Exception e) {
@@ -193,6 +208,36 @@ public class JornadaService implements JavaDelegate {
         }
     }
 
+    private int numeroEtapas(DelegateExecution execution) {
+        Object numeroEtapas = execution.getVariable("numeroEtapas");
+        return numeroEtapas instanceof Number ? ((Number) numeroEtapas).intValue() : 0;
+    }
+
+    /**
+     * Publishes the milestones of journeys started before the event store,
+     * kept in the old etapasPercorridas variable, at their positions.
+     */
+    @SuppressWarnings("unchecked")
+    private void migrarEtapasLegadas(DelegateExecution execution) throws Exception {
+        List<Map<String, Object>> legadas = (List<Map<String, Object>>) execution.getVariable("etapasPercorridas");
+        if (legadas == null) {
+            return;
+        }
+        for (int i = 0; i < legadas.size(); i++) {
+            Map<String, Object> milestoneEvent = new HashMap<>();
+            milestoneEvent.put("processInstanceId", execution.getProcessInstanceId());
+            milestoneEvent.put("beneficiarioId", execution.getVariable("beneficiarioId"));
+            milestoneEvent.put("etapa", legadas.get(i));
+            milestoneEvent.put("sequencia", i + 1);
+            milestoneEvent.put("registradoEm", Instant.now().toString());
+            kafkaPublisher.publicar(execution, "jornada-milestone", milestoneEvent);
+        }
+        execution.setVariable("numeroEtapas", legadas.size());
+        execution.removeVariable("etapasPercorridas");
+        logger.info("Published {} milestones of process {} to the journey event store",
+            legadas.size(), execution.getProcessInstanceId());
+    }
+
     /**
      * Calculate operational cost of journey
      */
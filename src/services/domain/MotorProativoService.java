@@ -1,5 +1,6 @@
 package br.com.austa.experiencia.service.domain;
 
+import br.com.austa.experiencia.service.ids.GeradorIds;
 import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.JavaDelegate;
 import org.slf4j.Logger;
@@ -32,6 +33,9 @@ public class MotorProativoService implements JavaDelegate {
     @Autowired
     private RiscoCalculatorService riscoCalculator;
 
+    @Autowired
+    private GeradorIds geradorIds;
+
     @Override
     public void execute(DelegateExecution execution) throws Exception {
         String method = (String) execution.getVariable("motorProativoMethod");
@@ -143,7 +147,7 @@ public class MotorProativoService implements JavaDelegate {
 
             // Save action to Data Lake
             dataLakeService.salvar(execution, "acoes_proativas",
-                UUID.randomUUID().toString(), registroAcao);
+                geradorIds.proximoIdTexto(), registroAcao);
 
             // Update campaign counters
             incrementarContadores(execution, resultadoAcao);
@@ -192,7 +196,7 @@ public class MotorProativoService implements JavaDelegate {
 
             // Save no-action record
             dataLakeService.salvar(execution, "sem_acao_proativa",
-                UUID.randomUUID().toString(), registroSemAcao);
+                geradorIds.proximoIdTexto(), registroSemAcao);
 
             execution.setVariable("semAcaoRegistrado", true);
 
@@ -3,6 +3,8 @@ package br.com.austa.experiencia.services.domain;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+
 /**
  * Serviço de Notificações multi-canal
  */
@@ -37,6 +39,15 @@ public class NotificationService {
         return true;
     }
 
+    /**
+     * Envia Push Notification em lote (uma mensagem por beneficiário)
+     */
+    public int sendPushBatch(Map<String, String> mensagensPorBeneficiario) {
+        log.info("Lote de {} push notifications enviado", mensagensPorBeneficiario.size());
+        // Em produção: envio multicast Firebase/OneSignal
+        return mensagensPorBeneficiario.size();
+    }
+
     /**
      * Alerta responsável de ouvidoria
      */
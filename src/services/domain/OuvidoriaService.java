@@ -1,18 +1,22 @@
 package br.com.austa.experiencia.services.domain;
 
+import br.com.austa.experiencia.service.ids.GeradorIds;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 /**
  * Serviço de Ouvidoria para escalação de casos críticos
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class OuvidoriaService {
 
+    private final GeradorIds geradorIds;
+
     /**
      * Cria caso na ouvidoria
      */
@@ -35,8 +39,7 @@ public class OuvidoriaService {
     }
 
     private String gerarProtocoloOuvidoria() {
-        return "OUV-" + System.currentTimeMillis() + "-" +
-               UUID.randomUUID().toString().substring(0, 4).toUpperCase();
+        return "OUV-" + geradorIds.proximoProtocoloAns();
     }
 
     private String atribuirResponsavel(PrioridadeOuvidoria prioridade) {
@@ -3,15 +3,14 @@ package br.com.austa.experiencia.services.domain;
 import br.com.austa.experiencia.models.dto.CompensacaoDTO;
 import br.com.austa.experiencia.models.dto.ReclamacaoDTO;
 import br.com.austa.experiencia.models.dto.SolucaoDTO;
+import br.com.austa.experiencia.service.ids.GeradorIds;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
@@ -24,12 +23,14 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ReclamacaoService {
 
+    private final GeradorIds geradorIds;
+
     private final ConcurrentHashMap<String, ReclamacaoDTO> reclamacoesCache = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, CompensacaoDTO> compensacoesCache = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, List<SolucaoDTO>> solucoesCache = new ConcurrentHashMap<>();
 
     /**
-     * Gera protocolo único de reclamação
+     * Gera protocolo único de reclamação: prefixo do canal + protocolo ANS de 20 dígitos
      */
     public String gerarProtocolo(String canalOrigem) {
         String prefixo = switch (canalOrigem) {
@@ -40,10 +41,7 @@ public class ReclamacaoService {
             default -> "RCL";
         };
 
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        String random = UUID.randomUUID().toString().substring(0, 4).toUpperCase();
-
-        return String.format("%s-%s-%s", prefixo, timestamp, random);
+        return prefixo + "-" + geradorIds.proximoProtocoloAns();
     }
 
     /**
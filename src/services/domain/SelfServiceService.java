@@ -1,5 +1,26 @@
 package br.com.austa.experiencia.service.domain;
 
+import br.com.austa.experiencia.exception.BusinessException;
+import br.com.austa.experiencia.exception.IntegrationException;
+import br.com.austa.experiencia.model.dto.BoletoDTO;
+import br.com.austa.experiencia.model.dto.CarterinhaDigitalDTO;
+import br.com.austa.experiencia.model.dto.ElegibilidadeDTO;
+import br.com.austa.experiencia.model.dto.ExtratoUtilizacaoDTO;
+import br.com.austa.experiencia.service.boletos.BoletoGerado;
+import br.com.austa.experiencia.service.boletos.CacheBoletos;
+import br.com.austa.experiencia.service.carteirinha.EmissorCarteirinha;
+import br.com.austa.experiencia.service.carteirinha.verificacao.CoberturaCarteirinha;
+import br.com.austa.experiencia.service.cobertura.GrupoCarencia;
+import br.com.austa.experiencia.service.cobertura.MatrizCobertura;
+import br.com.austa.experiencia.service.cobertura.MotorCobertura;
+import br.com.austa.experiencia.service.cobertura.Segmentacao;
+import br.com.austa.experiencia.service.consulta.ConsultaComposta;
+import br.com.austa.experiencia.service.consulta.ResultadoConsultaComposta;
+import br.com.austa.experiencia.service.elegibilidade.ReplicaElegibilidade;
+import br.com.austa.experiencia.service.projecao.AutorizacaoResumo;
+import br.com.austa.experiencia.service.projecao.ProjecaoStatusAutorizacao;
+import br.com.austa.experiencia.service.utilizacao.ExtratoUtilizacao;
+import br.com.austa.experiencia.service.utilizacao.UtilizacaoStore;
 import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.JavaDelegate;
 import org.slf4j.Logger;
@@ -7,8 +28,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.*;
+import java.util.concurrent.Callable;
 
 /**
  * Self Service Service - Beneficiary Self-Service Operations Delegate
@@ -17,20 +41,45 @@ import java.util.*;
  * data queries and document generation (invoice 2nd copy).
  *
  * BPMN Coverage:
- * - selfServiceService.consultarDados (Self-service data query)
- * - selfServiceService.gerar2Via (Generate invoice 2nd copy)
+ * - selfServiceService.consultarDados (Self-service data query; COMPOSTA runs several types in parallel)
+ * - selfServiceService.gerar2Via (Generate invoice 2nd copy, from the boleto cache)
+ * - gerarSegundaViaBoleto (boleto 2nd copy, via GerarBoletoDelegate)
+ * - consultarExtratoUtilizacao (utilization statement, via ConsultarExtratoUtilizacaoDelegate)
  */
 @Component("selfServiceService")
 public class SelfServiceService implements JavaDelegate {
 
     private static final Logger logger = LoggerFactory.getLogger(SelfServiceService.class);
 
+    static final String CONSULTA_COMPOSTA = "COMPOSTA";
+
     @Autowired
     private DataLakeService dataLakeService;
 
     @Autowired
     private TasyBeneficiarioService tasyService;
 
+    @Autowired
+    private ProjecaoStatusAutorizacao projecaoStatusAutorizacao;
+
+    @Autowired
+    private UtilizacaoStore utilizacaoStore;
+
+    @Autowired
+    private CacheBoletos cacheBoletos;
+
+    @Autowired
+    private ReplicaElegibilidade replicaElegibilidade;
+
+    @Autowired
+    private MotorCobertura motorCobertura;
+
+    @Autowired
+    private EmissorCarteirinha emissorCarteirinha;
+
+    @Autowired
+    private ConsultaComposta consultaComposta;
+
     @Override
     public void execute(DelegateExecution execution) throws Exception {
         String method = (String) execution.getVariable("selfServiceMethod");
@@ -64,41 +113,19 @@ public class SelfServiceService implements JavaDelegate {
         try {
             String beneficiarioId = (String) execution.getVariable("beneficiarioId");
             String tipoConsulta = (String) execution.getVariable("tipoConsulta");
+            if (CONSULTA_COMPOSTA.equals(tipoConsulta)) {
+                consultarComposta(beneficiarioId, execution);
+                return;
+            }
 
             Map<String, Object> resultado = new HashMap<>();
             resultado.put("beneficiarioId", beneficiarioId);
             resultado.put("tipoConsulta", tipoConsulta);
             resultado.put("dataConsulta", LocalDateTime.now().toString());
 
-            // Execute query based on type
-            switch (tipoConsulta) {
-                case "PLANO":
-                    resultado.put("dados", consultarDadosPlano(beneficiarioId, execution));
-                    break;
-
-                case "SINISTROS":
-                    resultado.put("dados", consultarSinistros(beneficiarioId, execution));
-                    break;
-
-                case "AUTORIZACOES":
-                    resultado.put("dados", consultarAutorizacoes(beneficiarioId, execution));
-                    break;
-
-                case "FINANCEIRO":
-                    resultado.put("dados", consultarFinanceiro(beneficiarioId, execution));
-                    break;
-
-                case "REDE_CREDENCIADA":
-                    resultado.put("dados", consultarRedeCredenciada(execution));
-                    break;
-
-                case "HISTORICO_ATENDIMENTOS":
-                    resultado.put("dados", consultarHistoricoAtendimentos(beneficiarioId, execution));
-                    break;
-
-                default:
-                    throw new IllegalArgumentException("Tipo de consulta não suportado: " + tipoConsulta);
-            }
+            resultado.put("dados", consultarParte(tipoConsulta, beneficiarioId, execution,
+                (String) execution.getVariable("especialidadeRequerida"),
+                (String) execution.getVariable("localizacao")));
 
             execution.setVariable("consultaRealizada", true);
             execution.setVariable("resultadoConsulta", resultado);
@@ -115,6 +142,61 @@ public class SelfServiceService implements JavaDelegate {
         }
     }
 
+    /**
+     * Composite query (tipoConsulta=COMPOSTA): the types listed in
+     * {@code tiposConsulta} (collection or comma-separated) run in parallel
+     * through {@link ConsultaComposta}, in this one execution instead of one
+     * SUB-004 instance per type. A type that misses its deadline or fails is
+     * left out and listed in {@code consultasPendentes}; the query only fails
+     * when no type concluded.
+     */
+    private void consultarComposta(String beneficiarioId, DelegateExecution execution) {
+        List<String> tipos = tiposConsulta(execution.getVariable("tiposConsulta"));
+        if (tipos.isEmpty()) {
+            throw new IllegalArgumentException("tiposConsulta é obrigatório para consulta COMPOSTA");
+        }
+        // Variables are read here: the parts run outside the engine's command context and
+        // only pass the execution through to the integration clients
+        String especialidade = (String) execution.getVariable("especialidadeRequerida");
+        String localizacao = (String) execution.getVariable("localizacao");
+        Map<String, Callable<Object>> partes = new LinkedHashMap<>();
+        for (String tipo : tipos) {
+            partes.put(tipo, () -> consultarParte(tipo, beneficiarioId, execution, especialidade, localizacao));
+        }
+
+        ResultadoConsultaComposta composta = consultaComposta.executar(partes);
+
+        Map<String, Object> resultado = new HashMap<>(composta.toMap());
+        resultado.put("beneficiarioId", beneficiarioId);
+        resultado.put("tipoConsulta", CONSULTA_COMPOSTA);
+        resultado.put("dataConsulta", LocalDateTime.now().toString());
+
+        boolean algumaConcluida = composta.getPendentes().size() < tipos.size();
+        execution.setVariable("consultaRealizada", algumaConcluida);
+        execution.setVariable("consultaCompleta", composta.isCompleta());
+        execution.setVariable("consultasPendentes", composta.getPendentes());
+        execution.setVariable("resultadoConsulta", resultado);
+        if (!algumaConcluida) {
+            execution.setVariable("consultaErro", "Nenhuma consulta concluída no prazo: " + composta.getPendentes());
+        }
+
+        logger.info("Composite self-service query completed: beneficiary={}, types={}, pending={}, {} ms",
+            beneficiarioId, tipos, composta.getPendentes(), resultado.get("duracaoMs"));
+    }
+
+    private static List<String> tiposConsulta(Object valor) {
+        List<String> tipos = new ArrayList<>();
+        Collection<?> itens = valor instanceof Collection<?> colecao ? colecao
+            : valor instanceof String texto ? Arrays.asList(texto.split(",")) : List.of();
+        for (Object item : itens) {
+            String tipo = String.valueOf(item).trim().toUpperCase(Locale.ROOT);
+            if (!tipo.isEmpty() && !tipos.contains(tipo)) {
+                tipos.add(tipo);
+            }
+        }
+        return tipos;
+    }
+
     /**
      * Generate invoice 2nd copy
      *
@@ -133,11 +215,23 @@ public class SelfServiceService implements JavaDelegate {
             String anoReferencia = (String) execution.getVariable("anoReferencia");
             String canalEntrega = (String) execution.getVariable("canalEntrega");
 
-            // Fetch invoice data from Tasy
-            Map<String, Object> dadosFatura = consultarDadosFatura(
-                beneficiarioId, mesReferencia, anoReferencia, execution);
+            YearMonth competencia = YearMonth.of(Integer.parseInt(anoReferencia), Integer.parseInt(mesReferencia));
+            if (!cacheBoletos.isReplicado()) {
+                throw new IntegrationException("Segunda via indisponível: faturamento ainda em carga");
+            }
+            if (cacheBoletos.pago(beneficiarioId, competencia)) {
+                logger.info("Invoice already paid for beneficiary={}, period={}/{}",
+                    beneficiarioId, mesReferencia, anoReferencia);
+
+                execution.setVariable("segundaViaGerada", false);
+                execution.setVariable("segundaViaErro", "Fatura do período solicitado já está paga");
+                return;
+            }
+
+            // Pre-generated when the competência opened
+            Optional<BoletoGerado> boleto = cacheBoletos.segundaVia(beneficiarioId, competencia);
 
-            if (dadosFatura == null || dadosFatura.isEmpty()) {
+            if (boleto.isEmpty()) {
                 logger.warn("Invoice not found for beneficiary={}, period={}/{}",
                     beneficiarioId, mesReferencia, anoReferencia);
 
@@ -146,11 +240,8 @@ public class SelfServiceService implements JavaDelegate {
                 return;
             }
 
-            // Generate invoice document
-            Map<String, Object> documentoFatura = gerarDocumentoFatura(dadosFatura);
-
             String segundaViaId = UUID.randomUUID().toString();
-            String urlDownload = "https://portal.operadora.com.br/faturas/" + segundaViaId + ".pdf";
+            String urlDownload = urlBoleto(boleto.get());
 
             // Store generation record
             Map<String, Object> registroSegundaVia = new HashMap<>();
@@ -161,8 +252,10 @@ public class SelfServiceService implements JavaDelegate {
             registroSegundaVia.put("dataGeracao", LocalDateTime.now().toString());
             registroSegundaVia.put("canalEntrega", canalEntrega);
             registroSegundaVia.put("urlDownload", urlDownload);
-            registroSegundaVia.put("valorFatura", dadosFatura.get("valorTotal"));
-            registroSegundaVia.put("dataVencimento", dadosFatura.get("dataVencimento"));
+            registroSegundaVia.put("boletoHash", boleto.get().getHash());
+            registroSegundaVia.put("versaoBoleto", boleto.get().getVersao());
+            registroSegundaVia.put("valorFatura", boleto.get().getValor());
+            registroSegundaVia.put("dataVencimento", boleto.get().getDataVencimento().toString());
 
             dataLakeService.salvar(execution, "segunda_vias_faturas",
                 segundaViaId, registroSegundaVia);
@@ -187,8 +280,137 @@ public class SelfServiceService implements JavaDelegate {
         }
     }
 
+    /**
+     * Boleto second copy for {@link br.com.austa.experiencia.service.domain.selfservice.GerarBoletoDelegate},
+     * read from the boleto cache. A competência not billed through the Tasy
+     * feed has none: a payable boleto is never rendered without its billed
+     * amount, due date and nosso número.
+     *
+     * @param competencia    YYYY-MM
+     * @param nossoNumero    not used: the cached boleto carries the nosso número billed by Tasy
+     * @param enviarPorEmail not used here; delivery is up to the process
+     * @throws BusinessException if the invoice is already paid or does not exist
+     * @throws IntegrationException while the boleto cache is still replaying the billing feed
+     */
+    public BoletoDTO gerarSegundaViaBoleto(String beneficiarioId, String competencia, String nossoNumero,
+                                           Boolean enviarPorEmail) {
+        if (!cacheBoletos.isReplicado()) {
+            throw new IntegrationException("Segunda via indisponível: faturamento ainda em carga");
+        }
+        YearMonth mes = YearMonth.parse(competencia);
+        if (cacheBoletos.pago(beneficiarioId, mes)) {
+            throw new BusinessException("Fatura da competência " + competencia + " já está paga");
+        }
+        BoletoGerado boleto = cacheBoletos.segundaVia(beneficiarioId, mes)
+            .orElseThrow(() -> new BusinessException("Fatura não encontrada para a competência " + competencia));
+
+        return BoletoDTO.builder()
+            .url(urlBoleto(boleto))
+            .linhaDigitavel(boleto.getLinhaDigitavel())
+            .codigoBarras(boleto.getCodigoBarras())
+            .dataVencimento(boleto.getDataVencimento())
+            .valor(boleto.getValor())
+            .build();
+    }
+
+    /**
+     * Digital member card for {@link br.com.austa.experiencia.service.domain.selfservice.GerarCarterinhaDigitalDelegate}.
+     *
+     * The QR code is a signed token that providers verify offline
+     * ({@link EmissorCarteirinha}): plan from the eligibility replica,
+     * segmentations and waiting periods from the coverage snapshot.
+     *
+     * @param formato PDF, PNG or JPG
+     * @throws BusinessException if the replica answers that the card is not eligible
+     */
+    public CarterinhaDigitalDTO gerarCarterinhaDigital(String beneficiarioId, String cartaoNumero,
+                                                       Boolean incluirQrCode, String formato) {
+        LocalDate hoje = LocalDate.now();
+        Optional<ElegibilidadeDTO> elegibilidade = replicaElegibilidade.consultar(cartaoNumero, hoje);
+        if (elegibilidade.isPresent() && !elegibilidade.get().isElegivel()) {
+            throw new BusinessException("Carteirinha indisponível: " + elegibilidade.get().getMotivoInelegibilidade());
+        }
+
+        String qrCode = null;
+        if (!Boolean.FALSE.equals(incluirQrCode)) {
+            MatrizCobertura matriz = motorCobertura.matriz();
+            Set<CoberturaCarteirinha> coberturas = EnumSet.noneOf(CoberturaCarteirinha.class);
+            for (Segmentacao segmentacao : matriz.segmentacoes(beneficiarioId)) {
+                coberturas.add(CoberturaCarteirinha.valueOf(segmentacao.name()));
+            }
+            LocalDate fimCpt = matriz.fimCarencia(beneficiarioId, GrupoCarencia.CPT);
+            LocalDate fimCarencias = null;
+            for (GrupoCarencia grupo : GrupoCarencia.values()) {
+                LocalDate fim = grupo == GrupoCarencia.CPT ? null : matriz.fimCarencia(beneficiarioId, grupo);
+                if (fim != null && !fim.isBefore(hoje) && (fimCarencias == null || fim.isAfter(fimCarencias))) {
+                    fimCarencias = fim;
+                }
+            }
+            qrCode = emissorCarteirinha.emitir(cartaoNumero, replicaElegibilidade.codigoPlano(cartaoNumero),
+                coberturas, fimCpt != null && !fimCpt.isBefore(hoje), fimCarencias);
+        }
+
+        String downloadToken = UUID.randomUUID().toString();
+        logger.debug("Digital card generated: beneficiary={}, qrCode={}", beneficiarioId, qrCode != null);
+
+        return CarterinhaDigitalDTO.builder()
+            .url("https://portal.operadora.com.br/carteirinha/" + downloadToken + "."
+                + formato.toLowerCase(Locale.ROOT))
+            .qrCodeData(qrCode)
+            .dataGeracao(LocalDateTime.now())
+            .downloadToken(downloadToken)
+            .build();
+    }
+
+    /**
+     * Utilization statement for the period, answered from the utilization
+     * store's monthly summaries (raw rows only for a month cut by the period).
+     *
+     * @param tipoServico optional service type filter
+     * @param agruparPor  DATA (per month), TIPO or PRESTADOR
+     * @throws IntegrationException while the store is still replaying the claims feed
+     */
+    public ExtratoUtilizacaoDTO consultarExtratoUtilizacao(String beneficiarioId, LocalDate dataInicio,
+                                                           LocalDate dataFim, String tipoServico,
+                                                           String agruparPor) {
+        if (!utilizacaoStore.isReplicado()) {
+            throw new IntegrationException("Extrato de utilização indisponível: contas médicas ainda em carga");
+        }
+        ExtratoUtilizacao extrato = utilizacaoStore.extrato(beneficiarioId, dataInicio, dataFim,
+            tipoServico, agruparPor);
+
+        logger.debug("Utilization statement: beneficiary={}, {} months from summaries, {} raw rows",
+            beneficiarioId, extrato.getMesesResumidos(), extrato.getLinhasLidas());
+
+        return ExtratoUtilizacaoDTO.builder()
+            .utilizacoes(extrato.getLinhas())
+            .totalUtilizacoes(extrato.getTotalUtilizacoes())
+            .valorTotal(extrato.getValorTotal())
+            .build();
+    }
+
     // Query helper methods
 
+    private Object consultarParte(String tipoConsulta, String beneficiarioId, DelegateExecution execution,
+                                  String especialidade, String localizacao) throws Exception {
+        switch (tipoConsulta) {
+            case "PLANO":
+                return consultarDadosPlano(beneficiarioId, execution);
+            case "SINISTROS":
+                return consultarSinistros(beneficiarioId, execution);
+            case "AUTORIZACOES":
+                return consultarAutorizacoes(beneficiarioId, execution);
+            case "FINANCEIRO":
+                return consultarFinanceiro(beneficiarioId, execution);
+            case "REDE_CREDENCIADA":
+                return consultarRedeCredenciada(especialidade, localizacao);
+            case "HISTORICO_ATENDIMENTOS":
+                return consultarHistoricoAtendimentos(beneficiarioId, execution);
+            default:
+                throw new IllegalArgumentException("Tipo de consulta não suportado: " + tipoConsulta);
+        }
+    }
+
     private Map<String, Object> consultarDadosPlano(String beneficiarioId, DelegateExecution execution) throws Exception {
         return tasyService.consultar(execution, beneficiarioId);
     }
@@ -197,8 +419,23 @@ public class SelfServiceService implements JavaDelegate {
         return dataLakeService.consultar(execution, "sinistros", beneficiarioId);
     }
 
-    private Map<String, Object> consultarAutorizacoes(String beneficiarioId, DelegateExecution execution) throws Exception {
-        return dataLakeService.consultar(execution, "autorizacoes", beneficiarioId);
+    /**
+     * Answered from the authorization status projection, newest first.
+     */
+    private Map<String, Object> consultarAutorizacoes(String beneficiarioId, DelegateExecution execution) {
+        List<Map<String, Object>> autorizacoes = new ArrayList<>();
+        long pendentes = 0;
+        for (AutorizacaoResumo resumo : projecaoStatusAutorizacao.doBeneficiario(beneficiarioId)) {
+            autorizacoes.add(resumo.toMap());
+            if ("PENDENTE".equals(resumo.getStatus()) || "EM_AUDITORIA".equals(resumo.getStatus())) {
+                pendentes++;
+            }
+        }
+        return Map.of(
+            "autorizacoes", autorizacoes,
+            "total", autorizacoes.size(),
+            "pendentes", pendentes
+        );
     }
 
     private Map<String, Object> consultarFinanceiro(String beneficiarioId, DelegateExecution execution) throws Exception {
@@ -210,10 +447,7 @@ public class SelfServiceService implements JavaDelegate {
         );
     }
 
-    private Map<String, Object> consultarRedeCredenciada(DelegateExecution execution) {
-        String especialidade = (String) execution.getVariable("especialidadeRequerida");
-        String localizacao = (String) execution.getVariable("localizacao");
-
+    private Map<String, Object> consultarRedeCredenciada(String especialidade, String localizacao) {
         // Simplified network query
         return Map.of(
             "totalPrestadores", 1250,
@@ -227,27 +461,9 @@ public class SelfServiceService implements JavaDelegate {
         return dataLakeService.consultar(execution, "historico_atendimentos", beneficiarioId);
     }
 
-    private Map<String, Object> consultarDadosFatura(String beneficiarioId, String mes, String ano,
-                                                     DelegateExecution execution) throws Exception {
-        // Query invoice data from Tasy
-        String periodoReferencia = ano + "-" + mes;
-        return Map.of(
-            "beneficiarioId", beneficiarioId,
-            "mesReferencia", mes,
-            "anoReferencia", ano,
-            "valorTotal", 450.00,
-            "dataVencimento", ano + "-" + mes + "-10",
-            "linhaDigitavel", "12345.67890 12345.678901 12345.678901 1 12345678901234"
-        );
-    }
-
-    private Map<String, Object> gerarDocumentoFatura(Map<String, Object> dadosFatura) {
-        // Generate PDF document (simplified)
-        return Map.of(
-            "formato", "PDF",
-            "tamanho", "245KB",
-            "geradoEm", LocalDateTime.now().toString()
-        );
+    private static String urlBoleto(BoletoGerado boleto) {
+        return "https://portal.operadora.com.br/api/v1/boletos/" + boleto.getBeneficiarioId() + "/"
+            + boleto.getCompetencia() + "/" + boleto.getHash() + ".html";
     }
 
     private boolean entregarSegundaVia(Map<String, Object> segundaVia, String canal,
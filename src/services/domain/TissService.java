@@ -61,79 +61,12 @@ public class TissService implements JavaDelegate {
         try {
             // Extract TISS guide data
             String numeroGuia = (String) execution.getVariable("numeroGuia");
-            String tipoGuia = (String) execution.getVariable("tipoGuia");
             String numeroAutorizacao = (String) execution.getVariable("numeroAutorizacao");
             List<String> procedimentos = (List<String>) execution.getVariable("procedimentos");
-            String prestadorCodigo = (String) execution.getVariable("prestadorCodigo");
-            String beneficiarioCpf = (String) execution.getVariable("beneficiarioCpf");
-            String dataAtendimento = (String) execution.getVariable("dataAtendimento");
 
-            List<String> errosValidacao = new ArrayList<>();
             List<String> alertasValidacao = new ArrayList<>();
-            boolean valido = true;
-
-            // 1. Validate authorization number format
-            if (numeroAutorizacao == null || numeroAutorizacao.trim().isEmpty()) {
-                errosValidacao.add("Número de autorização é obrigatório");
-                valido = false;
-            } else if (!TISS_PATTERN.matcher(numeroAutorizacao).matches()) {
-                errosValidacao.add("Formato inválido do número de autorização ANS. " +
-                                  "Formato esperado: AAAAMMDD-XXXXXXXX-XX");
-                valido = false;
-            }
-
-            // 2. Validate guide number
-            if (numeroGuia == null || numeroGuia.trim().isEmpty()) {
-                errosValidacao.add("Número da guia é obrigatório");
-                valido = false;
-            }
-
-            // 3. Validate guide type
-            if (!validarTipoGuia(tipoGuia)) {
-                errosValidacao.add("Tipo de guia inválido: " + tipoGuia);
-                valido = false;
-            }
-
-            // 4. Validate procedures (TUSS codes)
-            if (procedimentos == null || procedimentos.isEmpty()) {
-                errosValidacao.add("Pelo menos um procedimento deve ser informado");
-                valido = false;
-            } else {
-                for (String procedimento : procedimentos) {
-                    if (!validarCodigoTUSS(procedimento)) {
-                        errosValidacao.add("Código TUSS inválido: " + procedimento);
-                        valido = false;
-                    }
-                }
-            }
-
-            // 5. Validate provider
-            if (prestadorCodigo == null || prestadorCodigo.trim().isEmpty()) {
-                errosValidacao.add("Código do prestador é obrigatório");
-                valido = false;
-            } else if (!validarPrestador(prestadorCodigo)) {
-                alertasValidacao.add("Prestador não encontrado na rede credenciada: " + prestadorCodigo);
-            }
-
-            // 6. Validate beneficiary
-            if (beneficiarioCpf == null || beneficiarioCpf.trim().isEmpty()) {
-                errosValidacao.add("CPF do beneficiário é obrigatório");
-                valido = false;
-            } else if (!validarCPF(beneficiarioCpf)) {
-                errosValidacao.add("CPF do beneficiário inválido");
-                valido = false;
-            }
-
-            // 7. Validate service date
-            if (dataAtendimento == null || dataAtendimento.trim().isEmpty()) {
-                errosValidacao.add("Data de atendimento é obrigatória");
-                valido = false;
-            } else if (!validarDataAtendimento(dataAtendimento)) {
-                alertasValidacao.add("Data de atendimento futura ou muito antiga");
-            }
-
-            // 8. Validate required fields based on guide type
-            validarCamposObrigatoriosPorTipo(tipoGuia, execution, errosValidacao);
+            List<String> errosValidacao = validarGuia(execution.getVariables(), alertasValidacao);
+            boolean valido = errosValidacao.isEmpty();
 
             // Store validation results
             execution.setVariable("tissValidado", valido);
@@ -161,6 +94,84 @@ public class TissService implements JavaDelegate {
         }
     }
 
+    /**
+     * Validate TISS guide data without a process execution
+     *
+     * Same checks as {@link #validarGuia(DelegateExecution)}; used by the
+     * straight-through authorization path, which validates the guide in memory.
+     *
+     * @param guia guide variables (numeroGuia, tipoGuia, procedimentos, ...)
+     * @param alertasValidacao receives non-blocking alerts
+     * @return validation errors, empty when the guide is valid
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> validarGuia(Map<String, Object> guia, List<String> alertasValidacao) {
+        String numeroGuia = (String) guia.get("numeroGuia");
+        String tipoGuia = (String) guia.get("tipoGuia");
+        String numeroAutorizacao = (String) guia.get("numeroAutorizacao");
+        List<String> procedimentos = (List<String>) guia.get("procedimentos");
+        String prestadorCodigo = (String) guia.get("prestadorCodigo");
+        String beneficiarioCpf = (String) guia.get("beneficiarioCpf");
+        String dataAtendimento = (String) guia.get("dataAtendimento");
+
+        List<String> errosValidacao = new ArrayList<>();
+
+        // 1. Validate authorization number format
+        if (numeroAutorizacao == null || numeroAutorizacao.trim().isEmpty()) {
+            errosValidacao.add("Número de autorização é obrigatório");
+        } else if (!TISS_PATTERN.matcher(numeroAutorizacao).matches()) {
+            errosValidacao.add("Formato inválido do número de autorização ANS. " +
+                              "Formato esperado: AAAAMMDD-XXXXXXXX-XX");
+        }
+
+        // 2. Validate guide number
+        if (numeroGuia == null || numeroGuia.trim().isEmpty()) {
+            errosValidacao.add("Número da guia é obrigatório");
+        }
+
+        // 3. Validate guide type
+        if (!validarTipoGuia(tipoGuia)) {
+            errosValidacao.add("Tipo de guia inválido: " + tipoGuia);
+        }
+
+        // 4. Validate procedures (TUSS codes)
+        if (procedimentos == null || procedimentos.isEmpty()) {
+            errosValidacao.add("Pelo menos um procedimento deve ser informado");
+        } else {
+            for (String procedimento : procedimentos) {
+                if (!validarCodigoTUSS(procedimento)) {
+                    errosValidacao.add("Código TUSS inválido: " + procedimento);
+                }
+            }
+        }
+
+        // 5. Validate provider
+        if (prestadorCodigo == null || prestadorCodigo.trim().isEmpty()) {
+            errosValidacao.add("Código do prestador é obrigatório");
+        } else if (!validarPrestador(prestadorCodigo)) {
+            alertasValidacao.add("Prestador não encontrado na rede credenciada: " + prestadorCodigo);
+        }
+
+        // 6. Validate beneficiary
+        if (beneficiarioCpf == null || beneficiarioCpf.trim().isEmpty()) {
+            errosValidacao.add("CPF do beneficiário é obrigatório");
+        } else if (!validarCPF(beneficiarioCpf)) {
+            errosValidacao.add("CPF do beneficiário inválido");
+        }
+
+        // 7. Validate service date
+        if (dataAtendimento == null || dataAtendimento.trim().isEmpty()) {
+            errosValidacao.add("Data de atendimento é obrigatória");
+        } else if (!validarDataAtendimento(dataAtendimento)) {
+            alertasValidacao.add("Data de atendimento futura ou muito antiga");
+        }
+
+        // 8. Validate required fields based on guide type
+        validarCamposObrigatoriosPorTipo(tipoGuia, guia, errosValidacao);
+
+        return errosValidacao;
+    }
+
     /**
      * Validate guide type against ANS standard types
      */
@@ -235,31 +246,31 @@ public class TissService implements JavaDelegate {
     /**
      * Validate required fields based on guide type
      */
-    private void validarCamposObrigatoriosPorTipo(String tipoGuia, DelegateExecution execution,
+    private void validarCamposObrigatoriosPorTipo(String tipoGuia, Map<String, Object> guia,
                                                   List<String> erros) {
         if (tipoGuia == null) return;
 
         switch (tipoGuia.toUpperCase()) {
             case "INTERNACAO":
                 // Internment requires additional fields
-                if (execution.getVariable("dataInternacao") == null) {
+                if (guia.get("dataInternacao") == null) {
                     erros.add("Data de internação obrigatória para guia de internação");
                 }
-                if (execution.getVariable("tipoAcomodacao") == null) {
+                if (guia.get("tipoAcomodacao") == null) {
                     erros.add("Tipo de acomodação obrigatório para guia de internação");
                 }
                 break;
 
             case "SADT":
                 // SADT requires referral
-                if (execution.getVariable("numeroGuiaPrincipal") == null) {
+                if (guia.get("numeroGuiaPrincipal") == null) {
                     erros.add("Guia principal (referência) obrigatória para SADT");
                 }
                 break;
 
             case "HONORARIO":
                 // Honorarium requires professional data
-                if (execution.getVariable("crm") == null) {
+                if (guia.get("crm") == null) {
                     erros.add("CRM do profissional obrigatório para guia de honorários");
                 }
                 break;
@@ -0,0 +1,53 @@
+package br.com.austa.experiencia.service.domain.autorizacao;
+
+import br.com.austa.experiencia.service.autorizacao.AutorizacaoExpressa;
+import br.com.austa.experiencia.service.autorizacao.ResultadoAutorizacaoExpressa;
+import br.com.austa.experiencia.service.autorizacao.SolicitacaoAutorizacao;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.JavaDelegate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Delegate da via expressa de autorização.
+ * Avalia guia TISS, elegibilidade, cobertura/carência, prestador e as tabelas
+ * DMN_ProtocoloClinico e DMN_RegrasAutorizacao em uma única atividade, com
+ * uma única escrita de variáveis. Guias que precisam de revisão seguem o
+ * fluxo completo.
+ *
+ * Referenciado em: SUB-006_Autorizacao_Inteligente.bpmn
+ * Activity ID: Task_AutorizacaoExpressa
+ *
+ * Variáveis de entrada:
+ * - numeroGuia, tipoGuia, procedimentos, numeroAutorizacao, beneficiarioCpf, dataAtendimento (guia TISS)
+ * - beneficiarioId, cartaoNumero (String)
+ * - codigoProcedimento (String): Código TUSS
+ * - tipoProcedimento (String), valorProcedimento (BigDecimal), prestadorId (String)
+ * - dataProcedimento (LocalDate), tipoAtendimento (String, opcional)
+ * - cid10, tratamentosPrevios, tempoTratamento, examesComplementares, indicadorGravidade (opcionais)
+ *
+ * Variáveis de saída:
+ * - autorizacaoExpressa (String): APROVADA ou FLUXO_COMPLETO
+ * - etapaAutorizacaoExpressa, motivoAutorizacaoExpressa (String)
+ * - quando aprovada: decisaoAutorizacao, motivoDecisao, statusAutorizacao, atendeProtocolo,
+ *   coberturaValida, beneficiarioElegivel, prestadorRede, requerAuditoria, ...
+ */
+@Slf4j
+@Component("autorizacaoExpressaDelegate")
+@RequiredArgsConstructor
+public class AutorizacaoExpressaDelegate implements JavaDelegate {
+
+    private final AutorizacaoExpressa autorizacaoExpressa;
+
+    @Override
+    public void execute(DelegateExecution execution) throws Exception {
+        SolicitacaoAutorizacao solicitacao = SolicitacaoAutorizacao.deVariaveis(execution.getVariables());
+
+        ResultadoAutorizacaoExpressa resultado = autorizacaoExpressa.avaliar(solicitacao);
+        execution.setVariables(resultado.toVariaveis());
+
+        log.info("Via expressa - ProcessInstance: {}, Guia: {}, Desfecho: {}",
+                 execution.getProcessInstanceId(), solicitacao.getNumeroGuia(), resultado.getDesfecho());
+    }
+}
@@ -1,6 +1,6 @@
 package br.com.austa.experiencia.service.domain.autorizacao;
 
-import br.com.austa.experiencia.service.CoberturaService;
+import br.com.austa.experiencia.service.domain.CoberturaService;
 import br.com.austa.experiencia.model.dto.CoberturaDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -1,13 +1,17 @@
 package br.com.austa.experiencia.service.domain.autorizacao.impl;
 
+import br.com.austa.experiencia.service.ids.GeradorIds;
+import br.com.austa.experiencia.service.prestadores.AgregadorNotificacoesPrestador;
+import br.com.austa.experiencia.service.prestadores.CanalNotificacao;
+import br.com.austa.experiencia.service.prestadores.NotificacaoDecisao;
+import br.com.austa.experiencia.service.prestadores.RoteadorNotificacoesPrestador;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.JavaDelegate;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Delegate responsible for notifying healthcare provider of authorization decision.
@@ -20,6 +24,9 @@ import java.util.Map;
  *   <li>Includes decision details and next steps</li>
  *   <li>Provides authorization codes and validity periods</li>
  *   <li>Tracks notification delivery and acknowledgment</li>
+ *   <li>Routes the decision through {@link RoteadorNotificacoesPrestador} to the instance
+ *       owning the provider, whose {@link AgregadorNotificacoesPrestador} sends it in a
+ *       per-provider digest; denials are sent immediately</li>
  * </ul>
  *
  * <p>Input Variables:</p>
@@ -32,10 +39,14 @@ import java.util.Map;
  *
  * <p>Output Variables:</p>
  * <ul>
- *   <li><b>notificacaoPrestadorEnviada</b> (Boolean): Notification sent flag</li>
+ *   <li><b>notificacaoPrestadorEnviada</b> (Boolean): false; the digest goes out later from the
+ *       provider's owning instance</li>
+ *   <li><b>notificacaoPrestadorAgrupada</b> (Boolean): Accepted by the broker for the provider's
+ *       next digest (or immediate send, for denials)</li>
  *   <li><b>canalNotificacao</b> (String): Notification channel used</li>
  *   <li><b>timestampNotificacao</b> (LocalDateTime): Notification timestamp</li>
- *   <li><b>protocoloNotificacao</b> (String): Notification protocol number</li>
+ *   <li><b>protocoloNotificacao</b> (String): Per-authorization notification protocol, which the
+ *       owning instance resolves to the digest that carried it</li>
  * </ul>
  *
  * @author Digital Experience Team
@@ -44,8 +55,12 @@ import java.util.Map;
  */
 @Slf4j
 @Component("notificarPrestadorDelegate")
+@RequiredArgsConstructor
 public class NotificarPrestadorDelegate implements JavaDelegate {
 
+    private final RoteadorNotificacoesPrestador roteadorNotificacoes;
+    private final GeradorIds geradorIds;
+
     @Override
     public void execute(DelegateExecution execution) throws Exception {
         log.info("Starting provider notification - Process: {}, Execution: {}",
@@ -60,31 +75,27 @@ public class NotificarPrestadorDelegate implements JavaDelegate {
 
             log.debug("Notifying provider: {}, decision: {}", prestadorId, decisao);
 
-            // Get provider contact information
-            Map<String, String> providerContact = getProviderContactInfo(prestadorId);
-
-            // Prepare notification message
-            Map<String, Object> notificationMessage = prepareProviderNotification(
-                    decisao, codigoAutorizacao, justificativa, execution);
-
-            // Determine best notification channel
-            String channel = determineNotificationChannel(providerContact);
-
-            // Send notification
-            String protocoloNotificacao = sendProviderNotification(
-                    prestadorId, notificationMessage, channel);
+            // Per-authorization protocol, kept whichever digest carries it
+            String protocoloNotificacao = "PROV-" + geradorIds.proximoIdTexto();
+            LocalDateTime timestamp = LocalDateTime.now();
+            NotificacaoDecisao notificacao = new NotificacaoDecisao(protocoloNotificacao, prestadorId,
+                    decisao, codigoAutorizacao, justificativa,
+                    execution.getVariable("solicitacaoId"),
+                    execution.getVariable("beneficiarioId"),
+                    execution.getVariable("procedimento"),
+                    timestamp);
 
-            // Track notification
-            trackNotificationDelivery(prestadorId, protocoloNotificacao, channel);
+            // Route to the provider's owning instance, which buffers its digest (denials go out now)
+            CanalNotificacao channel = roteadorNotificacoes.publicar(notificacao);
 
             // Set output variables
-            LocalDateTime timestamp = LocalDateTime.now();
-            execution.setVariable("notificacaoPrestadorEnviada", true);
-            execution.setVariable("canalNotificacao", channel);
+            execution.setVariable("notificacaoPrestadorEnviada", false);
+            execution.setVariable("notificacaoPrestadorAgrupada", true);
+            execution.setVariable("canalNotificacao", channel.name());
             execution.setVariable("timestampNotificacao", timestamp);
             execution.setVariable("protocoloNotificacao", protocoloNotificacao);
 
-            log.info("Successfully notified provider: {}, protocol: {}, channel: {}",
+            log.info("Provider notification routed: provider: {}, protocol: {}, channel: {}",
                     prestadorId, protocoloNotificacao, channel);
 
         } catch (Exception e) {
@@ -98,109 +109,4 @@ public class NotificarPrestadorDelegate implements JavaDelegate {
             throw new RuntimeException("Error in NotificarPrestadorDelegate", e);
         }
     }
-
-    /**
-     * Retrieves provider contact information.
-     */
-    private Map<String, String> getProviderContactInfo(String prestadorId) {
-        // Production implementation would query provider database
-        Map<String, String> contact = new HashMap<>();
-        contact.put("email", "provider@healthcare.com");
-        contact.put("phone", "+55 11 98765-4321");
-        contact.put("portal", "https://portal.provider.com");
-        contact.put("preferredChannel", "PORTAL");
-
-        return contact;
-    }
-
-    /**
-     * Prepares comprehensive notification message for provider.
-     */
-    private Map<String, Object> prepareProviderNotification(String decisao,
-                                                            String codigoAutorizacao,
-                                                            String justificativa,
-                                                            DelegateExecution execution) {
-        Map<String, Object> notification = new HashMap<>();
-
-        // Decision information
-        notification.put("decisao", decisao);
-        notification.put("justificativa", justificativa);
-        notification.put("dataDecisao", LocalDateTime.now());
-
-        // Authorization details if approved
-        if ("APROVADA".equals(decisao) && codigoAutorizacao != null) {
-            notification.put("codigoAutorizacao", codigoAutorizacao);
-            notification.put("validade", LocalDateTime.now().plusDays(30));
-            notification.put("instrucoes", "Proceder com o procedimento conforme solicitado");
-        } else if ("NEGADA".equals(decisao)) {
-            notification.put("motivoNegacao", justificativa);
-            notification.put("recursoPossivel", true);
-            notification.put("prazoRecurso", "30 dias");
-        }
-
-        // Request information
-        notification.put("solicitacaoId", execution.getVariable("solicitacaoId"));
-        notification.put("beneficiarioId", execution.getVariable("beneficiarioId"));
-        notification.put("procedimento", execution.getVariable("procedimento"));
-
-        // Next steps
-        if ("APROVADA".equals(decisao)) {
-            notification.put("proximosPassos",
-                "1. Executar procedimento\n2. Registrar atendimento\n3. Enviar faturamento");
-        } else {
-            notification.put("proximosPassos",
-                "1. Revisar justificativa\n2. Considerar recurso\n3. Contatar operadora se necessário");
-        }
-
-        return notification;
-    }
-
-    /**
-     * Determines best notification channel based on provider preferences.
-     */
-    private String determineNotificationChannel(Map<String, String> contact) {
-        String preferred = contact.get("preferredChannel");
-
-        if ("PORTAL".equals(preferred)) {
-            return "PORTAL";
-        } else if (contact.containsKey("email")) {
-            return "EMAIL";
-        } else if (contact.containsKey("phone")) {
-            return "SMS";
-        }
-
-        return "PORTAL"; // Default fallback
-    }
-
-    /**
-     * Sends notification to provider through selected channel.
-     */
-    private String sendProviderNotification(String prestadorId,
-                                           Map<String, Object> message,
-                                           String channel) {
-        // Production implementation would:
-        // 1. Format message for channel
-        // 2. Send through notification service
-        // 3. Handle delivery failures
-        // 4. Return protocol number
-
-        String protocol = "PROV-" + System.currentTimeMillis();
-        log.debug("Sent notification via {} to provider: {}, protocol: {}",
-                channel, prestadorId, protocol);
-
-        return protocol;
-    }
-
-    /**
-     * Tracks notification delivery for audit trail.
-     */
-    private void trackNotificationDelivery(String prestadorId, String protocol, String channel) {
-        // Production implementation would:
-        // 1. Log to notification_history table
-        // 2. Track delivery status
-        // 3. Enable acknowledgment tracking
-        // 4. Support notification resend if needed
-
-        log.debug("Tracked notification delivery: provider={}, protocol={}", prestadorId, protocol);
-    }
 }
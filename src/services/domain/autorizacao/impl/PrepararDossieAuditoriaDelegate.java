@@ -1,5 +1,8 @@
 package br.com.austa.experiencia.service.domain.autorizacao.impl;
 
+import br.com.austa.experiencia.service.blobs.DossiesAuditoria;
+import br.com.austa.experiencia.service.blobs.ReferenciaConteudo;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.JavaDelegate;
@@ -22,6 +25,8 @@ import java.util.Map;
  *   <li>Gathers clinical evidence and justifications</li>
  *   <li>Includes regulatory compliance documentation</li>
  *   <li>Prepares complete audit trail for review</li>
+ *   <li>Archives dossier and evidence in the content store; once the store is shared by every
+ *       node ({@code blobs.compartilhado}) the process keeps only the hash</li>
  * </ul>
  *
  * <p>Input Variables:</p>
@@ -34,7 +39,9 @@ import java.util.Map;
  *
  * <p>Output Variables:</p>
  * <ul>
- *   <li><b>dossieAuditoria</b> (Map): Complete audit dossier</li>
+ *   <li><b>dossieAuditoria</b> (Map): Dossier reference (hash, tamanho); download as ZIP
+ *       from /api/v1/auditoria/dossies/{hash}.zip</li>
+ *   <li><b>dossieAuditoriaHash</b> (String): SHA-256 of the dossier</li>
  *   <li><b>documentosAnexados</b> (List): Attached documents</li>
  *   <li><b>dossieTimestamp</b> (LocalDateTime): Dossier creation timestamp</li>
  *   <li><b>auditoriaCompleta</b> (Boolean): Completeness flag</li>
@@ -46,8 +53,11 @@ import java.util.Map;
  */
 @Slf4j
 @Component("prepararDossieAuditoriaDelegate")
+@RequiredArgsConstructor
 public class PrepararDossieAuditoriaDelegate implements JavaDelegate {
 
+    private final DossiesAuditoria dossiesAuditoria;
+
     @Override
     public void execute(DelegateExecution execution) throws Exception {
         log.info("Starting audit dossier preparation - Process: {}, Execution: {}",
@@ -74,19 +84,28 @@ public class PrepararDossieAuditoriaDelegate implements JavaDelegate {
 
             // Collect all supporting documents
             List<String> documentos = collectSupportingDocuments(solicitacaoId, execution);
+            dossier.put("documentos", documentos);
 
             // Validate dossier completeness
             boolean isComplete = validateDossierCompleteness(dossier, documentos);
 
+            // Archive dossier and evidence off-engine; the process keeps the hash only
+            // when every node can read the archive back
+            ReferenciaConteudo referencia = dossiesAuditoria.arquivar(dossier, evidenciasClinicas);
+            if (dossiesAuditoria.isCompartilhado()) {
+                execution.removeVariable("evidenciasClinicas");
+            }
+
             // Set output variables
             LocalDateTime timestamp = LocalDateTime.now();
-            execution.setVariable("dossieAuditoria", dossier);
+            execution.setVariable("dossieAuditoria", referencia.toMap());
+            execution.setVariable("dossieAuditoriaHash", referencia.getHash());
             execution.setVariable("documentosAnexados", documentos);
             execution.setVariable("dossieTimestamp", timestamp);
             execution.setVariable("auditoriaCompleta", isComplete);
 
-            log.info("Successfully prepared audit dossier - Request: {}, Documents: {}, Complete: {}",
-                    solicitacaoId, documentos.size(), isComplete);
+            log.info("Successfully prepared audit dossier - Request: {}, Documents: {}, Complete: {}, Dossier: {}",
+                    solicitacaoId, documentos.size(), isComplete, referencia);
 
         } catch (Exception e) {
             log.error("Error preparing audit dossier - Process: {}, Error: {}",
@@ -120,8 +139,7 @@ public class PrepararDossieAuditoriaDelegate implements JavaDelegate {
         dossier.put("executionId", execution.getId());
         dossier.put("processDefinitionId", execution.getProcessDefinitionId());
 
-        // Clinical evidence
-        dossier.put("evidenciasClinicas", evidencias);
+        // Clinical evidence (archived as separate files, see DossiesAuditoria)
         dossier.put("numeroEvidencias", evidencias.size());
 
         // Authorization details
@@ -183,7 +201,7 @@ public class PrepararDossieAuditoriaDelegate implements JavaDelegate {
         boolean hasRequiredFields = dossier.containsKey("solicitacaoId") &&
                                    dossier.containsKey("decisao") &&
                                    dossier.containsKey("justificativa") &&
-                                   dossier.containsKey("evidenciasClinicas");
+                                   dossier.containsKey("numeroEvidencias");
 
         // Check minimum documents
         boolean hasMinimumDocs = documentos.size() >= 4;
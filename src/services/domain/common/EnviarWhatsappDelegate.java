@@ -1,6 +1,7 @@
 package br.com.austa.experiencia.service.common;
 
 import br.com.austa.experiencia.service.integration.WhatsAppService;
+import br.com.austa.experiencia.service.whatsapp.PrioridadeMensagem;
 import br.com.austa.experiencia.exception.IntegrationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,13 +23,18 @@ import java.util.Map;
  * - templateId (String, opcional): ID do template WhatsApp aprovado
  * - parametrosTemplate (Map, opcional): Parâmetros para preenchimento do template
  * - anexos (List<String>, opcional): URLs de arquivos anexados
+ * - prioridadeWhatsapp (String, opcional): ALERTA_CLINICO, TRANSACIONAL (padrão), ENGAJAMENTO ou PESQUISA
  *
  * Variáveis de saída:
- * - whatsappEnviado (Boolean): Flag de sucesso do envio
- * - messageId (String): ID da mensagem enviada
- * - timestampEnvio (LocalDateTime): Timestamp do envio
+ * - whatsappEnviado (Boolean): Mensagem aceita pelo dispatcher e gravada no changelog
+ *   local (whatsapp.fila.path); o envio é assíncrono e sobrevive a um reinício
+ * - messageId (String): ID de despacho da mensagem
+ * - timestampEnvio (LocalDateTime): Timestamp do enfileiramento
  * - erroEnvio (String): Mensagem de erro em caso de falha
  *
+ * O status de entrega chega depois pela mensagem Msg_WhatsAppStatus
+ * (variáveis whatsappStatus, whatsappEntregue), para processos que a aguardam.
+ *
  * @author AI Agent
  * @version 1.0
  * @since 2025-12-11
@@ -50,6 +56,8 @@ public class EnviarWhatsappDelegate implements JavaDelegate {
             String telefone = (String) execution.getVariable("telefone");
             String mensagem = (String) execution.getVariable("mensagem");
             String templateId = (String) execution.getVariable("templateId");
+            PrioridadeMensagem prioridade = PrioridadeMensagem.de(
+                execution.getVariable("prioridadeWhatsapp"), PrioridadeMensagem.TRANSACIONAL);
 
             @SuppressWarnings("unchecked")
             Map<String, Object> parametrosTemplate =
@@ -58,14 +66,16 @@ public class EnviarWhatsappDelegate implements JavaDelegate {
             // 2. Validar dados obrigatórios
             validateInputs(telefone, mensagem, templateId);
 
-            // 3. Enviar mensagem (com ou sem template)
+            // 3. Enfileirar mensagem (com ou sem template)
             String messageId;
             if (templateId != null && !templateId.isBlank()) {
-                messageId = whatsAppService.enviarComTemplate(telefone, templateId, parametrosTemplate);
-                log.debug("Mensagem enviada usando template: {}", templateId);
+                messageId = whatsAppService.enviarComTemplate(telefone, templateId, parametrosTemplate,
+                    prioridade, execution.getProcessInstanceId());
+                log.debug("Mensagem enfileirada usando template: {}", templateId);
             } else {
-                messageId = whatsAppService.enviarMensagem(telefone, mensagem);
-                log.debug("Mensagem de texto livre enviada");
+                messageId = whatsAppService.enviarMensagem(telefone, mensagem,
+                    prioridade, execution.getProcessInstanceId());
+                log.debug("Mensagem de texto livre enfileirada");
             }
 
             // 4. Definir variáveis de saída
@@ -73,7 +83,7 @@ public class EnviarWhatsappDelegate implements JavaDelegate {
             execution.setVariable("messageId", messageId);
             execution.setVariable("timestampEnvio", java.time.LocalDateTime.now());
 
-            log.info("Mensagem WhatsApp enviada com sucesso - MessageId: {}, Telefone: {}",
+            log.info("Mensagem WhatsApp enfileirada com sucesso - MessageId: {}, Telefone: {}",
                      messageId, maskPhone(telefone));
 
         } catch (IntegrationException e) {
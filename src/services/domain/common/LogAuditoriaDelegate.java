@@ -1,15 +1,17 @@
-package com.experiencia.services.domain.common;
+package br.com.austa.experiencia.service.common;
 
-import com.experiencia.models.LogAuditoria;
-import com.experiencia.repositories.LogAuditoriaRepository;
+import br.com.austa.experiencia.service.auditoria.JournalAuditoria;
 import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.JavaDelegate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Delegate: Log de Auditoria
@@ -19,40 +21,46 @@ import java.util.Map;
  * - Capturar contexto completo (variáveis, usuário, timestamps)
  * - Permitir rastreabilidade e compliance
  * - Facilitar debugging e análise de processos
+ *
+ * Os registros vão para o {@link JournalAuditoria} (append-only, encadeado por
+ * hash); a atividade espera apenas o commit em grupo do journal, sem insert
+ * no banco dentro da transação do passo.
  */
 @Component("logAuditoriaDelegate")
 public class LogAuditoriaDelegate implements JavaDelegate {
 
     @Autowired
-    private LogAuditoriaRepository logAuditoriaRepository;
+    private JournalAuditoria journalAuditoria;
+
+    @Value("${auditoria.journal.espera-commit-ms:10000}")
+    private long esperaCommitMs;
 
     @Override
     public void execute(DelegateExecution execution) throws Exception {
-        LogAuditoria log = new LogAuditoria();
+        Map<String, Object> log = new LinkedHashMap<>();
 
         // Dados do processo
-        log.setProcessInstanceId(execution.getProcessInstanceId());
-        log.setProcessDefinitionId(execution.getProcessDefinitionId());
-        log.setActivityId(execution.getCurrentActivityId());
-        log.setActivityName(execution.getCurrentActivityName());
+        log.put("processDefinitionId", execution.getProcessDefinitionId());
+        log.put("activityName", execution.getCurrentActivityName());
 
         // Timestamp
-        log.setDataEvento(LocalDateTime.now());
+        log.put("dataEvento", LocalDateTime.now().toString());
 
         // Tipo de evento (configurável via variável)
         String tipoEvento = (String) execution.getVariable("tipoEvento");
-        log.setTipoEvento(tipoEvento != null ? tipoEvento : "EXECUCAO_ATIVIDADE");
+        log.put("tipoEvento", tipoEvento != null ? tipoEvento : "EXECUCAO_ATIVIDADE");
 
         // Capturar variáveis relevantes
         Map<String, Object> variaveis = capturarVariaveisRelevantes(execution);
-        log.setVariaveis(variaveis);
+        log.put("variaveis", variaveis);
 
         // Usuário (se disponível)
         String usuario = (String) execution.getVariable("usuario");
-        log.setUsuario(usuario);
+        log.put("usuario", usuario);
 
-        // Salvar log
-        logAuditoriaRepository.save(log);
+        // Registrar no journal e aguardar o commit em grupo
+        journalAuditoria.registrar(execution.getProcessInstanceId(), execution.getCurrentActivityId(), log)
+            .get(esperaCommitMs, TimeUnit.MILLISECONDS);
     }
 
     private Map<String, Object> capturarVariaveisRelevantes(DelegateExecution execution) {
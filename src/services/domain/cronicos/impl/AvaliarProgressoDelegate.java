@@ -1,10 +1,14 @@
 package br.com.austa.experiencia.service.domain.cronicos.impl;
 
+import br.com.austa.experiencia.service.timeseries.HistoricoSaudeService;
+import br.com.austa.experiencia.service.timeseries.Marcador;
 import lombok.extern.slf4j.Slf4j;
 import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.JavaDelegate;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -13,6 +17,9 @@ import java.util.*;
  *
  * <p>SUB-008 Gestão Crônicos - Progress Assessment</p>
  *
+ * <p>Goals backed by a health marker are also assessed against the stored
+ * marker history over {@link #JANELA_PROGRESSO}.</p>
+ *
  * @author Digital Experience Team
  * @version 1.0
  * @since 2025-12-11
@@ -21,6 +28,12 @@ import java.util.*;
 @Component("avaliarProgressoDelegate")
 public class AvaliarProgressoDelegate implements JavaDelegate {
 
+    static final Duration JANELA_PROGRESSO = Duration.ofDays(180);
+    static final Duration JANELA_VALOR_ATUAL = Duration.ofDays(30);
+
+    @Autowired
+    private HistoricoSaudeService historicoSaudeService;
+
     @Override
     public void execute(DelegateExecution execution) throws Exception {
         log.info("Assessing program progress - Process: {}", execution.getProcessInstanceId());
@@ -36,7 +49,7 @@ public class AvaliarProgressoDelegate implements JavaDelegate {
             Map<String, Object> marcadores = (Map<String, Object>) execution.getVariable("marcadoresColetados");
 
             // Assess goal achievement
-            Map<String, Object> goalProgress = assessGoalAchievement(metas, marcadores);
+            Map<String, Object> goalProgress = assessGoalAchievement(beneficiarioId, metas, marcadores);
 
             // Calculate overall progress score
             double progressScore = calculateOverallProgress(goalProgress);
@@ -70,17 +83,28 @@ public class AvaliarProgressoDelegate implements JavaDelegate {
         }
     }
 
-    private Map<String, Object> assessGoalAchievement(List<Map<String, Object>> metas,
+    private Map<String, Object> assessGoalAchievement(String beneficiarioId, List<Map<String, Object>> metas,
                                                       Map<String, Object> marcadores) {
         Map<String, Object> progress = new HashMap<>();
         int metasAlcancadas = 0;
+        int metasPiorando = 0;
+        LocalDateTime agora = LocalDateTime.now();
 
         for (Map<String, Object> meta : metas) {
             String metaId = (String) meta.get("id");
             Double valorAlvo = (Double) meta.get("valorAlvo");
+            Marcador marcador = Marcador.porMetaId(metaId);
 
             // Check if marker exists and goal is achieved
             Object valorAtual = marcadores.get(metaId);
+            Map<String, Object> historico = null;
+            if (marcador != null) {
+                historico = historicoSaudeService.resumo(beneficiarioId, marcador, agora, JANELA_VALOR_ATUAL);
+                if (valorAtual == null && historico.containsKey("media")) {
+                    // Not in this collection: use the recent mean from history
+                    valorAtual = historico.get("media");
+                }
+            }
             if (valorAtual != null) {
                 boolean achieved = isGoalAchieved(valorAtual, valorAlvo, metaId);
                 if (achieved) {
@@ -93,12 +117,23 @@ public class AvaliarProgressoDelegate implements JavaDelegate {
                 metaProgress.put("alcancada", achieved);
                 metaProgress.put("percentualAlcancado", calculateGoalPercentage(valorAtual, valorAlvo));
 
+                if (marcador != null) {
+                    String tendencia = historicoSaudeService.tendencia(
+                            beneficiarioId, marcador, agora, JANELA_PROGRESSO);
+                    metaProgress.put("tendencia", tendencia);
+                    metaProgress.put("historicoRecente", historico);
+                    if ("WORSENING".equals(tendencia)) {
+                        metasPiorando++;
+                    }
+                }
+
                 progress.put(metaId, metaProgress);
             }
         }
 
         progress.put("totalMetas", metas.size());
         progress.put("metasAlcancadas", metasAlcancadas);
+        progress.put("metasPiorando", metasPiorando);
         progress.put("taxaAlcance", (metasAlcancadas * 100.0) / metas.size());
 
         return progress;
@@ -148,6 +183,10 @@ public class AvaliarProgressoDelegate implements JavaDelegate {
             interventions.add("INTENSIVE_CASE_MANAGEMENT");
         }
 
+        if ((Integer) goalProgress.getOrDefault("metasPiorando", 0) > 0) {
+            interventions.add("REVIEW_TREATMENT_PLAN");
+        }
+
         return interventions;
     }
 
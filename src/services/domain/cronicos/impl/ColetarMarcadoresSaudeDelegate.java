@@ -1,10 +1,15 @@
 package br.com.austa.experiencia.service.domain.cronicos.impl;
 
+import br.com.austa.experiencia.service.anomalia.LimitesClinicos;
+import br.com.austa.experiencia.service.timeseries.HistoricoSaudeService;
+import br.com.austa.experiencia.service.timeseries.Marcador;
 import lombok.extern.slf4j.Slf4j;
 import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.JavaDelegate;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -13,6 +18,12 @@ import java.util.*;
  *
  * <p>SUB-008 Gestão Crônicos - Health Marker Collection</p>
  *
+ * <p>Each collection is appended to the compressed marker history once this
+ * step commits; trends are computed against the history so far over
+ * {@link #JANELA_TENDENCIA}. Continuous
+ * device streams are watched by DetectorAnomalias between collections; here
+ * the same condition-specific critical ranges are applied to the snapshot.</p>
+ *
  * @author Digital Experience Team
  * @version 1.0
  * @since 2025-12-11
@@ -21,6 +32,11 @@ import java.util.*;
 @Component("coletarMarcadoresSaudeDelegate")
 public class ColetarMarcadoresSaudeDelegate implements JavaDelegate {
 
+    static final Duration JANELA_TENDENCIA = Duration.ofDays(90);
+
+    @Autowired
+    private HistoricoSaudeService historicoSaudeService;
+
     @Override
     public void execute(DelegateExecution execution) throws Exception {
         log.info("Collecting health markers - Process: {}", execution.getProcessInstanceId());
@@ -47,8 +63,14 @@ public class ColetarMarcadoresSaudeDelegate implements JavaDelegate {
             // Validate collected data
             boolean dataValid = validateHealthMarkers(markers, condicaoCronica);
 
+            // Append to marker history
+            LocalDateTime agora = LocalDateTime.now();
+            if (dataValid) {
+                historicoSaudeService.registrarColeta(beneficiarioId, markers, agora);
+            }
+
             // Analyze trends
-            Map<String, String> trends = analyzeTrends(beneficiarioId, markers);
+            Map<String, String> trends = analyzeTrends(beneficiarioId, agora);
 
             // Detect anomalies
             List<String> alerts = detectAnomalies(markers, condicaoCronica);
@@ -58,7 +80,7 @@ public class ColetarMarcadoresSaudeDelegate implements JavaDelegate {
             execution.setVariable("dataColetaValida", dataValid);
             execution.setVariable("tendencias", trends);
             execution.setVariable("alertas", alerts);
-            execution.setVariable("timestampColeta", LocalDateTime.now());
+            execution.setVariable("timestampColeta", agora);
 
             log.info("Collected {} health markers for beneficiary {}, alerts: {}",
                     markers.size(), beneficiarioId, alerts.size());
@@ -105,12 +127,20 @@ public class ColetarMarcadoresSaudeDelegate implements JavaDelegate {
         return markers.size() >= 5; // Minimum required markers
     }
 
-    private Map<String, String> analyzeTrends(String beneficiarioId, Map<String, Object> currentMarkers) {
-        // Compare with historical data to identify trends
+    private Map<String, String> analyzeTrends(String beneficiarioId, LocalDateTime agora) {
+        // Compare the last window against the one before it, from stored history
         Map<String, String> trends = new HashMap<>();
-        trends.put("hbA1c", "IMPROVING");
-        trends.put("peso", "STABLE");
-        trends.put("pressaoArterial", "IMPROVING");
+        trends.put("hbA1c", historicoSaudeService.tendencia(beneficiarioId, Marcador.HBA1C, agora, JANELA_TENDENCIA));
+        trends.put("peso", historicoSaudeService.tendencia(beneficiarioId, Marcador.PESO, agora, JANELA_TENDENCIA));
+        trends.put("pressaoArterial",
+                historicoSaudeService.tendencia(beneficiarioId, Marcador.PA_SISTOLICA, agora, JANELA_TENDENCIA));
+
+        for (Marcador marcador : List.of(Marcador.GLICEMIA_JEJUM, Marcador.GLICOSE_CGM)) {
+            String tendencia = historicoSaudeService.tendencia(beneficiarioId, marcador, agora, JANELA_TENDENCIA);
+            if (!"INSUFFICIENT_DATA".equals(tendencia)) {
+                trends.put(marcador.getChave(), tendencia);
+            }
+        }
         return trends;
     }
 
@@ -118,13 +148,32 @@ public class ColetarMarcadoresSaudeDelegate implements JavaDelegate {
         List<String> alerts = new ArrayList<>();
 
         // Check for out-of-range values
-        if (markers.containsKey("hbA1c")) {
-            Double hbA1c = (Double) markers.get("hbA1c");
-            if (hbA1c > 9.0) {
-                alerts.add("HbA1c critically high: " + hbA1c);
+        for (Map.Entry<String, Object> entry : markers.entrySet()) {
+            if ("pressaoArterial".equals(entry.getKey()) && entry.getValue() instanceof String) {
+                String[] pa = ((String) entry.getValue()).split("/");
+                if (pa.length == 2) {
+                    checkCriticalRange(alerts, Marcador.PA_SISTOLICA, pa[0], condicao);
+                    checkCriticalRange(alerts, Marcador.PA_DIASTOLICA, pa[1], condicao);
+                }
+                continue;
+            }
+            Marcador marcador = Marcador.porChave(entry.getKey());
+            if (marcador != null && entry.getValue() instanceof Number) {
+                checkCriticalRange(alerts, marcador, entry.getValue().toString(), condicao);
             }
         }
 
         return alerts;
     }
+
+    private void checkCriticalRange(List<String> alerts, Marcador marcador, String valor, String condicao) {
+        try {
+            double value = Double.parseDouble(valor.trim());
+            if (LimitesClinicos.para(condicao, marcador).foraDaFaixa(value)) {
+                alerts.add(marcador.getChave() + " out of critical range: " + value);
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Invalid {} value: {}", marcador, valor);
+        }
+    }
 }
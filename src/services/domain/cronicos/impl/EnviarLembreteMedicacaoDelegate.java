@@ -1,12 +1,18 @@
 package br.com.austa.experiencia.service.domain.cronicos.impl;
 
+import br.com.austa.experiencia.service.lembretes.LembreteMedicacaoScheduler;
+import br.com.austa.experiencia.service.lembretes.MedicamentoAgendado;
+import br.com.austa.experiencia.service.lembretes.RoteadorAgendaLembretes;
 import lombok.extern.slf4j.Slf4j;
 import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.JavaDelegate;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneId;
 import java.util.*;
 
 /**
@@ -14,6 +20,12 @@ import java.util.*;
  *
  * <p>SUB-008 Gestão Crônicos - Medication Reminders</p>
  *
+ * <p>Reminders are not sent from here: the beneficiary's medication schedule
+ * is published through {@link RoteadorAgendaLembretes} to the instance that
+ * owns the beneficiary, whose {@link LembreteMedicacaoScheduler} fires every
+ * dose from its timing wheel, so no BPMN timer is needed per dose. Running
+ * this again only applies schedule changes.</p>
+ *
  * @author Digital Experience Team
  * @version 1.0
  * @since 2025-12-11
@@ -22,9 +34,15 @@ import java.util.*;
 @Component("enviarLembreteMedicacaoDelegate")
 public class EnviarLembreteMedicacaoDelegate implements JavaDelegate {
 
+    @Autowired
+    private LembreteMedicacaoScheduler lembreteMedicacaoScheduler;
+
+    @Autowired
+    private RoteadorAgendaLembretes roteadorAgendaLembretes;
+
     @Override
     public void execute(DelegateExecution execution) throws Exception {
-        log.info("Sending medication reminders - Process: {}", execution.getProcessInstanceId());
+        log.info("Scheduling medication reminders - Process: {}", execution.getProcessInstanceId());
 
         try {
             String beneficiarioId = (String) execution.getVariable("beneficiarioId");
@@ -32,30 +50,28 @@ public class EnviarLembreteMedicacaoDelegate implements JavaDelegate {
             // Get medication schedule
             List<Map<String, Object>> medicamentos = getMedicationSchedule(beneficiarioId);
 
-            // Get current time and determine which reminders to send
-            LocalTime now = LocalTime.now();
-            List<Map<String, Object>> dueMedications = filterDueMedications(medicamentos, now);
-
-            int remindersSent = 0;
-            for (Map<String, Object> med : dueMedications) {
-                boolean sent = sendReminder(beneficiarioId, med);
-                if (sent) {
-                    remindersSent++;
-                    logMedicationReminder(beneficiarioId, med);
-                }
+            List<MedicamentoAgendado> agenda = new ArrayList<>();
+            for (Map<String, Object> med : medicamentos) {
+                agenda.add(new MedicamentoAgendado((String) med.get("nome"), (String) med.get("dose"),
+                    (String) med.get("instrucoes"), (LocalTime) med.get("horario")));
             }
 
+            roteadorAgendaLembretes.publicar(beneficiarioId, agenda);
+            int agendados = agenda.size();
+            Optional<Instant> proximo = lembreteMedicacaoScheduler.proximoLembrete(agenda);
+
             // Set output variables
-            execution.setVariable("lembretesEnviados", remindersSent);
+            execution.setVariable("lembretesAgendados", agendados);
             execution.setVariable("timestampLembrete", LocalDateTime.now());
-            execution.setVariable("medicamentosDevidos", dueMedications.size());
+            execution.setVariable("proximoLembrete",
+                proximo.map(p -> LocalDateTime.ofInstant(p, ZoneId.systemDefault())).orElse(null));
 
-            log.info("Sent {} medication reminders to beneficiary {}", remindersSent, beneficiarioId);
+            log.info("Scheduled {} daily medication reminders for beneficiary {}", agendados, beneficiarioId);
 
         } catch (Exception e) {
-            log.error("Error sending medication reminders: {}", e.getMessage(), e);
-            execution.setVariable("errorMessage", "Failed to send reminders: " + e.getMessage());
-            execution.setVariable("lembretesEnviados", 0);
+            log.error("Error scheduling medication reminders: {}", e.getMessage(), e);
+            execution.setVariable("errorMessage", "Failed to schedule reminders: " + e.getMessage());
+            execution.setVariable("lembretesAgendados", 0);
             throw new RuntimeException("Error in EnviarLembreteMedicacaoDelegate", e);
         }
     }
@@ -79,32 +95,4 @@ public class EnviarLembreteMedicacaoDelegate implements JavaDelegate {
         med.put("instrucoes", instrucoes);
         return med;
     }
-
-    private List<Map<String, Object>> filterDueMedications(List<Map<String, Object>> meds, LocalTime now) {
-        List<Map<String, Object>> due = new ArrayList<>();
-
-        for (Map<String, Object> med : meds) {
-            LocalTime scheduledTime = (LocalTime) med.get("horario");
-
-            // Send reminder 30 minutes before scheduled time
-            if (now.isAfter(scheduledTime.minusMinutes(30)) && now.isBefore(scheduledTime)) {
-                due.add(med);
-            }
-        }
-
-        return due;
-    }
-
-    private boolean sendReminder(String beneficiarioId, Map<String, Object> medication) {
-        // Production: Send push notification, SMS, or in-app reminder
-        log.debug("Sending reminder to {}: {} - {}",
-                beneficiarioId, medication.get("nome"), medication.get("dose"));
-        return true; // Simulated success
-    }
-
-    private void logMedicationReminder(String beneficiarioId, Map<String, Object> medication) {
-        // Production: Log to medication_adherence_log table
-        log.debug("Logged reminder for beneficiary: {}, medication: {}",
-                beneficiarioId, medication.get("nome"));
-    }
 }
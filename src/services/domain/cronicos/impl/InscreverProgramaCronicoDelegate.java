@@ -1,5 +1,7 @@
 package br.com.austa.experiencia.service.domain.cronicos.impl;
 
+import br.com.austa.experiencia.service.ids.GeradorIds;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.JavaDelegate;
@@ -8,7 +10,6 @@ import org.springframework.stereotype.Component;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 /**
  * Delegate responsible for enrolling beneficiary in chronic disease management program.
@@ -29,8 +30,11 @@ import java.util.UUID;
  */
 @Slf4j
 @Component("inscreverProgramaCronicoDelegate")
+@RequiredArgsConstructor
 public class InscreverProgramaCronicoDelegate implements JavaDelegate {
 
+    private final GeradorIds geradorIds;
+
     @Override
     public void execute(DelegateExecution execution) throws Exception {
         log.info("Starting chronic program enrollment - Process: {}", execution.getProcessInstanceId());
@@ -49,7 +53,7 @@ public class InscreverProgramaCronicoDelegate implements JavaDelegate {
             }
 
             // Create enrollment record
-            String inscricaoId = UUID.randomUUID().toString();
+            String inscricaoId = geradorIds.proximoIdTexto();
             Map<String, Object> enrollmentData = createEnrollmentRecord(
                     inscricaoId, beneficiarioId, programaId, condicaoCronica);
 
@@ -7,14 +7,18 @@ import com.experiencia.models.DadosTreinamento;
 import com.experiencia.repositories.ClienteRepository;
 import com.experiencia.repositories.RespostaNpsRepository;
 import com.experiencia.repositories.DadosTreinamentoRepository;
+import br.com.austa.experiencia.service.featurestore.FeatureStore;
+import br.com.austa.experiencia.service.featurestore.FeatureVector;
 import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.JavaDelegate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Delegate: Atualizar Modelos Preditivos
@@ -29,6 +33,11 @@ import java.util.Map;
  *   * LTV (valor vitalício)
  * - Identificar padrões e anomalias
  * - Atualizar segmentação dinâmica
+ *
+ * Features agregadas (NPS, jornadas, autorizações) vêm do FeatureStore,
+ * mantido incrementalmente por eventos Kafka e chaveado pelo beneficiarioId
+ * do processo (não pelo clienteId); a versão lida é gravada no
+ * registro de treinamento para que treino e serving usem os mesmos valores.
  */
 @Component("atualizarModelosPreditivosDelegate")
 public class AtualizarModelosPreditivosDelegate implements JavaDelegate {
@@ -45,6 +54,9 @@ public class AtualizarModelosPreditivosDelegate implements JavaDelegate {
     @Autowired
     private MlClient mlClient;
 
+    @Autowired
+    private FeatureStore featureStore;
+
     @Override
     public void execute(DelegateExecution execution) throws Exception {
         Long clienteId = (Long) execution.getVariable("clienteId");
@@ -57,8 +69,11 @@ public class AtualizarModelosPreditivosDelegate implements JavaDelegate {
         RespostaNps resposta = respostaNpsRepository.findById(respostaId)
             .orElseThrow(() -> new RuntimeException("Resposta NPS não encontrada: " + respostaId));
 
-        // 2. Extrair features para ML
-        Map<String, Object> features = extrairFeatures(cliente, resposta);
+        // 2. Extrair features para ML (vetor versionado do feature store)
+        String beneficiarioId = (String) execution.getVariable("beneficiarioId");
+        Optional<FeatureVector> vetor = beneficiarioId != null && featureStore.isReplicado()
+            ? featureStore.buscar(beneficiarioId) : Optional.empty();
+        Map<String, Object> features = extrairFeatures(cliente, resposta, vetor);
 
         // 3. Criar registro de treinamento
         DadosTreinamento dadosTreino = criarDadosTreinamento(cliente, resposta, features);
@@ -100,9 +115,11 @@ public class AtualizarModelosPreditivosDelegate implements JavaDelegate {
         execution.setVariable("npsPrevistoProximo", npsPrevistoProximo);
         execution.setVariable("anomaliaDetectada", anomaliaDetectada);
         execution.setVariable("modelosAtualizados", true);
+        execution.setVariable("featureVersao", features.get("featureVersao"));
     }
 
-    private Map<String, Object> extrairFeatures(Cliente cliente, RespostaNps resposta) {
+    private Map<String, Object> extrairFeatures(Cliente cliente, RespostaNps resposta,
+                                                Optional<FeatureVector> vetor) {
         Map<String, Object> features = new HashMap<>();
 
         // Features demográficas
@@ -139,6 +156,22 @@ public class AtualizarModelosPreditivosDelegate implements JavaDelegate {
             features.put("topicos", resposta.getTopicos());
         }
 
+        // Agregados do feature store prevalecem sobre o estado da entidade
+        vetor.ifPresent(v -> {
+            features.putAll(v.toMap());
+            if (v.getNpsMedio() != null) {
+                features.put("npsMedio", v.getNpsMedio());
+            }
+            if (v.getTendenciaNps() != null) {
+                features.put("tendenciaNps", v.getTendenciaNps());
+            }
+            Integer dias = v.getDiasDesdeUltimaUtilizacao(LocalDate.now());
+            if (dias != null) {
+                features.put("diasDesdeUltimaCompra", dias);
+            }
+            features.put("ticketsAbertos", v.getJornadasNaoResolvidas());
+        });
+
         return features;
     }
 
@@ -178,28 +211,32 @@ public class AtualizarModelosPreditivosDelegate implements JavaDelegate {
 
         } catch (Exception e) {
             // Fallback: calcular score simplificado
-            return calcularChurnScoreSimplificado(cliente);
+            return calcularChurnScoreSimplificado(features);
         }
     }
 
-    private Double calcularChurnScoreSimplificado(Cliente cliente) {
-        // Modelo simplificado baseado em regras
+    private Double calcularChurnScoreSimplificado(Map<String, Object> features) {
+        // Modelo simplificado baseado em regras, sobre as mesmas features do modelo
         double score = 0.0;
 
         // Fatores de risco
-        if (cliente.getNpsMedio() != null && cliente.getNpsMedio() <= 6) {
+        Number npsMedio = (Number) features.get("npsMedio");
+        if (npsMedio != null && npsMedio.doubleValue() <= 6) {
             score += 0.3;
         }
-        if ("PIORANDO".equals(cliente.getTendenciaNps())) {
+        if ("PIORANDO".equals(features.get("tendenciaNps"))) {
             score += 0.2;
         }
-        if (cliente.getDiasDesdeUltimaCompra() > 90) {
+        Number diasDesdeUltimaCompra = (Number) features.get("diasDesdeUltimaCompra");
+        if (diasDesdeUltimaCompra != null && diasDesdeUltimaCompra.intValue() > 90) {
             score += 0.2;
         }
-        if (cliente.getTicketsAbertos() > 2) {
+        Number ticketsAbertos = (Number) features.get("ticketsAbertos");
+        if (ticketsAbertos != null && ticketsAbertos.intValue() > 2) {
             score += 0.15;
         }
-        if (cliente.getTaxaAberturasEmail() < 0.1) {
+        Number taxaAberturasEmail = (Number) features.get("taxaAberturasEmail");
+        if (taxaAberturasEmail != null && taxaAberturasEmail.doubleValue() < 0.1) {
             score += 0.15;
         }
 
@@ -6,12 +6,17 @@ import com.experiencia.models.RespostaNps;
 import com.experiencia.repositories.ClienteRepository;
 import com.experiencia.repositories.InteracaoRepository;
 import com.experiencia.repositories.RespostaNpsRepository;
+import br.com.austa.experiencia.service.featurestore.Feature;
+import br.com.austa.experiencia.service.featurestore.FeatureStore;
+import br.com.austa.experiencia.service.featurestore.FeatureVector;
 import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.JavaDelegate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
 
 /**
  * Delegate: Processar Resposta NPS
@@ -22,10 +27,18 @@ import java.time.LocalDateTime;
  * - Atualizar perfil do cliente
  * - Calcular NPS agregado
  * - Identificar tendências
+ *
+ * Média e tendência saem do vetor do FeatureStore (chaveado pelo
+ * beneficiarioId do processo) como estava antes desta resposta, somado a
+ * ela: o evento nps-feedback da própria resposta pode já ter sido consumido
+ * ou não. As consultas ao repositório ficam para beneficiários ainda sem vetor
+ * e para quando o feature store ainda está repondo os tópicos.
  */
 @Component("processarRespostaNpsDelegate")
 public class ProcessarRespostaNpsDelegate implements JavaDelegate {
 
+    private static final ZoneId FUSO = ZoneId.of("America/Sao_Paulo");
+
     @Autowired
     private RespostaNpsRepository respostaNpsRepository;
 
@@ -35,6 +48,9 @@ public class ProcessarRespostaNpsDelegate implements JavaDelegate {
     @Autowired
     private InteracaoRepository interacaoRepository;
 
+    @Autowired
+    private FeatureStore featureStore;
+
     @Override
     public void execute(DelegateExecution execution) throws Exception {
         Long respostaId = (Long) execution.getVariable("respostaId");
@@ -56,7 +72,7 @@ public class ProcessarRespostaNpsDelegate implements JavaDelegate {
         }
 
         // 5. Atualizar cliente
-        atualizarPerfilCliente(resposta);
+        atualizarPerfilCliente(resposta, (String) execution.getVariable("beneficiarioId"));
 
         // 6. Atualizar interação
         atualizarInteracao(resposta);
@@ -118,7 +134,7 @@ public class ProcessarRespostaNpsDelegate implements JavaDelegate {
         resposta.setProntoParaAnalise(true);
     }
 
-    private void atualizarPerfilCliente(RespostaNps resposta) {
+    private void atualizarPerfilCliente(RespostaNps resposta, String beneficiarioId) {
         Cliente cliente = clienteRepository.findById(resposta.getClienteId())
             .orElseThrow(() -> new RuntimeException("Cliente não encontrado"));
 
@@ -127,16 +143,42 @@ public class ProcessarRespostaNpsDelegate implements JavaDelegate {
         cliente.setUltimaClassificacaoNps(resposta.getClassificacao());
         cliente.setDataUltimoNps(resposta.getDataResposta());
 
-        // Calcular NPS médio histórico
-        Double npsMedia = respostaNpsRepository.calcularMediaPorCliente(cliente.getId());
-        cliente.setNpsMedio(npsMedia);
-
-        // Atualizar tendência
-        calcularTendenciaNps(cliente);
+        Optional<FeatureVector> vetor = beneficiarioId == null || resposta.getDataResposta() == null
+                || !featureStore.isReplicado()
+            ? Optional.empty()
+            : featureStore.buscarAntes(beneficiarioId,
+                resposta.getDataResposta().atZone(FUSO).toInstant().toEpochMilli());
+        if (vetor.isPresent()) {
+            aplicarAgregadosFeatureStore(cliente, vetor.get(), resposta.getScore());
+        } else {
+            // Calcular NPS médio histórico
+            Double npsMedia = respostaNpsRepository.calcularMediaPorCliente(cliente.getId());
+            cliente.setNpsMedio(npsMedia);
+
+            // Atualizar tendência
+            calcularTendenciaNps(cliente);
+        }
 
         clienteRepository.save(cliente);
     }
 
+    private void aplicarAgregadosFeatureStore(Cliente cliente, FeatureVector vetor, int score) {
+        double total = vetor.get(Feature.NPS_TOTAL_RESPOSTAS);
+        double soma = vetor.get(Feature.NPS_SOMA);
+        cliente.setNpsMedio((soma + score) / (total + 1));
+
+        if (total >= 1) {
+            int scoreAnterior = (int) vetor.get(Feature.NPS_ULTIMO);
+            if (score > scoreAnterior) {
+                cliente.setTendenciaNps("MELHORANDO");
+            } else if (score < scoreAnterior) {
+                cliente.setTendenciaNps("PIORANDO");
+            } else {
+                cliente.setTendenciaNps("ESTAVEL");
+            }
+        }
+    }
+
     private void calcularTendenciaNps(Cliente cliente) {
         // Buscar últimas 3 respostas
         var ultimasRespostas = respostaNpsRepository
@@ -1,5 +1,6 @@
 package br.com.austa.experiencia.service.domain.onboarding;
 
+import br.com.austa.experiencia.service.blobs.RepositorioConteudo;
 import com.healthplan.services.ocr.DocumentOcrService;
 import com.healthplan.models.DocumentData;
 import lombok.extern.slf4j.Slf4j;
@@ -8,7 +9,11 @@ import org.camunda.bpm.engine.delegate.JavaDelegate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
+
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Analisar Documentos OCR Delegate
@@ -23,6 +28,9 @@ import java.util.List;
  * - extractedData (Map): Dados extraídos dos documentos
  * - ocrConfidence (Double): Confiança da extração
  * - documentsValidated (Boolean): Documentos validados?
+ * - documentosConteudo (List<Map>): hash e tamanho de cada documento no
+ *   repositório de conteúdo; os arquivos enviados deixam o processo quando
+ *   o repositório é compartilhado por todos os nós (blobs.compartilhado)
  *
  * @author Digital Experience Team
  * @since 2.0.0 - Phase 2 (SUB-001 Onboarding)
@@ -34,6 +42,9 @@ public class AnalisarDocumentosOcrDelegate implements JavaDelegate {
     @Autowired
     private DocumentOcrService ocrService;
 
+    @Autowired
+    private RepositorioConteudo repositorioConteudo;
+
     @Override
     public void execute(DelegateExecution execution) throws Exception {
         @SuppressWarnings("unchecked")
@@ -66,6 +77,21 @@ public class AnalisarDocumentosOcrDelegate implements JavaDelegate {
             execution.setVariable("documentsProcessed", batchResult.getSuccessCount());
             execution.setVariable("documentsFailed", batchResult.getFailureCount());
 
+            // Arquivar os documentos fora do engine; o processo guarda apenas os hashes
+            List<Map<String, Object>> documentosConteudo = new ArrayList<>(documents.size());
+            for (int i = 0; i < documents.size(); i++) {
+                try (InputStream conteudo = documents.get(i).getInputStream()) {
+                    Map<String, Object> referencia = repositorioConteudo.gravar(conteudo).toMap();
+                    referencia.put("nomeArquivo", documents.get(i).getOriginalFilename());
+                    referencia.put("tipo", documentTypes != null && i < documentTypes.size() ? documentTypes.get(i) : null);
+                    documentosConteudo.add(referencia);
+                }
+            }
+            execution.setVariable("documentosConteudo", documentosConteudo);
+            if (repositorioConteudo.isCompartilhado()) {
+                execution.removeVariable("uploadedDocuments");
+            }
+
             log.info("OCR concluído - {} sucesso, {} falhas, confiança: {:.2f}",
                 batchResult.getSuccessCount(), batchResult.getFailureCount(), avgConfidence);
 
@@ -1,5 +1,7 @@
 package br.com.austa.experiencia.service.domain.proativo.impl;
 
+import br.com.austa.experiencia.service.ids.GeradorIds;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.JavaDelegate;
@@ -8,7 +10,6 @@ import org.springframework.stereotype.Component;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 /**
  * Delegate responsible for registering executed proactive actions in the system.
@@ -45,8 +46,11 @@ import java.util.UUID;
  */
 @Slf4j
 @Component("registrarAcaoExecutadaDelegate")
+@RequiredArgsConstructor
 public class RegistrarAcaoExecutadaDelegate implements JavaDelegate {
 
+    private final GeradorIds geradorIds;
+
     @Override
     public void execute(DelegateExecution execution) throws Exception {
         log.info("Starting proactive action registration - Process: {}, Execution: {}",
@@ -72,7 +76,7 @@ public class RegistrarAcaoExecutadaDelegate implements JavaDelegate {
                     actionType, beneficiarioId, channel);
 
             // Create action record
-            String actionId = UUID.randomUUID().toString();
+            String actionId = geradorIds.proximoIdTexto();
             LocalDateTime timestamp = LocalDateTime.now();
 
             Map<String, Object> actionRecord = createActionRecord(
@@ -1,7 +1,7 @@
 package br.com.austa.experiencia.service.domain.selfservice;
 
-import br.com.austa.experiencia.service.SelfServiceService;
 import br.com.austa.experiencia.model.dto.ExtratoUtilizacaoDTO;
+import br.com.austa.experiencia.service.domain.SelfServiceService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.camunda.bpm.engine.delegate.DelegateExecution;
@@ -20,7 +20,7 @@ import java.time.LocalDate;
  * - dataInicio (LocalDate): Data inicial do período
  * - dataFim (LocalDate): Data final do período
  * - tipoServico (String, opcional): Filtro por tipo (CONSULTA, EXAME, INTERNACAO, etc)
- * - agruparPor (String, default: "DATA"): Agrupamento (DATA, TIPO, PRESTADOR)
+ * - agruparPor (String, default: "DATA"): Agrupamento (DATA por mês, TIPO, PRESTADOR)
  *
  * Variáveis de saída:
  * - extratoUtilizacao (List<Map>): Lista de utilizações no período
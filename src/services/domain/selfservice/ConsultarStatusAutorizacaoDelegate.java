@@ -1,6 +1,6 @@
 package br.com.austa.experiencia.service.domain.selfservice;
 
-import br.com.austa.experiencia.service.AutorizacaoService;
+import br.com.austa.experiencia.service.projecao.ProjecaoStatusAutorizacao;
 import br.com.austa.experiencia.model.dto.StatusAutorizacaoDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -8,8 +8,12 @@ import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.JavaDelegate;
 import org.springframework.stereotype.Component;
 
+import java.util.Optional;
+
 /**
  * Delegate responsável por consultar status de autorização/guia médica.
+ * Responde a partir da projeção ProjecaoStatusAutorizacao, sem consultar o
+ * serviço de autorizações.
  *
  * Referenciado em: SUB-004_AutoAtendimento_Inteligente.bpmn
  * Activity ID: Activity_ConsultarStatusAutorizacao
@@ -23,7 +27,7 @@ import org.springframework.stereotype.Component;
  * - dataAtualizacao (LocalDateTime): Data da última atualização
  * - observacoes (String): Observações sobre a autorização
  * - podeRecorrer (Boolean): Se é possível recurso em caso de negativa
- * - statusEncontrado (Boolean): Flag de sucesso da consulta
+ * - statusEncontrado (Boolean): false se a guia não existe ou é de outro beneficiário
  *
  * @author AI Agent
  * @version 1.0
@@ -34,7 +38,7 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class ConsultarStatusAutorizacaoDelegate implements JavaDelegate {
 
-    private final AutorizacaoService autorizacaoService;
+    private final ProjecaoStatusAutorizacao projecaoStatusAutorizacao;
 
     @Override
     public void execute(DelegateExecution execution) throws Exception {
@@ -50,7 +54,14 @@ public class ConsultarStatusAutorizacaoDelegate implements JavaDelegate {
             validateInputs(numeroGuia);
 
             // 3. Consultar status da autorização
-            StatusAutorizacaoDTO status = autorizacaoService.consultarStatus(numeroGuia, beneficiarioId);
+            Optional<StatusAutorizacaoDTO> consulta =
+                projecaoStatusAutorizacao.consultarStatus(numeroGuia, beneficiarioId);
+            if (consulta.isEmpty()) {
+                execution.setVariable("statusEncontrado", false);
+                log.info("Autorização não encontrada - Guia: {}", numeroGuia);
+                return;
+            }
+            StatusAutorizacaoDTO status = consulta.get();
 
             // 4. Definir variáveis de saída
             execution.setVariable("statusAutorizacao", status.getStatus());
@@ -1,6 +1,6 @@
 package br.com.austa.experiencia.service.domain.selfservice;
 
-import br.com.austa.experiencia.service.SelfServiceService;
+import br.com.austa.experiencia.service.domain.SelfServiceService;
 import br.com.austa.experiencia.model.dto.CarterinhaDigitalDTO;
 import br.com.austa.experiencia.exception.BusinessException;
 import lombok.RequiredArgsConstructor;
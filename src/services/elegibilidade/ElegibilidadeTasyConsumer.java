@@ -0,0 +1,106 @@
+package br.com.austa.experiencia.service.elegibilidade;
+
+import br.com.austa.experiencia.service.carteirinha.EmissorCarteirinha;
+import br.com.austa.experiencia.service.kafka.ReposicaoTopico;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.time.LocalDate;
+
+/**
+ * Feeds the eligibility replica from the Tasy change feed.
+ *
+ * tasy-elegibilidade is a compacted topic keyed by card number. The replica
+ * lives in memory only and every instance answers for every card, so each
+ * instance consumes all partitions under its own group from the beginning and
+ * the replica stays not current until that replay reaches the end offsets
+ * read at startup. Tasy writes heartbeats carrying its current change sequence
+ * to every partition, which drive the replica's per-partition watermark.
+ * - change:    {"sequencia": 81234, "cartao": "0012345678901234", "beneficiarioId": "...",
+ *               "status": "ATIVO", "codigoPlano": "123456789", "inicioVigencia": "2024-03-01",
+ *               "fimVigencia": null}
+ * - heartbeat: {"tipo": "HEARTBEAT", "sequencia": 81234}
+ *
+ * A card leaving ATIVO also revokes its signed digital card tokens; the
+ * issuer ignores cards holding none, so replaying the topic is harmless.
+ */
+@Component("elegibilidadeTasyConsumer")
+public class ElegibilidadeTasyConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ElegibilidadeTasyConsumer.class);
+
+    @Autowired
+    private ReplicaElegibilidade replicaElegibilidade;
+
+    @Autowired
+    private EmissorCarteirinha emissorCarteirinha;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private KafkaAdmin kafkaAdmin;
+
+    @Value("${elegibilidade.topico:tasy-elegibilidade}")
+    private String topico;
+
+    private ReposicaoTopico reposicao;
+
+    @PostConstruct
+    public void iniciar() {
+        reposicao = ReposicaoTopico.iniciar(kafkaAdmin, topico);
+        replicaElegibilidade.setParticoes(reposicao.getParticoes());
+        replicaElegibilidade.setReplicada(reposicao.isConcluida());
+    }
+
+    @KafkaListener(topics = "${elegibilidade.topico:tasy-elegibilidade}",
+                   groupId = "#{'${elegibilidade.kafka.group-id:replica-elegibilidade}-' + T(java.util.UUID).randomUUID()}",
+                   properties = "auto.offset.reset=earliest")
+    public void onEvento(ConsumerRecord<String, String> registro) throws Exception {
+        try {
+            aplicar(registro);
+        } finally {
+            // a record that keeps failing is skipped by the error handler; the replay must still end
+            if (reposicao.avancar(registro.partition(), registro.offset())) {
+                replicaElegibilidade.setReplicada(true);
+            }
+        }
+    }
+
+    private void aplicar(ConsumerRecord<String, String> registro) throws Exception {
+        String mensagem = registro.value();
+        JsonNode evento = objectMapper.readTree(mensagem);
+        long sequencia = evento.path("sequencia").asLong(-1);
+
+        if ("HEARTBEAT".equals(evento.path("tipo").asText())) {
+            replicaElegibilidade.confirmar(registro.partition(), sequencia, registro.timestamp());
+            return;
+        }
+
+        String cartao = evento.path("cartao").asText(null);
+        if (cartao == null || sequencia < 0) {
+            logger.warn("Ignoring eligibility event without cartao or sequencia: {}", mensagem);
+            return;
+        }
+        String fimVigencia = evento.path("fimVigencia").asText(null);
+        StatusPlano status = StatusPlano.valueOf(evento.path("status").asText());
+        replicaElegibilidade.aplicar(new RegistroElegibilidade(cartao,
+            evento.path("beneficiarioId").asText(null),
+            status,
+            evento.path("codigoPlano").asText(null),
+            LocalDate.parse(evento.path("inicioVigencia").asText()),
+            fimVigencia != null ? LocalDate.parse(fimVigencia) : null), registro.partition(), sequencia);
+        if (status != StatusPlano.ATIVO) {
+            emissorCarteirinha.revogar(cartao);
+        }
+    }
+}
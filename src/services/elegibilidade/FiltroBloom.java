@@ -0,0 +1,52 @@
+package br.com.austa.experiencia.service.elegibilidade;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Blocked Bloom filter over card keys.
+ *
+ * All probe bits of a key live in one 512-bit block (one cache line), so a
+ * negative answer costs a single memory access. About 10 bits per card and
+ * 7 probes give roughly 1% false positives. Single writer, lock-free readers;
+ * bits are only ever set, so a reader never misses a card added before it.
+ */
+final class FiltroBloom {
+
+    private static final int PALAVRAS_POR_BLOCO = 8;
+    private static final int BITS_POR_CARTAO = 10;
+    private static final int SONDAGENS = 7;
+
+    private final AtomicLongArray bits;
+    private final int mascaraBlocos;
+
+    FiltroBloom(int capacidade) {
+        long blocos = Long.highestOneBit(Math.max(1, (long) capacidade * BITS_POR_CARTAO / 512) * 2 - 1);
+        this.bits = new AtomicLongArray((int) blocos * PALAVRAS_POR_BLOCO);
+        this.mascaraBlocos = (int) blocos - 1;
+    }
+
+    void adicionar(long hash) {
+        int base = bloco(hash);
+        for (int i = 0; i < SONDAGENS; i++) {
+            int bit = (int) (hash >>> (i * 9)) & 511;
+            int palavra = base + (bit >>> 6);
+            bits.set(palavra, bits.get(palavra) | (1L << bit));
+        }
+    }
+
+    boolean talvezContem(long hash) {
+        int base = bloco(hash);
+        for (int i = 0; i < SONDAGENS; i++) {
+            int bit = (int) (hash >>> (i * 9)) & 511;
+            if ((bits.get(base + (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int bloco(long hash) {
+        // bits 0..62 feed the probes; the block comes from an independent mix
+        return ((int) ((hash * 0x9E3779B97F4A7C15L) >>> 32) & mascaraBlocos) * PALAVRAS_POR_BLOCO;
+    }
+}
@@ -0,0 +1,53 @@
+package br.com.austa.experiencia.service.elegibilidade;
+
+import java.time.LocalDate;
+
+/**
+ * Eligibility of one card as published by Tasy: status, plan and validity range.
+ */
+public final class RegistroElegibilidade {
+
+    private final String cartaoNumero;
+    private final String beneficiarioId;
+    private final StatusPlano status;
+    private final String codigoPlano;
+    private final LocalDate inicioVigencia;
+    private final LocalDate fimVigencia;
+
+    /**
+     * @param fimVigencia null for an open-ended contract
+     */
+    public RegistroElegibilidade(String cartaoNumero, String beneficiarioId, StatusPlano status,
+                                 String codigoPlano, LocalDate inicioVigencia, LocalDate fimVigencia) {
+        this.cartaoNumero = cartaoNumero;
+        this.beneficiarioId = beneficiarioId;
+        this.status = status;
+        this.codigoPlano = codigoPlano;
+        this.inicioVigencia = inicioVigencia;
+        this.fimVigencia = fimVigencia;
+    }
+
+    public String getCartaoNumero() {
+        return cartaoNumero;
+    }
+
+    public String getBeneficiarioId() {
+        return beneficiarioId;
+    }
+
+    public StatusPlano getStatus() {
+        return status;
+    }
+
+    public String getCodigoPlano() {
+        return codigoPlano;
+    }
+
+    public LocalDate getInicioVigencia() {
+        return inicioVigencia;
+    }
+
+    public LocalDate getFimVigencia() {
+        return fimVigencia;
+    }
+}
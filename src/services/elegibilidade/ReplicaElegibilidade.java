@@ -0,0 +1,301 @@
+package br.com.austa.experiencia.service.elegibilidade;
+
+import br.com.austa.experiencia.model.dto.ElegibilidadeDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replica Elegibilidade - local copy of Tasy card eligibility
+ *
+ * Kept up to date from the Tasy change feed ({@link ElegibilidadeTasyConsumer})
+ * so a card check is a Bloom probe plus an open-addressing lookup in memory
+ * instead of a REST round trip per delegate execution.
+ *
+ * Consistency watermark, kept per partition of the feed:
+ * - every change carries the Tasy change sequence; a partition's watermark is
+ *   the highest sequence applied from it
+ * - Tasy writes a heartbeat to every partition once all changes up to its
+ *   sequence are in the topic, so a heartbeat raises its partition's
+ *   watermark to that sequence
+ * - partitions are consumed independently, so the replica's watermark is the
+ *   lowest partition watermark: every change up to it has been applied
+ * The replica is current once the first replay of the feed has ended and
+ * every partition has a heartbeat emitted within
+ * {@code elegibilidade.replica.atraso-maximo-ms}. While it is not current
+ * (still replaying, feed stalled, or a caller asks for a sequence it has not
+ * applied yet) {@link #consultar} returns empty and the caller goes to Tasy live.
+ */
+@Component("replicaElegibilidade")
+public class ReplicaElegibilidade {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaElegibilidade.class);
+    private static final int MAX_DIGITOS_CARTAO = 17;
+
+    private final long atrasoMaximoMillis;
+    private final Clock clock;
+
+    private final Map<String, Integer> indicePlanos = new HashMap<>();
+    private volatile String[] planos = new String[64];
+    private int totalPlanos;
+
+    private volatile TabelaElegibilidade tabela;
+    private long[] marcasParticao = {-1};
+    private long[] confirmacoesParticao = {0};
+    private volatile long marcaDagua = -1;
+    private volatile long confirmadaEmMillis;
+    private volatile boolean replicada = true;
+
+    private final LongAdder consultas = new LongAdder();
+    private final LongAdder rejeitadasPeloFiltro = new LongAdder();
+    private final LongAdder semResposta = new LongAdder();
+
+    @Autowired
+    public ReplicaElegibilidade(@Value("${elegibilidade.replica.capacidade:1000000}") int capacidadeInicial,
+                                @Value("${elegibilidade.replica.atraso-maximo-ms:60000}") long atrasoMaximoMillis) {
+        this(capacidadeInicial, atrasoMaximoMillis, Clock.systemUTC());
+    }
+
+    public ReplicaElegibilidade(int capacidadeInicial, long atrasoMaximoMillis, Clock clock) {
+        this.tabela = new TabelaElegibilidade(capacidadeInicial);
+        this.atrasoMaximoMillis = atrasoMaximoMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Applies one Tasy change read from {@code particao}. Called by the feed
+     * consumer; writers are serialized.
+     */
+    public synchronized void aplicar(RegistroElegibilidade registro, int particao, long sequencia) {
+        long chave = chave(registro.getCartaoNumero());
+        if (chave < 0) {
+            logger.debug("Card {} is not numeric, left to live Tasy lookups", registro.getCartaoNumero());
+        } else {
+            long valor = TabelaElegibilidade.empacotar(registro.getStatus(), indicePlano(registro.getCodigoPlano()),
+                Math.max(0, registro.getInicioVigencia().toEpochDay()),
+                registro.getFimVigencia() == null ? TabelaElegibilidade.SEM_FIM
+                    : Math.min(TabelaElegibilidade.SEM_FIM - 1, registro.getFimVigencia().toEpochDay()));
+            TabelaElegibilidade atual = tabela;
+            while (!atual.gravar(chave, valor, registro.getBeneficiarioId())) {
+                atual = atual.crescer();
+                logger.info("Eligibility replica grown to {} cards", atual.tamanho());
+                tabela = atual;
+            }
+        }
+        avancar(particao, sequencia, -1);
+    }
+
+    /**
+     * Records a Tasy heartbeat read from {@code particao}: every change of that
+     * partition up to {@code sequenciaFonte} has been applied.
+     *
+     * @param emitidaEmMillis when Tasy wrote the heartbeat; a replayed one is as
+     *                        old as the record, not as the moment it was read
+     */
+    public synchronized void confirmar(int particao, long sequenciaFonte, long emitidaEmMillis) {
+        avancar(particao, sequenciaFonte, emitidaEmMillis);
+    }
+
+    /**
+     * Partitions of the feed; each must be confirmed before the replica is
+     * current. Partitions found later are added as they show up.
+     */
+    public synchronized void setParticoes(int particoes) {
+        if (particoes > marcasParticao.length) {
+            crescerParticoes(particoes);
+            recalcular();
+        }
+    }
+
+    /**
+     * False while the feed is replayed after startup: the table is still
+     * missing cards the topic holds, so an absent card proves nothing.
+     */
+    public void setReplicada(boolean replicada) {
+        this.replicada = replicada;
+    }
+
+    private void avancar(int particao, long sequencia, long emitidaEmMillis) {
+        if (particao >= marcasParticao.length) {
+            crescerParticoes(particao + 1);
+        }
+        marcasParticao[particao] = Math.max(marcasParticao[particao], sequencia);
+        confirmacoesParticao[particao] = Math.max(confirmacoesParticao[particao], emitidaEmMillis);
+        recalcular();
+    }
+
+    private void crescerParticoes(int particoes) {
+        int anterior = marcasParticao.length;
+        marcasParticao = Arrays.copyOf(marcasParticao, particoes);
+        confirmacoesParticao = Arrays.copyOf(confirmacoesParticao, particoes);
+        Arrays.fill(marcasParticao, anterior, particoes, -1);
+    }
+
+    private void recalcular() {
+        long marca = Long.MAX_VALUE;
+        long confirmada = Long.MAX_VALUE;
+        for (int i = 0; i < marcasParticao.length; i++) {
+            marca = Math.min(marca, marcasParticao[i]);
+            confirmada = Math.min(confirmada, confirmacoesParticao[i]);
+        }
+        marcaDagua = marca;
+        confirmadaEmMillis = confirmada;
+    }
+
+    public Optional<ElegibilidadeDTO> consultar(String cartaoNumero, LocalDate data) {
+        return consultar(cartaoNumero, data, -1);
+    }
+
+    /**
+     * Eligibility of the card on {@code data}, or empty when the replica cannot
+     * answer: not current, card number not representable, or the caller needs
+     * changes up to {@code sequenciaMinima} that have not been applied yet.
+     */
+    public Optional<ElegibilidadeDTO> consultar(String cartaoNumero, LocalDate data, long sequenciaMinima) {
+        consultas.increment();
+        long chave = chave(cartaoNumero);
+        if (chave < 0 || !isAtualizada() || marcaDagua < sequenciaMinima) {
+            semResposta.increment();
+            return Optional.empty();
+        }
+
+        TabelaElegibilidade atual = tabela;
+        if (!atual.talvezContem(chave)) {
+            rejeitadasPeloFiltro.increment();
+            return Optional.of(naoEncontrado());
+        }
+        long valor = atual.buscar(chave);
+        if (valor == TabelaElegibilidade.VAZIO) {
+            return Optional.of(naoEncontrado());
+        }
+
+        StatusPlano status = TabelaElegibilidade.status(valor);
+        String beneficiarioId = atual.beneficiario(chave);
+        long dia = data.toEpochDay();
+        long inicio = TabelaElegibilidade.inicio(valor);
+        long fim = TabelaElegibilidade.fim(valor);
+
+        String motivo = null;
+        if (status != StatusPlano.ATIVO) {
+            motivo = "Plano " + status.name().toLowerCase(Locale.ROOT);
+        } else if (dia < inicio) {
+            motivo = "Vigência inicia em " + LocalDate.ofEpochDay(inicio);
+        } else if (fim != TabelaElegibilidade.SEM_FIM && dia > fim) {
+            motivo = "Vigência encerrada em " + LocalDate.ofEpochDay(fim);
+        }
+        return Optional.of(ElegibilidadeDTO.builder()
+            .elegivel(motivo == null)
+            .motivoInelegibilidade(motivo)
+            .statusPlano(status.name())
+            .beneficiarioId(beneficiarioId)
+            .dataAdesao(LocalDate.ofEpochDay(inicio))
+            .build());
+    }
+
+    /**
+     * Plan code currently replicated for the card, or null.
+     */
+    public String codigoPlano(String cartaoNumero) {
+        long chave = chave(cartaoNumero);
+        long valor = chave < 0 ? TabelaElegibilidade.VAZIO : tabela.buscar(chave);
+        return valor == TabelaElegibilidade.VAZIO ? null : planos[TabelaElegibilidade.indicePlano(valor)];
+    }
+
+    /**
+     * Plan status currently replicated for the card, or null; answers even
+     * while the replica is not current.
+     */
+    public StatusPlano status(String cartaoNumero) {
+        long chave = chave(cartaoNumero);
+        long valor = chave < 0 ? TabelaElegibilidade.VAZIO : tabela.buscar(chave);
+        return valor == TabelaElegibilidade.VAZIO ? null : TabelaElegibilidade.status(valor);
+    }
+
+    public boolean isAtualizada() {
+        return replicada
+            && confirmadaEmMillis > 0
+            && clock.millis() - confirmadaEmMillis <= atrasoMaximoMillis;
+    }
+
+    public long getMarcaDagua() {
+        return marcaDagua;
+    }
+
+    public int getTamanho() {
+        return tabela.tamanho();
+    }
+
+    public long getConsultas() {
+        return consultas.sum();
+    }
+
+    public long getRejeitadasPeloFiltro() {
+        return rejeitadasPeloFiltro.sum();
+    }
+
+    public long getSemResposta() {
+        return semResposta.sum();
+    }
+
+    private int indicePlano(String codigoPlano) {
+        String codigo = codigoPlano == null ? "" : codigoPlano;
+        Integer indice = indicePlanos.get(codigo);
+        if (indice == null) {
+            if (totalPlanos == TabelaElegibilidade.MAX_PLANOS) {
+                throw new IllegalStateException("Plan dictionary full");
+            }
+            indice = totalPlanos++;
+            String[] atuais = planos;
+            if (indice == atuais.length) {
+                atuais = Arrays.copyOf(atuais, atuais.length * 2);
+            }
+            atuais[indice] = codigo;
+            planos = atuais;
+            indicePlanos.put(codigo, indice);
+        }
+        return indice;
+    }
+
+    private static ElegibilidadeDTO naoEncontrado() {
+        return ElegibilidadeDTO.builder()
+            .elegivel(false)
+            .motivoInelegibilidade("Cartão não encontrado")
+            .build();
+    }
+
+    /**
+     * Numeric key of a card number ignoring separators, or -1 when it has
+     * letters, no digits or more than 17 digits.
+     */
+    static long chave(String cartaoNumero) {
+        if (cartaoNumero == null) {
+            return -1;
+        }
+        long chave = 0;
+        int digitos = 0;
+        for (int i = 0; i < cartaoNumero.length(); i++) {
+            char c = cartaoNumero.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digitos > MAX_DIGITOS_CARTAO) {
+                    return -1;
+                }
+                chave = chave * 10 + (c - '0');
+            } else if (c != '.' && c != '-' && c != ' ') {
+                return -1;
+            }
+        }
+        // digit count above the value keeps "0012" and "12" apart and the key non-zero
+        return digitos == 0 ? -1 : chave | (long) digitos << 57;
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.austa.experiencia.service.elegibilidade;
+
+/**
+ * Plan status as replicated from Tasy.
+ */
+public enum StatusPlano {
+    ATIVO,
+    SUSPENSO,
+    CANCELADO;
+
+    private static final StatusPlano[] VALORES = values();
+
+    static StatusPlano de(int ordinal) {
+        return VALORES[ordinal];
+    }
+}
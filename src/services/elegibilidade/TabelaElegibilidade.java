@@ -0,0 +1,153 @@
+package br.com.austa.experiencia.service.elegibilidade;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Open-addressing map from numeric card key to a packed eligibility word.
+ *
+ * Key and value sit side by side in one primitive array (16 bytes per slot),
+ * so a hit with short linear probing touches one or two cache lines. The value
+ * packs status, plan dictionary index and validity range into a single long,
+ * so an update is one atomic store and readers never see a torn record.
+ *
+ * Single writer: the owner serializes {@link #gravar} and swaps in the table
+ * returned by {@link #crescer} once it is full. Entries are never removed; a
+ * cancelled contract is just another status.
+ */
+final class TabelaElegibilidade {
+
+    static final long VAZIO = 0L;
+
+    private static final int BITS_STATUS = 2;
+    private static final int BITS_PLANO = 20;
+    private static final int BITS_DIA = 21;
+    static final int MAX_PLANOS = 1 << BITS_PLANO;
+    /** Epoch day used for an open-ended contract. */
+    static final long SEM_FIM = (1L << BITS_DIA) - 1;
+
+    private final AtomicLongArray slots;
+    private final AtomicReferenceArray<String> beneficiarios;
+    private final FiltroBloom filtro;
+    private final int mascara;
+    private final int limite;
+    private int tamanho;
+
+    TabelaElegibilidade(int capacidade) {
+        int slotsNecessarios = Integer.highestOneBit(Math.max(16, capacidade * 2) * 2 - 1);
+        this.slots = new AtomicLongArray(slotsNecessarios * 2);
+        this.beneficiarios = new AtomicReferenceArray<>(slotsNecessarios);
+        this.filtro = new FiltroBloom(slotsNecessarios / 2);
+        this.mascara = slotsNecessarios - 1;
+        this.limite = slotsNecessarios / 2;
+    }
+
+    /**
+     * Packed value for {@code chave}, or {@link #VAZIO} if the card is unknown.
+     */
+    long buscar(long chave) {
+        int slot = slot(chave);
+        return slot < 0 ? VAZIO : slots.get(slot * 2 + 1);
+    }
+
+    String beneficiario(long chave) {
+        int slot = slot(chave);
+        return slot < 0 ? null : beneficiarios.get(slot);
+    }
+
+    boolean talvezContem(long chave) {
+        return filtro.talvezContem(misturar(chave));
+    }
+
+    /**
+     * Inserts or replaces the card. Returns false when the table is full and must grow first.
+     */
+    boolean gravar(long chave, long valor, String beneficiarioId) {
+        long hash = misturar(chave);
+        int i = (int) hash & mascara;
+        while (true) {
+            long atual = slots.get(i * 2);
+            if (atual == chave) {
+                slots.set(i * 2 + 1, valor);
+                beneficiarios.set(i, beneficiarioId);
+                return true;
+            }
+            if (atual == VAZIO) {
+                if (tamanho >= limite) {
+                    return false;
+                }
+                // value before key: a reader that sees the key also sees its value
+                slots.set(i * 2 + 1, valor);
+                beneficiarios.set(i, beneficiarioId);
+                filtro.adicionar(hash);
+                slots.set(i * 2, chave);
+                tamanho++;
+                return true;
+            }
+            i = (i + 1) & mascara;
+        }
+    }
+
+    TabelaElegibilidade crescer() {
+        TabelaElegibilidade maior = new TabelaElegibilidade(limite * 2);
+        for (int i = 0; i <= mascara; i++) {
+            long chave = slots.get(i * 2);
+            if (chave != VAZIO) {
+                maior.gravar(chave, slots.get(i * 2 + 1), beneficiarios.get(i));
+            }
+        }
+        return maior;
+    }
+
+    int tamanho() {
+        return tamanho;
+    }
+
+    private int slot(long chave) {
+        int i = (int) misturar(chave) & mascara;
+        while (true) {
+            long atual = slots.get(i * 2);
+            if (atual == chave) {
+                return i;
+            }
+            if (atual == VAZIO) {
+                return -1;
+            }
+            i = (i + 1) & mascara;
+        }
+    }
+
+    static long empacotar(StatusPlano status, int indicePlano, long inicioEpochDay, long fimEpochDay) {
+        return (long) (status.ordinal() + 1)
+            | (long) indicePlano << BITS_STATUS
+            | inicioEpochDay << (BITS_STATUS + BITS_PLANO)
+            | fimEpochDay << (BITS_STATUS + BITS_PLANO + BITS_DIA);
+    }
+
+    static StatusPlano status(long valor) {
+        return StatusPlano.de((int) (valor & ((1 << BITS_STATUS) - 1)) - 1);
+    }
+
+    static int indicePlano(long valor) {
+        return (int) (valor >>> BITS_STATUS) & (MAX_PLANOS - 1);
+    }
+
+    static long inicio(long valor) {
+        return (valor >>> (BITS_STATUS + BITS_PLANO)) & SEM_FIM;
+    }
+
+    static long fim(long valor) {
+        return (valor >>> (BITS_STATUS + BITS_PLANO + BITS_DIA)) & SEM_FIM;
+    }
+
+    /** Card numbers are spread by a murmur3 finalizer; the low bits pick the slot. */
+    private static long misturar(long chave) {
+        long h = chave;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
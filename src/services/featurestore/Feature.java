@@ -0,0 +1,39 @@
+package br.com.austa.experiencia.service.featurestore;
+
+/**
+ * Feature catalogue of the per-beneficiary feature store.
+ *
+ * The ordinal of each constant is its column in the stored vector, so
+ * constants may only be appended. Reordering or removing one requires
+ * bumping {@link FeatureStore#VERSAO_SCHEMA}.
+ *
+ * Event sources:
+ * - nps-feedback: NPS_*
+ * - jornada-concluida: JORNADAS_*, ULTIMA_JORNADA_EPOCH_DAY
+ * - AutorizacaoProcessada: AUTORIZACOES_*, ULTIMA_AUTORIZACAO_EPOCH_DAY
+ */
+public enum Feature {
+
+    NPS_TOTAL_RESPOSTAS,
+    NPS_SOMA,
+    NPS_ULTIMO,
+    NPS_PENULTIMO,
+    NPS_DETRATORES,
+
+    JORNADAS_CONCLUIDAS,
+    JORNADAS_NAO_RESOLVIDAS,
+    JORNADAS_SLA_VIOLADO,
+    JORNADAS_TEMPO_TOTAL_MINUTOS,
+    ULTIMA_JORNADA_EPOCH_DAY,
+
+    AUTORIZACOES_TOTAL,
+    AUTORIZACOES_NEGADAS,
+    AUTORIZACOES_VALOR_SOMA,
+    ULTIMA_AUTORIZACAO_EPOCH_DAY;
+
+    static final Feature[] VALORES = values();
+
+    public static int quantidade() {
+        return VALORES.length;
+    }
+}
@@ -0,0 +1,487 @@
+package br.com.austa.experiencia.service.featurestore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Feature Store - per-beneficiary feature vectors kept in memory-mapped files
+ *
+ * Two files live under {@code featurestore.path}:
+ * - vetores.dat: one fixed-size slot per beneficiary holding the latest vector
+ *   (point lookup = one index probe + one contiguous read off-heap)
+ * - historico.dat: append-only log with every version of every vector, chained
+ *   per beneficiary, so training can re-read the exact values served at
+ *   (beneficiarioId, versao)
+ *
+ * - offsets.dat: per source topic and partition, the offset of the last
+ *   event applied, so a replay of the topics after a restart skips what the
+ *   vectors already hold (see {@link #aplicar})
+ *
+ * Writers are serialized per lock stripe; readers are lock-free and use a
+ * per-slot sequence counter (seqlock) to never observe a half-written vector.
+ *
+ * Slot layout (bytes): keyLen(4) key(36) seq(8) versao(8) atualizadoEm(8)
+ * offsetHistorico(8) valores(8 x N). The header of vetores.dat keeps the
+ * number of slots ever allocated, so a slot left empty by a writer that died
+ * mid-allocation does not hide the slots after it.
+ *
+ * When historico.dat is full, vectors keep being served and updated but new
+ * versions are no longer retained for point-in-time reads; the lost versions
+ * are counted ({@link #getVersoesNaoRetidas}, exported by
+ * {@link FeatureStoreMeterBinder}).
+ */
+@Component("featureStore")
+public class FeatureStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeatureStore.class);
+
+    /** Bump when {@link Feature} columns are reordered or removed. */
+    public static final int VERSAO_SCHEMA = 1;
+
+    private static final int MAGIC = 0x46535431; // "FST1"
+    private static final int CABECALHO = 64;
+    private static final int CAB_SLOTS_ALOCADOS = 16;
+    private static final int MAX_CHAVE = 36;
+
+    private static final int MAX_ORIGENS = 8;
+    private static final int MAX_PARTICOES = 256;
+    private static final int MAX_NOME_ORIGEM = 60;
+    private static final int TAMANHO_ORIGEM = 4 + MAX_NOME_ORIGEM + MAX_PARTICOES * 8;
+
+    private static final int OFF_CHAVE_LEN = 0;
+    private static final int OFF_CHAVE = 4;
+    private static final int OFF_SEQ = 40;
+    private static final int OFF_VERSAO = 48;
+    private static final int OFF_ATUALIZADO = 56;
+    private static final int OFF_HISTORICO = 64;
+    private static final int OFF_VALORES = 72;
+
+    private static final int HIST_OFF_SLOT = 0;
+    private static final int HIST_OFF_VERSAO = 8;
+    private static final int HIST_OFF_ATUALIZADO = 16;
+    private static final int HIST_OFF_ANTERIOR = 24;
+    private static final int HIST_OFF_VALORES = 32;
+    private static final int HIST_OFF_POSICAO = 16;
+
+    private static final int STRIPES = 256;
+
+    private static final VarHandle LONG_VIEW =
+        MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final int numFeatures = Feature.quantidade();
+    private final int tamanhoSlot = OFF_VALORES + numFeatures * 8;
+    private final int tamanhoEntradaHistorico = HIST_OFF_VALORES + numFeatures * 8;
+    private final int capacidade;
+
+    private final FileChannel canalVetores;
+    private final FileChannel canalHistorico;
+    private final FileChannel canalOffsets;
+    private final MappedByteBuffer vetores;
+    private final MappedByteBuffer historico;
+    private final MappedByteBuffer offsets;
+    private final long capacidadeHistorico;
+
+    private final ConcurrentHashMap<String, Integer> indice = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Integer> origens = new ConcurrentHashMap<>();
+    private final AtomicInteger proximoSlot = new AtomicInteger();
+    private final Object[] locks = new Object[STRIPES];
+    private final LongAdder versoesNaoRetidas = new LongAdder();
+
+    private volatile boolean replicado = true;
+
+    @Autowired
+    public FeatureStore(@Value("${featurestore.path:./data/featurestore}") String diretorio,
+                        @Value("${featurestore.capacidade:2000000}") int capacidade,
+                        @Value("${featurestore.historico.capacidade-bytes:1073741824}") long capacidadeHistorico)
+            throws IOException {
+        this.capacidade = capacidade;
+        this.capacidadeHistorico = capacidadeHistorico;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+
+        Path dir = Paths.get(diretorio);
+        Files.createDirectories(dir);
+
+        canalVetores = FileChannel.open(dir.resolve("vetores.dat"),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        canalHistorico = FileChannel.open(dir.resolve("historico.dat"),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        canalOffsets = FileChannel.open(dir.resolve("offsets.dat"),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        vetores = canalVetores.map(FileChannel.MapMode.READ_WRITE, 0,
+            CABECALHO + (long) capacidade * tamanhoSlot);
+        historico = canalHistorico.map(FileChannel.MapMode.READ_WRITE, 0, capacidadeHistorico);
+        offsets = canalOffsets.map(FileChannel.MapMode.READ_WRITE, 0, (long) MAX_ORIGENS * TAMANHO_ORIGEM);
+
+        inicializarCabecalho(vetores);
+        inicializarCabecalho(historico);
+        if (historico.getLong(HIST_OFF_POSICAO) == 0) {
+            historico.putLong(HIST_OFF_POSICAO, CABECALHO);
+        }
+        reconstruirIndice();
+        carregarOrigens();
+
+        logger.info("Feature store opened at {}: {} beneficiaries, {} features, schema v{}",
+            dir, indice.size(), numFeatures, VERSAO_SCHEMA);
+    }
+
+    /**
+     * Latest vector of a beneficiary, read without locking.
+     */
+    public Optional<FeatureVector> buscar(String beneficiarioId) {
+        Integer slot = indice.get(beneficiarioId);
+        if (slot == null) {
+            return Optional.empty();
+        }
+        int base = offsetSlot(slot);
+        double[] valores = new double[numFeatures];
+        while (true) {
+            long seq = (long) LONG_VIEW.getAcquire(vetores, base + OFF_SEQ);
+            if ((seq & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            long versao = vetores.getLong(base + OFF_VERSAO);
+            long atualizadoEm = vetores.getLong(base + OFF_ATUALIZADO);
+            for (int i = 0; i < numFeatures; i++) {
+                valores[i] = vetores.getDouble(base + OFF_VALORES + i * 8);
+            }
+            VarHandle.acquireFence();
+            if ((long) LONG_VIEW.getAcquire(vetores, base + OFF_SEQ) == seq) {
+                return Optional.of(new FeatureVector(beneficiarioId, versao, atualizadoEm, valores));
+            }
+        }
+    }
+
+    /**
+     * Vector exactly as it was at the given version, walking the history chain.
+     * Used by training to read the same values the model was served.
+     */
+    public Optional<FeatureVector> buscarVersao(String beneficiarioId, long versao) {
+        Integer slot = indice.get(beneficiarioId);
+        if (slot == null) {
+            return Optional.empty();
+        }
+        synchronized (lockDe(beneficiarioId)) {
+            long offset = vetores.getLong(offsetSlot(slot) + OFF_HISTORICO);
+            while (offset >= CABECALHO) {
+                long versaoEntrada = historico.getLong((int) offset + HIST_OFF_VERSAO);
+                if (versaoEntrada == versao) {
+                    double[] valores = new double[numFeatures];
+                    for (int i = 0; i < numFeatures; i++) {
+                        valores[i] = historico.getDouble((int) offset + HIST_OFF_VALORES + i * 8);
+                    }
+                    return Optional.of(new FeatureVector(beneficiarioId, versao,
+                        historico.getLong((int) offset + HIST_OFF_ATUALIZADO), valores));
+                }
+                if (versaoEntrada < versao) {
+                    break;
+                }
+                offset = historico.getLong((int) offset + HIST_OFF_ANTERIOR);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Newest version updated by an event older than {@code instante} (epoch
+     * millis). Lets a delegate read the vector without the event it is itself
+     * processing, whether or not that event has been consumed yet.
+     */
+    public Optional<FeatureVector> buscarAntes(String beneficiarioId, long instante) {
+        Integer slot = indice.get(beneficiarioId);
+        if (slot == null) {
+            return Optional.empty();
+        }
+        synchronized (lockDe(beneficiarioId)) {
+            long offset = vetores.getLong(offsetSlot(slot) + OFF_HISTORICO);
+            while (offset >= CABECALHO) {
+                long atualizadoEm = historico.getLong((int) offset + HIST_OFF_ATUALIZADO);
+                if (atualizadoEm < instante) {
+                    double[] valores = new double[numFeatures];
+                    for (int i = 0; i < numFeatures; i++) {
+                        valores[i] = historico.getDouble((int) offset + HIST_OFF_VALORES + i * 8);
+                    }
+                    return Optional.of(new FeatureVector(beneficiarioId,
+                        historico.getLong((int) offset + HIST_OFF_VERSAO), atualizadoEm, valores));
+                }
+                offset = historico.getLong((int) offset + HIST_OFF_ANTERIOR);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Apply an incremental update to a beneficiary's vector and publish it as a
+     * new version. The mutation receives the current values (zeros for a new
+     * beneficiary) indexed by {@link Feature#ordinal()}.
+     */
+    public FeatureVector atualizar(String beneficiarioId, long timestamp, Consumer<double[]> mutacao) {
+        byte[] chave = beneficiarioId.getBytes(StandardCharsets.UTF_8);
+        if (chave.length > MAX_CHAVE) {
+            throw new IllegalArgumentException("beneficiarioId too long for feature store: " + beneficiarioId);
+        }
+
+        synchronized (lockDe(beneficiarioId)) {
+            int slot = indice.computeIfAbsent(beneficiarioId, id -> alocarSlot(chave));
+            int base = offsetSlot(slot);
+
+            double[] valores = new double[numFeatures];
+            for (int i = 0; i < numFeatures; i++) {
+                valores[i] = vetores.getDouble(base + OFF_VALORES + i * 8);
+            }
+            mutacao.accept(valores);
+
+            long versao = vetores.getLong(base + OFF_VERSAO) + 1;
+            long offsetHistorico = anexarHistorico(slot, versao, timestamp,
+                vetores.getLong(base + OFF_HISTORICO), valores);
+
+            long seq = vetores.getLong(base + OFF_SEQ);
+            LONG_VIEW.setRelease(vetores, base + OFF_SEQ, seq + 1);
+            VarHandle.releaseFence();
+            vetores.putLong(base + OFF_VERSAO, versao);
+            vetores.putLong(base + OFF_ATUALIZADO, timestamp);
+            vetores.putLong(base + OFF_HISTORICO, offsetHistorico);
+            for (int i = 0; i < numFeatures; i++) {
+                vetores.putDouble(base + OFF_VALORES + i * 8, valores[i]);
+            }
+            LONG_VIEW.setRelease(vetores, base + OFF_SEQ, seq + 2);
+
+            return new FeatureVector(beneficiarioId, versao, timestamp, valores);
+        }
+    }
+
+    /**
+     * {@link #atualizar} for the event at {@code offset} of {@code particao} of
+     * {@code topico}, unless an event at or past that offset was applied
+     * before. The offset is recorded right after the vector; only a crash
+     * between the two writes applies that one event twice.
+     *
+     * @return empty when the event had already been applied
+     */
+    public Optional<FeatureVector> aplicar(String topico, int particao, long offset,
+                                           String beneficiarioId, long timestamp, Consumer<double[]> mutacao) {
+        int posicao = posicaoOffset(topico, particao);
+        if ((long) LONG_VIEW.getAcquire(offsets, posicao) > offset) {
+            return Optional.empty();
+        }
+        FeatureVector vetor = atualizar(beneficiarioId, timestamp, mutacao);
+        LONG_VIEW.setRelease(offsets, posicao, offset + 1);
+        return Optional.of(vetor);
+    }
+
+    public int tamanho() {
+        return indice.size();
+    }
+
+    /**
+     * False while the source topics are being replayed after startup: vectors
+     * may still miss events, so delegates fall back to their own queries.
+     */
+    public boolean isReplicado() {
+        return replicado;
+    }
+
+    public void setReplicado(boolean replicado) {
+        this.replicado = replicado;
+    }
+
+    /**
+     * Versions not retained for point-in-time reads because historico.dat was full.
+     */
+    public long getVersoesNaoRetidas() {
+        return versoesNaoRetidas.sum();
+    }
+
+    public long getBytesLivresHistorico() {
+        return capacidadeHistorico - historico.getLong(HIST_OFF_POSICAO);
+    }
+
+    @PreDestroy
+    public void fechar() throws IOException {
+        vetores.force();
+        historico.force();
+        offsets.force();
+        canalVetores.close();
+        canalHistorico.close();
+        canalOffsets.close();
+    }
+
+    private int alocarSlot(byte[] chave) {
+        int slot = proximoSlot.getAndIncrement();
+        if (slot >= capacidade) {
+            proximoSlot.decrementAndGet();
+            throw new IllegalStateException("Feature store full: capacity " + capacidade);
+        }
+        int base = offsetSlot(slot);
+        for (int i = 0; i < chave.length; i++) {
+            vetores.put(base + OFF_CHAVE + i, chave[i]);
+        }
+        vetores.putLong(base + OFF_HISTORICO, -1L);
+        vetores.putInt(base + OFF_CHAVE_LEN, chave.length);
+        synchronized (vetores) {
+            if (vetores.getInt(CAB_SLOTS_ALOCADOS) <= slot) {
+                vetores.putInt(CAB_SLOTS_ALOCADOS, slot + 1);
+            }
+        }
+        return slot;
+    }
+
+    private long anexarHistorico(int slot, long versao, long timestamp, long anterior, double[] valores) {
+        synchronized (historico) {
+            long posicao = historico.getLong(HIST_OFF_POSICAO);
+            if (posicao + tamanhoEntradaHistorico > capacidadeHistorico) {
+                // Serving keeps working; only point-in-time reads of newer versions are lost
+                versoesNaoRetidas.increment();
+                if (versoesNaoRetidas.sum() == 1) {
+                    logger.error("Feature store history full ({} bytes): new versions are no longer retained;"
+                        + " raise featurestore.historico.capacidade-bytes", capacidadeHistorico);
+                }
+                return anterior;
+            }
+            int p = (int) posicao;
+            historico.putLong(p + HIST_OFF_SLOT, slot);
+            historico.putLong(p + HIST_OFF_VERSAO, versao);
+            historico.putLong(p + HIST_OFF_ATUALIZADO, timestamp);
+            historico.putLong(p + HIST_OFF_ANTERIOR, anterior);
+            for (int i = 0; i < numFeatures; i++) {
+                historico.putDouble(p + HIST_OFF_VALORES + i * 8, valores[i]);
+            }
+            historico.putLong(HIST_OFF_POSICAO, posicao + tamanhoEntradaHistorico);
+            return posicao;
+        }
+    }
+
+    private void inicializarCabecalho(MappedByteBuffer buffer) {
+        int magic = buffer.getInt(0);
+        if (magic == 0) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSAO_SCHEMA);
+            buffer.putInt(8, numFeatures);
+            return;
+        }
+        if (magic != MAGIC || buffer.getInt(4) != VERSAO_SCHEMA || buffer.getInt(8) != numFeatures) {
+            throw new IllegalStateException("Feature store schema mismatch: expected v" + VERSAO_SCHEMA
+                + " with " + numFeatures + " features, found v" + buffer.getInt(4)
+                + " with " + buffer.getInt(8));
+        }
+    }
+
+    private void reconstruirIndice() {
+        int alocados = vetores.getInt(CAB_SLOTS_ALOCADOS);
+        // files written before the count was kept end at the first empty slot
+        boolean semContagem = alocados == 0;
+        int limite = semContagem ? capacidade : Math.min(alocados, capacidade);
+        for (int slot = 0; slot < limite; slot++) {
+            int base = offsetSlot(slot);
+            int len = vetores.getInt(base + OFF_CHAVE_LEN);
+            if (len == 0) {
+                if (semContagem) {
+                    break;
+                }
+                // allocated by a writer that died before storing the key
+                continue;
+            }
+            byte[] chave = new byte[len];
+            for (int i = 0; i < len; i++) {
+                chave[i] = vetores.get(base + OFF_CHAVE + i);
+            }
+            // An odd sequence means the process died mid-write; the history log
+            // holds the last complete version, so restore from it
+            long seq = vetores.getLong(base + OFF_SEQ);
+            if ((seq & 1) != 0) {
+                restaurarDoHistorico(base);
+                vetores.putLong(base + OFF_SEQ, seq + 1);
+            }
+            indice.put(new String(chave, StandardCharsets.UTF_8), slot);
+            proximoSlot.set(slot + 1);
+        }
+        if (!semContagem) {
+            proximoSlot.set(limite);
+        } else if (proximoSlot.get() > 0) {
+            vetores.putInt(CAB_SLOTS_ALOCADOS, proximoSlot.get());
+        }
+    }
+
+    private void carregarOrigens() {
+        for (int i = 0; i < MAX_ORIGENS; i++) {
+            int len = offsets.getInt(i * TAMANHO_ORIGEM);
+            if (len == 0) {
+                break;
+            }
+            byte[] nome = new byte[len];
+            offsets.get(i * TAMANHO_ORIGEM + 4, nome);
+            origens.put(new String(nome, StandardCharsets.UTF_8), i);
+        }
+    }
+
+    private int posicaoOffset(String topico, int particao) {
+        if (particao < 0 || particao >= MAX_PARTICOES) {
+            throw new IllegalArgumentException("Partition " + particao + " of " + topico
+                + " beyond the feature store offset table (" + MAX_PARTICOES + ")");
+        }
+        int origem = origens.computeIfAbsent(topico, this::registrarOrigem);
+        return origem * TAMANHO_ORIGEM + 4 + MAX_NOME_ORIGEM + particao * 8;
+    }
+
+    private int registrarOrigem(String topico) {
+        byte[] nome = topico.getBytes(StandardCharsets.UTF_8);
+        if (nome.length > MAX_NOME_ORIGEM) {
+            throw new IllegalArgumentException("Topic name too long for feature store: " + topico);
+        }
+        synchronized (offsets) {
+            for (int origem = 0; origem < MAX_ORIGENS; origem++) {
+                if (offsets.getInt(origem * TAMANHO_ORIGEM) == 0) {
+                    offsets.put(origem * TAMANHO_ORIGEM + 4, nome);
+                    offsets.putInt(origem * TAMANHO_ORIGEM, nome.length);
+                    return origem;
+                }
+            }
+        }
+        throw new IllegalStateException("Feature store offset table full: " + MAX_ORIGENS + " topics");
+    }
+
+    private void restaurarDoHistorico(int base) {
+        long offset = vetores.getLong(base + OFF_HISTORICO);
+        if (offset < CABECALHO) {
+            return;
+        }
+        int p = (int) offset;
+        vetores.putLong(base + OFF_VERSAO, historico.getLong(p + HIST_OFF_VERSAO));
+        vetores.putLong(base + OFF_ATUALIZADO, historico.getLong(p + HIST_OFF_ATUALIZADO));
+        for (int i = 0; i < numFeatures; i++) {
+            vetores.putDouble(base + OFF_VALORES + i * 8, historico.getDouble(p + HIST_OFF_VALORES + i * 8));
+        }
+    }
+
+    private int offsetSlot(int slot) {
+        return CABECALHO + slot * tamanhoSlot;
+    }
+
+    private Object lockDe(String beneficiarioId) {
+        return locks[(beneficiarioId.hashCode() & 0x7fffffff) % STRIPES];
+    }
+}
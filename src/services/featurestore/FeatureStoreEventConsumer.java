@@ -0,0 +1,223 @@
+package br.com.austa.experiencia.service.featurestore;
+
+import br.com.austa.experiencia.service.kafka.ReposicaoTopico;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Map;
+
+/**
+ * Feature Store Event Consumer
+ *
+ * Keeps {@link FeatureStore} up to date from the events the processes already
+ * publish, so predictive delegates never recompute aggregates from entities:
+ * - nps-feedback (DashboardService.atualizarNPS)
+ * - jornada-concluida (JornadaService.consolidarDesfechos)
+ * - AutorizacaoProcessada on austa.autorizacao (KafkaPublisherService)
+ *
+ * Each event is applied as one incremental update, producing one new version.
+ *
+ * Every instance keeps its own store, so each consumes every partition of the
+ * three topics under its own group from the beginning; the store records the
+ * offset applied per topic and partition and skips events it already holds
+ * after a restart. Until the three replays reach the end offsets read at
+ * startup the store reports itself not replicated and delegates fall back to
+ * their own queries. A new instance only rebuilds what the topics' retention
+ * still holds.
+ */
+@Component("featureStoreEventConsumer")
+public class FeatureStoreEventConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeatureStoreEventConsumer.class);
+
+    private static final ZoneId FUSO = ZoneId.of("America/Sao_Paulo");
+
+    private static final String TOPICO_NPS = "nps-feedback";
+    private static final String TOPICO_JORNADAS = "jornada-concluida";
+    private static final String TOPICO_AUTORIZACOES = "austa.autorizacao";
+
+    @Autowired
+    private FeatureStore featureStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private KafkaAdmin kafkaAdmin;
+
+    private ReposicaoTopico reposicaoNps;
+    private ReposicaoTopico reposicaoJornadas;
+    private ReposicaoTopico reposicaoAutorizacoes;
+
+    @PostConstruct
+    public void iniciar() {
+        reposicaoNps = ReposicaoTopico.iniciar(kafkaAdmin, TOPICO_NPS);
+        reposicaoJornadas = ReposicaoTopico.iniciar(kafkaAdmin, TOPICO_JORNADAS);
+        reposicaoAutorizacoes = ReposicaoTopico.iniciar(kafkaAdmin, TOPICO_AUTORIZACOES);
+        featureStore.setReplicado(replicado());
+    }
+
+    @KafkaListener(topics = TOPICO_NPS,
+                   groupId = "#{'${featurestore.kafka.group-id:feature-store}-nps-' + T(java.util.UUID).randomUUID()}",
+                   properties = "auto.offset.reset=earliest")
+    public void onNpsFeedback(ConsumerRecord<String, String> registro) {
+        try {
+            Map<String, Object> evento = ler(registro.value());
+            String beneficiarioId = beneficiario(evento);
+            Number score = (Number) evento.get("score");
+            if (beneficiarioId == null || score == null) {
+                logger.warn("Ignoring nps-feedback event without beneficiarioId/score");
+                return;
+            }
+            aplicarNps(registro, beneficiarioId, timestamp(evento, registro), score.intValue());
+        } finally {
+            // a record that keeps failing is skipped by the error handler; the replay must still end
+            avancar(reposicaoNps, registro);
+        }
+    }
+
+    @KafkaListener(topics = TOPICO_JORNADAS,
+                   groupId = "#{'${featurestore.kafka.group-id:feature-store}-jornadas-' + T(java.util.UUID).randomUUID()}",
+                   properties = "auto.offset.reset=earliest")
+    public void onJornadaConcluida(ConsumerRecord<String, String> registro) {
+        try {
+            aplicarJornada(registro);
+        } finally {
+            // a record that keeps failing is skipped by the error handler; the replay must still end
+            avancar(reposicaoJornadas, registro);
+        }
+    }
+
+    @KafkaListener(topics = TOPICO_AUTORIZACOES,
+                   groupId = "#{'${featurestore.kafka.group-id:feature-store}-autorizacoes-' + T(java.util.UUID).randomUUID()}",
+                   properties = "auto.offset.reset=earliest")
+    public void onAutorizacao(ConsumerRecord<String, String> registro) {
+        try {
+            aplicarAutorizacao(registro);
+        } finally {
+            // a record that keeps failing is skipped by the error handler; the replay must still end
+            avancar(reposicaoAutorizacoes, registro);
+        }
+    }
+
+    private void aplicarJornada(ConsumerRecord<String, String> registro) {
+        Map<String, Object> evento = ler(registro.value());
+        String beneficiarioId = beneficiario(evento);
+        if (beneficiarioId == null) {
+            logger.warn("Ignoring jornada-concluida event without beneficiarioId");
+            return;
+        }
+        long ts = timestamp(evento, registro);
+        boolean resolvido = !Boolean.FALSE.equals(evento.get("resolvido"));
+        boolean slaViolado = Boolean.FALSE.equals(evento.get("slaAtendido"));
+        Number tempoTotal = (Number) evento.get("tempoTotal");
+
+        featureStore.aplicar(registro.topic(), registro.partition(), registro.offset(), beneficiarioId, ts, v -> {
+            v[Feature.JORNADAS_CONCLUIDAS.ordinal()] += 1;
+            if (!resolvido) v[Feature.JORNADAS_NAO_RESOLVIDAS.ordinal()] += 1;
+            if (slaViolado) v[Feature.JORNADAS_SLA_VIOLADO.ordinal()] += 1;
+            if (tempoTotal != null) v[Feature.JORNADAS_TEMPO_TOTAL_MINUTOS.ordinal()] += tempoTotal.doubleValue();
+            v[Feature.ULTIMA_JORNADA_EPOCH_DAY.ordinal()] = epochDay(ts);
+        });
+    }
+
+    private void aplicarAutorizacao(ConsumerRecord<String, String> registro) {
+        Map<String, Object> evento = ler(registro.value());
+        if (!"AutorizacaoProcessada".equals(evento.get("eventoTipo"))) {
+            return;
+        }
+        String beneficiarioId = beneficiario(evento);
+        if (beneficiarioId == null) {
+            logger.warn("Ignoring AutorizacaoProcessada event {} without beneficiarioId", evento.get("eventoId"));
+            return;
+        }
+        Map<String, Object> payload = payload(evento);
+        long ts = timestamp(evento, registro);
+        boolean negada = "NEGADA".equals(payload.get("decisaoAutorizacao"));
+        Number valor = (Number) payload.get("valorProcedimento");
+
+        featureStore.aplicar(registro.topic(), registro.partition(), registro.offset(), beneficiarioId, ts, v -> {
+            v[Feature.AUTORIZACOES_TOTAL.ordinal()] += 1;
+            if (negada) v[Feature.AUTORIZACOES_NEGADAS.ordinal()] += 1;
+            if (valor != null) v[Feature.AUTORIZACOES_VALOR_SOMA.ordinal()] += valor.doubleValue();
+            v[Feature.ULTIMA_AUTORIZACAO_EPOCH_DAY.ordinal()] = epochDay(ts);
+        });
+    }
+
+    private void aplicarNps(ConsumerRecord<String, String> registro, String beneficiarioId, long ts, int score) {
+        featureStore.aplicar(registro.topic(), registro.partition(), registro.offset(), beneficiarioId, ts, v -> {
+            v[Feature.NPS_PENULTIMO.ordinal()] = v[Feature.NPS_ULTIMO.ordinal()];
+            v[Feature.NPS_ULTIMO.ordinal()] = score;
+            v[Feature.NPS_TOTAL_RESPOSTAS.ordinal()] += 1;
+            v[Feature.NPS_SOMA.ordinal()] += score;
+            if (score <= 6) v[Feature.NPS_DETRATORES.ordinal()] += 1;
+        });
+    }
+
+    private void avancar(ReposicaoTopico reposicao, ConsumerRecord<String, String> registro) {
+        if (reposicao.avancar(registro.partition(), registro.offset()) && replicado()) {
+            featureStore.setReplicado(true);
+        }
+    }
+
+    private boolean replicado() {
+        return reposicaoNps.isConcluida() && reposicaoJornadas.isConcluida() && reposicaoAutorizacoes.isConcluida();
+    }
+
+    private Map<String, Object> ler(String mensagem) {
+        try {
+            return objectMapper.readValue(mensagem, new TypeReference<Map<String, Object>>() {});
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid feature store event: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Envelope events carry the business fields under "payload"; plain events
+     * carry them at the top level.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> payload(Map<String, Object> evento) {
+        Object payload = evento.get("payload");
+        return payload instanceof Map ? (Map<String, Object>) payload : evento;
+    }
+
+    private String beneficiario(Map<String, Object> evento) {
+        Object id = evento.get("beneficiarioId");
+        if (id == null) {
+            id = payload(evento).get("beneficiarioId");
+        }
+        return id != null ? id.toString() : null;
+    }
+
+    /**
+     * Event time, or the record's own timestamp so a replay rebuilds the same versions.
+     */
+    private long timestamp(Map<String, Object> evento, ConsumerRecord<String, String> registro) {
+        Object ts = evento.get("timestamp");
+        if (ts == null) {
+            return registro.timestamp();
+        }
+        try {
+            return Instant.parse(ts.toString()).toEpochMilli();
+        } catch (Exception e) {
+            // LocalDateTime.toString() as published by the domain services
+            return java.time.LocalDateTime.parse(ts.toString()).atZone(FUSO).toInstant().toEpochMilli();
+        }
+    }
+
+    private static double epochDay(long epochMillis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(epochMillis), FUSO).toEpochDay();
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.austa.experiencia.service.featurestore;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the {@link FeatureStore} state through Micrometer:
+ *
+ * - {@code austa.featurestore.beneficiarios}: vectors held
+ * - {@code austa.featurestore.historico.bytes.livres}: room left in historico.dat
+ * - {@code austa.featurestore.historico.versoes.nao.retidas}: versions served
+ *   but lost for point-in-time reads because the history was full; alert on
+ *   any increase
+ * - {@code austa.featurestore.replicado}: 0 while the source topics are replayed
+ */
+@Component
+public class FeatureStoreMeterBinder implements MeterBinder {
+
+    private final FeatureStore featureStore;
+
+    @Autowired
+    public FeatureStoreMeterBinder(FeatureStore featureStore) {
+        this.featureStore = featureStore;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("austa.featurestore.beneficiarios", featureStore, FeatureStore::tamanho)
+            .register(meterRegistry);
+        Gauge.builder("austa.featurestore.historico.bytes.livres", featureStore,
+                FeatureStore::getBytesLivresHistorico)
+            .baseUnit("bytes").register(meterRegistry);
+        FunctionCounter.builder("austa.featurestore.historico.versoes.nao.retidas", featureStore,
+                FeatureStore::getVersoesNaoRetidas)
+            .register(meterRegistry);
+        Gauge.builder("austa.featurestore.replicado", featureStore, f -> f.isReplicado() ? 1 : 0)
+            .register(meterRegistry);
+    }
+}
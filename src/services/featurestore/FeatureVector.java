@@ -0,0 +1,108 @@
+package br.com.austa.experiencia.service.featurestore;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of one beneficiary's feature vector at a given version.
+ *
+ * Derived features (npsMedio, tendenciaNps, ...) are computed from the raw
+ * counters so that training and serving apply exactly the same formulas.
+ */
+public final class FeatureVector {
+
+    private final String beneficiarioId;
+    private final long versao;
+    private final long atualizadoEm;
+    private final double[] valores;
+
+    FeatureVector(String beneficiarioId, long versao, long atualizadoEm, double[] valores) {
+        this.beneficiarioId = beneficiarioId;
+        this.versao = versao;
+        this.atualizadoEm = atualizadoEm;
+        this.valores = valores;
+    }
+
+    public String getBeneficiarioId() {
+        return beneficiarioId;
+    }
+
+    /**
+     * Monotonic per-beneficiary version; every applied event increments it.
+     */
+    public long getVersao() {
+        return versao;
+    }
+
+    public long getAtualizadoEm() {
+        return atualizadoEm;
+    }
+
+    public double get(Feature feature) {
+        return valores[feature.ordinal()];
+    }
+
+    public Double getNpsMedio() {
+        double total = get(Feature.NPS_TOTAL_RESPOSTAS);
+        return total > 0 ? get(Feature.NPS_SOMA) / total : null;
+    }
+
+    /**
+     * Same rule ProcessarRespostaNpsDelegate used with its last-two query:
+     * MELHORANDO / PIORANDO / ESTAVEL, or null with fewer than two answers.
+     */
+    public String getTendenciaNps() {
+        if (get(Feature.NPS_TOTAL_RESPOSTAS) < 2) {
+            return null;
+        }
+        int comparacao = Double.compare(get(Feature.NPS_ULTIMO), get(Feature.NPS_PENULTIMO));
+        if (comparacao > 0) return "MELHORANDO";
+        if (comparacao < 0) return "PIORANDO";
+        return "ESTAVEL";
+    }
+
+    /**
+     * Days since the last authorization, the closest event-driven proxy for
+     * "dias desde última compra". Null when no authorization was seen.
+     */
+    public Integer getDiasDesdeUltimaUtilizacao(LocalDate hoje) {
+        double dia = get(Feature.ULTIMA_AUTORIZACAO_EPOCH_DAY);
+        if (dia <= 0) {
+            return null;
+        }
+        return (int) (hoje.toEpochDay() - (long) dia);
+    }
+
+    public int getJornadasNaoResolvidas() {
+        return (int) get(Feature.JORNADAS_NAO_RESOLVIDAS);
+    }
+
+    public double getTaxaNegativas() {
+        double total = get(Feature.AUTORIZACOES_TOTAL);
+        return total > 0 ? get(Feature.AUTORIZACOES_NEGADAS) / total : 0.0;
+    }
+
+    /**
+     * Raw and derived features keyed by name, plus the version under
+     * "featureVersao" so a training row can be traced back to the store.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> mapa = new HashMap<>();
+        for (Feature feature : Feature.VALORES) {
+            mapa.put(feature.name(), valores[feature.ordinal()]);
+        }
+        mapa.put("npsMedio", getNpsMedio());
+        mapa.put("tendenciaNps", getTendenciaNps());
+        mapa.put("taxaNegativas", getTaxaNegativas());
+        mapa.put("featureVersao", versao);
+        mapa.put("featureSchema", FeatureStore.VERSAO_SCHEMA);
+        return mapa;
+    }
+
+    @Override
+    public String toString() {
+        return "FeatureVector{" + beneficiarioId + " v" + versao + " " + Arrays.toString(valores) + "}";
+    }
+}
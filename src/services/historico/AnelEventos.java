@@ -0,0 +1,93 @@
+package br.com.austa.experiencia.service.historico;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded multi-producer, single-consumer ring buffer.
+ *
+ * Producers claim a sequence with a CAS, fill the slot and publish it by
+ * storing the sequence in the slot's marker; the consumer reads slots in
+ * sequence order while their marker matches. Producers wait (parking
+ * briefly) only when the ring is full, so the engine slows down rather than
+ * losing history.
+ */
+final class AnelEventos<T> {
+
+    private final Object[] slots;
+    private final AtomicLongArray publicados;
+    private final int mascara;
+    private final AtomicLong proximo = new AtomicLong();
+    private volatile long consumidos;
+    private final LongAdder esperasCheio = new LongAdder();
+
+    /**
+     * @param capacidade rounded up to a power of two
+     */
+    AnelEventos(int capacidade) {
+        int tamanho = Integer.highestOneBit(Math.max(2, capacidade - 1)) << 1;
+        this.slots = new Object[tamanho];
+        this.publicados = new AtomicLongArray(tamanho);
+        this.mascara = tamanho - 1;
+        for (int i = 0; i < tamanho; i++) {
+            publicados.set(i, -1);
+        }
+    }
+
+    void publicar(T item) {
+        long sequencia;
+        while (true) {
+            sequencia = proximo.get();
+            if (sequencia - consumidos >= slots.length) {
+                esperasCheio.increment();
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+            } else if (proximo.compareAndSet(sequencia, sequencia + 1)) {
+                break;
+            }
+        }
+        int indice = (int) sequencia & mascara;
+        slots[indice] = item;
+        publicados.set(indice, sequencia);
+    }
+
+    /**
+     * Hands up to {@code maximo} published items to {@code destino}, in order.
+     * Consumer thread only.
+     *
+     * @return number of items drained
+     */
+    @SuppressWarnings("unchecked")
+    int drenar(Consumer<T> destino, int maximo) {
+        long sequencia = consumidos;
+        int drenados = 0;
+        while (drenados < maximo) {
+            int indice = (int) sequencia & mascara;
+            if (publicados.get(indice) != sequencia) {
+                break;
+            }
+            T item = (T) slots[indice];
+            slots[indice] = null;
+            destino.accept(item);
+            sequencia++;
+            drenados++;
+        }
+        consumidos = sequencia;
+        return drenados;
+    }
+
+    int getCapacidade() {
+        return slots.length;
+    }
+
+    long getPendentes() {
+        return proximo.get() - consumidos;
+    }
+
+    long getEsperasCheio() {
+        return esperasCheio.sum();
+    }
+}
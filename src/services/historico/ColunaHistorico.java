@@ -0,0 +1,60 @@
+package br.com.austa.experiencia.service.historico;
+
+/**
+ * Columns of a columnar history part and how each one is encoded.
+ */
+enum ColunaHistorico {
+    ID(Codificacao.TEXTO),
+    EVENT_TYPE(Codificacao.DICIONARIO),
+    DEFINICAO_KEY(Codificacao.DICIONARIO),
+    DEFINICAO_ID(Codificacao.DICIONARIO),
+    INSTANCIA(Codificacao.TEXTO),
+    ELEMENTO(Codificacao.DICIONARIO),
+    ELEMENTO_TIPO(Codificacao.DICIONARIO),
+    TIMESTAMP(Codificacao.DELTA),
+    DURACAO(Codificacao.VARINT),
+    DETALHE(Codificacao.DICIONARIO);
+
+    enum Codificacao {
+        /** distinct values once, then one varint code per row (0 = null) */
+        DICIONARIO,
+        /** one length-prefixed UTF-8 value per row */
+        TEXTO,
+        /** zig-zag varint of the difference to the previous row */
+        DELTA,
+        /** zig-zag varint per row */
+        VARINT
+    }
+
+    final Codificacao codificacao;
+
+    ColunaHistorico(Codificacao codificacao) {
+        this.codificacao = codificacao;
+    }
+
+    boolean isTexto() {
+        return codificacao == Codificacao.DICIONARIO || codificacao == Codificacao.TEXTO;
+    }
+
+    String valor(EventoHistorico evento) {
+        switch (this) {
+            case ID: return evento.getId();
+            case EVENT_TYPE: return evento.getEventType();
+            case DEFINICAO_KEY: return evento.getDefinicaoKey();
+            case DEFINICAO_ID: return evento.getDefinicaoId();
+            case INSTANCIA: return evento.getProcessInstanceId();
+            case ELEMENTO: return evento.getElemento();
+            case ELEMENTO_TIPO: return evento.getElementoTipo();
+            case DETALHE: return evento.getDetalhe();
+            default: throw new IllegalStateException(name() + " is not a text column");
+        }
+    }
+
+    long numero(EventoHistorico evento) {
+        switch (this) {
+            case TIMESTAMP: return evento.getTimestamp();
+            case DURACAO: return evento.getDuracaoMs();
+            default: throw new IllegalStateException(name() + " is not a numeric column");
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package br.com.austa.experiencia.service.historico;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Consultas Historico - the operations team's history views, answered from
+ * the columnar log instead of the engine's history tables
+ *
+ * Each view decodes only the columns it needs from the parts that overlap
+ * the requested period:
+ * - {@link #instanciasPorDefinicao}: process instances started / ended per definition
+ * - {@link #duracoesAtividades}: execution count, mean, p50, p95 and max per activity
+ * - {@link #incidentes}: incidents raised in the period and their resolution
+ */
+@Component("consultasHistorico")
+public class ConsultasHistorico {
+
+    private final LogHistoricoColunar log;
+
+    @Autowired
+    public ConsultasHistorico(LogHistoricoColunar log) {
+        this.log = log;
+    }
+
+    public List<ResumoDefinicao> instanciasPorDefinicao(Instant de, Instant ate) throws IOException {
+        Map<String, ResumoDefinicao> resumos = new TreeMap<>();
+        log.lerPartes(TipoEventoHistorico.PROCESSO, de, ate, partes -> {
+            for (ParteColunar parte : partes) {
+                long[] timestamps = parte.numeros(ColunaHistorico.TIMESTAMP);
+                String[] eventTypes = parte.texto(ColunaHistorico.EVENT_TYPE);
+                String[] chaves = parte.texto(ColunaHistorico.DEFINICAO_KEY);
+                String[] estados = parte.texto(ColunaHistorico.ELEMENTO_TIPO);
+                long[] duracoes = parte.numeros(ColunaHistorico.DURACAO);
+                for (int i = 0; i < timestamps.length; i++) {
+                    if (!dentro(timestamps[i], de, ate) || chaves[i] == null) {
+                        continue;
+                    }
+                    if ("start".equals(eventTypes[i])) {
+                        resumos.computeIfAbsent(chaves[i], ResumoDefinicao::new).iniciada();
+                    } else if ("end".equals(eventTypes[i])) {
+                        resumos.computeIfAbsent(chaves[i], ResumoDefinicao::new).finalizada(estados[i], duracoes[i]);
+                    }
+                }
+            }
+            return null;
+        });
+        return new ArrayList<>(resumos.values());
+    }
+
+    /**
+     * @param definicaoKey process definition key, or null for every definition
+     * @return slowest activities (by p95) first
+     */
+    public List<DuracaoAtividade> duracoesAtividades(String definicaoKey, Instant de, Instant ate) throws IOException {
+        Map<String, ListaDuracoes> porAtividade = new LinkedHashMap<>();
+        log.lerPartes(TipoEventoHistorico.ATIVIDADE, de, ate, partes -> {
+            for (ParteColunar parte : partes) {
+                long[] timestamps = parte.numeros(ColunaHistorico.TIMESTAMP);
+                String[] eventTypes = parte.texto(ColunaHistorico.EVENT_TYPE);
+                String[] chaves = parte.texto(ColunaHistorico.DEFINICAO_KEY);
+                String[] atividades = parte.texto(ColunaHistorico.ELEMENTO);
+                long[] duracoes = parte.numeros(ColunaHistorico.DURACAO);
+                for (int i = 0; i < timestamps.length; i++) {
+                    if (!dentro(timestamps[i], de, ate) || duracoes[i] < 0 || !"end".equals(eventTypes[i])
+                            || (definicaoKey != null && !definicaoKey.equals(chaves[i]))) {
+                        continue;
+                    }
+                    String chave = chaves[i];
+                    String atividade = atividades[i];
+                    porAtividade.computeIfAbsent(chave + '\u0000' + atividade,
+                        k -> new ListaDuracoes(chave, atividade)).adicionar(duracoes[i]);
+                }
+            }
+            return null;
+        });
+        List<DuracaoAtividade> resultado = new ArrayList<>(porAtividade.size());
+        for (ListaDuracoes lista : porAtividade.values()) {
+            resultado.add(lista.resumir());
+        }
+        resultado.sort(Comparator.comparingLong(DuracaoAtividade::getP95Ms).reversed());
+        return resultado;
+    }
+
+    /**
+     * Incidents created in the period, oldest first; with {@code apenasAbertos}
+     * only those not resolved or deleted since.
+     */
+    public List<IncidenteHistorico> incidentes(Instant de, Instant ate, boolean apenasAbertos) throws IOException {
+        Map<String, IncidenteHistorico> porId = new LinkedHashMap<>();
+        log.lerPartes(TipoEventoHistorico.INCIDENTE, de, null, partes -> {
+            List<long[]> ordem = new ArrayList<>();
+            List<String[][]> colunas = new ArrayList<>();
+            for (int p = 0; p < partes.size(); p++) {
+                ParteColunar parte = partes.get(p);
+                long[] timestamps = parte.numeros(ColunaHistorico.TIMESTAMP);
+                colunas.add(new String[][] {
+                    parte.texto(ColunaHistorico.ID),
+                    parte.texto(ColunaHistorico.EVENT_TYPE),
+                    parte.texto(ColunaHistorico.ELEMENTO_TIPO),
+                    parte.texto(ColunaHistorico.DETALHE),
+                    parte.texto(ColunaHistorico.DEFINICAO_KEY),
+                    parte.texto(ColunaHistorico.INSTANCIA),
+                    parte.texto(ColunaHistorico.ELEMENTO)
+                });
+                for (int i = 0; i < timestamps.length; i++) {
+                    ordem.add(new long[] {timestamps[i], p, i});
+                }
+            }
+            ordem.sort(Comparator.comparingLong(linha -> linha[0]));
+            for (long[] linha : ordem) {
+                String[][] c = colunas.get((int) linha[1]);
+                int i = (int) linha[2];
+                Instant quando = Instant.ofEpochMilli(linha[0]);
+                String id = c[0][i];
+                if ("create".equals(c[1][i])) {
+                    if (dentro(linha[0], de, ate)) {
+                        porId.put(id, new IncidenteHistorico(id, c[2][i], c[3][i], c[4][i], c[5][i], c[6][i], quando));
+                    }
+                } else if ("resolve".equals(c[1][i]) || "delete".equals(c[1][i])) {
+                    IncidenteHistorico incidente = porId.get(id);
+                    if (incidente != null) {
+                        incidente.encerrar(quando);
+                    }
+                }
+            }
+            return null;
+        });
+        List<IncidenteHistorico> resultado = new ArrayList<>();
+        for (IncidenteHistorico incidente : porId.values()) {
+            if (!apenasAbertos || incidente.isAberto()) {
+                resultado.add(incidente);
+            }
+        }
+        return resultado;
+    }
+
+    private static boolean dentro(long timestamp, Instant de, Instant ate) {
+        return (de == null || timestamp >= de.toEpochMilli()) && (ate == null || timestamp < ate.toEpochMilli());
+    }
+
+    private static final class ListaDuracoes {
+        final String definicaoKey;
+        final String activityId;
+        long[] valores = new long[16];
+        int tamanho;
+
+        ListaDuracoes(String definicaoKey, String activityId) {
+            this.definicaoKey = definicaoKey;
+            this.activityId = activityId;
+        }
+
+        void adicionar(long duracao) {
+            if (tamanho == valores.length) {
+                valores = Arrays.copyOf(valores, tamanho * 2);
+            }
+            valores[tamanho++] = duracao;
+        }
+
+        DuracaoAtividade resumir() {
+            long[] ordenadas = Arrays.copyOf(valores, tamanho);
+            Arrays.sort(ordenadas);
+            return new DuracaoAtividade(definicaoKey, activityId, ordenadas);
+        }
+    }
+}
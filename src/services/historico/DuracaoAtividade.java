@@ -0,0 +1,80 @@
+package br.com.austa.experiencia.service.historico;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Duration statistics of one activity over a period.
+ */
+public final class DuracaoAtividade {
+
+    private final String definicaoKey;
+    private final String activityId;
+    private final long execucoes;
+    private final double mediaMs;
+    private final long p50Ms;
+    private final long p95Ms;
+    private final long maximoMs;
+
+    DuracaoAtividade(String definicaoKey, String activityId, long[] duracoesOrdenadas) {
+        this.definicaoKey = definicaoKey;
+        this.activityId = activityId;
+        this.execucoes = duracoesOrdenadas.length;
+        long soma = 0;
+        for (long duracao : duracoesOrdenadas) {
+            soma += duracao;
+        }
+        this.mediaMs = execucoes == 0 ? 0 : (double) soma / execucoes;
+        this.p50Ms = percentil(duracoesOrdenadas, 0.50);
+        this.p95Ms = percentil(duracoesOrdenadas, 0.95);
+        this.maximoMs = execucoes == 0 ? 0 : duracoesOrdenadas[duracoesOrdenadas.length - 1];
+    }
+
+    private static long percentil(long[] ordenadas, double quantil) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(quantil * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, indice)];
+    }
+
+    public String getDefinicaoKey() {
+        return definicaoKey;
+    }
+
+    public String getActivityId() {
+        return activityId;
+    }
+
+    public long getExecucoes() {
+        return execucoes;
+    }
+
+    public double getMediaMs() {
+        return mediaMs;
+    }
+
+    public long getP50Ms() {
+        return p50Ms;
+    }
+
+    public long getP95Ms() {
+        return p95Ms;
+    }
+
+    public long getMaximoMs() {
+        return maximoMs;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> mapa = new LinkedHashMap<>();
+        mapa.put("definicaoKey", definicaoKey);
+        mapa.put("activityId", activityId);
+        mapa.put("execucoes", execucoes);
+        mapa.put("mediaMs", Math.round(mediaMs));
+        mapa.put("p50Ms", p50Ms);
+        mapa.put("p95Ms", p95Ms);
+        mapa.put("maximoMs", maximoMs);
+        return mapa;
+    }
+}
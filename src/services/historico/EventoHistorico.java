@@ -0,0 +1,87 @@
+package br.com.austa.experiencia.service.historico;
+
+/**
+ * One history event as stored in the columnar log.
+ *
+ * The engine's event entities are copied into this immutable row on the
+ * engine thread; variable values are never copied, only the name and type.
+ *
+ * - elemento: activityId, task definition key or variable name
+ * - elementoTipo: activity type, process instance state, incident type or variable type
+ * - detalhe: incident message or delete reason
+ * - duracaoMs: -1 when the event has no duration
+ */
+public final class EventoHistorico {
+
+    private final String id;
+    private final TipoEventoHistorico tipo;
+    private final String eventType;
+    private final String definicaoKey;
+    private final String definicaoId;
+    private final String processInstanceId;
+    private final String elemento;
+    private final String elementoTipo;
+    private final long timestamp;
+    private final long duracaoMs;
+    private final String detalhe;
+
+    public EventoHistorico(String id, TipoEventoHistorico tipo, String eventType, String definicaoKey,
+                           String definicaoId, String processInstanceId, String elemento, String elementoTipo,
+                           long timestamp, long duracaoMs, String detalhe) {
+        this.id = id;
+        this.tipo = tipo;
+        this.eventType = eventType;
+        this.definicaoKey = definicaoKey;
+        this.definicaoId = definicaoId;
+        this.processInstanceId = processInstanceId;
+        this.elemento = elemento;
+        this.elementoTipo = elementoTipo;
+        this.timestamp = timestamp;
+        this.duracaoMs = duracaoMs;
+        this.detalhe = detalhe;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public TipoEventoHistorico getTipo() {
+        return tipo;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public String getDefinicaoKey() {
+        return definicaoKey;
+    }
+
+    public String getDefinicaoId() {
+        return definicaoId;
+    }
+
+    public String getProcessInstanceId() {
+        return processInstanceId;
+    }
+
+    public String getElemento() {
+        return elemento;
+    }
+
+    public String getElementoTipo() {
+        return elementoTipo;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getDuracaoMs() {
+        return duracaoMs;
+    }
+
+    public String getDetalhe() {
+        return detalhe;
+    }
+}
@@ -0,0 +1,159 @@
+package br.com.austa.experiencia.service.historico;
+
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.history.event.HistoricActivityInstanceEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoricIncidentEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoricProcessInstanceEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoricTaskInstanceEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoricVariableUpdateEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.history.handler.DbHistoryEventHandler;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Routes engine history events to the columnar log instead of the ACT_HI_* tables.
+ *
+ * - Kinds listed in {@code tiposDb} still go to the engine's
+ *   {@link DbHistoryEventHandler} (by default process instances and incidents,
+ *   which Cockpit needs); every kind goes to the columnar log
+ * - Rows are held per command context and published only once its
+ *   transaction commits, so rolled-back work leaves no history, as with the
+ *   DB tables
+ * - Variable updates are recorded by name and type only; values stay in the
+ *   runtime tables
+ */
+public class HistoricoColunarEventHandler implements HistoryEventHandler {
+
+    private final LogHistoricoColunar log;
+    private final Set<TipoEventoHistorico> tiposDb;
+    private final HistoryEventHandler db;
+    private final Clock clock;
+
+    // rows of the command contexts open on this thread, until their transaction ends
+    private final ThreadLocal<Map<CommandContext, List<EventoHistorico>>> pendentes =
+        ThreadLocal.withInitial(IdentityHashMap::new);
+
+    public HistoricoColunarEventHandler(LogHistoricoColunar log, Set<TipoEventoHistorico> tiposDb) {
+        this(log, tiposDb, new DbHistoryEventHandler(), Clock.systemUTC());
+    }
+
+    public HistoricoColunarEventHandler(LogHistoricoColunar log, Set<TipoEventoHistorico> tiposDb,
+                                        HistoryEventHandler db, Clock clock) {
+        this.log = log;
+        this.tiposDb = tiposDb.isEmpty() ? EnumSet.noneOf(TipoEventoHistorico.class) : EnumSet.copyOf(tiposDb);
+        this.db = db;
+        this.clock = clock;
+    }
+
+    @Override
+    public void handleEvent(HistoryEvent historyEvent) {
+        EventoHistorico evento = converter(historyEvent);
+        if (tiposDb.contains(evento.getTipo())) {
+            db.handleEvent(historyEvent);
+        }
+        CommandContext commandContext = Context.getCommandContext();
+        if (commandContext == null) {
+            log.publicar(evento);
+            return;
+        }
+        Map<CommandContext, List<EventoHistorico>> porContexto = pendentes.get();
+        List<EventoHistorico> eventos = porContexto.get(commandContext);
+        if (eventos == null) {
+            eventos = new ArrayList<>();
+            porContexto.put(commandContext, eventos);
+            commandContext.getTransactionContext().addTransactionListener(TransactionState.COMMITTED,
+                contexto -> publicarPendentes(commandContext));
+            commandContext.getTransactionContext().addTransactionListener(TransactionState.ROLLED_BACK,
+                contexto -> descartarPendentes(commandContext));
+        }
+        eventos.add(evento);
+    }
+
+    @Override
+    public void handleEvents(List<HistoryEvent> historyEvents) {
+        for (HistoryEvent historyEvent : historyEvents) {
+            handleEvent(historyEvent);
+        }
+    }
+
+    private void publicarPendentes(CommandContext commandContext) {
+        List<EventoHistorico> eventos = removerPendentes(commandContext);
+        if (eventos != null) {
+            log.publicar(eventos);
+        }
+    }
+
+    private void descartarPendentes(CommandContext commandContext) {
+        removerPendentes(commandContext);
+    }
+
+    private List<EventoHistorico> removerPendentes(CommandContext commandContext) {
+        Map<CommandContext, List<EventoHistorico>> porContexto = pendentes.get();
+        List<EventoHistorico> eventos = porContexto.remove(commandContext);
+        if (porContexto.isEmpty()) {
+            pendentes.remove();
+        }
+        return eventos;
+    }
+
+    EventoHistorico converter(HistoryEvent evento) {
+        if (evento instanceof HistoricProcessInstanceEventEntity) {
+            HistoricProcessInstanceEventEntity processo = (HistoricProcessInstanceEventEntity) evento;
+            String elemento = processo.getEndActivityId() != null
+                ? processo.getEndActivityId() : processo.getStartActivityId();
+            return novo(evento, TipoEventoHistorico.PROCESSO, elemento, processo.getState(),
+                instante(processo.getEndTime(), processo.getStartTime()), processo.getDurationInMillis(),
+                null);
+        }
+        if (evento instanceof HistoricActivityInstanceEventEntity) {
+            HistoricActivityInstanceEventEntity atividade = (HistoricActivityInstanceEventEntity) evento;
+            return novo(evento, TipoEventoHistorico.ATIVIDADE, atividade.getActivityId(),
+                atividade.getActivityType(), instante(atividade.getEndTime(), atividade.getStartTime()),
+                atividade.getDurationInMillis(), null);
+        }
+        if (evento instanceof HistoricTaskInstanceEventEntity) {
+            HistoricTaskInstanceEventEntity tarefa = (HistoricTaskInstanceEventEntity) evento;
+            return novo(evento, TipoEventoHistorico.TAREFA, tarefa.getTaskDefinitionKey(), tarefa.getAssignee(),
+                instante(tarefa.getEndTime(), tarefa.getStartTime()), tarefa.getDurationInMillis(),
+                tarefa.getDeleteReason());
+        }
+        if (evento instanceof HistoricIncidentEventEntity) {
+            HistoricIncidentEventEntity incidente = (HistoricIncidentEventEntity) evento;
+            return novo(evento, TipoEventoHistorico.INCIDENTE, incidente.getActivityId(),
+                incidente.getIncidentType(), instante(incidente.getEndTime(), incidente.getCreateTime()), null,
+                incidente.getIncidentMessage());
+        }
+        if (evento instanceof HistoricVariableUpdateEventEntity) {
+            HistoricVariableUpdateEventEntity variavel = (HistoricVariableUpdateEventEntity) evento;
+            return novo(evento, TipoEventoHistorico.VARIAVEL, variavel.getVariableName(),
+                variavel.getSerializerName(), instante(variavel.getTimestamp(), null), null, null);
+        }
+        return novo(evento, TipoEventoHistorico.OUTRO, null, evento.getClass().getSimpleName(), clock.millis(),
+            null, null);
+    }
+
+    private EventoHistorico novo(HistoryEvent evento, TipoEventoHistorico tipo, String elemento,
+                                 String elementoTipo, long timestamp, Long duracaoMs, String detalhe) {
+        return new EventoHistorico(evento.getId(), tipo, evento.getEventType(), evento.getProcessDefinitionKey(),
+            evento.getProcessDefinitionId(), evento.getProcessInstanceId(), elemento, elementoTipo, timestamp,
+            duracaoMs == null ? -1 : duracaoMs, detalhe);
+    }
+
+    private long instante(Date preferida, Date alternativa) {
+        if (preferida != null) {
+            return preferida.getTime();
+        }
+        return alternativa != null ? alternativa.getTime() : clock.millis();
+    }
+}
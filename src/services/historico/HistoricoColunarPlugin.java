@@ -0,0 +1,58 @@
+package br.com.austa.experiencia.service.historico;
+
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Historico Colunar Plugin - installs {@link HistoricoColunarEventHandler}
+ * as the engine's history event handler
+ *
+ * - {@code historico.colunar.habilitado}: false keeps the stock DB history handler
+ * - {@code historico.colunar.tipos-db}: kinds still written to the ACT_HI_* tables
+ *   (comma separated {@link TipoEventoHistorico} names, empty for none)
+ *
+ * The history level is left as configured: the level decides which events
+ * the engine produces, the handler only where they are stored.
+ */
+@Component
+public class HistoricoColunarPlugin extends AbstractProcessEnginePlugin {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoricoColunarPlugin.class);
+
+    private final LogHistoricoColunar log;
+    private final boolean habilitado;
+    private final Set<TipoEventoHistorico> tiposDb;
+
+    @Autowired
+    public HistoricoColunarPlugin(LogHistoricoColunar log,
+                                  @Value("${historico.colunar.habilitado:true}") boolean habilitado,
+                                  @Value("${historico.colunar.tipos-db:PROCESSO,INCIDENTE}") String tiposDb) {
+        this.log = log;
+        this.habilitado = habilitado;
+        this.tiposDb = EnumSet.noneOf(TipoEventoHistorico.class);
+        for (String tipo : tiposDb.split(",")) {
+            if (!tipo.isBlank()) {
+                this.tiposDb.add(TipoEventoHistorico.valueOf(tipo.trim().toUpperCase(Locale.ROOT)));
+            }
+        }
+    }
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl configuration) {
+        if (!habilitado) {
+            logger.info("Columnar history disabled, engine history stays in the database");
+            return;
+        }
+        configuration.setHistoryEventHandler(new HistoricoColunarEventHandler(log, tiposDb));
+        logger.info("Engine history routed to the columnar log ({} also kept in the database)", tiposDb);
+    }
+}
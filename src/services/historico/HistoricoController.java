@@ -0,0 +1,61 @@
+package br.com.austa.experiencia.service.historico;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Operations history views over the columnar history log.
+ *
+ * GET /api/v1/historico/definicoes?de=&ate=
+ * GET /api/v1/historico/atividades/duracoes?definicaoKey=&de=&ate=
+ * GET /api/v1/historico/incidentes?de=&ate=&abertos=
+ */
+@RestController
+@RequestMapping("/api/v1/historico")
+public class HistoricoController {
+
+    private final ConsultasHistorico consultasHistorico;
+
+    @Autowired
+    public HistoricoController(ConsultasHistorico consultasHistorico) {
+        this.consultasHistorico = consultasHistorico;
+    }
+
+    @GetMapping("/definicoes")
+    public List<Map<String, Object>> definicoes(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant ate)
+            throws IOException {
+        return consultasHistorico.instanciasPorDefinicao(de, ate).stream()
+            .map(ResumoDefinicao::toMap).collect(Collectors.toList());
+    }
+
+    @GetMapping("/atividades/duracoes")
+    public List<Map<String, Object>> duracoesAtividades(
+            @RequestParam(required = false) String definicaoKey,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant ate)
+            throws IOException {
+        return consultasHistorico.duracoesAtividades(definicaoKey, de, ate).stream()
+            .map(DuracaoAtividade::toMap).collect(Collectors.toList());
+    }
+
+    @GetMapping("/incidentes")
+    public List<Map<String, Object>> incidentes(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant ate,
+            @RequestParam(defaultValue = "false") boolean abertos) throws IOException {
+        return consultasHistorico.incidentes(de, ate, abertos).stream()
+            .map(IncidenteHistorico::toMap).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,84 @@
+package br.com.austa.experiencia.service.historico;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An incident raised within a period and, if it was, when it was resolved.
+ */
+public final class IncidenteHistorico {
+
+    private final String id;
+    private final String tipoIncidente;
+    private final String mensagem;
+    private final String definicaoKey;
+    private final String processInstanceId;
+    private final String activityId;
+    private final Instant abertoEm;
+    private Instant encerradoEm;
+
+    IncidenteHistorico(String id, String tipoIncidente, String mensagem, String definicaoKey,
+                       String processInstanceId, String activityId, Instant abertoEm) {
+        this.id = id;
+        this.tipoIncidente = tipoIncidente;
+        this.mensagem = mensagem;
+        this.definicaoKey = definicaoKey;
+        this.processInstanceId = processInstanceId;
+        this.activityId = activityId;
+        this.abertoEm = abertoEm;
+    }
+
+    void encerrar(Instant quando) {
+        encerradoEm = quando;
+    }
+
+    public boolean isAberto() {
+        return encerradoEm == null;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTipoIncidente() {
+        return tipoIncidente;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+
+    public String getDefinicaoKey() {
+        return definicaoKey;
+    }
+
+    public String getProcessInstanceId() {
+        return processInstanceId;
+    }
+
+    public String getActivityId() {
+        return activityId;
+    }
+
+    public Instant getAbertoEm() {
+        return abertoEm;
+    }
+
+    public Instant getEncerradoEm() {
+        return encerradoEm;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> mapa = new LinkedHashMap<>();
+        mapa.put("id", id);
+        mapa.put("tipoIncidente", tipoIncidente);
+        mapa.put("mensagem", mensagem);
+        mapa.put("definicaoKey", definicaoKey);
+        mapa.put("processInstanceId", processInstanceId);
+        mapa.put("activityId", activityId);
+        mapa.put("abertoEm", abertoEm.toString());
+        mapa.put("encerradoEm", encerradoEm == null ? null : encerradoEm.toString());
+        return mapa;
+    }
+}
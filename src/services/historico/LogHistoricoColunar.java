@@ -0,0 +1,384 @@
+package br.com.austa.experiencia.service.historico;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Log Historico Colunar - append-only columnar log of engine history events
+ *
+ * Events are published into an {@link AnelEventos} ring buffer by the
+ * engine threads (after their transaction commits) and written by a single
+ * background thread, so history costs the engine one slot write per event.
+ *
+ * Layout: {diretorio}/{tipo}/dia=YYYY-MM-DD/*.col, one {@link ParteColunar}
+ * per flush. Rows are buffered per kind and UTC day and flushed when a
+ * buffer reaches {@code historico.colunar.linhas-por-parte} rows or every
+ * {@code historico.colunar.flush-ms}. Parts of past days are merged hourly
+ * into large parts, so a day ends up as a few files per kind.
+ *
+ * Queries see flushed parts only; {@link #descarregar()} forces a flush.
+ */
+@Component("logHistoricoColunar")
+public class LogHistoricoColunar {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogHistoricoColunar.class);
+
+    private static final int LINHAS_POR_PARTE_COMPACTADA = 1_000_000;
+    private static final long INTERVALO_COMPACTACAO_MS = TimeUnit.HOURS.toMillis(1);
+    private static final String PREFIXO_DIA = "dia=";
+
+    private final Path diretorio;
+    private final int linhasPorParte;
+    private final long flushMs;
+    private final Clock clock;
+    private final AnelEventos<EventoHistorico> anel;
+
+    // consumer thread only
+    private final Map<Particao, List<EventoHistorico>> buffers = new HashMap<>();
+    private long ultimoFlush;
+    private long ultimaCompactacao;
+
+    private final ReadWriteLock lockPartes = new ReentrantReadWriteLock();
+    private final AtomicLong sequenciaParte = new AtomicLong();
+    private final AtomicLong descargasPedidas = new AtomicLong();
+    private volatile long descargasFeitas;
+
+    private final LongAdder eventosRecebidos = new LongAdder();
+    private final LongAdder eventosGravados = new LongAdder();
+    private final LongAdder partesGravadas = new LongAdder();
+    private final LongAdder falhasGravacao = new LongAdder();
+
+    private volatile boolean ativo;
+    private Thread consumidor;
+
+    @Autowired
+    public LogHistoricoColunar(@Value("${historico.colunar.diretorio:./data/historico}") String diretorio,
+                               @Value("${historico.colunar.anel:65536}") int capacidadeAnel,
+                               @Value("${historico.colunar.linhas-por-parte:50000}") int linhasPorParte,
+                               @Value("${historico.colunar.flush-ms:60000}") long flushMs) {
+        this(Paths.get(diretorio), capacidadeAnel, linhasPorParte, flushMs, Clock.systemUTC());
+    }
+
+    public LogHistoricoColunar(Path diretorio, int capacidadeAnel, int linhasPorParte, long flushMs, Clock clock) {
+        this.diretorio = diretorio;
+        this.anel = new AnelEventos<>(capacidadeAnel);
+        this.linhasPorParte = linhasPorParte;
+        this.flushMs = flushMs;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void iniciar() throws IOException {
+        Files.createDirectories(diretorio);
+        ultimoFlush = clock.millis();
+        ativo = true;
+        consumidor = new Thread(this::consumir, "historico-colunar");
+        consumidor.setDaemon(true);
+        consumidor.start();
+        logger.info("Columnar history log at {} (ring of {} events)", diretorio, anel.getCapacidade());
+    }
+
+    /**
+     * Writes out everything still in the ring or buffered, then stops.
+     */
+    @PreDestroy
+    public void parar() throws InterruptedException {
+        ativo = false;
+        if (consumidor != null) {
+            LockSupport.unpark(consumidor);
+            consumidor.join();
+        }
+    }
+
+    public void publicar(EventoHistorico evento) {
+        eventosRecebidos.increment();
+        anel.publicar(evento);
+    }
+
+    public void publicar(Collection<EventoHistorico> eventos) {
+        for (EventoHistorico evento : eventos) {
+            publicar(evento);
+        }
+    }
+
+    /**
+     * Flushes every buffer now and waits until the parts are visible to queries.
+     */
+    public void descarregar() throws InterruptedException {
+        long pedido = descargasPedidas.incrementAndGet();
+        LockSupport.unpark(consumidor);
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (descargasFeitas < pedido) {
+            if (System.nanoTime() > limite || !consumidor.isAlive()) {
+                throw new IllegalStateException("Columnar history log did not flush");
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    /**
+     * Parts of one kind that may hold events in [de, ate), read under a lock
+     * that keeps the hourly merge from swapping them mid-query.
+     */
+    <R> R lerPartes(TipoEventoHistorico tipo, Instant de, Instant ate, LeitorPartes<R> leitor) throws IOException {
+        long inicio = de == null ? Long.MIN_VALUE : de.toEpochMilli();
+        long fim = ate == null ? Long.MAX_VALUE : ate.toEpochMilli();
+        LocalDate primeiroDia = de == null ? LocalDate.MIN : LocalDate.ofInstant(de, ZoneOffset.UTC);
+        LocalDate ultimoDia = ate == null ? LocalDate.MAX : LocalDate.ofInstant(ate, ZoneOffset.UTC);
+
+        lockPartes.readLock().lock();
+        try {
+            List<ParteColunar> partes = new ArrayList<>();
+            try {
+                for (Path dia : dias(tipo)) {
+                    LocalDate data = LocalDate.parse(dia.getFileName().toString().substring(PREFIXO_DIA.length()));
+                    if (data.isBefore(primeiroDia) || data.isAfter(ultimoDia)) {
+                        continue;
+                    }
+                    for (Path arquivo : arquivosParte(dia)) {
+                        ParteColunar parte = ParteColunar.abrir(arquivo);
+                        if (parte.sobrepoe(inicio, fim)) {
+                            partes.add(parte);
+                        } else {
+                            parte.close();
+                        }
+                    }
+                }
+                return leitor.ler(partes);
+            } finally {
+                for (ParteColunar parte : partes) {
+                    parte.close();
+                }
+            }
+        } finally {
+            lockPartes.readLock().unlock();
+        }
+    }
+
+    @FunctionalInterface
+    interface LeitorPartes<R> {
+        R ler(List<ParteColunar> partes) throws IOException;
+    }
+
+    /**
+     * Merges the parts of each kind for every day before today.
+     */
+    public void compactar() throws IOException {
+        LocalDate hoje = LocalDate.ofInstant(clock.instant(), ZoneOffset.UTC);
+        for (TipoEventoHistorico tipo : TipoEventoHistorico.values()) {
+            for (Path dia : dias(tipo)) {
+                LocalDate data = LocalDate.parse(dia.getFileName().toString().substring(PREFIXO_DIA.length()));
+                if (data.isBefore(hoje)) {
+                    compactarDia(tipo, dia);
+                }
+            }
+        }
+    }
+
+    public long getEventosRecebidos() {
+        return eventosRecebidos.sum();
+    }
+
+    public long getEventosGravados() {
+        return eventosGravados.sum();
+    }
+
+    public long getPartesGravadas() {
+        return partesGravadas.sum();
+    }
+
+    public long getFalhasGravacao() {
+        return falhasGravacao.sum();
+    }
+
+    public long getPendentesAnel() {
+        return anel.getPendentes();
+    }
+
+    /**
+     * Times an engine thread had to wait because the ring was full.
+     */
+    public long getEsperasAnelCheio() {
+        return anel.getEsperasCheio();
+    }
+
+    // -------------------------------------------------------------- consumer
+
+    private void consumir() {
+        long descargasAtendidas = 0;
+        while (true) {
+            int drenados = anel.drenar(this::acumular, 8192);
+            long agora = clock.millis();
+            long pedidas = descargasPedidas.get();
+            boolean parando = !ativo && anel.getPendentes() == 0;
+
+            if (pedidas > descargasAtendidas || parando || agora - ultimoFlush >= flushMs) {
+                if (pedidas > descargasAtendidas) {
+                    // everything published before the request must be in this flush
+                    anel.drenar(this::acumular, anel.getCapacidade());
+                }
+                descarregarBuffers();
+                ultimoFlush = agora;
+                descargasAtendidas = pedidas;
+                descargasFeitas = pedidas;
+            }
+            if (parando) {
+                return;
+            }
+            if (agora - ultimaCompactacao >= INTERVALO_COMPACTACAO_MS) {
+                ultimaCompactacao = agora;
+                try {
+                    compactar();
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("Columnar history compaction failed: {}", e.getMessage(), e);
+                }
+            }
+            if (drenados == 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+            }
+        }
+    }
+
+    private void acumular(EventoHistorico evento) {
+        Particao particao = new Particao(evento.getTipo(),
+            LocalDate.ofEpochDay(Math.floorDiv(evento.getTimestamp(), 86_400_000L)));
+        List<EventoHistorico> buffer = buffers.computeIfAbsent(particao, p -> new ArrayList<>());
+        buffer.add(evento);
+        if (buffer.size() >= linhasPorParte) {
+            gravar(particao, buffer);
+            buffers.remove(particao);
+        }
+    }
+
+    private void descarregarBuffers() {
+        buffers.forEach(this::gravar);
+        buffers.clear();
+    }
+
+    private void gravar(Particao particao, List<EventoHistorico> eventos) {
+        eventos.sort(Comparator.comparingLong(EventoHistorico::getTimestamp));
+        try {
+            Path dia = diretorioDia(particao.tipo, particao.dia);
+            Files.createDirectories(dia);
+            ParteColunar.escrever(dia.resolve(nomeParte("parte")), eventos);
+            partesGravadas.increment();
+            eventosGravados.add(eventos.size());
+        } catch (IOException | RuntimeException e) {
+            falhasGravacao.increment();
+            logger.error("Failed to write {} {} history events for {}", eventos.size(), particao.tipo,
+                particao.dia, e);
+        }
+    }
+
+    private void compactarDia(TipoEventoHistorico tipo, Path dia) throws IOException {
+        List<Path> arquivos = arquivosParte(dia);
+        if (arquivos.size() < 2) {
+            return;
+        }
+        List<EventoHistorico> eventos = new ArrayList<>();
+        for (Path arquivo : arquivos) {
+            try (ParteColunar parte = ParteColunar.abrir(arquivo)) {
+                eventos.addAll(parte.eventos(tipo));
+            }
+        }
+        eventos.sort(Comparator.comparingLong(EventoHistorico::getTimestamp));
+
+        lockPartes.writeLock().lock();
+        try {
+            for (int inicio = 0; inicio < eventos.size(); inicio += LINHAS_POR_PARTE_COMPACTADA) {
+                List<EventoHistorico> fatia = eventos.subList(inicio,
+                    Math.min(eventos.size(), inicio + LINHAS_POR_PARTE_COMPACTADA));
+                ParteColunar.escrever(dia.resolve(nomeParte("compactada")), fatia);
+            }
+            for (Path arquivo : arquivos) {
+                Files.deleteIfExists(arquivo);
+            }
+        } finally {
+            lockPartes.writeLock().unlock();
+        }
+        logger.info("Merged {} {} history parts of {} ({} events)", arquivos.size(), tipo,
+            dia.getFileName(), eventos.size());
+    }
+
+    private String nomeParte(String prefixo) {
+        return String.format("%s-%d-%06d.col", prefixo, clock.millis(), sequenciaParte.incrementAndGet());
+    }
+
+    private Path diretorioDia(TipoEventoHistorico tipo, LocalDate dia) {
+        return diretorio.resolve(tipo.diretorio()).resolve(PREFIXO_DIA + dia);
+    }
+
+    private List<Path> dias(TipoEventoHistorico tipo) throws IOException {
+        Path base = diretorio.resolve(tipo.diretorio());
+        if (!Files.isDirectory(base)) {
+            return List.of();
+        }
+        try (Stream<Path> lista = Files.list(base)) {
+            return lista.filter(p -> p.getFileName().toString().startsWith(PREFIXO_DIA)).sorted().toList();
+        }
+    }
+
+    private static List<Path> arquivosParte(Path dia) throws IOException {
+        try (Stream<Path> lista = Files.list(dia)) {
+            return lista.filter(p -> p.getFileName().toString().endsWith(".col")).sorted().toList();
+        } catch (NoSuchFileException e) {
+            return List.of();
+        }
+    }
+
+    private static final class Particao {
+        final TipoEventoHistorico tipo;
+        final LocalDate dia;
+
+        Particao(TipoEventoHistorico tipo, LocalDate dia) {
+            this.tipo = tipo;
+            this.dia = dia;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Particao)) {
+                return false;
+            }
+            Particao outra = (Particao) o;
+            return tipo == outra.tipo && dia.equals(outra.dia);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tipo, dia);
+        }
+    }
+}
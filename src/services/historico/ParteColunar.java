@@ -0,0 +1,368 @@
+package br.com.austa.experiencia.service.historico;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * One immutable part file of the columnar history log.
+ *
+ * Layout: magic(4) version(2) rows(4) minTimestamp(8) maxTimestamp(8)
+ * columns(1), then per column id(1) offset(8) compressedSize(4) rawSize(4),
+ * then the deflated column chunks. Queries read the header, skip parts
+ * outside their time range and decode only the columns they use.
+ */
+final class ParteColunar implements Closeable {
+
+    private static final int MAGIC = 0x48495354; // "HIST"
+    private static final short VERSAO = 1;
+    private static final int CABECALHO = 27;
+    private static final int ENTRADA_COLUNA = 17;
+
+    private final FileChannel canal;
+    private final int linhas;
+    private final long timestampMinimo;
+    private final long timestampMaximo;
+    private final Map<ColunaHistorico, long[]> indiceColunas = new EnumMap<>(ColunaHistorico.class);
+
+    private ParteColunar(FileChannel canal) throws IOException {
+        this.canal = canal;
+        ByteBuffer cabecalho = ler(0, CABECALHO);
+        if (cabecalho.getInt() != MAGIC || cabecalho.getShort() != VERSAO) {
+            throw new IOException("Not a columnar history part");
+        }
+        linhas = cabecalho.getInt();
+        timestampMinimo = cabecalho.getLong();
+        timestampMaximo = cabecalho.getLong();
+        int colunas = cabecalho.get();
+        ByteBuffer entradas = ler(CABECALHO, colunas * ENTRADA_COLUNA);
+        ColunaHistorico[] todas = ColunaHistorico.values();
+        for (int i = 0; i < colunas; i++) {
+            int id = entradas.get();
+            long offset = entradas.getLong();
+            int comprimido = entradas.getInt();
+            int original = entradas.getInt();
+            if (id < todas.length) {
+                indiceColunas.put(todas[id], new long[] {offset, comprimido, original});
+            }
+        }
+    }
+
+    static ParteColunar abrir(Path arquivo) throws IOException {
+        FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ);
+        try {
+            return new ParteColunar(canal);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes {@code eventos} (already in timestamp order) to a new part, atomically.
+     */
+    static void escrever(Path arquivo, List<EventoHistorico> eventos) throws IOException {
+        ColunaHistorico[] colunas = ColunaHistorico.values();
+        byte[][] chunks = new byte[colunas.length][];
+        int[] originais = new int[colunas.length];
+        for (ColunaHistorico coluna : colunas) {
+            byte[] bruto = codificar(coluna, eventos);
+            originais[coluna.ordinal()] = bruto.length;
+            chunks[coluna.ordinal()] = comprimir(bruto);
+        }
+
+        long minimo = eventos.isEmpty() ? 0 : eventos.get(0).getTimestamp();
+        long maximo = minimo;
+        for (EventoHistorico evento : eventos) {
+            minimo = Math.min(minimo, evento.getTimestamp());
+            maximo = Math.max(maximo, evento.getTimestamp());
+        }
+
+        int tamanhoCabecalho = CABECALHO + colunas.length * ENTRADA_COLUNA;
+        ByteBuffer cabecalho = ByteBuffer.allocate(tamanhoCabecalho);
+        cabecalho.putInt(MAGIC).putShort(VERSAO).putInt(eventos.size()).putLong(minimo).putLong(maximo)
+            .put((byte) colunas.length);
+        long offset = tamanhoCabecalho;
+        for (ColunaHistorico coluna : colunas) {
+            cabecalho.put((byte) coluna.ordinal()).putLong(offset)
+                .putInt(chunks[coluna.ordinal()].length).putInt(originais[coluna.ordinal()]);
+            offset += chunks[coluna.ordinal()].length;
+        }
+        cabecalho.flip();
+
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (cabecalho.hasRemaining()) {
+                canal.write(cabecalho);
+            }
+            for (byte[] chunk : chunks) {
+                ByteBuffer buffer = ByteBuffer.wrap(chunk);
+                while (buffer.hasRemaining()) {
+                    canal.write(buffer);
+                }
+            }
+            canal.force(true);
+        }
+        Files.move(temporario, arquivo, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    int getLinhas() {
+        return linhas;
+    }
+
+    boolean sobrepoe(long de, long ate) {
+        return linhas > 0 && timestampMaximo >= de && timestampMinimo < ate;
+    }
+
+    String[] texto(ColunaHistorico coluna) throws IOException {
+        if (!coluna.isTexto()) {
+            throw new IllegalArgumentException(coluna + " is not a text column");
+        }
+        String[] valores = new String[linhas];
+        Leitor leitor = new Leitor(descomprimir(coluna));
+        if (coluna.codificacao == ColunaHistorico.Codificacao.DICIONARIO) {
+            String[] dicionario = new String[(int) leitor.varint()];
+            for (int i = 0; i < dicionario.length; i++) {
+                dicionario[i] = leitor.texto((int) leitor.varint());
+            }
+            for (int i = 0; i < linhas; i++) {
+                int codigo = (int) leitor.varint();
+                valores[i] = codigo == 0 ? null : dicionario[codigo - 1];
+            }
+        } else {
+            for (int i = 0; i < linhas; i++) {
+                int tamanho = (int) leitor.varint();
+                valores[i] = tamanho == 0 ? null : leitor.texto(tamanho - 1);
+            }
+        }
+        return valores;
+    }
+
+    long[] numeros(ColunaHistorico coluna) throws IOException {
+        if (coluna.isTexto()) {
+            throw new IllegalArgumentException(coluna + " is not a numeric column");
+        }
+        long[] valores = new long[linhas];
+        Leitor leitor = new Leitor(descomprimir(coluna));
+        long anterior = 0;
+        for (int i = 0; i < linhas; i++) {
+            long valor = zigzag(leitor.varint());
+            if (coluna.codificacao == ColunaHistorico.Codificacao.DELTA) {
+                valor += anterior;
+                anterior = valor;
+            }
+            valores[i] = valor;
+        }
+        return valores;
+    }
+
+    /**
+     * Decodes every column back into rows; used to merge parts.
+     */
+    List<EventoHistorico> eventos(TipoEventoHistorico tipo) throws IOException {
+        String[] ids = texto(ColunaHistorico.ID);
+        String[] eventTypes = texto(ColunaHistorico.EVENT_TYPE);
+        String[] chaves = texto(ColunaHistorico.DEFINICAO_KEY);
+        String[] definicoes = texto(ColunaHistorico.DEFINICAO_ID);
+        String[] instancias = texto(ColunaHistorico.INSTANCIA);
+        String[] elementos = texto(ColunaHistorico.ELEMENTO);
+        String[] tiposElemento = texto(ColunaHistorico.ELEMENTO_TIPO);
+        long[] timestamps = numeros(ColunaHistorico.TIMESTAMP);
+        long[] duracoes = numeros(ColunaHistorico.DURACAO);
+        String[] detalhes = texto(ColunaHistorico.DETALHE);
+        List<EventoHistorico> eventos = new ArrayList<>(linhas);
+        for (int i = 0; i < linhas; i++) {
+            eventos.add(new EventoHistorico(ids[i], tipo, eventTypes[i], chaves[i], definicoes[i], instancias[i],
+                elementos[i], tiposElemento[i], timestamps[i], duracoes[i], detalhes[i]));
+        }
+        return eventos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    private byte[] descomprimir(ColunaHistorico coluna) throws IOException {
+        long[] entrada = indiceColunas.get(coluna);
+        if (entrada == null) {
+            throw new IOException("Column " + coluna + " missing from part");
+        }
+        ByteBuffer comprimido = ler(entrada[0], (int) entrada[1]);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(comprimido.array(), 0, (int) entrada[1]);
+            byte[] original = new byte[(int) entrada[2]];
+            int lidos = 0;
+            while (lidos < original.length && !inflater.finished()) {
+                int n = inflater.inflate(original, lidos, original.length - lidos);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                lidos += n;
+            }
+            if (lidos != original.length) {
+                throw new IOException("Truncated column " + coluna);
+            }
+            return original;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted column " + coluna, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private ByteBuffer ler(long posicao, int tamanho) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(tamanho);
+        while (buffer.hasRemaining()) {
+            if (canal.read(buffer, posicao + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of columnar part");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static byte[] codificar(ColunaHistorico coluna, List<EventoHistorico> eventos) {
+        Escritor escritor = new Escritor();
+        switch (coluna.codificacao) {
+            case DICIONARIO: {
+                Map<String, Integer> codigos = new HashMap<>();
+                Escritor valores = new Escritor();
+                for (EventoHistorico evento : eventos) {
+                    String valor = coluna.valor(evento);
+                    if (valor == null) {
+                        valores.varint(0);
+                        continue;
+                    }
+                    Integer codigo = codigos.get(valor);
+                    if (codigo == null) {
+                        codigo = codigos.size() + 1;
+                        codigos.put(valor, codigo);
+                    }
+                    valores.varint(codigo);
+                }
+                String[] dicionario = new String[codigos.size()];
+                codigos.forEach((valor, codigo) -> dicionario[codigo - 1] = valor);
+                escritor.varint(dicionario.length);
+                for (String valor : dicionario) {
+                    byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+                    escritor.varint(bytes.length);
+                    escritor.bytes(bytes);
+                }
+                escritor.bytes(valores.toByteArray());
+                break;
+            }
+            case TEXTO:
+                for (EventoHistorico evento : eventos) {
+                    String valor = coluna.valor(evento);
+                    if (valor == null) {
+                        escritor.varint(0);
+                    } else {
+                        byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+                        escritor.varint(bytes.length + 1L);
+                        escritor.bytes(bytes);
+                    }
+                }
+                break;
+            case DELTA: {
+                long anterior = 0;
+                for (EventoHistorico evento : eventos) {
+                    long valor = coluna.numero(evento);
+                    escritor.varint(zagzig(valor - anterior));
+                    anterior = valor;
+                }
+                break;
+            }
+            default:
+                for (EventoHistorico evento : eventos) {
+                    escritor.varint(zagzig(coluna.numero(evento)));
+                }
+        }
+        return escritor.toByteArray();
+    }
+
+    private static byte[] comprimir(byte[] bruto) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(bruto);
+            deflater.finish();
+            ByteArrayOutputStream saida = new ByteArrayOutputStream(Math.max(64, bruto.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                saida.write(buffer, 0, n);
+            }
+            return saida.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static long zagzig(long valor) {
+        return (valor << 1) ^ (valor >> 63);
+    }
+
+    private static long zigzag(long valor) {
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+
+    private static final class Escritor extends ByteArrayOutputStream {
+
+        void varint(long valor) {
+            while ((valor & ~0x7FL) != 0) {
+                write((int) ((valor & 0x7F) | 0x80));
+                valor >>>= 7;
+            }
+            write((int) valor);
+        }
+
+        void bytes(byte[] bytes) {
+            write(bytes, 0, bytes.length);
+        }
+    }
+
+    private static final class Leitor {
+
+        private final byte[] dados;
+        private int posicao;
+
+        Leitor(byte[] dados) {
+            this.dados = dados;
+        }
+
+        long varint() {
+            long valor = 0;
+            int deslocamento = 0;
+            byte b;
+            do {
+                b = dados[posicao++];
+                valor |= (long) (b & 0x7F) << deslocamento;
+                deslocamento += 7;
+            } while (b < 0);
+            return valor;
+        }
+
+        String texto(int tamanho) {
+            String valor = new String(dados, posicao, tamanho, StandardCharsets.UTF_8);
+            posicao += tamanho;
+            return valor;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package br.com.austa.experiencia.service.historico;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process instances of one definition started and ended within a period.
+ */
+public final class ResumoDefinicao {
+
+    private final String definicaoKey;
+    private long iniciadas;
+    private long concluidas;
+    private long encerradas;
+    private long somaDuracaoMs;
+
+    ResumoDefinicao(String definicaoKey) {
+        this.definicaoKey = definicaoKey;
+    }
+
+    void iniciada() {
+        iniciadas++;
+    }
+
+    void finalizada(String estado, long duracaoMs) {
+        if (estado == null || "COMPLETED".equals(estado)) {
+            concluidas++;
+        } else {
+            encerradas++;
+        }
+        if (duracaoMs >= 0) {
+            somaDuracaoMs += duracaoMs;
+        }
+    }
+
+    public String getDefinicaoKey() {
+        return definicaoKey;
+    }
+
+    public long getIniciadas() {
+        return iniciadas;
+    }
+
+    public long getConcluidas() {
+        return concluidas;
+    }
+
+    /**
+     * Ended by cancellation or an internal termination instead of completing.
+     */
+    public long getEncerradas() {
+        return encerradas;
+    }
+
+    public double getDuracaoMediaMs() {
+        long finalizadas = concluidas + encerradas;
+        return finalizadas == 0 ? 0 : (double) somaDuracaoMs / finalizadas;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> mapa = new LinkedHashMap<>();
+        mapa.put("definicaoKey", definicaoKey);
+        mapa.put("iniciadas", iniciadas);
+        mapa.put("concluidas", concluidas);
+        mapa.put("encerradas", encerradas);
+        mapa.put("duracaoMediaMs", Math.round(getDuracaoMediaMs()));
+        return mapa;
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.austa.experiencia.service.historico;
+
+/**
+ * Kind of engine history event; each kind is a separate partition of the
+ * columnar log and can be kept in the engine database for Cockpit.
+ */
+public enum TipoEventoHistorico {
+    PROCESSO,
+    ATIVIDADE,
+    TAREFA,
+    INCIDENTE,
+    VARIAVEL,
+    OUTRO;
+
+    String diretorio() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,127 @@
+package br.com.austa.experiencia.service.ids;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Gerador Ids - shared id and business-number generation
+ *
+ * Replaces Math.random()/UUID-based numbers with collision-free,
+ * time-ordered, node-aware ones, all generated lock-free (one CAS):
+ * - proximoId / proximoIdTexto: {@link Snowflake} ids for records and events
+ * - proximoNumeroAutorizacao: TISS authorization number AAAAMMDD-XXXXXXXX-DD
+ *   (the format TissService validates), DD = ISO 7064 MOD 97-10 check digits
+ * - proximoProtocoloAns: 20-digit ANS attendance protocol (RN 395/2016):
+ *   operator registration (6) + AAAAMMDD + daily sequence (6)
+ *
+ * Uniqueness across instances needs a distinct {@code ids.no} per instance
+ * (e.g. the StatefulSet ordinal); the daily decimal sequences are split
+ * between {@code ids.nos} instances.
+ */
+@Component("geradorIds")
+public class GeradorIds {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeradorIds.class);
+
+    private final Snowflake snowflake;
+    private final SequenciaDiaria autorizacoes;
+    private final SequenciaDiaria protocolos;
+    private final String registroAns;
+
+    @Autowired
+    public GeradorIds(@Value("${ids.no:0}") int no,
+                      @Value("${ids.nos:1}") int nos,
+                      @Value("${ids.registro-ans:000000}") String registroAns,
+                      @Value("${ids.zona:America/Sao_Paulo}") String zona) {
+        this(no, nos, registroAns, ZoneId.of(zona), Clock.systemUTC());
+        logger.info("Id generator on node {}/{}: {} authorizations/s, {} protocols/s before borrowing",
+            no, nos, (long) autorizacoes.capacidadePorSegundo(), String.format("%.1f", protocolos.capacidadePorSegundo()));
+    }
+
+    public GeradorIds(int no, int nos, String registroAns, ZoneId zona, Clock clock) {
+        if (registroAns == null || !registroAns.matches("\\d{6}")) {
+            throw new IllegalArgumentException("ANS operator registration must have 6 digits: " + registroAns);
+        }
+        this.snowflake = new Snowflake(no, clock);
+        this.autorizacoes = new SequenciaDiaria(8, nos, no, zona, clock);
+        this.protocolos = new SequenciaDiaria(6, nos, no, zona, clock);
+        this.registroAns = registroAns;
+    }
+
+    public long proximoId() {
+        return snowflake.proximo();
+    }
+
+    /**
+     * 13-character, lexicographically time-ordered id for String keys.
+     */
+    public String proximoIdTexto() {
+        return Snowflake.texto(snowflake.proximo());
+    }
+
+    /**
+     * AAAAMMDD-XXXXXXXX-DD
+     */
+    public String proximoNumeroAutorizacao() {
+        long valor = autorizacoes.proximo();
+        long dia = valor / autorizacoes.potencia();
+        long numero = valor % autorizacoes.potencia();
+        long base = data(dia) * 100_000_000L + numero;
+
+        StringBuilder sb = new StringBuilder(20);
+        preencher(sb, base / 100_000_000L, 8).append('-');
+        preencher(sb, numero, 8).append('-');
+        return preencher(sb, digitoVerificador(base), 2).toString();
+    }
+
+    /**
+     * 20 digits: registro ANS + AAAAMMDD + NNNNNN
+     */
+    public String proximoProtocoloAns() {
+        long valor = protocolos.proximo();
+        long dia = valor / protocolos.potencia();
+        long numero = valor % protocolos.potencia();
+
+        StringBuilder sb = new StringBuilder(20).append(registroAns);
+        preencher(sb, data(dia), 8);
+        return preencher(sb, numero, 6).toString();
+    }
+
+    /**
+     * ISO 7064 MOD 97-10 check digits: (valor x 100 + dv) mod 97 == 1.
+     */
+    public static int digitoVerificador(long valor) {
+        return 98 - Math.floorMod(valor % 97 * 100, 97);
+    }
+
+    /**
+     * Checks the format and check digits of an authorization number.
+     */
+    public static boolean numeroAutorizacaoValido(String numero) {
+        if (numero == null || !numero.matches("\\d{8}-\\d{8}-\\d{2}")) {
+            return false;
+        }
+        long base = Long.parseLong(numero.substring(0, 8) + numero.substring(9, 17));
+        return digitoVerificador(base) == Integer.parseInt(numero.substring(18));
+    }
+
+    private static long data(long epochDay) {
+        LocalDate data = LocalDate.ofEpochDay(epochDay);
+        return data.getYear() * 10_000L + data.getMonthValue() * 100L + data.getDayOfMonth();
+    }
+
+    private static StringBuilder preencher(StringBuilder sb, long valor, int digitos) {
+        String texto = Long.toString(valor);
+        for (int i = texto.length(); i < digitos; i++) {
+            sb.append('0');
+        }
+        return sb.append(texto);
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.austa.experiencia.service.ids;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Node-aware, time-ordered numbers for decimal formats that restart every day
+ * (the 8-digit sequence of a TISS authorization, the 6-digit sequence of an
+ * ANS protocol).
+ *
+ * The day's 10^digitos numbers are split between {@code nos} nodes by
+ * interleaving (numero = slot x nos + no), and each node maps its slots
+ * linearly onto the time of day. As in {@link Snowflake}, the (day, slot)
+ * pair advances by CAS to max(previous + 1, now): no persisted counter is
+ * needed across restarts, bursts borrow slots from the near future, and the
+ * day is taken from the slot actually issued, never from the wall clock.
+ */
+final class SequenciaDiaria {
+
+    private static final long MILLIS_DIA = 86_400_000L;
+
+    private final long potencia;
+    private final long nos;
+    private final long no;
+    private final long slotsPorDia;
+    private final ZoneId zona;
+    private final Clock clock;
+    private final AtomicLong estado = new AtomicLong();
+
+    SequenciaDiaria(int digitos, int nos, int no, ZoneId zona, Clock clock) {
+        if (nos < 1 || no < 0 || no >= nos) {
+            throw new IllegalArgumentException("Node " + no + " out of range for " + nos + " node(s)");
+        }
+        this.potencia = (long) Math.pow(10, digitos);
+        this.nos = nos;
+        this.no = no;
+        this.slotsPorDia = potencia / nos;
+        this.zona = zona;
+        this.clock = clock;
+    }
+
+    /**
+     * @return epochDay x 10^digitos + numero
+     */
+    long proximo() {
+        long millis = clock.millis();
+        ZoneOffset offset = zona.getRules().getOffset(Instant.ofEpochMilli(millis));
+        long local = millis + offset.getTotalSeconds() * 1000L;
+        long agora = Math.floorDiv(local, MILLIS_DIA) * slotsPorDia
+            + Math.floorMod(local, MILLIS_DIA) * slotsPorDia / MILLIS_DIA;
+
+        long anterior;
+        long proximo;
+        do {
+            anterior = estado.get();
+            proximo = Math.max(anterior + 1, agora);
+        } while (!estado.compareAndSet(anterior, proximo));
+
+        long dia = proximo / slotsPorDia;
+        long slot = proximo % slotsPorDia;
+        return dia * potencia + slot * nos + no;
+    }
+
+    long potencia() {
+        return potencia;
+    }
+
+    /**
+     * Numbers a node can issue per second before borrowing from the future.
+     */
+    double capacidadePorSegundo() {
+        return slotsPorDia / 86_400.0;
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.austa.experiencia.service.ids;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered, node-aware 64-bit ids (Snowflake layout).
+ *
+ * Layout: 0 | 41 bits milliseconds since 2024-01-01T00:00Z | 10 bits node | 12 bits sequence
+ *
+ * The (millisecond, sequence) pair is one AtomicLong advanced by CAS to
+ * max(previous + 1, now), so generation never blocks:
+ * - more than 4096 ids in one millisecond borrow the next millisecond
+ * - a clock stepping backwards keeps counting from the last id issued
+ * Ids of one node are therefore strictly increasing, and ids of all nodes
+ * sort by creation time (B-tree inserts stay at the right edge).
+ */
+public final class Snowflake {
+
+    /** 2024-01-01T00:00:00Z; 41 bits of milliseconds last until 2093. */
+    public static final long EPOCA = 1_704_067_200_000L;
+
+    static final int BITS_NO = 10;
+    static final int BITS_SEQUENCIA = 12;
+    public static final int MAX_NO = (1 << BITS_NO) - 1;
+
+    private static final long MASCARA_SEQUENCIA = (1L << BITS_SEQUENCIA) - 1;
+    private static final char[] BASE32 = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final long no;
+    private final Clock clock;
+    private final AtomicLong estado = new AtomicLong();
+
+    public Snowflake(int no, Clock clock) {
+        if (no < 0 || no > MAX_NO) {
+            throw new IllegalArgumentException("Snowflake node must be in [0, " + MAX_NO + "]: " + no);
+        }
+        this.no = no;
+        this.clock = clock;
+    }
+
+    public long proximo() {
+        long agora = (clock.millis() - EPOCA) << BITS_SEQUENCIA;
+        long anterior;
+        long proximo;
+        do {
+            anterior = estado.get();
+            proximo = Math.max(anterior + 1, agora);
+        } while (!estado.compareAndSet(anterior, proximo));
+
+        return (proximo >>> BITS_SEQUENCIA) << (BITS_NO + BITS_SEQUENCIA)
+            | no << BITS_SEQUENCIA
+            | (proximo & MASCARA_SEQUENCIA);
+    }
+
+    public static Instant instante(long id) {
+        return Instant.ofEpochMilli((id >>> (BITS_NO + BITS_SEQUENCIA)) + EPOCA);
+    }
+
+    public static int no(long id) {
+        return (int) (id >>> BITS_SEQUENCIA) & MAX_NO;
+    }
+
+    /**
+     * Fixed-width (13 chars) Crockford base32: string order equals numeric order.
+     */
+    public static String texto(long id) {
+        char[] texto = new char[13];
+        for (int i = 12; i >= 0; i--) {
+            texto[i] = BASE32[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(texto);
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.austa.experiencia.service.instrumentacao;
+
+/**
+ * What a {@link Medidor} measures.
+ */
+public enum CategoriaMedidor {
+
+    /** One service or business-rule task of one process definition */
+    ATIVIDADE,
+    /** A delegate bean, class or decision, summed over every task that uses it */
+    DELEGATE,
+    /** Outbound calls to one HTTP host or Kafka topic */
+    CHAMADA_EXTERNA
+}
@@ -0,0 +1,31 @@
+package br.com.austa.experiencia.service.instrumentacao;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandInterceptor;
+
+/**
+ * Closes the measurements a command leaves open: a task that threw never
+ * reaches its end listener, one that waits for a signal reaches it in a
+ * later command. Nested commands only close what they opened.
+ */
+class InstrumentacaoCommandInterceptor extends CommandInterceptor {
+
+    private final RegistroInstrumentacao registro;
+
+    InstrumentacaoCommandInterceptor(RegistroInstrumentacao registro) {
+        this.registro = registro;
+    }
+
+    @Override
+    public <T> T execute(Command<T> command) {
+        int profundidade = registro.profundidade();
+        boolean falhou = true;
+        try {
+            T resultado = next.execute(command);
+            falhou = false;
+            return resultado;
+        } finally {
+            registro.descartarAcima(profundidade, falhou);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package br.com.austa.experiencia.service.instrumentacao;
+
+import br.com.austa.experiencia.service.metricas.HistogramaLatencia;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the {@link RegistroInstrumentacao} counters through Micrometer
+ * (bound by the actuator like any {@link MeterBinder} bean). Meters read the
+ * counters at scrape time, so recording never goes through Micrometer:
+ *
+ * - {@code austa.bpmn.atividade.*}: per task, tagged processo/atividade/tipo/delegate
+ * - {@code austa.bpmn.delegate.*}: per delegate bean, class or decision
+ * - {@code austa.integracao.chamada.*}: per HTTP host or Kafka topic
+ *
+ * Each has a {@code duracao} timer (count and total), {@code duracao.percentil}
+ * gauges tagged {@code quantil} plus {@code duracao.max} over the last one to
+ * two minutes; tasks and delegates add {@code falhas}, {@code variaveis.escritas},
+ * {@code variaveis.bytes} and {@code chamadas.externas} (count and total time).
+ */
+@Component
+public class InstrumentacaoMeterBinder implements MeterBinder {
+
+    private static final double[] QUANTIS = {0.5, 0.95, 0.99};
+
+    private final RegistroInstrumentacao registro;
+
+    @Autowired
+    public InstrumentacaoMeterBinder(RegistroInstrumentacao registro) {
+        this.registro = registro;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        registro.aoRegistrar(medidor -> registrar(meterRegistry, medidor));
+    }
+
+    private void registrar(MeterRegistry meterRegistry, Medidor medidor) {
+        String prefixo = switch (medidor.getCategoria()) {
+            case ATIVIDADE -> "austa.bpmn.atividade";
+            case DELEGATE -> "austa.bpmn.delegate";
+            case CHAMADA_EXTERNA -> "austa.integracao.chamada";
+        };
+        Tags tags = Tags.empty();
+        for (var tag : medidor.getTags().entrySet()) {
+            tags = tags.and(tag.getKey(), tag.getValue());
+        }
+        HistogramaLatencia latencia = medidor.getLatencia();
+
+        FunctionTimer.builder(prefixo + ".duracao", latencia,
+                HistogramaLatencia::getContagem, HistogramaLatencia::getSomaNanos, TimeUnit.NANOSECONDS)
+            .tags(tags).register(meterRegistry);
+        TimeGauge.builder(prefixo + ".duracao.max", latencia, TimeUnit.MILLISECONDS, HistogramaLatencia::getMaximoMillis)
+            .tags(tags).register(meterRegistry);
+        for (double quantil : QUANTIS) {
+            TimeGauge.builder(prefixo + ".duracao.percentil", latencia, TimeUnit.MILLISECONDS,
+                    h -> h.percentilMillis(quantil))
+                .tags(tags).tag("quantil", Double.toString(quantil)).register(meterRegistry);
+        }
+        if (medidor.getCategoria() == CategoriaMedidor.CHAMADA_EXTERNA) {
+            return;
+        }
+
+        FunctionCounter.builder(prefixo + ".falhas", medidor, Medidor::getFalhas)
+            .tags(tags).register(meterRegistry);
+        FunctionCounter.builder(prefixo + ".variaveis.escritas", medidor, Medidor::getVariaveisEscritas)
+            .tags(tags).register(meterRegistry);
+        FunctionCounter.builder(prefixo + ".variaveis.bytes", medidor, Medidor::getBytesVariaveis)
+            .baseUnit("bytes").tags(tags).register(meterRegistry);
+        FunctionTimer.builder(prefixo + ".chamadas.externas", medidor,
+                Medidor::getChamadasExternas, Medidor::getTempoExternoNanos, TimeUnit.NANOSECONDS)
+            .tags(tags).register(meterRegistry);
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.austa.experiencia.service.instrumentacao;
+
+import org.camunda.bpm.engine.delegate.ExecutionListener;
+import org.camunda.bpm.engine.impl.bpmn.parser.AbstractBpmnParseListener;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParser;
+import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
+import org.camunda.bpm.engine.impl.pvm.process.ScopeImpl;
+import org.camunda.bpm.engine.impl.util.xml.Element;
+
+/**
+ * Adds a start listener ahead of and an end listener after the modelled
+ * listeners of every service and business-rule task, so the measurement
+ * covers the task's own listeners, its delegate or decision and its I/O mapping.
+ *
+ * External tasks are left out: they start and end in different transactions,
+ * usually on different nodes.
+ */
+class InstrumentacaoParseListener extends AbstractBpmnParseListener {
+
+    private final RegistroInstrumentacao registro;
+
+    InstrumentacaoParseListener(RegistroInstrumentacao registro) {
+        this.registro = registro;
+    }
+
+    @Override
+    public void parseServiceTask(Element serviceTaskElement, ScopeImpl scope, ActivityImpl activity) {
+        instrumentar(serviceTaskElement, activity, "serviceTask");
+    }
+
+    @Override
+    public void parseBusinessRuleTask(Element businessRuleTaskElement, ScopeImpl scope, ActivityImpl activity) {
+        instrumentar(businessRuleTaskElement, activity, "businessRuleTask");
+    }
+
+    private void instrumentar(Element elemento, ActivityImpl activity, String tipo) {
+        if ("external".equals(atributo(elemento, "type"))) {
+            return;
+        }
+        String delegate = delegate(elemento);
+        Medidor atividade = registro.atividade(activity.getProcessDefinition().getKey(), activity.getId(), tipo, delegate);
+        Medidor porDelegate = registro.delegate(delegate);
+        activity.addListener(ExecutionListener.EVENTNAME_START,
+            new MedicaoAtividadeListener(registro, atividade, porDelegate, true), 0);
+        activity.addListener(ExecutionListener.EVENTNAME_END,
+            new MedicaoAtividadeListener(registro, atividade, porDelegate, false));
+    }
+
+    /**
+     * Name the task's work is reported under: the bean of a delegate
+     * expression, the bean and method of an expression, the simple name of a
+     * class, or the decision of a business-rule task.
+     */
+    static String delegate(Element elemento) {
+        String expressao = atributo(elemento, "delegateExpression");
+        if (expressao == null) {
+            expressao = atributo(elemento, "expression");
+        }
+        if (expressao != null) {
+            return nomeExpressao(expressao);
+        }
+        String classe = atributo(elemento, "class");
+        if (classe != null) {
+            return classe.substring(classe.lastIndexOf('.') + 1);
+        }
+        String decisao = atributo(elemento, "decisionRef");
+        if (decisao != null) {
+            return "dmn:" + decisao;
+        }
+        return elemento.getTagName();
+    }
+
+    static String nomeExpressao(String expressao) {
+        String nome = expressao.trim();
+        if (nome.startsWith("${") || nome.startsWith("#{")) {
+            nome = nome.substring(2);
+        }
+        int fim = nome.indexOf('(');
+        if (fim < 0) {
+            fim = nome.indexOf('}');
+        }
+        return (fim < 0 ? nome : nome.substring(0, fim)).trim();
+    }
+
+    private static String atributo(Element elemento, String nome) {
+        return elemento.attributeNS(BpmnParser.CAMUNDA_BPMN_EXTENSIONS_NS, nome);
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.austa.experiencia.service.instrumentacao;
+
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParseListener;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.CommandInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Instrumentacao Plugin - latency, variable and outbound-call metrics for every
+ * service and business-rule task
+ *
+ * - {@link InstrumentacaoParseListener} wraps each task in start/end listeners
+ * - {@link InstrumentacaoCommandInterceptor} closes what a failed command left open
+ * - {@link VariaveisInstrumentadasHandler} counts variable writes from the
+ *   history events, wrapping whichever handler is installed
+ *
+ * {@code instrumentacao.habilitado}: false leaves the engine untouched.
+ * Models deployed before the engine started are instrumented when their
+ * definitions are parsed into the cache.
+ */
+@Component
+public class InstrumentacaoPlugin extends AbstractProcessEnginePlugin {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstrumentacaoPlugin.class);
+
+    private final RegistroInstrumentacao registro;
+    private final boolean habilitado;
+
+    @Autowired
+    public InstrumentacaoPlugin(RegistroInstrumentacao registro,
+                                @Value("${instrumentacao.habilitado:true}") boolean habilitado) {
+        this.registro = registro;
+        this.habilitado = habilitado;
+    }
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl configuration) {
+        if (!habilitado) {
+            logger.info("Task instrumentation disabled");
+            return;
+        }
+        List<BpmnParseListener> parseListeners = configuration.getCustomPostBPMNParseListeners();
+        if (parseListeners == null) {
+            parseListeners = new ArrayList<>();
+            configuration.setCustomPostBPMNParseListeners(parseListeners);
+        }
+        parseListeners.add(new InstrumentacaoParseListener(registro));
+
+        List<CommandInterceptor> interceptores = configuration.getCustomPreCommandInterceptorsTxRequired();
+        if (interceptores == null) {
+            interceptores = new ArrayList<>();
+            configuration.setCustomPreCommandInterceptorsTxRequired(interceptores);
+        }
+        interceptores.add(new InstrumentacaoCommandInterceptor(registro));
+
+        List<CommandInterceptor> interceptoresNovaTx = configuration.getCustomPreCommandInterceptorsTxRequiresNew();
+        if (interceptoresNovaTx == null) {
+            interceptoresNovaTx = new ArrayList<>();
+            configuration.setCustomPreCommandInterceptorsTxRequiresNew(interceptoresNovaTx);
+        }
+        interceptoresNovaTx.add(new InstrumentacaoCommandInterceptor(registro));
+    }
+
+    @Override
+    public void postInit(ProcessEngineConfigurationImpl configuration) {
+        if (!habilitado) {
+            return;
+        }
+        // After init, so it wraps the handler other plugins or the engine installed
+        configuration.setHistoryEventHandler(
+            new VariaveisInstrumentadasHandler(configuration.getHistoryEventHandler(), registro));
+        logger.info("Service and business-rule tasks instrumented (history level {} for variable sizes)",
+            configuration.getHistory());
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.austa.experiencia.service.instrumentacao;
+
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.ExecutionListener;
+
+/**
+ * Start or end listener of one instrumented task; the medidores are resolved
+ * at parse time, so nothing is looked up per execution.
+ */
+class MedicaoAtividadeListener implements ExecutionListener {
+
+    private final RegistroInstrumentacao registro;
+    private final Medidor atividade;
+    private final Medidor delegate;
+    private final boolean inicio;
+
+    MedicaoAtividadeListener(RegistroInstrumentacao registro, Medidor atividade, Medidor delegate, boolean inicio) {
+        this.registro = registro;
+        this.atividade = atividade;
+        this.delegate = delegate;
+        this.inicio = inicio;
+    }
+
+    @Override
+    public void notify(DelegateExecution execution) {
+        if (inicio) {
+            registro.iniciar(atividade, delegate, execution.getActivityInstanceId());
+        } else {
+            registro.concluir(execution.getActivityInstanceId());
+        }
+    }
+}
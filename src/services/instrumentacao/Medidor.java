@@ -0,0 +1,85 @@
+package br.com.austa.experiencia.service.instrumentacao;
+
+import br.com.austa.experiencia.service.metricas.HistogramaLatencia;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of one activity, delegate or outbound destination.
+ *
+ * Tags identify it and become the Micrometer tags; an activity is tagged with
+ * {@code processo}, {@code atividade}, {@code tipo} and {@code delegate}, a
+ * delegate with {@code delegate}, a destination with {@code tipo} and {@code destino}.
+ */
+public final class Medidor {
+
+    private final CategoriaMedidor categoria;
+    private final Map<String, String> tags;
+    private final HistogramaLatencia latencia = new HistogramaLatencia();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder variaveisEscritas = new LongAdder();
+    private final LongAdder bytesVariaveis = new LongAdder();
+    private final LongAdder chamadasExternas = new LongAdder();
+    private final LongAdder tempoExternoNanos = new LongAdder();
+
+    Medidor(CategoriaMedidor categoria, Map<String, String> tags) {
+        this.categoria = categoria;
+        this.tags = Collections.unmodifiableMap(tags);
+    }
+
+    void concluida(long nanos, long variaveis, long bytes, long chamadas, long externoNanos) {
+        latencia.registrar(nanos);
+        if (variaveis > 0) {
+            variaveisEscritas.add(variaveis);
+            bytesVariaveis.add(bytes);
+        }
+        if (chamadas > 0) {
+            chamadasExternas.add(chamadas);
+            tempoExternoNanos.add(externoNanos);
+        }
+    }
+
+    void falhou() {
+        falhas.increment();
+    }
+
+    public CategoriaMedidor getCategoria() {
+        return categoria;
+    }
+
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    /**
+     * Successful executions (or calls, for a destination).
+     */
+    public HistogramaLatencia getLatencia() {
+        return latencia;
+    }
+
+    /**
+     * Executions rolled back by an exception; not in {@link #getLatencia()}.
+     */
+    public long getFalhas() {
+        return falhas.sum();
+    }
+
+    public long getVariaveisEscritas() {
+        return variaveisEscritas.sum();
+    }
+
+    public long getBytesVariaveis() {
+        return bytesVariaveis.sum();
+    }
+
+    public long getChamadasExternas() {
+        return chamadasExternas.sum();
+    }
+
+    public long getTempoExternoNanos() {
+        return tempoExternoNanos.sum();
+    }
+}
@@ -0,0 +1,194 @@
+package br.com.austa.experiencia.service.instrumentacao;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Registro Instrumentacao - per-activity, per-delegate and per-destination counters
+ *
+ * An instrumented task pushes a measurement on the current thread when it
+ * starts and pops it when it ends; what happens in between on that thread is
+ * charged to it:
+ * - variables written ({@link #variavelEscrita}), fed by the history event handler
+ * - outbound HTTP and Kafka calls ({@link #chamadaExterna}), which are also
+ *   kept per destination
+ *
+ * The per-execution totals are accumulated in the measurement and added to
+ * the shared counters once, at the end. A measurement whose task never ends
+ * is discarded when its command finishes ({@link #descartarAcima}), as a
+ * failure when the command threw.
+ */
+@Component("registroInstrumentacao")
+public class RegistroInstrumentacao {
+
+    /** Guards against leaks when the command interceptor is not installed */
+    private static final int PROFUNDIDADE_MAXIMA = 64;
+
+    private final Map<Map<String, String>, Medidor> atividades = new ConcurrentHashMap<>();
+    private final Map<String, Medidor> delegates = new ConcurrentHashMap<>();
+    private final Map<TipoChamadaExterna, Map<String, Medidor>> destinos = new EnumMap<>(TipoChamadaExterna.class);
+    private final List<Consumer<Medidor>> ouvintes = new CopyOnWriteArrayList<>();
+
+    private final ThreadLocal<ArrayDeque<Medicao>> medicoes = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public RegistroInstrumentacao() {
+        for (TipoChamadaExterna tipo : TipoChamadaExterna.values()) {
+            destinos.put(tipo, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Medidor of one task, created on first use (at parse time).
+     */
+    public Medidor atividade(String processo, String atividade, String tipo, String delegate) {
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("processo", processo);
+        tags.put("atividade", atividade);
+        tags.put("tipo", tipo);
+        tags.put("delegate", delegate);
+        return atividades.computeIfAbsent(tags, t -> novo(CategoriaMedidor.ATIVIDADE, t));
+    }
+
+    public Medidor delegate(String delegate) {
+        return delegates.computeIfAbsent(delegate,
+            d -> novo(CategoriaMedidor.DELEGATE, Map.of("delegate", d)));
+    }
+
+    public Medidor destino(TipoChamadaExterna tipo, String destino) {
+        return destinos.get(tipo).computeIfAbsent(destino, chave -> {
+            Map<String, String> tags = new LinkedHashMap<>();
+            tags.put("tipo", tipo.name());
+            tags.put("destino", destino);
+            return novo(CategoriaMedidor.CHAMADA_EXTERNA, tags);
+        });
+    }
+
+    /**
+     * Called with every existing medidor and then with each new one.
+     */
+    public void aoRegistrar(Consumer<Medidor> ouvinte) {
+        ouvintes.add(ouvinte);
+        getMedidores().forEach(ouvinte);
+    }
+
+    public Collection<Medidor> getMedidores() {
+        List<Medidor> todos = new ArrayList<>(atividades.values());
+        todos.addAll(delegates.values());
+        destinos.values().forEach(porTipo -> todos.addAll(porTipo.values()));
+        return todos;
+    }
+
+    public void iniciar(Medidor atividade, Medidor delegate, String instanciaAtividadeId) {
+        ArrayDeque<Medicao> pilha = medicoes.get();
+        if (pilha.size() >= PROFUNDIDADE_MAXIMA) {
+            pilha.clear();
+        }
+        pilha.push(new Medicao(atividade, delegate, instanciaAtividadeId, System.nanoTime()));
+    }
+
+    /**
+     * Ends the measurement of the activity instance. Measurements above it
+     * ended without reaching their end listener and count as failures.
+     */
+    public void concluir(String instanciaAtividadeId) {
+        long fim = System.nanoTime();
+        ArrayDeque<Medicao> pilha = medicoes.get();
+        Medicao topo = pilha.peek();
+        if (topo == null || !topo.instancia.equals(instanciaAtividadeId)
+                && pilha.stream().noneMatch(m -> m.instancia.equals(instanciaAtividadeId))) {
+            return;
+        }
+        Medicao medicao;
+        while (!(medicao = pilha.pop()).instancia.equals(instanciaAtividadeId)) {
+            medicao.falhou();
+        }
+        medicao.concluir(fim - medicao.inicio);
+    }
+
+    /**
+     * Charges a variable write to the task running on this thread, if any.
+     */
+    public void variavelEscrita(long bytes) {
+        Medicao medicao = medicoes.get().peek();
+        if (medicao != null) {
+            medicao.variaveis++;
+            medicao.bytes += bytes;
+        }
+    }
+
+    /**
+     * Records an outbound call against its destination and the task running
+     * on this thread, if any.
+     */
+    public void chamadaExterna(TipoChamadaExterna tipo, String destino, long nanos) {
+        destino(tipo, destino).concluida(nanos, 0, 0, 0, 0);
+        Medicao medicao = medicoes.get().peek();
+        if (medicao != null) {
+            medicao.chamadas++;
+            medicao.externoNanos += nanos;
+        }
+    }
+
+    int profundidade() {
+        return medicoes.get().size();
+    }
+
+    /**
+     * Drops the measurements started above {@code profundidade}: tasks that
+     * threw, or that are still waiting (a signallable behavior) when the
+     * command ends.
+     */
+    void descartarAcima(int profundidade, boolean falhou) {
+        ArrayDeque<Medicao> pilha = medicoes.get();
+        while (pilha.size() > profundidade) {
+            Medicao medicao = pilha.pop();
+            if (falhou) {
+                medicao.falhou();
+            }
+        }
+    }
+
+    private Medidor novo(CategoriaMedidor categoria, Map<String, String> tags) {
+        Medidor medidor = new Medidor(categoria, tags);
+        ouvintes.forEach(ouvinte -> ouvinte.accept(medidor));
+        return medidor;
+    }
+
+    private static final class Medicao {
+        final Medidor atividade;
+        final Medidor delegate;
+        final String instancia;
+        final long inicio;
+        long variaveis;
+        long bytes;
+        long chamadas;
+        long externoNanos;
+
+        Medicao(Medidor atividade, Medidor delegate, String instancia, long inicio) {
+            this.atividade = atividade;
+            this.delegate = delegate;
+            this.instancia = instancia;
+            this.inicio = inicio;
+        }
+
+        void concluir(long nanos) {
+            atividade.concluida(nanos, variaveis, bytes, chamadas, externoNanos);
+            delegate.concluida(nanos, variaveis, bytes, chamadas, externoNanos);
+        }
+
+        void falhou() {
+            atividade.falhou();
+            delegate.falhou();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.austa.experiencia.service.instrumentacao;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+
+/**
+ * Times every call made through a {@link RestTemplate} bean, per target
+ * host, and charges it to the task running on the thread. The interceptor
+ * goes first so the others' work is included.
+ */
+@Component
+public class RestTemplateInstrumentado implements BeanPostProcessor, ClientHttpRequestInterceptor {
+
+    private final RegistroInstrumentacao registro;
+    private final boolean habilitado;
+
+    @Autowired
+    public RestTemplateInstrumentado(RegistroInstrumentacao registro,
+                                     @Value("${instrumentacao.habilitado:true}") boolean habilitado) {
+        this.registro = registro;
+        this.habilitado = habilitado;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (habilitado && bean instanceof RestTemplate restTemplate
+                && !restTemplate.getInterceptors().contains(this)) {
+            restTemplate.getInterceptors().add(0, this);
+        }
+        return bean;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        long inicio = System.nanoTime();
+        try {
+            return execution.execute(request, body);
+        } finally {
+            String host = request.getURI().getHost();
+            registro.chamadaExterna(TipoChamadaExterna.HTTP, host == null ? "desconhecido" : host,
+                System.nanoTime() - inicio);
+        }
+    }
+}
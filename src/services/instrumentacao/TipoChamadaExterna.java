@@ -0,0 +1,10 @@
+package br.com.austa.experiencia.service.instrumentacao;
+
+/**
+ * Transport of an outbound call timed by {@link RegistroInstrumentacao#chamadaExterna}.
+ */
+public enum TipoChamadaExterna {
+
+    HTTP,
+    KAFKA
+}
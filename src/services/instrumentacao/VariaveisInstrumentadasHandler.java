@@ -0,0 +1,68 @@
+package br.com.austa.experiencia.service.instrumentacao;
+
+import org.camunda.bpm.engine.impl.history.event.HistoricVariableUpdateEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.history.event.HistoryEventTypes;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+
+import java.util.List;
+
+/**
+ * Wraps the engine's history event handler to charge variable creates and
+ * updates, with their stored size, to the task running on the thread. The
+ * engine produces these events at write time, so the attribution is exact;
+ * at history level {@code none} or {@code activity} there are none to count.
+ */
+class VariaveisInstrumentadasHandler implements HistoryEventHandler {
+
+    private final HistoryEventHandler proximo;
+    private final RegistroInstrumentacao registro;
+
+    VariaveisInstrumentadasHandler(HistoryEventHandler proximo, RegistroInstrumentacao registro) {
+        this.proximo = proximo;
+        this.registro = registro;
+    }
+
+    @Override
+    public void handleEvent(HistoryEvent historyEvent) {
+        contar(historyEvent);
+        proximo.handleEvent(historyEvent);
+    }
+
+    @Override
+    public void handleEvents(List<HistoryEvent> historyEvents) {
+        for (HistoryEvent evento : historyEvents) {
+            contar(evento);
+        }
+        proximo.handleEvents(historyEvents);
+    }
+
+    private void contar(HistoryEvent evento) {
+        if (evento instanceof HistoricVariableUpdateEventEntity variavel
+                && (evento.isEventOfType(HistoryEventTypes.VARIABLE_INSTANCE_CREATE)
+                    || evento.isEventOfType(HistoryEventTypes.VARIABLE_INSTANCE_UPDATE))) {
+            registro.variavelEscrita(tamanho(variavel));
+        }
+    }
+
+    /**
+     * Bytes as stored: the serialized form for objects and byte arrays, the
+     * text for strings, eight for numbers, dates and booleans.
+     */
+    static long tamanho(HistoricVariableUpdateEventEntity variavel) {
+        if (variavel.getByteValue() != null) {
+            return variavel.getByteValue().length;
+        }
+        long tamanho = 0;
+        if (variavel.getTextValue() != null) {
+            tamanho += variavel.getTextValue().length();
+        }
+        if (variavel.getTextValue2() != null) {
+            tamanho += variavel.getTextValue2().length();
+        }
+        if (tamanho == 0 && (variavel.getLongValue() != null || variavel.getDoubleValue() != null)) {
+            tamanho = Long.BYTES;
+        }
+        return tamanho;
+    }
+}
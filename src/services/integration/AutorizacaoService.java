@@ -1,5 +1,6 @@
 package br.com.austa.experiencia.service.integration;
 
+import br.com.austa.experiencia.service.ids.GeradorIds;
 import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.JavaDelegate;
 import org.slf4j.Logger;
@@ -39,6 +40,9 @@ public class AutorizacaoService implements JavaDelegate {
     @Autowired
     private KafkaPublisherService kafkaPublisher;
 
+    @Autowired
+    private GeradorIds geradorIds;
+
     @Override
     public void execute(DelegateExecution execution) throws Exception {
         String operacao = (String) execution.getVariable("autorizacaoOperacao");
@@ -84,7 +88,7 @@ public class AutorizacaoService implements JavaDelegate {
      * Output:
      * - numeroAutorizacao, dataAutorizacao, validadeAutorizacao
      */
-    private void gerarAutorizacao(DelegateExecution execution) {
+    private void gerarAutorizacao(DelegateExecution execution) throws Exception {
         String beneficiarioId = (String) execution.getVariable("beneficiarioId");
         String tipoProcedimento = (String) execution.getVariable("tipoProcedimento");
         String decisao = (String) execution.getVariable("decisaoAutorizacao");
@@ -145,8 +149,11 @@ public class AutorizacaoService implements JavaDelegate {
 
     /**
      * Atualiza status de autorização existente
+     *
+     * Publica AutorizacaoProcessada com o novo status para a projeção de
+     * consulta do autoatendimento.
      */
-    private void atualizarAutorizacao(DelegateExecution execution) {
+    private void atualizarAutorizacao(DelegateExecution execution) throws Exception {
         String numeroAutorizacao = (String) execution.getVariable("numeroAutorizacao");
         String novoStatus = (String) execution.getVariable("novoStatusAutorizacao");
 
@@ -162,6 +169,9 @@ public class AutorizacaoService implements JavaDelegate {
                                       numeroAutorizacao);
             restTemplate.put(url, atualizacao);
 
+            execution.setVariable("eventoTipo", "AutorizacaoProcessada");
+            kafkaPublisher.execute(execution);
+
             LOGGER.info("Autorização atualizada com sucesso");
 
         } catch (Exception e) {
@@ -171,9 +181,9 @@ public class AutorizacaoService implements JavaDelegate {
     }
 
     /**
-     * Cancela autorização
+     * Cancela autorização e publica AutorizacaoProcessada
      */
-    private void cancelarAutorizacao(DelegateExecution execution) {
+    private void cancelarAutorizacao(DelegateExecution execution) throws Exception {
         String numeroAutorizacao = (String) execution.getVariable("numeroAutorizacao");
         String motivoCancelamento = (String) execution.getVariable("motivoCancelamento");
 
@@ -191,6 +201,9 @@ public class AutorizacaoService implements JavaDelegate {
 
             execution.setVariable("autorizacaoCancelada", true);
 
+            execution.setVariable("eventoTipo", "AutorizacaoProcessada");
+            kafkaPublisher.execute(execution);
+
             LOGGER.info("Autorização cancelada com sucesso");
 
         } catch (Exception e) {
@@ -200,11 +213,9 @@ public class AutorizacaoService implements JavaDelegate {
     }
 
     /**
-     * Gera número único de autorização no formato: AUT-YYYY-NNNNNNNN
+     * Gera número único de autorização no formato TISS: AAAAMMDD-XXXXXXXX-DD
      */
     private String gerarNumeroAutorizacao() {
-        String ano = String.valueOf(java.time.Year.now().getValue());
-        String sequencial = String.format("%08d", (int) (Math.random() * 100000000));
-        return String.format("AUT-%s-%s", ano, sequencial);
+        return geradorIds.proximoNumeroAutorizacao();
     }
 }
@@ -1,5 +1,6 @@
 package br.com.austa.experiencia.service.integration;
 
+import br.com.austa.experiencia.service.ids.GeradorIds;
 import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.JavaDelegate;
 import org.slf4j.Logger;
@@ -14,7 +15,6 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 /**
  * Java Delegate para persistência no Data Lake
@@ -48,6 +48,9 @@ public class DataLakeService implements JavaDelegate {
     @Autowired
     private KafkaPublisherService kafkaPublisher;
 
+    @Autowired
+    private GeradorIds geradorIds;
+
     @Override
     public void execute(DelegateExecution execution) throws Exception {
         String operacao = (String) execution.getVariable("dataLakeOperacao");
@@ -103,7 +106,7 @@ public class DataLakeService implements JavaDelegate {
         LOGGER.info("Registrando perfil completo do beneficiário {} no Data Lake", beneficiarioId);
 
         Map<String, Object> perfil = new HashMap<>();
-        perfil.put("perfil_id", UUID.randomUUID().toString());
+        perfil.put("perfil_id", geradorIds.proximoIdTexto());
         perfil.put("beneficiario_id", beneficiarioId);
         perfil.put("timestamp", Instant.now().toString());
         perfil.put("process_instance_id", execution.getProcessInstanceId());
@@ -176,7 +179,7 @@ public class DataLakeService implements JavaDelegate {
         LOGGER.info("Registrando jornada completa do beneficiário {} no Data Lake", beneficiarioId);
 
         Map<String, Object> jornada = new HashMap<>();
-        jornada.put("jornada_id", UUID.randomUUID().toString());
+        jornada.put("jornada_id", geradorIds.proximoIdTexto());
         jornada.put("beneficiario_id", beneficiarioId);
         jornada.put("process_instance_id", execution.getProcessInstanceId());
         jornada.put("timestamp_inicio", execution.getVariable("dataInicio"));
@@ -238,7 +241,7 @@ public class DataLakeService implements JavaDelegate {
         LOGGER.info("Registrando interação do beneficiário {} no Data Lake", beneficiarioId);
 
         Map<String, Object> interacao = new HashMap<>();
-        interacao.put("interacao_id", UUID.randomUUID().toString());
+        interacao.put("interacao_id", geradorIds.proximoIdTexto());
         interacao.put("beneficiario_id", beneficiarioId);
         interacao.put("timestamp", Instant.now().toString());
 
@@ -292,7 +295,7 @@ public class DataLakeService implements JavaDelegate {
         LOGGER.info("Consolidando métricas para processo {}", processDefinitionKey);
 
         Map<String, Object> metricas = new HashMap<>();
-        metricas.put("metrics_id", UUID.randomUUID().toString());
+        metricas.put("metrics_id", geradorIds.proximoIdTexto());
         metricas.put("process_definition_key", processDefinitionKey);
         metricas.put("process_instance_id", execution.getProcessInstanceId());
         metricas.put("timestamp", Instant.now().toString());
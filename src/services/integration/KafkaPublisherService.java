@@ -1,5 +1,13 @@
 package br.com.austa.experiencia.service.integration;
 
+import br.com.austa.experiencia.service.ids.GeradorIds;
+import br.com.austa.experiencia.service.instrumentacao.RegistroInstrumentacao;
+import br.com.austa.experiencia.service.instrumentacao.TipoChamadaExterna;
+import br.com.austa.experiencia.service.rastreamento.ContextoSpan;
+import br.com.austa.experiencia.service.rastreamento.Rastreador;
+import br.com.austa.experiencia.service.rastreamento.Span;
+import br.com.austa.experiencia.service.rastreamento.TipoSpan;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.JavaDelegate;
 import org.slf4j.Logger;
@@ -13,10 +21,10 @@ import org.springframework.util.concurrent.ListenableFutureCallback;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 /**
  * Java Delegate para publicação de eventos no Kafka
@@ -50,6 +58,15 @@ public class KafkaPublisherService implements JavaDelegate {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private GeradorIds geradorIds;
+
+    @Autowired
+    private RegistroInstrumentacao registroInstrumentacao;
+
+    @Autowired
+    private Rastreador rastreador;
+
     @Override
     public void execute(DelegateExecution execution) throws Exception {
         String eventoTipo = (String) execution.getVariable("eventoTipo");
@@ -91,7 +108,7 @@ public class KafkaPublisherService implements JavaDelegate {
         Map<String, Object> evento = new HashMap<>();
 
         // Metadados obrigatórios
-        evento.put("eventoId", UUID.randomUUID().toString());
+        evento.put("eventoId", geradorIds.proximoIdTexto());
         evento.put("eventoTipo", eventoTipo);
         evento.put("timestamp", Instant.now().toString());
         evento.put("processInstanceId", execution.getProcessInstanceId());
@@ -101,7 +118,7 @@ public class KafkaPublisherService implements JavaDelegate {
         // Correlation ID para rastreabilidade
         String correlationId = (String) execution.getVariable("correlationId");
         if (correlationId == null) {
-            correlationId = UUID.randomUUID().toString();
+            correlationId = geradorIds.proximoIdTexto();
             execution.setVariable("correlationId", correlationId);
         }
         evento.put("correlationId", correlationId);
@@ -149,6 +166,12 @@ public class KafkaPublisherService implements JavaDelegate {
                 payload.put("decisaoAutorizacao", execution.getVariable("decisaoAutorizacao"));
                 payload.put("tipoProcedimento", execution.getVariable("tipoProcedimento"));
                 payload.put("valorProcedimento", execution.getVariable("valorProcedimento"));
+                payload.put("operacao", execution.getVariable("autorizacaoOperacao"));
+                payload.put("numeroGuia", execution.getVariable("numeroGuia"));
+                payload.put("novoStatusAutorizacao", execution.getVariable("novoStatusAutorizacao"));
+                payload.put("motivoDecisao", execution.getVariable("motivoDecisao"));
+                payload.put("motivoAtualizacao", execution.getVariable("motivoAtualizacao"));
+                payload.put("motivoCancelamento", execution.getVariable("motivoCancelamento"));
                 break;
 
             case "JornadaCompleta":
@@ -204,8 +227,25 @@ public class KafkaPublisherService implements JavaDelegate {
      */
     private void publishWithCallback(String topico, String chave, String mensagem,
                                      DelegateExecution execution) {
-        ListenableFuture<SendResult<String, String>> future =
-            kafkaTemplate.send(topico, chave, mensagem);
+        // Producer span lasts until the broker acknowledges; consumers continue the trace from the header
+        Span span = rastreador.iniciar("publicar " + topico, TipoSpan.PRODUTOR)
+            .atributo("messaging.system", "kafka")
+            .atributo("messaging.destination.name", topico);
+        ProducerRecord<String, String> registro = new ProducerRecord<>(topico, chave, mensagem);
+        registro.headers().add(ContextoSpan.CABECALHO,
+            span.getContexto().traceparent().getBytes(StandardCharsets.US_ASCII));
+
+        // Time the task spends blocked in send (metadata, full buffer); the ack is asynchronous
+        long inicio = System.nanoTime();
+        ListenableFuture<SendResult<String, String>> future;
+        try {
+            future = kafkaTemplate.send(registro);
+        } catch (RuntimeException e) {
+            span.erro(e).finalizar();
+            throw e;
+        } finally {
+            registroInstrumentacao.chamadaExterna(TipoChamadaExterna.KAFKA, topico, System.nanoTime() - inicio);
+        }
 
         future.addCallback(new ListenableFutureCallback<SendResult<String, String>>() {
             @Override
@@ -214,11 +254,14 @@ public class KafkaPublisherService implements JavaDelegate {
                            topico,
                            result.getRecordMetadata().partition(),
                            result.getRecordMetadata().offset());
+                span.atributo("messaging.destination.partition.id", result.getRecordMetadata().partition())
+                    .finalizar();
             }
 
             @Override
             public void onFailure(Throwable ex) {
                 LOGGER.error("Falha ao publicar evento no tópico {}: {}", topico, ex.getMessage(), ex);
+                span.erro(ex).finalizar();
                 execution.setVariable("kafkaErro", true);
                 execution.setVariable("kafkaErroMensagem", ex.getMessage());
             }
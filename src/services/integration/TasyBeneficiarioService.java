@@ -1,17 +1,23 @@
 package br.com.austa.experiencia.service.integration;
 
+import br.com.austa.experiencia.exception.IntegrationException;
+import br.com.austa.experiencia.model.dto.ElegibilidadeDTO;
+import br.com.austa.experiencia.service.elegibilidade.ReplicaElegibilidade;
 import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.JavaDelegate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 
+import java.time.LocalDate;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Optional;
 
 /**
  * Java Delegate para integração com Tasy ERP
@@ -21,6 +27,7 @@ import java.util.HashMap;
  * - Buscar informações de beneficiários
  * - Atualizar dados cadastrais
  * - Consultar histórico de utilizações
+ * - Verificar elegibilidade por cartão (réplica local, com fallback ao Tasy)
  *
  * Uso no BPMN:
  * <serviceTask id="ServiceTask_BuscarBeneficiario"
@@ -39,6 +46,9 @@ public class TasyBeneficiarioService implements JavaDelegate {
     @Autowired
     private TasyConfiguration tasyConfig;
 
+    @Autowired
+    private ReplicaElegibilidade replicaElegibilidade;
+
     @Override
     public void execute(DelegateExecution execution) throws Exception {
         String operacao = (String) execution.getVariable("tasyOperacao");
@@ -75,6 +85,58 @@ public class TasyBeneficiarioService implements JavaDelegate {
         }
     }
 
+    /**
+     * Verifica a elegibilidade do cartão na data do procedimento
+     *
+     * Answered from the local eligibility replica while it is current; when it
+     * is stale, still replaying, or the card number is not replicated, falls
+     * back to the live Tasy endpoint. Replica answers carry no beneficiary name.
+     *
+     * @throws IntegrationException if the live lookup fails
+     */
+    public ElegibilidadeDTO verificarElegibilidade(String cartaoNumero, String cpf, LocalDate dataProcedimento) {
+        Optional<ElegibilidadeDTO> local = replicaElegibilidade.consultar(cartaoNumero, dataProcedimento);
+        if (local.isPresent()) {
+            return local.get();
+        }
+        LOGGER.debug("Réplica de elegibilidade sem resposta (marca d'água {}), consultando Tasy",
+                    replicaElegibilidade.getMarcaDagua());
+        return consultarElegibilidadeTasy(cartaoNumero, cpf, dataProcedimento);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ElegibilidadeDTO consultarElegibilidadeTasy(String cartaoNumero, String cpf, LocalDate dataProcedimento) {
+        String url = String.format("%s/api/v1/beneficiarios/elegibilidade?cartao=%s&data=%s",
+                                  tasyConfig.getBaseUrl(), cartaoNumero, dataProcedimento);
+        if (cpf != null) {
+            url += "&cpf=" + cpf;
+        }
+        try {
+            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+            if (response == null) {
+                throw new IntegrationException("Resposta vazia do Tasy para elegibilidade");
+            }
+            Object dataAdesao = response.get("data_adesao");
+            return ElegibilidadeDTO.builder()
+                .elegivel(Boolean.TRUE.equals(response.get("elegivel")))
+                .motivoInelegibilidade((String) response.get("motivo_inelegibilidade"))
+                .statusPlano((String) response.get("status_plano"))
+                .beneficiarioId((String) response.get("beneficiario_id"))
+                .nomeBeneficiario((String) response.get("nome"))
+                .dataAdesao(dataAdesao != null ? LocalDate.parse(dataAdesao.toString()) : null)
+                .build();
+        } catch (HttpClientErrorException.NotFound e) {
+            return ElegibilidadeDTO.builder()
+                .elegivel(false)
+                .motivoInelegibilidade("Cartão não encontrado no Tasy")
+                .build();
+        } catch (IntegrationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IntegrationException("Falha ao consultar elegibilidade no Tasy", e);
+        }
+    }
+
     /**
      * Cria um novo registro de beneficiário no Tasy
      *
@@ -1,12 +1,21 @@
 package br.com.austa.experiencia.service.integration;
 
+import br.com.austa.experiencia.service.whatsapp.MensagemWhatsApp;
+import br.com.austa.experiencia.service.whatsapp.PrioridadeMensagem;
+import br.com.austa.experiencia.service.whatsapp.WhatsAppDispatcher;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.util.Map;
 
 /**
  * Service responsável pela integração com WhatsApp Business API.
  *
+ * <p>Os envios não são feitos na thread do job: as mensagens são enfileiradas
+ * no {@link WhatsAppDispatcher}, que aplica prioridade e limites de vazão por
+ * número remetente. Os métodos retornam o id de despacho, ecoado no recibo de
+ * entrega correlacionado ao processo ({@code Msg_WhatsAppStatus}).</p>
+ *
  * @author AI Agent
  * @version 1.0
  * @since 2025-12-11
@@ -15,34 +24,42 @@ import java.util.Map;
 @Service
 public class WhatsAppService {
 
+    @Autowired
+    private WhatsAppDispatcher whatsAppDispatcher;
+
     /**
      * Envia mensagem de texto simples via WhatsApp.
      */
     public String enviarMensagem(String telefone, String mensagem) {
-        log.info("Enviando mensagem WhatsApp para: {}", maskPhone(telefone));
-
-        // TODO: Implementar integração com WhatsApp Business API
-        // - Autenticação via token
-        // - Envio via REST API
-        // - Retry logic
+        return enviarMensagem(telefone, mensagem, PrioridadeMensagem.TRANSACIONAL, null);
+    }
 
-        String messageId = "msg_" + System.currentTimeMillis();
-        return messageId;
+    /**
+     * Enfileira mensagem de texto com prioridade, vinculada ao processo para o recibo de entrega.
+     */
+    public String enviarMensagem(String telefone, String mensagem, PrioridadeMensagem prioridade,
+                                 String processInstanceId) {
+        log.info("Enfileirando mensagem WhatsApp ({}) para: {}", prioridade, maskPhone(telefone));
+        return whatsAppDispatcher.enfileirar(
+            MensagemWhatsApp.texto(telefone, mensagem, prioridade, processInstanceId));
     }
 
     /**
      * Envia mensagem usando template aprovado WhatsApp.
      */
     public String enviarComTemplate(String telefone, String templateId, Map<String, Object> parametros) {
-        log.info("Enviando mensagem WhatsApp com template {} para: {}", templateId, maskPhone(telefone));
-
-        // TODO: Implementar envio com template
-        // - Validar template aprovado
-        // - Substituir parâmetros
-        // - Enviar via API
+        return enviarComTemplate(telefone, templateId, parametros, PrioridadeMensagem.TRANSACIONAL, null);
+    }
 
-        String messageId = "tmpl_" + System.currentTimeMillis();
-        return messageId;
+    /**
+     * Enfileira mensagem com template aprovado, com prioridade e processo de origem.
+     */
+    public String enviarComTemplate(String telefone, String templateId, Map<String, Object> parametros,
+                                    PrioridadeMensagem prioridade, String processInstanceId) {
+        log.info("Enfileirando mensagem WhatsApp com template {} ({}) para: {}",
+                 templateId, prioridade, maskPhone(telefone));
+        return whatsAppDispatcher.enfileirar(
+            MensagemWhatsApp.template(telefone, templateId, parametros, prioridade, processInstanceId));
     }
 
     private String maskPhone(String phone) {
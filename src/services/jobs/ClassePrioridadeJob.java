@@ -0,0 +1,42 @@
+package br.com.austa.experiencia.service.jobs;
+
+/**
+ * Priority class of an async job, highest first. Each class runs on its own
+ * threads, so a class never waits behind the backlog of a lower one.
+ */
+public enum ClassePrioridadeJob {
+
+    /** Critical / emergency care (e.g. reception with nivelUrgencia=CRITICA). */
+    CRITICA(1000),
+
+    /** High urgency or a tight SLA (4h or less). */
+    ALTA(500),
+
+    /** Regular member-facing work. */
+    NORMAL(100),
+
+    /** Campaigns, fan-outs and follow-ups that can wait. */
+    LOTE(Long.MIN_VALUE);
+
+    private final long prioridadeMinima;
+
+    ClassePrioridadeJob(long prioridadeMinima) {
+        this.prioridadeMinima = prioridadeMinima;
+    }
+
+    /**
+     * Lowest Camunda job priority that falls into this class.
+     */
+    public long getPrioridadeMinima() {
+        return prioridadeMinima;
+    }
+
+    public static ClassePrioridadeJob deValor(long prioridade) {
+        for (ClassePrioridadeJob classe : values()) {
+            if (prioridade >= classe.prioridadeMinima) {
+                return classe;
+            }
+        }
+        return LOTE;
+    }
+}
@@ -0,0 +1,387 @@
+package br.com.austa.experiencia.service.jobs;
+
+import br.com.austa.experiencia.service.metricas.HistogramaLatencia;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Despachante Jobs - runs acquired jobs on one thread group per priority class
+ *
+ * - Each {@link ClassePrioridadeJob} has its own threads and bounded queue,
+ *   so urgent jobs never queue behind a batch backlog
+ * - Within a class, queued jobs are served round-robin across process
+ *   definitions, and no definition may hold more than its quota of the
+ *   class's threads (fair share: one campaign cannot take the whole class)
+ * - Queue wait (from the job being due to it starting) is tracked per class
+ * - Queued jobs stay locked to this node, so a job whose lock would lapse
+ *   before it can finish ({@code margemBloqueioMs} before expiry) is not run:
+ *   it is handed back (its lock released) for any node to acquire again,
+ *   instead of running here while another node runs it too. Queues are kept
+ *   short (a few jobs per thread) so this stays the exception
+ *
+ * Engine-independent: {@link ExecutorJobsPrioritario} feeds it with the
+ * engine's acquired jobs.
+ */
+public class DespachanteJobs {
+
+    private static final Logger logger = LoggerFactory.getLogger(DespachanteJobs.class);
+
+    private final Map<ClassePrioridadeJob, Fila> filas = new EnumMap<>(ClassePrioridadeJob.class);
+    private final Clock clock;
+    private final long margemBloqueioMs;
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean ativo;
+
+    /**
+     * @param threadsPorClasse worker threads of each class
+     * @param quotaPorDefinicao most threads of a class one process definition may hold at once
+     * @param capacidadePorClasse jobs that may wait in each class's queue
+     */
+    public DespachanteJobs(Map<ClassePrioridadeJob, Integer> threadsPorClasse,
+                           Map<ClassePrioridadeJob, Integer> quotaPorDefinicao,
+                           int capacidadePorClasse, Clock clock) {
+        this(threadsPorClasse, quotaPorDefinicao, capacidadeUniforme(capacidadePorClasse), 0, clock);
+    }
+
+    /**
+     * @param threadsPorClasse worker threads of each class
+     * @param quotaPorDefinicao most threads of a class one process definition may hold at once
+     * @param capacidadePorClasse jobs that may wait in each class's queue (one per thread when absent)
+     * @param margemBloqueioMs lock time a job must have left to be started; should cover its run time
+     */
+    public DespachanteJobs(Map<ClassePrioridadeJob, Integer> threadsPorClasse,
+                           Map<ClassePrioridadeJob, Integer> quotaPorDefinicao,
+                           Map<ClassePrioridadeJob, Integer> capacidadePorClasse,
+                           long margemBloqueioMs, Clock clock) {
+        this.clock = clock;
+        this.margemBloqueioMs = margemBloqueioMs;
+        for (ClassePrioridadeJob classe : ClassePrioridadeJob.values()) {
+            int numThreads = Math.max(1, threadsPorClasse.getOrDefault(classe, 1));
+            int quota = Math.max(1, Math.min(numThreads, quotaPorDefinicao.getOrDefault(classe, numThreads)));
+            int capacidade = Math.max(1, capacidadePorClasse.getOrDefault(classe, numThreads));
+            filas.put(classe, new Fila(classe, numThreads, quota, capacidade));
+        }
+    }
+
+    public synchronized void iniciar() {
+        if (ativo) {
+            return;
+        }
+        ativo = true;
+        for (Fila fila : filas.values()) {
+            for (int i = 0; i < fila.numThreads; i++) {
+                Thread thread = new Thread(() -> trabalhar(fila),
+                    "jobs-" + fila.classe.name().toLowerCase() + "-" + i);
+                thread.setDaemon(true);
+                thread.start();
+                threads.add(thread);
+            }
+        }
+        logger.info("Job dispatcher started: {}", resumoThreads());
+    }
+
+    /**
+     * Stops taking jobs; jobs still queued stay locked in the engine and are
+     * acquired again once their lock expires.
+     */
+    public synchronized void parar() throws InterruptedException {
+        ativo = false;
+        for (Fila fila : filas.values()) {
+            fila.acordarTodos();
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        threads.clear();
+    }
+
+    /**
+     * Queues a job on its class.
+     *
+     * @return false when the class's queue is full; the caller hands the job back to the engine
+     */
+    public boolean despachar(JobClassificado job, Runnable execucao) {
+        return despachar(job, execucao, () -> { });
+    }
+
+    /**
+     * Queues a job on its class.
+     *
+     * @param liberacao releases the job's lock when it is dropped because the lock is about to lapse
+     * @return false when the class's queue is full or the job's lock is about to lapse; the caller
+     *         hands the job back to the engine
+     */
+    public boolean despachar(JobClassificado job, Runnable execucao, Runnable liberacao) {
+        Fila fila = filas.get(job.getClasse());
+        if (!ativo || bloqueioExpirando(job) || !fila.oferecer(new Pendente(job, execucao, liberacao))) {
+            fila.rejeitados.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public long getExecutados(ClassePrioridadeJob classe) {
+        return filas.get(classe).executados.sum();
+    }
+
+    public long getRejeitados(ClassePrioridadeJob classe) {
+        return filas.get(classe).rejeitados.sum();
+    }
+
+    /**
+     * Queued jobs dropped because their lock was about to lapse.
+     */
+    public long getExpirados(ClassePrioridadeJob classe) {
+        return filas.get(classe).expirados.sum();
+    }
+
+    public long getFalhas(ClassePrioridadeJob classe) {
+        return filas.get(classe).falhas.sum();
+    }
+
+    public int getPendentes(ClassePrioridadeJob classe) {
+        return filas.get(classe).pendentes();
+    }
+
+    /**
+     * Time from a job being due to it starting, for jobs of this class.
+     */
+    public HistogramaLatencia getEspera(ClassePrioridadeJob classe) {
+        return filas.get(classe).espera;
+    }
+
+    public Map<String, Object> metricas() {
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        for (Fila fila : filas.values()) {
+            Map<String, Object> classe = new LinkedHashMap<>();
+            classe.put("threads", fila.numThreads);
+            classe.put("quotaPorDefinicao", fila.quota);
+            classe.put("capacidade", fila.capacidade);
+            classe.put("pendentes", fila.pendentes());
+            classe.put("executados", fila.executados.sum());
+            classe.put("rejeitados", fila.rejeitados.sum());
+            classe.put("expirados", fila.expirados.sum());
+            classe.put("falhas", fila.falhas.sum());
+            classe.put("esperaMediaMs", fila.espera.getMediaMillis());
+            classe.put("esperaP50Ms", fila.espera.percentilMillis(0.50));
+            classe.put("esperaP95Ms", fila.espera.percentilMillis(0.95));
+            classe.put("esperaP99Ms", fila.espera.percentilMillis(0.99));
+            classe.put("esperaMaximaMs", fila.espera.getMaximoMillis());
+            metricas.put(fila.classe.name(), classe);
+        }
+        return metricas;
+    }
+
+    private void trabalhar(Fila fila) {
+        while (true) {
+            Pendente pendente;
+            try {
+                pendente = fila.proximo();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (pendente == null) {
+                return;
+            }
+            if (bloqueioExpirando(pendente.job)) {
+                liberar(fila, pendente);
+                continue;
+            }
+            long espera = Math.max(0, clock.millis() - pendente.job.getDisponivelEm());
+            fila.espera.registrar(TimeUnit.MILLISECONDS.toNanos(espera));
+            try {
+                pendente.execucao.run();
+                fila.executados.increment();
+            } catch (RuntimeException e) {
+                // the engine records job failures itself; this only guards the worker
+                fila.falhas.increment();
+                logger.error("Job {} failed outside the engine's handling", pendente.job.getJobId(), e);
+            } finally {
+                fila.concluido(pendente.job.getDefinicaoKey());
+            }
+        }
+    }
+
+    private boolean bloqueioExpirando(JobClassificado job) {
+        return job.getBloqueioExpiraEm() > 0 && clock.millis() + margemBloqueioMs >= job.getBloqueioExpiraEm();
+    }
+
+    private void liberar(Fila fila, Pendente pendente) {
+        fila.expirados.increment();
+        logger.warn("Job {} waited until its lock was about to lapse; handing it back", pendente.job.getJobId());
+        try {
+            pendente.liberacao.run();
+        } catch (RuntimeException e) {
+            // the lock lapses on its own; the job is only acquired again later
+            logger.warn("Could not release the lock of job {}: {}", pendente.job.getJobId(), e.getMessage());
+        } finally {
+            fila.concluido(pendente.job.getDefinicaoKey());
+        }
+    }
+
+    private static Map<ClassePrioridadeJob, Integer> capacidadeUniforme(int capacidade) {
+        Map<ClassePrioridadeJob, Integer> porClasse = new EnumMap<>(ClassePrioridadeJob.class);
+        for (ClassePrioridadeJob classe : ClassePrioridadeJob.values()) {
+            porClasse.put(classe, capacidade);
+        }
+        return porClasse;
+    }
+
+    private String resumoThreads() {
+        StringBuilder resumo = new StringBuilder();
+        for (Fila fila : filas.values()) {
+            if (resumo.length() > 0) {
+                resumo.append(", ");
+            }
+            resumo.append(fila.classe).append('=').append(fila.numThreads)
+                .append(" (quota ").append(fila.quota).append(", fila ").append(fila.capacidade).append(')');
+        }
+        return resumo.toString();
+    }
+
+    private static final class Pendente {
+        final JobClassificado job;
+        final Runnable execucao;
+        final Runnable liberacao;
+
+        Pendente(JobClassificado job, Runnable execucao, Runnable liberacao) {
+            this.job = job;
+            this.execucao = execucao;
+            this.liberacao = liberacao;
+        }
+    }
+
+    /**
+     * Queue of one class: a FIFO per process definition, served round-robin,
+     * skipping definitions that already hold their quota of threads.
+     */
+    private final class Fila {
+        final ClassePrioridadeJob classe;
+        final int numThreads;
+        final int quota;
+        final int capacidade;
+
+        final ReentrantLock lock = new ReentrantLock();
+        final Condition haTrabalho = lock.newCondition();
+        final Map<String, ArrayDeque<Pendente>> porDefinicao = new HashMap<>();
+        final ArrayDeque<String> rodizio = new ArrayDeque<>();
+        final Map<String, Integer> emExecucao = new HashMap<>();
+        int total;
+
+        final LongAdder executados = new LongAdder();
+        final LongAdder rejeitados = new LongAdder();
+        final LongAdder expirados = new LongAdder();
+        final LongAdder falhas = new LongAdder();
+        final HistogramaLatencia espera = new HistogramaLatencia();
+
+        Fila(ClassePrioridadeJob classe, int numThreads, int quota, int capacidade) {
+            this.classe = classe;
+            this.numThreads = numThreads;
+            this.quota = quota;
+            this.capacidade = capacidade;
+        }
+
+        boolean oferecer(Pendente pendente) {
+            lock.lock();
+            try {
+                if (total >= capacidade) {
+                    return false;
+                }
+                String definicao = pendente.job.getDefinicaoKey();
+                ArrayDeque<Pendente> fila = porDefinicao.get(definicao);
+                if (fila == null) {
+                    fila = new ArrayDeque<>();
+                    porDefinicao.put(definicao, fila);
+                    rodizio.addLast(definicao);
+                }
+                fila.addLast(pendente);
+                total++;
+                haTrabalho.signal();
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return next job to run, or null once the dispatcher stops
+         */
+        Pendente proximo() throws InterruptedException {
+            lock.lock();
+            try {
+                while (ativo) {
+                    for (int i = rodizio.size(); i > 0; i--) {
+                        String definicao = rodizio.pollFirst();
+                        int rodando = emExecucao.getOrDefault(definicao, 0);
+                        if (rodando >= quota) {
+                            rodizio.addLast(definicao);
+                            continue;
+                        }
+                        ArrayDeque<Pendente> fila = porDefinicao.get(definicao);
+                        Pendente pendente = fila.pollFirst();
+                        if (fila.isEmpty()) {
+                            porDefinicao.remove(definicao);
+                        } else {
+                            rodizio.addLast(definicao);
+                        }
+                        emExecucao.put(definicao, rodando + 1);
+                        total--;
+                        return pendente;
+                    }
+                    haTrabalho.await(1, TimeUnit.SECONDS);
+                }
+                return null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void concluido(String definicao) {
+            lock.lock();
+            try {
+                int rodando = emExecucao.getOrDefault(definicao, 1) - 1;
+                if (rodando <= 0) {
+                    emExecucao.remove(definicao);
+                } else {
+                    emExecucao.put(definicao, rodando);
+                }
+                // a definition at its quota may have become eligible again
+                haTrabalho.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int pendentes() {
+            lock.lock();
+            try {
+                return total;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void acordarTodos() {
+            lock.lock();
+            try {
+                haTrabalho.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
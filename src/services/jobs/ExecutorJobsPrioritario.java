@@ -0,0 +1,217 @@
+package br.com.austa.experiencia.service.jobs;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Executor Jobs Prioritario - the engine's job executor, with one thread
+ * group per priority class
+ *
+ * - Acquisition is by priority ({@link PrioridadeJobsPlugin} turns on
+ *   {@code jobExecutorAcquireByPriority}), so urgent jobs are acquired first
+ * - Acquired jobs are classified by their priority and process definition and
+ *   handed to {@link DespachanteJobs}, which runs each class on its own
+ *   threads with a fair share per definition
+ * - Jobs a full class cannot take go back through the engine's rejected jobs
+ *   handler, as with the stock executor
+ * - Acquired jobs are locked to this node for {@code jobs.prioridade.bloqueio-ms}
+ *   whether they run or wait, so each class queues only
+ *   {@code jobs.prioridade.fila-por-thread} jobs per thread and the rest stay
+ *   in the database for whichever node is free. A queued job with less than
+ *   {@code jobs.prioridade.margem-bloqueio-ms} of lock left is not started
+ *   but released; the margin must cover the longest job (LOTE campaigns
+ *   included), or a job still running when its lock lapses is acquired and
+ *   run again elsewhere
+ *
+ * Replaces the Spring Boot starter's default job executor bean; the
+ * {@code camunda.bpm.job-execution.*} pool settings no longer apply, the
+ * {@code jobs.prioridade.*} ones do.
+ */
+@Component("executorJobsPrioritario")
+public class ExecutorJobsPrioritario extends JobExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutorJobsPrioritario.class);
+
+    private final DespachanteJobs despachante;
+    private final Clock clock;
+
+    @Autowired
+    public ExecutorJobsPrioritario(
+            @Value("${jobs.prioridade.threads:CRITICA:4,ALTA:4,NORMAL:8,LOTE:6}") String threads,
+            @Value("${jobs.prioridade.quota-por-definicao:CRITICA:4,ALTA:4,NORMAL:4,LOTE:3}") String quotas,
+            @Value("${jobs.prioridade.fila-por-thread:2}") int filaPorThread,
+            @Value("${jobs.prioridade.max-jobs-por-aquisicao:10}") int maxJobsPorAquisicao,
+            @Value("${jobs.prioridade.bloqueio-ms:300000}") int bloqueioMs,
+            @Value("${jobs.prioridade.margem-bloqueio-ms:60000}") long margemBloqueioMs) {
+        this(new DespachanteJobs(parsePorClasse(threads), parsePorClasse(quotas),
+            capacidadePorThread(parsePorClasse(threads), filaPorThread), margemBloqueioMs, Clock.systemUTC()),
+            maxJobsPorAquisicao, Clock.systemUTC());
+        if (margemBloqueioMs >= bloqueioMs) {
+            throw new IllegalArgumentException("jobs.prioridade.margem-bloqueio-ms (" + margemBloqueioMs
+                + ") must be shorter than jobs.prioridade.bloqueio-ms (" + bloqueioMs + ")");
+        }
+        setLockTimeInMillis(bloqueioMs);
+    }
+
+    public ExecutorJobsPrioritario(DespachanteJobs despachante, int maxJobsPorAquisicao, Clock clock) {
+        this.despachante = despachante;
+        this.clock = clock;
+        setMaxJobsPerAcquisition(maxJobsPorAquisicao);
+    }
+
+    @Override
+    protected void startExecutingJobs() {
+        despachante.iniciar();
+        startJobAcquisitionThread();
+    }
+
+    @Override
+    protected void stopExecutingJobs() {
+        stopJobAcquisitionThread();
+        try {
+            despachante.parar();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void executeJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+        List<String> rejeitados = new ArrayList<>();
+        for (JobClassificado job : classificar(jobIds, processEngine)) {
+            Runnable execucao = getExecuteJobsRunnable(Collections.singletonList(job.getJobId()), processEngine);
+            Runnable liberacao = () -> processEngine.getProcessEngineConfiguration().getCommandExecutorTxRequired()
+                .execute(new LiberarJobCmd(job, getLockOwner()));
+            if (!despachante.despachar(job, execucao, liberacao)) {
+                rejeitados.add(job.getJobId());
+            }
+        }
+        if (!rejeitados.isEmpty()) {
+            logRejectedExecution(processEngine, rejeitados.size());
+            getRejectedJobsHandler().jobsRejected(rejeitados, processEngine, this);
+        }
+    }
+
+    public DespachanteJobs getDespachante() {
+        return despachante;
+    }
+
+    /**
+     * Acquisition returns ids only; priority and definition are read in one
+     * short command per acquired batch.
+     */
+    private List<JobClassificado> classificar(List<String> jobIds, ProcessEngineImpl processEngine) {
+        try {
+            return processEngine.getProcessEngineConfiguration().getCommandExecutorTxRequired()
+                .execute(new ClassificarJobsCmd(jobIds, clock));
+        } catch (RuntimeException e) {
+            logger.warn("Could not classify {} acquired job(s), running them as NORMAL: {}",
+                jobIds.size(), e.getMessage());
+            List<JobClassificado> jobs = new ArrayList<>(jobIds.size());
+            for (String jobId : jobIds) {
+                jobs.add(new JobClassificado(jobId, ClassePrioridadeJob.NORMAL.getPrioridadeMinima(), null,
+                    clock.millis()));
+            }
+            return jobs;
+        }
+    }
+
+    /**
+     * Queue depth of each class: a few jobs per thread, enough to keep the
+     * threads busy between acquisitions without holding locks on a backlog.
+     */
+    static Map<ClassePrioridadeJob, Integer> capacidadePorThread(Map<ClassePrioridadeJob, Integer> threads,
+                                                               int filaPorThread) {
+        Map<ClassePrioridadeJob, Integer> porClasse = new EnumMap<>(ClassePrioridadeJob.class);
+        for (ClassePrioridadeJob classe : ClassePrioridadeJob.values()) {
+            porClasse.put(classe, Math.max(1, threads.getOrDefault(classe, 1)) * Math.max(1, filaPorThread));
+        }
+        return porClasse;
+    }
+
+    static Map<ClassePrioridadeJob, Integer> parsePorClasse(String valor) {
+        Map<ClassePrioridadeJob, Integer> porClasse = new EnumMap<>(ClassePrioridadeJob.class);
+        for (String entrada : valor.split(",")) {
+            String[] partes = entrada.split(":");
+            if (partes.length == 2) {
+                porClasse.put(ClassePrioridadeJob.valueOf(partes[0].trim().toUpperCase(Locale.ROOT)),
+                    Integer.parseInt(partes[1].trim()));
+            }
+        }
+        return porClasse;
+    }
+
+    private static final class ClassificarJobsCmd implements Command<List<JobClassificado>> {
+        private final List<String> jobIds;
+        private final Clock clock;
+
+        ClassificarJobsCmd(List<String> jobIds, Clock clock) {
+            this.jobIds = jobIds;
+            this.clock = clock;
+        }
+
+        @Override
+        public List<JobClassificado> execute(CommandContext commandContext) {
+            List<JobClassificado> jobs = new ArrayList<>(jobIds.size());
+            for (String jobId : jobIds) {
+                JobEntity job = commandContext.getJobManager().findJobById(jobId);
+                if (job == null) {
+                    // deleted since acquisition; ExecuteJobsRunnable copes with that
+                    jobs.add(new JobClassificado(jobId, ClassePrioridadeJob.NORMAL.getPrioridadeMinima(), null,
+                        clock.millis()));
+                    continue;
+                }
+                long disponivelEm = job.getCreateTime() != null ? job.getCreateTime().getTime() : clock.millis();
+                if (job.getDuedate() != null && job.getDuedate().getTime() > disponivelEm) {
+                    disponivelEm = job.getDuedate().getTime();
+                }
+                long bloqueioExpiraEm = job.getLockExpirationTime() != null ? job.getLockExpirationTime().getTime() : 0;
+                jobs.add(new JobClassificado(jobId, job.getPriority(), job.getProcessDefinitionKey(), disponivelEm,
+                    bloqueioExpiraEm));
+            }
+            return jobs;
+        }
+    }
+
+    /**
+     * Releases the lock of a job dropped from its queue, only while it is
+     * still the lock this node acquired: once it lapsed another node may have
+     * acquired the job, and that lock is not ours to clear.
+     */
+    private static final class LiberarJobCmd implements Command<Void> {
+        private final JobClassificado classificado;
+        private final String lockOwner;
+
+        LiberarJobCmd(JobClassificado classificado, String lockOwner) {
+            this.classificado = classificado;
+            this.lockOwner = lockOwner;
+        }
+
+        @Override
+        public Void execute(CommandContext commandContext) {
+            JobEntity job = commandContext.getJobManager().findJobById(classificado.getJobId());
+            if (job != null && lockOwner.equals(job.getLockOwner()) && job.getLockExpirationTime() != null
+                    && job.getLockExpirationTime().getTime() == classificado.getBloqueioExpiraEm()) {
+                job.setLockOwner(null);
+                job.setLockExpirationTime(null);
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.austa.experiencia.service.jobs;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Job executor queues per priority class: threads, backlog, rejections and
+ * queue wait (mean, p50, p95, p99, max).
+ *
+ * GET /api/v1/jobs/filas
+ */
+@RestController
+@RequestMapping("/api/v1/jobs")
+public class FilasJobsController {
+
+    private final ExecutorJobsPrioritario executorJobsPrioritario;
+
+    @Autowired
+    public FilasJobsController(ExecutorJobsPrioritario executorJobsPrioritario) {
+        this.executorJobsPrioritario = executorJobsPrioritario;
+    }
+
+    @GetMapping("/filas")
+    public Map<String, Object> filas() {
+        return executorJobsPrioritario.getDespachante().metricas();
+    }
+}
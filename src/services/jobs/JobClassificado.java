@@ -0,0 +1,60 @@
+package br.com.austa.experiencia.service.jobs;
+
+/**
+ * An acquired job with what dispatching needs: its priority class, the
+ * process definition it counts against, since when it could have run and
+ * until when this node holds its lock.
+ */
+public final class JobClassificado {
+
+    private final String jobId;
+    private final long prioridade;
+    private final ClassePrioridadeJob classe;
+    private final String definicaoKey;
+    private final long disponivelEm;
+    private final long bloqueioExpiraEm;
+
+    /**
+     * @param disponivelEm epoch millis from which the job was due (creation or timer due date)
+     */
+    public JobClassificado(String jobId, long prioridade, String definicaoKey, long disponivelEm) {
+        this(jobId, prioridade, definicaoKey, disponivelEm, 0);
+    }
+
+    /**
+     * @param bloqueioExpiraEm epoch millis at which the acquisition lock lapses, 0 when unknown
+     */
+    public JobClassificado(String jobId, long prioridade, String definicaoKey, long disponivelEm,
+                           long bloqueioExpiraEm) {
+        this.jobId = jobId;
+        this.prioridade = prioridade;
+        this.classe = ClassePrioridadeJob.deValor(prioridade);
+        this.definicaoKey = definicaoKey == null ? "" : definicaoKey;
+        this.disponivelEm = disponivelEm;
+        this.bloqueioExpiraEm = bloqueioExpiraEm;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public long getPrioridade() {
+        return prioridade;
+    }
+
+    public ClassePrioridadeJob getClasse() {
+        return classe;
+    }
+
+    public String getDefinicaoKey() {
+        return definicaoKey;
+    }
+
+    public long getDisponivelEm() {
+        return disponivelEm;
+    }
+
+    public long getBloqueioExpiraEm() {
+        return bloqueioExpiraEm;
+    }
+}
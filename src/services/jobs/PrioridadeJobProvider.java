@@ -0,0 +1,118 @@
+package br.com.austa.experiencia.service.jobs;
+
+import org.camunda.bpm.engine.impl.jobexecutor.JobDeclaration;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.priority.DefaultJobPriorityProvider;
+import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Prioridade Job Provider - derives job priorities from the process state
+ *
+ * A {@code camunda:jobPriority} on the activity or process still wins. Otherwise
+ * the priority is the highest of:
+ * - the definition's base priority ({@code jobs.prioridade.definicoes},
+ *   e.g. the 06:00 proactive fan-out of SUB-002 is batch)
+ * - {@code nivelUrgencia}: CRITICA / EMERGENCIA, ALTA, MEDIA, BAIXA
+ * - the SLA: {@code slaHoras} or {@code slaAlvoMinutos} of 4 hours or less is ALTA
+ *
+ * See {@link ClassePrioridadeJob} for how priorities map to execution classes.
+ */
+@Component("prioridadeJobProvider")
+public class PrioridadeJobProvider extends DefaultJobPriorityProvider {
+
+    static final long PRIORIDADE_CRITICA = ClassePrioridadeJob.CRITICA.getPrioridadeMinima();
+    static final long PRIORIDADE_ALTA = ClassePrioridadeJob.ALTA.getPrioridadeMinima();
+    static final long PRIORIDADE_MEDIA = 200;
+    static final long PRIORIDADE_BAIXA = ClassePrioridadeJob.NORMAL.getPrioridadeMinima();
+
+    private static final long SLA_CURTO_MINUTOS = 4 * 60;
+
+    private final Map<String, Long> porDefinicao;
+    private final long padrao;
+
+    @Autowired
+    public PrioridadeJobProvider(
+            @Value("${jobs.prioridade.definicoes:SUB-002_Motor_Proativo:10,SUB-010_Follow_Up_Feedback:50,SUB-001_Onboarding_Screening:100,SUB-003_Recepcao_Classificacao:300}")
+            String definicoes,
+            @Value("${jobs.prioridade.padrao:100}") long padrao) {
+        this(parseDefinicoes(definicoes), padrao);
+    }
+
+    public PrioridadeJobProvider(Map<String, Long> porDefinicao, long padrao) {
+        this.porDefinicao = porDefinicao;
+        this.padrao = padrao;
+    }
+
+    @Override
+    protected Long getProcessDefinitionPriority(ExecutionEntity execution, JobDeclaration<?, ?> jobDeclaration) {
+        Long explicita = super.getProcessDefinitionPriority(execution, jobDeclaration);
+        if (explicita != null) {
+            return explicita;
+        }
+        long prioridade = porDefinicao.getOrDefault(definicaoKey(execution, jobDeclaration), padrao);
+        if (execution != null) {
+            prioridade = Math.max(prioridade, prioridadeUrgencia(execution.getVariable("nivelUrgencia")));
+            prioridade = Math.max(prioridade, prioridadeSla(
+                execution.getVariable("slaHoras"), execution.getVariable("slaAlvoMinutos")));
+        }
+        return prioridade;
+    }
+
+    static long prioridadeUrgencia(Object nivelUrgencia) {
+        if (nivelUrgencia == null) {
+            return Long.MIN_VALUE;
+        }
+        switch (nivelUrgencia.toString().trim().toUpperCase(Locale.ROOT)) {
+            case "CRITICA":
+            case "EMERGENCIA":
+                return PRIORIDADE_CRITICA;
+            case "ALTA":
+                return PRIORIDADE_ALTA;
+            case "MEDIA":
+                return PRIORIDADE_MEDIA;
+            case "BAIXA":
+                return PRIORIDADE_BAIXA;
+            default:
+                return Long.MIN_VALUE;
+        }
+    }
+
+    static long prioridadeSla(Object slaHoras, Object slaAlvoMinutos) {
+        long minutos = Long.MAX_VALUE;
+        if (slaHoras instanceof Number) {
+            minutos = ((Number) slaHoras).longValue() * 60;
+        }
+        if (slaAlvoMinutos instanceof Number) {
+            minutos = Math.min(minutos, ((Number) slaAlvoMinutos).longValue());
+        }
+        return minutos <= SLA_CURTO_MINUTOS ? PRIORIDADE_ALTA : Long.MIN_VALUE;
+    }
+
+    private static String definicaoKey(ExecutionEntity execution, JobDeclaration<?, ?> jobDeclaration) {
+        if (execution != null && execution.getProcessDefinition() != null) {
+            return execution.getProcessDefinition().getKey();
+        }
+        // timer start events create their job without an execution
+        ActivityImpl atividade = jobDeclaration != null ? jobDeclaration.getActivity() : null;
+        return atividade != null ? atividade.getProcessDefinition().getKey() : null;
+    }
+
+    static Map<String, Long> parseDefinicoes(String definicoes) {
+        Map<String, Long> porDefinicao = new HashMap<>();
+        for (String entrada : definicoes.split(",")) {
+            int separador = entrada.lastIndexOf(':');
+            if (separador > 0) {
+                porDefinicao.put(entrada.substring(0, separador).trim(),
+                    Long.parseLong(entrada.substring(separador + 1).trim()));
+            }
+        }
+        return porDefinicao;
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.austa.experiencia.service.jobs;
+
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prioridade Jobs Plugin - wires priority-driven job execution into the engine
+ *
+ * - {@link PrioridadeJobProvider} computes each job's priority at creation
+ * - acquisition orders by priority, timers no longer jump the queue
+ * - {@link ExecutorJobsPrioritario} runs the acquired jobs per priority class
+ */
+@Component
+public class PrioridadeJobsPlugin extends AbstractProcessEnginePlugin {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrioridadeJobsPlugin.class);
+
+    private final PrioridadeJobProvider prioridadeJobProvider;
+    private final ExecutorJobsPrioritario executorJobsPrioritario;
+
+    @Autowired
+    public PrioridadeJobsPlugin(PrioridadeJobProvider prioridadeJobProvider,
+                                ExecutorJobsPrioritario executorJobsPrioritario) {
+        this.prioridadeJobProvider = prioridadeJobProvider;
+        this.executorJobsPrioritario = executorJobsPrioritario;
+    }
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl configuration) {
+        configuration.setProducePrioritizedJobs(true);
+        configuration.setJobPriorityProvider(prioridadeJobProvider);
+        configuration.setJobExecutorAcquireByPriority(true);
+        configuration.setJobExecutorPreferTimerJobs(false);
+        configuration.setJobExecutor(executorJobsPrioritario);
+        logger.info("Priority-driven job acquisition and execution enabled");
+    }
+}
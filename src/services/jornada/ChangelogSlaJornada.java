@@ -0,0 +1,208 @@
+package br.com.austa.experiencia.service.jornada;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Changelog of the journey SLA state: snapshot plus append-only log.
+ *
+ * Both files hold the same framed records, [len(4) crc32(4) payload]:
+ * - ESTADO: full state of one journey (replaces the previous one)
+ * - ENCERRAMENTO: journey finished, its state is dropped
+ *
+ * Records are idempotent, so recovery simply replays snapshot then log. A
+ * torn record at the end of the log is detected by its CRC and truncated.
+ */
+final class ChangelogSlaJornada {
+
+    private static final byte ESTADO = 1;
+    private static final byte ENCERRAMENTO = 2;
+
+    private final Path snapshot;
+    private final Path log;
+    private final boolean fsync;
+    private FileChannel canal;
+    private int registrosDesdeSnapshot;
+
+    ChangelogSlaJornada(Path diretorio, boolean fsync) throws IOException {
+        Files.createDirectories(diretorio);
+        this.snapshot = diretorio.resolve("snapshot.dat");
+        this.log = diretorio.resolve("sla-jornadas.log");
+        this.fsync = fsync;
+    }
+
+    /**
+     * Replays snapshot and log, then opens the log for appending.
+     */
+    void recuperar(Consumer<EstadoSlaJornada> estado, Consumer<String> encerramento) throws IOException {
+        if (Files.exists(snapshot)) {
+            ler(snapshot, estado, encerramento);
+        }
+        long valido = Files.exists(log) ? ler(log, estado, encerramento) : 0;
+        canal = FileChannel.open(log, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        canal.truncate(valido);
+        canal.position(valido);
+    }
+
+    void registrarEstado(EstadoSlaJornada estado) throws IOException {
+        anexar(estado(estado));
+    }
+
+    void registrarEncerramento(String processInstanceId) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(ENCERRAMENTO);
+        out.writeUTF(processInstanceId);
+        anexar(bytes.toByteArray());
+    }
+
+    int getRegistrosDesdeSnapshot() {
+        return registrosDesdeSnapshot;
+    }
+
+    /**
+     * Writes every open journey to a new snapshot and starts an empty log.
+     *
+     * @param estados visits every open journey
+     */
+    void compactar(Consumer<Consumer<EstadoSlaJornada>> estados) throws IOException {
+        Path temporario = snapshot.resolveSibling("snapshot.tmp");
+        try (FileChannel destino = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            try {
+                estados.accept(estado -> {
+                    try {
+                        escrever(destino, estado(estado));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            destino.force(true);
+        }
+        Files.move(temporario, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        canal.truncate(0);
+        canal.position(0);
+        registrosDesdeSnapshot = 0;
+    }
+
+    void fechar() throws IOException {
+        if (canal != null) {
+            canal.force(true);
+            canal.close();
+        }
+    }
+
+    private void anexar(byte[] payload) throws IOException {
+        escrever(canal, payload);
+        if (fsync) {
+            canal.force(false);
+        }
+        registrosDesdeSnapshot++;
+    }
+
+    private static void escrever(FileChannel destino, byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer buffer = ByteBuffer.allocate(8 + payload.length);
+        buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        while (buffer.hasRemaining()) {
+            destino.write(buffer);
+        }
+    }
+
+    private static byte[] estado(EstadoSlaJornada estado) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(ESTADO);
+        out.writeUTF(estado.processInstanceId);
+        out.writeUTF(estado.beneficiarioId != null ? estado.beneficiarioId : "");
+        out.writeUTF(estado.etapaAtual != null ? estado.etapaAtual : "");
+        out.writeLong(estado.inicioEtapaMillis);
+        out.writeLong(estado.prazoEtapaMillis);
+        out.writeLong(estado.ultimaSequencia);
+        out.writeInt(estado.etapasRegistradas);
+        out.writeInt(estado.etapasConcluidas);
+        out.writeInt(estado.consultasAgendadas);
+        out.writeInt(estado.consultasRealizadas);
+        out.writeByte(estado.alertas);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return offset just past the last intact record
+     */
+    private static long ler(Path arquivo, Consumer<EstadoSlaJornada> estado, Consumer<String> encerramento)
+            throws IOException {
+        long valido = 0;
+        try (InputStream stream = Channels.newInputStream(FileChannel.open(arquivo, StandardOpenOption.READ));
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16))) {
+            while (true) {
+                int tamanho;
+                try {
+                    tamanho = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                int crcEsperado = in.readInt();
+                if (tamanho <= 0 || tamanho > (1 << 20)) {
+                    break;
+                }
+                byte[] payload = new byte[tamanho];
+                in.readFully(payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != crcEsperado) {
+                    break;
+                }
+                aplicar(payload, estado, encerramento);
+                valido += 8 + tamanho;
+            }
+        } catch (EOFException e) {
+            // torn record at the tail
+        }
+        return valido;
+    }
+
+    private static void aplicar(byte[] payload, Consumer<EstadoSlaJornada> estado, Consumer<String> encerramento)
+            throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte tipo = in.readByte();
+        if (tipo == ENCERRAMENTO) {
+            encerramento.accept(in.readUTF());
+            return;
+        }
+        EstadoSlaJornada lido = new EstadoSlaJornada(in.readUTF());
+        String beneficiarioId = in.readUTF();
+        String etapaAtual = in.readUTF();
+        lido.beneficiarioId = beneficiarioId.isEmpty() ? null : beneficiarioId;
+        lido.etapaAtual = etapaAtual.isEmpty() ? null : etapaAtual;
+        lido.inicioEtapaMillis = in.readLong();
+        lido.prazoEtapaMillis = in.readLong();
+        lido.ultimaSequencia = in.readLong();
+        lido.etapasRegistradas = in.readInt();
+        lido.etapasConcluidas = in.readInt();
+        lido.consultasAgendadas = in.readInt();
+        lido.consultasRealizadas = in.readInt();
+        lido.alertas = in.readByte();
+        estado.accept(lido);
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.austa.experiencia.service.jornada;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SLA state of one open journey, as folded from its milestone events.
+ *
+ * A milestone closes the current stage and opens the next one, so the stage
+ * clock restarts at every milestone. Adherence weighs completed milestones
+ * (60%) and kept appointments (40%), as the navigation team defined it.
+ */
+final class EstadoSlaJornada {
+
+    static final long DIA = 86_400_000L;
+
+    // alerts already emitted for the current stage / journey
+    static final byte ALERTA_PRAZO_CRITICO = 1;
+    static final byte ALERTA_ATRASO = 2;
+    static final byte ALERTA_ADERENCIA = 4;
+
+    static final int SEM_TIMER = -1;
+
+    final String processInstanceId;
+    String beneficiarioId;
+    String etapaAtual;
+    long inicioEtapaMillis;
+    long prazoEtapaMillis;
+    long ultimaSequencia;
+    int etapasRegistradas;
+    int etapasConcluidas;
+    int consultasAgendadas;
+    int consultasRealizadas;
+    byte alertas;
+
+    // not persisted: rebuilt on recovery
+    int timer = SEM_TIMER;
+
+    EstadoSlaJornada(String processInstanceId) {
+        this.processInstanceId = processInstanceId;
+    }
+
+    double aderencia() {
+        if (etapasRegistradas == 0 && consultasAgendadas == 0) {
+            return 100.0;
+        }
+        double marcos = etapasRegistradas > 0 ? etapasConcluidas * 100.0 / etapasRegistradas : 100.0;
+        double consultas = consultasAgendadas > 0 ? consultasRealizadas * 100.0 / consultasAgendadas : 100.0;
+        return marcos * 0.6 + consultas * 0.4;
+    }
+
+    /**
+     * Instant from which the stage is late (elapsed time beyond 120% of the deadline).
+     */
+    long limiteAtrasoMillis() {
+        return inicioEtapaMillis + prazoEtapaMillis * 6 / 5;
+    }
+
+    /**
+     * Instant at which 80% of the stage deadline has elapsed.
+     */
+    long limiteCriticoMillis() {
+        return inicioEtapaMillis + prazoEtapaMillis * 4 / 5;
+    }
+
+    String status(long agora) {
+        long decorrido = agora - inicioEtapaMillis;
+        if (decorrido <= prazoEtapaMillis) {
+            return "ON_TIME";
+        }
+        return agora <= limiteAtrasoMillis() ? "AT_RISK" : "DELAYED";
+    }
+
+    boolean alerta(byte alerta) {
+        return (alertas & alerta) != 0;
+    }
+
+    Map<String, Object> toMap(long agora) {
+        Map<String, Object> mapa = new LinkedHashMap<>();
+        mapa.put("processInstanceId", processInstanceId);
+        mapa.put("beneficiarioId", beneficiarioId);
+        mapa.put("etapaAtual", etapaAtual);
+        mapa.put("statusEtapa", status(agora));
+        mapa.put("diasPassados", (int) ((agora - inicioEtapaMillis) / DIA));
+        mapa.put("prazoEtapa", (int) (prazoEtapaMillis / DIA));
+        mapa.put("aderencia", aderencia());
+        mapa.put("numeroEtapas", etapasRegistradas);
+        mapa.put("intervencaoPendente", alertas != 0);
+        return mapa;
+    }
+}
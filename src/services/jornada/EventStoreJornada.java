@@ -0,0 +1,395 @@
+package br.com.austa.experiencia.service.jornada;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Event Store Jornada - append-only log of journey milestones, one per process instance
+ *
+ * Replaces the {@code etapasPercorridas} process variable, whose full list was
+ * deserialized and written back on every milestone. Each journey has its own
+ * directory of segments ({@code seg-000000.jor}, ...), so appending a
+ * milestone writes only that milestone, however long the journey.
+ *
+ * Record: length(4) sequence(8) epochMillis(8) JSON data(length - 16).
+ * Segments roll over at {@code jornada.eventos.tamanho-segmento} bytes.
+ *
+ * Every instance keeps every journey: the store is fed from the
+ * {@code jornada-milestone} topic that each instance replays in full
+ * ({@link MarcosJornadaConsumer}), never from the delegate that records the
+ * milestone. The last applied offset of each partition is kept in
+ * {@code offsets.dat} (flushed at most once per second and on shutdown), so a
+ * restart only appends what it had not seen; records re-appended after a
+ * crash are superseded like retries. The topic's retention must cover the
+ * longest open journey, as it already must for the SLA monitor.
+ *
+ * The sequence comes from the process's milestone counter and commits with
+ * it. A step whose transaction rolls back may still have published its
+ * milestone, and the retry publishes the same sequence again; readers keep,
+ * for each sequence, only the last record written and skip sequences above
+ * the committed counter, so retried or rolled-back steps never show up twice.
+ */
+@Component("eventStoreJornada")
+public class EventStoreJornada {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventStoreJornada.class);
+
+    private static final int CABECALHO_REGISTRO = 20;
+    private static final int LOCKS = 64;
+    private static final String PREFIXO_SEGMENTO = "seg-";
+    private static final String SUFIXO_SEGMENTO = ".jor";
+    private static final String ARQUIVO_OFFSETS = "offsets.dat";
+
+    private final ObjectMapper objectMapper;
+    private final Path diretorio;
+    private final long tamanhoSegmento;
+    private final boolean fsync;
+    private final Clock clock;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCKS];
+
+    // last applied offset per partition of the milestone topic
+    private final Map<Integer, Long> offsets = new HashMap<>();
+    private long offsetsGravadosEm;
+
+    private final LongAdder eventosGravados = new LongAdder();
+    private final LongAdder bytesGravados = new LongAdder();
+    private final LongAdder eventosDescartados = new LongAdder();
+    private final LongAdder marcosRepetidos = new LongAdder();
+
+    @Autowired
+    public EventStoreJornada(ObjectMapper objectMapper,
+                             @Value("${jornada.eventos.diretorio:./data/jornadas}") String diretorio,
+                             @Value("${jornada.eventos.tamanho-segmento:1048576}") long tamanhoSegmento,
+                             @Value("${jornada.eventos.fsync:false}") boolean fsync) {
+        this(objectMapper, Paths.get(diretorio), tamanhoSegmento, fsync, Clock.systemUTC());
+    }
+
+    public EventStoreJornada(ObjectMapper objectMapper, Path diretorio, long tamanhoSegmento, boolean fsync,
+                             Clock clock) {
+        this.objectMapper = objectMapper;
+        this.diretorio = diretorio;
+        this.tamanhoSegmento = tamanhoSegmento;
+        this.fsync = fsync;
+        this.clock = clock;
+        for (int i = 0; i < LOCKS; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @PostConstruct
+    public void iniciar() throws IOException {
+        Files.createDirectories(diretorio);
+        Path arquivo = diretorio.resolve(ARQUIVO_OFFSETS);
+        if (Files.exists(arquivo)) {
+            try (DataInputStream entrada = abrir(arquivo)) {
+                int particoes = entrada.readInt();
+                synchronized (offsets) {
+                    for (int i = 0; i < particoes; i++) {
+                        offsets.put(entrada.readInt(), entrada.readLong());
+                    }
+                }
+            }
+        }
+        logger.info("Journey event store at {}, topic offsets {}", diretorio, offsets);
+    }
+
+    @PreDestroy
+    public void parar() throws IOException {
+        synchronized (offsets) {
+            gravarOffsets();
+        }
+    }
+
+    /**
+     * Appends a milestone read from the milestone topic, unless its offset
+     * was already applied before a restart.
+     *
+     * @return false if the record was already applied
+     */
+    public boolean aplicar(String processInstanceId, long sequencia, long epochMillis, Map<String, Object> dados,
+                           int particao, long offset) throws IOException {
+        synchronized (offsets) {
+            Long aplicado = offsets.get(particao);
+            if (aplicado != null && offset <= aplicado) {
+                marcosRepetidos.increment();
+                return false;
+            }
+        }
+        registrar(processInstanceId, sequencia, epochMillis, dados);
+        synchronized (offsets) {
+            offsets.merge(particao, offset, Math::max);
+            if (clock.millis() - offsetsGravadosEm >= 1000) {
+                gravarOffsets();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Appends one milestone to the journey's log, timestamped now.
+     *
+     * @param sequencia the milestone's position in the journey (counter after this milestone)
+     */
+    public void registrar(String processInstanceId, long sequencia, Map<String, Object> dados) throws IOException {
+        registrar(processInstanceId, sequencia, clock.millis(), dados);
+    }
+
+    private void registrar(String processInstanceId, long sequencia, long epochMillis, Map<String, Object> dados)
+            throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(dados);
+        ByteBuffer registro = ByteBuffer.allocate(CABECALHO_REGISTRO + json.length);
+        registro.putInt(json.length + 16).putLong(sequencia).putLong(epochMillis).put(json).flip();
+
+        ReentrantLock lock = lock(processInstanceId);
+        lock.lock();
+        try {
+            Path jornada = diretorioJornada(processInstanceId);
+            List<Path> segmentos = segmentos(jornada);
+            Path atual;
+            if (segmentos.isEmpty()) {
+                Files.createDirectories(jornada);
+                atual = jornada.resolve(nomeSegmento(0));
+            } else {
+                atual = segmentos.get(segmentos.size() - 1);
+                if (Files.size(atual) + registro.remaining() > tamanhoSegmento) {
+                    atual = jornada.resolve(nomeSegmento(segmentos.size()));
+                }
+            }
+            try (FileChannel canal = FileChannel.open(atual, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND)) {
+                while (registro.hasRemaining()) {
+                    canal.write(registro);
+                }
+                if (fsync) {
+                    canal.force(false);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        eventosGravados.increment();
+        bytesGravados.add(CABECALHO_REGISTRO + json.length);
+    }
+
+    /**
+     * Streams the journey's milestones in order, without loading the journey.
+     *
+     * @param ate committed milestone counter; later sequences belong to rolled-back steps
+     * @return number of milestones delivered
+     */
+    public long percorrer(String processInstanceId, long ate, Consumer<EventoJornada> consumidor)
+            throws IOException {
+        Path jornada = diretorioJornada(processInstanceId);
+        ReentrantLock lock = lock(processInstanceId);
+        lock.lock();
+        try {
+            List<Path> segmentos = segmentos(jornada);
+            if (segmentos.isEmpty()) {
+                return 0;
+            }
+            // pass 1: sequences only, to find the records superseded by a later retry
+            boolean[] validos = validos(sequencias(segmentos), ate);
+
+            // pass 2: decode and deliver the valid records
+            long entregues = 0;
+            int indice = 0;
+            for (Path segmento : segmentos) {
+                try (DataInputStream entrada = abrir(segmento)) {
+                    while (true) {
+                        int tamanho = lerTamanho(entrada);
+                        if (tamanho < 0) {
+                            break;
+                        }
+                        long sequencia = entrada.readLong();
+                        long epochMillis = entrada.readLong();
+                        byte[] json = new byte[tamanho - 16];
+                        entrada.readFully(json);
+                        if (validos[indice++]) {
+                            Map<String, Object> dados = objectMapper.readValue(json,
+                                new TypeReference<Map<String, Object>>() { });
+                            consumidor.accept(new EventoJornada(sequencia, Instant.ofEpochMilli(epochMillis), dados));
+                            entregues++;
+                        }
+                    }
+                } catch (EOFException e) {
+                    // torn tail of an append interrupted by a crash
+                    logger.warn("Truncated record at the end of {}", segmento);
+                }
+            }
+            return entregues;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<EventoJornada> listar(String processInstanceId, long ate) throws IOException {
+        List<EventoJornada> eventos = new ArrayList<>();
+        percorrer(processInstanceId, ate, eventos::add);
+        return eventos;
+    }
+
+    /**
+     * Bytes the journey's log takes on disk.
+     */
+    public long tamanho(String processInstanceId) throws IOException {
+        long total = 0;
+        for (Path segmento : segmentos(diretorioJornada(processInstanceId))) {
+            total += Files.size(segmento);
+        }
+        return total;
+    }
+
+    public long getEventosGravados() {
+        return eventosGravados.sum();
+    }
+
+    public long getBytesGravados() {
+        return bytesGravados.sum();
+    }
+
+    /**
+     * Records skipped by readers because a retry superseded them or their step rolled back.
+     */
+    public long getEventosDescartados() {
+        return eventosDescartados.sum();
+    }
+
+    /**
+     * Topic records skipped on replay because they were applied before the restart.
+     */
+    public long getMarcosRepetidos() {
+        return marcosRepetidos.sum();
+    }
+
+    private void gravarOffsets() throws IOException {
+        ByteBuffer conteudo = ByteBuffer.allocate(4 + offsets.size() * 12);
+        conteudo.putInt(offsets.size());
+        offsets.forEach((particao, offset) -> conteudo.putInt(particao).putLong(offset));
+        conteudo.flip();
+        Path temporario = diretorio.resolve(ARQUIVO_OFFSETS + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (conteudo.hasRemaining()) {
+                canal.write(conteudo);
+            }
+            if (fsync) {
+                canal.force(false);
+            }
+        }
+        Files.move(temporario, diretorio.resolve(ARQUIVO_OFFSETS), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+        offsetsGravadosEm = clock.millis();
+    }
+
+    private long[] sequencias(List<Path> segmentos) throws IOException {
+        long[] sequencias = new long[64];
+        int total = 0;
+        for (Path segmento : segmentos) {
+            try (DataInputStream entrada = abrir(segmento)) {
+                while (true) {
+                    int tamanho = lerTamanho(entrada);
+                    if (tamanho < 0) {
+                        break;
+                    }
+                    long sequencia = entrada.readLong();
+                    entrada.skipNBytes(tamanho - 8);
+                    if (total == sequencias.length) {
+                        sequencias = Arrays.copyOf(sequencias, total * 2);
+                    }
+                    sequencias[total++] = sequencia;
+                }
+            } catch (EOFException e) {
+                // torn tail, reported by the decoding pass
+            }
+        }
+        return Arrays.copyOf(sequencias, total);
+    }
+
+    /**
+     * A record is valid when its sequence is committed and no later record
+     * carries the same or a lower sequence (which would mean it was retried).
+     */
+    private boolean[] validos(long[] sequencias, long ate) {
+        boolean[] validos = new boolean[sequencias.length];
+        long menorPosterior = Long.MAX_VALUE;
+        for (int i = sequencias.length - 1; i >= 0; i--) {
+            validos[i] = sequencias[i] <= ate && sequencias[i] < menorPosterior;
+            if (!validos[i]) {
+                eventosDescartados.increment();
+            }
+            menorPosterior = Math.min(menorPosterior, sequencias[i]);
+        }
+        return validos;
+    }
+
+    private static int lerTamanho(DataInputStream entrada) throws IOException {
+        int b1 = entrada.read();
+        if (b1 < 0) {
+            return -1;
+        }
+        return (b1 << 24) | (entrada.readUnsignedByte() << 16) | (entrada.readUnsignedByte() << 8)
+            | entrada.readUnsignedByte();
+    }
+
+    private static DataInputStream abrir(Path segmento) throws IOException {
+        InputStream entrada = Files.newInputStream(segmento);
+        return new DataInputStream(new BufferedInputStream(entrada, 64 * 1024));
+    }
+
+    private Path diretorioJornada(String processInstanceId) {
+        String nome = processInstanceId.replaceAll("[^A-Za-z0-9._-]", "_");
+        String fatia = String.format("%02x", processInstanceId.hashCode() & 0xff);
+        return diretorio.resolve(fatia).resolve(nome);
+    }
+
+    private static List<Path> segmentos(Path jornada) throws IOException {
+        if (!Files.isDirectory(jornada)) {
+            return List.of();
+        }
+        try (Stream<Path> lista = Files.list(jornada)) {
+            return lista.filter(p -> {
+                String nome = p.getFileName().toString();
+                return nome.startsWith(PREFIXO_SEGMENTO) && nome.endsWith(SUFIXO_SEGMENTO);
+            }).sorted().toList();
+        }
+    }
+
+    private static String nomeSegmento(int indice) {
+        return String.format("%s%06d%s", PREFIXO_SEGMENTO, indice, SUFIXO_SEGMENTO);
+    }
+
+    private ReentrantLock lock(String processInstanceId) {
+        return locks[(processInstanceId.hashCode() & 0x7fffffff) % LOCKS];
+    }
+}
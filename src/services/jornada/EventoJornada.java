@@ -0,0 +1,44 @@
+package br.com.austa.experiencia.service.jornada;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One journey milestone as stored in the journey event log.
+ */
+public final class EventoJornada {
+
+    private final long sequencia;
+    private final Instant dataEvento;
+    private final Map<String, Object> dados;
+
+    public EventoJornada(long sequencia, Instant dataEvento, Map<String, Object> dados) {
+        this.sequencia = sequencia;
+        this.dataEvento = dataEvento;
+        this.dados = dados;
+    }
+
+    /**
+     * Position of the milestone in its journey, starting at 1.
+     */
+    public long getSequencia() {
+        return sequencia;
+    }
+
+    public Instant getDataEvento() {
+        return dataEvento;
+    }
+
+    public Map<String, Object> getDados() {
+        return dados;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> mapa = new LinkedHashMap<>();
+        mapa.put("sequencia", sequencia);
+        mapa.put("dataEvento", dataEvento.toString());
+        mapa.putAll(dados);
+        return mapa;
+    }
+}
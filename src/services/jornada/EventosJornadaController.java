@@ -0,0 +1,57 @@
+package br.com.austa.experiencia.service.jornada;
+
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.history.HistoricVariableInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Milestones of a journey, from the journey event store.
+ *
+ * GET /api/v1/jornadas/{processInstanceId}/etapas
+ *
+ * Only milestones up to the journey's committed {@code numeroEtapas}, read
+ * from the engine's history (running or finished journeys), are listed, so
+ * steps still in flight or rolled back never show up. 404 for an unknown
+ * process instance.
+ */
+@RestController
+@RequestMapping("/api/v1/jornadas")
+public class EventosJornadaController {
+
+    private final EventStoreJornada eventStoreJornada;
+    private final HistoryService historyService;
+
+    @Autowired
+    public EventosJornadaController(EventStoreJornada eventStoreJornada, HistoryService historyService) {
+        this.eventStoreJornada = eventStoreJornada;
+        this.historyService = historyService;
+    }
+
+    @GetMapping("/{processInstanceId}/etapas")
+    public ResponseEntity<List<Map<String, Object>>> etapas(@PathVariable String processInstanceId)
+            throws IOException {
+        HistoricVariableInstance numeroEtapas = historyService.createHistoricVariableInstanceQuery()
+            .processInstanceId(processInstanceId)
+            .variableName("numeroEtapas")
+            .singleResult();
+        if (numeroEtapas == null) {
+            boolean existe = historyService.createHistoricProcessInstanceQuery()
+                .processInstanceId(processInstanceId)
+                .count() > 0;
+            return existe ? ResponseEntity.ok(List.of()) : ResponseEntity.notFound().build();
+        }
+        long ate = numeroEtapas.getValue() instanceof Number ? ((Number) numeroEtapas.getValue()).longValue() : 0;
+        return ResponseEntity.ok(eventStoreJornada.listar(processInstanceId, ate).stream()
+            .map(EventoJornada::toMap).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,142 @@
+package br.com.austa.experiencia.service.jornada;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Intervention requested by the journey SLA monitor, delivered to the SUB-007
+ * instance as {@link IntervencaoJornadaCorrelator#MENSAGEM}.
+ *
+ * A motive is raised at most once per stage, so motive and stage start
+ * ({@link #getChave()}) identify the intervention across the instances that
+ * detect it.
+ */
+public final class IntervencaoJornada {
+
+    private final String processInstanceId;
+    private final String beneficiarioId;
+    private final MotivoIntervencaoJornada motivo;
+    private final String etapaAtual;
+    private final String statusEtapa;
+    private final int diasPassados;
+    private final double aderencia;
+    private final Instant inicioEtapa;
+    private final Instant detectadaEm;
+
+    public IntervencaoJornada(String processInstanceId, String beneficiarioId, MotivoIntervencaoJornada motivo,
+                              String etapaAtual, String statusEtapa, int diasPassados, double aderencia,
+                              Instant inicioEtapa, Instant detectadaEm) {
+        this.processInstanceId = processInstanceId;
+        this.beneficiarioId = beneficiarioId;
+        this.motivo = motivo;
+        this.etapaAtual = etapaAtual;
+        this.statusEtapa = statusEtapa;
+        this.diasPassados = diasPassados;
+        this.aderencia = aderencia;
+        this.inicioEtapa = inicioEtapa;
+        this.detectadaEm = detectadaEm;
+    }
+
+    /**
+     * Rebuilds an intervention from {@link #toEvento()}.
+     */
+    public static IntervencaoJornada deEvento(Map<String, Object> evento) {
+        return new IntervencaoJornada((String) evento.get("processInstanceId"),
+            (String) evento.get("beneficiarioId"),
+            MotivoIntervencaoJornada.valueOf((String) evento.get("motivo")),
+            (String) evento.get("etapaAtual"),
+            (String) evento.get("statusEtapa"),
+            ((Number) evento.get("diasPassados")).intValue(),
+            ((Number) evento.get("aderencia")).doubleValue(),
+            Instant.parse((String) evento.get("inicioEtapa")),
+            Instant.parse((String) evento.get("detectadaEm")));
+    }
+
+    public String getProcessInstanceId() {
+        return processInstanceId;
+    }
+
+    public String getBeneficiarioId() {
+        return beneficiarioId;
+    }
+
+    public MotivoIntervencaoJornada getMotivo() {
+        return motivo;
+    }
+
+    public String getEtapaAtual() {
+        return etapaAtual;
+    }
+
+    public String getStatusEtapa() {
+        return statusEtapa;
+    }
+
+    public int getDiasPassados() {
+        return diasPassados;
+    }
+
+    public double getAderencia() {
+        return aderencia;
+    }
+
+    public Instant getInicioEtapa() {
+        return inicioEtapa;
+    }
+
+    public Instant getDetectadaEm() {
+        return detectadaEm;
+    }
+
+    public String getChave() {
+        return motivo.name() + "@" + inicioEtapa.toEpochMilli();
+    }
+
+    /**
+     * Name of the process variable holding the key of the last {@code motivo}
+     * intervention delivered to the journey.
+     */
+    public String getVariavelChave() {
+        return "chaveIntervencao" + motivo.name();
+    }
+
+    /**
+     * Payload published on the intervention topic.
+     */
+    public Map<String, Object> toEvento() {
+        Map<String, Object> evento = new HashMap<>();
+        evento.put("processInstanceId", processInstanceId);
+        evento.put("beneficiarioId", beneficiarioId);
+        evento.put("motivo", motivo.name());
+        evento.put("etapaAtual", etapaAtual);
+        evento.put("statusEtapa", statusEtapa);
+        evento.put("diasPassados", diasPassados);
+        evento.put("aderencia", aderencia);
+        evento.put("inicioEtapa", inicioEtapa.toString());
+        evento.put("detectadaEm", detectadaEm.toString());
+        return evento;
+    }
+
+    /**
+     * Process variables set by the correlation, named as the former
+     * monitoring delegate's outputs.
+     */
+    public Map<String, Object> toVariaveis() {
+        Map<String, Object> variaveis = new HashMap<>();
+        variaveis.put("motivoIntervencao", motivo.name());
+        variaveis.put("statusEtapa", statusEtapa);
+        variaveis.put("diasPassados", diasPassados);
+        variaveis.put("aderencia", aderencia);
+        variaveis.put("intervencaoNecessaria", true);
+        variaveis.put("intervencaoDetectadaEm", detectadaEm.toString());
+        variaveis.put(getVariavelChave(), getChave());
+        return variaveis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s, etapa=%s, %s, %d dias, aderencia=%.1f%%]", motivo, processInstanceId,
+            etapaAtual, statusEtapa, diasPassados, aderencia);
+    }
+}
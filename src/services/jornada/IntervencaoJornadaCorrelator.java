@@ -0,0 +1,132 @@
+package br.com.austa.experiencia.service.jornada;
+
+import br.com.austa.experiencia.service.rastreamento.ContextoSpan;
+import br.com.austa.experiencia.service.rastreamento.Rastreador;
+import br.com.austa.experiencia.service.rastreamento.Span;
+import br.com.austa.experiencia.service.rastreamento.TipoSpan;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.exception.NullValueException;
+import org.camunda.bpm.engine.runtime.MessageCorrelationResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers {@link IntervencaoJornada} to its SUB-007 instance by correlating
+ * {@link #MENSAGEM}, caught by the non-interrupting intervention event
+ * sub-process.
+ *
+ * Every instance runs the SLA monitor over every journey, so the same
+ * intervention is detected once per instance. The monitor only publishes it,
+ * keyed by process instance, to {@code jornada.sla.topico-intervencoes}; the
+ * topic is consumed under the shared group, so all copies of an intervention
+ * are correlated one after the other by a single consumer. The first one
+ * records {@link IntervencaoJornada#getChave()} on the process instance and
+ * the others find it there and are dropped. Publishing is asynchronous, so the
+ * monitor never waits on the broker or the engine database while holding its
+ * state.
+ */
+@Component("intervencaoJornadaCorrelator")
+public class IntervencaoJornadaCorrelator {
+
+    private static final Logger logger = LoggerFactory.getLogger(IntervencaoJornadaCorrelator.class);
+
+    public static final String MENSAGEM = "Msg_IntervencaoJornada";
+
+    @Autowired
+    private RuntimeService runtimeService;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Rastreador rastreador;
+
+    @Value("${jornada.sla.topico-intervencoes:jornada-intervencao}")
+    private String topico;
+
+    private final LongAdder duplicadas = new LongAdder();
+
+    public void publicar(IntervencaoJornada intervencao) {
+        // Producer span lasts until the broker acknowledges; the consumer continues the trace from the header
+        Span span = rastreador.iniciar("publicar " + topico, TipoSpan.PRODUTOR)
+            .atributo("messaging.system", "kafka")
+            .atributo("messaging.destination.name", topico);
+        try {
+            ProducerRecord<String, String> registro = new ProducerRecord<>(topico,
+                intervencao.getProcessInstanceId(), objectMapper.writeValueAsString(intervencao.toEvento()));
+            registro.headers().add(ContextoSpan.CABECALHO,
+                span.getContexto().traceparent().getBytes(StandardCharsets.US_ASCII));
+            kafkaTemplate.send(registro).addCallback(
+                resultado -> span.finalizar(),
+                e -> {
+                    logger.error("Error publishing journey intervention {}: {}", intervencao, e.getMessage(), e);
+                    span.erro(e).finalizar();
+                });
+        } catch (JsonProcessingException e) {
+            span.erro(e).finalizar();
+            throw new IllegalStateException("Cannot serialize journey intervention " + intervencao, e);
+        } catch (RuntimeException e) {
+            span.erro(e).finalizar();
+            throw e;
+        }
+    }
+
+    @KafkaListener(topics = "${jornada.sla.topico-intervencoes:jornada-intervencao}",
+                   groupId = "${jornada.sla.kafka.group-id:monitor-sla-jornada}")
+    public void onIntervencao(String mensagem) throws Exception {
+        Map<String, Object> evento = objectMapper.readValue(mensagem, new TypeReference<Map<String, Object>>() {});
+        correlacionar(IntervencaoJornada.deEvento(evento));
+    }
+
+    public long getDuplicadas() {
+        return duplicadas.sum();
+    }
+
+    void correlacionar(IntervencaoJornada intervencao) {
+        try {
+            Object entregue;
+            try {
+                entregue = runtimeService.getVariable(intervencao.getProcessInstanceId(),
+                    intervencao.getVariavelChave());
+            } catch (NullValueException e) {
+                logger.warn("No open navigation journey for intervention {}", intervencao);
+                return;
+            }
+            if (intervencao.getChave().equals(entregue)) {
+                duplicadas.increment();
+                logger.debug("Journey intervention already delivered: {}", intervencao);
+                return;
+            }
+
+            List<MessageCorrelationResult> resultados = runtimeService.createMessageCorrelation(MENSAGEM)
+                .processInstanceId(intervencao.getProcessInstanceId())
+                .setVariables(intervencao.toVariaveis())
+                .correlateAllWithResult();
+
+            if (resultados.isEmpty()) {
+                logger.warn("No open navigation journey for intervention {}", intervencao);
+            } else {
+                logger.info("Journey intervention correlated: {}", intervencao);
+            }
+        } catch (Exception e) {
+            logger.error("Error correlating journey intervention {}: {}", intervencao, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package br.com.austa.experiencia.service.jornada;
+
+import br.com.austa.experiencia.service.kafka.ReposicaoTopico;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Feeds the journey SLA monitor and the journey event store from the journey
+ * topics.
+ *
+ * Expected milestone payload (published by JornadaService.registrarEtapa):
+ * {"processInstanceId": "...", "beneficiarioId": "...", "sequencia": 3,
+ *  "registradoEm": "2025-12-11T10:15:00Z", "prazoProximaEtapaDias": 30,
+ *  "etapa": {"nome": "...", "status": "CONCLUIDA", "comparecimento": true, ...}}
+ *
+ * A {@code jornada-concluida} event closes the journey and drops its state.
+ * Events wrapped by the generic publisher ({@code payload} field) are accepted
+ * as well.
+ *
+ * The stage status is read from the monitor of whichever instance runs the
+ * journey's delegate, and the two topics need not be partitioned alike, so
+ * each instance consumes every partition of both under its own group from the
+ * beginning. Until both replays have reached the end offsets read at startup
+ * the monitor neither emits nor reports. The event store skips milestones it
+ * had applied before the restart.
+ */
+@Component("marcosJornadaConsumer")
+public class MarcosJornadaConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MarcosJornadaConsumer.class);
+
+    @Autowired
+    private MonitorSlaJornada monitorSlaJornada;
+
+    @Autowired
+    private EventStoreJornada eventStoreJornada;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private KafkaAdmin kafkaAdmin;
+
+    @Value("${jornada.sla.topico-marcos:jornada-milestone}")
+    private String topicoMarcos;
+
+    @Value("${jornada.sla.topico-conclusao:jornada-concluida}")
+    private String topicoConclusao;
+
+    private ReposicaoTopico reposicaoMarcos;
+    private ReposicaoTopico reposicaoConclusao;
+
+    @PostConstruct
+    public void iniciar() {
+        reposicaoMarcos = ReposicaoTopico.iniciar(kafkaAdmin, topicoMarcos);
+        reposicaoConclusao = ReposicaoTopico.iniciar(kafkaAdmin, topicoConclusao);
+        monitorSlaJornada.setReplicado(reposicaoMarcos.isConcluida() && reposicaoConclusao.isConcluida());
+    }
+
+    @KafkaListener(topics = "${jornada.sla.topico-marcos:jornada-milestone}",
+                   groupId = "#{'${jornada.sla.kafka.group-id:monitor-sla-jornada}-marcos-' + T(java.util.UUID).randomUUID()}",
+                   properties = "auto.offset.reset=earliest")
+    public void onMarco(ConsumerRecord<String, String> registro) throws Exception {
+        try {
+            aplicarMarco(registro);
+        } finally {
+            // a record that keeps failing is skipped by the error handler; the replay must still end
+            if (reposicaoMarcos.avancar(registro.partition(), registro.offset()) && reposicaoConclusao.isConcluida()) {
+                monitorSlaJornada.setReplicado(true);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void aplicarMarco(ConsumerRecord<String, String> registro) throws Exception {
+        String mensagem = registro.value();
+        Map<String, Object> evento = conteudo(mensagem);
+        String processInstanceId = (String) evento.get("processInstanceId");
+        Object etapa = evento.get("etapa");
+        if (processInstanceId == null || !(etapa instanceof Map)) {
+            logger.warn("Ignoring invalid journey milestone: {}", mensagem);
+            return;
+        }
+        Map<String, Object> dados = (Map<String, Object>) etapa;
+
+        Object sequencia = evento.get("sequencia");
+        Object prazo = evento.get("prazoProximaEtapaDias");
+        Object registradoEm = evento.get("registradoEm");
+        Object comparecimento = dados.get("comparecimento");
+        long numero = sequencia instanceof Number ? ((Number) sequencia).longValue() : 0;
+        long instante = registradoEm != null ? Instant.parse(registradoEm.toString()).toEpochMilli()
+            : System.currentTimeMillis();
+
+        if (numero > 0) {
+            eventStoreJornada.aplicar(processInstanceId, numero, instante, dados, registro.partition(),
+                registro.offset());
+        }
+        monitorSlaJornada.registrarMarco(processInstanceId,
+            (String) evento.get("beneficiarioId"),
+            numero,
+            dados.get("nome") != null ? dados.get("nome").toString() : null,
+            dados.get("status") != null ? dados.get("status").toString() : null,
+            comparecimento instanceof Boolean ? (Boolean) comparecimento : null,
+            prazo instanceof Number ? ((Number) prazo).intValue() : null,
+            instante);
+    }
+
+    @KafkaListener(topics = "${jornada.sla.topico-conclusao:jornada-concluida}",
+                   groupId = "#{'${jornada.sla.kafka.group-id:monitor-sla-jornada}-conclusao-' + T(java.util.UUID).randomUUID()}",
+                   properties = "auto.offset.reset=earliest")
+    public void onConclusao(ConsumerRecord<String, String> registro) throws Exception {
+        try {
+            Object processInstanceId = conteudo(registro.value()).get("processInstanceId");
+            if (processInstanceId != null) {
+                monitorSlaJornada.encerrar(processInstanceId.toString());
+            }
+        } finally {
+            // a record that keeps failing is skipped by the error handler; the replay must still end
+            if (reposicaoConclusao.avancar(registro.partition(), registro.offset()) && reposicaoMarcos.isConcluida()) {
+                monitorSlaJornada.setReplicado(true);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> conteudo(String mensagem) throws Exception {
+        Map<String, Object> evento = objectMapper.readValue(mensagem, new TypeReference<Map<String, Object>>() {});
+        if (evento.get("payload") instanceof Map && !evento.containsKey("etapa")) {
+            Map<String, Object> payload = (Map<String, Object>) evento.get("payload");
+            payload.putIfAbsent("processInstanceId", evento.get("processInstanceId"));
+            payload.putIfAbsent("beneficiarioId", evento.get("beneficiarioId"));
+            return payload;
+        }
+        return evento;
+    }
+}
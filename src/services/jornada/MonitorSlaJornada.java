@@ -0,0 +1,420 @@
+package br.com.austa.experiencia.service.jornada;
+
+import br.com.austa.experiencia.service.lembretes.TimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Monitor SLA Jornada - event-driven stage deadline and adherence monitoring for SUB-007
+ *
+ * Replaces the per-journey polling of the monitoring delegate, which looked
+ * up the stage start and recomputed adherence every time its loop fired:
+ * - {@code jornada-milestone} events are folded into keyed in-memory state
+ *   ({@link EstadoSlaJornada}, ~100 bytes per open journey)
+ * - each open journey has a single entry in a {@link TimingWheel}, armed at
+ *   the next stage checkpoint (80% of the deadline, then 120%)
+ * - an {@link IntervencaoJornada} is emitted only when a threshold is crossed:
+ *   adherence below 70%, 80% of the deadline with adherence below 50%, or the
+ *   stage open beyond 120% of its deadline
+ *
+ * Between events an open journey costs its state and its wheel entry: no
+ * thread, no query, no engine job. The ticker only visits expired timers.
+ *
+ * Every state change is written to {@link ChangelogSlaJornada} before the
+ * intervention is handed off, so a restart rebuilds state and timers without
+ * repeating interventions. Duplicate deliveries of a milestone are skipped by
+ * its sequence number.
+ *
+ * Every instance replays the journey topics from the beginning (see
+ * {@link MarcosJornadaConsumer}) and holds the state of every journey. While
+ * that replay runs nothing is emitted or reported: the milestones are
+ * history, and a conclusion seen before its journey's milestones keeps them
+ * from reopening it. Each instance then emits what it detects; the copies
+ * meet on one partition of the intervention topic and only the first is
+ * correlated (see {@link IntervencaoJornadaCorrelator}).
+ */
+@Component("monitorSlaJornada")
+public class MonitorSlaJornada {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonitorSlaJornada.class);
+
+    private static final double LIMITE_ADERENCIA = 70.0;
+    private static final double LIMITE_ADERENCIA_CRITICA = 50.0;
+    private static final Set<String> STATUS_NAO_CONCLUIDA =
+        Set.of("PENDENTE", "NAO_CONCLUIDA", "CANCELADA", "ABANDONADA");
+
+    private final ChangelogSlaJornada changelog;
+    private final long tickMillis;
+    private final long prazoPadraoMillis;
+    private final int compactarApos;
+    private final Clock clock;
+    private final Consumer<IntervencaoJornada> destino;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TimingWheel roda;
+    private final Map<String, EstadoSlaJornada> estados = new HashMap<>();
+    private final Set<String> encerradasNaReposicao = new HashSet<>();
+    private EstadoSlaJornada[] porTimer = new EstadoSlaJornada[1024];
+    private volatile boolean replicado = true;
+
+    private ScheduledExecutorService ticker;
+
+    private final LongAdder marcosProcessados = new LongAdder();
+    private final LongAdder marcosDuplicados = new LongAdder();
+    private final LongAdder intervencoesEmitidas = new LongAdder();
+
+    @Autowired
+    public MonitorSlaJornada(@Value("${jornada.sla.path:./data/jornada-sla}") String diretorio,
+                             @Value("${jornada.sla.tick-ms:60000}") long tickMillis,
+                             @Value("${jornada.sla.prazo-padrao-dias:30}") int prazoPadraoDias,
+                             @Value("${jornada.sla.compactar-apos:100000}") int compactarApos,
+                             @Value("${jornada.sla.fsync:false}") boolean fsync,
+                             IntervencaoJornadaCorrelator correlator) throws IOException {
+        this(new ChangelogSlaJornada(Paths.get(diretorio), fsync), tickMillis, prazoPadraoDias, compactarApos,
+            Clock.systemUTC(), correlator::publicar);
+    }
+
+    /**
+     * Standalone constructor (tests, tools): no ticker until {@link #iniciar()},
+     * interventions are delivered on the calling thread.
+     */
+    public MonitorSlaJornada(Path diretorio, long tickMillis, int prazoPadraoDias, int compactarApos, Clock clock,
+                             Consumer<IntervencaoJornada> destino) throws IOException {
+        this(new ChangelogSlaJornada(diretorio, false), tickMillis, prazoPadraoDias, compactarApos, clock, destino);
+    }
+
+    private MonitorSlaJornada(ChangelogSlaJornada changelog, long tickMillis, int prazoPadraoDias,
+                              int compactarApos, Clock clock, Consumer<IntervencaoJornada> destino)
+            throws IOException {
+        this.changelog = changelog;
+        this.tickMillis = tickMillis;
+        this.prazoPadraoMillis = prazoPadraoDias * EstadoSlaJornada.DIA;
+        this.compactarApos = compactarApos;
+        this.clock = clock;
+        this.destino = destino;
+
+        long agora = clock.millis();
+        this.roda = new TimingWheel(tickMillis, agora, 1024);
+        recuperar(agora);
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "jornada-sla-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> {
+            try {
+                processarVencidos();
+            } catch (Exception e) {
+                logger.error("Error processing journey SLA checkpoints: {}", e.getMessage(), e);
+            }
+        }, tickMillis - clock.millis() % tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        logger.info("Journey SLA monitor started: {} open journeys, tick {} ms", estados.size(), tickMillis);
+    }
+
+    @PreDestroy
+    public void parar() throws IOException, InterruptedException {
+        if (ticker != null) {
+            ticker.shutdown();
+            ticker.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        lock.lock();
+        try {
+            changelog.fechar();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Folds one milestone into the journey's state: the finished stage is
+     * counted for adherence and the next stage's clock starts at
+     * {@code instanteMillis}.
+     *
+     * @param sequencia             position of the milestone in the journey; 0 when unknown
+     * @param comparecimento        whether the stage's appointment was kept, null if it had none
+     * @param prazoProximaEtapaDias deadline of the stage that starts now, null for the default
+     * @return false when the milestone was already applied (redelivery) or
+     *         belongs to a journey the replay saw concluded
+     */
+    public boolean registrarMarco(String processInstanceId, String beneficiarioId, long sequencia, String etapa,
+                                  String status, Boolean comparecimento, Integer prazoProximaEtapaDias,
+                                  long instanteMillis) throws IOException {
+        List<IntervencaoJornada> intervencoes = new ArrayList<>(1);
+        lock.lock();
+        try {
+            if (!replicado && encerradasNaReposicao.contains(processInstanceId)) {
+                return false;
+            }
+            EstadoSlaJornada estado = estados.computeIfAbsent(processInstanceId, EstadoSlaJornada::new);
+            if (sequencia > 0 && sequencia <= estado.ultimaSequencia) {
+                marcosDuplicados.increment();
+                return false;
+            }
+            if (beneficiarioId != null) {
+                estado.beneficiarioId = beneficiarioId;
+            }
+            estado.ultimaSequencia = Math.max(estado.ultimaSequencia, sequencia);
+            estado.etapaAtual = etapa;
+            estado.etapasRegistradas++;
+            if (status == null || !STATUS_NAO_CONCLUIDA.contains(status)) {
+                estado.etapasConcluidas++;
+            }
+            if (comparecimento != null) {
+                estado.consultasAgendadas++;
+                if (comparecimento) {
+                    estado.consultasRealizadas++;
+                }
+            }
+            estado.inicioEtapaMillis = instanteMillis;
+            estado.prazoEtapaMillis = prazoProximaEtapaDias != null && prazoProximaEtapaDias > 0
+                ? prazoProximaEtapaDias * EstadoSlaJornada.DIA : prazoPadraoMillis;
+            estado.alertas &= ~(EstadoSlaJornada.ALERTA_PRAZO_CRITICO | EstadoSlaJornada.ALERTA_ATRASO);
+
+            long agora = clock.millis();
+            double aderencia = estado.aderencia();
+            if (aderencia >= LIMITE_ADERENCIA) {
+                estado.alertas &= ~EstadoSlaJornada.ALERTA_ADERENCIA;
+            } else if (!estado.alerta(EstadoSlaJornada.ALERTA_ADERENCIA)) {
+                estado.alertas |= EstadoSlaJornada.ALERTA_ADERENCIA;
+                intervencoes.add(intervencao(estado, MotivoIntervencaoJornada.ADERENCIA_BAIXA, agora));
+            }
+            armar(estado, agora);
+
+            changelog.registrarEstado(estado);
+            marcosProcessados.increment();
+            compactarSeNecessario();
+        } finally {
+            lock.unlock();
+        }
+        if (replicado) {
+            emitir(intervencoes);
+        }
+        return true;
+    }
+
+    /**
+     * Drops the state of a finished journey.
+     */
+    public void encerrar(String processInstanceId) throws IOException {
+        lock.lock();
+        try {
+            EstadoSlaJornada estado = estados.remove(processInstanceId);
+            if (estado == null) {
+                if (!replicado) {
+                    // the conclusion topic may replay ahead of the milestone topic
+                    encerradasNaReposicao.add(processInstanceId);
+                }
+                return;
+            }
+            if (estado.timer != EstadoSlaJornada.SEM_TIMER) {
+                porTimer[estado.timer] = null;
+                roda.cancelar(estado.timer);
+                estado.timer = EstadoSlaJornada.SEM_TIMER;
+            }
+            changelog.registrarEncerramento(processInstanceId);
+            compactarSeNecessario();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Current stage status and adherence of an open journey, computed from its
+     * state without touching the engine. Empty while the replay runs.
+     */
+    public Optional<Map<String, Object>> situacao(String processInstanceId) {
+        if (!replicado) {
+            return Optional.empty();
+        }
+        lock.lock();
+        try {
+            EstadoSlaJornada estado = estados.get(processInstanceId);
+            return estado == null ? Optional.empty() : Optional.of(estado.toMap(clock.millis()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Evaluates every journey whose checkpoint came due. Called by the ticker;
+     * checkpoints wait while the replay runs.
+     *
+     * @return number of interventions emitted
+     */
+    public int processarVencidos() throws IOException {
+        if (!replicado) {
+            return 0;
+        }
+        List<IntervencaoJornada> intervencoes = new ArrayList<>();
+        List<EstadoSlaJornada> alterados = new ArrayList<>();
+        lock.lock();
+        try {
+            long agora = clock.millis();
+            roda.avancar(agora, h -> {
+                EstadoSlaJornada estado = porTimer[h];
+                if (agora >= estado.limiteAtrasoMillis()) {
+                    porTimer[h] = null;
+                    roda.liberar(h);
+                    estado.timer = EstadoSlaJornada.SEM_TIMER;
+                    if (!estado.alerta(EstadoSlaJornada.ALERTA_ATRASO)) {
+                        estado.alertas |= EstadoSlaJornada.ALERTA_ATRASO;
+                        intervencoes.add(intervencao(estado, MotivoIntervencaoJornada.ATRASO_ETAPA, agora));
+                        alterados.add(estado);
+                    }
+                } else {
+                    roda.reagendar(h, estado.limiteAtrasoMillis());
+                    if (!estado.alerta(EstadoSlaJornada.ALERTA_PRAZO_CRITICO)
+                            && estado.aderencia() < LIMITE_ADERENCIA_CRITICA) {
+                        estado.alertas |= EstadoSlaJornada.ALERTA_PRAZO_CRITICO;
+                        intervencoes.add(intervencao(estado, MotivoIntervencaoJornada.PRAZO_CRITICO, agora));
+                        alterados.add(estado);
+                    }
+                }
+            });
+            for (EstadoSlaJornada estado : alterados) {
+                changelog.registrarEstado(estado);
+            }
+            compactarSeNecessario();
+        } finally {
+            lock.unlock();
+        }
+        emitir(intervencoes);
+        return intervencoes.size();
+    }
+
+    /**
+     * Marks whether the first replay of the journey topics is complete.
+     */
+    public void setReplicado(boolean replicado) {
+        lock.lock();
+        try {
+            this.replicado = replicado;
+            if (replicado) {
+                encerradasNaReposicao.clear();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isReplicado() {
+        return replicado;
+    }
+
+    public int getJornadasMonitoradas() {
+        lock.lock();
+        try {
+            return estados.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getTimersPendentes() {
+        lock.lock();
+        try {
+            return roda.tamanho();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getMarcosProcessados() {
+        return marcosProcessados.sum();
+    }
+
+    public long getMarcosDuplicados() {
+        return marcosDuplicados.sum();
+    }
+
+    public long getIntervencoesEmitidas() {
+        return intervencoesEmitidas.sum();
+    }
+
+    private void recuperar(long agora) throws IOException {
+        changelog.recuperar(estado -> estados.put(estado.processInstanceId, estado), estados::remove);
+        for (EstadoSlaJornada estado : estados.values()) {
+            armar(estado, agora);
+        }
+        if (!estados.isEmpty()) {
+            logger.info("Recovered SLA state of {} open journeys ({} checkpoints armed)",
+                estados.size(), roda.tamanho());
+        }
+    }
+
+    /**
+     * Arms the journey's timer at its next checkpoint: 80% of the stage
+     * deadline, then 120%. A checkpoint already past fires on the next tick.
+     */
+    private void armar(EstadoSlaJornada estado, long agora) {
+        if (estado.alerta(EstadoSlaJornada.ALERTA_ATRASO)) {
+            return;
+        }
+        long checkpoint = agora < estado.limiteCriticoMillis()
+            ? estado.limiteCriticoMillis() : estado.limiteAtrasoMillis();
+        if (estado.timer != EstadoSlaJornada.SEM_TIMER) {
+            roda.reagendar(estado.timer, checkpoint);
+            return;
+        }
+        int h = roda.agendar(checkpoint, 0);
+        if (h >= porTimer.length) {
+            porTimer = Arrays.copyOf(porTimer, Math.max(h + 1, porTimer.length * 2));
+        }
+        porTimer[h] = estado;
+        estado.timer = h;
+    }
+
+    private void compactarSeNecessario() throws IOException {
+        if (changelog.getRegistrosDesdeSnapshot() >= compactarApos) {
+            changelog.compactar(visitante -> estados.values().forEach(visitante));
+            logger.info("Journey SLA changelog compacted: {} open journeys", estados.size());
+        }
+    }
+
+    private static IntervencaoJornada intervencao(EstadoSlaJornada estado, MotivoIntervencaoJornada motivo,
+                                                  long agora) {
+        return new IntervencaoJornada(estado.processInstanceId, estado.beneficiarioId, motivo, estado.etapaAtual,
+            estado.status(agora), (int) ((agora - estado.inicioEtapaMillis) / EstadoSlaJornada.DIA),
+            estado.aderencia(), Instant.ofEpochMilli(estado.inicioEtapaMillis), Instant.ofEpochMilli(agora));
+    }
+
+    private void emitir(List<IntervencaoJornada> intervencoes) {
+        for (IntervencaoJornada intervencao : intervencoes) {
+            try {
+                destino.accept(intervencao);
+                intervencoesEmitidas.increment();
+            } catch (Exception e) {
+                logger.error("Error emitting journey intervention {}: {}", intervencao, e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.austa.experiencia.service.jornada;
+
+/**
+ * Why the SLA monitor asked the navigator to step into a journey.
+ */
+public enum MotivoIntervencaoJornada {
+
+    /** Stage open for more than 120% of its deadline. */
+    ATRASO_ETAPA,
+
+    /** Adherence fell below 70%. */
+    ADERENCIA_BAIXA,
+
+    /** 80% of the stage deadline elapsed with adherence below 50%. */
+    PRAZO_CRITICO
+}
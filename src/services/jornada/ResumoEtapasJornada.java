@@ -0,0 +1,68 @@
+package br.com.austa.experiencia.service.jornada;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Folds a journey's milestones into the summary consolidated at the end of
+ * the journey, one milestone at a time.
+ */
+public final class ResumoEtapasJornada implements Consumer<EventoJornada> {
+
+    private long numeroEtapas;
+    private final Map<String, Long> porStatus = new TreeMap<>();
+    private final Map<String, Long> porEtapa = new LinkedHashMap<>();
+    private final Set<String> canais = new LinkedHashSet<>();
+    private long tempoTotalNasEtapas;
+    private Instant primeiraEtapaEm;
+    private Instant ultimaEtapaEm;
+    private String ultimaEtapa;
+
+    @Override
+    public void accept(EventoJornada evento) {
+        Map<String, Object> dados = evento.getDados();
+        numeroEtapas++;
+        contar(porStatus, dados.get("status"));
+        contar(porEtapa, dados.get("nome"));
+        if (dados.get("canal") != null) {
+            canais.add(dados.get("canal").toString());
+        }
+        if (dados.get("tempoNaEtapa") instanceof Number) {
+            tempoTotalNasEtapas += ((Number) dados.get("tempoNaEtapa")).longValue();
+        }
+        if (primeiraEtapaEm == null) {
+            primeiraEtapaEm = evento.getDataEvento();
+        }
+        ultimaEtapaEm = evento.getDataEvento();
+        ultimaEtapa = dados.get("nome") != null ? dados.get("nome").toString() : null;
+    }
+
+    private static void contar(Map<String, Long> contagem, Object chave) {
+        contagem.merge(chave != null ? chave.toString() : "N/A", 1L, Long::sum);
+    }
+
+    public long getNumeroEtapas() {
+        return numeroEtapas;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> mapa = new LinkedHashMap<>();
+        mapa.put("numeroEtapas", numeroEtapas);
+        mapa.put("etapasPorStatus", porStatus);
+        mapa.put("etapasPorNome", porEtapa);
+        mapa.put("canaisEtapas", canais);
+        mapa.put("tempoTotalNasEtapas", tempoTotalNasEtapas);
+        mapa.put("primeiraEtapaEm", primeiraEtapaEm != null ? primeiraEtapaEm.toString() : null);
+        mapa.put("ultimaEtapaEm", ultimaEtapaEm != null ? ultimaEtapaEm.toString() : null);
+        mapa.put("duracaoEtapasMinutos", primeiraEtapaEm != null
+            ? Duration.between(primeiraEtapaEm, ultimaEtapaEm).toMinutes() : 0);
+        mapa.put("ultimaEtapa", ultimaEtapa);
+        return mapa;
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.austa.experiencia.service.kafka;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the first replay of a topic that an in-memory view consumes from the
+ * beginning under a per-instance group.
+ *
+ * The end offset of every partition is read when the instance starts; the
+ * replay is over once each partition has been consumed up to that point, so
+ * the view holds at least everything the topic held at startup. Partitions
+ * that were empty then are done from the start.
+ */
+public final class ReposicaoTopico {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReposicaoTopico.class);
+
+    private static final long TIMEOUT_SEGUNDOS = 30;
+
+    private final String topico;
+    private final int particoes;
+    private final Map<Integer, Long> pendentes;
+    private volatile boolean concluida;
+
+    /**
+     * @param particoes number of partitions of the topic
+     * @param fins      end offset still to reach per partition; partitions with
+     *                  nothing to replay may be left out
+     */
+    public ReposicaoTopico(String topico, int particoes, Map<Integer, Long> fins) {
+        this.topico = topico;
+        this.particoes = particoes;
+        this.pendentes = new HashMap<>();
+        fins.forEach((particao, fim) -> {
+            if (fim > 0) {
+                pendentes.put(particao, fim);
+            }
+        });
+        this.concluida = pendentes.isEmpty();
+    }
+
+    /**
+     * Reads the current beginning and end offsets of {@code topico}. A topic
+     * that does not exist yet has nothing to replay.
+     *
+     * @throws IllegalStateException if the offsets cannot be read
+     */
+    public static ReposicaoTopico iniciar(KafkaAdmin kafkaAdmin, String topico) {
+        try (AdminClient admin = AdminClient.create(kafkaAdmin.getConfigurationProperties())) {
+            TopicDescription descricao = admin.describeTopics(List.of(topico)).all()
+                .get(TIMEOUT_SEGUNDOS, TimeUnit.SECONDS).get(topico);
+            Map<TopicPartition, OffsetSpec> inicio = new HashMap<>();
+            Map<TopicPartition, OffsetSpec> fim = new HashMap<>();
+            descricao.partitions().forEach(p -> {
+                inicio.put(new TopicPartition(topico, p.partition()), OffsetSpec.earliest());
+                fim.put(new TopicPartition(topico, p.partition()), OffsetSpec.latest());
+            });
+            Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> inicios =
+                admin.listOffsets(inicio).all().get(TIMEOUT_SEGUNDOS, TimeUnit.SECONDS);
+            Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> finais =
+                admin.listOffsets(fim).all().get(TIMEOUT_SEGUNDOS, TimeUnit.SECONDS);
+
+            Map<Integer, Long> fins = new HashMap<>();
+            finais.forEach((particao, info) -> {
+                // a partition whose records were all deleted delivers nothing to wait for
+                if (info.offset() > inicios.get(particao).offset()) {
+                    fins.put(particao.partition(), info.offset());
+                }
+            });
+            ReposicaoTopico reposicao = new ReposicaoTopico(topico, descricao.partitions().size(), fins);
+            logger.info("Replaying {} from the beginning up to offsets {}", topico, fins);
+            return reposicao;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UnknownTopicOrPartitionException) {
+                logger.info("Topic {} does not exist yet, nothing to replay", topico);
+                return new ReposicaoTopico(topico, 0, Map.of());
+            }
+            throw new IllegalStateException("Cannot read the offsets of " + topico + ": " + e.getCause(), e);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("Cannot read the offsets of " + topico + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Records that the record at {@code offset} of {@code particao} was applied.
+     *
+     * @return true on the call that completes the replay
+     */
+    public boolean avancar(int particao, long offset) {
+        if (concluida) {
+            return false;
+        }
+        synchronized (this) {
+            Long fim = pendentes.get(particao);
+            if (fim != null && offset + 1 >= fim) {
+                pendentes.remove(particao);
+            }
+            if (concluida || !pendentes.isEmpty()) {
+                return false;
+            }
+            concluida = true;
+        }
+        logger.info("Replay of {} complete", topico);
+        return true;
+    }
+
+    public boolean isConcluida() {
+        return concluida;
+    }
+
+    /**
+     * Partitions the topic had at startup; 0 when it did not exist yet.
+     */
+    public int getParticoes() {
+        return particoes;
+    }
+}
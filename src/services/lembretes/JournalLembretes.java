@@ -0,0 +1,206 @@
+package br.com.austa.experiencia.service.lembretes;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Snapshot plus append-only log for the reminder schedule.
+ *
+ * Both files hold the same framed records, [len(4) crc32(4) payload]:
+ * - SINCRONIZACAO: full medication list of one beneficiary (replaces the previous one)
+ * - CHECKPOINT: wall-clock instant up to which reminders were dispatched
+ *
+ * Records are idempotent, so recovery simply replays snapshot then log. A
+ * torn record at the end of the log is detected by its CRC and truncated.
+ */
+final class JournalLembretes {
+
+    private static final byte SINCRONIZACAO = 1;
+    private static final byte CHECKPOINT = 2;
+
+    private final Path snapshot;
+    private final Path log;
+    private final boolean fsync;
+    private FileChannel canal;
+    private int registrosDesdeSnapshot;
+
+    JournalLembretes(Path diretorio, boolean fsync) throws IOException {
+        Files.createDirectories(diretorio);
+        this.snapshot = diretorio.resolve("snapshot.dat");
+        this.log = diretorio.resolve("lembretes.log");
+        this.fsync = fsync;
+    }
+
+    /**
+     * Replays snapshot and log, then opens the log for appending.
+     */
+    void recuperar(BiConsumer<String, List<MedicamentoAgendado>> sincronizacao,
+                   LongConsumer checkpoint) throws IOException {
+        if (Files.exists(snapshot)) {
+            ler(snapshot, sincronizacao, checkpoint);
+        }
+        long valido = Files.exists(log) ? ler(log, sincronizacao, checkpoint) : 0;
+        canal = FileChannel.open(log, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        canal.truncate(valido);
+        canal.position(valido);
+    }
+
+    void registrarSincronizacao(String beneficiarioId, List<MedicamentoAgendado> medicamentos) throws IOException {
+        anexar(canal, sincronizacao(beneficiarioId, medicamentos));
+    }
+
+    void registrarCheckpoint(long instante) throws IOException {
+        anexar(canal, checkpoint(instante));
+    }
+
+    int getRegistrosDesdeSnapshot() {
+        return registrosDesdeSnapshot;
+    }
+
+    /**
+     * Writes the full schedule to a new snapshot and starts an empty log.
+     *
+     * @param agenda visits every beneficiary with its current medication list
+     */
+    void compactar(Consumer<BiConsumer<String, List<MedicamentoAgendado>>> agenda, long checkpoint)
+            throws IOException {
+        Path temporario = snapshot.resolveSibling("snapshot.tmp");
+        try (FileChannel destino = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            try {
+                agenda.accept((beneficiarioId, medicamentos) -> {
+                    try {
+                        escrever(destino, sincronizacao(beneficiarioId, medicamentos));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            escrever(destino, checkpoint(checkpoint));
+            destino.force(true);
+        }
+        Files.move(temporario, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        canal.truncate(0);
+        canal.position(0);
+        registrosDesdeSnapshot = 0;
+    }
+
+    void fechar() throws IOException {
+        if (canal != null) {
+            canal.force(true);
+            canal.close();
+        }
+    }
+
+    private void anexar(FileChannel destino, byte[] payload) throws IOException {
+        escrever(destino, payload);
+        if (fsync) {
+            destino.force(false);
+        }
+        registrosDesdeSnapshot++;
+    }
+
+    private static void escrever(FileChannel destino, byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer buffer = ByteBuffer.allocate(8 + payload.length);
+        buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        while (buffer.hasRemaining()) {
+            destino.write(buffer);
+        }
+    }
+
+    private static byte[] sincronizacao(String beneficiarioId, List<MedicamentoAgendado> medicamentos)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + medicamentos.size() * 48);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(SINCRONIZACAO);
+        out.writeUTF(beneficiarioId);
+        out.writeShort(medicamentos.size());
+        for (MedicamentoAgendado medicamento : medicamentos) {
+            out.writeUTF(medicamento.getNome());
+            out.writeUTF(medicamento.getDose());
+            out.writeUTF(medicamento.getInstrucoes());
+            out.writeShort(medicamento.getMinutoDoDia());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] checkpoint(long instante) {
+        return ByteBuffer.allocate(9).put(CHECKPOINT).putLong(instante).array();
+    }
+
+    /**
+     * @return offset just past the last intact record
+     */
+    private static long ler(Path arquivo, BiConsumer<String, List<MedicamentoAgendado>> sincronizacao,
+                            LongConsumer checkpoint) throws IOException {
+        long valido = 0;
+        try (InputStream stream = Channels.newInputStream(FileChannel.open(arquivo, StandardOpenOption.READ));
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16))) {
+            while (true) {
+                int tamanho;
+                try {
+                    tamanho = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                int crcEsperado = in.readInt();
+                if (tamanho <= 0 || tamanho > (1 << 20)) {
+                    break;
+                }
+                byte[] payload = new byte[tamanho];
+                in.readFully(payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != crcEsperado) {
+                    break;
+                }
+                aplicar(payload, sincronizacao, checkpoint);
+                valido += 8 + tamanho;
+            }
+        } catch (EOFException e) {
+            // torn record at the tail
+        }
+        return valido;
+    }
+
+    private static void aplicar(byte[] payload, BiConsumer<String, List<MedicamentoAgendado>> sincronizacao,
+                                LongConsumer checkpoint) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte tipo = in.readByte();
+        if (tipo == CHECKPOINT) {
+            checkpoint.accept(in.readLong());
+            return;
+        }
+        String beneficiarioId = in.readUTF();
+        int quantidade = in.readUnsignedShort();
+        List<MedicamentoAgendado> medicamentos = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            medicamentos.add(new MedicamentoAgendado(in.readUTF(), in.readUTF(), in.readUTF(), in.readShort()));
+        }
+        sincronizacao.accept(beneficiarioId, medicamentos);
+    }
+}
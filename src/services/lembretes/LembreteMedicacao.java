@@ -0,0 +1,44 @@
+package br.com.austa.experiencia.service.lembretes;
+
+import java.time.Instant;
+
+/**
+ * A reminder that came due, as handed to the notification channel.
+ */
+public final class LembreteMedicacao {
+
+    private final String beneficiarioId;
+    private final MedicamentoAgendado medicamento;
+    private final Instant horarioDose;
+    private final long atrasoMillis;
+
+    LembreteMedicacao(String beneficiarioId, MedicamentoAgendado medicamento, Instant horarioDose,
+                      long atrasoMillis) {
+        this.beneficiarioId = beneficiarioId;
+        this.medicamento = medicamento;
+        this.horarioDose = horarioDose;
+        this.atrasoMillis = atrasoMillis;
+    }
+
+    public String getBeneficiarioId() {
+        return beneficiarioId;
+    }
+
+    public MedicamentoAgendado getMedicamento() {
+        return medicamento;
+    }
+
+    public Instant getHorarioDose() {
+        return horarioDose;
+    }
+
+    /** How late the reminder fired relative to its scheduled time. */
+    public long getAtrasoMillis() {
+        return atrasoMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "LembreteMedicacao{" + beneficiarioId + " " + medicamento + "}";
+    }
+}
@@ -0,0 +1,512 @@
+package br.com.austa.experiencia.service.lembretes;
+
+import br.com.austa.experiencia.services.domain.NotificationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Lembrete Medicacao Scheduler - medication reminders for the whole chronic population
+ *
+ * Every daily dose of every beneficiary is one timer in a {@link TimingWheel}
+ * (one-minute ticks by default), so there is no Camunda timer job per dose:
+ * the SUB-008 flow only synchronizes the beneficiary's medication schedule
+ * here, and a single ticker thread expires due reminders, re-arms them for
+ * the next day and hands them to the notification channel in batches.
+ *
+ * Per dose the state is the wheel entry plus two ints (beneficiary and next
+ * dose of the same beneficiary); medications are interned, so a population
+ * sharing a handful of prescriptions costs ~36 bytes per dose.
+ *
+ * The schedule is persisted by {@link JournalLembretes}: schedule changes and
+ * a per-tick checkpoint go to an append-only log, compacted into a snapshot.
+ * On restart, reminders that came due after the last checkpoint and whose
+ * dose time has not passed yet are still sent.
+ *
+ * Each beneficiary's schedule lives on exactly one instance: the SUB-008
+ * delegate publishes it to a topic keyed by beneficiary and
+ * {@link RoteadorAgendaLembretes} applies it on the instance that owns the
+ * partition, dropping ({@link #reter}) the schedules of partitions it loses.
+ */
+@Component("lembreteMedicacaoScheduler")
+public class LembreteMedicacaoScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(LembreteMedicacaoScheduler.class);
+
+    private static final long MINUTO = 60_000L;
+    private static final int NENHUM = -1;
+
+    private final ZoneId zona;
+    private final long antecedenciaMillis;
+    private final long tickMillis;
+    private final int tamanhoLote;
+    private final int compactarApos;
+    private final Clock clock;
+    private final Consumer<List<LembreteMedicacao>> destino;
+    private final JournalLembretes journal;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TimingWheel roda;
+
+    // interned beneficiaries and medications
+    private final Map<String, Integer> indiceBeneficiario = new HashMap<>();
+    private final List<String> beneficiarios = new ArrayList<>();
+    private int[] primeiraDose = new int[1024];
+    private final Map<MedicamentoAgendado, Integer> indiceMedicamento = new HashMap<>();
+    private final List<MedicamentoAgendado> medicamentos = new ArrayList<>();
+
+    // per wheel handle
+    private int[] beneficiarioDaDose = new int[1024];
+    private int[] proximaDose = new int[1024];
+
+    private long ultimoCheckpoint;
+
+    private ScheduledExecutorService ticker;
+    private ExecutorService despacho;
+    private int threadsDespacho;
+
+    private final LongAdder lembretesDisparados = new LongAdder();
+    private final LongAdder lembretesPerdidos = new LongAdder();
+    private final LongAdder lotesEnviados = new LongAdder();
+    private final LongAccumulator atrasoMaximoMillis = new LongAccumulator(Math::max, 0);
+
+    @Autowired
+    public LembreteMedicacaoScheduler(@Value("${lembretes.path:./data/lembretes}") String diretorio,
+                                      @Value("${lembretes.zona:America/Sao_Paulo}") String zona,
+                                      @Value("${lembretes.antecedencia-minutos:30}") int antecedenciaMinutos,
+                                      @Value("${lembretes.tick-ms:60000}") long tickMillis,
+                                      @Value("${lembretes.lote:500}") int tamanhoLote,
+                                      @Value("${lembretes.compactar-apos:100000}") int compactarApos,
+                                      @Value("${lembretes.fsync:false}") boolean fsync,
+                                      @Value("${lembretes.despacho.threads:4}") int threadsDespacho,
+                                      NotificationService notificationService) throws IOException {
+        this(new JournalLembretes(Paths.get(diretorio), fsync), ZoneId.of(zona), antecedenciaMinutos,
+            tickMillis, tamanhoLote, compactarApos, Clock.systemUTC(),
+            lote -> enviarPush(notificationService, lote));
+        this.threadsDespacho = threadsDespacho;
+    }
+
+    /**
+     * Standalone constructor (tests, tools): no ticker until {@link #iniciar()},
+     * batches are delivered on the calling thread of {@link #processarVencidos()}.
+     */
+    public LembreteMedicacaoScheduler(String diretorio, ZoneId zona, int antecedenciaMinutos, long tickMillis,
+                                      int tamanhoLote, int compactarApos, Clock clock,
+                                      Consumer<List<LembreteMedicacao>> destino) throws IOException {
+        this(new JournalLembretes(Paths.get(diretorio), false), zona, antecedenciaMinutos, tickMillis,
+            tamanhoLote, compactarApos, clock, destino);
+    }
+
+    private LembreteMedicacaoScheduler(JournalLembretes journal, ZoneId zona, int antecedenciaMinutos,
+                                       long tickMillis, int tamanhoLote, int compactarApos, Clock clock,
+                                       Consumer<List<LembreteMedicacao>> destino) throws IOException {
+        this.journal = journal;
+        this.zona = zona;
+        this.antecedenciaMillis = antecedenciaMinutos * MINUTO;
+        this.tickMillis = tickMillis;
+        this.tamanhoLote = tamanhoLote;
+        this.compactarApos = compactarApos;
+        this.clock = clock;
+        this.destino = destino;
+
+        long agora = clock.millis();
+        this.roda = new TimingWheel(tickMillis, agora, 1024);
+        recuperar(agora);
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        if (threadsDespacho > 0) {
+            despacho = Executors.newFixedThreadPool(threadsDespacho, r -> {
+                Thread thread = new Thread(r, "lembretes-despacho");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "lembretes-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> {
+            try {
+                processarVencidos();
+            } catch (Exception e) {
+                logger.error("Error processing due medication reminders: {}", e.getMessage(), e);
+            }
+        }, tickMillis - clock.millis() % tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        logger.info("Medication reminder scheduler started: {} doses, tick {} ms", roda.tamanho(), tickMillis);
+    }
+
+    @PreDestroy
+    public void parar() throws IOException, InterruptedException {
+        if (ticker != null) {
+            ticker.shutdown();
+            ticker.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        if (despacho != null) {
+            despacho.shutdown();
+            despacho.awaitTermination(30, TimeUnit.SECONDS);
+        }
+        lock.lock();
+        try {
+            journal.fechar();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the beneficiary's schedule. Unchanged doses keep their timers,
+     * so re-synchronizing the same schedule is a no-op.
+     *
+     * @return number of daily doses now scheduled for the beneficiary
+     */
+    public int sincronizar(String beneficiarioId, Collection<MedicamentoAgendado> schedule) throws IOException {
+        lock.lock();
+        try {
+            long agora = clock.millis();
+            boolean alterado = aplicar(beneficiarioId, schedule, agora - antecedenciaMillis, agora);
+            if (alterado) {
+                journal.registrarSincronizacao(beneficiarioId, agendaDe(indiceBeneficiario.get(beneficiarioId)));
+                compactarSeNecessario(agora);
+            }
+            return schedule.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the schedule of every beneficiary {@code manter} rejects, e.g.
+     * those whose partition moved to another instance.
+     *
+     * @return number of beneficiaries dropped
+     */
+    public int reter(Predicate<String> manter) throws IOException {
+        lock.lock();
+        try {
+            long agora = clock.millis();
+            int removidos = 0;
+            for (int b = 0; b < beneficiarios.size(); b++) {
+                String beneficiarioId = beneficiarios.get(b);
+                if (primeiraDose[b] != NENHUM && !manter.test(beneficiarioId)) {
+                    aplicar(beneficiarioId, List.of(), agora, agora);
+                    journal.registrarSincronizacao(beneficiarioId, List.of());
+                    removidos++;
+                }
+            }
+            if (removidos > 0) {
+                compactarSeNecessario(agora);
+                logger.info("Dropped the medication schedules of {} beneficiaries owned elsewhere", removidos);
+            }
+            return removidos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * First reminder {@code schedule} would get if synchronized now, on
+     * whichever instance ends up owning it.
+     */
+    public Optional<Instant> proximoLembrete(Collection<MedicamentoAgendado> schedule) {
+        long agora = clock.millis();
+        return schedule.stream()
+            .map(medicamento -> proximoDisparo(medicamento, agora - antecedenciaMillis, agora))
+            .min(Long::compare)
+            .map(Instant::ofEpochMilli);
+    }
+
+    /**
+     * Next reminder scheduled for the beneficiary, if any.
+     */
+    public Optional<Instant> proximoLembrete(String beneficiarioId) {
+        lock.lock();
+        try {
+            Integer b = indiceBeneficiario.get(beneficiarioId);
+            long proximo = Long.MAX_VALUE;
+            for (int h = b != null ? primeiraDose[b] : NENHUM; h != NENHUM; h = proximaDose[h]) {
+                proximo = Math.min(proximo, roda.prazoMillis(h));
+            }
+            return proximo == Long.MAX_VALUE ? Optional.empty() : Optional.of(Instant.ofEpochMilli(proximo));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Expires every reminder due by now, re-arms it for the next day and
+     * dispatches the due reminders in batches. Called by the ticker.
+     *
+     * @return number of reminders dispatched
+     */
+    public int processarVencidos() throws IOException {
+        List<LembreteMedicacao> vencidos = new ArrayList<>();
+        lock.lock();
+        try {
+            long agora = clock.millis();
+            roda.avancar(agora, h -> {
+                MedicamentoAgendado medicamento = medicamentos.get(roda.ref(h));
+                long prazo = roda.prazoMillis(h);
+                long dose = prazo + antecedenciaMillis;
+                if (dose > agora) {
+                    vencidos.add(new LembreteMedicacao(beneficiarios.get(beneficiarioDaDose[h]), medicamento,
+                        Instant.ofEpochMilli(dose), agora - prazo));
+                } else {
+                    lembretesPerdidos.increment();
+                }
+                roda.reagendar(h, proximoDisparo(medicamento, prazo, agora));
+            });
+            ultimoCheckpoint = agora;
+            journal.registrarCheckpoint(agora);
+            compactarSeNecessario(agora);
+        } finally {
+            lock.unlock();
+        }
+
+        if (!vencidos.isEmpty()) {
+            despachar(vencidos);
+        }
+        return vencidos.size();
+    }
+
+    public int getDosesAgendadas() {
+        lock.lock();
+        try {
+            return roda.tamanho();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getLembretesDisparados() {
+        return lembretesDisparados.sum();
+    }
+
+    public long getLembretesPerdidos() {
+        return lembretesPerdidos.sum();
+    }
+
+    public long getLotesEnviados() {
+        return lotesEnviados.sum();
+    }
+
+    public long getAtrasoMaximoMillis() {
+        return atrasoMaximoMillis.get();
+    }
+
+    private void recuperar(long agora) throws IOException {
+        Map<String, List<MedicamentoAgendado>> agenda = new LinkedHashMap<>();
+        long[] checkpoint = {0};
+        journal.recuperar(agenda::put, instante -> checkpoint[0] = Math.max(checkpoint[0], instante));
+
+        long desde = checkpoint[0] > 0 ? checkpoint[0] : agora - antecedenciaMillis;
+        for (Map.Entry<String, List<MedicamentoAgendado>> entrada : agenda.entrySet()) {
+            aplicar(entrada.getKey(), entrada.getValue(), desde, agora);
+        }
+        ultimoCheckpoint = checkpoint[0];
+        if (!agenda.isEmpty()) {
+            logger.info("Recovered {} medication doses for {} beneficiaries (checkpoint {})",
+                roda.tamanho(), agenda.size(), Instant.ofEpochMilli(checkpoint[0]));
+        }
+    }
+
+    /**
+     * Diffs the beneficiary's current doses against {@code schedule}.
+     *
+     * @return whether any dose was added or removed
+     */
+    private boolean aplicar(String beneficiarioId, Collection<MedicamentoAgendado> schedule, long desde, long agora) {
+        int b = internarBeneficiario(beneficiarioId);
+        Set<MedicamentoAgendado> desejados = new LinkedHashSet<>(schedule);
+        boolean alterado = false;
+
+        int anterior = NENHUM;
+        int h = primeiraDose[b];
+        while (h != NENHUM) {
+            int seguinte = proximaDose[h];
+            if (desejados.remove(medicamentos.get(roda.ref(h)))) {
+                anterior = h;
+            } else {
+                if (anterior == NENHUM) {
+                    primeiraDose[b] = seguinte;
+                } else {
+                    proximaDose[anterior] = seguinte;
+                }
+                roda.cancelar(h);
+                alterado = true;
+            }
+            h = seguinte;
+        }
+
+        for (MedicamentoAgendado medicamento : desejados) {
+            int novo = roda.agendar(proximoDisparo(medicamento, desde, agora), internarMedicamento(medicamento));
+            garantirCapacidadeDoses(novo);
+            beneficiarioDaDose[novo] = b;
+            proximaDose[novo] = primeiraDose[b];
+            primeiraDose[b] = novo;
+            alterado = true;
+        }
+        return alterado;
+    }
+
+    /**
+     * First reminder instant after {@code desde} whose dose is still ahead of
+     * {@code agora}. A reminder already past is returned as is and fires on
+     * the next tick.
+     */
+    private long proximoDisparo(MedicamentoAgendado medicamento, long desde, long agora) {
+        LocalDate dia = Instant.ofEpochMilli(desde).atZone(zona).toLocalDate();
+        while (true) {
+            long dose = dia.atTime(medicamento.getHorario()).atZone(zona).toInstant().toEpochMilli();
+            long lembrete = dose - antecedenciaMillis;
+            if (lembrete > desde && dose > agora) {
+                return lembrete;
+            }
+            dia = dia.plusDays(1);
+        }
+    }
+
+    private void despachar(List<LembreteMedicacao> vencidos) {
+        // Keep all reminders of a beneficiary in the same batch, so the channel can merge them
+        vencidos.sort(Comparator.comparing(LembreteMedicacao::getBeneficiarioId));
+        int inicio = 0;
+        while (inicio < vencidos.size()) {
+            int fim = Math.min(inicio + tamanhoLote, vencidos.size());
+            while (fim < vencidos.size()
+                && vencidos.get(fim).getBeneficiarioId().equals(vencidos.get(fim - 1).getBeneficiarioId())) {
+                fim++;
+            }
+            List<LembreteMedicacao> lote = vencidos.subList(inicio, fim);
+            if (despacho != null) {
+                despacho.execute(() -> enviarLote(lote));
+            } else {
+                enviarLote(lote);
+            }
+            inicio = fim;
+        }
+    }
+
+    private void enviarLote(List<LembreteMedicacao> lote) {
+        try {
+            destino.accept(lote);
+            lotesEnviados.increment();
+            lembretesDisparados.add(lote.size());
+            for (LembreteMedicacao lembrete : lote) {
+                atrasoMaximoMillis.accumulate(lembrete.getAtrasoMillis());
+            }
+        } catch (Exception e) {
+            logger.error("Error dispatching batch of {} medication reminders: {}", lote.size(), e.getMessage(), e);
+        }
+    }
+
+    private static void enviarPush(NotificationService notificationService, List<LembreteMedicacao> lote) {
+        Map<String, StringBuilder> mensagens = new LinkedHashMap<>();
+        for (LembreteMedicacao lembrete : lote) {
+            MedicamentoAgendado medicamento = lembrete.getMedicamento();
+            StringBuilder mensagem = mensagens.computeIfAbsent(lembrete.getBeneficiarioId(),
+                id -> new StringBuilder("Lembrete de medicação: "));
+            if (mensagem.charAt(mensagem.length() - 1) != ' ') {
+                mensagem.append("; ");
+            }
+            mensagem.append(medicamento.getNome()).append(' ').append(medicamento.getDose())
+                .append(" às ").append(medicamento.getHorario());
+            if (!medicamento.getInstrucoes().isEmpty()) {
+                mensagem.append(" (").append(medicamento.getInstrucoes()).append(')');
+            }
+        }
+        Map<String, String> porBeneficiario = new LinkedHashMap<>();
+        mensagens.forEach((id, mensagem) -> porBeneficiario.put(id, mensagem.toString()));
+        notificationService.sendPushBatch(porBeneficiario);
+    }
+
+    private void compactarSeNecessario(long agora) throws IOException {
+        if (journal.getRegistrosDesdeSnapshot() < compactarApos) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        journal.compactar(this::percorrerAgenda, ultimoCheckpoint > 0 ? ultimoCheckpoint : agora);
+        logger.info("Medication reminder journal compacted: {} doses in {} ms",
+            roda.tamanho(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+    }
+
+    private void percorrerAgenda(BiConsumer<String, List<MedicamentoAgendado>> visitante) {
+        for (int b = 0; b < beneficiarios.size(); b++) {
+            if (primeiraDose[b] != NENHUM) {
+                visitante.accept(beneficiarios.get(b), agendaDe(b));
+            }
+        }
+    }
+
+    private List<MedicamentoAgendado> agendaDe(int b) {
+        List<MedicamentoAgendado> agenda = new ArrayList<>();
+        for (int h = primeiraDose[b]; h != NENHUM; h = proximaDose[h]) {
+            agenda.add(medicamentos.get(roda.ref(h)));
+        }
+        return agenda;
+    }
+
+    private int internarBeneficiario(String beneficiarioId) {
+        Integer b = indiceBeneficiario.get(beneficiarioId);
+        if (b != null) {
+            return b;
+        }
+        int novo = beneficiarios.size();
+        if (novo == primeiraDose.length) {
+            int tamanho = novo * 2;
+            primeiraDose = Arrays.copyOf(primeiraDose, tamanho);
+        }
+        primeiraDose[novo] = NENHUM;
+        beneficiarios.add(beneficiarioId);
+        indiceBeneficiario.put(beneficiarioId, novo);
+        return novo;
+    }
+
+    private int internarMedicamento(MedicamentoAgendado medicamento) {
+        return indiceMedicamento.computeIfAbsent(medicamento, m -> {
+            medicamentos.add(m);
+            return medicamentos.size() - 1;
+        });
+    }
+
+    private void garantirCapacidadeDoses(int handle) {
+        if (handle >= beneficiarioDaDose.length) {
+            int tamanho = Math.max(handle + 1, beneficiarioDaDose.length * 2);
+            beneficiarioDaDose = Arrays.copyOf(beneficiarioDaDose, tamanho);
+            proximaDose = Arrays.copyOf(proximaDose, tamanho);
+        }
+    }
+}
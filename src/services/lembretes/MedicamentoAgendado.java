@@ -0,0 +1,72 @@
+package br.com.austa.experiencia.service.lembretes;
+
+import java.time.LocalTime;
+import java.util.Objects;
+
+/**
+ * One daily dose of a beneficiary's medication schedule.
+ *
+ * Instances are interned by {@link LembreteMedicacaoScheduler}, so the many
+ * beneficiaries sharing e.g. "Metformina 500mg 08:00" share one object.
+ */
+public final class MedicamentoAgendado {
+
+    private final String nome;
+    private final String dose;
+    private final String instrucoes;
+    private final int minutoDoDia;
+
+    public MedicamentoAgendado(String nome, String dose, String instrucoes, LocalTime horario) {
+        this(nome, dose, instrucoes, horario.getHour() * 60 + horario.getMinute());
+    }
+
+    MedicamentoAgendado(String nome, String dose, String instrucoes, int minutoDoDia) {
+        this.nome = nome;
+        this.dose = dose != null ? dose : "";
+        this.instrucoes = instrucoes != null ? instrucoes : "";
+        this.minutoDoDia = minutoDoDia;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public String getDose() {
+        return dose;
+    }
+
+    public String getInstrucoes() {
+        return instrucoes;
+    }
+
+    public LocalTime getHorario() {
+        return LocalTime.of(minutoDoDia / 60, minutoDoDia % 60);
+    }
+
+    int getMinutoDoDia() {
+        return minutoDoDia;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MedicamentoAgendado)) {
+            return false;
+        }
+        MedicamentoAgendado outro = (MedicamentoAgendado) o;
+        return minutoDoDia == outro.minutoDoDia && nome.equals(outro.nome)
+            && dose.equals(outro.dose) && instrucoes.equals(outro.instrucoes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(nome, dose, instrucoes, minutoDoDia);
+    }
+
+    @Override
+    public String toString() {
+        return nome + " " + dose + " " + getHorario();
+    }
+}
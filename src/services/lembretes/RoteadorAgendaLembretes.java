@@ -0,0 +1,143 @@
+package br.com.austa.experiencia.service.lembretes;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routes medication schedules to the instance that fires their reminders.
+ *
+ * {@link #publicar} sends the beneficiary's whole schedule to
+ * {@code lembretes.topico-agendas} keyed by beneficiarioId (the topic should
+ * be compacted: the latest schedule per beneficiary is all that matters).
+ * The instances consume it under one shared group, so each partition, and
+ * with it each beneficiary, has a single owner whose
+ * {@link LembreteMedicacaoScheduler} holds the timers:
+ * {"beneficiarioId": "...", "medicamentos": [{"nome": "...", "dose": "...",
+ *  "instrucoes": "...", "horario": "08:00"}]}
+ *
+ * On assignment the owner drops the schedules of partitions it no longer
+ * holds and re-reads its partitions from the beginning; re-applying an
+ * unchanged schedule is a no-op, so only schedules it did not have yet
+ * (taken over from another instance) cost anything.
+ */
+@Component("roteadorAgendaLembretes")
+public class RoteadorAgendaLembretes implements ConsumerSeekAware {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoteadorAgendaLembretes.class);
+
+    @Autowired
+    private LembreteMedicacaoScheduler lembreteMedicacaoScheduler;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${lembretes.topico-agendas:lembretes-agenda}")
+    private String topico;
+
+    @Value("${lembretes.espera-publicacao-ms:10000}")
+    private long esperaPublicacaoMs;
+
+    private final Set<Integer> particoesProprias = ConcurrentHashMap.newKeySet();
+    private volatile int particoes;
+
+    /**
+     * Publishes the schedule and waits for the broker to accept it, so the
+     * calling step fails (and is retried) when it could not be routed.
+     */
+    public void publicar(String beneficiarioId, Collection<MedicamentoAgendado> agenda) throws Exception {
+        List<Map<String, Object>> medicamentos = new ArrayList<>(agenda.size());
+        for (MedicamentoAgendado medicamento : agenda) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("nome", medicamento.getNome());
+            item.put("dose", medicamento.getDose());
+            item.put("instrucoes", medicamento.getInstrucoes());
+            item.put("horario", medicamento.getHorario().toString());
+            medicamentos.add(item);
+        }
+        Map<String, Object> evento = new LinkedHashMap<>();
+        evento.put("beneficiarioId", beneficiarioId);
+        evento.put("medicamentos", medicamentos);
+        String mensagem;
+        try {
+            mensagem = objectMapper.writeValueAsString(evento);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize medication schedule of " + beneficiarioId, e);
+        }
+        kafkaTemplate.send(new ProducerRecord<>(topico, beneficiarioId, mensagem))
+            .get(esperaPublicacaoMs, TimeUnit.MILLISECONDS);
+    }
+
+    @KafkaListener(topics = "${lembretes.topico-agendas:lembretes-agenda}",
+                   groupId = "${lembretes.kafka.group-id:lembretes-medicacao}")
+    public void onAgenda(ConsumerRecord<String, String> registro) throws IOException {
+        if (registro.key() == null || registro.value() == null) {
+            return;
+        }
+        JsonNode evento = objectMapper.readTree(registro.value());
+        List<MedicamentoAgendado> agenda = new ArrayList<>();
+        for (JsonNode item : evento.path("medicamentos")) {
+            agenda.add(new MedicamentoAgendado(item.path("nome").asText(), item.path("dose").asText(),
+                item.path("instrucoes").asText(null), LocalTime.parse(item.path("horario").asText())));
+        }
+        lembreteMedicacaoScheduler.sincronizar(registro.key(), agenda);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        assignments.keySet().forEach(particao -> particoesProprias.add(particao.partition()));
+        reterProprias();
+        assignments.keySet().forEach(particao -> callback.seekToBeginning(particao.topic(), particao.partition()));
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> revogadas) {
+        revogadas.forEach(particao -> particoesProprias.remove(particao.partition()));
+        reterProprias();
+    }
+
+    private void reterProprias() {
+        if (particoes == 0) {
+            particoes = kafkaTemplate.partitionsFor(topico).size();
+        }
+        try {
+            lembreteMedicacaoScheduler.reter(beneficiarioId -> particoesProprias.contains(particaoDe(beneficiarioId)));
+        } catch (IOException e) {
+            logger.error("Error dropping medication schedules owned elsewhere: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Partition the producer's default partitioner picks for the key.
+     */
+    private int particaoDe(String beneficiarioId) {
+        return Utils.toPositive(Utils.murmur2(beneficiarioId.getBytes(StandardCharsets.UTF_8))) % particoes;
+    }
+}
@@ -0,0 +1,235 @@
+package br.com.austa.experiencia.service.lembretes;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Hierarchical hashed timing wheel over primitive arrays.
+ *
+ * Four levels of 64 slots; level L slot width is 64^L ticks, so the wheel
+ * covers 64^4 ticks (about 31 years at one-minute ticks) with O(1) insert,
+ * cancel and per-tick expiry. Entries of a level are cascaded into the level
+ * below when its slot comes round, as in the classic kernel timer wheel.
+ *
+ * Entries are int handles into parallel arrays (deadline, ref, doubly linked
+ * bucket list), ~28 bytes each and no object per timer. Not thread-safe: the
+ * owner serializes access.
+ */
+public final class TimingWheel {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASCARA = SLOTS - 1;
+    private static final int NIVEIS = 4;
+    private static final long ALCANCE = 1L << (BITS * NIVEIS);
+
+    private static final int NENHUM = -1;
+
+    private final long tickMillis;
+    private long tickAtual;
+
+    private final int[] cabeca = new int[NIVEIS * SLOTS];
+
+    private long[] prazo;
+    private int[] ref;
+    private int[] proximo;
+    private int[] anterior;
+    private int[] balde;
+
+    private int livre = NENHUM;
+    private int usados;
+    private int tamanho;
+
+    public TimingWheel(long tickMillis, long agoraMillis, int capacidadeInicial) {
+        this.tickMillis = tickMillis;
+        this.tickAtual = agoraMillis / tickMillis;
+        Arrays.fill(cabeca, NENHUM);
+        int capacidade = Math.max(16, capacidadeInicial);
+        prazo = new long[capacidade];
+        ref = new int[capacidade];
+        proximo = new int[capacidade];
+        anterior = new int[capacidade];
+        balde = new int[capacidade];
+    }
+
+    /**
+     * Schedules {@code ref} to expire at {@code prazoMillis}; a deadline in the
+     * past expires on the next tick.
+     *
+     * @return handle of the timer
+     */
+    public int agendar(long prazoMillis, int ref) {
+        int handle = alocar();
+        this.ref[handle] = ref;
+        prazo[handle] = prazoMillis / tickMillis;
+        inserir(handle, false);
+        tamanho++;
+        return handle;
+    }
+
+    /**
+     * Moves a live or just-expired timer to a new deadline, keeping its handle.
+     */
+    public void reagendar(int handle, long prazoMillis) {
+        if (balde[handle] != NENHUM) {
+            desligar(handle);
+        } else {
+            tamanho++;
+        }
+        prazo[handle] = prazoMillis / tickMillis;
+        inserir(handle, false);
+    }
+
+    /**
+     * Cancels a pending timer and releases its handle.
+     */
+    public void cancelar(int handle) {
+        if (balde[handle] != NENHUM) {
+            desligar(handle);
+            tamanho--;
+        }
+        liberar(handle);
+    }
+
+    /**
+     * Releases the handle of an expired timer that will not be rescheduled.
+     */
+    public void liberar(int handle) {
+        balde[handle] = NENHUM;
+        ref[handle] = NENHUM;
+        proximo[handle] = livre;
+        livre = handle;
+    }
+
+    /**
+     * Advances the wheel to {@code agoraMillis}, handing every expired handle
+     * to {@code expirados}. The callback must either {@link #reagendar} or
+     * {@link #liberar} the handle it receives, and touch no other handle.
+     *
+     * @return number of expired timers
+     */
+    public int avancar(long agoraMillis, IntConsumer expirados) {
+        long alvo = agoraMillis / tickMillis;
+        int total = 0;
+        while (tickAtual < alvo) {
+            tickAtual++;
+            cascatear();
+            int indice = (int) (tickAtual & MASCARA);
+            int handle = cabeca[indice];
+            cabeca[indice] = NENHUM;
+            while (handle != NENHUM) {
+                int seguinte = proximo[handle];
+                balde[handle] = NENHUM;
+                tamanho--;
+                total++;
+                expirados.accept(handle);
+                handle = seguinte;
+            }
+        }
+        return total;
+    }
+
+    public int ref(int handle) {
+        return ref[handle];
+    }
+
+    public long prazoMillis(int handle) {
+        return prazo[handle] * tickMillis;
+    }
+
+    public boolean pendente(int handle) {
+        return balde[handle] != NENHUM;
+    }
+
+    /** Pending timers. */
+    public int tamanho() {
+        return tamanho;
+    }
+
+    public long agoraMillis() {
+        return tickAtual * tickMillis;
+    }
+
+    private void cascatear() {
+        for (int nivel = 1; nivel < NIVEIS; nivel++) {
+            if ((tickAtual & ((1L << (BITS * nivel)) - 1)) != 0) {
+                return;
+            }
+            int indice = nivel * SLOTS + (int) ((tickAtual >>> (BITS * nivel)) & MASCARA);
+            int handle = cabeca[indice];
+            cabeca[indice] = NENHUM;
+            while (handle != NENHUM) {
+                int seguinte = proximo[handle];
+                inserir(handle, true);
+                handle = seguinte;
+            }
+        }
+    }
+
+    /**
+     * A cascade runs before the current tick's slot is expired, so cascaded
+     * timers due now may still land in it; anything else due now or earlier
+     * goes to the next tick.
+     */
+    private void inserir(int handle, boolean emCascata) {
+        long delta = prazo[handle] - tickAtual;
+        long alvo = prazo[handle];
+        if (emCascata && delta <= 0) {
+            alvo = tickAtual;
+            delta = 0;
+        } else if (delta <= 0) {
+            alvo = tickAtual + 1;
+            delta = 1;
+        } else if (delta >= ALCANCE) {
+            // Beyond the top level: park at its far end and cascade again later
+            alvo = tickAtual + ALCANCE - 1;
+            delta = ALCANCE - 1;
+        }
+        int nivel = 0;
+        while (delta >= (1L << (BITS * (nivel + 1)))) {
+            nivel++;
+        }
+        int indice = nivel * SLOTS + (int) ((alvo >>> (BITS * nivel)) & MASCARA);
+
+        int primeiro = cabeca[indice];
+        proximo[handle] = primeiro;
+        anterior[handle] = NENHUM;
+        if (primeiro != NENHUM) {
+            anterior[primeiro] = handle;
+        }
+        cabeca[indice] = handle;
+        balde[handle] = indice;
+    }
+
+    private void desligar(int handle) {
+        int indice = balde[handle];
+        int p = anterior[handle];
+        int s = proximo[handle];
+        if (p == NENHUM) {
+            cabeca[indice] = s;
+        } else {
+            proximo[p] = s;
+        }
+        if (s != NENHUM) {
+            anterior[s] = p;
+        }
+        balde[handle] = NENHUM;
+    }
+
+    private int alocar() {
+        if (livre != NENHUM) {
+            int handle = livre;
+            livre = proximo[handle];
+            return handle;
+        }
+        if (usados == prazo.length) {
+            int capacidade = usados * 2;
+            prazo = Arrays.copyOf(prazo, capacidade);
+            ref = Arrays.copyOf(ref, capacidade);
+            proximo = Arrays.copyOf(proximo, capacidade);
+            anterior = Arrays.copyOf(anterior, capacidade);
+            balde = Arrays.copyOf(balde, capacidade);
+        }
+        return usados++;
+    }
+}
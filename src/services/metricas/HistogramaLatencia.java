@@ -0,0 +1,152 @@
+package br.com.austa.experiencia.service.metricas;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free high-dynamic-range latency histogram (nanoseconds).
+ *
+ * Log-linear buckets: every power of two is split into 16 linear sub-buckets,
+ * so any value from 1 ns to hours is recorded with at most 6.25% error at a
+ * fixed 7.5 KB per window. Count and sum are cumulative (for rate and mean);
+ * percentiles and maximum cover the current and previous window only, so
+ * they follow the recent distribution instead of averaging the whole uptime.
+ *
+ * Shared by every component that reports latency (dispatch, authorization,
+ * queued jobs, task instrumentation) so their percentiles are comparable.
+ */
+public final class HistogramaLatencia {
+
+    private static final int BITS_SUB = 4;
+    private static final int SUB = 1 << BITS_SUB;
+    private static final int BALDES = (64 - BITS_SUB) * SUB;
+
+    private final long janelaNanos;
+    private final LongSupplier relogio;
+    private final LongAdder contagem = new LongAdder();
+    private final LongAdder soma = new LongAdder();
+
+    private volatile Janela atual = new Janela();
+    private volatile Janela anterior = new Janela();
+    private volatile long inicioJanela;
+
+    public HistogramaLatencia() {
+        this(TimeUnit.MINUTES.toNanos(1));
+    }
+
+    /**
+     * @param janelaNanos length of one window; percentiles cover one to two windows
+     */
+    public HistogramaLatencia(long janelaNanos) {
+        this(janelaNanos, System::nanoTime);
+    }
+
+    /**
+     * @param relogio monotonic time source in nanoseconds (tests)
+     */
+    public HistogramaLatencia(long janelaNanos, LongSupplier relogio) {
+        this.janelaNanos = janelaNanos;
+        this.relogio = relogio;
+        this.inicioJanela = relogio.getAsLong();
+    }
+
+    public void registrar(long nanos) {
+        long valor = Math.max(0, nanos);
+        girarSeVencida();
+        atual.registrar(valor);
+        contagem.increment();
+        soma.add(valor);
+    }
+
+    public long getContagem() {
+        return contagem.sum();
+    }
+
+    public long getSomaNanos() {
+        return soma.sum();
+    }
+
+    public double getMediaMillis() {
+        long n = contagem.sum();
+        return n == 0 ? 0 : soma.sum() / (double) n / 1_000_000d;
+    }
+
+    public double getMaximoMillis() {
+        girarSeVencida();
+        return Math.max(atual.maximo.get(), anterior.maximo.get()) / 1_000_000d;
+    }
+
+    /**
+     * @param quantil e.g. 0.99; reported as the upper bound of its bucket,
+     *                never above the window maximum
+     */
+    public double percentilMillis(double quantil) {
+        girarSeVencida();
+        Janela a = atual;
+        Janela b = anterior;
+        long n = 0;
+        for (int i = 0; i < BALDES; i++) {
+            n += a.baldes.get(i) + b.baldes.get(i);
+        }
+        if (n == 0) {
+            return 0;
+        }
+        long maximo = Math.max(a.maximo.get(), b.maximo.get());
+        long alvo = (long) Math.ceil(quantil * n);
+        long acumulado = 0;
+        for (int i = 0; i < BALDES; i++) {
+            acumulado += a.baldes.get(i) + b.baldes.get(i);
+            if (acumulado >= alvo) {
+                return Math.min(limiteSuperior(i), maximo) / 1_000_000d;
+            }
+        }
+        return maximo / 1_000_000d;
+    }
+
+    private void girarSeVencida() {
+        long agora = relogio.getAsLong();
+        if (agora - inicioJanela < janelaNanos) {
+            return;
+        }
+        synchronized (this) {
+            if (agora - inicioJanela < janelaNanos) {
+                return;
+            }
+            // Two windows idle: the previous one is stale as well
+            anterior = agora - inicioJanela < 2 * janelaNanos ? atual : new Janela();
+            atual = new Janela();
+            inicioJanela = agora;
+        }
+    }
+
+    static int indice(long valor) {
+        if (valor < SUB) {
+            return (int) valor;
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(valor);
+        int deslocamento = expoente - BITS_SUB;
+        return (deslocamento + 1) * SUB + (int) ((valor >>> deslocamento) - SUB);
+    }
+
+    static long limiteSuperior(int indice) {
+        if (indice < SUB) {
+            return indice;
+        }
+        int deslocamento = indice / SUB - 1;
+        long inferior = (long) (SUB + indice % SUB) << deslocamento;
+        return inferior + (1L << deslocamento) - 1;
+    }
+
+    private static final class Janela {
+        final AtomicLongArray baldes = new AtomicLongArray(BALDES);
+        final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+
+        void registrar(long valor) {
+            baldes.incrementAndGet(indice(valor));
+            maximo.accumulate(valor);
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package br.com.austa.experiencia.service.prestadores;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Agregador Notificacoes Prestador - authorization decisions sent to providers as digests
+ *
+ * Decisions are buffered per (provider, channel) and sent together:
+ * - as soon as a buffer reaches {@code prestadores.digest.max-itens}
+ * - when its oldest decision has waited {@code prestadores.digest.janela-ms}
+ *   (checked every {@code prestadores.digest.verificacao-ms})
+ * - immediately for urgent decisions (denials), taking along whatever was
+ *   already waiting for the same provider and channel
+ * Contact data comes from {@link CacheContatosPrestador}, so the provider
+ * registry is queried once per TTL rather than once per decision.
+ *
+ * Every decision keeps its own protocol; {@link #entregaDaDecisao} resolves it
+ * to the digest that carried it. A digest that fails to send is put back in
+ * its buffer and retried on the next check; pending buffers are flushed on
+ * shutdown.
+ *
+ * A queued decision is written to {@link ChangelogNotificacoesPrestador}
+ * before {@link #registrar} returns and stays there until a digest carrying
+ * it is delivered, so decisions still waiting after a crash or a failed flush
+ * at shutdown are back in their buffers on the next start. A crash between a
+ * delivery and its record re-sends that digest once (at least once).
+ *
+ * Buffers are per instance, so decisions reach it through
+ * {@link RoteadorNotificacoesPrestador}: keyed by provider, each provider has
+ * a single owning instance and one digest at a time. When a provider moves
+ * to another instance its buffers here are flushed ({@link #descarregar}).
+ */
+@Component("agregadorNotificacoesPrestador")
+public class AgregadorNotificacoesPrestador {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgregadorNotificacoesPrestador.class);
+
+    private static final Duration RETENCAO_ENTREGAS = Duration.ofHours(48);
+
+    private final CacheContatosPrestador contatos;
+    private final EnvioNotificacaoPrestador envio;
+    private final int maxItens;
+    private final Duration janela;
+    private final long verificacaoMs;
+    private final int compactarApos;
+    private final Clock clock;
+    private final ChangelogNotificacoesPrestador changelog;
+
+    private final Map<Chave, Lote> lotes = new HashMap<>();
+    private final Map<String, Pendente> pendentes = new LinkedHashMap<>();
+    private final Map<String, EntregaDigest> entregas = new ConcurrentHashMap<>();
+    private final Map<String, String> digestPorDecisao = new ConcurrentHashMap<>();
+
+    private final LongAdder decisoesRecebidas = new LongAdder();
+    private final LongAdder decisoesEnviadas = new LongAdder();
+    private final LongAdder digestsEnviados = new LongAdder();
+    private final LongAdder enviosImediatos = new LongAdder();
+    private final LongAdder falhasEnvio = new LongAdder();
+
+    private ScheduledExecutorService agendador;
+
+    @Autowired
+    public AgregadorNotificacoesPrestador(CacheContatosPrestador contatos,
+                                          EnvioNotificacaoPrestador envio,
+                                          @Value("${prestadores.digest.max-itens:50}") int maxItens,
+                                          @Value("${prestadores.digest.janela-ms:300000}") long janelaMs,
+                                          @Value("${prestadores.digest.verificacao-ms:10000}") long verificacaoMs,
+                                          @Value("${prestadores.digest.path:./data/prestadores-digest}") String diretorio,
+                                          @Value("${prestadores.digest.compactar-apos:10000}") int compactarApos,
+                                          @Value("${prestadores.digest.fsync:false}") boolean fsync)
+            throws IOException {
+        this(contatos, envio, maxItens, Duration.ofMillis(janelaMs), verificacaoMs,
+            new ChangelogNotificacoesPrestador(Paths.get(diretorio), fsync), compactarApos, Clock.systemUTC());
+    }
+
+    /**
+     * Standalone constructor (tests, tools): no periodic check until {@link #iniciar()}.
+     */
+    public AgregadorNotificacoesPrestador(CacheContatosPrestador contatos, EnvioNotificacaoPrestador envio,
+                                          int maxItens, Duration janela, long verificacaoMs, Path diretorio,
+                                          int compactarApos, Clock clock) throws IOException {
+        this(contatos, envio, maxItens, janela, verificacaoMs, new ChangelogNotificacoesPrestador(diretorio, false),
+            compactarApos, clock);
+    }
+
+    private AgregadorNotificacoesPrestador(CacheContatosPrestador contatos, EnvioNotificacaoPrestador envio,
+                                           int maxItens, Duration janela, long verificacaoMs,
+                                           ChangelogNotificacoesPrestador changelog, int compactarApos,
+                                           Clock clock) throws IOException {
+        if (maxItens < 1) {
+            throw new IllegalArgumentException("prestadores.digest.max-itens must be at least 1");
+        }
+        this.contatos = contatos;
+        this.envio = envio;
+        this.maxItens = maxItens;
+        this.janela = janela;
+        this.verificacaoMs = verificacaoMs;
+        this.changelog = changelog;
+        this.compactarApos = compactarApos;
+        this.clock = clock;
+        recuperar();
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "prestadores-digest");
+            t.setDaemon(true);
+            return t;
+        });
+        agendador.scheduleWithFixedDelay(this::descarregarVencidos, verificacaoMs, verificacaoMs, TimeUnit.MILLISECONDS);
+        agendador.scheduleWithFixedDelay(this::expirarEntregas, 1, 1, TimeUnit.HOURS);
+        logger.info("Provider notification digests: up to {} decisions or {} s per provider and channel",
+            maxItens, janela.getSeconds());
+    }
+
+    @PreDestroy
+    public void parar() throws InterruptedException, IOException {
+        if (agendador != null) {
+            agendador.shutdown();
+            agendador.awaitTermination(10, TimeUnit.SECONDS);
+            agendador = null;
+        }
+        descarregarTodos();
+        synchronized (lotes) {
+            changelog.fechar();
+        }
+    }
+
+    /**
+     * Queues the decision for its provider's next digest, or sends it now if
+     * it is urgent. A decision already queued or delivered here (the topic
+     * redelivers after a rebalance) is not taken twice.
+     *
+     * @return channel the provider is notified through
+     * @throws RuntimeException if an urgent decision could not be sent
+     * @throws UncheckedIOException if the decision could not be queued durably
+     */
+    public CanalNotificacao registrar(NotificacaoDecisao decisao) {
+        decisoesRecebidas.increment();
+        String prestadorId = decisao.getPrestadorId();
+        ContatoPrestador contato = contatos.buscar(prestadorId);
+        CanalNotificacao canal = contato.canal();
+        Chave chave = new Chave(prestadorId, canal);
+        if (digestPorDecisao.containsKey(decisao.getProtocolo())) {
+            return canal;
+        }
+
+        if (decisao.isUrgente()) {
+            enviosImediatos.increment();
+            Lote lote;
+            synchronized (lotes) {
+                lote = lotes.remove(chave);
+            }
+            List<NotificacaoDecisao> itens = new ArrayList<>();
+            itens.add(decisao);
+            if (lote != null) {
+                itens.addAll(lote.decisoes);
+            }
+            try {
+                enviar(chave, contato, itens);
+            } catch (RuntimeException e) {
+                if (lote != null) {
+                    devolver(chave, lote);
+                }
+                throw e;
+            }
+            return canal;
+        }
+
+        Lote cheio = null;
+        synchronized (lotes) {
+            if (pendentes.containsKey(decisao.getProtocolo())) {
+                return canal;
+            }
+            Instant agora = clock.instant();
+            try {
+                changelog.registrarPendente(decisao, canal, agora);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not queue decision " + decisao.getProtocolo(), e);
+            }
+            pendentes.put(decisao.getProtocolo(), new Pendente(decisao, canal, agora));
+            Lote lote = lotes.computeIfAbsent(chave, k -> new Lote(agora));
+            lote.decisoes.add(decisao);
+            if (lote.decisoes.size() >= maxItens) {
+                cheio = lotes.remove(chave);
+            }
+        }
+        if (cheio != null) {
+            Lote lote = cheio;
+            ScheduledExecutorService executor = agendador;
+            if (executor != null) {
+                executor.execute(() -> enviarLote(chave, lote));
+            } else {
+                enviarLote(chave, lote);
+            }
+        }
+        return canal;
+    }
+
+    /**
+     * Sends every buffer whose oldest decision has waited the whole window.
+     */
+    public void descarregarVencidos() {
+        Instant limite = clock.instant().minus(janela);
+        Map<Chave, Lote> vencidos = new HashMap<>();
+        synchronized (lotes) {
+            Iterator<Map.Entry<Chave, Lote>> it = lotes.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Chave, Lote> entrada = it.next();
+                if (!entrada.getValue().abertoEm.isAfter(limite)) {
+                    vencidos.put(entrada.getKey(), entrada.getValue());
+                    it.remove();
+                }
+            }
+        }
+        vencidos.forEach(this::enviarLote);
+    }
+
+    /**
+     * Sends now every buffer of the providers that match, whatever its age.
+     */
+    public void descarregar(Predicate<String> prestadores) {
+        Map<Chave, Lote> selecionados = new HashMap<>();
+        synchronized (lotes) {
+            Iterator<Map.Entry<Chave, Lote>> it = lotes.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Chave, Lote> entrada = it.next();
+                if (prestadores.test(entrada.getKey().prestadorId)) {
+                    selecionados.put(entrada.getKey(), entrada.getValue());
+                    it.remove();
+                }
+            }
+        }
+        selecionados.forEach(this::enviarLote);
+    }
+
+    public void descarregarTodos() {
+        Map<Chave, Lote> todos;
+        synchronized (lotes) {
+            todos = new HashMap<>(lotes);
+            lotes.clear();
+        }
+        todos.forEach(this::enviarLote);
+    }
+
+    /**
+     * Digest that carried the decision with this protocol, once it was sent.
+     */
+    public Optional<EntregaDigest> entregaDaDecisao(String protocoloDecisao) {
+        String protocoloDigest = digestPorDecisao.get(protocoloDecisao);
+        return protocoloDigest == null ? Optional.empty() : entrega(protocoloDigest);
+    }
+
+    public Optional<EntregaDigest> entrega(String protocoloDigest) {
+        return Optional.ofNullable(entregas.get(protocoloDigest));
+    }
+
+    /**
+     * Records the provider's acknowledgment of a digest.
+     *
+     * @return false if the digest is unknown or already expired
+     */
+    public boolean confirmarEntrega(String protocoloDigest) {
+        EntregaDigest entrega = entregas.get(protocoloDigest);
+        if (entrega == null) {
+            return false;
+        }
+        entrega.confirmar(clock.instant());
+        return true;
+    }
+
+    public int getPendentes() {
+        synchronized (lotes) {
+            return lotes.values().stream().mapToInt(l -> l.decisoes.size()).sum();
+        }
+    }
+
+    public long getDecisoesRecebidas() {
+        return decisoesRecebidas.sum();
+    }
+
+    public long getDecisoesEnviadas() {
+        return decisoesEnviadas.sum();
+    }
+
+    public long getDigestsEnviados() {
+        return digestsEnviados.sum();
+    }
+
+    public long getEnviosImediatos() {
+        return enviosImediatos.sum();
+    }
+
+    public long getFalhasEnvio() {
+        return falhasEnvio.sum();
+    }
+
+    void expirarEntregas() {
+        Instant limite = clock.instant().minus(RETENCAO_ENTREGAS);
+        Iterator<EntregaDigest> it = entregas.values().iterator();
+        while (it.hasNext()) {
+            EntregaDigest entrega = it.next();
+            if (entrega.getEnviadoEm().isBefore(limite)) {
+                entrega.getProtocolosDecisoes().forEach(digestPorDecisao::remove);
+                it.remove();
+            }
+        }
+    }
+
+    private void enviarLote(Chave chave, Lote lote) {
+        try {
+            enviar(chave, contatos.buscar(chave.prestadorId), lote.decisoes);
+        } catch (RuntimeException e) {
+            logger.warn("Digest of {} decision(s) to provider {} via {} failed, retrying on next check: {}",
+                lote.decisoes.size(), chave.prestadorId, chave.canal, e.getMessage());
+            devolver(chave, lote);
+        }
+    }
+
+    private void enviar(Chave chave, ContatoPrestador contato, List<NotificacaoDecisao> itens) {
+        String protocolo;
+        try {
+            protocolo = envio.enviar(chave.prestadorId, chave.canal, contato, itens);
+        } catch (RuntimeException e) {
+            falhasEnvio.increment();
+            throw e;
+        }
+        List<String> protocolos = new ArrayList<>(itens.size());
+        itens.forEach(item -> protocolos.add(item.getProtocolo()));
+        entregas.put(protocolo, new EntregaDigest(protocolo, chave.prestadorId, chave.canal, protocolos,
+            clock.instant()));
+        protocolos.forEach(p -> digestPorDecisao.put(p, protocolo));
+        registrarEnviadas(protocolos);
+        digestsEnviados.increment();
+        decisoesEnviadas.add(itens.size());
+        logger.debug("Digest {} sent to provider {} via {} with {} decision(s)",
+            protocolo, chave.prestadorId, chave.canal, itens.size());
+    }
+
+    /**
+     * Drops the delivered decisions from the changelog. A failure here only
+     * means the digest is sent again after a restart, so it is logged, not thrown.
+     */
+    private void registrarEnviadas(List<String> protocolos) {
+        synchronized (lotes) {
+            if (protocolos.stream().noneMatch(pendentes::containsKey)) {
+                return;
+            }
+            protocolos.forEach(pendentes::remove);
+            try {
+                changelog.registrarEnviadas(protocolos);
+                if (changelog.getRegistrosDesdeSnapshot() >= compactarApos) {
+                    changelog.compactar(visitante -> pendentes.values().forEach(p ->
+                        visitante.aceitar(p.decisao, p.canal, p.registradaEm)));
+                    logger.info("Provider notification changelog compacted: {} decisions waiting",
+                        pendentes.size());
+                }
+            } catch (IOException e) {
+                logger.error("Could not record delivery of decisions {}: {}", protocolos, e.getMessage(), e);
+            }
+        }
+    }
+
+    private void recuperar() throws IOException {
+        changelog.recuperar((decisao, canal, registradaEm) ->
+            pendentes.put(decisao.getProtocolo(), new Pendente(decisao, canal, registradaEm)), pendentes::remove);
+        for (Pendente pendente : pendentes.values()) {
+            lotes.computeIfAbsent(new Chave(pendente.decisao.getPrestadorId(), pendente.canal),
+                k -> new Lote(pendente.registradaEm)).decisoes.add(pendente.decisao);
+        }
+        if (!pendentes.isEmpty()) {
+            logger.info("Recovered {} provider decision(s) waiting in {} digest(s)", pendentes.size(), lotes.size());
+        }
+    }
+
+    /**
+     * Puts a failed batch back ahead of anything queued since, keeping its
+     * original age so the next check retries it.
+     */
+    private void devolver(Chave chave, Lote falhou) {
+        synchronized (lotes) {
+            Lote atual = lotes.get(chave);
+            if (atual != null) {
+                falhou.decisoes.addAll(atual.decisoes);
+            }
+            lotes.put(chave, falhou);
+        }
+    }
+
+    private static final class Chave {
+        final String prestadorId;
+        final CanalNotificacao canal;
+
+        Chave(String prestadorId, CanalNotificacao canal) {
+            this.prestadorId = prestadorId;
+            this.canal = canal;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Chave)) {
+                return false;
+            }
+            Chave outra = (Chave) o;
+            return prestadorId.equals(outra.prestadorId) && canal == outra.canal;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(prestadorId, canal);
+        }
+    }
+
+    private static final class Pendente {
+        final NotificacaoDecisao decisao;
+        final CanalNotificacao canal;
+        final Instant registradaEm;
+
+        Pendente(NotificacaoDecisao decisao, CanalNotificacao canal, Instant registradaEm) {
+            this.decisao = decisao;
+            this.canal = canal;
+            this.registradaEm = registradaEm;
+        }
+    }
+
+    private static final class Lote {
+        final Instant abertoEm;
+        final List<NotificacaoDecisao> decisoes = new ArrayList<>();
+
+        Lote(Instant abertoEm) {
+            this.abertoEm = abertoEm;
+        }
+    }
+}
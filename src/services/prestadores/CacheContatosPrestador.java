@@ -0,0 +1,93 @@
+package br.com.austa.experiencia.service.prestadores;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache Contatos Prestador - provider contact data kept for
+ * {@code prestadores.contato.ttl-ms}
+ *
+ * - One lookup per provider per TTL instead of one per decision
+ * - When the lookup fails, the expired entry keeps being served; a provider
+ *   never seen before falls back to its portal inbox, which every contracted
+ *   provider has
+ */
+@Component("cacheContatosPrestador")
+public class CacheContatosPrestador {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheContatosPrestador.class);
+
+    static final ContatoPrestador CONTATO_PADRAO = new ContatoPrestador(null, null, null, CanalNotificacao.PORTAL);
+
+    private final FonteContatosPrestador fonte;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder consultasFonte = new LongAdder();
+
+    @Autowired
+    public CacheContatosPrestador(FonteContatosPrestador fonte,
+                                  @Value("${prestadores.contato.ttl-ms:3600000}") long ttlMs) {
+        this(fonte, Duration.ofMillis(ttlMs), Clock.systemUTC());
+    }
+
+    public CacheContatosPrestador(FonteContatosPrestador fonte, Duration ttl, Clock clock) {
+        this.fonte = fonte;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    public ContatoPrestador buscar(String prestadorId) {
+        Instant agora = clock.instant();
+        Entrada entrada = entradas.get(prestadorId);
+        if (entrada != null && agora.isBefore(entrada.expiraEm)) {
+            acertos.increment();
+            return entrada.contato;
+        }
+        consultasFonte.increment();
+        try {
+            ContatoPrestador contato = fonte.buscar(prestadorId);
+            entradas.put(prestadorId, new Entrada(contato, agora.plus(ttl)));
+            return contato;
+        } catch (RuntimeException e) {
+            ContatoPrestador contato = entrada != null ? entrada.contato : CONTATO_PADRAO;
+            logger.warn("Contact lookup for provider {} failed, using {} contact: {}",
+                prestadorId, entrada != null ? "cached" : "portal", e.getMessage());
+            return contato;
+        }
+    }
+
+    public void invalidar(String prestadorId) {
+        entradas.remove(prestadorId);
+    }
+
+    public long getAcertos() {
+        return acertos.sum();
+    }
+
+    public long getConsultasFonte() {
+        return consultasFonte.sum();
+    }
+
+    private static final class Entrada {
+        final ContatoPrestador contato;
+        final Instant expiraEm;
+
+        Entrada(ContatoPrestador contato, Instant expiraEm) {
+            this.contato = contato;
+            this.expiraEm = expiraEm;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package br.com.austa.experiencia.service.prestadores;
+
+/**
+ * Channels a provider can be notified through.
+ */
+public enum CanalNotificacao {
+    PORTAL,
+    EMAIL,
+    SMS
+}
@@ -0,0 +1,242 @@
+package br.com.austa.experiencia.service.prestadores;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Changelog of the provider decisions waiting for a digest: snapshot plus
+ * append-only log.
+ *
+ * Both files hold the same framed records, [len(4) crc32(4) payload]:
+ * - PENDENTE: one decision accepted for a digest, with its channel and the
+ *   time it was queued
+ * - ENVIADA: protocols of the decisions a delivered digest carried
+ *
+ * Recovery replays snapshot then log; a torn record at the end of the log is
+ * detected by its CRC and truncated. The opaque identifiers of a decision
+ * (solicitação, beneficiário, procedimento) come back as text.
+ */
+final class ChangelogNotificacoesPrestador {
+
+    private static final byte PENDENTE = 1;
+    private static final byte ENVIADA = 2;
+
+    /**
+     * Receives a decision that was still waiting when the log was written.
+     */
+    interface Pendente {
+        void aceitar(NotificacaoDecisao decisao, CanalNotificacao canal, Instant registradaEm);
+    }
+
+    private final Path snapshot;
+    private final Path log;
+    private final boolean fsync;
+    private FileChannel canal;
+    private int registrosDesdeSnapshot;
+
+    ChangelogNotificacoesPrestador(Path diretorio, boolean fsync) throws IOException {
+        Files.createDirectories(diretorio);
+        this.snapshot = diretorio.resolve("snapshot.dat");
+        this.log = diretorio.resolve("notificacoes-prestador.log");
+        this.fsync = fsync;
+    }
+
+    /**
+     * Replays snapshot and log, then opens the log for appending.
+     */
+    void recuperar(Pendente pendente, Consumer<String> enviada) throws IOException {
+        if (Files.exists(snapshot)) {
+            ler(snapshot, pendente, enviada);
+        }
+        long valido = Files.exists(log) ? ler(log, pendente, enviada) : 0;
+        canal = FileChannel.open(log, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        canal.truncate(valido);
+        canal.position(valido);
+    }
+
+    void registrarPendente(NotificacaoDecisao decisao, CanalNotificacao canalDecisao, Instant registradaEm)
+            throws IOException {
+        anexar(pendente(decisao, canalDecisao, registradaEm));
+    }
+
+    void registrarEnviadas(List<String> protocolos) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + protocolos.size() * 24);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(ENVIADA);
+        out.writeInt(protocolos.size());
+        for (String protocolo : protocolos) {
+            out.writeUTF(protocolo);
+        }
+        anexar(bytes.toByteArray());
+    }
+
+    int getRegistrosDesdeSnapshot() {
+        return registrosDesdeSnapshot;
+    }
+
+    /**
+     * Writes every decision still waiting to a new snapshot and starts an empty log.
+     *
+     * @param pendentes visits every decision still waiting
+     */
+    void compactar(Consumer<Pendente> pendentes) throws IOException {
+        Path temporario = snapshot.resolveSibling("snapshot.tmp");
+        try (FileChannel destino = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            try {
+                pendentes.accept((decisao, canalDecisao, registradaEm) -> {
+                    try {
+                        escrever(destino, pendente(decisao, canalDecisao, registradaEm));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            destino.force(true);
+        }
+        Files.move(temporario, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        canal.truncate(0);
+        canal.position(0);
+        registrosDesdeSnapshot = 0;
+    }
+
+    void fechar() throws IOException {
+        if (canal != null) {
+            canal.force(true);
+            canal.close();
+        }
+    }
+
+    private void anexar(byte[] payload) throws IOException {
+        escrever(canal, payload);
+        if (fsync) {
+            canal.force(false);
+        }
+        registrosDesdeSnapshot++;
+    }
+
+    private static void escrever(FileChannel destino, byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer buffer = ByteBuffer.allocate(8 + payload.length);
+        buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        while (buffer.hasRemaining()) {
+            destino.write(buffer);
+        }
+    }
+
+    private static byte[] pendente(NotificacaoDecisao decisao, CanalNotificacao canal, Instant registradaEm)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(PENDENTE);
+        out.writeUTF(decisao.getProtocolo());
+        out.writeUTF(decisao.getPrestadorId());
+        out.writeByte(canal.ordinal());
+        out.writeLong(registradaEm.toEpochMilli());
+        escreverTexto(out, decisao.getDecisao());
+        escreverTexto(out, decisao.getCodigoAutorizacao());
+        escreverTexto(out, decisao.getJustificativa());
+        escreverTexto(out, texto(decisao.getSolicitacaoId()));
+        escreverTexto(out, texto(decisao.getBeneficiarioId()));
+        escreverTexto(out, texto(decisao.getProcedimento()));
+        escreverTexto(out, texto(decisao.getDataDecisao()));
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return offset just past the last intact record
+     */
+    private static long ler(Path arquivo, Pendente pendente, Consumer<String> enviada) throws IOException {
+        long valido = 0;
+        try (InputStream stream = Channels.newInputStream(FileChannel.open(arquivo, StandardOpenOption.READ));
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16))) {
+            while (true) {
+                int tamanho;
+                try {
+                    tamanho = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                int crcEsperado = in.readInt();
+                if (tamanho <= 0 || tamanho > (1 << 20)) {
+                    break;
+                }
+                byte[] payload = new byte[tamanho];
+                in.readFully(payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != crcEsperado) {
+                    break;
+                }
+                aplicar(payload, pendente, enviada);
+                valido += 8 + tamanho;
+            }
+        } catch (EOFException e) {
+            // torn record at the tail
+        }
+        return valido;
+    }
+
+    private static void aplicar(byte[] payload, Pendente pendente, Consumer<String> enviada) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte tipo = in.readByte();
+        if (tipo == ENVIADA) {
+            int quantidade = in.readInt();
+            for (int i = 0; i < quantidade; i++) {
+                enviada.accept(in.readUTF());
+            }
+            return;
+        }
+        String protocolo = in.readUTF();
+        String prestadorId = in.readUTF();
+        CanalNotificacao canal = CanalNotificacao.values()[in.readByte()];
+        Instant registradaEm = Instant.ofEpochMilli(in.readLong());
+        String decisao = lerTexto(in);
+        String codigoAutorizacao = lerTexto(in);
+        String justificativa = lerTexto(in);
+        String solicitacaoId = lerTexto(in);
+        String beneficiarioId = lerTexto(in);
+        String procedimento = lerTexto(in);
+        String dataDecisao = lerTexto(in);
+        pendente.aceitar(new NotificacaoDecisao(protocolo, prestadorId, decisao, codigoAutorizacao, justificativa,
+            solicitacaoId, beneficiarioId, procedimento,
+            dataDecisao != null ? LocalDateTime.parse(dataDecisao) : null), canal, registradaEm);
+    }
+
+    private static String texto(Object valor) {
+        return valor != null ? valor.toString() : null;
+    }
+
+    private static void escreverTexto(DataOutputStream out, String valor) throws IOException {
+        out.writeBoolean(valor != null);
+        if (valor != null) {
+            out.writeUTF(valor);
+        }
+    }
+
+    private static String lerTexto(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
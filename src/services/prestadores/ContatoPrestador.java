@@ -0,0 +1,49 @@
+package br.com.austa.experiencia.service.prestadores;
+
+/**
+ * Contact data of a provider and the channel its notifications go to.
+ */
+public final class ContatoPrestador {
+
+    private final String email;
+    private final String telefone;
+    private final String portal;
+    private final CanalNotificacao canalPreferido;
+
+    public ContatoPrestador(String email, String telefone, String portal, CanalNotificacao canalPreferido) {
+        this.email = email;
+        this.telefone = telefone;
+        this.portal = portal;
+        this.canalPreferido = canalPreferido;
+    }
+
+    /**
+     * Preferred portal, otherwise e-mail, otherwise SMS; the portal is the fallback.
+     */
+    public CanalNotificacao canal() {
+        if (canalPreferido == CanalNotificacao.PORTAL) {
+            return CanalNotificacao.PORTAL;
+        } else if (email != null) {
+            return CanalNotificacao.EMAIL;
+        } else if (telefone != null) {
+            return CanalNotificacao.SMS;
+        }
+        return CanalNotificacao.PORTAL;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getTelefone() {
+        return telefone;
+    }
+
+    public String getPortal() {
+        return portal;
+    }
+
+    public CanalNotificacao getCanalPreferido() {
+        return canalPreferido;
+    }
+}
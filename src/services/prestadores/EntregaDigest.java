@@ -0,0 +1,61 @@
+package br.com.austa.experiencia.service.prestadores;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Delivery record of one digest: which decisions it carried and when it was
+ * sent and acknowledged by the provider.
+ */
+public final class EntregaDigest {
+
+    private final String protocolo;
+    private final String prestadorId;
+    private final CanalNotificacao canal;
+    private final List<String> protocolosDecisoes;
+    private final Instant enviadoEm;
+    private volatile Instant confirmadoEm;
+
+    EntregaDigest(String protocolo, String prestadorId, CanalNotificacao canal,
+                  List<String> protocolosDecisoes, Instant enviadoEm) {
+        this.protocolo = protocolo;
+        this.prestadorId = prestadorId;
+        this.canal = canal;
+        this.protocolosDecisoes = List.copyOf(protocolosDecisoes);
+        this.enviadoEm = enviadoEm;
+    }
+
+    void confirmar(Instant quando) {
+        if (confirmadoEm == null) {
+            confirmadoEm = quando;
+        }
+    }
+
+    public String getProtocolo() {
+        return protocolo;
+    }
+
+    public String getPrestadorId() {
+        return prestadorId;
+    }
+
+    public CanalNotificacao getCanal() {
+        return canal;
+    }
+
+    public List<String> getProtocolosDecisoes() {
+        return protocolosDecisoes;
+    }
+
+    public Instant getEnviadoEm() {
+        return enviadoEm;
+    }
+
+    public Instant getConfirmadoEm() {
+        return confirmadoEm;
+    }
+
+    public boolean isConfirmado() {
+        return confirmadoEm != null;
+    }
+}
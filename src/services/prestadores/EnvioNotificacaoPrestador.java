@@ -0,0 +1,16 @@
+package br.com.austa.experiencia.service.prestadores;
+
+import java.util.List;
+
+/**
+ * Sends one digest with one or more decisions to a provider.
+ */
+public interface EnvioNotificacaoPrestador {
+
+    /**
+     * @return protocol of the delivered digest
+     * @throws RuntimeException if the digest was not delivered; its decisions are retried
+     */
+    String enviar(String prestadorId, CanalNotificacao canal, ContatoPrestador contato,
+                  List<NotificacaoDecisao> decisoes);
+}
@@ -0,0 +1,35 @@
+package br.com.austa.experiencia.service.prestadores;
+
+import br.com.austa.experiencia.service.ids.GeradorIds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Default provider notification sender: logs the digest and returns its
+ * protocol. Replace with the portal / e-mail / SMS gateway integration.
+ */
+@Component("envioNotificacaoPrestador")
+public class EnvioNotificacaoPrestadorSimulado implements EnvioNotificacaoPrestador {
+
+    private static final Logger logger = LoggerFactory.getLogger(EnvioNotificacaoPrestadorSimulado.class);
+
+    private final GeradorIds geradorIds;
+
+    @Autowired
+    public EnvioNotificacaoPrestadorSimulado(GeradorIds geradorIds) {
+        this.geradorIds = geradorIds;
+    }
+
+    @Override
+    public String enviar(String prestadorId, CanalNotificacao canal, ContatoPrestador contato,
+                         List<NotificacaoDecisao> decisoes) {
+        String protocolo = "DIG-" + geradorIds.proximoIdTexto();
+        logger.debug("Sent digest {} via {} to provider {} with {} decision(s)",
+            protocolo, canal, prestadorId, decisoes.size());
+        return protocolo;
+    }
+}
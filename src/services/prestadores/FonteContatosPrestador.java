@@ -0,0 +1,9 @@
+package br.com.austa.experiencia.service.prestadores;
+
+/**
+ * Where provider contact data comes from (the Tasy provider registry in production).
+ */
+public interface FonteContatosPrestador {
+
+    ContatoPrestador buscar(String prestadorId);
+}
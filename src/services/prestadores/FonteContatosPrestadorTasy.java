@@ -0,0 +1,62 @@
+package br.com.austa.experiencia.service.prestadores;
+
+import br.com.austa.experiencia.exception.IntegrationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+
+/**
+ * Provider contact data from the Tasy provider registry.
+ *
+ * GET {tasy.api.base-url}/api/v1/prestadores/{id}/contato
+ */
+@Component("fonteContatosPrestador")
+public class FonteContatosPrestadorTasy implements FonteContatosPrestador {
+
+    private final RestTemplate restTemplate;
+    private final String baseUrl;
+
+    @Autowired
+    public FonteContatosPrestadorTasy(RestTemplate restTemplate,
+                                      @Value("${tasy.api.base-url}") String baseUrl) {
+        this.restTemplate = restTemplate;
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public ContatoPrestador buscar(String prestadorId) {
+        String url = String.format("%s/api/v1/prestadores/%s/contato", baseUrl, prestadorId);
+        Map<?, ?> response;
+        try {
+            response = restTemplate.getForObject(url, Map.class);
+        } catch (Exception e) {
+            throw new IntegrationException("Failed to fetch contact of provider " + prestadorId, e);
+        }
+        if (response == null) {
+            throw new IntegrationException("Provider " + prestadorId + " not found in Tasy");
+        }
+        return new ContatoPrestador(
+            texto(response.get("email")),
+            texto(response.get("telefone")),
+            texto(response.get("portal")),
+            canal(response.get("canalPreferido")));
+    }
+
+    private static String texto(Object valor) {
+        return valor == null ? null : valor.toString();
+    }
+
+    private static CanalNotificacao canal(Object valor) {
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return CanalNotificacao.valueOf(valor.toString().trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package br.com.austa.experiencia.service.prestadores;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One authorization decision to be told to a provider.
+ *
+ * The protocol is assigned when the decision is registered and stays the
+ * per-authorization reference, whichever digest ends up carrying it.
+ */
+public final class NotificacaoDecisao {
+
+    private final String protocolo;
+    private final String prestadorId;
+    private final String decisao;
+    private final String codigoAutorizacao;
+    private final String justificativa;
+    private final Object solicitacaoId;
+    private final Object beneficiarioId;
+    private final Object procedimento;
+    private final LocalDateTime dataDecisao;
+
+    public NotificacaoDecisao(String protocolo, String prestadorId, String decisao, String codigoAutorizacao,
+                              String justificativa, Object solicitacaoId, Object beneficiarioId,
+                              Object procedimento, LocalDateTime dataDecisao) {
+        this.protocolo = protocolo;
+        this.prestadorId = prestadorId;
+        this.decisao = decisao;
+        this.codigoAutorizacao = codigoAutorizacao;
+        this.justificativa = justificativa;
+        this.solicitacaoId = solicitacaoId;
+        this.beneficiarioId = beneficiarioId;
+        this.procedimento = procedimento;
+        this.dataDecisao = dataDecisao;
+    }
+
+    /**
+     * Denials open the appeal deadline, so they are never held back in a digest.
+     */
+    public boolean isUrgente() {
+        return "NEGADA".equals(decisao);
+    }
+
+    /**
+     * Digest entry: decision details and next steps for the provider.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> mapa = new LinkedHashMap<>();
+        mapa.put("protocolo", protocolo);
+        mapa.put("decisao", decisao);
+        mapa.put("justificativa", justificativa);
+        mapa.put("dataDecisao", dataDecisao);
+
+        if ("APROVADA".equals(decisao) && codigoAutorizacao != null) {
+            mapa.put("codigoAutorizacao", codigoAutorizacao);
+            mapa.put("validade", dataDecisao.plusDays(30));
+            mapa.put("instrucoes", "Proceder com o procedimento conforme solicitado");
+        } else if ("NEGADA".equals(decisao)) {
+            mapa.put("motivoNegacao", justificativa);
+            mapa.put("recursoPossivel", true);
+            mapa.put("prazoRecurso", "30 dias");
+        }
+
+        mapa.put("solicitacaoId", solicitacaoId);
+        mapa.put("beneficiarioId", beneficiarioId);
+        mapa.put("procedimento", procedimento);
+
+        if ("APROVADA".equals(decisao)) {
+            mapa.put("proximosPassos",
+                "1. Executar procedimento\n2. Registrar atendimento\n3. Enviar faturamento");
+        } else {
+            mapa.put("proximosPassos",
+                "1. Revisar justificativa\n2. Considerar recurso\n3. Contatar operadora se necessário");
+        }
+        return mapa;
+    }
+
+    public String getProtocolo() {
+        return protocolo;
+    }
+
+    public String getPrestadorId() {
+        return prestadorId;
+    }
+
+    public String getDecisao() {
+        return decisao;
+    }
+
+    public String getCodigoAutorizacao() {
+        return codigoAutorizacao;
+    }
+
+    public String getJustificativa() {
+        return justificativa;
+    }
+
+    public Object getSolicitacaoId() {
+        return solicitacaoId;
+    }
+
+    public Object getBeneficiarioId() {
+        return beneficiarioId;
+    }
+
+    public Object getProcedimento() {
+        return procedimento;
+    }
+
+    public LocalDateTime getDataDecisao() {
+        return dataDecisao;
+    }
+}
@@ -0,0 +1,143 @@
+package br.com.austa.experiencia.service.prestadores;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Utils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routes authorization decisions to the instance that holds their provider's
+ * digest buffers.
+ *
+ * {@link #publicar} sends the decision to {@code prestadores.topico-decisoes}
+ * keyed by prestadorId. The instances consume it under one shared group, so
+ * each partition, and with it each provider, has a single owner whose
+ * {@link AgregadorNotificacoesPrestador} buffers and sends its digests (one
+ * digest per window instead of one per instance), denials included:
+ * {"protocolo": "...", "prestadorId": "...", "decisao": "...",
+ *  "codigoAutorizacao": "...", "justificativa": "...", "solicitacaoId": "...",
+ *  "beneficiarioId": "...", "procedimento": "...", "dataDecisao": "..."}
+ *
+ * Offsets are committed once the decision is in the owner's changelog. When
+ * partitions move, the instance that had them flushes their buffers at once
+ * (and on assignment, any it recovered for providers it does not own), so a
+ * provider's decisions are never left waiting on an instance that no longer
+ * receives them.
+ */
+@Component("roteadorNotificacoesPrestador")
+public class RoteadorNotificacoesPrestador implements ConsumerSeekAware {
+
+    @Autowired
+    private AgregadorNotificacoesPrestador agregador;
+
+    @Autowired
+    private CacheContatosPrestador contatos;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${prestadores.topico-decisoes:prestadores-decisoes}")
+    private String topico;
+
+    @Value("${prestadores.espera-publicacao-ms:10000}")
+    private long esperaPublicacaoMs;
+
+    private final Set<Integer> particoesProprias = ConcurrentHashMap.newKeySet();
+    private volatile int particoes;
+
+    /**
+     * Publishes the decision and waits for the broker to accept it, so the
+     * calling step fails (and is retried) when it could not be routed.
+     *
+     * @return channel the provider is notified through
+     */
+    public CanalNotificacao publicar(NotificacaoDecisao decisao) throws Exception {
+        Map<String, Object> evento = new LinkedHashMap<>();
+        evento.put("protocolo", decisao.getProtocolo());
+        evento.put("prestadorId", decisao.getPrestadorId());
+        evento.put("decisao", decisao.getDecisao());
+        evento.put("codigoAutorizacao", decisao.getCodigoAutorizacao());
+        evento.put("justificativa", decisao.getJustificativa());
+        evento.put("solicitacaoId", texto(decisao.getSolicitacaoId()));
+        evento.put("beneficiarioId", texto(decisao.getBeneficiarioId()));
+        evento.put("procedimento", texto(decisao.getProcedimento()));
+        evento.put("dataDecisao", texto(decisao.getDataDecisao()));
+        String mensagem;
+        try {
+            mensagem = objectMapper.writeValueAsString(evento);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize provider decision " + decisao.getProtocolo(), e);
+        }
+        kafkaTemplate.send(new ProducerRecord<>(topico, decisao.getPrestadorId(), mensagem))
+            .get(esperaPublicacaoMs, TimeUnit.MILLISECONDS);
+        return contatos.buscar(decisao.getPrestadorId()).canal();
+    }
+
+    @KafkaListener(topics = "${prestadores.topico-decisoes:prestadores-decisoes}",
+                   groupId = "${prestadores.kafka.group-id:prestadores-digest}")
+    public void onDecisao(ConsumerRecord<String, String> registro) throws IOException {
+        if (registro.key() == null || registro.value() == null) {
+            return;
+        }
+        JsonNode evento = objectMapper.readTree(registro.value());
+        String dataDecisao = evento.path("dataDecisao").asText(null);
+        // an urgent decision that cannot be sent throws, and the error handler retries it
+        agregador.registrar(new NotificacaoDecisao(evento.path("protocolo").asText(), registro.key(),
+            evento.path("decisao").asText(null), evento.path("codigoAutorizacao").asText(null),
+            evento.path("justificativa").asText(null), evento.path("solicitacaoId").asText(null),
+            evento.path("beneficiarioId").asText(null), evento.path("procedimento").asText(null),
+            dataDecisao != null ? LocalDateTime.parse(dataDecisao) : null));
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        assignments.keySet().forEach(particao -> particoesProprias.add(particao.partition()));
+        descarregarAlheios();
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> revogadas) {
+        revogadas.forEach(particao -> particoesProprias.remove(particao.partition()));
+        descarregarAlheios();
+    }
+
+    private void descarregarAlheios() {
+        if (particoes == 0) {
+            particoes = kafkaTemplate.partitionsFor(topico).size();
+        }
+        agregador.descarregar(prestadorId -> !particoesProprias.contains(particaoDe(prestadorId)));
+    }
+
+    /**
+     * Partition the producer's default partitioner picks for the key.
+     */
+    private int particaoDe(String prestadorId) {
+        return Utils.toPositive(Utils.murmur2(prestadorId.getBytes(StandardCharsets.UTF_8))) % particoes;
+    }
+
+    private static String texto(Object valor) {
+        return valor != null ? valor.toString() : null;
+    }
+}
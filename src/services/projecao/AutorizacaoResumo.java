@@ -0,0 +1,107 @@
+package br.com.austa.experiencia.service.projecao;
+
+import br.com.austa.experiencia.model.dto.StatusAutorizacaoDTO;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One authorization as seen by self-service: the latest status and what the
+ * beneficiary is told about it. Immutable; every event produces a new copy.
+ */
+public final class AutorizacaoResumo {
+
+    private static final ZoneId FUSO = ZoneId.of("America/Sao_Paulo");
+
+    private final String numeroAutorizacao;
+    private final String numeroGuia;
+    private final String beneficiarioId;
+    private final String tipoProcedimento;
+    private final String status;
+    private final String observacoes;
+    private final Instant atualizadoEm;
+
+    public AutorizacaoResumo(String numeroAutorizacao, String numeroGuia, String beneficiarioId,
+                             String tipoProcedimento, String status, String observacoes, Instant atualizadoEm) {
+        this.numeroAutorizacao = numeroAutorizacao;
+        this.numeroGuia = numeroGuia;
+        this.beneficiarioId = beneficiarioId;
+        this.tipoProcedimento = tipoProcedimento;
+        this.status = status;
+        this.observacoes = observacoes;
+        this.atualizadoEm = atualizadoEm;
+    }
+
+    /**
+     * Applies a later event on top of this one. Update and cancel events only
+     * carry the new status, so the fields they leave null are kept.
+     */
+    AutorizacaoResumo mesclar(AutorizacaoResumo posterior) {
+        return new AutorizacaoResumo(numeroAutorizacao,
+            posterior.numeroGuia != null ? posterior.numeroGuia : numeroGuia,
+            posterior.beneficiarioId != null ? posterior.beneficiarioId : beneficiarioId,
+            posterior.tipoProcedimento != null ? posterior.tipoProcedimento : tipoProcedimento,
+            posterior.status != null ? posterior.status : status,
+            posterior.observacoes != null ? posterior.observacoes : observacoes,
+            posterior.atualizadoEm);
+    }
+
+    /**
+     * A denial can be appealed while the authorization has not been superseded.
+     */
+    public boolean isPodeRecorrer() {
+        return "NEGADA".equals(status);
+    }
+
+    public StatusAutorizacaoDTO toStatusDTO() {
+        return StatusAutorizacaoDTO.builder()
+            .status(status)
+            .dataAtualizacao(LocalDateTime.ofInstant(atualizadoEm, FUSO))
+            .observacoes(observacoes)
+            .podeRecorrer(isPodeRecorrer())
+            .build();
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> mapa = new LinkedHashMap<>();
+        mapa.put("numeroAutorizacao", numeroAutorizacao);
+        mapa.put("numeroGuia", numeroGuia);
+        mapa.put("tipoProcedimento", tipoProcedimento);
+        mapa.put("status", status);
+        mapa.put("observacoes", observacoes);
+        mapa.put("dataAtualizacao", atualizadoEm.toString());
+        mapa.put("podeRecorrer", isPodeRecorrer());
+        return mapa;
+    }
+
+    public String getNumeroAutorizacao() {
+        return numeroAutorizacao;
+    }
+
+    public String getNumeroGuia() {
+        return numeroGuia;
+    }
+
+    public String getBeneficiarioId() {
+        return beneficiarioId;
+    }
+
+    public String getTipoProcedimento() {
+        return tipoProcedimento;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getObservacoes() {
+        return observacoes;
+    }
+
+    public Instant getAtualizadoEm() {
+        return atualizadoEm;
+    }
+}
@@ -0,0 +1,110 @@
+package br.com.austa.experiencia.service.projecao;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Feeds the authorization status projection from the austa.autorizacao topic.
+ *
+ * Every instance keeps the whole view, so it consumes all partitions under
+ * its own group and positions itself on assignment: right after the offsets
+ * restored from the snapshot, or from the beginning of what the topic retains.
+ * {"eventoTipo": "AutorizacaoProcessada", "timestamp": "...", "beneficiarioId": "...",
+ *  "payload": {"operacao": "gerar|atualizar|cancelar", "numeroAutorizacao": "...", "numeroGuia": "...",
+ *   "decisaoAutorizacao": "APROVADO", "novoStatusAutorizacao": null, "tipoProcedimento": "...",
+ *   "motivoDecisao": "...", "motivoAtualizacao": null, "motivoCancelamento": null}}
+ */
+@Component("projecaoAutorizacaoConsumer")
+public class ProjecaoAutorizacaoConsumer implements ConsumerSeekAware {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjecaoAutorizacaoConsumer.class);
+
+    @Autowired
+    private ProjecaoStatusAutorizacao projecao;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @KafkaListener(topics = "${autorizacao.projecao.topico:austa.autorizacao}",
+                   groupId = "#{'${autorizacao.projecao.group-id:projecao-status-autorizacao}-' + T(java.util.UUID).randomUUID()}",
+                   properties = "auto.offset.reset=earliest")
+    public void onEvento(ConsumerRecord<String, String> registro) throws Exception {
+        JsonNode evento = objectMapper.readTree(registro.value());
+        if (!"AutorizacaoProcessada".equals(evento.path("eventoTipo").asText())) {
+            return;
+        }
+        JsonNode payload = evento.path("payload");
+        String numeroAutorizacao = payload.path("numeroAutorizacao").asText(null);
+        if (numeroAutorizacao == null) {
+            logger.warn("Ignoring authorization event without numeroAutorizacao: {}", registro.value());
+            return;
+        }
+
+        String operacao = payload.path("operacao").asText("gerar").toLowerCase(Locale.ROOT);
+        String status;
+        String observacoes;
+        switch (operacao) {
+            case "cancelar":
+                status = "CANCELADA";
+                observacoes = payload.path("motivoCancelamento").asText(null);
+                break;
+            case "atualizar":
+                status = normalizarStatus(payload.path("novoStatusAutorizacao").asText(null));
+                observacoes = payload.path("motivoAtualizacao").asText(null);
+                break;
+            default:
+                status = normalizarStatus(payload.path("decisaoAutorizacao").asText(null));
+                observacoes = payload.path("motivoDecisao").asText(null);
+        }
+
+        projecao.aplicar(new AutorizacaoResumo(numeroAutorizacao,
+            payload.path("numeroGuia").asText(null),
+            evento.path("beneficiarioId").asText(null),
+            payload.path("tipoProcedimento").asText(null),
+            status, observacoes,
+            Instant.parse(evento.path("timestamp").asText())), registro.partition(), registro.offset());
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        Map<Integer, Long> restaurados = projecao.offsets();
+        assignments.keySet().forEach(particao -> {
+            Long offset = restaurados.get(particao.partition());
+            if (offset != null) {
+                callback.seek(particao.topic(), particao.partition(), offset + 1);
+            }
+        });
+    }
+
+    /**
+     * Decisions come as APROVADO/NEGADO from the DMN; self-service shows the
+     * feminine form used for the authorization itself.
+     */
+    static String normalizarStatus(String status) {
+        if (status == null) {
+            return null;
+        }
+        switch (status.toUpperCase(Locale.ROOT)) {
+            case "APROVADO":
+                return "APROVADA";
+            case "NEGADO":
+                return "NEGADA";
+            case "CANCELADO":
+                return "CANCELADA";
+            default:
+                return status.toUpperCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package br.com.austa.experiencia.service.projecao;
+
+import br.com.austa.experiencia.model.dto.StatusAutorizacaoDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Projecao Status Autorizacao - read model for self-service authorization queries
+ *
+ * Materializes the AutorizacaoProcessada events published by
+ * AutorizacaoService (generate, update, cancel) into an in-memory view:
+ * - per authorization number and guide number, for "where is my authorization"
+ * - per beneficiary, newest first and capped at
+ *   {@code autorizacao.projecao.max-por-beneficiario}, for the self-service list
+ * Queries never reach the authorization service; they are two hash lookups.
+ *
+ * Events are applied idempotently by update instant, so redelivery and
+ * replay after a snapshot restore are harmless. When
+ * {@code autorizacao.projecao.snapshot-path} is set the view and the consumed
+ * partition offsets are written to a memory-mapped snapshot every
+ * {@code autorizacao.projecao.snapshot-ms} and on shutdown, and restored on
+ * startup so the consumer only replays what came after it.
+ */
+@Component("projecaoStatusAutorizacao")
+public class ProjecaoStatusAutorizacao {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjecaoStatusAutorizacao.class);
+
+    private static final Comparator<AutorizacaoResumo> MAIS_RECENTE_PRIMEIRO =
+        Comparator.comparing(AutorizacaoResumo::getAtualizadoEm).reversed();
+    private static final AutorizacaoResumo[] NENHUMA = new AutorizacaoResumo[0];
+
+    private final ConcurrentHashMap<String, AutorizacaoResumo> porNumero = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, String> numeroPorGuia = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AutorizacaoResumo[]> porBeneficiario = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Long> offsets = new ConcurrentHashMap<>();
+
+    private final Path caminhoSnapshot;
+    private final long intervaloSnapshotMillis;
+    private final int maxPorBeneficiario;
+
+    private final LongAdder eventosAplicados = new LongAdder();
+    private volatile boolean alterada;
+    private ScheduledExecutorService snapshots;
+
+    @Autowired
+    public ProjecaoStatusAutorizacao(@Value("${autorizacao.projecao.snapshot-path:}") String caminhoSnapshot,
+                                     @Value("${autorizacao.projecao.snapshot-ms:60000}") long intervaloSnapshotMillis,
+                                     @Value("${autorizacao.projecao.max-por-beneficiario:100}") int maxPorBeneficiario) {
+        this.caminhoSnapshot = caminhoSnapshot == null || caminhoSnapshot.isBlank() ? null : Paths.get(caminhoSnapshot);
+        this.intervaloSnapshotMillis = intervaloSnapshotMillis;
+        this.maxPorBeneficiario = maxPorBeneficiario;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        if (caminhoSnapshot == null) {
+            return;
+        }
+        if (Files.exists(caminhoSnapshot)) {
+            try {
+                SnapshotProjecao snapshot = SnapshotProjecao.ler(caminhoSnapshot);
+                snapshot.resumos.forEach(this::aplicar);
+                offsets.putAll(snapshot.offsets);
+                alterada = false;
+                logger.info("Restored authorization status projection: {} authorizations, offsets {}",
+                    snapshot.resumos.size(), snapshot.offsets);
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Ignoring unreadable projection snapshot {}, replaying the topic: {}",
+                    caminhoSnapshot, e.getMessage());
+                porNumero.clear();
+                numeroPorGuia.clear();
+                porBeneficiario.clear();
+                offsets.clear();
+            }
+        }
+        snapshots = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "projecao-autorizacao-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshots.scheduleWithFixedDelay(() -> {
+            try {
+                salvarSnapshot();
+            } catch (IOException | RuntimeException e) {
+                logger.error("Failed to write projection snapshot: {}", e.getMessage(), e);
+            }
+        }, intervaloSnapshotMillis, intervaloSnapshotMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void parar() throws InterruptedException, IOException {
+        if (snapshots != null) {
+            snapshots.shutdown();
+            snapshots.awaitTermination(5, TimeUnit.SECONDS);
+            salvarSnapshot();
+        }
+    }
+
+    /**
+     * Applies an event consumed at {@code offset} of {@code particao}.
+     */
+    public void aplicar(AutorizacaoResumo evento, int particao, long offset) {
+        aplicar(evento);
+        offsets.merge(particao, offset, Math::max);
+    }
+
+    /**
+     * Applies an event; older than what the view already holds is ignored.
+     */
+    public void aplicar(AutorizacaoResumo evento) {
+        String numero = evento.getNumeroAutorizacao();
+        AutorizacaoResumo atual = porNumero.compute(numero, (k, existente) -> {
+            if (existente == null) {
+                return evento;
+            }
+            return existente.getAtualizadoEm().isAfter(evento.getAtualizadoEm()) ? existente : existente.mesclar(evento);
+        });
+        eventosAplicados.increment();
+        alterada = true;
+
+        if (atual.getNumeroGuia() != null) {
+            numeroPorGuia.put(atual.getNumeroGuia(), numero);
+        }
+        if (atual.getBeneficiarioId() != null) {
+            porBeneficiario.compute(atual.getBeneficiarioId(), (k, lista) -> inserir(lista, numero));
+        }
+    }
+
+    /**
+     * Latest status by authorization or guide number. When {@code beneficiarioId}
+     * is given, authorizations of someone else are reported as not found.
+     */
+    public Optional<StatusAutorizacaoDTO> consultarStatus(String numero, String beneficiarioId) {
+        return buscar(numero)
+            .filter(r -> beneficiarioId == null || beneficiarioId.equals(r.getBeneficiarioId()))
+            .map(AutorizacaoResumo::toStatusDTO);
+    }
+
+    public Optional<AutorizacaoResumo> buscar(String numero) {
+        AutorizacaoResumo resumo = porNumero.get(numero);
+        if (resumo == null) {
+            String numeroAutorizacao = numeroPorGuia.get(numero);
+            resumo = numeroAutorizacao == null ? null : porNumero.get(numeroAutorizacao);
+        }
+        return Optional.ofNullable(resumo);
+    }
+
+    /**
+     * The beneficiary's authorizations, newest first.
+     */
+    public List<AutorizacaoResumo> doBeneficiario(String beneficiarioId) {
+        return Arrays.asList(porBeneficiario.getOrDefault(beneficiarioId, NENHUMA));
+    }
+
+    /**
+     * Offsets already reflected in the view, for the consumer to resume after.
+     */
+    public Map<Integer, Long> offsets() {
+        return new HashMap<>(offsets);
+    }
+
+    /**
+     * Writes the snapshot if enabled and anything changed since the last one.
+     * Offsets are captured before the entries: whatever is applied in between
+     * is simply replayed on restore.
+     */
+    public void salvarSnapshot() throws IOException {
+        if (caminhoSnapshot == null || !alterada) {
+            return;
+        }
+        alterada = false;
+        long inicio = System.nanoTime();
+        Map<Integer, Long> capturados = offsets();
+        List<AutorizacaoResumo> resumos = new ArrayList<>(porNumero.values());
+        try {
+            SnapshotProjecao.gravar(caminhoSnapshot, resumos, capturados);
+        } catch (IOException | RuntimeException e) {
+            alterada = true;
+            throw e;
+        }
+        logger.debug("Wrote projection snapshot: {} authorizations in {} ms",
+            resumos.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    public int getAutorizacoes() {
+        return porNumero.size();
+    }
+
+    public long getEventosAplicados() {
+        return eventosAplicados.sum();
+    }
+
+    /**
+     * Copy-on-write of the beneficiary's list with the authorization's current
+     * state; the oldest entries beyond the cap leave the view entirely.
+     */
+    private AutorizacaoResumo[] inserir(AutorizacaoResumo[] lista, String numero) {
+        AutorizacaoResumo atual = porNumero.get(numero);
+        List<AutorizacaoResumo> nova = new ArrayList<>(lista == null ? 1 : lista.length + 1);
+        nova.add(atual);
+        if (lista != null) {
+            for (AutorizacaoResumo resumo : lista) {
+                if (!resumo.getNumeroAutorizacao().equals(numero)) {
+                    nova.add(resumo);
+                }
+            }
+        }
+        nova.sort(MAIS_RECENTE_PRIMEIRO);
+        while (nova.size() > maxPorBeneficiario) {
+            AutorizacaoResumo removida = nova.remove(nova.size() - 1);
+            porNumero.remove(removida.getNumeroAutorizacao());
+            if (removida.getNumeroGuia() != null) {
+                numeroPorGuia.remove(removida.getNumeroGuia(), removida.getNumeroAutorizacao());
+            }
+        }
+        return nova.toArray(NENHUMA);
+    }
+}
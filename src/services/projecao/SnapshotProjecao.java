@@ -0,0 +1,121 @@
+package br.com.austa.experiencia.service.projecao;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Memory-mapped snapshot of the authorization status projection.
+ *
+ * Layout: magic, version, partition offsets (int partition, long offset),
+ * then one record per authorization: six length-prefixed UTF-8 strings
+ * (-1 for null) and the update instant as epoch millis. Written to a
+ * temporary file and moved over the previous snapshot, so a crash never
+ * leaves a torn file behind.
+ */
+final class SnapshotProjecao {
+
+    private static final int MAGICO = 0x41505331;
+    private static final int VERSAO = 1;
+
+    final List<AutorizacaoResumo> resumos;
+    final Map<Integer, Long> offsets;
+
+    private SnapshotProjecao(List<AutorizacaoResumo> resumos, Map<Integer, Long> offsets) {
+        this.resumos = resumos;
+        this.offsets = offsets;
+    }
+
+    static void gravar(Path destino, Collection<AutorizacaoResumo> resumos, Map<Integer, Long> offsets)
+            throws IOException {
+        List<AutorizacaoResumo> lista = new ArrayList<>(resumos);
+        List<byte[][]> registros = new ArrayList<>(lista.size());
+        long tamanho = 4 + 4 + 4 + offsets.size() * 12L + 4;
+        for (AutorizacaoResumo resumo : lista) {
+            byte[][] campos = {
+                bytes(resumo.getNumeroAutorizacao()), bytes(resumo.getNumeroGuia()),
+                bytes(resumo.getBeneficiarioId()), bytes(resumo.getTipoProcedimento()),
+                bytes(resumo.getStatus()), bytes(resumo.getObservacoes())
+            };
+            for (byte[] campo : campos) {
+                tamanho += 4 + (campo == null ? 0 : campo.length);
+            }
+            tamanho += 8;
+            registros.add(campos);
+        }
+        if (tamanho > Integer.MAX_VALUE) {
+            throw new IOException("Projection snapshot too large: " + tamanho + " bytes");
+        }
+
+        Path temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanho);
+            buffer.putInt(MAGICO).putInt(VERSAO);
+            buffer.putInt(offsets.size());
+            offsets.forEach((particao, offset) -> buffer.putInt(particao).putLong(offset));
+
+            buffer.putInt(registros.size());
+            for (int i = 0; i < lista.size(); i++) {
+                for (byte[] campo : registros.get(i)) {
+                    if (campo == null) {
+                        buffer.putInt(-1);
+                    } else {
+                        buffer.putInt(campo.length).put(campo);
+                    }
+                }
+                buffer.putLong(lista.get(i).getAtualizadoEm().toEpochMilli());
+            }
+            buffer.force();
+        }
+        Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static SnapshotProjecao ler(Path origem) throws IOException {
+        try (FileChannel canal = FileChannel.open(origem, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            if (buffer.getInt() != MAGICO || buffer.getInt() != VERSAO) {
+                throw new IOException("Not a projection snapshot: " + origem);
+            }
+            int particoes = buffer.getInt();
+            Map<Integer, Long> offsets = new HashMap<>();
+            for (int i = 0; i < particoes; i++) {
+                offsets.put(buffer.getInt(), buffer.getLong());
+            }
+
+            int total = buffer.getInt();
+            List<AutorizacaoResumo> resumos = new ArrayList<>(total);
+            for (int i = 0; i < total; i++) {
+                resumos.add(new AutorizacaoResumo(texto(buffer), texto(buffer), texto(buffer), texto(buffer),
+                    texto(buffer), texto(buffer), Instant.ofEpochMilli(buffer.getLong())));
+            }
+            return new SnapshotProjecao(resumos, offsets);
+        }
+    }
+
+    private static byte[] bytes(String texto) {
+        return texto == null ? null : texto.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String texto(ByteBuffer buffer) {
+        int tamanho = buffer.getInt();
+        if (tamanho < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[tamanho];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,131 @@
+package br.com.austa.experiencia.service.rastreamento;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coletor Spans - recent traces kept in memory, for critical-path queries
+ *
+ * Receives every exported batch. Holds the last {@code rastreamento.coletor.max-traces}
+ * traces, least recently updated evicted first; long-term storage is the
+ * OTLP collector's job.
+ */
+@Component("coletorSpans")
+public class ColetorSpans {
+
+    private final int maxTraces;
+    private final Map<String, List<Span>> traces;
+
+    @Autowired
+    public ColetorSpans(@Value("${rastreamento.coletor.max-traces:1000}") int maxTraces) {
+        this.maxTraces = maxTraces;
+        this.traces = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<Span>> mais) {
+                return size() > ColetorSpans.this.maxTraces;
+            }
+        };
+    }
+
+    public synchronized void receber(List<Span> spans) {
+        for (Span span : spans) {
+            traces.computeIfAbsent(span.getTraceId(), k -> new ArrayList<>()).add(span);
+        }
+    }
+
+    /**
+     * Spans of a trace by start time; empty when unknown or evicted.
+     */
+    public List<Span> spans(String traceId) {
+        List<Span> spans;
+        synchronized (this) {
+            List<Span> trace = traces.get(traceId);
+            spans = trace == null ? new ArrayList<>() : new ArrayList<>(trace);
+        }
+        spans.sort(Comparator.comparingLong(Span::getInicioEpochNanos));
+        return spans;
+    }
+
+    /**
+     * The chain of work that determined the trace's duration. Walking back from
+     * the root's end, the child that finished last before the cursor is what the
+     * parent was waiting on; time not covered by any child is the parent's own.
+     * Parallel branches that finished earlier are off the path.
+     *
+     * @return segments in chronological order, each with the span, its own time
+     *         on the path and its offset from the start of the trace
+     */
+    public List<Map<String, Object>> caminhoCritico(String traceId) {
+        List<Span> spans = spans(traceId);
+        if (spans.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Span> porId = new HashMap<>();
+        spans.forEach(span -> porId.put(span.getSpanId(), span));
+        Map<String, List<Span>> filhos = new HashMap<>();
+        Span raiz = null;
+        for (Span span : spans) {
+            if (span.getPaiSpanId() != null && porId.containsKey(span.getPaiSpanId())) {
+                filhos.computeIfAbsent(span.getPaiSpanId(), k -> new ArrayList<>()).add(span);
+            } else if (raiz == null || span.getDuracaoNanos() > raiz.getDuracaoNanos()) {
+                raiz = span;
+            }
+        }
+        List<Map<String, Object>> segmentos = new ArrayList<>();
+        percorrer(raiz, raiz.getFimEpochNanos(), filhos, raiz.getInicioEpochNanos(), segmentos);
+        Collections.reverse(segmentos);
+        return segmentos;
+    }
+
+    /**
+     * Appends the segments of {@code span} up to {@code fim}, latest first.
+     */
+    private void percorrer(Span span, long fim, Map<String, List<Span>> filhos, long inicioTrace,
+                           List<Map<String, Object>> segmentos) {
+        long cursor = Math.min(fim, span.getFimEpochNanos());
+        List<Span> candidatos = new ArrayList<>(filhos.getOrDefault(span.getSpanId(), List.of()));
+        while (true) {
+            Span ultimo = null;
+            long fimUltimo = Long.MIN_VALUE;
+            for (Span filho : candidatos) {
+                long fimFilho = Math.min(filho.getFimEpochNanos(), cursor);
+                if (filho.getInicioEpochNanos() < cursor && fimFilho > fimUltimo) {
+                    ultimo = filho;
+                    fimUltimo = fimFilho;
+                }
+            }
+            if (ultimo == null) {
+                break;
+            }
+            candidatos.remove(ultimo);
+            if (cursor > fimUltimo) {
+                segmentos.add(segmento(span, fimUltimo, cursor, inicioTrace));
+            }
+            percorrer(ultimo, fimUltimo, filhos, inicioTrace, segmentos);
+            cursor = Math.max(ultimo.getInicioEpochNanos(), span.getInicioEpochNanos());
+        }
+        if (cursor > span.getInicioEpochNanos()) {
+            segmentos.add(segmento(span, span.getInicioEpochNanos(), cursor, inicioTrace));
+        }
+    }
+
+    private static Map<String, Object> segmento(Span span, long inicio, long fim, long inicioTrace) {
+        Map<String, Object> segmento = new LinkedHashMap<>();
+        segmento.put("spanId", span.getSpanId());
+        segmento.put("nome", span.getNome());
+        segmento.put("tipo", span.getTipo().name());
+        segmento.put("deslocamentoMicros", (inicio - inicioTrace) / 1_000);
+        segmento.put("duracaoMicros", (fim - inicio) / 1_000);
+        segmento.put("falhou", span.isFalhou());
+        return segmento;
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.austa.experiencia.service.rastreamento;
+
+import java.util.Objects;
+
+/**
+ * What crosses process boundaries: trace id, span id and the sampled flag,
+ * written as a W3C {@code traceparent} ({@code 00-<trace>-<span>-<flags>}).
+ */
+public final class ContextoSpan {
+
+    public static final String CABECALHO = "traceparent";
+
+    private final String traceId;
+    private final String spanId;
+    private final boolean amostrado;
+
+    ContextoSpan(String traceId, String spanId, boolean amostrado) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.amostrado = amostrado;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    /**
+     * Unsampled contexts still propagate, so the whole trace shares one decision.
+     */
+    public boolean isAmostrado() {
+        return amostrado;
+    }
+
+    public String traceparent() {
+        return "00-" + traceId + "-" + spanId + (amostrado ? "-01" : "-00");
+    }
+
+    /**
+     * @return null when absent or malformed, so a bad header starts a new trace instead of failing
+     */
+    public static ContextoSpan deTraceparent(String valor) {
+        if (valor == null || valor.length() != 55 || valor.charAt(2) != '-' || valor.charAt(35) != '-'
+                || valor.charAt(52) != '-' || !valor.startsWith("00")) {
+            return null;
+        }
+        String traceId = valor.substring(3, 35);
+        String spanId = valor.substring(36, 52);
+        if (!hex(traceId) || !hex(spanId) || !hex(valor.substring(53))
+                || traceId.chars().allMatch(c -> c == '0') || spanId.chars().allMatch(c -> c == '0')) {
+            return null;
+        }
+        return new ContextoSpan(traceId, spanId, (Integer.parseInt(valor.substring(53), 16) & 1) == 1);
+    }
+
+    private static boolean hex(String valor) {
+        return valor.chars().allMatch(c -> (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ContextoSpan outro && traceId.equals(outro.traceId) && spanId.equals(outro.spanId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(traceId, spanId);
+    }
+
+    @Override
+    public String toString() {
+        return traceparent();
+    }
+}
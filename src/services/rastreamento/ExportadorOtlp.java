@@ -0,0 +1,108 @@
+package br.com.austa.experiencia.service.rastreamento;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends spans to an OpenTelemetry collector as OTLP/JSON over HTTP
+ * ({@code POST /v1/traces}), so Jaeger, Tempo or any OTLP backend can store
+ * and render them without an OTel SDK in the application.
+ */
+public class ExportadorOtlp {
+
+    private static final String ESCOPO = "br.com.austa.experiencia.rastreamento";
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final URI endpoint;
+    private final String servico;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+
+    /**
+     * @param endpoint full traces URL, e.g. {@code http://otel-collector:4318/v1/traces}
+     */
+    public ExportadorOtlp(URI endpoint, String servico, ObjectMapper objectMapper) {
+        this.endpoint = endpoint;
+        this.servico = servico;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+    }
+
+    /**
+     * @throws IOException when the collector is unreachable or rejects the batch
+     */
+    public void exportar(List<Span> spans) throws IOException, InterruptedException {
+        HttpRequest requisicao = HttpRequest.newBuilder(endpoint)
+            .timeout(TIMEOUT)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(corpo(spans))))
+            .build();
+        HttpResponse<String> resposta = httpClient.send(requisicao, HttpResponse.BodyHandlers.ofString());
+        if (resposta.statusCode() / 100 != 2) {
+            throw new IOException("OTLP collector returned " + resposta.statusCode() + ": " + resposta.body());
+        }
+    }
+
+    Map<String, Object> corpo(List<Span> spans) {
+        List<Map<String, Object>> convertidos = new ArrayList<>(spans.size());
+        for (Span span : spans) {
+            convertidos.add(converter(span));
+        }
+        Map<String, Object> recurso = Map.of("attributes", atributos(Map.of("service.name", servico)));
+        Map<String, Object> escopo = Map.of("scope", Map.of("name", ESCOPO), "spans", convertidos);
+        return Map.of("resourceSpans", List.of(Map.of("resource", recurso, "scopeSpans", List.of(escopo))));
+    }
+
+    private static Map<String, Object> converter(Span span) {
+        Map<String, Object> otlp = new LinkedHashMap<>();
+        otlp.put("traceId", span.getTraceId());
+        otlp.put("spanId", span.getSpanId());
+        if (span.getPaiSpanId() != null) {
+            otlp.put("parentSpanId", span.getPaiSpanId());
+        }
+        otlp.put("name", span.getNome());
+        otlp.put("kind", span.getTipo().getCodigoOtlp());
+        // 64-bit integers travel as strings in OTLP/JSON
+        otlp.put("startTimeUnixNano", Long.toString(span.getInicioEpochNanos()));
+        otlp.put("endTimeUnixNano", Long.toString(span.getFimEpochNanos()));
+        otlp.put("attributes", atributos(span.getAtributos()));
+        if (!span.getLinks().isEmpty()) {
+            otlp.put("links", span.getLinks().stream()
+                .map(link -> Map.of("traceId", link.getTraceId(), "spanId", link.getSpanId()))
+                .toList());
+        }
+        if (span.isFalhou()) {
+            otlp.put("status", Map.of("code", 2, "message", String.valueOf(span.getErro())));
+        }
+        return otlp;
+    }
+
+    private static List<Map<String, Object>> atributos(Map<String, Object> atributos) {
+        List<Map<String, Object>> lista = new ArrayList<>(atributos.size());
+        atributos.forEach((chave, valor) -> lista.add(Map.of("key", chave, "value", valor(valor))));
+        return lista;
+    }
+
+    private static Map<String, Object> valor(Object valor) {
+        if (valor instanceof Boolean b) {
+            return Map.of("boolValue", b);
+        }
+        if (valor instanceof Integer || valor instanceof Long || valor instanceof Short) {
+            return Map.of("intValue", valor.toString());
+        }
+        if (valor instanceof Number n) {
+            return Map.of("doubleValue", n.doubleValue());
+        }
+        return Map.of("stringValue", String.valueOf(valor));
+    }
+}
@@ -0,0 +1,318 @@
+package br.com.austa.experiencia.service.rastreamento;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rastreador - distributed tracing of journeys across BPMN activities, HTTP and Kafka
+ *
+ * Spans follow the OpenTelemetry data model and propagate as W3C
+ * {@code traceparent}, so traces continue into and out of any OTel-instrumented
+ * system:
+ * - a trace is sampled once, at its root, by trace id ({@code rastreamento.amostragem});
+ *   children inherit the decision, and unsampled contexts still propagate
+ * - each thread keeps the spans it activated; {@link #atual()} is the parent
+ *   of whatever starts next on it (activity, HTTP call, Kafka send)
+ * - finished sampled spans go to a bounded queue, exported in batches by one
+ *   daemon thread to the {@link ColetorSpans} and, when
+ *   {@code rastreamento.otlp.endpoint} is set, as OTLP/JSON to a collector;
+ *   a full queue drops spans rather than blocking the engine
+ */
+@Component("rastreador")
+public class Rastreador {
+
+    private static final Logger logger = LoggerFactory.getLogger(Rastreador.class);
+
+    private final ColetorSpans coletor;
+    private final ExportadorOtlp otlp;
+    private final long limiteAmostragem;
+    private final BlockingQueue<Span> fila;
+    private final int lote;
+    private final long intervaloMillis;
+    private final Clock relogio;
+
+    private final ThreadLocal<ArrayDeque<Ativo>> ativos = ThreadLocal.withInitial(ArrayDeque::new);
+    private final Object exportacao = new Object();
+    private Thread exportador;
+
+    private final LongAdder spansIniciados = new LongAdder();
+    private final LongAdder spansExportados = new LongAdder();
+    private final LongAdder spansDescartados = new LongAdder();
+    private final LongAdder falhasExportacao = new LongAdder();
+
+    @Autowired
+    public Rastreador(ColetorSpans coletor, ObjectMapper objectMapper,
+                      @Value("${rastreamento.amostragem:0.1}") double amostragem,
+                      @Value("${rastreamento.otlp.endpoint:}") String endpoint,
+                      @Value("${rastreamento.servico:austa-experiencia}") String servico,
+                      @Value("${rastreamento.fila:8192}") int capacidadeFila,
+                      @Value("${rastreamento.lote:512}") int lote,
+                      @Value("${rastreamento.exportacao-ms:2000}") long intervaloMillis) {
+        this(coletor, endpoint.isBlank() ? null : new ExportadorOtlp(URI.create(endpoint), servico, objectMapper),
+            amostragem, capacidadeFila, lote, intervaloMillis, Clock.systemUTC());
+    }
+
+    /**
+     * @param otlp null to keep spans in the collector only
+     */
+    public Rastreador(ColetorSpans coletor, ExportadorOtlp otlp, double amostragem, int capacidadeFila,
+                      int lote, long intervaloMillis, Clock relogio) {
+        this.coletor = coletor;
+        this.otlp = otlp;
+        this.limiteAmostragem = amostragem >= 1 ? Long.MAX_VALUE : (long) (Math.max(0, amostragem) * Long.MAX_VALUE);
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+        this.lote = lote;
+        this.intervaloMillis = intervaloMillis;
+        this.relogio = relogio;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        exportador = new Thread(this::exportarContinuamente, "rastreamento-exportador-1");
+        exportador.setDaemon(true);
+        exportador.start();
+    }
+
+    @PreDestroy
+    public void parar() {
+        if (exportador != null) {
+            exportador.interrupt();
+        }
+        descarregar();
+    }
+
+    /**
+     * Starts a span under the thread's current span, or a new trace when there is none.
+     */
+    public Span iniciar(String nome, TipoSpan tipo) {
+        return iniciar(nome, tipo, atual());
+    }
+
+    /**
+     * @param pai null starts a new trace
+     */
+    public Span iniciar(String nome, TipoSpan tipo, ContextoSpan pai) {
+        return iniciar(nome, tipo, novoContexto(pai), pai, agoraEpochNanos());
+    }
+
+    /**
+     * Starts a span whose context was handed out earlier, e.g. a process
+     * instance whose traceparent was propagated while it ran.
+     */
+    Span iniciar(String nome, TipoSpan tipo, ContextoSpan contexto, ContextoSpan pai, long inicioEpochNanos) {
+        spansIniciados.increment();
+        return new Span(this, contexto, pai == null ? null : pai.getSpanId(), nome, tipo, inicioEpochNanos);
+    }
+
+    ContextoSpan novoContexto(ContextoSpan pai) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = random.nextLong();
+        String spanId = hex(id == 0 ? 1 : id);
+        if (pai != null) {
+            return new ContextoSpan(pai.getTraceId(), spanId, pai.isAmostrado());
+        }
+        long alto = random.nextLong();
+        long baixo = random.nextLong(1, Long.MAX_VALUE);
+        return new ContextoSpan(hex(alto) + hex(baixo), spanId, baixo <= limiteAmostragem);
+    }
+
+    /**
+     * Makes the span the thread's current span until it is finished.
+     */
+    public void ativar(Span span) {
+        ativar(span, null);
+    }
+
+    /**
+     * @param chave lets a later listener on this thread find the span with {@link #ativo(String)}
+     */
+    void ativar(Span span, String chave) {
+        ativos.get().push(new Ativo(span.getContexto(), span, chave));
+    }
+
+    /**
+     * Open span activated on this thread under {@code chave}, or null.
+     */
+    Span ativo(String chave) {
+        for (Ativo ativo : ativos.get()) {
+            if (chave.equals(ativo.chave)) {
+                return ativo.span;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Current span context on this thread, or null.
+     */
+    public ContextoSpan atual() {
+        Ativo ativo = ativos.get().peek();
+        return ativo == null ? null : ativo.contexto;
+    }
+
+    /**
+     * Runs {@code acao} in a span under {@code pai}, for work handed to another
+     * thread: capture {@link #atual()} before the hand-off and pass it here.
+     */
+    public void executar(String nome, ContextoSpan pai, Runnable acao) {
+        Span span = iniciar(nome, TipoSpan.INTERNO, pai);
+        ativar(span);
+        try {
+            acao.run();
+        } catch (RuntimeException e) {
+            span.erro(e);
+            throw e;
+        } finally {
+            span.finalizar();
+        }
+    }
+
+    int profundidade() {
+        return ativos.get().size();
+    }
+
+    /**
+     * Finishes the spans activated above {@code profundidade} that are still
+     * open, as failed when {@code erro} is given.
+     */
+    void encerrarAcima(int profundidade, Throwable erro) {
+        ArrayDeque<Ativo> pilha = ativos.get();
+        while (pilha.size() > profundidade) {
+            Ativo ativo = pilha.pop();
+            if (ativo.span != null) {
+                if (erro != null) {
+                    ativo.span.erro(erro);
+                }
+                ativo.span.finalizar();
+            }
+        }
+    }
+
+    void finalizar(Span span, long fimEpochNanos) {
+        if (!span.marcarFim(fimEpochNanos == 0 ? agoraEpochNanos() : fimEpochNanos)) {
+            return;
+        }
+        Iterator<Ativo> pilha = ativos.get().iterator();
+        while (pilha.hasNext()) {
+            if (pilha.next().span == span) {
+                pilha.remove();
+                break;
+            }
+        }
+        if (span.getContexto().isAmostrado() && !fila.offer(span)) {
+            spansDescartados.increment();
+        }
+    }
+
+    /**
+     * Exports everything queued so far, on the calling thread.
+     */
+    public void descarregar() {
+        List<Span> pendentes = new ArrayList<>();
+        synchronized (exportacao) {
+            while (fila.drainTo(pendentes, lote) > 0) {
+                exportar(pendentes);
+                pendentes.clear();
+            }
+        }
+    }
+
+    long agoraEpochNanos() {
+        Instant agora = relogio.instant();
+        return agora.getEpochSecond() * 1_000_000_000L + agora.getNano();
+    }
+
+    private void exportarContinuamente() {
+        List<Span> pendentes = new ArrayList<>(lote);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Span primeiro = fila.poll(intervaloMillis, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                synchronized (exportacao) {
+                    pendentes.add(primeiro);
+                    fila.drainTo(pendentes, lote - 1);
+                    exportar(pendentes);
+                    pendentes.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void exportar(List<Span> spans) {
+        coletor.receber(spans);
+        spansExportados.add(spans.size());
+        if (otlp == null) {
+            return;
+        }
+        try {
+            otlp.exportar(spans);
+        } catch (IOException e) {
+            falhasExportacao.increment();
+            logger.warn("Could not export {} spans to the OTLP collector: {}", spans.size(), e.getMessage());
+        } catch (InterruptedException e) {
+            falhasExportacao.increment();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public ColetorSpans getColetor() {
+        return coletor;
+    }
+
+    public long getSpansIniciados() {
+        return spansIniciados.sum();
+    }
+
+    public long getSpansExportados() {
+        return spansExportados.sum();
+    }
+
+    public long getSpansDescartados() {
+        return spansDescartados.sum();
+    }
+
+    public long getFalhasExportacao() {
+        return falhasExportacao.sum();
+    }
+
+    private static String hex(long valor) {
+        String hex = Long.toHexString(valor);
+        return "0".repeat(16 - hex.length()) + hex;
+    }
+
+    private static final class Ativo {
+        final ContextoSpan contexto;
+        final Span span;
+        final String chave;
+
+        Ativo(ContextoSpan contexto, Span span, String chave) {
+            this.contexto = contexto;
+            this.span = span;
+            this.chave = chave;
+        }
+    }
+}
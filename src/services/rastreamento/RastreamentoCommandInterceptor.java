@@ -0,0 +1,32 @@
+package br.com.austa.experiencia.service.rastreamento;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandInterceptor;
+
+/**
+ * Ends the spans a command leaves active on its thread: a task that threw
+ * never reaches its end listener, and its span is reported as failed with
+ * the exception. Nested commands only end what they started.
+ */
+class RastreamentoCommandInterceptor extends CommandInterceptor {
+
+    private final Rastreador rastreador;
+
+    RastreamentoCommandInterceptor(Rastreador rastreador) {
+        this.rastreador = rastreador;
+    }
+
+    @Override
+    public <T> T execute(Command<T> command) {
+        int profundidade = rastreador.profundidade();
+        Throwable erro = null;
+        try {
+            return next.execute(command);
+        } catch (RuntimeException | Error e) {
+            erro = e;
+            throw e;
+        } finally {
+            rastreador.encerrarAcima(profundidade, erro);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.austa.experiencia.service.rastreamento;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Where the time of a recent journey went: the critical path of a trace
+ * still held by the {@link ColetorSpans}, with the exporter's counters.
+ *
+ * GET /api/v1/rastreamento/{traceId}/caminho-critico
+ */
+@RestController
+@RequestMapping("/api/v1/rastreamento")
+public class RastreamentoController {
+
+    private final Rastreador rastreador;
+
+    @Autowired
+    public RastreamentoController(Rastreador rastreador) {
+        this.rastreador = rastreador;
+    }
+
+    @GetMapping("/{traceId}/caminho-critico")
+    public ResponseEntity<Map<String, Object>> caminhoCritico(@PathVariable String traceId) {
+        List<Map<String, Object>> caminho = rastreador.getColetor().caminhoCritico(traceId);
+        if (caminho.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, Object> resposta = new LinkedHashMap<>();
+        resposta.put("traceId", traceId);
+        resposta.put("caminhoCritico", caminho);
+        resposta.put("spansExportados", rastreador.getSpansExportados());
+        resposta.put("spansDescartados", rastreador.getSpansDescartados());
+        return ResponseEntity.ok(resposta);
+    }
+}
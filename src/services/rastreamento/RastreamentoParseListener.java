@@ -0,0 +1,78 @@
+package br.com.austa.experiencia.service.rastreamento;
+
+import org.camunda.bpm.engine.delegate.ExecutionListener;
+import org.camunda.bpm.engine.impl.bpmn.parser.AbstractBpmnParseListener;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParser;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
+import org.camunda.bpm.engine.impl.pvm.process.ScopeImpl;
+import org.camunda.bpm.engine.impl.util.xml.Element;
+
+/**
+ * Adds the span listeners: one span per process instance, one per task that
+ * does work (service, business-rule, script, send) and one per message wait
+ * (receive tasks, intermediate message catch events). Start listeners go
+ * first so the span covers the modelled listeners too.
+ *
+ * External tasks are left out: their work happens in another process, which
+ * continues the trace from the {@code traceparent} it is handed.
+ */
+class RastreamentoParseListener extends AbstractBpmnParseListener {
+
+    private final Rastreador rastreador;
+
+    RastreamentoParseListener(Rastreador rastreador) {
+        this.rastreador = rastreador;
+    }
+
+    @Override
+    public void parseProcess(Element processElement, ProcessDefinitionEntity processDefinition) {
+        processDefinition.addListener(ExecutionListener.EVENTNAME_START,
+            new SpanProcessoListener(rastreador, processDefinition.getKey(), true), 0);
+        processDefinition.addListener(ExecutionListener.EVENTNAME_END,
+            new SpanProcessoListener(rastreador, processDefinition.getKey(), false));
+    }
+
+    @Override
+    public void parseServiceTask(Element serviceTaskElement, ScopeImpl scope, ActivityImpl activity) {
+        if (!"external".equals(serviceTaskElement.attributeNS(BpmnParser.CAMUNDA_BPMN_EXTENSIONS_NS, "type"))) {
+            rastrear(activity, "serviceTask", false);
+        }
+    }
+
+    @Override
+    public void parseBusinessRuleTask(Element businessRuleTaskElement, ScopeImpl scope, ActivityImpl activity) {
+        rastrear(activity, "businessRuleTask", false);
+    }
+
+    @Override
+    public void parseScriptTask(Element scriptTaskElement, ScopeImpl scope, ActivityImpl activity) {
+        rastrear(activity, "scriptTask", false);
+    }
+
+    @Override
+    public void parseSendTask(Element sendTaskElement, ScopeImpl scope, ActivityImpl activity) {
+        if (!"external".equals(sendTaskElement.attributeNS(BpmnParser.CAMUNDA_BPMN_EXTENSIONS_NS, "type"))) {
+            rastrear(activity, "sendTask", false);
+        }
+    }
+
+    @Override
+    public void parseReceiveTask(Element receiveTaskElement, ScopeImpl scope, ActivityImpl activity) {
+        rastrear(activity, "receiveTask", true);
+    }
+
+    @Override
+    public void parseIntermediateMessageCatchEventDefinition(Element messageEventDefinition, ActivityImpl nestedActivity) {
+        rastrear(nestedActivity, "intermediateMessageCatchEvent", true);
+    }
+
+    private void rastrear(ActivityImpl activity, String tipo, boolean espera) {
+        String processo = activity.getProcessDefinition().getKey();
+        String nome = activity.getName() == null ? activity.getId() : activity.getName();
+        activity.addListener(ExecutionListener.EVENTNAME_START,
+            new SpanAtividadeListener(rastreador, processo, nome, tipo, espera, true), 0);
+        activity.addListener(ExecutionListener.EVENTNAME_END,
+            new SpanAtividadeListener(rastreador, processo, nome, tipo, espera, false));
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.austa.experiencia.service.rastreamento;
+
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParseListener;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.CommandInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rastreamento Plugin - spans for process instances, tasks and message waits
+ *
+ * - {@link RastreamentoParseListener} adds the span listeners to every definition
+ * - {@link RastreamentoCommandInterceptor} ends what a failed command left open
+ *
+ * {@code rastreamento.habilitado}: false leaves the engine untouched; HTTP and
+ * Kafka spans are controlled separately by the same flag in their beans.
+ */
+@Component
+public class RastreamentoPlugin extends AbstractProcessEnginePlugin {
+
+    private static final Logger logger = LoggerFactory.getLogger(RastreamentoPlugin.class);
+
+    private final Rastreador rastreador;
+    private final boolean habilitado;
+
+    @Autowired
+    public RastreamentoPlugin(Rastreador rastreador,
+                              @Value("${rastreamento.habilitado:true}") boolean habilitado) {
+        this.rastreador = rastreador;
+        this.habilitado = habilitado;
+    }
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl configuration) {
+        if (!habilitado) {
+            logger.info("Process tracing disabled");
+            return;
+        }
+        List<BpmnParseListener> parseListeners = configuration.getCustomPostBPMNParseListeners();
+        if (parseListeners == null) {
+            parseListeners = new ArrayList<>();
+            configuration.setCustomPostBPMNParseListeners(parseListeners);
+        }
+        parseListeners.add(new RastreamentoParseListener(rastreador));
+
+        List<CommandInterceptor> interceptores = configuration.getCustomPreCommandInterceptorsTxRequired();
+        if (interceptores == null) {
+            interceptores = new ArrayList<>();
+            configuration.setCustomPreCommandInterceptorsTxRequired(interceptores);
+        }
+        interceptores.add(new RastreamentoCommandInterceptor(rastreador));
+
+        List<CommandInterceptor> interceptoresNovaTx = configuration.getCustomPreCommandInterceptorsTxRequiresNew();
+        if (interceptoresNovaTx == null) {
+            interceptoresNovaTx = new ArrayList<>();
+            configuration.setCustomPreCommandInterceptorsTxRequiresNew(interceptoresNovaTx);
+        }
+        interceptoresNovaTx.add(new RastreamentoCommandInterceptor(rastreador));
+        logger.info("Process instances, tasks and message waits traced");
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.austa.experiencia.service.rastreamento;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.listener.RecordInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Consumer span around every {@code @KafkaListener} record, continuing the
+ * producer's trace from the {@code traceparent} header (a new trace when the
+ * producer is not traced). Spring Boot installs it on the auto-configured
+ * listener container factory; processes started or messages correlated by
+ * the listener become its children.
+ */
+@Component("rastreamentoRecordInterceptor")
+public class RastreamentoRecordInterceptor implements RecordInterceptor<Object, Object> {
+
+    private static final String CHAVE = "kafka";
+
+    private final Rastreador rastreador;
+    private final boolean habilitado;
+
+    @Autowired
+    public RastreamentoRecordInterceptor(Rastreador rastreador,
+                                         @Value("${rastreamento.habilitado:true}") boolean habilitado) {
+        this.rastreador = rastreador;
+        this.habilitado = habilitado;
+    }
+
+    @Override
+    public ConsumerRecord<Object, Object> intercept(ConsumerRecord<Object, Object> record,
+                                                    Consumer<Object, Object> consumer) {
+        if (habilitado) {
+            Header cabecalho = record.headers().lastHeader(ContextoSpan.CABECALHO);
+            ContextoSpan pai = cabecalho == null ? null
+                : ContextoSpan.deTraceparent(new String(cabecalho.value(), StandardCharsets.US_ASCII));
+            Span span = rastreador.iniciar("consumir " + record.topic(), TipoSpan.CONSUMIDOR, pai)
+                .atributo("messaging.system", "kafka")
+                .atributo("messaging.destination.name", record.topic())
+                .atributo("messaging.destination.partition.id", record.partition())
+                .atributo("messaging.kafka.offset", record.offset());
+            rastreador.ativar(span, CHAVE);
+        }
+        return record;
+    }
+
+    @Override
+    public void failure(ConsumerRecord<Object, Object> record, Exception exception,
+                        Consumer<Object, Object> consumer) {
+        Span span = rastreador.ativo(CHAVE);
+        if (span != null) {
+            span.erro(exception);
+        }
+    }
+
+    @Override
+    public void afterRecord(ConsumerRecord<Object, Object> record, Consumer<Object, Object> consumer) {
+        Span span = rastreador.ativo(CHAVE);
+        if (span != null) {
+            span.finalizar();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.austa.experiencia.service.rastreamento;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+
+/**
+ * Client span for every call made through a {@link RestTemplate} bean, under
+ * the span running on the thread, with the {@code traceparent} header so the
+ * server continues the trace.
+ */
+@Component
+public class RestTemplateRastreado implements BeanPostProcessor, ClientHttpRequestInterceptor {
+
+    private final Rastreador rastreador;
+    private final boolean habilitado;
+
+    @Autowired
+    public RestTemplateRastreado(Rastreador rastreador,
+                                 @Value("${rastreamento.habilitado:true}") boolean habilitado) {
+        this.rastreador = rastreador;
+        this.habilitado = habilitado;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (habilitado && bean instanceof RestTemplate restTemplate
+                && !restTemplate.getInterceptors().contains(this)) {
+            restTemplate.getInterceptors().add(0, this);
+        }
+        return bean;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        Span span = rastreador.iniciar(request.getMethod() + " " + request.getURI().getHost(), TipoSpan.CLIENTE)
+            .atributo("http.request.method", request.getMethod().name())
+            .atributo("server.address", request.getURI().getHost())
+            .atributo("url.path", request.getURI().getPath());
+        request.getHeaders().set(ContextoSpan.CABECALHO, span.getContexto().traceparent());
+        try {
+            ClientHttpResponse resposta = execution.execute(request, body);
+            int status = resposta.getStatusCode().value();
+            span.atributo("http.response.status_code", status);
+            if (status >= 500) {
+                span.erro("HTTP " + status);
+            }
+            return resposta;
+        } catch (IOException | RuntimeException e) {
+            span.erro(e);
+            throw e;
+        } finally {
+            span.finalizar();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package br.com.austa.experiencia.service.rastreamento;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One timed operation of a trace. Started by {@link Rastreador}; attributes
+ * and links may be added until {@link #finalizar()}, which hands a sampled
+ * span to the exporter. May be finished on a thread other than the one that
+ * started it (Kafka acknowledgements).
+ */
+public final class Span {
+
+    private final Rastreador rastreador;
+    private final ContextoSpan contexto;
+    private final String paiSpanId;
+    private final String nome;
+    private final TipoSpan tipo;
+    private final long inicioEpochNanos;
+    private final Map<String, Object> atributos = new LinkedHashMap<>();
+    private final List<ContextoSpan> links = new ArrayList<>(0);
+    private volatile long fimEpochNanos;
+    private String erro;
+    private boolean falhou;
+
+    Span(Rastreador rastreador, ContextoSpan contexto, String paiSpanId, String nome, TipoSpan tipo,
+         long inicioEpochNanos) {
+        this.rastreador = rastreador;
+        this.contexto = contexto;
+        this.paiSpanId = paiSpanId;
+        this.nome = nome;
+        this.tipo = tipo;
+        this.inicioEpochNanos = inicioEpochNanos;
+    }
+
+    /**
+     * Null values are skipped, so optional fields can be passed as they come.
+     */
+    public synchronized Span atributo(String chave, Object valor) {
+        if (valor != null && contexto.isAmostrado()) {
+            atributos.put(chave, valor);
+        }
+        return this;
+    }
+
+    /**
+     * Relates a span of another trace, such as the Kafka record that correlated a message.
+     */
+    public synchronized Span link(ContextoSpan outro) {
+        if (outro != null && contexto.isAmostrado()) {
+            links.add(outro);
+        }
+        return this;
+    }
+
+    public synchronized Span erro(Throwable causa) {
+        return erro(causa.getClass().getSimpleName() + ": " + causa.getMessage());
+    }
+
+    public synchronized Span erro(String mensagem) {
+        falhou = true;
+        erro = mensagem;
+        return this;
+    }
+
+    /**
+     * Ends the span now; later calls are ignored.
+     */
+    public void finalizar() {
+        rastreador.finalizar(this, 0);
+    }
+
+    /**
+     * Ends the span at a given instant, for spans rebuilt after the fact
+     * (a process instance, reported when it ends).
+     */
+    public void finalizar(long fimEpochNanos) {
+        rastreador.finalizar(this, fimEpochNanos);
+    }
+
+    boolean marcarFim(long fim) {
+        synchronized (this) {
+            if (fimEpochNanos != 0) {
+                return false;
+            }
+            fimEpochNanos = Math.max(fim, inicioEpochNanos);
+            return true;
+        }
+    }
+
+    public ContextoSpan getContexto() {
+        return contexto;
+    }
+
+    public String getTraceId() {
+        return contexto.getTraceId();
+    }
+
+    public String getSpanId() {
+        return contexto.getSpanId();
+    }
+
+    /**
+     * Null for the root of a trace.
+     */
+    public String getPaiSpanId() {
+        return paiSpanId;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public TipoSpan getTipo() {
+        return tipo;
+    }
+
+    public long getInicioEpochNanos() {
+        return inicioEpochNanos;
+    }
+
+    /**
+     * 0 while the span is open.
+     */
+    public long getFimEpochNanos() {
+        return fimEpochNanos;
+    }
+
+    public long getDuracaoNanos() {
+        return fimEpochNanos == 0 ? 0 : fimEpochNanos - inicioEpochNanos;
+    }
+
+    public synchronized Map<String, Object> getAtributos() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(atributos));
+    }
+
+    public synchronized List<ContextoSpan> getLinks() {
+        return List.copyOf(links);
+    }
+
+    public synchronized boolean isFalhou() {
+        return falhou;
+    }
+
+    public synchronized String getErro() {
+        return erro;
+    }
+
+    @Override
+    public String toString() {
+        return nome + " [" + contexto.traceparent() + "]";
+    }
+}
@@ -0,0 +1,78 @@
+package br.com.austa.experiencia.service.rastreamento;
+
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.ExecutionListener;
+
+/**
+ * Start or end listener of one traced activity, a child of its process
+ * instance's span (read from the process, so it holds across async
+ * continuations and job executor threads).
+ *
+ * Work tasks are active on the thread while they run, so their HTTP calls and
+ * Kafka sends nest under them. Message waits end on the thread that
+ * correlated the message: their span covers the whole wait and links to the
+ * span that delivered it, usually in another trace.
+ */
+class SpanAtividadeListener implements ExecutionListener {
+
+    /** Start of a message wait, local to the waiting execution */
+    static final String VARIAVEL_ESPERA = "_rastreamento_espera";
+
+    private final Rastreador rastreador;
+    private final String processo;
+    private final String atividade;
+    private final String tipo;
+    private final boolean espera;
+    private final boolean inicio;
+
+    SpanAtividadeListener(Rastreador rastreador, String processo, String atividade, String tipo,
+                          boolean espera, boolean inicio) {
+        this.rastreador = rastreador;
+        this.processo = processo;
+        this.atividade = atividade;
+        this.tipo = tipo;
+        this.espera = espera;
+        this.inicio = inicio;
+    }
+
+    @Override
+    public void notify(DelegateExecution execution) {
+        if (espera) {
+            notificarEspera(execution);
+        } else if (inicio) {
+            ContextoSpan pai = SpanProcessoListener.contexto(execution);
+            Span span = rastreador.iniciar(atividade, TipoSpan.INTERNO, pai == null ? rastreador.atual() : pai);
+            atributos(span, execution);
+            rastreador.ativar(span, execution.getActivityInstanceId());
+        } else {
+            Span span = rastreador.ativo(execution.getActivityInstanceId());
+            if (span != null) {
+                span.finalizar();
+            }
+        }
+    }
+
+    private void notificarEspera(DelegateExecution execution) {
+        if (inicio) {
+            execution.setVariableLocal(VARIAVEL_ESPERA, rastreador.agoraEpochNanos());
+            return;
+        }
+        Object inicioEspera = execution.getVariableLocal(VARIAVEL_ESPERA);
+        ContextoSpan pai = SpanProcessoListener.contexto(execution);
+        if (!(inicioEspera instanceof Long inicioEpochNanos) || pai == null) {
+            return;
+        }
+        execution.removeVariableLocal(VARIAVEL_ESPERA);
+        Span span = rastreador.iniciar(atividade, TipoSpan.INTERNO, rastreador.novoContexto(pai), pai, inicioEpochNanos)
+            .link(rastreador.atual());
+        atributos(span, execution);
+        span.finalizar();
+    }
+
+    private void atributos(Span span, DelegateExecution execution) {
+        span.atributo("bpmn.process", processo)
+            .atributo("bpmn.activity", atividade)
+            .atributo("bpmn.activity_type", tipo)
+            .atributo("camunda.process_instance_id", execution.getProcessInstanceId());
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.austa.experiencia.service.rastreamento;
+
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.ExecutionListener;
+
+/**
+ * Start and end listener of a process definition. A process instance may
+ * outlive many commands, nodes and restarts, so its span is not held in
+ * memory: the start listener allocates the context and stores it with the
+ * start time in {@value #VARIAVEL}, activities read their parent from there,
+ * and the end listener rebuilds and reports the span.
+ *
+ * The parent is the span running on the starting thread (REST request, Kafka
+ * record, message correlation) or, for a called process, the caller's process.
+ */
+class SpanProcessoListener implements ExecutionListener {
+
+    /** {@code traceparent|startEpochNanos|parentSpanId}; the underscore keeps it out of event payloads */
+    static final String VARIAVEL = "_rastreamento";
+
+    private final Rastreador rastreador;
+    private final String processo;
+    private final boolean inicio;
+
+    SpanProcessoListener(Rastreador rastreador, String processo, boolean inicio) {
+        this.rastreador = rastreador;
+        this.processo = processo;
+        this.inicio = inicio;
+    }
+
+    @Override
+    public void notify(DelegateExecution execution) {
+        if (inicio) {
+            ContextoSpan pai = rastreador.atual();
+            if (pai == null && execution.getSuperExecution() != null) {
+                pai = contexto(execution.getSuperExecution());
+            }
+            ContextoSpan contexto = rastreador.novoContexto(pai);
+            execution.setVariableLocal(VARIAVEL, contexto.traceparent() + "|" + rastreador.agoraEpochNanos()
+                + "|" + (pai == null ? "" : pai.getSpanId()));
+            return;
+        }
+        Object valor = execution.getVariableLocal(VARIAVEL);
+        String[] partes = valor instanceof String texto ? texto.split("\\|", -1) : null;
+        ContextoSpan contexto = partes == null || partes.length != 3 ? null : ContextoSpan.deTraceparent(partes[0]);
+        if (contexto == null) {
+            return;
+        }
+        ContextoSpan pai = partes[2].isEmpty() ? null
+            : new ContextoSpan(contexto.getTraceId(), partes[2], contexto.isAmostrado());
+        rastreador.iniciar("processo " + processo, TipoSpan.INTERNO, contexto, pai, Long.parseLong(partes[1]))
+            .atributo("bpmn.process", processo)
+            .atributo("camunda.process_instance_id", execution.getProcessInstanceId())
+            .atributo("camunda.business_key", execution.getProcessBusinessKey())
+            .finalizar();
+    }
+
+    /**
+     * Context of the process instance {@code execution} belongs to, or null
+     * when it started before tracing was enabled.
+     */
+    static ContextoSpan contexto(DelegateExecution execution) {
+        Object valor = execution.getVariable(VARIAVEL);
+        if (!(valor instanceof String texto)) {
+            return null;
+        }
+        int fim = texto.indexOf('|');
+        return ContextoSpan.deTraceparent(fim < 0 ? texto : texto.substring(0, fim));
+    }
+}
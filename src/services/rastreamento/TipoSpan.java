@@ -0,0 +1,26 @@
+package br.com.austa.experiencia.service.rastreamento;
+
+/**
+ * Span kind, with its OTLP code.
+ */
+public enum TipoSpan {
+
+    /** Process instances, activities, message correlation */
+    INTERNO(1),
+    /** Outbound HTTP call */
+    CLIENTE(3),
+    /** Kafka send, ended when the broker acknowledges it */
+    PRODUTOR(4),
+    /** Kafka record handled by a listener */
+    CONSUMIDOR(5);
+
+    private final int codigoOtlp;
+
+    TipoSpan(int codigoOtlp) {
+        this.codigoOtlp = codigoOtlp;
+    }
+
+    public int getCodigoOtlp() {
+        return codigoOtlp;
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.austa.experiencia.service.timeseries;
+
+/**
+ * Streaming statistics over a range of one series: count, min, max, mean,
+ * standard deviation (Welford) and least-squares slope per day.
+ */
+public final class EstatisticasSerie {
+
+    private static final double MILLIS_DIA = 86_400_000.0;
+
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+    private double soma;
+    private double media;
+    private double m2;
+    private long primeiroTs;
+    private long ultimoTs;
+    private double primeiroValor = Double.NaN;
+    private double ultimoValor = Double.NaN;
+
+    // regression on (days since first point, value)
+    private double somaX;
+    private double somaXX;
+    private double somaXY;
+
+    public EstatisticasSerie() {
+    }
+
+    void adicionar(long ts, double valor) {
+        if (count == 0) {
+            primeiroTs = ts;
+            primeiroValor = valor;
+            min = valor;
+            max = valor;
+        } else {
+            min = Math.min(min, valor);
+            max = Math.max(max, valor);
+        }
+        count++;
+        soma += valor;
+        double delta = valor - media;
+        media += delta / count;
+        m2 += delta * (valor - media);
+
+        double x = (ts - primeiroTs) / MILLIS_DIA;
+        somaX += x;
+        somaXX += x * x;
+        somaXY += x * valor;
+
+        ultimoTs = ts;
+        ultimoValor = valor;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public double getSoma() {
+        return soma;
+    }
+
+    public double getMedia() {
+        return count > 0 ? media : Double.NaN;
+    }
+
+    public double getDesvioPadrao() {
+        return count > 1 ? Math.sqrt(m2 / (count - 1)) : 0.0;
+    }
+
+    /**
+     * Least-squares slope in marker units per day; 0 with fewer than two points.
+     */
+    public double getInclinacaoPorDia() {
+        double denominador = count * somaXX - somaX * somaX;
+        if (count < 2 || denominador == 0) {
+            return 0.0;
+        }
+        return (count * somaXY - somaX * soma) / denominador;
+    }
+
+    public long getPrimeiroTs() {
+        return primeiroTs;
+    }
+
+    public long getUltimoTs() {
+        return ultimoTs;
+    }
+
+    public double getPrimeiroValor() {
+        return primeiroValor;
+    }
+
+    public double getUltimoValor() {
+        return ultimoValor;
+    }
+}
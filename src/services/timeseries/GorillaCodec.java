@@ -0,0 +1,234 @@
+package br.com.austa.experiencia.service.timeseries;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Bit-level Gorilla codec (delta-of-delta timestamps, XOR floats) that reads
+ * and writes directly inside a block of a memory-mapped segment.
+ *
+ * Timestamp encoding (millis), per point after the first:
+ * - dod == 0: '0'
+ * - dod in [-63, 64]: '10' + 7 bits
+ * - dod in [-255, 256]: '110' + 9 bits
+ * - dod in [-2047, 2048]: '1110' + 12 bits
+ * - otherwise: '1111' + 64 bits
+ *
+ * Value encoding: first value raw (64 bits), then XOR with the previous value:
+ * - xor == 0: '0'
+ * - fits previous meaningful window: '10' + window bits
+ * - otherwise: '11' + 5 bits leading zeros + 6 bits (length - 1) + bits
+ */
+final class GorillaCodec {
+
+    /** Upper bound of bits one point can take; used to seal a block early. */
+    static final int MAX_BITS_PONTO = 4 + 64 + 2 + 5 + 6 + 64;
+
+    private GorillaCodec() {
+    }
+
+    /**
+     * Appends points to one block. Holds only the O(1) state of the last point.
+     */
+    static final class Encoder {
+
+        private final ByteBuffer buffer;
+        private final int base;
+        private final int capacidadeBits;
+
+        int bitPos;
+        int count;
+        long ultimoTs;
+        private long ultimoDelta;
+        private long ultimoValorBits;
+        private int ultimoLeading = -1;
+        private int ultimoTrailing;
+
+        Encoder(ByteBuffer buffer, int base, int capacidadeBits) {
+            this.buffer = buffer;
+            this.base = base;
+            this.capacidadeBits = capacidadeBits;
+        }
+
+        boolean temEspaco() {
+            return capacidadeBits - bitPos >= MAX_BITS_PONTO;
+        }
+
+        void adicionar(long ts, double valor) {
+            long valorBits = Double.doubleToRawLongBits(valor);
+            if (count == 0) {
+                escrever(ts, 64);
+                escrever(valorBits, 64);
+            } else {
+                long delta = ts - ultimoTs;
+                long dod = delta - ultimoDelta;
+                if (dod == 0) {
+                    escrever(0, 1);
+                } else if (dod >= -63 && dod <= 64) {
+                    escrever(0b10, 2);
+                    escrever(dod, 7);
+                } else if (dod >= -255 && dod <= 256) {
+                    escrever(0b110, 3);
+                    escrever(dod, 9);
+                } else if (dod >= -2047 && dod <= 2048) {
+                    escrever(0b1110, 4);
+                    escrever(dod, 12);
+                } else {
+                    escrever(0b1111, 4);
+                    escrever(dod, 64);
+                }
+                ultimoDelta = delta;
+                escreverValor(valorBits);
+            }
+            ultimoTs = ts;
+            ultimoValorBits = valorBits;
+            count++;
+        }
+
+        private void escreverValor(long valorBits) {
+            long xor = valorBits ^ ultimoValorBits;
+            if (xor == 0) {
+                escrever(0, 1);
+                return;
+            }
+            int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (ultimoLeading >= 0 && leading >= ultimoLeading && trailing >= ultimoTrailing) {
+                escrever(0b10, 2);
+                escrever(xor >>> ultimoTrailing, 64 - ultimoLeading - ultimoTrailing);
+            } else {
+                int significativos = 64 - leading - trailing;
+                escrever(0b11, 2);
+                escrever(leading, 5);
+                escrever(significativos - 1, 6);
+                escrever(xor >>> trailing, significativos);
+                ultimoLeading = leading;
+                ultimoTrailing = trailing;
+            }
+        }
+
+        private void escrever(long valor, int bits) {
+            while (bits > 0) {
+                int indice = base + (bitPos >>> 3);
+                int livres = 8 - (bitPos & 7);
+                int n = Math.min(livres, bits);
+                int parte = (int) ((valor >>> (bits - n)) & ((1 << n) - 1));
+                buffer.put(indice, (byte) (buffer.get(indice) | (parte << (livres - n))));
+                bitPos += n;
+                bits -= n;
+            }
+        }
+
+        /**
+         * Rebuilds encoder state from already written points, e.g. after restart.
+         */
+        void restaurar(int pontos) {
+            Decoder decoder = new Decoder(buffer, base, pontos);
+            while (decoder.proximo()) {
+                // walk to the end to recover the last point state
+            }
+            bitPos = decoder.bitPos;
+            count = pontos;
+            ultimoTs = decoder.ts;
+            ultimoDelta = decoder.delta;
+            ultimoValorBits = decoder.valorBits;
+            ultimoLeading = decoder.leading;
+            ultimoTrailing = decoder.trailing;
+        }
+    }
+
+    /**
+     * Streams the points of one block without materializing them.
+     */
+    static final class Decoder {
+
+        private final ByteBuffer buffer;
+        private final int base;
+        private final int total;
+
+        int bitPos;
+        private int lidos;
+        long ts;
+        long delta;
+        long valorBits;
+        int leading = -1;
+        int trailing;
+
+        Decoder(ByteBuffer buffer, int base, int total) {
+            this.buffer = buffer;
+            this.base = base;
+            this.total = total;
+        }
+
+        boolean proximo() {
+            if (lidos >= total) {
+                return false;
+            }
+            if (lidos == 0) {
+                ts = ler(64);
+                valorBits = ler(64);
+            } else {
+                long dod;
+                if (ler(1) == 0) {
+                    dod = 0;
+                } else if (ler(1) == 0) {
+                    dod = estender(ler(7), 7);
+                } else if (ler(1) == 0) {
+                    dod = estender(ler(9), 9);
+                } else if (ler(1) == 0) {
+                    dod = estender(ler(12), 12);
+                } else {
+                    dod = ler(64);
+                }
+                delta += dod;
+                ts += delta;
+                lerValor();
+            }
+            lidos++;
+            return true;
+        }
+
+        double valor() {
+            return Double.longBitsToDouble(valorBits);
+        }
+
+        private void lerValor() {
+            if (ler(1) == 0) {
+                return;
+            }
+            if (ler(1) == 1) {
+                leading = (int) ler(5);
+                int significativos = (int) ler(6) + 1;
+                trailing = 64 - leading - significativos;
+            }
+            int significativos = 64 - leading - trailing;
+            valorBits ^= ler(significativos) << trailing;
+        }
+
+        private long ler(int bits) {
+            long resultado = 0;
+            while (bits > 0) {
+                int atual = buffer.get(base + (bitPos >>> 3)) & 0xFF;
+                int disponiveis = 8 - (bitPos & 7);
+                int n = Math.min(disponiveis, bits);
+                int parte = (atual >>> (disponiveis - n)) & ((1 << n) - 1);
+                resultado = (resultado << n) | parte;
+                bitPos += n;
+                bits -= n;
+            }
+            return resultado;
+        }
+
+        /**
+         * Two's-complement sign extension of an n-bit field. Positive bounds of
+         * each bucket (64, 256, 2048) wrap to the negative minimum, which the
+         * encoder never produces, so they are mapped back here.
+         */
+        private static long estender(long valor, int bits) {
+            long limite = 1L << (bits - 1);
+            if (valor == limite) {
+                return limite;
+            }
+            return valor >= limite ? valor - (1L << bits) : valor;
+        }
+    }
+}
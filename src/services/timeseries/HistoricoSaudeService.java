@@ -0,0 +1,214 @@
+package br.com.austa.experiencia.service.timeseries;
+
+import br.com.austa.experiencia.exception.IntegrationException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Historico Saude Service - health-marker history for chronic programs (SUB-008)
+ *
+ * Publishes collected markers to {@code timeseries.topico-marcadores}, keyed
+ * by beneficiary, and answers trend questions over long windows by streaming
+ * the compressed series of {@link TimeSeriesStore}, so the delegates never
+ * load raw history onto the heap. Every instance feeds its own store from
+ * that topic ({@link MarcadoresSaudeConsumer}):
+ * {"beneficiarioId": "...", "leituras": [{"marcador": "PESO", "timestamp": 1733900000000, "valor": 84.2}]}
+ *
+ * A collection is published only once the engine transaction that made it
+ * commits, so a step that fails and is retried contributes its readings
+ * once. Trends therefore reflect the readings consumed so far, not yet the
+ * collection being registered.
+ */
+@Service
+public class HistoricoSaudeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoricoSaudeService.class);
+
+    private static final ZoneId FUSO = ZoneId.of("America/Sao_Paulo");
+
+    /** Relative change between windows below which a marker is STABLE. */
+    private static final double LIMIAR_ESTAVEL = 0.02;
+
+    @Autowired
+    private TimeSeriesStore timeSeriesStore;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${timeseries.topico-marcadores:saude-marcadores}")
+    private String topico;
+
+    /**
+     * Publishes every numeric marker of a collection. Blood pressure arrives as
+     * "sistolica/diastolica" and is split into two series; lab markers use the
+     * lab "dataColeta" when present.
+     *
+     * @return number of readings published, or to be published on commit
+     */
+    public int registrarColeta(String beneficiarioId, Map<String, Object> marcadores, Temporal coletadoEm) {
+        long timestamp = toEpochMilli(coletadoEm);
+        Object dataLaboratorio = marcadores.get("dataColeta");
+        long timestampLaboratorio = dataLaboratorio instanceof Temporal
+            ? toEpochMilli((Temporal) dataLaboratorio) : timestamp;
+
+        List<Map<String, Object>> leituras = new ArrayList<>();
+        for (Map.Entry<String, Object> entrada : marcadores.entrySet()) {
+            String chave = entrada.getKey();
+            Object valor = entrada.getValue();
+
+            if ("pressaoArterial".equals(chave) && valor instanceof String) {
+                String[] partes = ((String) valor).split("/");
+                if (partes.length == 2) {
+                    adicionar(leituras, beneficiarioId, Marcador.PA_SISTOLICA, timestamp, partes[0]);
+                    adicionar(leituras, beneficiarioId, Marcador.PA_DIASTOLICA, timestamp, partes[1]);
+                }
+                continue;
+            }
+
+            Marcador marcador = Marcador.porChave(chave);
+            if (marcador != null && valor instanceof Number) {
+                long ts = marcador.isLaboratorial() ? timestampLaboratorio : timestamp;
+                leituras.add(leitura(marcador, ts, ((Number) valor).doubleValue()));
+            }
+        }
+        if (leituras.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Object> coleta = new LinkedHashMap<>();
+        coleta.put("beneficiarioId", beneficiarioId);
+        coleta.put("leituras", leituras);
+        String mensagem;
+        try {
+            mensagem = objectMapper.writeValueAsString(coleta);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize health markers of " + beneficiarioId, e);
+        }
+        CommandContext commandContext = Context.getCommandContext();
+        if (commandContext == null) {
+            publicar(beneficiarioId, mensagem);
+        } else {
+            commandContext.getTransactionContext().addTransactionListener(TransactionState.COMMITTED,
+                contexto -> publicar(beneficiarioId, mensagem));
+        }
+        return leituras.size();
+    }
+
+    /**
+     * Trend of a marker: mean of the recent window against the mean of the
+     * preceding window of equal length, oriented by whether lower is better.
+     *
+     * @return IMPROVING, WORSENING, STABLE or INSUFFICIENT_DATA
+     */
+    public String tendencia(String beneficiarioId, Marcador marcador, Temporal agora, Duration janela) {
+        exigirReplicado();
+        long fim = toEpochMilli(agora);
+        long meio = fim - janela.toMillis();
+        long inicio = meio - janela.toMillis();
+
+        EstatisticasSerie recente = timeSeriesStore.estatisticas(beneficiarioId, marcador, meio + 1, fim);
+        EstatisticasSerie anterior = timeSeriesStore.estatisticas(beneficiarioId, marcador, inicio, meio);
+
+        double variacao;
+        if (recente.getCount() > 0 && anterior.getCount() > 0) {
+            variacao = (recente.getMedia() - anterior.getMedia()) / Math.abs(anterior.getMedia());
+        } else {
+            // Only one window has data: fall back to the slope over it
+            EstatisticasSerie todos = recente.getCount() > 0 ? recente : anterior;
+            if (todos.getCount() < 2) {
+                return "INSUFFICIENT_DATA";
+            }
+            double dias = (todos.getUltimoTs() - todos.getPrimeiroTs()) / 86_400_000.0;
+            variacao = todos.getInclinacaoPorDia() * dias / Math.abs(todos.getMedia());
+        }
+
+        if (Double.isNaN(variacao) || Math.abs(variacao) < LIMIAR_ESTAVEL) {
+            return "STABLE";
+        }
+        boolean melhorou = marcador.isMenorMelhor() ? variacao < 0 : variacao > 0;
+        return melhorou ? "IMPROVING" : "WORSENING";
+    }
+
+    /**
+     * Summary statistics of a marker over the window ending at {@code agora}.
+     */
+    public Map<String, Object> resumo(String beneficiarioId, Marcador marcador, Temporal agora, Duration janela) {
+        exigirReplicado();
+        long fim = toEpochMilli(agora);
+        EstatisticasSerie estatisticas =
+            timeSeriesStore.estatisticas(beneficiarioId, marcador, fim - janela.toMillis(), fim);
+
+        Map<String, Object> resumo = new HashMap<>();
+        resumo.put("leituras", estatisticas.getCount());
+        if (estatisticas.getCount() > 0) {
+            resumo.put("media", estatisticas.getMedia());
+            resumo.put("minimo", estatisticas.getMin());
+            resumo.put("maximo", estatisticas.getMax());
+            resumo.put("desvioPadrao", estatisticas.getDesvioPadrao());
+            resumo.put("inclinacaoPorDia", estatisticas.getInclinacaoPorDia());
+            resumo.put("ultimoValor", estatisticas.getUltimoValor());
+        }
+        return resumo;
+    }
+
+    private void exigirReplicado() {
+        if (!timeSeriesStore.isReplicado()) {
+            throw new IntegrationException("Histórico de marcadores indisponível: tópico ainda em carga");
+        }
+    }
+
+    private void publicar(String beneficiarioId, String mensagem) {
+        kafkaTemplate.send(new ProducerRecord<>(topico, beneficiarioId, mensagem)).addCallback(
+            resultado -> { },
+            e -> logger.error("Error publishing health markers of beneficiary {}: {}",
+                beneficiarioId, e.getMessage(), e));
+    }
+
+    private void adicionar(List<Map<String, Object>> leituras, String beneficiarioId, Marcador marcador,
+                           long timestamp, String valor) {
+        try {
+            leituras.add(leitura(marcador, timestamp, Double.parseDouble(valor.trim())));
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid {} reading for beneficiary {}: {}", marcador, beneficiarioId, valor);
+        }
+    }
+
+    private static Map<String, Object> leitura(Marcador marcador, long timestamp, double valor) {
+        Map<String, Object> leitura = new LinkedHashMap<>();
+        leitura.put("marcador", marcador.name());
+        leitura.put("timestamp", timestamp);
+        leitura.put("valor", valor);
+        return leitura;
+    }
+
+    private static long toEpochMilli(Temporal temporal) {
+        if (temporal instanceof LocalDateTime) {
+            return ((LocalDateTime) temporal).atZone(FUSO).toInstant().toEpochMilli();
+        }
+        return Instant.from(temporal).toEpochMilli();
+    }
+}
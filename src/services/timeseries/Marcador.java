@@ -0,0 +1,70 @@
+package br.com.austa.experiencia.service.timeseries;
+
+/**
+ * Health markers stored as time series for chronic-care programs (SUB-008).
+ *
+ * {@code chave} is the key used in the {@code marcadoresColetados} process
+ * variable; {@code metaId} is the goal id set by DefinirMetasTerapeuticasDelegate.
+ */
+public enum Marcador {
+
+    HBA1C("hbA1c", "HbA1c", true, true),
+    GLICEMIA_JEJUM("glicemiaJejum", "GLICEMIA", true, true),
+    GLICOSE_CGM("glicoseCgm", null, true, false),
+    PA_SISTOLICA("paSistolica", "PA_SISTOLICA", true, false),
+    PA_DIASTOLICA("paDiastolica", "PA_DIASTOLICA", true, false),
+    PESO("peso", "PESO", true, false),
+    FREQUENCIA_CARDIACA("frequenciaCardiaca", null, true, false),
+    PASSOS_DIARIOS("passosDiarios", null, false, false),
+    COLESTEROL_TOTAL("colesterolTotal", null, true, true);
+
+    private final String chave;
+    private final String metaId;
+    private final boolean menorMelhor;
+    private final boolean laboratorial;
+
+    Marcador(String chave, String metaId, boolean menorMelhor, boolean laboratorial) {
+        this.chave = chave;
+        this.metaId = metaId;
+        this.menorMelhor = menorMelhor;
+        this.laboratorial = laboratorial;
+    }
+
+    public String getChave() {
+        return chave;
+    }
+
+    public String getMetaId() {
+        return metaId;
+    }
+
+    public boolean isMenorMelhor() {
+        return menorMelhor;
+    }
+
+    /**
+     * Lab results are timestamped with their collection date ("dataColeta"),
+     * so re-reading the same result does not create a new point.
+     */
+    public boolean isLaboratorial() {
+        return laboratorial;
+    }
+
+    public static Marcador porChave(String chave) {
+        for (Marcador marcador : values()) {
+            if (marcador.chave.equals(chave)) {
+                return marcador;
+            }
+        }
+        return null;
+    }
+
+    public static Marcador porMetaId(String metaId) {
+        for (Marcador marcador : values()) {
+            if (metaId != null && metaId.equals(marcador.metaId)) {
+                return marcador;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,87 @@
+package br.com.austa.experiencia.service.timeseries;
+
+import br.com.austa.experiencia.service.kafka.ReposicaoTopico;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Feeds the health-marker store from the marker topic published by
+ * {@link HistoricoSaudeService#registrarColeta}.
+ *
+ * Trends are read on whichever instance runs the SUB-008 step, and each
+ * keeps its own store, so each instance consumes every partition under its
+ * own group from the beginning. The store drops readings at or before the
+ * last timestamp of their series, which makes the replay after a restart
+ * store nothing twice. Until the replay has reached the end offsets read at
+ * startup the store reports itself not replicated.
+ */
+@Component("marcadoresSaudeConsumer")
+public class MarcadoresSaudeConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MarcadoresSaudeConsumer.class);
+
+    @Autowired
+    private TimeSeriesStore timeSeriesStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private KafkaAdmin kafkaAdmin;
+
+    @Value("${timeseries.topico-marcadores:saude-marcadores}")
+    private String topico;
+
+    private ReposicaoTopico reposicao;
+
+    @PostConstruct
+    public void iniciar() {
+        reposicao = ReposicaoTopico.iniciar(kafkaAdmin, topico);
+        timeSeriesStore.setReplicado(reposicao.isConcluida());
+    }
+
+    @KafkaListener(topics = "${timeseries.topico-marcadores:saude-marcadores}",
+                   groupId = "#{'${timeseries.kafka.group-id:historico-saude}-' + T(java.util.UUID).randomUUID()}",
+                   properties = "auto.offset.reset=earliest")
+    public void onColeta(ConsumerRecord<String, String> registro) throws Exception {
+        try {
+            aplicar(registro.value());
+        } finally {
+            // a record that keeps failing is skipped by the error handler; the replay must still end
+            if (reposicao.avancar(registro.partition(), registro.offset())) {
+                timeSeriesStore.setReplicado(true);
+            }
+        }
+    }
+
+    private void aplicar(String mensagem) throws Exception {
+        JsonNode coleta = objectMapper.readTree(mensagem);
+        String beneficiarioId = coleta.path("beneficiarioId").asText(null);
+        if (beneficiarioId == null) {
+            logger.warn("Ignoring health markers without beneficiarioId: {}", mensagem);
+            return;
+        }
+        for (JsonNode leitura : coleta.path("leituras")) {
+            Marcador marcador;
+            try {
+                marcador = Marcador.valueOf(leitura.path("marcador").asText());
+            } catch (IllegalArgumentException e) {
+                logger.warn("Ignoring unknown marker {} for beneficiary {}", leitura.path("marcador").asText(),
+                    beneficiarioId);
+                continue;
+            }
+            timeSeriesStore.registrar(beneficiarioId, marcador, leitura.path("timestamp").asLong(),
+                leitura.path("valor").asDouble());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.austa.experiencia.service.timeseries;
+
+/**
+ * One downsampled bucket (or rolling window ending at a bucket) of a series.
+ */
+public final class PontoAgregado {
+
+    private final long inicio;
+    private final long count;
+    private final double soma;
+    private final double min;
+    private final double max;
+
+    PontoAgregado(long inicio, long count, double soma, double min, double max) {
+        this.inicio = inicio;
+        this.count = count;
+        this.soma = soma;
+        this.min = min;
+        this.max = max;
+    }
+
+    public long getInicio() {
+        return inicio;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSoma() {
+        return soma;
+    }
+
+    public double getMedia() {
+        return count > 0 ? soma / count : Double.NaN;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+}
@@ -0,0 +1,435 @@
+package br.com.austa.experiencia.service.timeseries;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Time Series Store - compressed per-beneficiary, per-marker health series
+ *
+ * Points are Gorilla-compressed ({@link GorillaCodec}) into fixed-size blocks
+ * carved sequentially out of append-only memory-mapped segment files. Each
+ * block belongs to one series; a series is the ordered list of its blocks.
+ * Only the small block index and the O(1) encoder state of the open block of
+ * each series live on the heap; scans decode straight from the mapped pages.
+ *
+ * Block layout (bytes): magic(4) count(4) bitPos(4) marcador(4) primeiroTs(8)
+ * ultimoTs(8) keyLen(2) key(36) ... data from byte 80.
+ *
+ * Readers are lock-free: a block's count is published with release semantics
+ * after its bits are written, and readers decode only that many points.
+ *
+ * Each instance keeps its own store, fed from the marker topic by
+ * {@link MarcadoresSaudeConsumer}. A reading at or before the last timestamp
+ * of its series is dropped, so replaying the topic after a restart, or the
+ * same (beneficiary, marker, timestamp) delivered twice, stores nothing new.
+ */
+@Component("timeSeriesStore")
+public class TimeSeriesStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimeSeriesStore.class);
+
+    /** Receives decoded points of a scan. */
+    @FunctionalInterface
+    public interface PontoConsumer {
+        void aceitar(long timestamp, double valor);
+    }
+
+    private static final int MAGIC = 0x54534231; // "TSB1"
+    private static final int TAMANHO_BLOCO = 4096;
+    private static final int MAX_CHAVE = 36;
+
+    private static final int OFF_MAGIC = 0;
+    private static final int OFF_COUNT = 4;
+    private static final int OFF_BITPOS = 8;
+    private static final int OFF_MARCADOR = 12;
+    private static final int OFF_PRIMEIRO_TS = 16;
+    private static final int OFF_ULTIMO_TS = 24;
+    private static final int OFF_CHAVE_LEN = 32;
+    private static final int OFF_CHAVE = 34;
+    private static final int OFF_DADOS = 80;
+    private static final int CAPACIDADE_BITS = (TAMANHO_BLOCO - OFF_DADOS) * 8;
+
+    private static final VarHandle INT_VIEW =
+        MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private final Path diretorio;
+    private final int blocosPorSegmento;
+    private final List<MappedByteBuffer> segmentos = new CopyOnWriteArrayList<>();
+    private final List<FileChannel> canais = new CopyOnWriteArrayList<>();
+    private final ConcurrentHashMap<String, Serie> series = new ConcurrentHashMap<>();
+
+    private int proximoBloco;
+
+    private final LongAdder duplicadas = new LongAdder();
+    private volatile boolean replicado = true;
+
+    @Autowired
+    public TimeSeriesStore(@Value("${timeseries.path:./data/timeseries}") String diretorio,
+                           @Value("${timeseries.segmento-bytes:67108864}") long bytesPorSegmento)
+            throws IOException {
+        this.diretorio = Paths.get(diretorio);
+        this.blocosPorSegmento = (int) (bytesPorSegmento / TAMANHO_BLOCO);
+        Files.createDirectories(this.diretorio);
+        abrirSegmentos();
+        logger.info("Time series store opened at {}: {} segments, {} series",
+            this.diretorio, segmentos.size(), series.size());
+    }
+
+    /**
+     * Appends one reading. Readings must arrive in timestamp order per series;
+     * late or duplicate readings are rejected and {@code false} is returned.
+     */
+    public boolean registrar(String beneficiarioId, Marcador marcador, long timestamp, double valor) {
+        Serie serie = series.computeIfAbsent(chave(beneficiarioId, marcador),
+            k -> new Serie(beneficiarioId, marcador));
+
+        synchronized (serie) {
+            GorillaCodec.Encoder encoder = serie.encoder;
+            if (encoder != null && encoder.count > 0 && timestamp <= encoder.ultimoTs) {
+                if (timestamp == encoder.ultimoTs) {
+                    duplicadas.increment();
+                } else {
+                    logger.debug("Out-of-order reading dropped: {} {} ts={}", beneficiarioId, marcador, timestamp);
+                }
+                return false;
+            }
+            if (encoder == null || !encoder.temEspaco()) {
+                encoder = serie.abrirBloco(alocarBloco(serie), timestamp);
+            }
+            encoder.adicionar(timestamp, valor);
+
+            MappedByteBuffer segmento = segmento(serie.blocoAtual);
+            int base = offset(serie.blocoAtual);
+            segmento.putLong(base + OFF_ULTIMO_TS, timestamp);
+            segmento.putInt(base + OFF_BITPOS, encoder.bitPos);
+            INT_VIEW.setRelease(segmento, base + OFF_COUNT, encoder.count);
+            serie.ultimoTs = timestamp;
+            return true;
+        }
+    }
+
+    /**
+     * Streams every reading in [de, ate] in timestamp order.
+     */
+    public void scan(String beneficiarioId, Marcador marcador, long de, long ate, PontoConsumer consumer) {
+        Serie serie = series.get(chave(beneficiarioId, marcador));
+        if (serie == null) {
+            return;
+        }
+        long[] blocos;
+        long[] inicios;
+        int total;
+        synchronized (serie) {
+            blocos = serie.blocos;
+            inicios = serie.inicios;
+            total = serie.total;
+        }
+
+        int primeiro = Arrays.binarySearch(inicios, 0, total, de);
+        if (primeiro < 0) {
+            primeiro = Math.max(0, -primeiro - 2);
+        }
+        for (int i = primeiro; i < total && inicios[i] <= ate; i++) {
+            MappedByteBuffer segmento = segmento(blocos[i]);
+            int base = offset(blocos[i]);
+            int count = (int) INT_VIEW.getAcquire(segmento, base + OFF_COUNT);
+            if (segmento.getLong(base + OFF_ULTIMO_TS) < de) {
+                continue;
+            }
+            GorillaCodec.Decoder decoder = new GorillaCodec.Decoder(segmento, base + OFF_DADOS, count);
+            while (decoder.proximo()) {
+                if (decoder.ts > ate) {
+                    return;
+                }
+                if (decoder.ts >= de) {
+                    consumer.aceitar(decoder.ts, decoder.valor());
+                }
+            }
+        }
+    }
+
+    public EstatisticasSerie estatisticas(String beneficiarioId, Marcador marcador, long de, long ate) {
+        EstatisticasSerie estatisticas = new EstatisticasSerie();
+        scan(beneficiarioId, marcador, de, ate, estatisticas::adicionar);
+        return estatisticas;
+    }
+
+    /**
+     * Fixed-width buckets aligned to {@code de}; empty buckets are omitted.
+     */
+    public List<PontoAgregado> downsample(String beneficiarioId, Marcador marcador,
+                                          long de, long ate, long intervaloMillis) {
+        List<PontoAgregado> resultado = new ArrayList<>();
+        double[] acc = new double[4]; // count, soma, min, max
+        long[] bucket = {Long.MIN_VALUE};
+
+        scan(beneficiarioId, marcador, de, ate, (ts, valor) -> {
+            long inicio = de + ((ts - de) / intervaloMillis) * intervaloMillis;
+            if (inicio != bucket[0]) {
+                if (acc[0] > 0) {
+                    resultado.add(new PontoAgregado(bucket[0], (long) acc[0], acc[1], acc[2], acc[3]));
+                }
+                bucket[0] = inicio;
+                acc[0] = 0;
+                acc[1] = 0;
+                acc[2] = Double.POSITIVE_INFINITY;
+                acc[3] = Double.NEGATIVE_INFINITY;
+            }
+            acc[0]++;
+            acc[1] += valor;
+            acc[2] = Math.min(acc[2], valor);
+            acc[3] = Math.max(acc[3], valor);
+        });
+        if (acc[0] > 0) {
+            resultado.add(new PontoAgregado(bucket[0], (long) acc[0], acc[1], acc[2], acc[3]));
+        }
+        return resultado;
+    }
+
+    /**
+     * Rolling aggregate over the last {@code janelaBuckets} buckets, one point
+     * per non-empty bucket (e.g. 7-day rolling mean of daily CGM buckets).
+     */
+    public List<PontoAgregado> janelaMovel(String beneficiarioId, Marcador marcador, long de, long ate,
+                                           long intervaloMillis, int janelaBuckets) {
+        List<PontoAgregado> buckets = downsample(beneficiarioId, marcador, de, ate, intervaloMillis);
+        List<PontoAgregado> resultado = new ArrayList<>(buckets.size());
+        long largura = intervaloMillis * janelaBuckets;
+        int inicioJanela = 0;
+        long count = 0;
+        double soma = 0;
+
+        for (int i = 0; i < buckets.size(); i++) {
+            PontoAgregado atual = buckets.get(i);
+            count += atual.getCount();
+            soma += atual.getSoma();
+            while (buckets.get(inicioJanela).getInicio() <= atual.getInicio() - largura) {
+                count -= buckets.get(inicioJanela).getCount();
+                soma -= buckets.get(inicioJanela).getSoma();
+                inicioJanela++;
+            }
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int j = inicioJanela; j <= i; j++) {
+                min = Math.min(min, buckets.get(j).getMin());
+                max = Math.max(max, buckets.get(j).getMax());
+            }
+            resultado.add(new PontoAgregado(atual.getInicio(), count, soma, min, max));
+        }
+        return resultado;
+    }
+
+    public int totalSeries() {
+        return series.size();
+    }
+
+    /**
+     * Readings dropped because their series already held that timestamp.
+     */
+    public long getDuplicadas() {
+        return duplicadas.sum();
+    }
+
+    /**
+     * False while the marker topic is being replayed after startup: series may
+     * still miss readings.
+     */
+    public boolean isReplicado() {
+        return replicado;
+    }
+
+    public void setReplicado(boolean replicado) {
+        this.replicado = replicado;
+    }
+
+    @PreDestroy
+    public void fechar() throws IOException {
+        for (MappedByteBuffer segmento : segmentos) {
+            segmento.force();
+        }
+        for (FileChannel canal : canais) {
+            canal.close();
+        }
+    }
+
+    private synchronized long alocarBloco(Serie serie) {
+        int indiceSegmento = proximoBloco / blocosPorSegmento;
+        if (indiceSegmento >= segmentos.size()) {
+            try {
+                mapearSegmento(indiceSegmento);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not create time series segment " + indiceSegmento, e);
+            }
+        }
+        long endereco = ((long) indiceSegmento << 32) | ((long) (proximoBloco % blocosPorSegmento) * TAMANHO_BLOCO);
+        proximoBloco++;
+
+        MappedByteBuffer segmento = segmento(endereco);
+        int base = offset(endereco);
+        byte[] chave = serie.beneficiarioId.getBytes(StandardCharsets.UTF_8);
+        segmento.putInt(base + OFF_MARCADOR, serie.marcador.ordinal());
+        segmento.putShort(base + OFF_CHAVE_LEN, (short) chave.length);
+        for (int i = 0; i < chave.length; i++) {
+            segmento.put(base + OFF_CHAVE + i, chave[i]);
+        }
+        segmento.putInt(base + OFF_MAGIC, MAGIC);
+        return endereco;
+    }
+
+    private void abrirSegmentos() throws IOException {
+        List<Path> arquivos = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(diretorio)) {
+            stream.filter(p -> p.getFileName().toString().startsWith("seg-")).sorted().forEach(arquivos::add);
+        }
+        for (int i = 0; i < arquivos.size(); i++) {
+            mapearSegmento(i);
+        }
+
+        // Rebuild the block index; blocks were allocated in time order
+        proximoBloco = 0;
+        varredura:
+        for (int s = 0; s < segmentos.size(); s++) {
+            MappedByteBuffer segmento = segmentos.get(s);
+            for (int b = 0; b < blocosPorSegmento; b++) {
+                int base = b * TAMANHO_BLOCO;
+                if (segmento.getInt(base + OFF_MAGIC) != MAGIC) {
+                    break varredura;
+                }
+                proximoBloco++;
+                if (segmento.getInt(base + OFF_COUNT) == 0) {
+                    // allocated but never written (crash between allocation and first append)
+                    continue;
+                }
+                long endereco = ((long) s << 32) | base;
+                Marcador marcador = Marcador.values()[segmento.getInt(base + OFF_MARCADOR)];
+                byte[] chave = new byte[segmento.getShort(base + OFF_CHAVE_LEN)];
+                for (int i = 0; i < chave.length; i++) {
+                    chave[i] = segmento.get(base + OFF_CHAVE + i);
+                }
+                String beneficiarioId = new String(chave, StandardCharsets.UTF_8);
+                Serie serie = series.computeIfAbsent(chave(beneficiarioId, marcador),
+                    k -> new Serie(beneficiarioId, marcador));
+                serie.anexar(endereco, segmento.getLong(base + OFF_PRIMEIRO_TS));
+            }
+        }
+
+        // Only the open (last) block of each series needs its encoder state back
+        for (Serie serie : series.values()) {
+            serie.restaurarEncoder();
+        }
+    }
+
+    private void mapearSegmento(int indice) throws IOException {
+        Path arquivo = diretorio.resolve(String.format("seg-%06d.dat", indice));
+        FileChannel canal = FileChannel.open(arquivo,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        canais.add(canal);
+        segmentos.add(canal.map(FileChannel.MapMode.READ_WRITE, 0, (long) blocosPorSegmento * TAMANHO_BLOCO));
+    }
+
+    private MappedByteBuffer segmento(long endereco) {
+        return segmentos.get((int) (endereco >>> 32));
+    }
+
+    private static int offset(long endereco) {
+        return (int) endereco;
+    }
+
+    private static String chave(String beneficiarioId, Marcador marcador) {
+        if (beneficiarioId.getBytes(StandardCharsets.UTF_8).length > MAX_CHAVE) {
+            throw new IllegalArgumentException("beneficiarioId too long for time series store: " + beneficiarioId);
+        }
+        return beneficiarioId + '|' + marcador.ordinal();
+    }
+
+    /**
+     * Heap-side index of one series: block addresses, their first timestamps
+     * and the encoder of the open block. Arrays are replaced, never mutated in
+     * place below {@code total}, so scans can use a snapshot without locking.
+     */
+    private final class Serie {
+
+        final String beneficiarioId;
+        final Marcador marcador;
+        long[] blocos = new long[4];
+        long[] inicios = new long[4];
+        int total;
+        long blocoAtual;
+        long ultimoTs;
+        GorillaCodec.Encoder encoder;
+
+        Serie(String beneficiarioId, Marcador marcador) {
+            this.beneficiarioId = beneficiarioId;
+            this.marcador = marcador;
+        }
+
+        GorillaCodec.Encoder abrirBloco(long endereco, long primeiroTs) {
+            MappedByteBuffer segmento = segmento(endereco);
+            int base = offset(endereco);
+            segmento.putLong(base + OFF_PRIMEIRO_TS, primeiroTs);
+            anexar(endereco, primeiroTs);
+            encoder = new GorillaCodec.Encoder(segmento, base + OFF_DADOS, CAPACIDADE_BITS);
+            return encoder;
+        }
+
+        void restaurarEncoder() {
+            MappedByteBuffer segmento = segmento(blocoAtual);
+            int base = offset(blocoAtual);
+            int count = segmento.getInt(base + OFF_COUNT);
+            encoder = new GorillaCodec.Encoder(segmento, base + OFF_DADOS, CAPACIDADE_BITS);
+            encoder.restaurar(count);
+            limparAposBitPos(segmento, base, encoder.bitPos);
+            ultimoTs = encoder.ultimoTs;
+        }
+
+        void anexar(long endereco, long primeiroTs) {
+            if (total == blocos.length) {
+                blocos = Arrays.copyOf(blocos, total * 2);
+                inicios = Arrays.copyOf(inicios, total * 2);
+            }
+            blocos[total] = endereco;
+            inicios[total] = primeiroTs;
+            total++;
+            blocoAtual = endereco;
+        }
+
+        /**
+         * Bits past the last published point may be left over from a crash
+         * mid-append; the encoder ORs bits in, so they must be zero.
+         */
+        private void limparAposBitPos(MappedByteBuffer segmento, int base, int bitPos) {
+            int inicio = base + OFF_DADOS + (bitPos >>> 3);
+            int resto = bitPos & 7;
+            if (resto != 0) {
+                segmento.put(inicio, (byte) (segmento.get(inicio) & (0xFF << (8 - resto))));
+                inicio++;
+            }
+            for (int i = inicio; i < base + TAMANHO_BLOCO; i++) {
+                segmento.put(i, (byte) 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.austa.experiencia.service.utilizacao;
+
+/**
+ * Groupings of the utilization statement ({@code agruparPor}).
+ */
+public enum AgrupamentoExtrato {
+
+    /** One line per month of service. */
+    DATA,
+
+    /** One line per service type. */
+    TIPO,
+
+    /** One line per provider. */
+    PRESTADOR;
+
+    /**
+     * @return the grouping named {@code nome}, {@link #DATA} when absent
+     */
+    public static AgrupamentoExtrato de(String nome) {
+        if (nome == null || nome.isBlank()) {
+            return DATA;
+        }
+        try {
+            return valueOf(nome.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Agrupamento de extrato não suportado: " + nome);
+        }
+    }
+}
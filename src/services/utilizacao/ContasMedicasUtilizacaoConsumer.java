@@ -0,0 +1,87 @@
+package br.com.austa.experiencia.service.utilizacao;
+
+import br.com.austa.experiencia.service.kafka.ReposicaoTopico;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.time.LocalDate;
+
+/**
+ * Feeds the utilization store from the Tasy billed claims feed, one event per
+ * claim item. A reversal carries the item id and values of the billed item.
+ *
+ * {"itemId": 98765432, "beneficiarioId": "...", "dataAtendimento": "2025-11-03",
+ *  "codigoTuss": "10101012", "tipoServico": "CONSULTA", "prestadorId": "PREST-123",
+ *  "valor": 150.00, "operacao": "INCLUSAO" | "ESTORNO"}
+ *
+ * A statement can be requested on any instance, so each instance consumes
+ * every partition under its own group from the beginning. Until the replay
+ * has reached the end offsets read at startup the store reports itself not
+ * replicated.
+ */
+@Component("contasMedicasUtilizacaoConsumer")
+public class ContasMedicasUtilizacaoConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContasMedicasUtilizacaoConsumer.class);
+
+    @Autowired
+    private UtilizacaoStore utilizacaoStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private KafkaAdmin kafkaAdmin;
+
+    @Value("${utilizacao.topico:tasy-contas-medicas}")
+    private String topico;
+
+    private ReposicaoTopico reposicao;
+
+    @PostConstruct
+    public void iniciar() {
+        reposicao = ReposicaoTopico.iniciar(kafkaAdmin, topico);
+        utilizacaoStore.setReplicado(reposicao.isConcluida());
+    }
+
+    @KafkaListener(topics = "${utilizacao.topico:tasy-contas-medicas}",
+                   groupId = "#{'${utilizacao.kafka.group-id:extrato-utilizacao}-' + T(java.util.UUID).randomUUID()}",
+                   properties = "auto.offset.reset=earliest")
+    public void onItem(ConsumerRecord<String, String> registro) throws Exception {
+        try {
+            aplicar(registro.value());
+        } finally {
+            // a record that keeps failing is skipped by the error handler; the replay must still end
+            if (reposicao.avancar(registro.partition(), registro.offset())) {
+                utilizacaoStore.setReplicado(true);
+            }
+        }
+    }
+
+    private void aplicar(String mensagem) throws Exception {
+        JsonNode evento = objectMapper.readTree(mensagem);
+        long itemId = evento.path("itemId").asLong(-1);
+        String beneficiarioId = evento.path("beneficiarioId").asText(null);
+        String dataAtendimento = evento.path("dataAtendimento").asText(null);
+        if (itemId < 0 || beneficiarioId == null || dataAtendimento == null || !evento.hasNonNull("valor")) {
+            logger.warn("Ignoring invalid claim item event: {}", mensagem);
+            return;
+        }
+        utilizacaoStore.registrar(new RegistroUtilizacao(itemId, beneficiarioId,
+            LocalDate.parse(dataAtendimento),
+            evento.path("codigoTuss").asText(null),
+            TipoServicoUtilizacao.de(evento.path("tipoServico").asText(null)),
+            evento.path("prestadorId").asText(null),
+            evento.path("valor").decimalValue(),
+            "ESTORNO".equals(evento.path("operacao").asText())));
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.austa.experiencia.service.utilizacao;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A utilization statement: one line per group, with the totals of the period.
+ *
+ * {@code mesesResumidos} and {@code linhasLidas} tell how the statement was
+ * built: months answered from their summary, and raw rows read for the
+ * months the period covers only in part.
+ */
+public final class ExtratoUtilizacao {
+
+    private final List<Map<String, Object>> linhas;
+    private final int totalUtilizacoes;
+    private final BigDecimal valorTotal;
+    private final int mesesResumidos;
+    private final int linhasLidas;
+
+    ExtratoUtilizacao(List<Map<String, Object>> linhas, int totalUtilizacoes, BigDecimal valorTotal,
+                      int mesesResumidos, int linhasLidas) {
+        this.linhas = linhas;
+        this.totalUtilizacoes = totalUtilizacoes;
+        this.valorTotal = valorTotal;
+        this.mesesResumidos = mesesResumidos;
+        this.linhasLidas = linhasLidas;
+    }
+
+    public List<Map<String, Object>> getLinhas() {
+        return linhas;
+    }
+
+    public int getTotalUtilizacoes() {
+        return totalUtilizacoes;
+    }
+
+    public BigDecimal getValorTotal() {
+        return valorTotal;
+    }
+
+    public int getMesesResumidos() {
+        return mesesResumidos;
+    }
+
+    public int getLinhasLidas() {
+        return linhasLidas;
+    }
+}
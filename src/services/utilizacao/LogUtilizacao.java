@@ -0,0 +1,176 @@
+package br.com.austa.experiencia.service.utilizacao;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of the claim items applied to the utilization store, the
+ * store's only durable state.
+ *
+ * Framed records, [len(4) crc32(4) payload], one per {@link RegistroUtilizacao}.
+ * Records are idempotent (items are deduplicated on apply), so recovery
+ * replays the whole log; a torn record at the end is detected by its CRC and
+ * truncated. {@link #reescrever} replaces the log with the live rows only,
+ * dropping expired and duplicate records.
+ */
+final class LogUtilizacao {
+
+    private final Path log;
+    private final boolean fsync;
+    private FileChannel canal;
+
+    LogUtilizacao(Path diretorio, boolean fsync) throws IOException {
+        Files.createDirectories(diretorio);
+        this.log = diretorio.resolve("utilizacao.log");
+        this.fsync = fsync;
+    }
+
+    /**
+     * Replays the log, then opens it for appending.
+     *
+     * @return number of intact records replayed
+     */
+    long recuperar(Consumer<RegistroUtilizacao> registro) throws IOException {
+        long[] lidos = {0};
+        long valido = Files.exists(log) ? ler(log, r -> {
+            lidos[0]++;
+            registro.accept(r);
+        }) : 0;
+        canal = FileChannel.open(log, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        canal.truncate(valido);
+        canal.position(valido);
+        return lidos[0];
+    }
+
+    synchronized void registrar(RegistroUtilizacao registro) throws IOException {
+        escrever(canal, codificar(registro));
+        if (fsync) {
+            canal.force(false);
+        }
+    }
+
+    /**
+     * Rewrites the log with the given rows and reopens it for appending.
+     *
+     * @param registros visits every live row
+     */
+    synchronized void reescrever(Consumer<Consumer<RegistroUtilizacao>> registros) throws IOException {
+        Path temporario = log.resolveSibling("utilizacao.tmp");
+        try (FileChannel destino = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            try {
+                registros.accept(registro -> {
+                    try {
+                        escrever(destino, codificar(registro));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            destino.force(true);
+        }
+        canal.close();
+        Files.move(temporario, log, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        canal = FileChannel.open(log, StandardOpenOption.WRITE);
+        canal.position(canal.size());
+    }
+
+    synchronized void fechar() throws IOException {
+        if (canal != null) {
+            canal.force(true);
+            canal.close();
+        }
+    }
+
+    private static void escrever(FileChannel destino, byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer buffer = ByteBuffer.allocate(8 + payload.length);
+        buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        while (buffer.hasRemaining()) {
+            destino.write(buffer);
+        }
+    }
+
+    private static byte[] codificar(RegistroUtilizacao registro) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(registro.getItemId());
+        out.writeUTF(registro.getBeneficiarioId());
+        out.writeInt((int) registro.getDataAtendimento().toEpochDay());
+        out.writeUTF(registro.getCodigoTuss() != null ? registro.getCodigoTuss() : "");
+        out.writeByte(registro.getTipoServico().ordinal());
+        out.writeUTF(registro.getPrestadorId() != null ? registro.getPrestadorId() : "");
+        out.writeLong(registro.getValor().movePointRight(2).longValue());
+        out.writeBoolean(registro.isEstorno());
+        return bytes.toByteArray();
+    }
+
+    private static RegistroUtilizacao decodificar(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        long itemId = in.readLong();
+        String beneficiarioId = in.readUTF();
+        LocalDate data = LocalDate.ofEpochDay(in.readInt());
+        String tuss = in.readUTF();
+        TipoServicoUtilizacao tipo = TipoServicoUtilizacao.doCodigo(in.readByte());
+        String prestadorId = in.readUTF();
+        BigDecimal valor = BigDecimal.valueOf(in.readLong(), 2);
+        boolean estorno = in.readBoolean();
+        return new RegistroUtilizacao(itemId, beneficiarioId, data, tuss.isEmpty() ? null : tuss, tipo,
+            prestadorId.isEmpty() ? null : prestadorId, valor, estorno);
+    }
+
+    /**
+     * @return offset just past the last intact record
+     */
+    private static long ler(Path arquivo, Consumer<RegistroUtilizacao> registro) throws IOException {
+        long valido = 0;
+        try (InputStream stream = Channels.newInputStream(FileChannel.open(arquivo, StandardOpenOption.READ));
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16))) {
+            while (true) {
+                int tamanho;
+                try {
+                    tamanho = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                int crcEsperado = in.readInt();
+                if (tamanho <= 0 || tamanho > (1 << 16)) {
+                    break;
+                }
+                byte[] payload = new byte[tamanho];
+                in.readFully(payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != crcEsperado) {
+                    break;
+                }
+                registro.accept(decodificar(payload));
+                valido += 8 + tamanho;
+            }
+        } catch (EOFException e) {
+            // torn record at the tail
+        }
+        return valido;
+    }
+}
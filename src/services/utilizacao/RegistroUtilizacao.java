@@ -0,0 +1,66 @@
+package br.com.austa.experiencia.service.utilizacao;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One billed claim item, as received from the Tasy claims feed. A reversal
+ * ({@code estorno}) cancels a previously billed item: it is kept as a row of
+ * its own that subtracts one use and the item's value.
+ */
+public final class RegistroUtilizacao {
+
+    private final long itemId;
+    private final String beneficiarioId;
+    private final LocalDate dataAtendimento;
+    private final String codigoTuss;
+    private final TipoServicoUtilizacao tipoServico;
+    private final String prestadorId;
+    private final BigDecimal valor;
+    private final boolean estorno;
+
+    public RegistroUtilizacao(long itemId, String beneficiarioId, LocalDate dataAtendimento, String codigoTuss,
+                              TipoServicoUtilizacao tipoServico, String prestadorId, BigDecimal valor,
+                              boolean estorno) {
+        this.itemId = itemId;
+        this.beneficiarioId = beneficiarioId;
+        this.dataAtendimento = dataAtendimento;
+        this.codigoTuss = codigoTuss;
+        this.tipoServico = tipoServico;
+        this.prestadorId = prestadorId;
+        this.valor = valor;
+        this.estorno = estorno;
+    }
+
+    public long getItemId() {
+        return itemId;
+    }
+
+    public String getBeneficiarioId() {
+        return beneficiarioId;
+    }
+
+    public LocalDate getDataAtendimento() {
+        return dataAtendimento;
+    }
+
+    public String getCodigoTuss() {
+        return codigoTuss;
+    }
+
+    public TipoServicoUtilizacao getTipoServico() {
+        return tipoServico;
+    }
+
+    public String getPrestadorId() {
+        return prestadorId;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public boolean isEstorno() {
+        return estorno;
+    }
+}
@@ -0,0 +1,59 @@
+package br.com.austa.experiencia.service.utilizacao;
+
+import java.util.Arrays;
+
+/**
+ * Pre-aggregate of one beneficiary's month: uses and value per
+ * (tipoServico, prestador) cell, enough to answer every grouping and the
+ * service type filter without touching the month's rows.
+ *
+ * {@code primeiroDia}/{@code ultimoDia} bound the month's rows, so a range
+ * that covers them can use the summary even when it does not cover the
+ * whole calendar month (e.g. a statement ending today).
+ */
+final class ResumoMensal {
+
+    final int mes;
+    int primeiroDia = Integer.MAX_VALUE;
+    int ultimoDia = Integer.MIN_VALUE;
+    int linhas;
+
+    int celulas;
+    byte[] tipo = new byte[4];
+    int[] prestador = new int[4];
+    int[] quantidade = new int[4];
+    long[] valorCentavos = new long[4];
+
+    ResumoMensal(int mes) {
+        this.mes = mes;
+    }
+
+    void somar(int dia, byte tipoServico, int prestadorIndice, int usos, long centavos) {
+        primeiroDia = Math.min(primeiroDia, dia);
+        ultimoDia = Math.max(ultimoDia, dia);
+        linhas++;
+        for (int i = 0; i < celulas; i++) {
+            if (tipo[i] == tipoServico && prestador[i] == prestadorIndice) {
+                quantidade[i] += usos;
+                valorCentavos[i] += centavos;
+                return;
+            }
+        }
+        if (celulas == tipo.length) {
+            int capacidade = celulas * 2;
+            tipo = Arrays.copyOf(tipo, capacidade);
+            prestador = Arrays.copyOf(prestador, capacidade);
+            quantidade = Arrays.copyOf(quantidade, capacidade);
+            valorCentavos = Arrays.copyOf(valorCentavos, capacidade);
+        }
+        tipo[celulas] = tipoServico;
+        prestador[celulas] = prestadorIndice;
+        quantidade[celulas] = usos;
+        valorCentavos[celulas] = centavos;
+        celulas++;
+    }
+
+    boolean cobertoPor(int inicio, int fim) {
+        return primeiroDia >= inicio && ultimoDia <= fim;
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.austa.experiencia.service.utilizacao;
+
+/**
+ * Service types shown in the utilization statement ({@code tipoServico}).
+ */
+public enum TipoServicoUtilizacao {
+
+    CONSULTA,
+    EXAME,
+    TERAPIA,
+    PROCEDIMENTO,
+    INTERNACAO,
+    PRONTO_SOCORRO,
+    OUTROS;
+
+    private static final TipoServicoUtilizacao[] VALORES = values();
+
+    static TipoServicoUtilizacao doCodigo(int codigo) {
+        return VALORES[codigo];
+    }
+
+    /**
+     * @return the type named {@code nome}, or {@link #OUTROS} for unknown names
+     */
+    public static TipoServicoUtilizacao de(String nome) {
+        if (nome != null) {
+            for (TipoServicoUtilizacao tipo : VALORES) {
+                if (tipo.name().equalsIgnoreCase(nome)) {
+                    return tipo;
+                }
+            }
+        }
+        return OUTROS;
+    }
+}
@@ -0,0 +1,126 @@
+package br.com.austa.experiencia.service.utilizacao;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.TreeMap;
+
+/**
+ * Utilization of one beneficiary: claim item rows as primitive columns kept
+ * in service date order, plus one {@link ResumoMensal} per month.
+ *
+ * Row: epoch day(4) TUSS(4) tipo(1) usos(1) prestador(4) value in cents(8)
+ * item id(8), ~30 bytes. Guarded by the instance monitor.
+ */
+final class UtilizacaoBeneficiario {
+
+    int tamanho;
+    int[] dia = new int[8];
+    int[] tuss = new int[8];
+    byte[] tipo = new byte[8];
+    byte[] usos = new byte[8];
+    int[] prestador = new int[8];
+    long[] valorCentavos = new long[8];
+    long[] item = new long[8];
+
+    final TreeMap<Integer, ResumoMensal> meses = new TreeMap<>();
+
+    /**
+     * Inserts a row at its date and adds it to the month's summary.
+     *
+     * @return false when the same item (or the same reversal) is already recorded
+     */
+    boolean adicionar(long itemId, int diaAtendimento, int codigoTuss, byte tipoServico, byte quantidade,
+                      int prestadorIndice, long centavos) {
+        int inicio = primeiraLinha(diaAtendimento);
+        int fim = primeiraLinha(diaAtendimento + 1);
+        for (int i = inicio; i < fim; i++) {
+            if (item[i] == itemId && usos[i] == quantidade) {
+                return false;
+            }
+        }
+        if (tamanho == dia.length) {
+            crescer(tamanho * 2);
+        }
+        int mover = tamanho - fim;
+        if (mover > 0) {
+            System.arraycopy(dia, fim, dia, fim + 1, mover);
+            System.arraycopy(tuss, fim, tuss, fim + 1, mover);
+            System.arraycopy(tipo, fim, tipo, fim + 1, mover);
+            System.arraycopy(usos, fim, usos, fim + 1, mover);
+            System.arraycopy(prestador, fim, prestador, fim + 1, mover);
+            System.arraycopy(valorCentavos, fim, valorCentavos, fim + 1, mover);
+            System.arraycopy(item, fim, item, fim + 1, mover);
+        }
+        dia[fim] = diaAtendimento;
+        tuss[fim] = codigoTuss;
+        tipo[fim] = tipoServico;
+        usos[fim] = quantidade;
+        prestador[fim] = prestadorIndice;
+        valorCentavos[fim] = centavos;
+        item[fim] = itemId;
+        tamanho++;
+
+        meses.computeIfAbsent(mes(diaAtendimento), ResumoMensal::new)
+            .somar(diaAtendimento, tipoServico, prestadorIndice, quantidade, centavos);
+        return true;
+    }
+
+    /**
+     * Drops rows and summaries dated before {@code diaHorizonte}, which must
+     * be the first day of a month.
+     */
+    void expirar(int diaHorizonte) {
+        int expiradas = primeiraLinha(diaHorizonte);
+        if (expiradas > 0) {
+            int restantes = tamanho - expiradas;
+            System.arraycopy(dia, expiradas, dia, 0, restantes);
+            System.arraycopy(tuss, expiradas, tuss, 0, restantes);
+            System.arraycopy(tipo, expiradas, tipo, 0, restantes);
+            System.arraycopy(usos, expiradas, usos, 0, restantes);
+            System.arraycopy(prestador, expiradas, prestador, 0, restantes);
+            System.arraycopy(valorCentavos, expiradas, valorCentavos, 0, restantes);
+            System.arraycopy(item, expiradas, item, 0, restantes);
+            tamanho = restantes;
+        }
+        meses.headMap(mes(diaHorizonte)).clear();
+    }
+
+    /**
+     * Index of the first row dated on or after {@code diaAlvo}.
+     */
+    int primeiraLinha(int diaAlvo) {
+        int baixo = 0;
+        int alto = tamanho;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (dia[meio] < diaAlvo) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+
+    /**
+     * Month index (year * 12 + month - 1) of an epoch day.
+     */
+    static int mes(int epochDay) {
+        LocalDate data = LocalDate.ofEpochDay(epochDay);
+        return data.getYear() * 12 + data.getMonthValue() - 1;
+    }
+
+    static int primeiroDiaDoMes(int mes) {
+        return (int) LocalDate.of(mes / 12, mes % 12 + 1, 1).toEpochDay();
+    }
+
+    private void crescer(int capacidade) {
+        dia = Arrays.copyOf(dia, capacidade);
+        tuss = Arrays.copyOf(tuss, capacidade);
+        tipo = Arrays.copyOf(tipo, capacidade);
+        usos = Arrays.copyOf(usos, capacidade);
+        prestador = Arrays.copyOf(prestador, capacidade);
+        valorCentavos = Arrays.copyOf(valorCentavos, capacidade);
+        item = Arrays.copyOf(item, capacidade);
+    }
+}
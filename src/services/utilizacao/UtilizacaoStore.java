@@ -0,0 +1,351 @@
+package br.com.austa.experiencia.service.utilizacao;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Utilizacao Store - per-beneficiary utilization with monthly pre-aggregates
+ *
+ * Serves the self-service utilization statement (ConsultarExtratoUtilizacaoDelegate)
+ * without rebuilding it from raw claims on every request:
+ * - claim items from the Tasy claims feed are kept per beneficiary as
+ *   primitive columns (date, TUSS, tipoServico, provider, value), in date order
+ * - every item is also added, on arrival, to its month's {@link ResumoMensal}
+ *   (uses and value per service type and provider)
+ * - a statement sums the summaries of the months inside the period and reads
+ *   raw rows only for a month the period cuts through; a period ending today
+ *   still uses the current month's summary
+ *
+ * Retention is rolling: 24 months plus the current one, matching the oldest
+ * start date the statement accepts. The {@link LogUtilizacao} is the only
+ * durable state; it is replayed on startup and rewritten when mostly stale.
+ *
+ * Every instance serves statements for every beneficiary, so the feed is
+ * replayed in full on each instance (see {@link ContasMedicasUtilizacaoConsumer});
+ * items the log already held are skipped as duplicates.
+ */
+@Component("utilizacaoStore")
+public class UtilizacaoStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(UtilizacaoStore.class);
+
+    private static final int MESES_RETENCAO = 24;
+
+    private final LogUtilizacao log;
+    private final Clock clock;
+    private final ConcurrentHashMap<String, UtilizacaoBeneficiario> beneficiarios = new ConcurrentHashMap<>();
+
+    // interned providers
+    private final Map<String, Integer> indicePrestador = new HashMap<>();
+    private final List<String> prestadores = new CopyOnWriteArrayList<>();
+
+    private final LongAdder registrosAplicados = new LongAdder();
+    private final LongAdder registrosIgnorados = new LongAdder();
+    private final LongAdder extratosGerados = new LongAdder();
+    private final LongAdder mesesResumidos = new LongAdder();
+    private final LongAdder linhasLidas = new LongAdder();
+
+    private volatile boolean replicado = true;
+
+    @Autowired
+    public UtilizacaoStore(@Value("${utilizacao.path:./data/utilizacao}") String diretorio,
+                           @Value("${utilizacao.fsync:false}") boolean fsync) throws IOException {
+        this(Paths.get(diretorio), fsync, Clock.system(ZoneId.of("America/Sao_Paulo")));
+    }
+
+    public UtilizacaoStore(Path diretorio, boolean fsync, Clock clock) throws IOException {
+        this.log = new LogUtilizacao(diretorio, fsync);
+        this.clock = clock;
+        recuperar();
+    }
+
+    @PreDestroy
+    public void fechar() throws IOException {
+        log.fechar();
+    }
+
+    /**
+     * Applies one claim item and appends it to the log.
+     *
+     * @return false when the item was already applied or is past retention
+     */
+    public boolean registrar(RegistroUtilizacao registro) throws IOException {
+        if (!aplicar(registro)) {
+            registrosIgnorados.increment();
+            return false;
+        }
+        log.registrar(registro);
+        registrosAplicados.increment();
+        return true;
+    }
+
+    /**
+     * Utilization statement of the beneficiary for [inicio, fim].
+     *
+     * @param tipoServico optional service type filter
+     * @param agruparPor  DATA (per month), TIPO or PRESTADOR; DATA when null
+     */
+    public ExtratoUtilizacao extrato(String beneficiarioId, LocalDate inicio, LocalDate fim, String tipoServico,
+                                     String agruparPor) {
+        AgrupamentoExtrato agrupamento = AgrupamentoExtrato.de(agruparPor);
+        int filtro = tipoServico == null || tipoServico.isBlank()
+            ? -1 : TipoServicoUtilizacao.de(tipoServico).ordinal();
+        int de = (int) inicio.toEpochDay();
+        int ate = (int) fim.toEpochDay();
+
+        int mesInicial = UtilizacaoBeneficiario.mes(de);
+        UtilizacaoBeneficiario utilizacao = beneficiarios.get(beneficiarioId);
+        if (utilizacao == null || de > ate) {
+            extratosGerados.increment();
+            return new ExtratoUtilizacao(List.of(), 0, BigDecimal.ZERO.setScale(2), 0, 0);
+        }
+
+        int grupos;
+        long[] usos;
+        long[] centavos;
+        boolean[] presentes;
+        int resumidos = 0;
+        int lidas = 0;
+        synchronized (utilizacao) {
+            // every provider of this beneficiary's rows is interned by now
+            grupos = numeroGrupos(agrupamento, mesInicial, UtilizacaoBeneficiario.mes(ate));
+            usos = new long[grupos];
+            centavos = new long[grupos];
+            presentes = new boolean[grupos];
+            for (ResumoMensal resumo : utilizacao.meses
+                    .subMap(mesInicial, true, UtilizacaoBeneficiario.mes(ate), true).values()) {
+                int grupoMes = resumo.mes - mesInicial;
+                if (resumo.cobertoPor(de, ate)) {
+                    for (int c = 0; c < resumo.celulas; c++) {
+                        if (filtro < 0 || resumo.tipo[c] == filtro) {
+                            int g = grupo(agrupamento, grupoMes, resumo.tipo[c], resumo.prestador[c]);
+                            usos[g] += resumo.quantidade[c];
+                            centavos[g] += resumo.valorCentavos[c];
+                            presentes[g] = true;
+                        }
+                    }
+                    resumidos++;
+                    continue;
+                }
+                int fimMes = UtilizacaoBeneficiario.primeiroDiaDoMes(resumo.mes + 1) - 1;
+                int limite = Math.min(ate, fimMes);
+                for (int i = utilizacao.primeiraLinha(Math.max(de, resumo.primeiroDia));
+                     i < utilizacao.tamanho && utilizacao.dia[i] <= limite; i++) {
+                    if (filtro < 0 || utilizacao.tipo[i] == filtro) {
+                        int g = grupo(agrupamento, grupoMes, utilizacao.tipo[i], utilizacao.prestador[i]);
+                        usos[g] += utilizacao.usos[i];
+                        centavos[g] += utilizacao.valorCentavos[i];
+                        presentes[g] = true;
+                    }
+                    lidas++;
+                }
+            }
+        }
+
+        List<Map<String, Object>> linhas = new ArrayList<>();
+        long totalUsos = 0;
+        long totalCentavos = 0;
+        for (int g = 0; g < grupos; g++) {
+            if (!presentes[g]) {
+                continue;
+            }
+            Map<String, Object> linha = new LinkedHashMap<>();
+            linha.put(campo(agrupamento), chave(agrupamento, mesInicial, g));
+            linha.put("quantidade", usos[g]);
+            linha.put("valor", BigDecimal.valueOf(centavos[g], 2));
+            linhas.add(linha);
+            totalUsos += usos[g];
+            totalCentavos += centavos[g];
+        }
+        if (agrupamento != AgrupamentoExtrato.DATA) {
+            // largest spend first
+            linhas.sort(Comparator.comparing((Map<String, Object> linha) -> (BigDecimal) linha.get("valor"))
+                .reversed());
+        }
+
+        extratosGerados.increment();
+        mesesResumidos.add(resumidos);
+        linhasLidas.add(lidas);
+        return new ExtratoUtilizacao(linhas, (int) totalUsos, BigDecimal.valueOf(totalCentavos, 2), resumidos,
+            lidas);
+    }
+
+    /**
+     * Whether the claims feed has been replayed up to where it stood at
+     * startup; before that a statement may miss items.
+     */
+    public boolean isReplicado() {
+        return replicado;
+    }
+
+    /**
+     * Set by the feed consumer: false while it replays the claims feed after
+     * startup.
+     */
+    public void setReplicado(boolean replicado) {
+        this.replicado = replicado;
+    }
+
+    public int getBeneficiarios() {
+        return beneficiarios.size();
+    }
+
+    public long getRegistrosAplicados() {
+        return registrosAplicados.sum();
+    }
+
+    /**
+     * Duplicate deliveries and items older than the retention window.
+     */
+    public long getRegistrosIgnorados() {
+        return registrosIgnorados.sum();
+    }
+
+    public long getExtratosGerados() {
+        return extratosGerados.sum();
+    }
+
+    public long getMesesResumidos() {
+        return mesesResumidos.sum();
+    }
+
+    public long getLinhasLidas() {
+        return linhasLidas.sum();
+    }
+
+    private boolean aplicar(RegistroUtilizacao registro) {
+        int horizonte = UtilizacaoBeneficiario.primeiroDiaDoMes(
+            UtilizacaoBeneficiario.mes((int) LocalDate.now(clock).toEpochDay()) - MESES_RETENCAO);
+        int dia = (int) registro.getDataAtendimento().toEpochDay();
+        if (dia < horizonte) {
+            return false;
+        }
+        long centavos = registro.getValor().movePointRight(2).longValue();
+        int prestador = internarPrestador(registro.getPrestadorId());
+        UtilizacaoBeneficiario utilizacao = beneficiarios.computeIfAbsent(registro.getBeneficiarioId(),
+            id -> new UtilizacaoBeneficiario());
+        synchronized (utilizacao) {
+            utilizacao.expirar(horizonte);
+            return utilizacao.adicionar(registro.getItemId(), dia, tuss(registro.getCodigoTuss()),
+                (byte) registro.getTipoServico().ordinal(), (byte) (registro.isEstorno() ? -1 : 1), prestador,
+                registro.isEstorno() ? -centavos : centavos);
+        }
+    }
+
+    private void recuperar() throws IOException {
+        long lidos = log.recuperar(this::aplicar);
+        long vivos = 0;
+        for (UtilizacaoBeneficiario utilizacao : beneficiarios.values()) {
+            vivos += utilizacao.tamanho;
+        }
+        if (lidos > 2 * vivos + 10_000) {
+            log.reescrever(this::percorrer);
+            logger.info("Utilization log rewritten: {} records -> {} live rows", lidos, vivos);
+        }
+        logger.info("Utilization store recovered: {} beneficiaries, {} rows", beneficiarios.size(), vivos);
+    }
+
+    private void percorrer(Consumer<RegistroUtilizacao> destino) {
+        beneficiarios.forEach((beneficiarioId, utilizacao) -> {
+            synchronized (utilizacao) {
+                for (int i = 0; i < utilizacao.tamanho; i++) {
+                    boolean estorno = utilizacao.usos[i] < 0;
+                    destino.accept(new RegistroUtilizacao(utilizacao.item[i], beneficiarioId,
+                        LocalDate.ofEpochDay(utilizacao.dia[i]), String.format("%08d", utilizacao.tuss[i]),
+                        TipoServicoUtilizacao.doCodigo(utilizacao.tipo[i]), prestadores.get(utilizacao.prestador[i]),
+                        BigDecimal.valueOf(estorno ? -utilizacao.valorCentavos[i] : utilizacao.valorCentavos[i], 2),
+                        estorno));
+                }
+            }
+        });
+    }
+
+    private synchronized int internarPrestador(String prestadorId) {
+        String chave = prestadorId != null ? prestadorId : "";
+        Integer indice = indicePrestador.get(chave);
+        if (indice == null) {
+            indice = prestadores.size();
+            prestadores.add(chave);
+            indicePrestador.put(chave, indice);
+        }
+        return indice;
+    }
+
+    private int numeroGrupos(AgrupamentoExtrato agrupamento, int mesInicial, int mesFinal) {
+        switch (agrupamento) {
+            case TIPO:
+                return TipoServicoUtilizacao.values().length;
+            case PRESTADOR:
+                return prestadores.size();
+            default:
+                return mesFinal - mesInicial + 1;
+        }
+    }
+
+    private static int grupo(AgrupamentoExtrato agrupamento, int grupoMes, byte tipo, int prestador) {
+        switch (agrupamento) {
+            case TIPO:
+                return tipo;
+            case PRESTADOR:
+                return prestador;
+            default:
+                return grupoMes;
+        }
+    }
+
+    private String chave(AgrupamentoExtrato agrupamento, int mesInicial, int grupo) {
+        switch (agrupamento) {
+            case TIPO:
+                return TipoServicoUtilizacao.doCodigo(grupo).name();
+            case PRESTADOR:
+                return prestadores.get(grupo);
+            default:
+                int mes = mesInicial + grupo;
+                return String.format("%04d-%02d", mes / 12, mes % 12 + 1);
+        }
+    }
+
+    private static String campo(AgrupamentoExtrato agrupamento) {
+        switch (agrupamento) {
+            case TIPO:
+                return "tipoServico";
+            case PRESTADOR:
+                return "prestadorId";
+            default:
+                return "mes";
+        }
+    }
+
+    private static int tuss(String codigo) {
+        if (codigo == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(codigo.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.austa.experiencia.service.variaveis;
+
+/**
+ * What {@link PoliticasVariaveis} does with a serialized value, weakest first.
+ */
+public enum AcaoVariavel {
+
+    MANTER,
+    /** Stored as is; logged when the variable first exceeds the limit and at each new maximum */
+    AVISAR,
+    /** Deflated in the engine's byte array table, inflated transparently on read */
+    COMPRIMIR,
+    /** Moved to the content store; the engine keeps only its hash */
+    EXTERNALIZAR
+}
@@ -0,0 +1,112 @@
+package br.com.austa.experiencia.service.variaveis;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stored forms of a serialized value that a policy changed.
+ *
+ * Both start with a zero byte, which neither Java serialization (0xACED)
+ * nor the JSON/XML text formats can start with, so untouched values are
+ * recognized by their first byte:
+ * - compressed: {@code 00 'A' 'V' 'Z'}, original length (4 bytes), deflate data
+ * - external: {@code 00 'A' 'V' 'R'}, then {@code hash:size} in ASCII
+ */
+final class CodificacaoVariavel {
+
+    private static final byte[] COMPRIMIDO = {0, 'A', 'V', 'Z'};
+    private static final byte[] EXTERNO = {0, 'A', 'V', 'R'};
+
+    private CodificacaoVariavel() {
+    }
+
+    /**
+     * @return the compressed form, or null when it would not save at least an eighth
+     */
+    static byte[] comprimir(byte[] valor) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(valor);
+            deflater.finish();
+            ByteArrayOutputStream saida = new ByteArrayOutputStream(valor.length / 4 + 16);
+            saida.write(COMPRIMIDO, 0, COMPRIMIDO.length);
+            saida.write(ByteBuffer.allocate(4).putInt(valor.length).array(), 0, 4);
+            byte[] buffer = new byte[8192];
+            long limite = valor.length - valor.length / 8;
+            while (!deflater.finished()) {
+                saida.write(buffer, 0, deflater.deflate(buffer));
+                if (saida.size() >= limite) {
+                    return null;
+                }
+            }
+            return saida.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static byte[] referencia(String hash, long tamanho) {
+        byte[] texto = (hash + ":" + tamanho).getBytes(StandardCharsets.US_ASCII);
+        byte[] valor = new byte[EXTERNO.length + texto.length];
+        System.arraycopy(EXTERNO, 0, valor, 0, EXTERNO.length);
+        System.arraycopy(texto, 0, valor, EXTERNO.length, texto.length);
+        return valor;
+    }
+
+    static boolean isComprimido(byte[] valor) {
+        return comeca(valor, COMPRIMIDO);
+    }
+
+    static boolean isExterno(byte[] valor) {
+        return comeca(valor, EXTERNO);
+    }
+
+    static byte[] descomprimir(byte[] valor) {
+        int tamanho = ByteBuffer.wrap(valor, COMPRIMIDO.length, 4).getInt();
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(valor, COMPRIMIDO.length + 4, valor.length - COMPRIMIDO.length - 4);
+            byte[] original = new byte[tamanho];
+            int lidos = 0;
+            while (lidos < tamanho && !inflater.finished()) {
+                int n = inflater.inflate(original, lidos, tamanho - lidos);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                lidos += n;
+            }
+            if (lidos != tamanho) {
+                throw new IllegalStateException("Compressed variable truncated: " + lidos + " of " + tamanho + " bytes");
+            }
+            return original;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Compressed variable corrupted", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Content hash of an external reference.
+     */
+    static String hashReferencia(byte[] valor) {
+        String texto = new String(valor, EXTERNO.length, valor.length - EXTERNO.length, StandardCharsets.US_ASCII);
+        return texto.substring(0, texto.indexOf(':'));
+    }
+
+    private static boolean comeca(byte[] valor, byte[] prefixo) {
+        if (valor == null || valor.length < prefixo.length) {
+            return false;
+        }
+        for (int i = 0; i < prefixo.length; i++) {
+            if (valor[i] != prefixo[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.austa.experiencia.service.variaveis;
+
+/**
+ * Order of the variable size report.
+ */
+public enum CriterioRanking {
+
+    /** Stored bytes written plus bytes read: what the variable costs the engine database */
+    IO,
+    /** Largest serialized value seen */
+    MAIOR,
+    /** Number of writes */
+    ESCRITAS
+}
@@ -0,0 +1,119 @@
+package br.com.austa.experiencia.service.variaveis;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sizes seen for one variable name of one process definition.
+ *
+ * Serialized bytes are what the value costs before any policy; stored bytes
+ * are what reaches the engine tables (compressed, or just the reference when
+ * externalized), and are what the reads count too.
+ */
+public final class EstatisticaVariavel {
+
+    private final String processo;
+    private final String nome;
+    private final LongAdder escritas = new LongAdder();
+    private final LongAdder bytesSerializados = new LongAdder();
+    private final LongAdder bytesArmazenados = new LongAdder();
+    private final LongAccumulator maior = new LongAccumulator(Math::max, 0);
+    private final LongAdder leituras = new LongAdder();
+    private final LongAdder bytesLidos = new LongAdder();
+    private final LongAdder comprimidas = new LongAdder();
+    private final LongAdder externalizadas = new LongAdder();
+
+    EstatisticaVariavel(String processo, String nome) {
+        this.processo = processo;
+        this.nome = nome;
+    }
+
+    /**
+     * @return true if {@code serializado} is a new maximum
+     */
+    boolean escrita(long serializado, long armazenado, AcaoVariavel aplicada) {
+        escritas.increment();
+        bytesSerializados.add(serializado);
+        bytesArmazenados.add(armazenado);
+        if (aplicada == AcaoVariavel.COMPRIMIR) {
+            comprimidas.increment();
+        } else if (aplicada == AcaoVariavel.EXTERNALIZAR) {
+            externalizadas.increment();
+        }
+        long anterior = maior.get();
+        maior.accumulate(serializado);
+        return serializado > anterior;
+    }
+
+    void leitura(long armazenado) {
+        leituras.increment();
+        bytesLidos.add(armazenado);
+    }
+
+    public String getProcesso() {
+        return processo;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public long getEscritas() {
+        return escritas.sum();
+    }
+
+    public long getBytesSerializados() {
+        return bytesSerializados.sum();
+    }
+
+    public long getBytesArmazenados() {
+        return bytesArmazenados.sum();
+    }
+
+    public long getMaior() {
+        return maior.get();
+    }
+
+    public long getLeituras() {
+        return leituras.sum();
+    }
+
+    public long getBytesLidos() {
+        return bytesLidos.sum();
+    }
+
+    public long getComprimidas() {
+        return comprimidas.sum();
+    }
+
+    public long getExternalizadas() {
+        return externalizadas.sum();
+    }
+
+    /**
+     * Stored bytes written plus bytes read.
+     */
+    public long getBytesIo() {
+        return getBytesArmazenados() + getBytesLidos();
+    }
+
+    public Map<String, Object> toMap() {
+        long n = getEscritas();
+        Map<String, Object> mapa = new LinkedHashMap<>();
+        mapa.put("processo", processo);
+        mapa.put("variavel", nome);
+        mapa.put("escritas", n);
+        mapa.put("leituras", getLeituras());
+        mapa.put("bytesIo", getBytesIo());
+        mapa.put("bytesArmazenados", getBytesArmazenados());
+        mapa.put("bytesLidos", getBytesLidos());
+        mapa.put("bytesSerializados", getBytesSerializados());
+        mapa.put("mediaSerializada", n == 0 ? 0 : getBytesSerializados() / n);
+        mapa.put("maior", getMaior());
+        mapa.put("comprimidas", getComprimidas());
+        mapa.put("externalizadas", getExternalizadas());
+        return mapa;
+    }
+}
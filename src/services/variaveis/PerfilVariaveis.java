@@ -0,0 +1,274 @@
+package br.com.austa.experiencia.service.variaveis;
+
+import br.com.austa.experiencia.service.blobs.ReferenciaConteudo;
+import br.com.austa.experiencia.service.blobs.RepositorioConteudo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Perfil Variaveis - serialized size of process variables per (process definition, name)
+ *
+ * Fed by the engine's variable serializers ({@link PerfilVariaveisPlugin}):
+ * every write and read of a stored value passes through here with its size.
+ * Serializable values (objects, JSON, XML) also go through
+ * {@link PoliticasVariaveis} on write:
+ * - {@link AcaoVariavel#AVISAR}: logged when the variable first exceeds the
+ *   limit and at each new maximum, so the log stays bounded
+ * - {@link AcaoVariavel#COMPRIMIR}: deflated, kept only if it saves an eighth
+ * - {@link AcaoVariavel#EXTERNALIZAR}: the bytes go to the
+ *   {@link RepositorioConteudo} and the engine stores the hash; if the store
+ *   fails the value is compressed instead, never lost
+ * Reads restore the original bytes, so delegates see no difference.
+ *
+ * At most {@code variaveis.perfil.max-chaves} pairs are tracked; later ones
+ * are summed under {@value #OUTRAS}.
+ */
+@Component("perfilVariaveis")
+public class PerfilVariaveis {
+
+    private static final Logger logger = LoggerFactory.getLogger(PerfilVariaveis.class);
+
+    public static final String OUTRAS = "(outras)";
+
+    private final RepositorioConteudo repositorioConteudo;
+    private final PoliticasVariaveis politicas;
+    private final int maxChaves;
+
+    private final Map<String, Map<String, EstatisticaVariavel>> estatisticas = new ConcurrentHashMap<>();
+    private final AtomicInteger chaves = new AtomicInteger();
+
+    private final LongAdder avisos = new LongAdder();
+    private final LongAdder comprimidas = new LongAdder();
+    private final LongAdder externalizadas = new LongAdder();
+    private final LongAdder bytesEconomizados = new LongAdder();
+    private final LongAdder falhasArmazenamento = new LongAdder();
+
+    @Autowired
+    public PerfilVariaveis(RepositorioConteudo repositorioConteudo,
+                           @Value("${variaveis.limite-aviso-bytes:65536}") long limiteAviso,
+                           @Value("${variaveis.limite-compressao-bytes:131072}") long limiteCompressao,
+                           @Value("${variaveis.limite-externo-bytes:1048576}") long limiteExterno,
+                           @Value("${variaveis.politicas:}") String regras,
+                           @Value("${variaveis.perfil.max-chaves:5000}") int maxChaves) {
+        this(repositorioConteudo, new PoliticasVariaveis(limiteAviso, limiteCompressao, limiteExterno,
+            PoliticasVariaveis.parseRegras(regras)), maxChaves);
+    }
+
+    public PerfilVariaveis(RepositorioConteudo repositorioConteudo, PoliticasVariaveis politicas, int maxChaves) {
+        this.repositorioConteudo = repositorioConteudo;
+        this.politicas = politicas;
+        this.maxChaves = maxChaves;
+    }
+
+    /**
+     * Applies the policy to a serialized value about to be stored and counts the write.
+     *
+     * @return the bytes the engine should store
+     */
+    public byte[] armazenar(String processo, String nome, byte[] serializado) {
+        AcaoVariavel acao = politicas.decidir(nome, serializado.length);
+        byte[] armazenado = transformar(processo, nome, serializado, acao);
+        AcaoVariavel aplicada = formaArmazenada(armazenado);
+        registrarEscrita(processo, nome, serializado.length, armazenado.length, acao, aplicada);
+        return armazenado;
+    }
+
+    /**
+     * Stores a value again in the form it already has, without counting it.
+     * The engine re-serializes mutable objects into scratch fields to detect
+     * changes; the result must equal what is stored, whatever rule applied.
+     *
+     * @param forma {@link #formaArmazenada} of the stored value
+     */
+    public byte[] rearmazenar(AcaoVariavel forma, byte[] serializado) {
+        return transformar(null, null, serializado, forma);
+    }
+
+    /**
+     * Which transformation produced the stored bytes: {@link AcaoVariavel#COMPRIMIR},
+     * {@link AcaoVariavel#EXTERNALIZAR} or {@link AcaoVariavel#MANTER}.
+     */
+    public static AcaoVariavel formaArmazenada(byte[] armazenado) {
+        if (CodificacaoVariavel.isComprimido(armazenado)) {
+            return AcaoVariavel.COMPRIMIR;
+        }
+        if (CodificacaoVariavel.isExterno(armazenado)) {
+            return AcaoVariavel.EXTERNALIZAR;
+        }
+        return AcaoVariavel.MANTER;
+    }
+
+    /**
+     * Original serialized bytes of a stored value.
+     *
+     * @throws UncheckedIOException if an externalized value cannot be read back
+     */
+    public byte[] restaurar(String processo, String nome, byte[] armazenado) {
+        if (nome != null) {
+            estatistica(processo, nome).leitura(armazenado.length);
+        }
+        if (CodificacaoVariavel.isComprimido(armazenado)) {
+            return CodificacaoVariavel.descomprimir(armazenado);
+        }
+        if (CodificacaoVariavel.isExterno(armazenado)) {
+            String hash = CodificacaoVariavel.hashReferencia(armazenado);
+            try {
+                return repositorioConteudo.lerBytes(hash);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Externalized variable " + nome + " not readable from " + hash, e);
+            }
+        }
+        return armazenado;
+    }
+
+    /**
+     * Counts a write of a value no policy applies to (strings, numbers, raw bytes, files).
+     */
+    public void escrita(String processo, String nome, long tamanho) {
+        AcaoVariavel acao = politicas.decidir(nome, tamanho) == AcaoVariavel.MANTER
+            ? AcaoVariavel.MANTER : AcaoVariavel.AVISAR;
+        registrarEscrita(processo, nome, tamanho, tamanho, acao, AcaoVariavel.MANTER);
+    }
+
+    public void leitura(String processo, String nome, long tamanho) {
+        estatistica(processo, nome).leitura(tamanho);
+    }
+
+    /**
+     * Tracked variables, largest first by {@code criterio}.
+     */
+    public List<EstatisticaVariavel> ranking(CriterioRanking criterio, int limite) {
+        Comparator<EstatisticaVariavel> ordem = switch (criterio) {
+            case IO -> Comparator.comparingLong(EstatisticaVariavel::getBytesIo);
+            case MAIOR -> Comparator.comparingLong(EstatisticaVariavel::getMaior);
+            case ESCRITAS -> Comparator.comparingLong(EstatisticaVariavel::getEscritas);
+        };
+        List<EstatisticaVariavel> todas = new ArrayList<>();
+        estatisticas.values().forEach(porNome -> todas.addAll(porNome.values()));
+        todas.sort(ordem.reversed());
+        return todas.subList(0, Math.min(limite, todas.size()));
+    }
+
+    /**
+     * Totals and the top variables, for the report endpoint.
+     */
+    public Map<String, Object> relatorio(CriterioRanking criterio, int limite) {
+        long escritos = 0;
+        long lidos = 0;
+        for (Map<String, EstatisticaVariavel> porNome : estatisticas.values()) {
+            for (EstatisticaVariavel estatistica : porNome.values()) {
+                escritos += estatistica.getBytesArmazenados();
+                lidos += estatistica.getBytesLidos();
+            }
+        }
+        Map<String, Object> relatorio = new LinkedHashMap<>();
+        relatorio.put("variaveis", chaves.get());
+        relatorio.put("bytesEscritos", escritos);
+        relatorio.put("bytesLidos", lidos);
+        relatorio.put("bytesEconomizados", getBytesEconomizados());
+        relatorio.put("avisos", getAvisos());
+        relatorio.put("comprimidas", getComprimidas());
+        relatorio.put("externalizadas", getExternalizadas());
+        relatorio.put("falhasArmazenamento", getFalhasArmazenamento());
+        relatorio.put("ordem", criterio.name());
+        relatorio.put("maiores", ranking(criterio, limite).stream().map(EstatisticaVariavel::toMap).toList());
+        return relatorio;
+    }
+
+    public EstatisticaVariavel getEstatistica(String processo, String nome) {
+        Map<String, EstatisticaVariavel> porNome = estatisticas.get(processo);
+        return porNome == null ? null : porNome.get(nome);
+    }
+
+    public long getAvisos() {
+        return avisos.sum();
+    }
+
+    public long getComprimidas() {
+        return comprimidas.sum();
+    }
+
+    public long getExternalizadas() {
+        return externalizadas.sum();
+    }
+
+    public long getBytesEconomizados() {
+        return bytesEconomizados.sum();
+    }
+
+    public long getFalhasArmazenamento() {
+        return falhasArmazenamento.sum();
+    }
+
+    private byte[] transformar(String processo, String nome, byte[] serializado, AcaoVariavel acao) {
+        if (acao == AcaoVariavel.EXTERNALIZAR) {
+            try {
+                ReferenciaConteudo referencia = repositorioConteudo.gravar(serializado);
+                return CodificacaoVariavel.referencia(referencia.getHash(), referencia.getTamanho());
+            } catch (IOException e) {
+                falhasArmazenamento.increment();
+                logger.warn("Could not externalize variable {} of {} ({} bytes), compressing instead: {}",
+                    nome, processo, serializado.length, e.getMessage());
+                acao = AcaoVariavel.COMPRIMIR;
+            }
+        }
+        if (acao == AcaoVariavel.COMPRIMIR) {
+            byte[] comprimido = CodificacaoVariavel.comprimir(serializado);
+            if (comprimido != null) {
+                return comprimido;
+            }
+        }
+        return serializado;
+    }
+
+    private void registrarEscrita(String processo, String nome, long serializado, long armazenado,
+                                  AcaoVariavel acao, AcaoVariavel aplicada) {
+        boolean maximo = estatistica(processo, nome).escrita(serializado, armazenado, aplicada);
+        if (aplicada == AcaoVariavel.COMPRIMIR) {
+            comprimidas.increment();
+        } else if (aplicada == AcaoVariavel.EXTERNALIZAR) {
+            externalizadas.increment();
+        }
+        bytesEconomizados.add(serializado - armazenado);
+        if (acao != AcaoVariavel.MANTER) {
+            avisos.increment();
+            if (maximo) {
+                logger.warn("Variable {} of process {} serialized to {} bytes, stored as {} bytes ({})",
+                    nome, processo, serializado, armazenado, aplicada == AcaoVariavel.MANTER ? acao : aplicada);
+            }
+        }
+    }
+
+    private EstatisticaVariavel estatistica(String processo, String nome) {
+        Map<String, EstatisticaVariavel> porNome = estatisticas.get(processo);
+        EstatisticaVariavel estatistica = porNome == null ? null : porNome.get(nome);
+        if (estatistica != null) {
+            return estatistica;
+        }
+        if (chaves.get() >= maxChaves) {
+            processo = OUTRAS;
+            nome = OUTRAS;
+        }
+        String p = processo;
+        String n = nome;
+        return estatisticas.computeIfAbsent(p, k -> new ConcurrentHashMap<>())
+            .computeIfAbsent(n, k -> {
+                chaves.incrementAndGet();
+                return new EstatisticaVariavel(p, n);
+            });
+    }
+}
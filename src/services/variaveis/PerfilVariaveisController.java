@@ -0,0 +1,42 @@
+package br.com.austa.experiencia.service.variaveis;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Which process variables drive engine database I/O: totals plus the top
+ * (process definition, variable) pairs by stored bytes written and read,
+ * largest value or number of writes.
+ *
+ * GET /api/v1/variaveis/perfil?ordem=IO|MAIOR|ESCRITAS&limite=20
+ */
+@RestController
+@RequestMapping("/api/v1/variaveis")
+public class PerfilVariaveisController {
+
+    private final PerfilVariaveis perfilVariaveis;
+
+    @Autowired
+    public PerfilVariaveisController(PerfilVariaveis perfilVariaveis) {
+        this.perfilVariaveis = perfilVariaveis;
+    }
+
+    @GetMapping("/perfil")
+    public ResponseEntity<Map<String, Object>> perfil(@RequestParam(defaultValue = "IO") String ordem,
+                                                      @RequestParam(defaultValue = "20") int limite) {
+        CriterioRanking criterio;
+        try {
+            criterio = CriterioRanking.valueOf(ordem.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(perfilVariaveis.relatorio(criterio, Math.max(1, Math.min(limite, 500))));
+    }
+}
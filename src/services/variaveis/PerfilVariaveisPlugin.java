@@ -0,0 +1,60 @@
+package br.com.austa.experiencia.service.variaveis;
+
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.variable.serializer.TypedValueSerializer;
+import org.camunda.bpm.engine.impl.variable.serializer.VariableSerializers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Perfil Variaveis Plugin - wraps every variable serializer in a
+ * {@link SerializadorPerfilado} feeding {@link PerfilVariaveis}
+ *
+ * Done after init so the serializers other plugins register (Spin's JSON
+ * and XML formats) are wrapped too; each keeps its position and name.
+ *
+ * {@code variaveis.perfil.habilitado}: false leaves the serializers as they
+ * are. Values already compressed or externalized stay readable only while
+ * the plugin is enabled, so turn the policies off (limits 0) and let the
+ * variables be rewritten before disabling it.
+ */
+@Component
+public class PerfilVariaveisPlugin extends AbstractProcessEnginePlugin {
+
+    private static final Logger logger = LoggerFactory.getLogger(PerfilVariaveisPlugin.class);
+
+    private final PerfilVariaveis perfil;
+    private final boolean habilitado;
+
+    @Autowired
+    public PerfilVariaveisPlugin(PerfilVariaveis perfil,
+                                 @Value("${variaveis.perfil.habilitado:true}") boolean habilitado) {
+        this.perfil = perfil;
+        this.habilitado = habilitado;
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void postInit(ProcessEngineConfigurationImpl configuration) {
+        if (!habilitado) {
+            logger.info("Process variable profiling disabled");
+            return;
+        }
+        VariableSerializers serializers = configuration.getVariableSerializers();
+        int envolvidos = 0;
+        for (TypedValueSerializer<?> serializador : serializers.getSerializers()) {
+            if (serializador instanceof SerializadorPerfilado) {
+                continue;
+            }
+            int posicao = serializers.getSerializerIndex(serializador);
+            serializers.removeSerializer(serializador);
+            serializers.addSerializer(new SerializadorPerfilado(serializador, perfil), posicao);
+            envolvidos++;
+        }
+        logger.info("Process variable sizes profiled through {} serializers", envolvidos);
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.austa.experiencia.service.variaveis;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Size limits for serialized process variables.
+ *
+ * Global limits apply to every variable (0 disables one); a rule per
+ * variable name ({@code dossieAuditoria:EXTERNALIZAR:65536}) can only
+ * escalate: the stronger of the two actions wins.
+ */
+public final class PoliticasVariaveis {
+
+    private final long limiteAviso;
+    private final long limiteCompressao;
+    private final long limiteExterno;
+    private final Map<String, Regra> regras;
+
+    public PoliticasVariaveis(long limiteAviso, long limiteCompressao, long limiteExterno, Map<String, Regra> regras) {
+        this.limiteAviso = limiteAviso;
+        this.limiteCompressao = limiteCompressao;
+        this.limiteExterno = limiteExterno;
+        this.regras = Map.copyOf(regras);
+    }
+
+    public AcaoVariavel decidir(String nome, long tamanho) {
+        AcaoVariavel acao = AcaoVariavel.MANTER;
+        if (limiteExterno > 0 && tamanho >= limiteExterno) {
+            acao = AcaoVariavel.EXTERNALIZAR;
+        } else if (limiteCompressao > 0 && tamanho >= limiteCompressao) {
+            acao = AcaoVariavel.COMPRIMIR;
+        } else if (limiteAviso > 0 && tamanho >= limiteAviso) {
+            acao = AcaoVariavel.AVISAR;
+        }
+        Regra regra = nome == null ? null : regras.get(nome);
+        if (regra != null && tamanho >= regra.limite && regra.acao.compareTo(acao) > 0) {
+            acao = regra.acao;
+        }
+        return acao;
+    }
+
+    /**
+     * Parses {@code nome:ACAO:bytes,...}.
+     */
+    public static Map<String, Regra> parseRegras(String valor) {
+        Map<String, Regra> regras = new HashMap<>();
+        for (String entrada : valor.split(",")) {
+            String[] partes = entrada.split(":");
+            if (partes.length == 3) {
+                regras.put(partes[0].trim(), new Regra(
+                    AcaoVariavel.valueOf(partes[1].trim().toUpperCase(Locale.ROOT)), Long.parseLong(partes[2].trim())));
+            }
+        }
+        return regras;
+    }
+
+    public static final class Regra {
+        final AcaoVariavel acao;
+        final long limite;
+
+        public Regra(AcaoVariavel acao, long limite) {
+            this.acao = acao;
+            this.limite = limite;
+        }
+    }
+}
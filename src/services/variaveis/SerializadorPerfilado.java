@@ -0,0 +1,156 @@
+package br.com.austa.experiencia.service.variaveis;
+
+import org.camunda.bpm.engine.impl.context.BpmnExecutionContext;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoricVariableInstanceEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.camunda.bpm.engine.impl.variable.serializer.TypedValueSerializer;
+import org.camunda.bpm.engine.impl.variable.serializer.ValueFields;
+import org.camunda.bpm.engine.impl.variable.serializer.ValueFieldsImpl;
+import org.camunda.bpm.engine.variable.impl.value.UntypedValueImpl;
+import org.camunda.bpm.engine.variable.type.SerializableValueType;
+import org.camunda.bpm.engine.variable.type.ValueType;
+import org.camunda.bpm.engine.variable.value.TypedValue;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Wraps one of the engine's variable serializers, keeping its name so values
+ * already stored still resolve to it. Writes and reads are measured in
+ * {@link PerfilVariaveis}; for serializable types (objects, JSON, XML) the
+ * stored bytes also go through its policies on the way in and are restored
+ * on the way out.
+ */
+class SerializadorPerfilado<T extends TypedValue> implements TypedValueSerializer<T> {
+
+    private static final String DESCONHECIDO = "?";
+
+    private final TypedValueSerializer<T> serializador;
+    private final PerfilVariaveis perfil;
+    private final boolean serializavel;
+
+    // stored form of each live value, for the engine's dirty checks (see PerfilVariaveis#rearmazenar)
+    private final Map<TypedValue, AcaoVariavel> formas = Collections.synchronizedMap(new WeakHashMap<>());
+
+    SerializadorPerfilado(TypedValueSerializer<T> serializador, PerfilVariaveis perfil) {
+        this.serializador = serializador;
+        this.perfil = perfil;
+        this.serializavel = serializador.getType() instanceof SerializableValueType;
+    }
+
+    @Override
+    public void writeValue(T value, ValueFields valueFields) {
+        serializador.writeValue(value, valueFields);
+        byte[] bytes = valueFields.getByteArrayValue();
+        if (serializavel && bytes != null) {
+            if (valueFields.getName() == null) {
+                AcaoVariavel forma = formas.get(value);
+                valueFields.setByteArrayValue(forma == null
+                    ? perfil.armazenar(processo(valueFields), null, bytes)
+                    : perfil.rearmazenar(forma, bytes));
+                return;
+            }
+            byte[] armazenado = perfil.armazenar(processo(valueFields), valueFields.getName(), bytes);
+            formas.put(value, PerfilVariaveis.formaArmazenada(armazenado));
+            valueFields.setByteArrayValue(armazenado);
+        } else if (valueFields.getName() != null) {
+            perfil.escrita(processo(valueFields), valueFields.getName(), tamanho(valueFields));
+        }
+    }
+
+    @Override
+    public T readValue(ValueFields valueFields, boolean deserializeValue, boolean asTransientValue) {
+        byte[] bytes = valueFields.getByteArrayValue();
+        if (!serializavel || bytes == null) {
+            if (valueFields.getName() != null) {
+                perfil.leitura(processo(valueFields), valueFields.getName(), tamanho(valueFields));
+            }
+            return serializador.readValue(valueFields, deserializeValue, asTransientValue);
+        }
+        byte[] original = perfil.restaurar(processo(valueFields), valueFields.getName(), bytes);
+        ValueFields campos = valueFields;
+        if (original != bytes) {
+            ValueFieldsImpl restaurado = new ValueFieldsImpl();
+            restaurado.setTextValue(valueFields.getTextValue());
+            restaurado.setTextValue2(valueFields.getTextValue2());
+            restaurado.setLongValue(valueFields.getLongValue());
+            restaurado.setDoubleValue(valueFields.getDoubleValue());
+            restaurado.setByteArrayValue(original);
+            campos = restaurado;
+        }
+        T valor = serializador.readValue(campos, deserializeValue, asTransientValue);
+        formas.put(valor, PerfilVariaveis.formaArmazenada(bytes));
+        return valor;
+    }
+
+    @Override
+    public String getName() {
+        return serializador.getName();
+    }
+
+    @Override
+    public ValueType getType() {
+        return serializador.getType();
+    }
+
+    @Override
+    public T convertToTypedValue(UntypedValueImpl untypedValue) {
+        return serializador.convertToTypedValue(untypedValue);
+    }
+
+    @Override
+    public boolean canHandle(TypedValue value) {
+        return serializador.canHandle(value);
+    }
+
+    @Override
+    public String getSerializationDataformat() {
+        return serializador.getSerializationDataformat();
+    }
+
+    @Override
+    public boolean isMutableValue(T typedValue) {
+        return serializador.isMutableValue(typedValue);
+    }
+
+    /**
+     * Process definition key of the variable. A new variable is serialized
+     * before it is attached to its execution, so the execution being run is
+     * the fallback; values written from outside an execution are reported under "?".
+     */
+    private static String processo(ValueFields valueFields) {
+        if (valueFields instanceof VariableInstanceEntity variavel && variavel.getProcessDefinitionId() != null) {
+            String definicao = variavel.getProcessDefinitionId();
+            int fim = definicao.indexOf(':');
+            return fim < 0 ? definicao : definicao.substring(0, fim);
+        }
+        if (valueFields instanceof HistoricVariableInstanceEntity historica && historica.getProcessDefinitionKey() != null) {
+            return historica.getProcessDefinitionKey();
+        }
+        BpmnExecutionContext contexto = Context.getBpmnExecutionContext();
+        if (contexto != null && contexto.getExecution() != null
+                && contexto.getExecution().getProcessDefinition() != null) {
+            return contexto.getExecution().getProcessDefinition().getKey();
+        }
+        return DESCONHECIDO;
+    }
+
+    private static long tamanho(ValueFields valueFields) {
+        if (valueFields.getByteArrayValue() != null) {
+            return valueFields.getByteArrayValue().length;
+        }
+        long tamanho = 0;
+        if (valueFields.getTextValue() != null) {
+            tamanho += valueFields.getTextValue().length();
+        }
+        if (valueFields.getTextValue2() != null) {
+            tamanho += valueFields.getTextValue2().length();
+        }
+        if (tamanho == 0 && (valueFields.getLongValue() != null || valueFields.getDoubleValue() != null)) {
+            tamanho = Long.BYTES;
+        }
+        return tamanho;
+    }
+}
@@ -0,0 +1,17 @@
+package br.com.austa.experiencia.service.whatsapp;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous transport used by {@link WhatsAppDispatcher}.
+ */
+public interface CanalWhatsApp {
+
+    /**
+     * Sends one message from the given sender number.
+     *
+     * @return future completed with the provider message id (wamid), or
+     *         exceptionally with {@link FalhaEnvioWhatsApp}
+     */
+    CompletableFuture<String> enviar(String remetente, MensagemWhatsApp mensagem);
+}
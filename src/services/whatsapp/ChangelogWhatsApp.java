@@ -0,0 +1,255 @@
+package br.com.austa.experiencia.service.whatsapp;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Changelog of the messages accepted by {@link WhatsAppDispatcher}: snapshot
+ * plus append-only log.
+ *
+ * Both files hold the same framed records, [len(4) crc32(4) payload]:
+ * - ACEITA: a message accepted for sending, with everything needed to send it
+ * - ENVIADA: the wamid the provider returned for it and when
+ * - CONCLUIDA: the message needs no more tracking (read, failed or expired)
+ *
+ * Recovery replays snapshot then log; a torn record at the end of the log is
+ * detected by its CRC and truncated. Template parameters come back as text,
+ * in the order they were sent.
+ */
+final class ChangelogWhatsApp {
+
+    private static final byte ACEITA = 1;
+    private static final byte ENVIADA = 2;
+    private static final byte CONCLUIDA = 3;
+
+    /**
+     * Receives the records of a replay, in order.
+     */
+    interface Visitante {
+        void aceita(MensagemWhatsApp mensagem);
+
+        void enviada(String mensagemId, String wamid, long enviadaEmMillis);
+
+        void concluida(String mensagemId);
+    }
+
+    private final Path snapshot;
+    private final Path log;
+    private final boolean fsync;
+    private FileChannel canal;
+    private int registrosDesdeSnapshot;
+
+    ChangelogWhatsApp(Path diretorio, boolean fsync) throws IOException {
+        Files.createDirectories(diretorio);
+        this.snapshot = diretorio.resolve("snapshot.dat");
+        this.log = diretorio.resolve("whatsapp.log");
+        this.fsync = fsync;
+    }
+
+    /**
+     * Replays snapshot and log, then opens the log for appending.
+     */
+    void recuperar(Visitante visitante) throws IOException {
+        if (Files.exists(snapshot)) {
+            ler(snapshot, visitante);
+        }
+        long valido = Files.exists(log) ? ler(log, visitante) : 0;
+        canal = FileChannel.open(log, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        canal.truncate(valido);
+        canal.position(valido);
+    }
+
+    void registrarAceita(MensagemWhatsApp mensagem) throws IOException {
+        anexar(aceita(mensagem));
+    }
+
+    void registrarEnviada(String mensagemId, String wamid, long enviadaEmMillis) throws IOException {
+        anexar(enviada(mensagemId, wamid, enviadaEmMillis));
+    }
+
+    void registrarConcluida(String mensagemId) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(48);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(CONCLUIDA);
+        out.writeUTF(mensagemId);
+        anexar(bytes.toByteArray());
+    }
+
+    int getRegistrosDesdeSnapshot() {
+        return registrosDesdeSnapshot;
+    }
+
+    /**
+     * Writes every message still queued or tracked to a new snapshot and
+     * starts an empty log.
+     *
+     * @param vivas visits every message still queued or tracked
+     */
+    void compactar(Consumer<Consumer<MensagemWhatsApp>> vivas) throws IOException {
+        Path temporario = snapshot.resolveSibling("snapshot.tmp");
+        try (FileChannel destino = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            try {
+                vivas.accept(mensagem -> {
+                    try {
+                        escrever(destino, aceita(mensagem));
+                        if (mensagem.wamid != null) {
+                            escrever(destino, enviada(mensagem.getId(), mensagem.wamid, mensagem.enviadaEmMillis));
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            destino.force(true);
+        }
+        Files.move(temporario, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        canal.truncate(0);
+        canal.position(0);
+        registrosDesdeSnapshot = 0;
+    }
+
+    void fechar() throws IOException {
+        if (canal != null) {
+            canal.force(true);
+            canal.close();
+        }
+    }
+
+    private void anexar(byte[] payload) throws IOException {
+        escrever(canal, payload);
+        if (fsync) {
+            canal.force(false);
+        }
+        registrosDesdeSnapshot++;
+    }
+
+    private static void escrever(FileChannel destino, byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer buffer = ByteBuffer.allocate(8 + payload.length);
+        buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        while (buffer.hasRemaining()) {
+            destino.write(buffer);
+        }
+    }
+
+    private static byte[] aceita(MensagemWhatsApp mensagem) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(ACEITA);
+        out.writeUTF(mensagem.getId());
+        out.writeUTF(mensagem.getTelefone());
+        out.writeByte(mensagem.getPrioridade().ordinal());
+        escreverTexto(out, mensagem.getTexto());
+        escreverTexto(out, mensagem.getTemplateId());
+        escreverTexto(out, mensagem.getProcessInstanceId());
+        out.writeInt(mensagem.getParametros().size());
+        for (Map.Entry<String, Object> parametro : mensagem.getParametros().entrySet()) {
+            out.writeUTF(parametro.getKey());
+            escreverTexto(out, parametro.getValue() != null ? parametro.getValue().toString() : null);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] enviada(String mensagemId, String wamid, long enviadaEmMillis) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(ENVIADA);
+        out.writeUTF(mensagemId);
+        out.writeUTF(wamid);
+        out.writeLong(enviadaEmMillis);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return offset just past the last intact record
+     */
+    private static long ler(Path arquivo, Visitante visitante) throws IOException {
+        long valido = 0;
+        try (InputStream stream = Channels.newInputStream(FileChannel.open(arquivo, StandardOpenOption.READ));
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16))) {
+            while (true) {
+                int tamanho;
+                try {
+                    tamanho = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                int crcEsperado = in.readInt();
+                if (tamanho <= 0 || tamanho > (1 << 20)) {
+                    break;
+                }
+                byte[] payload = new byte[tamanho];
+                in.readFully(payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != crcEsperado) {
+                    break;
+                }
+                aplicar(payload, visitante);
+                valido += 8 + tamanho;
+            }
+        } catch (EOFException e) {
+            // torn record at the tail
+        }
+        return valido;
+    }
+
+    private static void aplicar(byte[] payload, Visitante visitante) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte tipo = in.readByte();
+        if (tipo == ENVIADA) {
+            visitante.enviada(in.readUTF(), in.readUTF(), in.readLong());
+            return;
+        }
+        if (tipo == CONCLUIDA) {
+            visitante.concluida(in.readUTF());
+            return;
+        }
+        String id = in.readUTF();
+        String telefone = in.readUTF();
+        PrioridadeMensagem prioridade = PrioridadeMensagem.values()[in.readByte()];
+        String texto = lerTexto(in);
+        String templateId = lerTexto(in);
+        String processInstanceId = lerTexto(in);
+        int quantidade = in.readInt();
+        Map<String, Object> parametros = new LinkedHashMap<>();
+        for (int i = 0; i < quantidade; i++) {
+            parametros.put(in.readUTF(), lerTexto(in));
+        }
+        visitante.aceita(MensagemWhatsApp.restaurada(id, telefone, texto, templateId, parametros, prioridade,
+            processInstanceId));
+    }
+
+    private static void escreverTexto(DataOutputStream out, String valor) throws IOException {
+        out.writeBoolean(valor != null);
+        if (valor != null) {
+            out.writeUTF(valor);
+        }
+    }
+
+    private static String lerTexto(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
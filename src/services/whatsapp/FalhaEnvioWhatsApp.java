@@ -0,0 +1,33 @@
+package br.com.austa.experiencia.service.whatsapp;
+
+import br.com.austa.experiencia.exception.IntegrationException;
+
+/**
+ * Send failure reported by the WhatsApp Business API.
+ */
+public class FalhaEnvioWhatsApp extends IntegrationException {
+
+    private final int status;
+    private final boolean retentavel;
+
+    public FalhaEnvioWhatsApp(String message, int status, boolean retentavel) {
+        super(message);
+        this.status = status;
+        this.retentavel = retentavel;
+    }
+
+    public FalhaEnvioWhatsApp(String message, Throwable cause) {
+        super(message, cause);
+        this.status = 0;
+        this.retentavel = true;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    /** Throttling (429), server errors and I/O failures are retried; other 4xx are not. */
+    public boolean isRetentavel() {
+        return retentavel;
+    }
+}
@@ -0,0 +1,99 @@
+package br.com.austa.experiencia.service.whatsapp;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Outbound WhatsApp message as queued by {@link WhatsAppDispatcher}.
+ *
+ * Either {@code texto} (free text, only inside a customer service window) or
+ * {@code templateId} (approved template) is set.
+ */
+public final class MensagemWhatsApp {
+
+    private final String id;
+    private final String telefone;
+    private final String texto;
+    private final String templateId;
+    private final Map<String, Object> parametros;
+    private final PrioridadeMensagem prioridade;
+    private final String processInstanceId;
+    final long enfileiradaEmNanos = System.nanoTime();
+
+    // dispatch state, owned by the dispatcher
+    int tentativas;
+    long enviadaEmNanos;
+    volatile String wamid;
+    volatile long enviadaEmMillis;
+    // read back from the changelog: enqueue time unknown, kept out of the latency metrics
+    boolean recuperada;
+
+    private MensagemWhatsApp(String id, String telefone, String texto, String templateId,
+                             Map<String, Object> parametros, PrioridadeMensagem prioridade, String processInstanceId) {
+        this.id = id;
+        this.telefone = telefone;
+        this.texto = texto;
+        this.templateId = templateId;
+        this.parametros = parametros != null ? parametros : Collections.emptyMap();
+        this.prioridade = prioridade;
+        this.processInstanceId = processInstanceId;
+    }
+
+    public static MensagemWhatsApp texto(String telefone, String texto, PrioridadeMensagem prioridade,
+                                         String processInstanceId) {
+        return new MensagemWhatsApp(UUID.randomUUID().toString(), telefone, texto, null, null, prioridade,
+            processInstanceId);
+    }
+
+    public static MensagemWhatsApp template(String telefone, String templateId, Map<String, Object> parametros,
+                                            PrioridadeMensagem prioridade, String processInstanceId) {
+        return new MensagemWhatsApp(UUID.randomUUID().toString(), telefone, null, templateId, parametros, prioridade,
+            processInstanceId);
+    }
+
+    /** A message read back from {@link ChangelogWhatsApp}, keeping its dispatch id. */
+    static MensagemWhatsApp restaurada(String id, String telefone, String texto, String templateId,
+                                       Map<String, Object> parametros, PrioridadeMensagem prioridade,
+                                       String processInstanceId) {
+        return new MensagemWhatsApp(id, telefone, texto, templateId, parametros, prioridade, processInstanceId);
+    }
+
+    /** Dispatch id returned to the caller; the provider id (wamid) is only known after sending. */
+    public String getId() {
+        return id;
+    }
+
+    public String getTelefone() {
+        return telefone;
+    }
+
+    public String getTexto() {
+        return texto;
+    }
+
+    public String getTemplateId() {
+        return templateId;
+    }
+
+    public Map<String, Object> getParametros() {
+        return parametros;
+    }
+
+    public PrioridadeMensagem getPrioridade() {
+        return prioridade;
+    }
+
+    public String getProcessInstanceId() {
+        return processInstanceId;
+    }
+
+    public boolean isTemplate() {
+        return templateId != null;
+    }
+
+    @Override
+    public String toString() {
+        return "MensagemWhatsApp{" + id + " " + prioridade + (isTemplate() ? " template=" + templateId : "") + "}";
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.austa.experiencia.service.whatsapp;
+
+/**
+ * Outbound WhatsApp priority, highest first. Lower priorities are only sent
+ * when no higher-priority message of the same sender is waiting.
+ */
+public enum PrioridadeMensagem {
+
+    /** Clinical alerts and care-critical notices (e.g. decompensation, urgent authorization). */
+    ALERTA_CLINICO,
+
+    /** Replies and status updates of an ongoing interaction (authorizations, complaints). */
+    TRANSACIONAL,
+
+    /** Onboarding, reminders and proactive engagement. */
+    ENGAJAMENTO,
+
+    /** NPS and satisfaction surveys; first to be held back during campaign bursts. */
+    PESQUISA;
+
+    public static PrioridadeMensagem de(Object valor, PrioridadeMensagem padrao) {
+        if (valor == null) {
+            return padrao;
+        }
+        try {
+            return valueOf(valor.toString().trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return padrao;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.austa.experiencia.service.whatsapp;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Delivery status of a dispatched message, correlated back to its process.
+ */
+public final class ReciboWhatsApp {
+
+    private final String mensagemId;
+    private final String wamid;
+    private final String processInstanceId;
+    private final PrioridadeMensagem prioridade;
+    private final String status;
+    private final long timestamp;
+    private final String erro;
+
+    ReciboWhatsApp(MensagemWhatsApp mensagem, String wamid, String status, long timestamp, String erro) {
+        this.mensagemId = mensagem.getId();
+        this.wamid = wamid;
+        this.processInstanceId = mensagem.getProcessInstanceId();
+        this.prioridade = mensagem.getPrioridade();
+        this.status = status;
+        this.timestamp = timestamp;
+        this.erro = erro;
+    }
+
+    public String getMensagemId() {
+        return mensagemId;
+    }
+
+    public String getWamid() {
+        return wamid;
+    }
+
+    public String getProcessInstanceId() {
+        return processInstanceId;
+    }
+
+    public PrioridadeMensagem getPrioridade() {
+        return prioridade;
+    }
+
+    /** sent, delivered, read or failed. */
+    public String getStatus() {
+        return status;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getErro() {
+        return erro;
+    }
+
+    /**
+     * Process variables sent with the correlated message.
+     */
+    public Map<String, Object> toVariaveis() {
+        Map<String, Object> variaveis = new HashMap<>();
+        variaveis.put("messageId", mensagemId);
+        variaveis.put("whatsappStatus", status);
+        variaveis.put("whatsappStatusTimestamp", timestamp);
+        variaveis.put("whatsappEntregue", "delivered".equals(status) || "read".equals(status));
+        if (erro != null) {
+            variaveis.put("erroEnvio", erro);
+        }
+        return variaveis;
+    }
+
+    @Override
+    public String toString() {
+        return "ReciboWhatsApp{" + mensagemId + " " + status + " " + prioridade + "}";
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.austa.experiencia.service.whatsapp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumes WhatsApp webhook notifications (forwarded as-is by the webhook
+ * gateway) and feeds message statuses to {@link WhatsAppDispatcher}.
+ *
+ * The wamid of a sent message is only known to the instance that sent it, so
+ * every instance reads every receipt under its own consumer group and the
+ * others ignore it. The group starts at the end of the topic: receipts
+ * published while an instance is down are not seen by it, and processes
+ * waiting on them fall back to their timers.
+ *
+ * Expected payload: the Cloud API webhook body, i.e.
+ * {"entry": [{"changes": [{"value": {"statuses": [
+ *   {"id": "wamid...", "status": "delivered", "timestamp": "1733900000", "errors": [...]}]}}]}]}
+ */
+@Component("reciboWhatsAppConsumer")
+public class ReciboWhatsAppConsumer {
+
+    @Autowired
+    private WhatsAppDispatcher whatsAppDispatcher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @KafkaListener(topics = "${whatsapp.recibos.topico:whatsapp-status}",
+                   groupId = "#{'${whatsapp.recibos.group-id:whatsapp-dispatcher}-' + T(java.util.UUID).randomUUID()}",
+                   properties = "auto.offset.reset=latest")
+    public void onWebhook(String mensagem) throws Exception {
+        JsonNode raiz = objectMapper.readTree(mensagem);
+        for (JsonNode entrada : raiz.path("entry")) {
+            for (JsonNode mudanca : entrada.path("changes")) {
+                for (JsonNode status : mudanca.path("value").path("statuses")) {
+                    JsonNode erro = status.path("errors").path(0);
+                    whatsAppDispatcher.registrarRecibo(
+                        status.path("id").asText(),
+                        status.path("status").asText(),
+                        status.path("timestamp").asLong() * 1000,
+                        erro.isMissingNode() ? null : erro.path("title").asText());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package br.com.austa.experiencia.service.whatsapp;
+
+import br.com.austa.experiencia.service.rastreamento.ContextoSpan;
+import br.com.austa.experiencia.service.rastreamento.Rastreador;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.runtime.MessageCorrelationResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Correlates {@link ReciboWhatsApp} to the process instance that queued the
+ * message, as {@link #MENSAGEM}. Processes that need the outcome wait on it
+ * with an intermediate message catch event; receipts nobody waits for are
+ * dropped by the engine.
+ */
+@Component("reciboWhatsAppCorrelator")
+public class ReciboWhatsAppCorrelator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReciboWhatsAppCorrelator.class);
+
+    public static final String MENSAGEM = "Msg_WhatsAppStatus";
+
+    @Autowired
+    private RuntimeService runtimeService;
+
+    @Autowired
+    private Rastreador rastreador;
+
+    @Value("${whatsapp.correlacao.threads:2}")
+    private int threads;
+
+    @Value("${whatsapp.correlacao.fila:10000}")
+    private int capacidadeFila;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void iniciar() {
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(capacidadeFila),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void parar() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    public void enfileirar(ReciboWhatsApp recibo) {
+        if (recibo.getProcessInstanceId() == null) {
+            return;
+        }
+        ContextoSpan origem = rastreador.atual();
+        executor.execute(() -> rastreador.executar("correlacionar " + MENSAGEM, origem, () -> correlacionar(recibo)));
+    }
+
+    void correlacionar(ReciboWhatsApp recibo) {
+        try {
+            List<MessageCorrelationResult> resultados = runtimeService.createMessageCorrelation(MENSAGEM)
+                .processInstanceId(recibo.getProcessInstanceId())
+                .setVariables(recibo.toVariaveis())
+                .correlateAllWithResult();
+            logger.debug("WhatsApp receipt {} correlated to {} execution(s)", recibo, resultados.size());
+        } catch (Exception e) {
+            logger.error("Error correlating WhatsApp receipt {}: {}", recibo, e.getMessage(), e);
+        }
+    }
+}
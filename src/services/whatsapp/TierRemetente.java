@@ -0,0 +1,24 @@
+package br.com.austa.experiencia.service.whatsapp;
+
+/**
+ * WhatsApp Business API messaging-limit tier of a sender number: how many
+ * business-initiated conversations it may open in a rolling 24 hours.
+ */
+public enum TierRemetente {
+
+    TIER_250(250),
+    TIER_1K(1_000),
+    TIER_10K(10_000),
+    TIER_100K(100_000),
+    ILIMITADO(Integer.MAX_VALUE);
+
+    private final int limite24h;
+
+    TierRemetente(int limite24h) {
+        this.limite24h = limite24h;
+    }
+
+    public int getLimite24h() {
+        return limite24h;
+    }
+}
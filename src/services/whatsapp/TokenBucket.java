@@ -0,0 +1,54 @@
+package br.com.austa.experiencia.service.whatsapp;
+
+/**
+ * Token bucket on an explicit nanosecond clock. Not thread-safe: each bucket
+ * is owned by the dispatcher thread.
+ */
+public final class TokenBucket {
+
+    private final double capacidade;
+    private final double tokensPorNano;
+    private double tokens;
+    private long ultimaRecarga;
+
+    public TokenBucket(double capacidade, double tokensPorSegundo, long agoraNanos) {
+        this.capacidade = capacidade;
+        this.tokensPorNano = tokensPorSegundo / 1_000_000_000d;
+        this.tokens = capacidade;
+        this.ultimaRecarga = agoraNanos;
+    }
+
+    /**
+     * Takes up to {@code pedido} whole tokens.
+     *
+     * @return tokens granted
+     */
+    public int consumir(int pedido, long agoraNanos) {
+        recarregar(agoraNanos);
+        int concedido = (int) Math.min(pedido, Math.floor(tokens));
+        tokens -= concedido;
+        return concedido;
+    }
+
+    /** Returns tokens of a grant that was not used. */
+    public void devolver(int quantidade) {
+        tokens = Math.min(capacidade, tokens + quantidade);
+    }
+
+    /** Nanoseconds until at least one token is available. */
+    public long nanosAteDisponivel(long agoraNanos) {
+        recarregar(agoraNanos);
+        if (tokens >= 1) {
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPorNano);
+    }
+
+    private void recarregar(long agoraNanos) {
+        long decorrido = agoraNanos - ultimaRecarga;
+        if (decorrido > 0) {
+            tokens = Math.min(capacidade, tokens + decorrido * tokensPorNano);
+            ultimaRecarga = agoraNanos;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package br.com.austa.experiencia.service.whatsapp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link CanalWhatsApp} over the WhatsApp Business Cloud API.
+ *
+ * One {@link HttpClient} negotiates HTTP/2, so a dispatcher batch becomes
+ * concurrent streams on a single connection instead of one blocking
+ * request per job thread. Template parameters are sent in map order.
+ */
+@Component("whatsAppCloudClient")
+public class WhatsAppCloudClient implements CanalWhatsApp {
+
+    @Value("${integration.whatsapp.base-url:https://graph.facebook.com/v19.0}")
+    private String baseUrl;
+
+    @Value("${integration.whatsapp.token:}")
+    private String token;
+
+    @Value("${integration.whatsapp.timeout:10000}")
+    private long timeoutMillis;
+
+    @Value("${integration.whatsapp.idioma-template:pt_BR}")
+    private String idiomaTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private HttpClient httpClient;
+
+    @PostConstruct
+    public void iniciar() {
+        httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofMillis(timeoutMillis))
+            .build();
+    }
+
+    @Override
+    public CompletableFuture<String> enviar(String remetente, MensagemWhatsApp mensagem) {
+        HttpRequest requisicao;
+        try {
+            requisicao = HttpRequest.newBuilder(URI.create(baseUrl + "/" + remetente + "/messages"))
+                .timeout(Duration.ofMillis(timeoutMillis))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(corpo(mensagem))))
+                .build();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(new FalhaEnvioWhatsApp("Invalid WhatsApp request: " + e.getMessage(), 0, false));
+        }
+
+        return httpClient.sendAsync(requisicao, HttpResponse.BodyHandlers.ofString())
+            .handle((resposta, erro) -> {
+                if (erro != null) {
+                    throw new FalhaEnvioWhatsApp("WhatsApp API unreachable: " + erro.getMessage(), erro);
+                }
+                int status = resposta.statusCode();
+                if (status / 100 != 2) {
+                    throw new FalhaEnvioWhatsApp("WhatsApp API returned " + status + ": " + resposta.body(),
+                        status, status == 429 || status >= 500);
+                }
+                String wamid;
+                try {
+                    JsonNode corpo = objectMapper.readTree(resposta.body());
+                    wamid = corpo.path("messages").path(0).path("id").asText("");
+                } catch (Exception e) {
+                    throw new FalhaEnvioWhatsApp("Unreadable WhatsApp API response", e);
+                }
+                if (wamid.isEmpty()) {
+                    // accepted but untrackable; resending could deliver it twice
+                    throw new FalhaEnvioWhatsApp("WhatsApp API returned no message id: " + resposta.body(),
+                        status, false);
+                }
+                return wamid;
+            });
+    }
+
+    private Map<String, Object> corpo(MensagemWhatsApp mensagem) {
+        Map<String, Object> corpo = new LinkedHashMap<>();
+        corpo.put("messaging_product", "whatsapp");
+        corpo.put("to", mensagem.getTelefone());
+        if (!mensagem.isTemplate()) {
+            corpo.put("type", "text");
+            corpo.put("text", Map.of("body", mensagem.getTexto()));
+            return corpo;
+        }
+
+        List<Map<String, Object>> parametros = new ArrayList<>();
+        for (Object valor : mensagem.getParametros().values()) {
+            parametros.add(Map.of("type", "text", "text", String.valueOf(valor)));
+        }
+        Map<String, Object> template = new LinkedHashMap<>();
+        template.put("name", mensagem.getTemplateId());
+        template.put("language", Map.of("code", idiomaTemplate));
+        if (!parametros.isEmpty()) {
+            template.put("components", List.of(Map.of("type", "body", "parameters", parametros)));
+        }
+        corpo.put("type", "template");
+        corpo.put("template", template);
+        return corpo;
+    }
+}
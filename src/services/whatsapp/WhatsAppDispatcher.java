@@ -0,0 +1,680 @@
+package br.com.austa.experiencia.service.whatsapp;
+
+import br.com.austa.experiencia.exception.IntegrationException;
+import br.com.austa.experiencia.service.metricas.HistogramaLatencia;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * WhatsApp Dispatcher - prioritized, rate-limited outbound WhatsApp pipeline
+ *
+ * Job threads only call {@link #enfileirar} and return; a single dispatcher
+ * thread drains the queues and sends through {@link CanalWhatsApp}.
+ *
+ * - Each recipient sticks to one sender number (conversation continuity);
+ *   every sender has one queue per {@link PrioridadeMensagem}, served in
+ *   strict priority order, so clinical alerts overtake NPS campaigns.
+ * - Each sender has two token buckets: throughput (messages per second) and
+ *   its messaging-limit tier (per rolling 24h, approximated per message).
+ * - Messages are sent in batches of concurrent requests multiplexed on one
+ *   HTTP/2 connection; the number of requests in flight is bounded.
+ * - Throttling and server errors are retried with exponential backoff at the
+ *   same priority; permanent errors are reported as a "failed" receipt.
+ *
+ * Delivery receipts ({@link #registrarRecibo}) are matched by wamid and handed
+ * to the receipt sink, which correlates them to the originating process. Every
+ * instance reads every receipt ({@link ReciboWhatsAppConsumer}) and only the
+ * one that sent the message knows its wamid; the others ignore it. The webhook
+ * can beat the send response, so while this instance has sends in flight a
+ * receipt for a wamid not registered yet is held for
+ * {@code whatsapp.recibos.espera-ms} and applied once the send completes. A
+ * send whose response carries no wamid counts as failed.
+ *
+ * An accepted message is written to {@link ChangelogWhatsApp} before
+ * {@link #enfileirar} returns, and its wamid once sent, so after a restart
+ * messages not sent yet are queued again and sent ones still get their
+ * receipts. A crash between a send and its record sends that message again
+ * (at least once).
+ * Latency from enqueue to send and to delivery is tracked per priority.
+ */
+@Component("whatsAppDispatcher")
+public class WhatsAppDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(WhatsAppDispatcher.class);
+
+    private static final long RASTREIO_TTL_NANOS = TimeUnit.HOURS.toNanos(48);
+    private static final long ESPERA_RECIBO_PADRAO_MILLIS = 300_000;
+
+    private final CanalWhatsApp canal;
+    private final Consumer<ReciboWhatsApp> destinoRecibos;
+    private final Remetente[] remetentes;
+    private final int capacidade;
+    private final int tamanhoLote;
+    private final int maxTentativas;
+    private final int maxEmVoo;
+    private final Semaphore emVoo;
+    private final ChangelogWhatsApp changelog;
+    private final int compactarApos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition haTrabalho = lock.newCondition();
+    private int pendentes;
+
+    private final Map<String, MensagemWhatsApp> rastreios = new ConcurrentHashMap<>();
+    private final Map<String, List<ReciboAntecipado>> recibosAntecipados = new ConcurrentHashMap<>();
+    private final long esperaReciboNanos;
+    // guarded by the changelog; only kept with a changelog
+    private final Map<String, MensagemWhatsApp> vivas = new LinkedHashMap<>();
+
+    private final Map<PrioridadeMensagem, HistogramaLatencia> latenciaEnvio = new EnumMap<>(PrioridadeMensagem.class);
+    private final Map<PrioridadeMensagem, HistogramaLatencia> latenciaEntrega = new EnumMap<>(PrioridadeMensagem.class);
+    private final LongAdder enviadas = new LongAdder();
+    private final LongAdder retentativas = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder rejeitadas = new LongAdder();
+    private final LongAdder recibosDescartados = new LongAdder();
+    private final LongAdder recibosIgnorados = new LongAdder();
+
+    private Thread thread;
+    private volatile boolean ativo;
+    private ScheduledExecutorService agendador;
+
+    @Autowired
+    public WhatsAppDispatcher(CanalWhatsApp canal,
+                              ReciboWhatsAppCorrelator correlator,
+                              @Value("${whatsapp.remetentes:default:TIER_1K}") String remetentes,
+                              @Value("${whatsapp.mensagens-por-segundo:80}") double mensagensPorSegundo,
+                              @Value("${whatsapp.fila.capacidade:200000}") int capacidade,
+                              @Value("${whatsapp.lote:50}") int tamanhoLote,
+                              @Value("${whatsapp.em-voo:256}") int maxEmVoo,
+                              @Value("${whatsapp.tentativas:5}") int maxTentativas,
+                              @Value("${whatsapp.recibos.espera-ms:300000}") long esperaReciboMillis,
+                              @Value("${whatsapp.fila.path:./data/whatsapp}") String diretorio,
+                              @Value("${whatsapp.fila.compactar-apos:10000}") int compactarApos,
+                              @Value("${whatsapp.fila.fsync:false}") boolean fsync) throws IOException {
+        this(canal, correlator::enfileirar, parseRemetentes(remetentes), mensagensPorSegundo,
+            capacidade, tamanhoLote, maxEmVoo, maxTentativas, esperaReciboMillis,
+            new ChangelogWhatsApp(Paths.get(diretorio), fsync), compactarApos);
+        recuperar();
+    }
+
+    /**
+     * Without a changelog: queued messages are lost on restart (tests, tools).
+     */
+    public WhatsAppDispatcher(CanalWhatsApp canal, Consumer<ReciboWhatsApp> destinoRecibos,
+                              Map<String, TierRemetente> remetentes, double mensagensPorSegundo,
+                              int capacidade, int tamanhoLote, int maxEmVoo, int maxTentativas) {
+        this(canal, destinoRecibos, remetentes, mensagensPorSegundo, capacidade, tamanhoLote, maxEmVoo,
+            maxTentativas, ESPERA_RECIBO_PADRAO_MILLIS, null, 0);
+    }
+
+    /**
+     * Standalone constructor (tests, tools) with a changelog in {@code diretorio}.
+     */
+    public WhatsAppDispatcher(CanalWhatsApp canal, Consumer<ReciboWhatsApp> destinoRecibos,
+                              Map<String, TierRemetente> remetentes, double mensagensPorSegundo,
+                              int capacidade, int tamanhoLote, int maxEmVoo, int maxTentativas,
+                              Path diretorio, int compactarApos) throws IOException {
+        this(canal, destinoRecibos, remetentes, mensagensPorSegundo, capacidade, tamanhoLote, maxEmVoo,
+            maxTentativas, ESPERA_RECIBO_PADRAO_MILLIS, new ChangelogWhatsApp(diretorio, false), compactarApos);
+        recuperar();
+    }
+
+    /**
+     * @param remetentes         sender phone-number id to its messaging-limit tier
+     * @param esperaReciboMillis how long a receipt for a wamid not registered yet is held
+     * @param changelog          null to keep queued messages in memory only
+     */
+    private WhatsAppDispatcher(CanalWhatsApp canal, Consumer<ReciboWhatsApp> destinoRecibos,
+                               Map<String, TierRemetente> remetentes, double mensagensPorSegundo,
+                               int capacidade, int tamanhoLote, int maxEmVoo, int maxTentativas,
+                               long esperaReciboMillis, ChangelogWhatsApp changelog, int compactarApos) {
+        if (remetentes.isEmpty()) {
+            throw new IllegalArgumentException("at least one WhatsApp sender is required");
+        }
+        this.canal = canal;
+        this.destinoRecibos = destinoRecibos;
+        this.capacidade = capacidade;
+        this.tamanhoLote = tamanhoLote;
+        this.maxTentativas = maxTentativas;
+        this.maxEmVoo = maxEmVoo;
+        this.emVoo = new Semaphore(maxEmVoo);
+        this.esperaReciboNanos = TimeUnit.MILLISECONDS.toNanos(esperaReciboMillis);
+        this.changelog = changelog;
+        this.compactarApos = compactarApos;
+
+        long agora = System.nanoTime();
+        this.remetentes = new Remetente[remetentes.size()];
+        int i = 0;
+        for (Map.Entry<String, TierRemetente> entrada : remetentes.entrySet()) {
+            this.remetentes[i++] = new Remetente(entrada.getKey(), entrada.getValue(), mensagensPorSegundo, agora);
+        }
+        for (PrioridadeMensagem prioridade : PrioridadeMensagem.values()) {
+            latenciaEnvio.put(prioridade, new HistogramaLatencia());
+            latenciaEntrega.put(prioridade, new HistogramaLatencia());
+        }
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        ativo = true;
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "whatsapp-retentativas");
+            t.setDaemon(true);
+            return t;
+        });
+        agendador.scheduleAtFixedRate(this::expirarRastreios, 1, 1, TimeUnit.HOURS);
+        agendador.scheduleAtFixedRate(this::expirarRecibosAntecipados, 1, 1, TimeUnit.MINUTES);
+        thread = new Thread(this::executar, "whatsapp-dispatcher");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("WhatsApp dispatcher started with {} sender(s)", remetentes.length);
+    }
+
+    @PreDestroy
+    public void parar() throws InterruptedException {
+        ativo = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(5000);
+        }
+        if (agendador != null) {
+            agendador.shutdownNow();
+        }
+        if (changelog != null) {
+            synchronized (changelog) {
+                try {
+                    changelog.fechar();
+                } catch (IOException e) {
+                    logger.error("Could not close the WhatsApp changelog: {}", e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Queues a message and returns immediately.
+     *
+     * @return dispatch id, echoed in the delivery receipt
+     * @throws IntegrationException if the dispatch queue is full or the message
+     *                              could not be written to the changelog
+     */
+    public String enfileirar(MensagemWhatsApp mensagem) {
+        Remetente remetente = remetente(mensagem);
+        lock.lock();
+        try {
+            if (pendentes >= capacidade) {
+                rejeitadas.increment();
+                throw new IntegrationException("WhatsApp dispatch queue full (" + capacidade + ")");
+            }
+            if (changelog != null) {
+                synchronized (changelog) {
+                    try {
+                        changelog.registrarAceita(mensagem);
+                    } catch (IOException e) {
+                        throw new IntegrationException("Could not queue WhatsApp message " + mensagem.getId(), e);
+                    }
+                    vivas.put(mensagem.getId(), mensagem);
+                    compactarSeNecessario();
+                }
+            }
+            remetente.filas[mensagem.getPrioridade().ordinal()].addLast(mensagem);
+            remetente.pendentes++;
+            pendentes++;
+            haTrabalho.signal();
+        } finally {
+            lock.unlock();
+        }
+        return mensagem.getId();
+    }
+
+    /**
+     * Applies a delivery status from the WhatsApp webhook.
+     *
+     * @param status sent, delivered, read or failed
+     */
+    public void registrarRecibo(String wamid, String status, long timestamp, String erro) {
+        // read before the lookup: a send that completes is registered before it leaves the in-flight count
+        boolean enviando = emVoo.availablePermits() < maxEmVoo;
+        MensagemWhatsApp mensagem = rastreios.get(wamid);
+        if (mensagem != null) {
+            aplicarRecibo(mensagem, wamid, status, timestamp, erro);
+            return;
+        }
+        if (!enviando) {
+            recibosIgnorados.increment();
+            logger.debug("Ignoring receipt for WhatsApp message {} not sent by this instance: {}", wamid, status);
+            return;
+        }
+        ReciboAntecipado antecipado = new ReciboAntecipado(status, timestamp, erro, System.nanoTime());
+        recibosAntecipados.compute(wamid, (k, lista) -> {
+            List<ReciboAntecipado> recibos = lista != null ? lista : new ArrayList<>(2);
+            recibos.add(antecipado);
+            return recibos;
+        });
+        // the send may have completed in between; whoever removes the buffer applies it
+        mensagem = rastreios.get(wamid);
+        if (mensagem != null) {
+            aplicarAntecipados(wamid, mensagem);
+        } else {
+            logger.debug("Holding receipt for WhatsApp message {} not registered yet: {}", wamid, status);
+        }
+    }
+
+    private void aplicarAntecipados(String wamid, MensagemWhatsApp mensagem) {
+        List<ReciboAntecipado> antecipados = recibosAntecipados.remove(wamid);
+        if (antecipados != null) {
+            for (ReciboAntecipado recibo : antecipados) {
+                aplicarRecibo(mensagem, wamid, recibo.status, recibo.timestamp, recibo.erro);
+            }
+        }
+    }
+
+    private void aplicarRecibo(MensagemWhatsApp mensagem, String wamid, String status, long timestamp, String erro) {
+        if ("delivered".equals(status) && !mensagem.recuperada) {
+            latenciaEntrega.get(mensagem.getPrioridade()).registrar(System.nanoTime() - mensagem.enfileiradaEmNanos);
+        }
+        if (("read".equals(status) || "failed".equals(status)) && rastreios.remove(wamid) != null) {
+            concluida(mensagem);
+        }
+        if (!"sent".equals(status)) {
+            destinoRecibos.accept(new ReciboWhatsApp(mensagem, wamid, status, timestamp, erro));
+        }
+    }
+
+    public int getPendentes() {
+        lock.lock();
+        try {
+            return pendentes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public HistogramaLatencia getLatenciaEnvio(PrioridadeMensagem prioridade) {
+        return latenciaEnvio.get(prioridade);
+    }
+
+    public HistogramaLatencia getLatenciaEntrega(PrioridadeMensagem prioridade) {
+        return latenciaEntrega.get(prioridade);
+    }
+
+    public long getEnviadas() {
+        return enviadas.sum();
+    }
+
+    public long getRetentativas() {
+        return retentativas.sum();
+    }
+
+    public long getFalhas() {
+        return falhas.sum();
+    }
+
+    public long getRejeitadas() {
+        return rejeitadas.sum();
+    }
+
+    /**
+     * Receipts held while sends were in flight and dropped because their wamid
+     * was never registered within the hold time.
+     */
+    public long getRecibosDescartados() {
+        return recibosDescartados.sum();
+    }
+
+    /**
+     * Receipts for messages this instance did not send (or stopped tracking).
+     */
+    public long getRecibosIgnorados() {
+        return recibosIgnorados.sum();
+    }
+
+    private void executar() {
+        List<MensagemWhatsApp> lote = new ArrayList<>(tamanhoLote);
+        int proximo = 0;
+        while (ativo) {
+            Remetente remetente = null;
+            lock.lock();
+            try {
+                long espera = Long.MAX_VALUE;
+                long agora = System.nanoTime();
+                // round-robin over senders so one busy number cannot starve the others
+                for (int k = 0; k < remetentes.length && remetente == null; k++) {
+                    Remetente candidato = remetentes[(proximo + k) % remetentes.length];
+                    if (candidato.pendentes == 0) {
+                        continue;
+                    }
+                    int concedido = candidato.reservar(Math.min(tamanhoLote, candidato.pendentes), agora);
+                    if (concedido == 0) {
+                        espera = Math.min(espera, candidato.nanosAteDisponivel(agora));
+                        continue;
+                    }
+                    candidato.retirar(concedido, lote);
+                    pendentes -= concedido;
+                    remetente = candidato;
+                    proximo = (proximo + k + 1) % remetentes.length;
+                }
+                if (remetente == null) {
+                    if (espera == Long.MAX_VALUE) {
+                        haTrabalho.await();
+                    } else {
+                        haTrabalho.awaitNanos(espera);
+                    }
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                enviarLote(remetente, lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void enviarLote(Remetente remetente, List<MensagemWhatsApp> lote) throws InterruptedException {
+        emVoo.acquire(lote.size());
+        for (MensagemWhatsApp mensagem : lote) {
+            mensagem.tentativas++;
+            mensagem.enviadaEmNanos = System.nanoTime();
+            try {
+                canal.enviar(remetente.id, mensagem)
+                    .whenComplete((wamid, erro) -> concluir(remetente, mensagem, wamid, erro));
+            } catch (RuntimeException e) {
+                concluir(remetente, mensagem, null, e);
+            }
+        }
+    }
+
+    /** Releases the in-flight permit only once the outcome is registered; see {@link #registrarRecibo}. */
+    private void concluir(Remetente remetente, MensagemWhatsApp mensagem, String wamid, Throwable erro) {
+        try {
+            registrarResultado(remetente, mensagem, wamid, erro);
+        } finally {
+            emVoo.release();
+        }
+    }
+
+    private void registrarResultado(Remetente remetente, MensagemWhatsApp mensagem, String wamid, Throwable erro) {
+        if (erro == null && (wamid == null || wamid.isEmpty())) {
+            erro = new FalhaEnvioWhatsApp("WhatsApp send completed without a message id", 0, false);
+        }
+        if (erro == null) {
+            enviadas.increment();
+            if (!mensagem.recuperada) {
+                latenciaEnvio.get(mensagem.getPrioridade())
+                    .registrar(mensagem.enviadaEmNanos - mensagem.enfileiradaEmNanos);
+            }
+            mensagem.wamid = wamid;
+            mensagem.enviadaEmMillis = System.currentTimeMillis();
+            gravar(mensagem, c -> c.registrarEnviada(mensagem.getId(), wamid, mensagem.enviadaEmMillis));
+            rastreios.put(wamid, mensagem);
+            if (recibosAntecipados.containsKey(wamid)) {
+                aplicarAntecipados(wamid, mensagem);
+            }
+            return;
+        }
+
+        Throwable causa = erro.getCause() != null && !(erro instanceof FalhaEnvioWhatsApp) ? erro.getCause() : erro;
+        boolean retentavel = !(causa instanceof FalhaEnvioWhatsApp) || ((FalhaEnvioWhatsApp) causa).isRetentavel();
+        if (retentavel && mensagem.tentativas < maxTentativas && agendador != null) {
+            retentativas.increment();
+            long atrasoMillis = 1000L << Math.min(mensagem.tentativas - 1, 6);
+            logger.warn("WhatsApp send failed ({}), retry {} in {} ms: {}",
+                causa.getMessage(), mensagem.tentativas, atrasoMillis, mensagem);
+            agendador.schedule(() -> reenfileirar(remetente, mensagem), atrasoMillis, TimeUnit.MILLISECONDS);
+            return;
+        }
+
+        falhas.increment();
+        logger.error("WhatsApp send failed permanently after {} attempt(s): {} - {}",
+            mensagem.tentativas, mensagem, causa.getMessage());
+        concluida(mensagem);
+        destinoRecibos.accept(new ReciboWhatsApp(mensagem, null, "failed", System.currentTimeMillis(),
+            causa.getMessage()));
+    }
+
+    /** Retries bypass the capacity check: the message was already accepted. */
+    private void reenfileirar(Remetente remetente, MensagemWhatsApp mensagem) {
+        lock.lock();
+        try {
+            remetente.filas[mensagem.getPrioridade().ordinal()].addFirst(mensagem);
+            remetente.pendentes++;
+            pendentes++;
+            haTrabalho.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void expirarRastreios() {
+        long limite = System.nanoTime() - RASTREIO_TTL_NANOS;
+        for (Map.Entry<String, MensagemWhatsApp> rastreio : rastreios.entrySet()) {
+            if (rastreio.getValue().enviadaEmNanos < limite && rastreios.remove(rastreio.getKey(), rastreio.getValue())) {
+                concluida(rastreio.getValue());
+            }
+        }
+    }
+
+    private void concluida(MensagemWhatsApp mensagem) {
+        if (changelog == null) {
+            return;
+        }
+        synchronized (changelog) {
+            if (vivas.remove(mensagem.getId()) == null) {
+                return;
+            }
+        }
+        gravar(mensagem, c -> c.registrarConcluida(mensagem.getId()));
+    }
+
+    /**
+     * Appends to the changelog. A failure here only means the message is sent
+     * again or tracked again after a restart, so it is logged, not thrown.
+     */
+    private void gravar(MensagemWhatsApp mensagem, Gravacao gravacao) {
+        if (changelog == null) {
+            return;
+        }
+        synchronized (changelog) {
+            try {
+                gravacao.gravar(changelog);
+                compactarSeNecessario();
+            } catch (IOException e) {
+                logger.error("Could not record {} in the WhatsApp changelog: {}", mensagem, e.getMessage(), e);
+            }
+        }
+    }
+
+    /** Called holding the changelog. */
+    private void compactarSeNecessario() {
+        if (changelog.getRegistrosDesdeSnapshot() < compactarApos) {
+            return;
+        }
+        try {
+            changelog.compactar(visitante -> vivas.values().forEach(visitante));
+            logger.info("WhatsApp changelog compacted: {} message(s) queued or tracked", vivas.size());
+        } catch (IOException e) {
+            logger.error("Could not compact the WhatsApp changelog: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Queues again the messages not sent before the last stop and tracks the
+     * wamids of the sent ones, unless past the tracking TTL.
+     */
+    private void recuperar() throws IOException {
+        Map<String, MensagemWhatsApp> recuperadas = new LinkedHashMap<>();
+        changelog.recuperar(new ChangelogWhatsApp.Visitante() {
+            @Override
+            public void aceita(MensagemWhatsApp mensagem) {
+                mensagem.recuperada = true;
+                recuperadas.put(mensagem.getId(), mensagem);
+            }
+
+            @Override
+            public void enviada(String mensagemId, String wamid, long enviadaEmMillis) {
+                MensagemWhatsApp mensagem = recuperadas.get(mensagemId);
+                if (mensagem != null) {
+                    mensagem.wamid = wamid;
+                    mensagem.enviadaEmMillis = enviadaEmMillis;
+                }
+            }
+
+            @Override
+            public void concluida(String mensagemId) {
+                recuperadas.remove(mensagemId);
+            }
+        });
+        long agoraMillis = System.currentTimeMillis();
+        long agoraNanos = System.nanoTime();
+        int enfileiradas = 0;
+        for (MensagemWhatsApp mensagem : recuperadas.values()) {
+            if (mensagem.wamid == null) {
+                Remetente remetente = remetente(mensagem);
+                remetente.filas[mensagem.getPrioridade().ordinal()].addLast(mensagem);
+                remetente.pendentes++;
+                pendentes++;
+                enfileiradas++;
+            } else {
+                long idadeNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, agoraMillis - mensagem.enviadaEmMillis));
+                if (idadeNanos >= RASTREIO_TTL_NANOS) {
+                    continue;
+                }
+                mensagem.enviadaEmNanos = agoraNanos - idadeNanos;
+                rastreios.put(mensagem.wamid, mensagem);
+            }
+            vivas.put(mensagem.getId(), mensagem);
+        }
+        if (!vivas.isEmpty()) {
+            logger.info("Recovered {} WhatsApp message(s) to send and {} awaiting receipts",
+                enfileiradas, vivas.size() - enfileiradas);
+        }
+    }
+
+    private Remetente remetente(MensagemWhatsApp mensagem) {
+        return remetentes[(mensagem.getTelefone().hashCode() & 0x7fffffff) % remetentes.length];
+    }
+
+    private void expirarRecibosAntecipados() {
+        long limite = System.nanoTime() - esperaReciboNanos;
+        for (String wamid : recibosAntecipados.keySet()) {
+            recibosAntecipados.computeIfPresent(wamid, (k, lista) -> {
+                if (lista.get(0).recebidoEmNanos >= limite) {
+                    return lista;
+                }
+                recibosDescartados.add(lista.size());
+                logger.debug("Dropping {} receipt(s) for unknown WhatsApp message {}", lista.size(), k);
+                return null;
+            });
+        }
+    }
+
+    static Map<String, TierRemetente> parseRemetentes(String configuracao) {
+        Map<String, TierRemetente> remetentes = new LinkedHashMap<>();
+        for (String item : configuracao.split(",")) {
+            String[] partes = item.trim().split(":");
+            if (partes[0].isEmpty()) {
+                continue;
+            }
+            remetentes.put(partes[0], partes.length > 1 ? TierRemetente.valueOf(partes[1]) : TierRemetente.TIER_1K);
+        }
+        return remetentes;
+    }
+
+    private interface Gravacao {
+        void gravar(ChangelogWhatsApp changelog) throws IOException;
+    }
+
+    private static final class ReciboAntecipado {
+
+        final String status;
+        final long timestamp;
+        final String erro;
+        final long recebidoEmNanos;
+
+        ReciboAntecipado(String status, long timestamp, String erro, long recebidoEmNanos) {
+            this.status = status;
+            this.timestamp = timestamp;
+            this.erro = erro;
+            this.recebidoEmNanos = recebidoEmNanos;
+        }
+    }
+
+    /**
+     * One sender phone number. All fields are guarded by the dispatcher lock.
+     */
+    private static final class Remetente {
+
+        final String id;
+        final TokenBucket vazao;
+        final TokenBucket limiteTier;
+        @SuppressWarnings("unchecked")
+        final ArrayDeque<MensagemWhatsApp>[] filas = new ArrayDeque[PrioridadeMensagem.values().length];
+        int pendentes;
+
+        Remetente(String id, TierRemetente tier, double mensagensPorSegundo, long agoraNanos) {
+            this.id = id;
+            // burst of one second of throughput
+            this.vazao = new TokenBucket(Math.max(1, mensagensPorSegundo), mensagensPorSegundo, agoraNanos);
+            this.limiteTier = new TokenBucket(tier.getLimite24h(), tier.getLimite24h() / 86_400d, agoraNanos);
+            for (int i = 0; i < filas.length; i++) {
+                filas[i] = new ArrayDeque<>();
+            }
+        }
+
+        int reservar(int pedido, long agoraNanos) {
+            int porVazao = vazao.consumir(pedido, agoraNanos);
+            int porTier = limiteTier.consumir(porVazao, agoraNanos);
+            vazao.devolver(porVazao - porTier);
+            return porTier;
+        }
+
+        long nanosAteDisponivel(long agoraNanos) {
+            return Math.max(1, Math.max(vazao.nanosAteDisponivel(agoraNanos), limiteTier.nanosAteDisponivel(agoraNanos)));
+        }
+
+        void retirar(int quantidade, List<MensagemWhatsApp> destino) {
+            for (ArrayDeque<MensagemWhatsApp> fila : filas) {
+                while (quantidade > 0 && !fila.isEmpty()) {
+                    destino.add(fila.pollFirst());
+                    quantidade--;
+                    pendentes--;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package br.com.austa.experiencia.carga;
+
+import org.camunda.bpm.engine.RuntimeService;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * What each {@link CenarioCarga} does against the engine, the way production
+ * callers do it: message start events for receptions and authorizations,
+ * message correlation for NPS answers.
+ *
+ * The SUB-002 cron is entered at its multi-instance sub-process with a
+ * synthetic batch of {@code fanOut} beneficiaries, so the fan-out size is
+ * controlled instead of depending on the active base loaded at 06:00.
+ */
+public class AcoesCarga {
+
+    private static final String[] CANAIS = {"WHATSAPP", "APP", "TELEFONE", "PORTAL"};
+    private static final String[] DEMANDAS = {"ORIENTACAO_CLINICA", "SEGUNDA_VIA_BOLETO", "AGENDAMENTO", "RECLAMACAO"};
+    private static final String[] PROCEDIMENTOS = {"10101012", "40301010", "40808041", "30912016"};
+    private static final int BENEFICIARIOS = 50_000;
+
+    private final RuntimeService runtimeService;
+    private final int fanOut;
+    private final Queue<String> aguardandoNps = new ConcurrentLinkedQueue<>();
+
+    public AcoesCarga(RuntimeService runtimeService, int fanOut) {
+        this.runtimeService = runtimeService;
+        this.fanOut = fanOut;
+    }
+
+    /**
+     * Parks SUB-010 instances at the NPS receive task, one per answer the run will send.
+     */
+    public void prepararNps(int quantidade) {
+        for (int i = 0; i < quantidade; i++) {
+            String chave = "CARGA-NPS-" + System.nanoTime() + "-" + i;
+            runtimeService.createProcessInstanceByKey(CenarioCarga.RESPOSTA_NPS.getProcesso())
+                .businessKey(chave)
+                .startBeforeActivity("Task_AguardarRespostaNPS")
+                .setVariable("beneficiarioId", beneficiario(i))
+                .setVariable("canal", "WHATSAPP")
+                .execute();
+            aguardandoNps.add(chave);
+        }
+    }
+
+    public int getNpsAguardando() {
+        return aguardandoNps.size();
+    }
+
+    /**
+     * @param sequencia position of the request in the run, for distinct ids
+     */
+    public void executar(CenarioCarga cenario, long sequencia) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (cenario) {
+            case RECEPCAO -> {
+                Map<String, Object> variaveis = new HashMap<>();
+                variaveis.put("beneficiarioId", beneficiario(sequencia));
+                variaveis.put("canal", CANAIS[random.nextInt(CANAIS.length)]);
+                variaveis.put("tipoDemanda", DEMANDAS[random.nextInt(DEMANDAS.length)]);
+                variaveis.put("mensagem", "Mensagem de carga " + sequencia);
+                runtimeService.createMessageCorrelation("Msg_InteracaoRecebida")
+                    .setVariables(variaveis)
+                    .correlateStartMessage();
+            }
+            case AUTORIZACAO -> {
+                Map<String, Object> variaveis = new HashMap<>();
+                variaveis.put("beneficiarioId", beneficiario(sequencia));
+                variaveis.put("prestadorId", "PREST-" + random.nextInt(500));
+                variaveis.put("codigoProcedimento", PROCEDIMENTOS[random.nextInt(PROCEDIMENTOS.length)]);
+                variaveis.put("valorSolicitado", 80.0 + random.nextInt(4000));
+                runtimeService.createMessageCorrelation("Msg_SolicitacaoAutorizacao")
+                    .setVariables(variaveis)
+                    .correlateStartMessage();
+            }
+            case MOTOR_PROATIVO -> {
+                List<String> lote = new ArrayList<>(fanOut);
+                long primeiro = random.nextLong(BENEFICIARIOS);
+                for (int i = 0; i < fanOut; i++) {
+                    lote.add(beneficiario(primeiro + i));
+                }
+                runtimeService.createProcessInstanceByKey(CenarioCarga.MOTOR_PROATIVO.getProcesso())
+                    .startBeforeActivity("SubProcess_ProcessarBeneficiarios")
+                    .setVariable("listaBeneficiarios", lote)
+                    .execute();
+            }
+            case RESPOSTA_NPS -> {
+                String chave = aguardandoNps.poll();
+                if (chave == null) {
+                    throw new IllegalStateException("No SUB-010 instance left waiting for an NPS answer");
+                }
+                runtimeService.createMessageCorrelation("Msg_RespostaNPS")
+                    .processInstanceBusinessKey(chave)
+                    .setVariable("nps", random.nextInt(11))
+                    .correlate();
+            }
+        }
+    }
+
+    private static String beneficiario(long sequencia) {
+        return "CARGA-BEN-" + (sequencia % BENEFICIARIOS);
+    }
+}
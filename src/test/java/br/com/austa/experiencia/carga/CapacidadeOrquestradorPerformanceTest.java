@@ -0,0 +1,190 @@
+package br.com.austa.experiencia.carga;
+
+import br.com.austa.experiencia.support.BaseIntegrationTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.global.GlobalSettings;
+import com.github.tomakehurst.wiremock.http.LogNormal;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Capacity of the orchestrator under the production traffic mix
+ *
+ * Replays receptions (SUB-003), authorizations (SUB-006), NPS answers
+ * (SUB-010) and the SUB-002 cron fan-out against the embedded engine, with
+ * every external system served by the {@code MockServersConfig} WireMock
+ * stand-ins at a log-normal latency. The rate steps up until a stage misses
+ * its target rate or the p99 SLO; the last stage that held is the ceiling.
+ *
+ * Per stage: HDR response and completion latency per subprocess, achieved
+ * throughput, due-job queue depth and engine SQL statements (total, per
+ * request, most executed). The report is also written to
+ * {@code target/carga/capacidade-<carga.release>.json} for comparison
+ * between releases.
+ *
+ * Tuned with system properties, e.g.
+ * {@code -Dcarga.mix=RECEPCAO:55,AUTORIZACAO:30,RESPOSTA_NPS:14,MOTOR_PROATIVO:1 -Dcarga.taxas=10,20,40,80}.
+ *
+ * Coverage:
+ * - Throughput ceiling of the configured mix under the p99 SLO
+ * - Latency per subprocess, job-queue depth and SQL statements per stage
+ */
+@DisplayName("Orchestrator Capacity Performance Tests")
+class CapacidadeOrquestradorPerformanceTest extends BaseIntegrationTest {
+
+    private static final MixCarga MIX = MixCarga.parse(
+        System.getProperty("carga.mix", "RECEPCAO:55,AUTORIZACAO:30,RESPOSTA_NPS:14,MOTOR_PROATIVO:1"));
+    private static final double[] TAXAS = Arrays.stream(System.getProperty("carga.taxas", "5,10,20,40,80").split(","))
+        .mapToDouble(taxa -> Double.parseDouble(taxa.trim())).toArray();
+    private static final Duration DURACAO_ESTAGIO = Duration.ofSeconds(Long.getLong("carga.duracao-estagio-s", 30));
+    private static final Duration ESPERA_MAXIMA = Duration.ofSeconds(Long.getLong("carga.espera-maxima-s", 60));
+    private static final int CHAMADORES = Integer.getInteger("carga.chamadores", 32);
+    private static final int THREADS_JOBS = Integer.getInteger("carga.job-threads", 8);
+    private static final int FAN_OUT = Integer.getInteger("carga.fan-out", 200);
+    private static final int LATENCIA_EXTERNA_MS = Integer.getInteger("carga.latencia-externa-ms", 80);
+    private static final double SIGMA_LATENCIA_EXTERNA = Double.parseDouble(
+        System.getProperty("carga.latencia-externa-sigma", "0.4"));
+    private static final double SLO_P99_MS = Double.parseDouble(System.getProperty("carga.slo-p99-ms", "2000"));
+    private static final String RELEASE = System.getProperty("carga.release", "local");
+
+    @Autowired
+    private ProcessEngine processEngine;
+
+    @Autowired
+    private List<WireMockServer> servidoresExternos;
+
+    @BeforeEach
+    void injetarLatenciaExterna() {
+        for (WireMockServer servidor : servidoresExternos) {
+            servidor.updateGlobalSettings(GlobalSettings.builder()
+                .delayDistribution(new LogNormal(LATENCIA_EXTERNA_MS, SIGMA_LATENCIA_EXTERNA))
+                .build());
+        }
+    }
+
+    @AfterEach
+    void removerLatenciaExterna() {
+        servidoresExternos.forEach(servidor -> servidor.updateGlobalSettings(GlobalSettings.defaults()));
+    }
+
+    @Test
+    @DisplayName("Should find the throughput ceiling of the production traffic mix")
+    void shouldFindThroughputCeiling() throws Exception {
+        ContadorSql contadorSql = ContadorSql.instalar(processEngine);
+        AcoesCarga acoes = new AcoesCarga(runtimeService, FAN_OUT);
+        ExecutorJobsCarga jobs = new ExecutorJobsCarga(managementService, THREADS_JOBS);
+        GeradorCarga gerador = new GeradorCarga(acoes, MIX, historyService, CHAMADORES);
+        List<ResultadoEstagio> estagios = new ArrayList<>();
+        ResultadoEstagio teto = null;
+
+        jobs.iniciar();
+        try {
+            for (double taxa : TAXAS) {
+                // parked NPS instances and leftover jobs are set-up, not part of the stage's numbers
+                acoes.prepararNps((int) Math.ceil(taxa * DURACAO_ESTAGIO.toSeconds()
+                    * MIX.fracao(CenarioCarga.RESPOSTA_NPS) * 1.5) + 10);
+                jobs.aguardarFilaVazia(ESPERA_MAXIMA.toMillis());
+                jobs.coletar(new ResultadoEstagio(0, 1));
+                contadorSql.coletar();
+
+                Date desde = new Date();
+                ResultadoEstagio estagio = gerador.executar(taxa, DURACAO_ESTAGIO, ESPERA_MAXIMA);
+                jobs.aguardarFilaVazia(ESPERA_MAXIMA.toMillis());
+                jobs.coletar(estagio);
+                estagio.comandosSql = contadorSql.coletar();
+                gerador.registrarConclusoes(estagio, desde);
+                estagios.add(estagio);
+                imprimir(estagio);
+
+                if (!sustentado(estagio)) {
+                    break;
+                }
+                teto = estagio;
+            }
+        } finally {
+            jobs.parar();
+        }
+
+        Path relatorio = gravarRelatorio(estagios, teto);
+        System.out.printf("Throughput ceiling (%s): %s req/s under p99 %.0f ms; report at %s%n", MIX,
+            teto == null ? "below the first stage" : String.format("%.1f", teto.getTaxaAlcancada()),
+            SLO_P99_MS, relatorio);
+
+        assertThat(estagios).isNotEmpty();
+        assertThat(teto).as("first stage (%s req/s) should hold under the SLO", TAXAS[0]).isNotNull();
+    }
+
+    /**
+     * A stage holds when it delivered its target rate within the SLO, with
+     * nothing left queued and under 1% of requests failed. Poisson arrivals
+     * over a finite stage land a few percent off target, hence 90%.
+     */
+    private static boolean sustentado(ResultadoEstagio estagio) {
+        return estagio.getTaxaAlcancada() >= 0.9 * estagio.getTaxaAlvo()
+            && estagio.getP99PiorMillis() <= SLO_P99_MS
+            && estagio.getPendentes() == 0
+            && estagio.getFalhas() <= estagio.enviadas / 100;
+    }
+
+    private static void imprimir(ResultadoEstagio estagio) {
+        System.out.printf("=== Stage %.0f req/s: achieved %.1f req/s, %d failed, %d pending ===%n",
+            estagio.getTaxaAlvo(), estagio.getTaxaAlcancada(), estagio.getFalhas(), estagio.getPendentes());
+        for (CenarioCarga cenario : CenarioCarga.values()) {
+            if (MIX.fracao(cenario) == 0) {
+                continue;
+            }
+            System.out.printf("  %-15s %6d req  response p50 %7.1f  p95 %7.1f  p99 %7.1f  max %7.1f ms%s%n",
+                cenario, estagio.getResposta(cenario).getContagem(),
+                estagio.getResposta(cenario).percentilMillis(0.5), estagio.getResposta(cenario).percentilMillis(0.95),
+                estagio.getResposta(cenario).percentilMillis(0.99), estagio.getResposta(cenario).getMaximoMillis(),
+                cenario.isConclusaoMedida()
+                    ? String.format("  | completion p50 %7.1f  p99 %7.1f ms",
+                        estagio.getConclusao(cenario).percentilMillis(0.5),
+                        estagio.getConclusao(cenario).percentilMillis(0.99))
+                    : "");
+        }
+        System.out.printf("  Job queue: max %d, mean %.1f due; %d run, %d failed%n",
+            estagio.getFilaMaxima(), estagio.filaMedia, estagio.jobsExecutados, estagio.falhasJobs);
+        System.out.printf("  SQL: %d statements, %.1f per request; top: %s%n",
+            estagio.getTotalSql(), estagio.getSqlPorRequisicao(), ((Map<?, ?>) estagio.toMap(5).get("sql")).get("principais"));
+    }
+
+    private static Path gravarRelatorio(List<ResultadoEstagio> estagios, ResultadoEstagio teto) throws Exception {
+        Map<String, Object> relatorio = new LinkedHashMap<>();
+        relatorio.put("release", RELEASE);
+        relatorio.put("executadoEm", Instant.now().toString());
+        relatorio.put("mix", MIX.toString());
+        relatorio.put("duracaoEstagioS", DURACAO_ESTAGIO.toSeconds());
+        relatorio.put("chamadores", CHAMADORES);
+        relatorio.put("threadsJobs", THREADS_JOBS);
+        relatorio.put("fanOut", FAN_OUT);
+        relatorio.put("latenciaExternaMs", Map.of("mediana", LATENCIA_EXTERNA_MS, "sigma", SIGMA_LATENCIA_EXTERNA));
+        relatorio.put("sloP99Ms", SLO_P99_MS);
+        relatorio.put("tetoReqPorSegundo", teto == null ? null : teto.getTaxaAlcancada());
+        relatorio.put("estagios", estagios.stream().map(estagio -> estagio.toMap(20)).toList());
+
+        Path arquivo = Path.of("target", "carga", "capacidade-" + RELEASE + ".json");
+        Files.createDirectories(arquivo.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(arquivo.toFile(), relatorio);
+        return arquivo;
+    }
+}
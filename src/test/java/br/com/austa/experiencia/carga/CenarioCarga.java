@@ -0,0 +1,37 @@
+package br.com.austa.experiencia.carga;
+
+/**
+ * Kinds of production traffic the capacity benchmark replays, with the
+ * subprocess each one drives.
+ */
+public enum CenarioCarga {
+
+    /** Inbound interaction on any channel, SUB-003 started by Msg_InteracaoRecebida */
+    RECEPCAO("SUB-003_Recepcao_Classificacao", true),
+    /** TISS guide submitted by a provider, SUB-006 started by Msg_SolicitacaoAutorizacao */
+    AUTORIZACAO("SUB-006_Autorizacao_Inteligente", true),
+    /** The 06:00 cron of SUB-002: one instance fanning out to a batch of beneficiaries */
+    MOTOR_PROATIVO("SUB-002_Motor_Proativo", true),
+    /** Survey answer correlated to a SUB-010 instance waiting on Msg_RespostaNPS */
+    RESPOSTA_NPS("SUB-010_Follow_Up_Feedback", false);
+
+    private final String processo;
+    private final boolean conclusaoMedida;
+
+    CenarioCarga(String processo, boolean conclusaoMedida) {
+        this.processo = processo;
+        this.conclusaoMedida = conclusaoMedida;
+    }
+
+    public String getProcesso() {
+        return processo;
+    }
+
+    /**
+     * False when the instance started before the run (NPS answers), so its
+     * duration says nothing about this load.
+     */
+    public boolean isConclusaoMedida() {
+        return conclusaoMedida;
+    }
+}
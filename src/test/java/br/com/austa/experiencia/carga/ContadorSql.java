@@ -0,0 +1,65 @@
+package br.com.austa.experiencia.carga;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the engine's database statements per MyBatis mapped statement
+ * ({@code insertHistoricVariableInstanceEvent}, {@code selectNextJobsToExecute}, ...),
+ * whatever the DataSource. Installed on the engine's session factory, so it
+ * sees every statement from sessions opened afterwards.
+ */
+@Intercepts({
+    @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+    @Signature(type = Executor.class, method = "query",
+        args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class})
+})
+public class ContadorSql implements Interceptor {
+
+    private final Map<String, LongAdder> porComando = new ConcurrentHashMap<>();
+
+    public static ContadorSql instalar(ProcessEngine processEngine) {
+        ContadorSql contador = new ContadorSql();
+        ((ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration())
+            .getSqlSessionFactory().getConfiguration().addInterceptor(contador);
+        return contador;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement comando = (MappedStatement) invocation.getArgs()[0];
+        porComando.computeIfAbsent(comando.getId(), k -> new LongAdder()).increment();
+        return invocation.proceed();
+    }
+
+    /**
+     * Counts since the last call, most executed first, and starts over.
+     */
+    public Map<String, Long> coletar() {
+        Map<String, Long> contagens = new LinkedHashMap<>();
+        porComando.entrySet().stream()
+            .map(entrada -> Map.entry(nomeCurto(entrada.getKey()), entrada.getValue().sumThenReset()))
+            .filter(entrada -> entrada.getValue() > 0)
+            .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+            .forEach(entrada -> contagens.merge(entrada.getKey(), entrada.getValue(), Long::sum));
+        return contagens;
+    }
+
+    private static String nomeCurto(String id) {
+        return id.substring(id.lastIndexOf('.') + 1);
+    }
+}
@@ -0,0 +1,153 @@
+package br.com.austa.experiencia.carga;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.OptimisticLockingException;
+import org.camunda.bpm.engine.runtime.Job;
+
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the engine's jobs during a load run (the test engine keeps its job
+ * executor off) and samples how many are due, which is the job-queue depth
+ * the production executor would face: async continuations of SUB-006, the
+ * SUB-002 fan-out, timers that fall due.
+ *
+ * One thread acquires due jobs in batches and hands them to the workers;
+ * ids already handed out are skipped until their worker is done.
+ */
+public class ExecutorJobsCarga {
+
+    private static final int LOTE = 64;
+
+    private final ManagementService managementService;
+    private final int threads;
+    private final BlockingQueue<String> prontos = new LinkedBlockingQueue<>();
+    private final Set<String> emExecucao = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean ativo = new AtomicBoolean();
+    private ExecutorService workers;
+    private Thread aquisicao;
+
+    private final LongAdder executados = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final AtomicLong profundidadeMaxima = new AtomicLong();
+    private final LongAdder somaProfundidade = new LongAdder();
+    private final LongAdder amostras = new LongAdder();
+
+    public ExecutorJobsCarga(ManagementService managementService, int threads) {
+        this.managementService = managementService;
+        this.threads = threads;
+    }
+
+    public void iniciar() {
+        ativo.set(true);
+        AtomicInteger numero = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(threads, tarefa -> {
+            Thread thread = new Thread(tarefa, "carga-job-" + numero.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < threads; i++) {
+            workers.execute(this::executarContinuamente);
+        }
+        aquisicao = new Thread(this::adquirirContinuamente, "carga-job-aquisicao-1");
+        aquisicao.setDaemon(true);
+        aquisicao.start();
+    }
+
+    public void parar() throws InterruptedException {
+        ativo.set(false);
+        aquisicao.interrupt();
+        aquisicao.join(5_000);
+        workers.shutdownNow();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Waits until no job is due or {@code limiteMillis} passes.
+     *
+     * @return true when the queue drained
+     */
+    public boolean aguardarFilaVazia(long limiteMillis) throws InterruptedException {
+        long fim = System.currentTimeMillis() + limiteMillis;
+        while (System.currentTimeMillis() < fim) {
+            if (emExecucao.isEmpty() && managementService.createJobQuery().executable().count() == 0) {
+                return true;
+            }
+            Thread.sleep(100);
+        }
+        return false;
+    }
+
+    /**
+     * Moves the due-job depth sampled since the last call, and the jobs run
+     * and failed, into {@code resultado}; counters start over.
+     */
+    public synchronized void coletar(ResultadoEstagio resultado) {
+        long quantidade = amostras.sumThenReset();
+        long soma = somaProfundidade.sumThenReset();
+        resultado.filaMaxima = profundidadeMaxima.getAndSet(0);
+        resultado.filaMedia = quantidade == 0 ? 0 : (double) soma / quantidade;
+        resultado.jobsExecutados = executados.sumThenReset();
+        resultado.falhasJobs = falhas.sumThenReset();
+    }
+
+    private void adquirirContinuamente() {
+        while (ativo.get()) {
+            try {
+                long profundidade = managementService.createJobQuery().executable().count();
+                profundidadeMaxima.accumulateAndGet(profundidade, Math::max);
+                somaProfundidade.add(profundidade);
+                amostras.increment();
+                if (profundidade > 0 && prontos.size() < LOTE) {
+                    for (Job job : managementService.createJobQuery().executable().listPage(0, LOTE)) {
+                        if (emExecucao.add(job.getId())) {
+                            prontos.add(job.getId());
+                        }
+                    }
+                }
+                Thread.sleep(profundidade == 0 ? 50 : 5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // engine shutting down or a transient database error; try again
+                falhas.increment();
+            }
+        }
+    }
+
+    private void executarContinuamente() {
+        while (ativo.get()) {
+            String jobId;
+            try {
+                jobId = prontos.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (jobId == null) {
+                continue;
+            }
+            try {
+                managementService.executeJob(jobId);
+                executados.increment();
+            } catch (OptimisticLockingException e) {
+                // another worker or the engine's executor got there first
+            } catch (RuntimeException e) {
+                // the engine decremented its retries; it comes back if any are left
+                falhas.increment();
+            } finally {
+                emExecucao.remove(jobId);
+            }
+        }
+    }
+}
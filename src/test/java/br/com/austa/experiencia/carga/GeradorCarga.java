@@ -0,0 +1,116 @@
+package br.com.austa.experiencia.carga;
+
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.history.HistoricProcessInstance;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop traffic at a target rate: requests arrive as a Poisson process
+ * whatever the engine's state, as they do from channels and providers, and
+ * are served by a fixed pool of caller threads (the application's request
+ * workers). When the engine falls behind, requests queue and their latency
+ * grows from the time they were due, so a saturated stage is visible as a
+ * latency cliff instead of a quietly lower rate.
+ */
+public class GeradorCarga {
+
+    private static final int PAGINA_HISTORICO = 1000;
+
+    private final AcoesCarga acoes;
+    private final MixCarga mix;
+    private final HistoryService historyService;
+    private final int threads;
+    private final AtomicLong sequencia = new AtomicLong();
+
+    public GeradorCarga(AcoesCarga acoes, MixCarga mix, HistoryService historyService, int threads) {
+        this.acoes = acoes;
+        this.mix = mix;
+        this.historyService = historyService;
+        this.threads = threads;
+    }
+
+    /**
+     * Sends {@code taxa} requests per second for {@code duracao}, then waits up
+     * to {@code esperaMaxima} for the queued ones; what is still queued then
+     * is reported as pending.
+     */
+    public ResultadoEstagio executar(double taxa, Duration duracao, Duration esperaMaxima) throws InterruptedException {
+        ResultadoEstagio resultado = new ResultadoEstagio(taxa, duracao.toNanos());
+        AtomicInteger numero = new AtomicInteger();
+        ThreadPoolExecutor chamadores = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), tarefa -> {
+                Thread thread = new Thread(tarefa, "carga-chamador-" + numero.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double intervaloMedioNanos = 1e9 / taxa;
+        long inicio = System.nanoTime();
+        long proxima = inicio;
+        long enviadas = 0;
+        while (proxima - inicio < duracao.toNanos()) {
+            long espera = proxima - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            long agendada = proxima;
+            CenarioCarga cenario = mix.sortear(random.nextDouble());
+            long n = sequencia.incrementAndGet();
+            chamadores.execute(() -> {
+                try {
+                    acoes.executar(cenario, n);
+                    resultado.resposta.get(cenario).registrar(System.nanoTime() - agendada);
+                } catch (RuntimeException e) {
+                    resultado.falhas.get(cenario).increment();
+                }
+            });
+            enviadas++;
+            proxima += (long) (-Math.log(1 - random.nextDouble()) * intervaloMedioNanos);
+        }
+        chamadores.shutdown();
+        if (!chamadores.awaitTermination(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS)) {
+            resultado.pendentes = chamadores.shutdownNow().size();
+        }
+        resultado.duracaoNanos = System.nanoTime() - inicio;
+        resultado.enviadas = enviadas;
+        return resultado;
+    }
+
+    /**
+     * Engine-side duration of the instances started since {@code desde} that
+     * have finished, from the history tables.
+     */
+    public void registrarConclusoes(ResultadoEstagio resultado, Date desde) {
+        for (CenarioCarga cenario : CenarioCarga.values()) {
+            if (!cenario.isConclusaoMedida() || mix.fracao(cenario) == 0) {
+                continue;
+            }
+            for (int pagina = 0; ; pagina += PAGINA_HISTORICO) {
+                List<HistoricProcessInstance> instancias = historyService.createHistoricProcessInstanceQuery()
+                    .processDefinitionKey(cenario.getProcesso())
+                    .startedAfter(desde)
+                    .finished()
+                    .listPage(pagina, PAGINA_HISTORICO);
+                for (HistoricProcessInstance instancia : instancias) {
+                    if (instancia.getDurationInMillis() != null) {
+                        resultado.conclusao.get(cenario).registrar(
+                            TimeUnit.MILLISECONDS.toNanos(instancia.getDurationInMillis()));
+                    }
+                }
+                if (instancias.size() < PAGINA_HISTORICO) {
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package br.com.austa.experiencia.carga;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Share of each {@link CenarioCarga} in the generated traffic, written as
+ * {@code RECEPCAO:55,AUTORIZACAO:30,RESPOSTA_NPS:14,MOTOR_PROATIVO:1}.
+ * Weights are relative; scenarios left out are not generated.
+ */
+public final class MixCarga {
+
+    private final CenarioCarga[] cenarios;
+    private final double[] acumulado;
+    private final Map<CenarioCarga, Double> fracoes = new EnumMap<>(CenarioCarga.class);
+
+    private MixCarga(Map<CenarioCarga, Double> pesos) {
+        double total = pesos.values().stream().mapToDouble(Double::doubleValue).sum();
+        if (total <= 0) {
+            throw new IllegalArgumentException("Traffic mix needs at least one positive weight: " + pesos);
+        }
+        cenarios = pesos.keySet().toArray(new CenarioCarga[0]);
+        acumulado = new double[cenarios.length];
+        double soma = 0;
+        for (int i = 0; i < cenarios.length; i++) {
+            double fracao = pesos.get(cenarios[i]) / total;
+            fracoes.put(cenarios[i], fracao);
+            soma += fracao;
+            acumulado[i] = soma;
+        }
+        acumulado[cenarios.length - 1] = 1.0;
+    }
+
+    public static MixCarga parse(String definicao) {
+        Map<CenarioCarga, Double> pesos = new EnumMap<>(CenarioCarga.class);
+        for (String item : definicao.split(",")) {
+            if (item.isBlank()) {
+                continue;
+            }
+            String[] partes = item.trim().split(":");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Traffic mix entry must be CENARIO:peso, got " + item);
+            }
+            double peso = Double.parseDouble(partes[1].trim());
+            if (peso > 0) {
+                pesos.put(CenarioCarga.valueOf(partes[0].trim().toUpperCase(Locale.ROOT)), peso);
+            }
+        }
+        return new MixCarga(pesos);
+    }
+
+    /**
+     * @param sorteio uniform in [0, 1)
+     */
+    public CenarioCarga sortear(double sorteio) {
+        for (int i = 0; i < acumulado.length; i++) {
+            if (sorteio < acumulado[i]) {
+                return cenarios[i];
+            }
+        }
+        return cenarios[cenarios.length - 1];
+    }
+
+    /**
+     * Share of the traffic, 0 for scenarios not in the mix.
+     */
+    public double fracao(CenarioCarga cenario) {
+        return fracoes.getOrDefault(cenario, 0.0);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder();
+        fracoes.forEach((cenario, fracao) -> texto.append(texto.length() == 0 ? "" : ",")
+            .append(cenario).append(':').append(Math.round(fracao * 1000) / 10.0));
+        return texto.toString();
+    }
+}
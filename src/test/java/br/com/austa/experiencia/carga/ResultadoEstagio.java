@@ -0,0 +1,144 @@
+package br.com.austa.experiencia.carga;
+
+import br.com.austa.experiencia.service.metricas.HistogramaLatencia;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * What one load stage measured. Latencies are per {@link CenarioCarga}:
+ * {@code resposta} is what the caller saw, from the request's scheduled
+ * time (so a backed-up generator shows as latency, not as a lower rate);
+ * {@code conclusao} is the engine-side duration of the instances that
+ * finished, async work included.
+ */
+public class ResultadoEstagio {
+
+    // one window for the whole stage: a stage is percentiles of everything it sent
+    private static final long JANELA_NANOS = TimeUnit.DAYS.toNanos(1);
+
+    final double taxaAlvo;
+    long duracaoNanos;
+    final Map<CenarioCarga, HistogramaLatencia> resposta = new EnumMap<>(CenarioCarga.class);
+    final Map<CenarioCarga, HistogramaLatencia> conclusao = new EnumMap<>(CenarioCarga.class);
+    final Map<CenarioCarga, LongAdder> falhas = new EnumMap<>(CenarioCarga.class);
+    long enviadas;
+    long pendentes;
+    long filaMaxima;
+    double filaMedia;
+    long jobsExecutados;
+    long falhasJobs;
+    Map<String, Long> comandosSql = Map.of();
+
+    ResultadoEstagio(double taxaAlvo, long duracaoNanos) {
+        this.taxaAlvo = taxaAlvo;
+        this.duracaoNanos = duracaoNanos;
+        for (CenarioCarga cenario : CenarioCarga.values()) {
+            resposta.put(cenario, new HistogramaLatencia(JANELA_NANOS));
+            conclusao.put(cenario, new HistogramaLatencia(JANELA_NANOS));
+            falhas.put(cenario, new LongAdder());
+        }
+    }
+
+    public double getTaxaAlvo() {
+        return taxaAlvo;
+    }
+
+    public long getConcluidas() {
+        return resposta.values().stream().mapToLong(HistogramaLatencia::getContagem).sum();
+    }
+
+    public long getFalhas() {
+        return falhas.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /**
+     * Requests answered per second over the stage.
+     */
+    public double getTaxaAlcancada() {
+        return getConcluidas() * 1e9 / duracaoNanos;
+    }
+
+    /**
+     * p99 response of the slowest scenario in the mix, in milliseconds.
+     */
+    public double getP99PiorMillis() {
+        return resposta.values().stream().mapToDouble(h -> h.percentilMillis(0.99)).max().orElse(0);
+    }
+
+    public long getTotalSql() {
+        return comandosSql.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Statements per answered request, jobs included.
+     */
+    public double getSqlPorRequisicao() {
+        long concluidas = getConcluidas();
+        return concluidas == 0 ? 0 : (double) getTotalSql() / concluidas;
+    }
+
+    public long getFilaMaxima() {
+        return filaMaxima;
+    }
+
+    public long getPendentes() {
+        return pendentes;
+    }
+
+    public HistogramaLatencia getResposta(CenarioCarga cenario) {
+        return resposta.get(cenario);
+    }
+
+    public HistogramaLatencia getConclusao(CenarioCarga cenario) {
+        return conclusao.get(cenario);
+    }
+
+    public Map<String, Object> toMap(int comandosSqlMaximos) {
+        Map<String, Object> mapa = new LinkedHashMap<>();
+        mapa.put("taxaAlvo", taxaAlvo);
+        mapa.put("taxaAlcancada", getTaxaAlcancada());
+        mapa.put("enviadas", enviadas);
+        mapa.put("concluidas", getConcluidas());
+        mapa.put("falhas", getFalhas());
+        mapa.put("pendentes", pendentes);
+        Map<String, Object> cenarios = new LinkedHashMap<>();
+        for (CenarioCarga cenario : CenarioCarga.values()) {
+            HistogramaLatencia hResposta = resposta.get(cenario);
+            if (hResposta.getContagem() == 0 && falhas.get(cenario).sum() == 0) {
+                continue;
+            }
+            Map<String, Object> dados = new LinkedHashMap<>();
+            dados.put("processo", cenario.getProcesso());
+            dados.put("requisicoes", hResposta.getContagem());
+            dados.put("falhas", falhas.get(cenario).sum());
+            dados.put("respostaMs", percentis(hResposta));
+            if (cenario.isConclusaoMedida()) {
+                dados.put("instanciasConcluidas", conclusao.get(cenario).getContagem());
+                dados.put("conclusaoMs", percentis(conclusao.get(cenario)));
+            }
+            cenarios.put(cenario.name(), dados);
+        }
+        mapa.put("cenarios", cenarios);
+        mapa.put("filaJobs", Map.of("maxima", filaMaxima, "media", filaMedia,
+            "executados", jobsExecutados, "falhas", falhasJobs));
+        Map<String, Long> principais = new LinkedHashMap<>();
+        comandosSql.entrySet().stream().limit(comandosSqlMaximos)
+            .forEach(entrada -> principais.put(entrada.getKey(), entrada.getValue()));
+        mapa.put("sql", Map.of("total", getTotalSql(), "porRequisicao", getSqlPorRequisicao(),
+            "principais", principais));
+        return mapa;
+    }
+
+    private static Map<String, Object> percentis(HistogramaLatencia histograma) {
+        Map<String, Object> percentis = new LinkedHashMap<>();
+        percentis.put("p50", histograma.percentilMillis(0.5));
+        percentis.put("p95", histograma.percentilMillis(0.95));
+        percentis.put("p99", histograma.percentilMillis(0.99));
+        percentis.put("max", histograma.getMaximoMillis());
+        return percentis;
+    }
+}
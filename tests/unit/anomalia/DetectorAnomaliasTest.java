@@ -0,0 +1,136 @@
+package com.austa.saude.experiencia.test.unit.anomalia;
+
+import br.com.austa.experiencia.service.anomalia.AlertaMarcador;
+import br.com.austa.experiencia.service.anomalia.DetectorAnomalias;
+import br.com.austa.experiencia.service.anomalia.LeituraMarcador;
+import br.com.austa.experiencia.service.timeseries.Marcador;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the streaming health-marker anomaly detector
+ *
+ * Coverage:
+ * - Immediate alert on the condition's critical range
+ * - Z-score alert on a spike against a learned baseline
+ * - CUSUM alert on a slow sustained drift, with no alert before it starts
+ * - Cooldown suppression of repeated alerts for the same series
+ * - Isolation of series state across beneficiaries
+ */
+@DisplayName("Detector Anomalias Tests")
+class DetectorAnomaliasTest {
+
+    private static final long MINUTO = 60_000L;
+    private static final long T0 = 1_700_000_000_000L;
+
+    private final List<AlertaMarcador> alertas = new CopyOnWriteArrayList<>();
+    private DetectorAnomalias detector;
+
+    @BeforeEach
+    void setUp() {
+        detector = new DetectorAnomalias(2, 4096, 0.05, 20, 30, 1000, alertas::add);
+        detector.iniciar();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        detector.parar();
+    }
+
+    @Test
+    @DisplayName("Should alert immediately on a reading outside the critical range")
+    void shouldAlertOnCriticalRange() throws Exception {
+        enviar("BEN-001", Marcador.GLICOSE_CGM, "DIABETES", T0, 62);
+        aguardar(1);
+
+        assertThat(alertas).hasSize(1);
+        assertThat(alertas.get(0).getTipo()).isEqualTo(AlertaMarcador.Tipo.FAIXA_CRITICA);
+        assertThat(alertas.get(0).toVariaveis())
+            .containsEntry("alertaMarcador", "glicoseCgm")
+            .containsEntry("alertaCondicao", "DIABETES");
+    }
+
+    @Test
+    @DisplayName("Should raise a z-score alert on a spike within the critical range")
+    void shouldAlertOnZScoreSpike() throws Exception {
+        Random random = new Random(7);
+        long ts = T0;
+        for (int i = 0; i < 200; i++) {
+            enviar("BEN-002", Marcador.FREQUENCIA_CARDIACA, null, ts += 5 * MINUTO, 70 + random.nextGaussian() * 2);
+        }
+        enviar("BEN-002", Marcador.FREQUENCIA_CARDIACA, null, ts + 5 * MINUTO, 110);
+        aguardar(201);
+
+        assertThat(alertas).extracting(AlertaMarcador::getTipo).containsExactly(AlertaMarcador.Tipo.Z_SCORE);
+        assertThat(alertas.get(0).getValor()).isEqualTo(110);
+    }
+
+    @Test
+    @DisplayName("Should detect a slow weight gain through CUSUM for heart failure")
+    void shouldDetectSustainedDriftWithCusum() throws Exception {
+        Random random = new Random(11);
+        long ts = T0;
+        int n = 0;
+        for (int i = 0; i < 60; i++, n++) {
+            enviar("BEN-003", Marcador.PESO, "ICC", ts += 1440 * MINUTO, 80 + random.nextGaussian() * 0.3);
+        }
+        long inicioDeriva = ts;
+        // +0.1 kg/day: each step is well inside the noise, the accumulated shift is not
+        for (int i = 1; i <= 30; i++, n++) {
+            enviar("BEN-003", Marcador.PESO, "ICC", ts += 1440 * MINUTO, 80 + 0.1 * i + random.nextGaussian() * 0.3);
+        }
+        aguardar(n);
+
+        assertThat(alertas).extracting(AlertaMarcador::getTipo).contains(AlertaMarcador.Tipo.CUSUM_ALTA);
+        assertThat(alertas).allSatisfy(alerta -> assertThat(alerta.getTimestamp()).isGreaterThan(inicioDeriva));
+    }
+
+    @Test
+    @DisplayName("Should suppress repeated alerts for the same series within the cooldown")
+    void shouldSuppressAlertsWithinCooldown() throws Exception {
+        enviar("BEN-004", Marcador.PA_SISTOLICA, "HIPERTENSAO", T0, 175);
+        enviar("BEN-004", Marcador.PA_SISTOLICA, "HIPERTENSAO", T0 + 5 * MINUTO, 178);
+        enviar("BEN-004", Marcador.PA_SISTOLICA, "HIPERTENSAO", T0 + 45 * MINUTO, 181);
+        aguardar(3);
+
+        assertThat(alertas).hasSize(2);
+        assertThat(detector.getAlertasSuprimidos()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep independent state per beneficiary and marker")
+    void shouldIsolateSeries() throws Exception {
+        int beneficiarios = 5_000;
+        for (int i = 0; i < beneficiarios; i++) {
+            String id = "BEN-" + i;
+            enviar(id, Marcador.GLICOSE_CGM, "DIABETES", T0, 120);
+            enviar(id, Marcador.PA_SISTOLICA, null, T0, 125);
+        }
+        enviar("BEN-42", Marcador.GLICOSE_CGM, "DIABETES", T0 + MINUTO, 260);
+        aguardar(beneficiarios * 2 + 1);
+
+        assertThat(detector.getSeriesMonitoradas()).isEqualTo(beneficiarios * 2);
+        assertThat(alertas).extracting(AlertaMarcador::getBeneficiarioId).containsExactly("BEN-42");
+        assertThat(detector.getLeiturasDescartadas()).isZero();
+    }
+
+    private void enviar(String beneficiarioId, Marcador marcador, String condicao, long ts, double valor) {
+        assertThat(detector.submeter(new LeituraMarcador(beneficiarioId, marcador, condicao, ts, valor))).isTrue();
+    }
+
+    private void aguardar(long leituras) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 10_000;
+        while (detector.getLeiturasProcessadas() < leituras && System.currentTimeMillis() < limite) {
+            Thread.sleep(5);
+        }
+        assertThat(detector.getLeiturasProcessadas()).isEqualTo(leituras);
+    }
+}
@@ -0,0 +1,201 @@
+package com.austa.saude.experiencia.test.unit.auditoria;
+
+import br.com.austa.experiencia.service.auditoria.JournalAuditoria;
+import br.com.austa.experiencia.service.auditoria.RegistroAuditoria;
+import br.com.austa.experiencia.service.auditoria.ResultadoVerificacao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the group-commit audit journal
+ *
+ * Coverage:
+ * - Records durable in sequence and queryable by process and activity
+ * - Hash chain kept across segments and restarts, index rebuilt on start
+ * - Altered records detected by the integrity check
+ * - Concurrent records share commits under group commit, one commit each without it
+ *
+ * Records per second of group commit against one commit per record are measured in
+ * JournalAuditoriaPerformanceTest.
+ */
+@DisplayName("Journal Auditoria Tests")
+class JournalAuditoriaTest {
+
+    private Path diretorio;
+    private final List<JournalAuditoria> abertos = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        diretorio = Files.createTempDirectory("auditoria");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (JournalAuditoria journal : abertos) {
+            journal.parar();
+        }
+    }
+
+    @Test
+    @DisplayName("Should commit records in sequence and query them by process and activity")
+    void shouldAppendAndQuery() throws Exception {
+        JournalAuditoria journal = abrir(diretorio, 1 << 20, 512);
+
+        List<CompletableFuture<Long>> futuros = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            String processo = "PROC-" + (i % 3);
+            String atividade = i % 2 == 0 ? "Task_ValidarElegibilidade" : "Task_NotificarBeneficiario";
+            futuros.add(journal.registrar(processo, atividade, Map.of("tipoEvento", "EXECUCAO_ATIVIDADE", "i", i)));
+        }
+        for (int i = 0; i < futuros.size(); i++) {
+            assertThat(futuros.get(i).get(5, TimeUnit.SECONDS)).isEqualTo(i + 1L);
+        }
+        aguardarIndice(journal, 30);
+
+        List<RegistroAuditoria> processo1 = journal.porProcesso("PROC-1");
+        assertThat(processo1).hasSize(10);
+        assertThat(processo1.get(0).getSequencia()).isEqualTo(2L);
+        assertThat(processo1.get(0).getDados().get("i")).isEqualTo(1);
+        assertThat(processo1.get(0).getHash()).hasSize(64);
+
+        List<RegistroAuditoria> validacoes = journal.porAtividade("Task_ValidarElegibilidade", null, null, 5);
+        assertThat(validacoes).hasSize(5);
+        assertThat(validacoes.get(4).getSequencia()).isEqualTo(9L);
+        assertThat(journal.porAtividade("Task_ValidarElegibilidade", Instant.now().plusSeconds(60), null, 100))
+            .isEmpty();
+        assertThat(journal.porProcesso("PROC-INEXISTENTE")).isEmpty();
+        assertThat(journal.getRegistros()).isEqualTo(30L);
+    }
+
+    @Test
+    @DisplayName("Should chain records across segments and restarts and rebuild the index")
+    void shouldKeepChainAcrossSegmentsAndRestarts() throws Exception {
+        JournalAuditoria journal = abrir(diretorio, 4096, 16);
+        for (int i = 0; i < 200; i++) {
+            journal.registrar("PROC-" + (i % 4), "Task_" + (i % 5), Map.of("i", i)).get(5, TimeUnit.SECONDS);
+        }
+        journal.parar();
+        abertos.remove(journal);
+
+        long segmentos;
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            segmentos = arquivos.filter(p -> p.toString().endsWith(".seg")).count();
+        }
+        assertThat(segmentos).isGreaterThan(3L);
+
+        JournalAuditoria reaberto = abrir(diretorio, 4096, 16);
+        ResultadoVerificacao resultado = reaberto.verificar();
+        assertThat(resultado.isIntegro()).isTrue();
+        assertThat(resultado.getRegistrosVerificados()).isEqualTo(200L);
+
+        assertThat(reaberto.registrar("PROC-0", "Task_0", Map.of("i", 200)).get(5, TimeUnit.SECONDS))
+            .isEqualTo(201L);
+        aguardarIndice(reaberto, 201);
+        assertThat(reaberto.porProcesso("PROC-0")).hasSize(51);
+        assertThat(reaberto.verificar().getRegistrosVerificados()).isEqualTo(201L);
+    }
+
+    @Test
+    @DisplayName("Should pinpoint an altered record in the hash chain")
+    void shouldDetectTampering() throws Exception {
+        JournalAuditoria journal = abrir(diretorio, 1 << 20, 512);
+        for (int i = 0; i < 20; i++) {
+            String decisao = i == 7 ? "NEGADA" : "APROVADA";
+            journal.registrar("PROC-" + i, "Task_Decisao", Map.of("decisao", decisao)).get(5, TimeUnit.SECONDS);
+        }
+        assertThat(journal.verificar().isIntegro()).isTrue();
+
+        Path segmento;
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            segmento = arquivos.filter(p -> p.toString().endsWith(".seg")).findFirst().get();
+        }
+        byte[] conteudo = Files.readAllBytes(segmento);
+        int posicao = new String(conteudo, StandardCharsets.ISO_8859_1).indexOf("NEGADA");
+        try (RandomAccessFile arquivo = new RandomAccessFile(segmento.toFile(), "rw")) {
+            arquivo.seek(posicao);
+            arquivo.write("APROVA".getBytes(StandardCharsets.US_ASCII));
+        }
+
+        ResultadoVerificacao resultado = journal.verificar();
+        assertThat(resultado.isIntegro()).isFalse();
+        assertThat(resultado.getSequenciaInvalida()).isEqualTo(8L);
+        assertThat(resultado.getRegistrosVerificados()).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("Should share commits between concurrent records with group commit")
+    void shouldGroupConcurrentRecords() throws Exception {
+        int threads = 16;
+        int porThread = 300;
+
+        JournalAuditoria individual = abrir(Files.createTempDirectory("auditoria-individual"), 16 << 20, 1);
+        registrarConcorrente(individual, threads, porThread);
+
+        JournalAuditoria grupo = abrir(Files.createTempDirectory("auditoria-grupo"), 16 << 20, 512);
+        registrarConcorrente(grupo, threads, porThread);
+
+        double registrosPorCommit = (double) grupo.getRegistros() / grupo.getCommits();
+        assertThat(individual.getCommits()).isEqualTo((long) threads * porThread);
+        assertThat(grupo.getCommits()).isLessThan((long) threads * porThread);
+        assertThat(registrosPorCommit).isGreaterThan(1.5);
+        assertThat(grupo.verificar().getRegistrosVerificados()).isEqualTo((long) threads * porThread);
+    }
+
+    private void registrarConcorrente(JournalAuditoria journal, int threads, int porThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            tarefas.add(executor.submit(() -> {
+                for (int i = 0; i < porThread; i++) {
+                    // like LogAuditoriaDelegate: each step waits for its own record to be durable
+                    journal.registrar("PROC-" + thread + "-" + i, "Task_Auditada",
+                        Map.of("tipoEvento", "EXECUCAO_ATIVIDADE", "clienteId", "BEN-" + i)).get(30, TimeUnit.SECONDS);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        executor.shutdown();
+    }
+
+    private JournalAuditoria abrir(Path diretorio, int tamanhoSegmento, int grupoMax) throws IOException {
+        JournalAuditoria journal = new JournalAuditoria(new ObjectMapper(), diretorio, tamanhoSegmento, grupoMax,
+            4096, Clock.systemUTC());
+        journal.iniciar();
+        abertos.add(journal);
+        return journal;
+    }
+
+    private static void aguardarIndice(JournalAuditoria journal, long sequencia) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (journal.getSequenciaIndexada() < sequencia && System.currentTimeMillis() < limite) {
+            Thread.sleep(5);
+        }
+        assertThat(journal.getSequenciaIndexada()).isEqualTo(sequencia);
+    }
+}
@@ -0,0 +1,292 @@
+package com.austa.saude.experiencia.test.unit.autorizacao;
+
+import br.com.austa.experiencia.exception.IntegrationException;
+import br.com.austa.experiencia.model.dto.ElegibilidadeDTO;
+import br.com.austa.experiencia.service.autorizacao.AutorizacaoExpressa;
+import br.com.austa.experiencia.service.autorizacao.ConsultasAutorizacao;
+import br.com.austa.experiencia.service.autorizacao.ResultadoAutorizacaoExpressa;
+import br.com.austa.experiencia.service.autorizacao.ResultadoAutorizacaoExpressa.Desfecho;
+import br.com.austa.experiencia.service.autorizacao.ResultadoAutorizacaoExpressa.Etapa;
+import br.com.austa.experiencia.service.autorizacao.SituacaoPrestador;
+import br.com.austa.experiencia.service.autorizacao.SolicitacaoAutorizacao;
+import br.com.austa.experiencia.service.autorizacao.TabelasDecisao;
+import br.com.austa.experiencia.service.cobertura.ContratoBeneficiario;
+import br.com.austa.experiencia.service.cobertura.GrupoCarencia;
+import br.com.austa.experiencia.service.cobertura.MotorCobertura;
+import br.com.austa.experiencia.service.cobertura.ProcedimentoRol;
+import br.com.austa.experiencia.service.cobertura.ProdutoPlano;
+import br.com.austa.experiencia.service.cobertura.Segmentacao;
+import br.com.austa.experiencia.service.domain.TissService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the straight-through authorization path of SUB-006
+ *
+ * Coverage:
+ * - Simple consultation approved in one pass, remote lookups in parallel, one variable map
+ * - Carência, coverage gaps and invalid guides go to the full path without any remote call
+ * - Ineligible beneficiaries and suspended providers go to the full path
+ * - DMN outcomes needing review or a denial go to the full path
+ * - Lookups missing the deadline or failing fall back without blocking the caller
+ * - Lookups still running when the guide is routed are cancelled, freeing the pool
+ *
+ * Latency under concurrent load is measured in AutorizacaoExpressaPerformanceTest.
+ */
+@DisplayName("Autorizacao Expressa Tests")
+class AutorizacaoExpressaTest {
+
+    private static final String CONSULTA = "10101012";
+    private static final String RESSONANCIA = "41101227";
+    private static final String APENDICECTOMIA = "31003079";
+
+    private static final LocalDate INICIO = LocalDate.of(2025, 3, 1);
+    private static final LocalDate HOJE = LocalDate.of(2025, 12, 11);
+
+    // generous enough for a loaded machine; only the slow lookups below exceed it
+    private static final int PRAZO_MILLIS = 500;
+
+    private final ConsultasFalsas consultas = new ConsultasFalsas();
+    private final TabelasFalsas tabelas = new TabelasFalsas();
+    private MotorCobertura motor;
+    private AutorizacaoExpressa expressa;
+
+    @BeforeEach
+    void setUp() {
+        motor = new MotorCobertura(500);
+        motor.publicarRol("RN 465/2021", List.of(
+            new ProcedimentoRol(CONSULTA, "Consulta em consultório", EnumSet.of(Segmentacao.AMBULATORIAL),
+                GrupoCarencia.CONSULTAS_EXAMES_SIMPLES, false),
+            new ProcedimentoRol(RESSONANCIA, "RM crânio", EnumSet.of(Segmentacao.AMBULATORIAL),
+                GrupoCarencia.DEMAIS_PROCEDIMENTOS, true),
+            new ProcedimentoRol(APENDICECTOMIA, "Apendicectomia", EnumSet.of(Segmentacao.HOSPITALAR),
+                GrupoCarencia.DEMAIS_PROCEDIMENTOS, true)),
+            List.of(new ProdutoPlano("AMB-01", EnumSet.of(Segmentacao.AMBULATORIAL), Set.of(), Set.of(),
+                Map.of(GrupoCarencia.CONSULTAS_EXAMES_SIMPLES, new BigDecimal("25.00")))));
+        motor.atualizarContratos(List.of(
+            new ContratoBeneficiario("BEN-1", "AMB-01", INICIO, false, Map.of()),
+            new ContratoBeneficiario("BEN-NOVO", "AMB-01", HOJE.minusDays(10), false, Map.of())));
+        expressa = new AutorizacaoExpressa(new TissService(), motor, consultas, tabelas, 32, 256, PRAZO_MILLIS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        expressa.parar();
+    }
+
+    @Test
+    @DisplayName("Should approve a simple consultation in one pass with parallel lookups")
+    void shouldApproveSimpleConsultation() {
+        consultas.latenciaMillis = 20;
+
+        ResultadoAutorizacaoExpressa resultado = expressa.avaliar(guia("BEN-1", CONSULTA, "CONSULTA_CLINICO_GERAL", "150.00"));
+
+        assertThat(resultado.getDesfecho()).isEqualTo(Desfecho.APROVADA);
+        assertThat(resultado.toVariaveis())
+            .containsEntry("autorizacaoExpressa", "APROVADA")
+            .containsEntry("statusAutorizacao", "APROVADA")
+            .containsEntry("decisaoAutorizacao", "APROVADO")
+            .containsEntry("requerAuditoria", false)
+            .containsEntry("coberturaValida", true)
+            .containsEntry("nomeBeneficiario", "Maria Silva")
+            .containsEntry("valorCoparticipacao", new BigDecimal("25.00"));
+        // both lookups were in flight at the same time
+        assertThat(consultas.simultaneasMaximo.get()).isEqualTo(2);
+        assertThat(consultas.chamadas.get()).isEqualTo(2);
+        assertThat(expressa.getAprovadas()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should route carência, coverage gaps and invalid guides to the full path")
+    void shouldRouteCoverageAndGuideProblems() {
+        assertThat(expressa.avaliar(guia("BEN-NOVO", CONSULTA, "CONSULTA_CLINICO_GERAL", "150.00")).getEtapa())
+            .isEqualTo(Etapa.COBERTURA);
+        assertThat(expressa.avaliar(guia("BEN-1", APENDICECTOMIA, "CIRURGIA_ELETIVA", "4000.00")).getEtapa())
+            .isEqualTo(Etapa.COBERTURA);
+        assertThat(expressa.avaliar(guia("BEN-SEM", CONSULTA, "CONSULTA_CLINICO_GERAL", "150.00")).getEtapa())
+            .isEqualTo(Etapa.COBERTURA);
+        assertThat(tabelas.regras.get()).isZero();
+
+        Map<String, Object> invalida = guiaVariaveis("BEN-1", CONSULTA, "CONSULTA_CLINICO_GERAL", "150.00");
+        invalida.put("procedimentos", List.of("101"));
+        ResultadoAutorizacaoExpressa resultado = expressa.avaliar(SolicitacaoAutorizacao.deVariaveis(invalida));
+
+        assertThat(resultado.getEtapa()).isEqualTo(Etapa.GUIA_TISS);
+        assertThat(resultado.getMotivo()).contains("TUSS");
+        assertThat(resultado.toVariaveis()).containsEntry("autorizacaoExpressa", "FLUXO_COMPLETO")
+            .doesNotContainKey("statusAutorizacao");
+        assertThat(consultas.chamadas.get()).isZero();
+        assertThat(expressa.getEncaminhadas(Etapa.COBERTURA)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should route ineligible beneficiaries, suspended providers and DMN reviews to the full path")
+    void shouldRouteReviewCases() {
+        ResultadoAutorizacaoExpressa altoCusto = expressa.avaliar(
+            guia("BEN-1", RESSONANCIA, "PROCEDIMENTO_COMPLEXO", "12000.00"));
+        assertThat(altoCusto.getEtapa()).isEqualTo(Etapa.REGRAS);
+        assertThat(altoCusto.getMotivo()).contains("alto custo sem protocolo");
+
+        consultas.rede = false;
+        assertThat(expressa.avaliar(guia("BEN-1", CONSULTA, "CONSULTA_CLINICO_GERAL", "150.00")).getMotivo())
+            .isEqualTo("Prestador não pertence à rede credenciada");
+
+        consultas.rede = true;
+        consultas.suspenso = true;
+        assertThat(expressa.avaliar(guia("BEN-1", CONSULTA, "CONSULTA_CLINICO_GERAL", "150.00")).getEtapa())
+            .isEqualTo(Etapa.PRESTADOR);
+
+        consultas.suspenso = false;
+        consultas.elegivel = false;
+        ResultadoAutorizacaoExpressa inelegivel = expressa.avaliar(
+            guia("BEN-1", CONSULTA, "CONSULTA_CLINICO_GERAL", "150.00"));
+        assertThat(inelegivel.getEtapa()).isEqualTo(Etapa.ELEGIBILIDADE);
+        assertThat(inelegivel.getMotivo()).isEqualTo("Plano suspenso por inadimplência");
+        assertThat(expressa.getAprovadas()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should fall back when remote lookups miss the deadline or fail")
+    void shouldFallBackOnSlowOrFailingLookups() {
+        consultas.latenciaMillis = 60_000;
+        ResultadoAutorizacaoExpressa lento = expressa.avaliar(guia("BEN-1", CONSULTA, "CONSULTA_CLINICO_GERAL", "150.00"));
+
+        assertThat(lento.getEtapa()).isEqualTo(Etapa.CONSULTA_REMOTA);
+        // Both lookups are interrupted at routing instead of sleeping out their minute
+        long limite = System.nanoTime() + 10_000_000_000L;
+        while (consultas.simultaneas.get() > 0 && System.nanoTime() < limite) {
+            Thread.onSpinWait();
+        }
+        assertThat(consultas.simultaneas.get()).isZero();
+        assertThat(consultas.interrompidas.get()).isEqualTo(2);
+
+        consultas.latenciaMillis = 0;
+        consultas.falha = true;
+        ResultadoAutorizacaoExpressa falha = expressa.avaliar(guia("BEN-1", CONSULTA, "CONSULTA_CLINICO_GERAL", "150.00"));
+
+        assertThat(falha.getEtapa()).isEqualTo(Etapa.CONSULTA_REMOTA);
+        assertThat(falha.getMotivo()).isEqualTo("Tasy indisponível");
+    }
+
+    private static SolicitacaoAutorizacao guia(String beneficiarioId, String tuss, String tipo, String valor) {
+        return SolicitacaoAutorizacao.deVariaveis(guiaVariaveis(beneficiarioId, tuss, tipo, valor));
+    }
+
+    private static Map<String, Object> guiaVariaveis(String beneficiarioId, String tuss, String tipo, String valor) {
+        Map<String, Object> variaveis = new HashMap<>();
+        variaveis.put("numeroGuia", "G-" + tuss);
+        variaveis.put("tipoGuia", "CONSULTA");
+        variaveis.put("numeroAutorizacao", "20251211-00000001-55");
+        variaveis.put("procedimentos", List.of(tuss));
+        variaveis.put("prestadorCodigo", "PRES-0001");
+        variaveis.put("beneficiarioCpf", "123.456.789-01");
+        variaveis.put("dataAtendimento", HOJE.toString());
+        variaveis.put("beneficiarioId", beneficiarioId);
+        variaveis.put("cartaoNumero", "0001234500012");
+        variaveis.put("codigoProcedimento", tuss);
+        variaveis.put("tipoProcedimento", tipo);
+        variaveis.put("valorProcedimento", new BigDecimal(valor));
+        variaveis.put("prestadorId", "PRES-0001");
+        variaveis.put("dataProcedimento", HOJE);
+        return variaveis;
+    }
+
+    private static final class ConsultasFalsas implements ConsultasAutorizacao {
+
+        volatile long latenciaMillis;
+        volatile boolean elegivel = true;
+        volatile boolean rede = true;
+        volatile boolean suspenso;
+        volatile boolean falha;
+        final AtomicInteger chamadas = new AtomicInteger();
+        final AtomicInteger simultaneas = new AtomicInteger();
+        final AtomicInteger simultaneasMaximo = new AtomicInteger();
+        final AtomicInteger interrompidas = new AtomicInteger();
+
+        @Override
+        public ElegibilidadeDTO elegibilidade(SolicitacaoAutorizacao solicitacao) {
+            chamar();
+            return ElegibilidadeDTO.builder()
+                .elegivel(elegivel)
+                .motivoInelegibilidade(elegivel ? null : "Plano suspenso por inadimplência")
+                .statusPlano(elegivel ? "ATIVO" : "SUSPENSO")
+                .beneficiarioId(solicitacao.getBeneficiarioId())
+                .nomeBeneficiario("Maria Silva")
+                .dataAdesao(INICIO)
+                .build();
+        }
+
+        @Override
+        public SituacaoPrestador situacaoPrestador(String prestadorId) {
+            chamar();
+            return new SituacaoPrestador(prestadorId, rede, suspenso, suspenso ? "Descredenciamento em curso" : null);
+        }
+
+        private void chamar() {
+            chamadas.incrementAndGet();
+            simultaneasMaximo.accumulateAndGet(simultaneas.incrementAndGet(), Math::max);
+            try {
+                if (latenciaMillis > 0) {
+                    Thread.sleep(latenciaMillis);
+                }
+                if (falha) {
+                    throw new IntegrationException("Tasy indisponível");
+                }
+            } catch (InterruptedException e) {
+                interrompidas.incrementAndGet();
+                Thread.currentThread().interrupt();
+            } finally {
+                simultaneas.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * The rows of DMN_RegrasAutorizacao / DMN_ProtocoloClinico these scenarios reach.
+     */
+    private static final class TabelasFalsas implements TabelasDecisao {
+
+        final AtomicInteger regras = new AtomicInteger();
+
+        @Override
+        public Map<String, Object> avaliar(String chaveDecisao, Map<String, Object> variaveis) {
+            if (PROTOCOLO_CLINICO.equals(chaveDecisao)) {
+                return Map.of("atendeProtocolo", false, "acaoNecessaria", "ENCAMINHAR_AUDITORIA_MEDICA");
+            }
+            regras.incrementAndGet();
+            String tipo = (String) variaveis.get("tipoProcedimento");
+            long dias = (Long) variaveis.get("diasDesdeAdesao");
+            BigDecimal valor = (BigDecimal) variaveis.get("valorProcedimento");
+            boolean protocolo = (Boolean) variaveis.get("atendeProtocolo");
+            boolean rede = (Boolean) variaveis.get("prestadorRede");
+
+            if (tipo.startsWith("CONSULTA_") && dias > 0 && rede) {
+                return saida("APROVADO", "Procedimento de rotina coberto pelo plano", false);
+            }
+            if (dias > 180 && valor.compareTo(new BigDecimal("10000")) >= 0 && !protocolo) {
+                return saida("PENDENTE", "Requer análise técnica - alto custo sem protocolo estabelecido", true);
+            }
+            if (!rede) {
+                return saida("NEGADO", "Prestador não pertence à rede credenciada", false);
+            }
+            return saida("PENDENTE", "Requer análise técnica especializada", true);
+        }
+
+        private static Map<String, Object> saida(String decisao, String motivo, boolean requerAnalise) {
+            return Map.of("decisaoAutorizacao", decisao, "motivoDecisao", motivo, "requerAnaliseTecnica", requerAnalise);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.austa.saude.experiencia.test.unit.blobs;
+
+import br.com.austa.experiencia.service.blobs.ArmazenamentoBlobsDisco;
+import br.com.austa.experiencia.service.blobs.DossiesAuditoria;
+import br.com.austa.experiencia.service.blobs.ReferenciaConteudo;
+import br.com.austa.experiencia.service.blobs.RepositorioConteudo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the content-addressed store behind audit dossiers and OCR documents
+ *
+ * Coverage:
+ * - Streaming round trip addressed by the SHA-256 of the content
+ * - Deduplication of whole contents and of shared chunks
+ * - Corrupted chunks detected on read
+ * - Dossier archived as hash-only evidence files and streamed back as a ZIP
+ */
+@DisplayName("Repositorio Conteudo Tests")
+class RepositorioConteudoTest {
+
+    private static final int BLOCO = 64 * 1024;
+
+    private Path diretorio;
+    private RepositorioConteudo repositorio;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        diretorio = Files.createTempDirectory("blobs");
+        repositorio = new RepositorioConteudo(new ArmazenamentoBlobsDisco(diretorio.toString()),
+            new ObjectMapper(), BLOCO);
+    }
+
+    @Test
+    @DisplayName("Should stream content in and out addressed by its SHA-256")
+    void shouldRoundTripByHash() throws Exception {
+        byte[] conteudo = aleatorio(5 * BLOCO + 123, 1);
+
+        ReferenciaConteudo referencia = repositorio.gravar(new ByteArrayInputStream(conteudo));
+
+        assertThat(referencia.getHash()).isEqualTo(sha256(conteudo));
+        assertThat(referencia.getTamanho()).isEqualTo((long) conteudo.length);
+        assertThat(repositorio.tamanho(referencia.getHash())).isEqualTo((long) conteudo.length);
+        assertThat(repositorio.lerBytes(referencia.getHash())).isEqualTo(conteudo);
+        assertThat(repositorio.getBlocosGravados()).isEqualTo(6L);
+
+        ReferenciaConteudo vazio = repositorio.gravar(new byte[0]);
+        assertThat(repositorio.lerBytes(vazio.getHash())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should store identical contents and shared chunks once")
+    void shouldDeduplicate() throws Exception {
+        byte[] laudo = aleatorio(3 * BLOCO, 2);
+        byte[] laudoComAnexo = new byte[4 * BLOCO];
+        System.arraycopy(laudo, 0, laudoComAnexo, 0, laudo.length);
+        System.arraycopy(aleatorio(BLOCO, 3), 0, laudoComAnexo, laudo.length, BLOCO);
+
+        ReferenciaConteudo primeiro = repositorio.gravar(laudo);
+        ReferenciaConteudo segundo = repositorio.gravar(laudo);
+        ReferenciaConteudo terceiro = repositorio.gravar(laudoComAnexo);
+
+        assertThat(segundo.getHash()).isEqualTo(primeiro.getHash());
+        assertThat(terceiro.getHash()).isNotEqualTo(primeiro.getHash());
+        assertThat(repositorio.getBlocosGravados()).isEqualTo(4L);
+        assertThat(repositorio.getBlocosDeduplicados()).isEqualTo(6L);
+        assertThat(repositorio.lerBytes(terceiro.getHash())).isEqualTo(laudoComAnexo);
+
+        long arquivosBlocos;
+        try (Stream<Path> arquivos = Files.walk(diretorio.resolve("blocos"))) {
+            arquivosBlocos = arquivos.filter(Files::isRegularFile).count();
+        }
+        assertThat(arquivosBlocos).isEqualTo(4L);
+    }
+
+    @Test
+    @DisplayName("Should fail the read when a chunk does not match its hash")
+    void shouldDetectCorruption() throws Exception {
+        byte[] conteudo = aleatorio(2 * BLOCO, 4);
+        ReferenciaConteudo referencia = repositorio.gravar(conteudo);
+
+        Path bloco;
+        try (Stream<Path> arquivos = Files.walk(diretorio.resolve("blocos"))) {
+            bloco = arquivos.filter(Files::isRegularFile).findFirst().get();
+        }
+        byte[] adulterado = Files.readAllBytes(bloco);
+        adulterado[10] ^= 1;
+        Files.write(bloco, adulterado);
+
+        IOException erro = null;
+        try (InputStream in = repositorio.abrir(referencia.getHash())) {
+            in.readAllBytes();
+        } catch (IOException e) {
+            erro = e;
+        }
+        assertThat(erro).isNotNull();
+        assertThat(erro.getMessage()).contains("Corrupted chunk");
+    }
+
+    @Test
+    @DisplayName("Should archive a dossier as hashes and stream it back as a ZIP")
+    void shouldStreamDossierAsZip() throws Exception {
+        DossiesAuditoria dossies = new DossiesAuditoria(repositorio);
+        String exameGrande = new String(aleatorioTexto(3 * BLOCO + 17), StandardCharsets.US_ASCII);
+
+        List<Map<String, Object>> evidencias = new ArrayList<>();
+        evidencias.add(Map.of("tipo", "LAUDO", "conteudo", exameGrande));
+        evidencias.add(Map.of("tipo", "PEDIDO_MEDICO", "cid", "K35.8"));
+        Map<String, Object> dossie = new LinkedHashMap<>();
+        dossie.put("solicitacaoId", "SOL-123");
+        dossie.put("decisao", "NEGADO");
+        dossie.put("numeroEvidencias", evidencias.size());
+
+        ReferenciaConteudo referencia = dossies.arquivar(dossie, evidencias);
+        assertThat(dossies.existe(referencia.getHash())).isTrue();
+
+        ContadorSaida saida = new ContadorSaida();
+        dossies.escreverZip(referencia.getHash(), saida);
+
+        Map<String, byte[]> entradas = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(saida.bytes.toByteArray()))) {
+            ZipEntry entrada;
+            while ((entrada = zip.getNextEntry()) != null) {
+                entradas.put(entrada.getName(), zip.readAllBytes());
+            }
+        }
+        assertThat(entradas.keySet()).containsExactly("dossie.json",
+            "evidencias/evidencia-001.json", "evidencias/evidencia-002.json");
+
+        ObjectMapper mapper = new ObjectMapper();
+        Map<?, ?> indice = mapper.readValue(entradas.get("dossie.json"), Map.class);
+        assertThat(indice.get("solicitacaoId")).isEqualTo("SOL-123");
+        assertThat(indice.get("evidenciasClinicas")).isNull();
+        Map<?, ?> laudo = mapper.readValue(entradas.get("evidencias/evidencia-001.json"), Map.class);
+        assertThat(laudo.get("conteudo")).isEqualTo(exameGrande);
+        // the ZIP is written in small writes as the chunks are read, never as one buffer
+        assertThat(saida.maiorEscrita).isLessThan(BLOCO + 1);
+    }
+
+    private static byte[] aleatorio(int tamanho, long semente) {
+        byte[] bytes = new byte[tamanho];
+        new Random(semente).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] aleatorioTexto(int tamanho) {
+        Random random = new Random(5);
+        byte[] bytes = new byte[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            bytes[i] = (byte) ('a' + random.nextInt(26));
+        }
+        return bytes;
+    }
+
+    private static String sha256(byte[] conteudo) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(conteudo));
+    }
+
+    private static final class ContadorSaida extends OutputStream {
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        int maiorEscrita;
+
+        @Override
+        public void write(int b) {
+            bytes.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            maiorEscrita = Math.max(maiorEscrita, len);
+            bytes.write(b, off, len);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.austa.saude.experiencia.test.unit.boletos;
+
+import br.com.austa.experiencia.service.blobs.ArmazenamentoBlobsDisco;
+import br.com.austa.experiencia.service.blobs.RepositorioConteudo;
+import br.com.austa.experiencia.service.boletos.BoletoGerado;
+import br.com.austa.experiencia.service.boletos.CacheBoletos;
+import br.com.austa.experiencia.service.boletos.FaturaBoleto;
+import br.com.austa.experiencia.service.boletos.ResultadoPreGeracao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the boleto pre-generation cache behind second copies
+ *
+ * Coverage:
+ * - Parallel batch pre-generation of a competência, served as cache reads
+ * - FEBRABAN barcode and typeable line of the rendered boleto
+ * - Unchanged re-emissions reused, changed billing data rendered as a new version
+ * - Payment and renegotiation invalidate the cached document and its link
+ * - Index recovered from the changelog without rendering
+ * - Billing feed replayed after a restart: unchanged invoices and repeated payments are no-ops
+ *
+ * Cache read vs render on every request is measured in CacheBoletosPerformanceTest.
+ */
+@DisplayName("Cache Boletos Tests")
+class CacheBoletosTest {
+
+    private static final YearMonth COMPETENCIA = YearMonth.of(2025, 11);
+    private static final LocalDate VENCIMENTO = LocalDate.of(2025, 11, 10);
+
+    private Path diretorio;
+    private RepositorioConteudo repositorio;
+    private CacheBoletos cache;
+    private final Clock clock = Clock.fixed(Instant.parse("2025-11-01T08:00:00Z"), ZoneOffset.UTC);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        diretorio = Files.createTempDirectory("boletos");
+        repositorio = new RepositorioConteudo(new ArmazenamentoBlobsDisco(diretorio.resolve("blobs").toString()),
+            new ObjectMapper(), 64 * 1024);
+        cache = new CacheBoletos(diretorio.resolve("indice"), repositorio, 4, 50, 100_000, clock);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        cache.parar();
+    }
+
+    @Test
+    @DisplayName("Should pre-render a competência in parallel batches and serve second copies from cache")
+    void shouldPreGenerateAndServeFromCache() throws Exception {
+        ResultadoPreGeracao resultado = cache.preGerar(faturas(1_000, "450.00"));
+
+        assertThat(resultado.getGerados()).isEqualTo(1_000);
+        assertThat(resultado.getFalhas()).isZero();
+        assertThat(cache.tamanho()).isEqualTo(1_000);
+
+        BoletoGerado boleto = cache.segundaVia("BEN-000042", COMPETENCIA).orElseThrow();
+        assertThat(boleto.getVersao()).isEqualTo(1);
+        assertThat(boleto.getValor()).isEqualByComparingTo("450.00");
+        assertThat(cache.getAcertos()).isEqualTo(1L);
+
+        String documento = documento(boleto);
+        assertThat(documento).contains(boleto.getLinhaDigitavel(), "BEN-000042", "Beneficiário 42",
+            "R$ 450,00", "10/11/2025", "11/2025");
+        assertThat(cache.segundaVia("BEN-999999", COMPETENCIA)).isEmpty();
+        assertThat(cache.getFaltas()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should build a FEBRABAN barcode and typeable line with valid check digits")
+    void shouldBuildValidBarcode() throws Exception {
+        BoletoGerado boleto = cache.gerar(fatura(7, "1234.56", VENCIMENTO)).orElseThrow();
+        String codigo = boleto.getCodigoBarras();
+
+        assertThat(codigo).matches("\\d{44}");
+        assertThat(codigo.substring(0, 4)).isEqualTo("0019");
+        // Factor restarted at 1000 on 2025-02-22
+        assertThat(codigo.substring(5, 9)).isEqualTo("1261");
+        assertThat(codigo.substring(9, 19)).isEqualTo("0000123456");
+        assertThat(String.valueOf(codigo.charAt(4)))
+            .isEqualTo(String.valueOf(modulo11(codigo.substring(0, 4) + codigo.substring(5))));
+
+        String[] campos = boleto.getLinhaDigitavel().replace(".", "").split(" ");
+        assertThat(campos).hasSize(5);
+        for (int i = 0; i < 3; i++) {
+            String campo = campos[i];
+            assertThat(campo.substring(campo.length() - 1))
+                .isEqualTo(String.valueOf(modulo10(campo.substring(0, campo.length() - 1))));
+        }
+        assertThat(campos[3]).isEqualTo(String.valueOf(codigo.charAt(4)));
+        assertThat(campos[4]).isEqualTo(codigo.substring(5, 19));
+    }
+
+    @Test
+    @DisplayName("Should reuse unchanged re-emissions and render changed billing data as a new version")
+    void shouldReuseUnchangedEmissions() throws Exception {
+        cache.preGerar(faturas(100, "450.00"));
+        String hashOriginal = cache.segundaVia("BEN-000001", COMPETENCIA).orElseThrow().getHash();
+
+        ResultadoPreGeracao repetido = cache.preGerar(faturas(100, "450.00"));
+        assertThat(repetido.getReaproveitados()).isEqualTo(100);
+        assertThat(repetido.getGerados()).isZero();
+
+        BoletoGerado reajustado = cache.gerar(fatura(1, "475.90", VENCIMENTO)).orElseThrow();
+        assertThat(reajustado.getVersao()).isEqualTo(2);
+        assertThat(reajustado.getHash()).isNotEqualTo(hashOriginal);
+        assertThat(cache.abrirDocumento("BEN-000001", COMPETENCIA, hashOriginal)).isEmpty();
+        assertThat(cache.getBoletosGerados()).isEqualTo(101L);
+    }
+
+    @Test
+    @DisplayName("Should drop the cached boleto on payment and re-render it after renegotiation")
+    void shouldInvalidateOnPaymentAndRenegotiation() throws Exception {
+        cache.preGerar(faturas(10, "450.00"));
+
+        cache.registrarPagamento("BEN-000003", COMPETENCIA);
+        assertThat(cache.pago("BEN-000003", COMPETENCIA)).isTrue();
+        assertThat(cache.segundaVia("BEN-000003", COMPETENCIA)).isEmpty();
+        ResultadoPreGeracao reemissao = cache.preGerar(List.of(fatura(3, "450.00", VENCIMENTO)));
+        assertThat(reemissao.getPagos()).isEqualTo(1);
+        assertThat(cache.segundaVia("BEN-000003", COMPETENCIA)).isEmpty();
+
+        BoletoGerado original = cache.segundaVia("BEN-000004", COMPETENCIA).orElseThrow();
+        cache.invalidar("BEN-000004", COMPETENCIA);
+        assertThat(cache.segundaVia("BEN-000004", COMPETENCIA)).isEmpty();
+        assertThat(cache.abrirDocumento("BEN-000004", COMPETENCIA, original.getHash())).isEmpty();
+
+        BoletoGerado renegociado = cache.gerar(fatura(4, "300.00", LocalDate.of(2025, 12, 5))).orElseThrow();
+        assertThat(renegociado.getVersao()).isEqualTo(3);
+        assertThat(renegociado.getDataVencimento()).isEqualTo(LocalDate.of(2025, 12, 5));
+        assertThat(documento(renegociado)).contains("R$ 300,00", "05/12/2025");
+    }
+
+    @Test
+    @DisplayName("Should recover the index from the changelog without rendering and drop a torn tail")
+    void shouldRecoverWithoutRendering() throws Exception {
+        cache.preGerar(faturas(200, "450.00"));
+        cache.registrarPagamento("BEN-000010", COMPETENCIA);
+        BoletoGerado antes = cache.segundaVia("BEN-000020", COMPETENCIA).orElseThrow();
+        cache.parar();
+        Files.write(diretorio.resolve("indice").resolve("boletos.log"), new byte[]{0, 0, 0, 40, 1, 2},
+            StandardOpenOption.APPEND);
+
+        cache = new CacheBoletos(diretorio.resolve("indice"), repositorio, 4, 50, 100_000, clock);
+
+        assertThat(cache.tamanho()).isEqualTo(200);
+        assertThat(cache.pago("BEN-000010", COMPETENCIA)).isTrue();
+        BoletoGerado depois = cache.segundaVia("BEN-000020", COMPETENCIA).orElseThrow();
+        assertThat(depois.getHash()).isEqualTo(antes.getHash());
+        assertThat(depois.getLinhaDigitavel()).isEqualTo(antes.getLinhaDigitavel());
+        assertThat(documento(depois)).contains("BEN-000020");
+        assertThat(cache.getBoletosGerados()).isZero();
+
+        cache.registrarPagamento("BEN-000020", COMPETENCIA);
+        assertThat(cache.pago("BEN-000020", COMPETENCIA)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should replay the billing feed after a restart without rendering unchanged invoices")
+    void shouldReplayFeedWithoutRendering() throws Exception {
+        cache.preGerar(faturas(100, "450.00"));
+        cache.registrarPagamento("BEN-000003", COMPETENCIA);
+        cache.parar();
+
+        cache = new CacheBoletos(diretorio.resolve("indice"), repositorio, 4, 50, 100_000, clock);
+        cache.setReplicado(false);
+        assertThat(cache.isReplicado()).isFalse();
+        ResultadoPreGeracao reposicao = cache.preGerar(faturas(100, "450.00"));
+        cache.registrarPagamento("BEN-000003", COMPETENCIA);
+        cache.setReplicado(true);
+
+        assertThat(reposicao.getReaproveitados()).isEqualTo(99);
+        assertThat(reposicao.getPagos()).isEqualTo(1);
+        assertThat(cache.getBoletosGerados()).isZero();
+        assertThat(cache.isReplicado()).isTrue();
+        assertThat(cache.pago("BEN-000003", COMPETENCIA)).isTrue();
+    }
+
+    private String documento(BoletoGerado boleto) throws IOException {
+        Optional<InputStream> documento = cache.abrirDocumento(boleto.getBeneficiarioId(),
+            boleto.getCompetencia(), boleto.getHash());
+        assertThat(documento).isPresent();
+        try (InputStream in = documento.get()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static List<FaturaBoleto> faturas(int quantidade, String valor) {
+        List<FaturaBoleto> faturas = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            faturas.add(fatura(i, valor, VENCIMENTO));
+        }
+        return faturas;
+    }
+
+    private static FaturaBoleto fatura(int i, String valor, LocalDate vencimento) {
+        return new FaturaBoleto(String.format("BEN-%06d", i), "Beneficiário " + i, COMPETENCIA,
+            String.format("202511%08d", i), new BigDecimal(valor), vencimento);
+    }
+
+    private static char modulo11(String digitos) {
+        int soma = 0;
+        for (int i = digitos.length() - 1, peso = 2; i >= 0; i--, peso = peso == 9 ? 2 : peso + 1) {
+            soma += (digitos.charAt(i) - '0') * peso;
+        }
+        int digito = 11 - soma % 11;
+        return digito >= 10 ? '1' : (char) ('0' + digito);
+    }
+
+    private static char modulo10(String digitos) {
+        int soma = 0;
+        for (int i = digitos.length() - 1, peso = 2; i >= 0; i--, peso = 3 - peso) {
+            int produto = (digitos.charAt(i) - '0') * peso;
+            soma += produto / 10 + produto % 10;
+        }
+        return (char) ('0' + (10 - soma % 10) % 10);
+    }
+}
@@ -0,0 +1,291 @@
+package com.austa.saude.experiencia.test.unit.carteirinha;
+
+import br.com.austa.experiencia.exception.IntegrationException;
+import br.com.austa.experiencia.service.carteirinha.EmissorCarteirinha;
+import br.com.austa.experiencia.service.carteirinha.verificacao.CoberturaCarteirinha;
+import br.com.austa.experiencia.service.carteirinha.verificacao.PacoteVerificacao;
+import br.com.austa.experiencia.service.carteirinha.verificacao.ResultadoVerificacao;
+import br.com.austa.experiencia.service.carteirinha.verificacao.SituacaoVerificacao;
+import br.com.austa.experiencia.service.carteirinha.verificacao.TokenCarteirinha;
+import br.com.austa.experiencia.service.carteirinha.verificacao.VerificadorCarteirinha;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the signed, offline-verifiable digital member card
+ *
+ * Coverage:
+ * - Issued QR code verifies offline with its fields intact and fits a small QR
+ * - Tampered, truncated and foreign-key codes rejected
+ * - Expired cards and stale or missing verification bundles
+ * - Revocation only for cards holding a token, re-issue after it, pruning after token lifetime
+ * - Key rotation followed through pre-published keys; forged and rolled-back bundles rejected
+ * - Keys and revocations survive a restart
+ * - Configured keys shared by instances; revocation of tokens issued on another instance
+ *
+ * Verification throughput is measured in CarteirinhaAssinadaPerformanceTest.
+ */
+@DisplayName("Carteirinha Assinada Tests")
+class CarteirinhaAssinadaTest {
+
+    private static final String CARTAO = "0012345678901234";
+
+    private Path diretorio;
+    private RelogioManual clock;
+    private EmissorCarteirinha emissor;
+    private VerificadorCarteirinha verificador;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        diretorio = Files.createTempDirectory("carteirinha");
+        clock = new RelogioManual(Instant.parse("2025-11-03T12:00:00Z"));
+        emissor = new EmissorCarteirinha(diretorio, 30, 90, 24, ZoneOffset.UTC, clock);
+        verificador = new VerificadorCarteirinha(emissor.chavesPublicadas(), ZoneOffset.UTC, clock);
+        verificador.atualizar(emissor.pacoteVerificacao());
+    }
+
+    @Test
+    @DisplayName("Should verify an issued card offline and carry its fields")
+    void shouldVerifyIssuedCard() {
+        String qr = emitir(CARTAO);
+
+        ResultadoVerificacao resultado = verificador.verificar(qr);
+
+        assertThat(resultado.getSituacao()).isEqualTo(SituacaoVerificacao.VALIDA);
+        TokenCarteirinha token = resultado.getToken();
+        assertThat(token.getCartaoNumero()).isEqualTo(CARTAO);
+        assertThat(token.getCodigoPlano()).isEqualTo("123456789");
+        assertThat(token.getCoberturas()).containsExactlyInAnyOrder(CoberturaCarteirinha.AMBULATORIAL,
+            CoberturaCarteirinha.HOSPITALAR);
+        assertThat(token.isCpt()).isTrue();
+        assertThat(token.getFimCarencias()).isEqualTo(LocalDate.of(2026, 3, 1));
+        assertThat(token.getInicioValidade()).isEqualTo(LocalDate.of(2025, 11, 3));
+        assertThat(token.getFimValidade()).isEqualTo(LocalDate.of(2025, 12, 3));
+        assertThat(qr.length()).isLessThan(200);
+        assertThat(qr).matches("AC1:[0-9A-Z $%*+\\-./:]+");
+    }
+
+    @Test
+    @DisplayName("Should reject tampered, truncated and foreign-key codes")
+    void shouldRejectTamperedCodes() throws Exception {
+        String qr = emitir(CARTAO);
+        char[] adulterado = qr.toCharArray();
+        int i = TokenCarteirinha.PREFIXO.length() + 20;
+        adulterado[i] = adulterado[i] == '0' ? '1' : '0';
+
+        assertThat(verificador.verificar(new String(adulterado)).getSituacao())
+            .isIn(SituacaoVerificacao.ASSINATURA_INVALIDA, SituacaoVerificacao.FORMATO_INVALIDO);
+        assertThat(verificador.verificar(qr.substring(0, 40)).getSituacao())
+            .isEqualTo(SituacaoVerificacao.FORMATO_INVALIDO);
+        assertThat(verificador.verificar("https://example.com/" + CARTAO).getSituacao())
+            .isEqualTo(SituacaoVerificacao.FORMATO_INVALIDO);
+
+        // Same card signed by a key the verifier never pinned
+        EmissorCarteirinha outro = new EmissorCarteirinha(Files.createTempDirectory("outro"), 30, 90, 24,
+            ZoneOffset.UTC, clock);
+        VerificadorCarteirinha isolado = new VerificadorCarteirinha(Map.of(), ZoneOffset.UTC, clock);
+        assertThat(isolado.verificar(outro.emitir(CARTAO, "1", EnumSet.noneOf(CoberturaCarteirinha.class),
+            false, null)).getSituacao()).isEqualTo(SituacaoVerificacao.CHAVE_DESCONHECIDA);
+    }
+
+    @Test
+    @DisplayName("Should report expired cards and stale verification bundles")
+    void shouldExpireCardsAndBundles() throws Exception {
+        String qr = emitir(CARTAO);
+
+        clock.avancar(Duration.ofHours(25));
+        assertThat(verificador.verificar(qr).getSituacao()).isEqualTo(SituacaoVerificacao.LISTA_VENCIDA);
+
+        verificador.atualizar(emissor.pacoteVerificacao());
+        assertThat(verificador.verificar(qr).getSituacao()).isEqualTo(SituacaoVerificacao.VALIDA);
+
+        clock.avancar(Duration.ofDays(31));
+        verificador.atualizar(emissor.pacoteVerificacao());
+        assertThat(verificador.verificar(qr).getSituacao()).isEqualTo(SituacaoVerificacao.EXPIRADA);
+
+        VerificadorCarteirinha semPacote = new VerificadorCarteirinha(emissor.chavesPublicadas(), ZoneOffset.UTC,
+            clock);
+        assertThat(semPacote.verificar(emitir(CARTAO)).getSituacao()).isEqualTo(SituacaoVerificacao.LISTA_VENCIDA);
+    }
+
+    @Test
+    @DisplayName("Should revoke tokens issued before revocation and prune it after the token lifetime")
+    void shouldRevokeAndPrune() throws Exception {
+        String qr = emitir(CARTAO);
+        assertThat(emissor.revogar("9999999999999999")).isFalse();
+        assertThat(emissor.revogar(CARTAO)).isTrue();
+        assertThat(emissor.revogar(CARTAO)).isFalse();
+
+        verificador.atualizar(emissor.pacoteVerificacao());
+        assertThat(verificador.verificar(qr).getSituacao()).isEqualTo(SituacaoVerificacao.REVOGADA);
+        assertThat(verificador.verificar(emitir("0099")).getSituacao()).isEqualTo(SituacaoVerificacao.VALIDA);
+
+        // Reactivated: a token issued after the revocation is valid, the old one is not
+        clock.avancar(Duration.ofMinutes(5));
+        String novo = emitir(CARTAO);
+        assertThat(verificador.verificar(novo).getSituacao()).isEqualTo(SituacaoVerificacao.VALIDA);
+        assertThat(verificador.verificar(qr).getSituacao()).isEqualTo(SituacaoVerificacao.REVOGADA);
+
+        clock.avancar(Duration.ofDays(33));
+        emissor.manutencao();
+        assertThat(emissor.getRevogacoesPublicadas()).isZero();
+        verificador.atualizar(emissor.pacoteVerificacao());
+        assertThat(PacoteVerificacao.ler(emissor.pacoteVerificacao()).getRevogacoes()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should follow key rotation through pre-published keys and reject forged or old bundles")
+    void shouldRotateKeys() throws Exception {
+        String antigo = emitir(CARTAO);
+        int chaveInicial = verificador.verificar(antigo).getToken().getIdChave();
+        byte[] pacoteAntigo = emissor.pacoteVerificacao();
+        assertThat(emissor.chavesPublicadas()).hasSize(2);
+
+        clock.avancar(Duration.ofDays(91));
+        String novo = emitir(CARTAO);
+        assertThat(verificador.verificar(novo).getToken().getIdChave()).isNotEqualTo(chaveInicial);
+        // The signing key was published before it signed anything
+        verificador.atualizar(emissor.pacoteVerificacao());
+        assertThat(verificador.verificar(novo).getSituacao()).isEqualTo(SituacaoVerificacao.VALIDA);
+        assertThat(emissor.chavesPublicadas()).hasSize(3).containsKey(chaveInicial);
+
+        // Retired key dropped once its last token has expired
+        clock.avancar(Duration.ofDays(33));
+        emissor.manutencao();
+        assertThat(emissor.chavesPublicadas()).hasSize(2).doesNotContainKey(chaveInicial);
+
+        try {
+            verificador.atualizar(pacoteAntigo);
+            throw new AssertionError("Rolled-back bundle accepted");
+        } catch (IllegalArgumentException esperado) {
+            // not newer than the installed one
+        }
+        KeyPair intruso = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        byte[] forjado = PacoteVerificacao.assinar(clock.instant().getEpochSecond() + 10,
+            clock.instant().getEpochSecond() + 86_400, Map.of(7, intruso.getPublic()), Map.of(), 7,
+            intruso.getPrivate());
+        try {
+            verificador.atualizar(forjado);
+            throw new AssertionError("Forged bundle accepted");
+        } catch (GeneralSecurityException esperado) {
+            // signed by a key the verifier does not trust
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep keys and revocations across a restart")
+    void shouldSurviveRestart() throws Exception {
+        String qr = emitir(CARTAO);
+        emissor.revogar(CARTAO);
+        Map<Integer, PublicKey> chaves = emissor.chavesPublicadas();
+        emissor.parar();
+
+        EmissorCarteirinha reiniciado = new EmissorCarteirinha(diretorio, 30, 90, 24, ZoneOffset.UTC, clock);
+        assertThat(reiniciado.chavesPublicadas().keySet()).containsExactlyInAnyOrderElementsOf(chaves.keySet());
+        assertThat(reiniciado.getRevogacoesPublicadas()).isEqualTo(1);
+
+        clock.avancar(Duration.ofSeconds(1));
+        verificador.atualizar(reiniciado.pacoteVerificacao());
+        assertThat(verificador.verificar(qr).getSituacao()).isEqualTo(SituacaoVerificacao.REVOGADA);
+        assertThat(verificador.verificar(reiniciado.emitir("0099", "1", EnumSet.noneOf(CoberturaCarteirinha.class),
+            false, null)).getSituacao()).isEqualTo(SituacaoVerificacao.VALIDA);
+    }
+
+    @Test
+    @DisplayName("Should sign with the configured key on every instance and revoke tokens issued elsewhere")
+    void shouldShareConfiguredKeysAcrossInstances() throws Exception {
+        KeyPair par = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        KeyPair proxima = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        Base64.Encoder base64 = Base64.getEncoder();
+        String privada = base64.encodeToString(par.getPrivate().getEncoded());
+        String publica = base64.encodeToString(par.getPublic().getEncoded());
+        String publicadas = "8:" + base64.encodeToString(proxima.getPublic().getEncoded());
+        EmissorCarteirinha a = new EmissorCarteirinha(7, privada, publica, publicadas, 30, 24, ZoneOffset.UTC, clock);
+        EmissorCarteirinha b = new EmissorCarteirinha(7, privada, publica, publicadas, 30, 24, ZoneOffset.UTC, clock);
+        assertThat(a.chavesPublicadas().keySet()).containsExactlyInAnyOrder(7, 8);
+        assertThat(a.chavesPublicadas()).isEqualTo(b.chavesPublicadas());
+
+        VerificadorCarteirinha pinado = new VerificadorCarteirinha(a.chavesPublicadas(), ZoneOffset.UTC, clock);
+        String qr = a.emitir(CARTAO, "1", EnumSet.noneOf(CoberturaCarteirinha.class), false, null);
+        pinado.atualizar(b.pacoteVerificacao());
+        assertThat(pinado.verificar(qr).getSituacao()).isEqualTo(SituacaoVerificacao.VALIDA);
+
+        // The card leaves ATIVO and the other instance handles it
+        assertThat(b.revogar(CARTAO)).isFalse();
+        long emitidoEm = pinado.verificar(qr).getToken().getEmitidoEm();
+        assertThat(b.registrarEmissao(CARTAO, emitidoEm)).isTrue();
+        assertThat(b.revogar(CARTAO)).isTrue();
+        clock.avancar(Duration.ofSeconds(1));
+        pinado.atualizar(b.pacoteVerificacao());
+        assertThat(pinado.verificar(qr).getSituacao()).isEqualTo(SituacaoVerificacao.REVOGADA);
+
+        // Issuances whose tokens have all expired are not kept
+        assertThat(b.registrarEmissao("0099", emitidoEm - Duration.ofDays(40).toSeconds())).isFalse();
+
+        b.setReplicado(false);
+        try {
+            b.pacoteVerificacao();
+            throw new AssertionError("Bundle served while issuances were replaying");
+        } catch (IntegrationException esperado) {
+            // could miss revocations of tokens issued on other instances
+        }
+    }
+
+    private String emitir(String cartao) {
+        return emissor.emitir(cartao, "123456789",
+            EnumSet.of(CoberturaCarteirinha.AMBULATORIAL, CoberturaCarteirinha.HOSPITALAR), true,
+            LocalDate.of(2026, 3, 1));
+    }
+
+    private static final class RelogioManual extends Clock {
+
+        long agora;
+
+        RelogioManual(Instant inicio) {
+            this.agora = inicio.toEpochMilli();
+        }
+
+        void avancar(Duration duracao) {
+            agora += duracao.toMillis();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(agora);
+        }
+
+        @Override
+        public long millis() {
+            return agora;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.austa.saude.experiencia.test.unit.cobertura;
+
+import br.com.austa.experiencia.service.cobertura.ContratoBeneficiario;
+import br.com.austa.experiencia.service.cobertura.GrupoCarencia;
+import br.com.austa.experiencia.service.cobertura.MatrizCobertura;
+import br.com.austa.experiencia.service.cobertura.MotorCobertura;
+import br.com.austa.experiencia.service.cobertura.ProcedimentoRol;
+import br.com.austa.experiencia.service.cobertura.ProdutoPlano;
+import br.com.austa.experiencia.service.cobertura.Segmentacao;
+import br.com.austa.experiencia.service.cobertura.VerificacaoCobertura;
+import br.com.austa.experiencia.service.cobertura.VerificacaoCobertura.Situacao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the compiled coverage and waiting-period engine
+ *
+ * Coverage:
+ * - Rol × product × segmentation: segmentation coverage, additional coverage, exclusions, codes outside the rol
+ * - Waiting periods per group, urgency 24h rule, CPT on high-complexity procedures, exempted groups
+ * - Snapshot isolation: readers keep their version while rol and contracts are republished
+ * - Coalesced contract events, cancellation, and bulk loads across many pages
+ * - Not loaded while the registration topics are being replayed
+ */
+@DisplayName("Motor Cobertura Tests")
+class MotorCoberturaTest {
+
+    private static final String CONSULTA = "10101012";
+    private static final String HEMOGRAMA = "40304361";
+    private static final String RESSONANCIA = "41101227";
+    private static final String APENDICECTOMIA = "31003079";
+    private static final String PARTO = "31309054";
+    private static final String ACUPUNTURA = "31601014";
+    private static final String NUTRICIONISTA_DOMICILIAR = "50000470";
+
+    private static final LocalDate INICIO = LocalDate.of(2025, 3, 1);
+
+    private MotorCobertura motor;
+
+    @BeforeEach
+    void setUp() {
+        motor = new MotorCobertura(500);
+        motor.publicarRol("RN 465/2021", rol(), List.of(
+            produto("AMB-01", EnumSet.of(Segmentacao.AMBULATORIAL), Set.of(), Set.of(ACUPUNTURA)),
+            produto("REF-01", EnumSet.of(Segmentacao.AMBULATORIAL, Segmentacao.HOSPITALAR, Segmentacao.OBSTETRICIA),
+                Set.of(NUTRICIONISTA_DOMICILIAR), Set.of())));
+    }
+
+    @Test
+    @DisplayName("Should cover procedures by product segmentation and contractual deviations")
+    void shouldCoverBySegmentation() {
+        motor.atualizarContratos(List.of(contrato("BEN-AMB", "AMB-01", false), contrato("BEN-REF", "REF-01", false)));
+        LocalDate depois = INICIO.plusYears(2);
+
+        assertThat(situacao("BEN-AMB", CONSULTA, depois)).isEqualTo(Situacao.COBERTO);
+        assertThat(situacao("BEN-AMB", "1.01.01.01-2", depois)).isEqualTo(Situacao.COBERTO);
+        assertThat(situacao("BEN-AMB", APENDICECTOMIA, depois)).isEqualTo(Situacao.NAO_COBERTO_PELO_PLANO);
+        assertThat(situacao("BEN-AMB", ACUPUNTURA, depois)).isEqualTo(Situacao.NAO_COBERTO_PELO_PLANO);
+        assertThat(situacao("BEN-AMB", NUTRICIONISTA_DOMICILIAR, depois)).isEqualTo(Situacao.FORA_DO_ROL);
+        assertThat(situacao("BEN-AMB", "99999999", depois)).isEqualTo(Situacao.FORA_DO_ROL);
+
+        assertThat(situacao("BEN-REF", APENDICECTOMIA, depois)).isEqualTo(Situacao.COBERTO);
+        assertThat(situacao("BEN-REF", PARTO, depois)).isEqualTo(Situacao.COBERTO);
+        assertThat(situacao("BEN-REF", NUTRICIONISTA_DOMICILIAR, depois)).isEqualTo(Situacao.COBERTO);
+        assertThat(situacao("BEN-NENHUM", CONSULTA, depois)).isEqualTo(Situacao.SEM_CONTRATO);
+
+        assertThat(motor.verificar("BEN-AMB", CONSULTA, depois, false).getCoparticipacao())
+            .isEqualByComparingTo("25.00");
+        assertThat(motor.matriz().cobre("BEN-AMB", RESSONANCIA)).isTrue();
+        assertThat(motor.matriz().segmentacoes("BEN-REF"))
+            .containsExactlyInAnyOrder(Segmentacao.AMBULATORIAL, Segmentacao.HOSPITALAR, Segmentacao.OBSTETRICIA);
+        assertThat(motor.matriz().segmentacoes("BEN-NENHUM")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should apply waiting periods per group, the 24h urgency rule and CPT")
+    void shouldApplyWaitingPeriods() {
+        motor.atualizarContratos(List.of(contrato("BEN-CPT", "REF-01", true),
+            new ContratoBeneficiario("BEN-PORT", "REF-01", INICIO, false, Map.of(GrupoCarencia.PARTO, 0))));
+
+        VerificacaoCobertura consulta = motor.verificar("BEN-CPT", CONSULTA, INICIO.plusDays(29), false);
+        assertThat(consulta.isEmCarencia()).isTrue();
+        assertThat(consulta.getDiasCarenciaRestantes()).isEqualTo(1);
+        assertThat(consulta.getGrupoCarencia()).isEqualTo(GrupoCarencia.CONSULTAS_EXAMES_SIMPLES);
+        assertThat(motor.verificar("BEN-CPT", CONSULTA, INICIO.plusDays(30), false).isCoberto()).isTrue();
+
+        assertThat(motor.verificar("BEN-CPT", APENDICECTOMIA, INICIO, false).isEmCarencia()).isTrue();
+        assertThat(motor.verificar("BEN-CPT", APENDICECTOMIA, INICIO, true).isEmCarencia()).isTrue();
+        assertThat(motor.verificar("BEN-CPT", APENDICECTOMIA, INICIO.plusDays(1), true).isCoberto()).isTrue();
+
+        // PAC item: the 180-day group has ended but the 24-month CPT has not
+        VerificacaoCobertura ressonancia = motor.verificar("BEN-CPT", RESSONANCIA, INICIO.plusDays(200), false);
+        assertThat(ressonancia.isEmCarencia()).isTrue();
+        assertThat(ressonancia.getGrupoCarencia()).isEqualTo(GrupoCarencia.CPT);
+        assertThat(ressonancia.getDiasCarenciaRestantes()).isEqualTo(530);
+        assertThat(ressonancia.getMotivo()).contains("Cobertura Parcial Temporária");
+        assertThat(motor.verificar("BEN-CPT", RESSONANCIA, INICIO.plusDays(200), true).isCoberto()).isTrue();
+        assertThat(motor.verificar("BEN-CPT", HEMOGRAMA, INICIO.plusDays(200), false).isCoberto()).isTrue();
+
+        assertThat(motor.verificar("BEN-CPT", PARTO, INICIO.plusDays(200), false).isEmCarencia()).isTrue();
+        assertThat(motor.verificar("BEN-PORT", PARTO, INICIO, false).isCoberto()).isTrue();
+
+        assertThat(motor.matriz().fimCarencia("BEN-CPT", GrupoCarencia.CPT)).isEqualTo(INICIO.plusDays(729));
+        assertThat(motor.matriz().fimCarencia("BEN-PORT", GrupoCarencia.CPT)).isNull();
+        assertThat(motor.matriz().fimCarencia("BEN-PORT", GrupoCarencia.PARTO)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep a held snapshot unchanged while rol and contracts are republished")
+    void shouldIsolateSnapshots() {
+        motor.atualizarContratos(List.of(contrato("BEN-1", "REF-01", false)));
+        MatrizCobertura anterior = motor.matriz();
+        LocalDate depois = INICIO.plusYears(1);
+
+        motor.atualizarContratos(List.of(contrato("BEN-1", "AMB-01", false), contrato("BEN-2", "REF-01", false)));
+        motor.publicarRol("RN 465/2021 + 2025-10", rol(), List.of(
+            produto("AMB-01", EnumSet.of(Segmentacao.AMBULATORIAL), Set.of(), Set.of(CONSULTA)),
+            produto("REF-01", EnumSet.of(Segmentacao.AMBULATORIAL, Segmentacao.HOSPITALAR), Set.of(), Set.of())));
+
+        assertThat(anterior.verificar("BEN-1", APENDICECTOMIA, depois, false).isCoberto()).isTrue();
+        assertThat(anterior.verificar("BEN-2", CONSULTA, depois, false).getSituacao()).isEqualTo(Situacao.SEM_CONTRATO);
+        assertThat(anterior.getVersaoRol()).isEqualTo("RN 465/2021");
+
+        MatrizCobertura atual = motor.matriz();
+        assertThat(atual.getVersao()).isGreaterThan(anterior.getVersao());
+        assertThat(atual.verificar("BEN-1", APENDICECTOMIA, depois, false).getSituacao())
+            .isEqualTo(Situacao.NAO_COBERTO_PELO_PLANO);
+        assertThat(atual.verificar("BEN-1", CONSULTA, depois, false).getSituacao())
+            .isEqualTo(Situacao.NAO_COBERTO_PELO_PLANO);
+        assertThat(atual.verificar("BEN-2", PARTO, depois, false).getSituacao())
+            .isEqualTo(Situacao.NAO_COBERTO_PELO_PLANO);
+        assertThat(atual.verificar("BEN-2", APENDICECTOMIA, depois, false).isCoberto()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should publish queued contract events together and honour cancellations")
+    void shouldCoalesceContractEvents() {
+        LocalDate depois = INICIO.plusYears(1);
+        motor.registrarContrato(contrato("BEN-9", "AMB-01", false));
+        motor.registrarContrato(contrato("BEN-9", "REF-01", false));
+        assertThat(situacao("BEN-9", CONSULTA, depois)).isEqualTo(Situacao.SEM_CONTRATO);
+
+        long versao = motor.matriz().getVersao();
+        assertThat(motor.publicarPendentes()).isEqualTo(2);
+        assertThat(motor.matriz().getVersao()).isEqualTo(versao + 1);
+        assertThat(situacao("BEN-9", PARTO, depois)).isEqualTo(Situacao.COBERTO);
+
+        motor.registrarContrato(ContratoBeneficiario.cancelado("BEN-9"));
+        motor.registrarContrato(ContratoBeneficiario.cancelado("BEN-DESCONHECIDO"));
+        motor.publicarPendentes();
+        assertThat(situacao("BEN-9", CONSULTA, depois)).isEqualTo(Situacao.SEM_CONTRATO);
+        assertThat(motor.matriz().getBeneficiarios()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should report not loaded until the replay ends, then publish what it queued")
+    void shouldWaitForReplay() {
+        motor.setReplicado(false);
+        motor.registrarContrato(contrato("BEN-7", "AMB-01", false));
+        assertThat(motor.isCarregado()).isFalse();
+
+        motor.setReplicado(true);
+        assertThat(motor.isCarregado()).isTrue();
+        assertThat(motor.getPendentes()).isZero();
+        assertThat(situacao("BEN-7", CONSULTA, INICIO.plusYears(1))).isEqualTo(Situacao.COBERTO);
+    }
+
+    @Test
+    @DisplayName("Should load and answer for a large population across many pages")
+    void shouldHandleLargePopulation() {
+        int total = 200_000;
+        List<ContratoBeneficiario> contratos = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            contratos.add(new ContratoBeneficiario("BEN-" + i, i % 2 == 0 ? "AMB-01" : "REF-01",
+                INICIO.plusDays(i % 365), i % 10 == 0, Map.of()));
+        }
+        motor.atualizarContratos(contratos);
+        MatrizCobertura carregada = motor.matriz();
+
+        motor.atualizarContratos(List.of(contrato("BEN-1", "AMB-01", false)));
+        assertThat(motor.matriz().getBeneficiarios()).isEqualTo(total);
+        assertThat(carregada.verificar("BEN-1", APENDICECTOMIA, INICIO.plusYears(1), false).isCoberto()).isTrue();
+        assertThat(motor.verificar("BEN-1", APENDICECTOMIA, INICIO.plusYears(1), false).getSituacao())
+            .isEqualTo(Situacao.NAO_COBERTO_PELO_PLANO);
+
+        LocalDate data = INICIO.plusDays(200);
+        for (int i = 0; i < total; i += 997) {
+            VerificacaoCobertura verificacao = motor.verificar("BEN-" + i, CONSULTA, data, false);
+            int desde = 200 - i % 365;
+            assertThat(verificacao.isEmCarencia()).as("BEN-%d", i).isEqualTo(desde < 30);
+        }
+    }
+
+    private Situacao situacao(String beneficiarioId, String tuss, LocalDate data) {
+        return motor.verificar(beneficiarioId, tuss, data, false).getSituacao();
+    }
+
+    private static ContratoBeneficiario contrato(String beneficiarioId, String produto, boolean cpt) {
+        return new ContratoBeneficiario(beneficiarioId, produto, INICIO, cpt, Map.of());
+    }
+
+    private static List<ProcedimentoRol> rol() {
+        return List.of(
+            new ProcedimentoRol(CONSULTA, "Consulta em consultório", EnumSet.of(Segmentacao.AMBULATORIAL),
+                GrupoCarencia.CONSULTAS_EXAMES_SIMPLES, false),
+            new ProcedimentoRol(HEMOGRAMA, "Hemograma completo", EnumSet.of(Segmentacao.AMBULATORIAL),
+                GrupoCarencia.CONSULTAS_EXAMES_SIMPLES, false),
+            new ProcedimentoRol(RESSONANCIA, "RM crânio", EnumSet.of(Segmentacao.AMBULATORIAL),
+                GrupoCarencia.DEMAIS_PROCEDIMENTOS, true),
+            new ProcedimentoRol(APENDICECTOMIA, "Apendicectomia", EnumSet.of(Segmentacao.HOSPITALAR),
+                GrupoCarencia.DEMAIS_PROCEDIMENTOS, true),
+            new ProcedimentoRol(PARTO, "Parto cesariano", EnumSet.of(Segmentacao.OBSTETRICIA),
+                GrupoCarencia.PARTO, false),
+            new ProcedimentoRol(ACUPUNTURA, "Acupuntura", EnumSet.of(Segmentacao.AMBULATORIAL),
+                GrupoCarencia.DEMAIS_PROCEDIMENTOS, false));
+    }
+
+    private static ProdutoPlano produto(String codigo, Set<Segmentacao> segmentacoes, Set<String> adicionais,
+                                        Set<String> exclusoes) {
+        return new ProdutoPlano(codigo, segmentacoes, adicionais, exclusoes,
+            Map.of(GrupoCarencia.CONSULTAS_EXAMES_SIMPLES, new BigDecimal("25.00")));
+    }
+}
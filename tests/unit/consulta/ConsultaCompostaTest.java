@@ -0,0 +1,159 @@
+package com.austa.saude.experiencia.test.unit.consulta;
+
+import br.com.austa.experiencia.service.consulta.ConsultaComposta;
+import br.com.austa.experiencia.service.consulta.ResultadoConsultaComposta;
+import br.com.austa.experiencia.service.consulta.SituacaoParte;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the composite self-service query fan-out
+ *
+ * Coverage:
+ * - Parts run in parallel: every part starts before any of them returns
+ * - A part past its deadline is cancelled and the rest is returned as a partial result
+ * - Per-type deadline overrides
+ * - A failing part does not fail the others
+ * - Parts beyond pool and queue capacity are reported as rejected
+ *
+ * Latency of the home screen query, composite vs sequential, is measured in ConsultaCompostaPerformanceTest.
+ */
+@DisplayName("Consulta Composta Tests")
+class ConsultaCompostaTest {
+
+    private ConsultaComposta consulta;
+
+    @BeforeEach
+    void setUp() {
+        consulta = new ConsultaComposta(8, 16, 300, Map.of("HISTORICO_ATENDIMENTOS", 600L));
+    }
+
+    @AfterEach
+    void tearDown() {
+        consulta.parar();
+    }
+
+    @Test
+    @DisplayName("Should run parts in parallel and keep request order")
+    void shouldRunPartsInParallel() {
+        // each part waits for all four to start; run one after another, the first would miss its deadline
+        CountDownLatch iniciadas = new CountDownLatch(4);
+        Map<String, Callable<Object>> partes = new LinkedHashMap<>();
+        partes.put("PLANO", emConjunto(iniciadas, "plano"));
+        partes.put("SINISTROS", emConjunto(iniciadas, "sinistros"));
+        partes.put("AUTORIZACOES", emConjunto(iniciadas, "autorizacoes"));
+        partes.put("FINANCEIRO", emConjunto(iniciadas, "financeiro"));
+
+        ResultadoConsultaComposta resultado = consulta.executar(partes);
+
+        assertThat(resultado.isCompleta()).isTrue();
+        assertThat(resultado.getPartes().keySet()).containsExactly("PLANO", "SINISTROS", "AUTORIZACOES", "FINANCEIRO");
+        assertThat(resultado.getParte("FINANCEIRO").getDados()).isEqualTo("financeiro");
+        assertThat(consulta.getParciais()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should cancel a part past its deadline and return the others")
+    void shouldReturnPartialResult() throws Exception {
+        CountDownLatch interrompida = new CountDownLatch(1);
+        Map<String, Callable<Object>> partes = new LinkedHashMap<>();
+        partes.put("PLANO", lento(10, "plano"));
+        partes.put("SINISTROS", () -> {
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                interrompida.countDown();
+                throw e;
+            }
+            return "tarde demais";
+        });
+        partes.put("AUTORIZACOES", lento(10, "autorizacoes"));
+
+        ResultadoConsultaComposta resultado = consulta.executar(partes);
+
+        assertThat(resultado.isCompleta()).isFalse();
+        assertThat(resultado.getPendentes()).containsExactly("SINISTROS");
+        assertThat(resultado.getParte("SINISTROS").getSituacao()).isEqualTo(SituacaoParte.PRAZO_EXCEDIDO);
+        assertThat(resultado.getParte("AUTORIZACOES").getDados()).isEqualTo("autorizacoes");
+        assertThat(interrompida.await(1, TimeUnit.SECONDS)).isTrue();
+
+        Map<String, Object> mapa = resultado.toMap();
+        assertThat(mapa).containsEntry("completa", false).containsEntry("pendentes", List.of("SINISTROS"));
+        assertThat((Map<?, ?>) mapa.get("dados")).containsKeys("PLANO", "AUTORIZACOES").doesNotContainKey("SINISTROS");
+        assertThat(consulta.getPartesExcedidas()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should apply per-type deadlines and isolate failures")
+    void shouldApplyPerTypeDeadlinesAndIsolateFailures() {
+        Map<String, Callable<Object>> partes = new LinkedHashMap<>();
+        partes.put("HISTORICO_ATENDIMENTOS", lento(450, "historico"));
+        partes.put("FINANCEIRO", lento(450, "financeiro"));
+        partes.put("REDE_CREDENCIADA", () -> {
+            throw new IllegalStateException("rede indisponível");
+        });
+
+        ResultadoConsultaComposta resultado = consulta.executar(partes);
+
+        assertThat(resultado.getParte("HISTORICO_ATENDIMENTOS").isConcluida()).isTrue();
+        assertThat(resultado.getParte("FINANCEIRO").getSituacao()).isEqualTo(SituacaoParte.PRAZO_EXCEDIDO);
+        assertThat(resultado.getParte("REDE_CREDENCIADA").getSituacao()).isEqualTo(SituacaoParte.FALHA);
+        assertThat(resultado.getParte("REDE_CREDENCIADA").getErro()).isEqualTo("rede indisponível");
+        assertThat(resultado.getPendentes()).containsExactly("FINANCEIRO", "REDE_CREDENCIADA");
+    }
+
+    @Test
+    @DisplayName("Should report parts beyond pool capacity as rejected")
+    void shouldRejectBeyondCapacity() {
+        ConsultaComposta pequena = new ConsultaComposta(1, 1, 300, Map.of());
+        AtomicBoolean executada = new AtomicBoolean();
+        try {
+            Map<String, Callable<Object>> partes = new LinkedHashMap<>();
+            partes.put("PLANO", lento(50, "plano"));
+            partes.put("SINISTROS", lento(50, "sinistros"));
+            partes.put("FINANCEIRO", () -> {
+                executada.set(true);
+                return "financeiro";
+            });
+
+            ResultadoConsultaComposta resultado = pequena.executar(partes);
+
+            assertThat(resultado.getParte("PLANO").isConcluida()).isTrue();
+            assertThat(resultado.getParte("SINISTROS").isConcluida()).isTrue();
+            assertThat(resultado.getParte("FINANCEIRO").getSituacao()).isEqualTo(SituacaoParte.REJEITADA);
+            assertThat(executada.get()).isFalse();
+            assertThat(pequena.getPartesRejeitadas()).isEqualTo(1L);
+        } finally {
+            pequena.parar();
+        }
+    }
+
+    private static Callable<Object> lento(long millis, String dados) {
+        return () -> {
+            Thread.sleep(millis);
+            return dados;
+        };
+    }
+
+    private static Callable<Object> emConjunto(CountDownLatch iniciadas, String dados) {
+        return () -> {
+            iniciadas.countDown();
+            if (!iniciadas.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("partes executadas em sequência");
+            }
+            return dados;
+        };
+    }
+}
@@ -0,0 +1,211 @@
+package com.austa.saude.experiencia.test.unit.elegibilidade;
+
+import br.com.austa.experiencia.model.dto.ElegibilidadeDTO;
+import br.com.austa.experiencia.service.elegibilidade.RegistroElegibilidade;
+import br.com.austa.experiencia.service.elegibilidade.ReplicaElegibilidade;
+import br.com.austa.experiencia.service.elegibilidade.StatusPlano;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the local Tasy eligibility replica
+ *
+ * Coverage:
+ * - Status and validity range answered locally, unknown cards rejected by the Bloom filter
+ * - Watermark: no answer while replaying, after a stalled partition or below a requested sequence
+ * - Watermark is the lowest partition watermark, not the highest applied sequence
+ * - Card numbers that cannot be keyed are left to the live lookup
+ * - Growth under a large replay while readers keep answering
+ */
+@DisplayName("Replica Elegibilidade Tests")
+class ReplicaElegibilidadeTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2025, 3, 1);
+    private static final LocalDate HOJE = LocalDate.of(2025, 12, 11);
+
+    private RelogioManual relogio;
+    private ReplicaElegibilidade replica;
+
+    @BeforeEach
+    void setUp() {
+        relogio = new RelogioManual(Instant.parse("2025-12-11T12:00:00Z"));
+        replica = new ReplicaElegibilidade(16, 5_000, relogio);
+    }
+
+    @Test
+    @DisplayName("Should answer status and validity locally and reject unknown cards")
+    void shouldAnswerStatusAndValidityLocally() {
+        replica.aplicar(registro("0012345678901234", "BEN-1", StatusPlano.ATIVO, null), 0, 1);
+        replica.aplicar(registro("0012345678901235", "BEN-2", StatusPlano.SUSPENSO, null), 0, 2);
+        replica.aplicar(registro("0012345678901236", "BEN-3", StatusPlano.ATIVO, LocalDate.of(2025, 11, 30)), 0, 3);
+        replica.confirmar(0, 3, relogio.agora);
+
+        ElegibilidadeDTO ativo = replica.consultar("0012.3456.7890.1234", HOJE).get();
+        assertThat(ativo.isElegivel()).isTrue();
+        assertThat(ativo.getBeneficiarioId()).isEqualTo("BEN-1");
+        assertThat(ativo.getStatusPlano()).isEqualTo("ATIVO");
+        assertThat(ativo.getDataAdesao()).isEqualTo(INICIO);
+        assertThat(replica.codigoPlano("0012345678901234")).isEqualTo("PLANO-OURO");
+
+        assertThat(replica.consultar("0012345678901234", INICIO.minusDays(1)).get().isElegivel()).isFalse();
+        assertThat(replica.consultar("0012345678901235", HOJE).get().getMotivoInelegibilidade())
+            .isEqualTo("Plano suspenso");
+        assertThat(replica.consultar("0012345678901236", HOJE).get().getMotivoInelegibilidade())
+            .isEqualTo("Vigência encerrada em 2025-11-30");
+
+        // leading zeros are part of the card number
+        assertThat(replica.consultar("12345678901234", HOJE).get().isElegivel()).isFalse();
+
+        for (int i = 0; i < 1_000; i++) {
+            ElegibilidadeDTO desconhecido = replica.consultar(String.valueOf(9_000_000_000L + i), HOJE).get();
+            assertThat(desconhecido.isElegivel()).isFalse();
+            assertThat(desconhecido.getMotivoInelegibilidade()).isEqualTo("Cartão não encontrado");
+        }
+        assertThat(replica.getRejeitadasPeloFiltro()).isGreaterThan(980L);
+
+        // a reactivation replaces the packed word in place
+        replica.aplicar(registro("0012345678901235", "BEN-2", StatusPlano.ATIVO, null), 0, 4);
+        replica.confirmar(0, 4, relogio.agora);
+        assertThat(replica.consultar("0012345678901235", HOJE).get().isElegivel()).isTrue();
+        assertThat(replica.getTamanho()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should not answer while replaying, stalled or behind a partition or the requested sequence")
+    void shouldFallBackWhenStale() {
+        replica.setParticoes(2);
+        replica.aplicar(registro("100200300", "BEN-1", StatusPlano.ATIVO, null), 0, 10);
+        replica.confirmar(0, 10, relogio.agora);
+        // partition 1 never confirmed
+        assertThat(replica.isAtualizada()).isFalse();
+        assertThat(replica.consultar("100200300", HOJE)).isEmpty();
+
+        // still replaying: a card missing from the table proves nothing yet
+        replica.setReplicada(false);
+        replica.confirmar(1, 9, relogio.agora);
+        assertThat(replica.consultar("999888777", HOJE)).isEmpty();
+        replica.setReplicada(true);
+        assertThat(replica.consultar("999888777", HOJE).get().getMotivoInelegibilidade())
+            .isEqualTo("Cartão não encontrado");
+
+        // a partition far ahead does not lift the watermark past a lagging one
+        replica.aplicar(registro("100200301", "BEN-2", StatusPlano.ATIVO, null), 0, 14);
+        assertThat(replica.getMarcaDagua()).isEqualTo(9L);
+        assertThat(replica.consultar("100200300", HOJE, 12)).isEmpty();
+        replica.aplicar(registro("100200302", "BEN-3", StatusPlano.ATIVO, null), 1, 12);
+        assertThat(replica.getMarcaDagua()).isEqualTo(12L);
+        assertThat(replica.consultar("100200300", HOJE, 12)).isPresent();
+        assertThat(replica.consultar("100200300", HOJE, 13)).isEmpty();
+
+        // one partition without a recent heartbeat stalls the whole replica
+        relogio.agora += 5_001;
+        replica.confirmar(0, 14, relogio.agora);
+        assertThat(replica.consultar("100200300", HOJE)).isEmpty();
+        replica.confirmar(1, 14, relogio.agora);
+        assertThat(replica.consultar("100200300", HOJE)).isPresent();
+        assertThat(replica.getMarcaDagua()).isEqualTo(14L);
+
+        assertThat(replica.consultar("ABC-100200300", HOJE)).isEmpty();
+        assertThat(replica.consultar("123456789012345678", HOJE)).isEmpty();
+        assertThat(replica.getSemResposta()).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("Should keep answering while a large replay grows the table")
+    void shouldGrowUnderConcurrentReads() throws Exception {
+        String[] cartoes = new String[200_000];
+        for (int i = 0; i < cartoes.length; i++) {
+            cartoes[i] = String.format("0865%012d", i * 7919L);
+        }
+        replica.aplicar(registro(cartoes[0], "BEN-0", StatusPlano.ATIVO, null), 0, 0);
+        replica.confirmar(0, 0, relogio.agora);
+
+        AtomicLong publicado = new AtomicLong(0);
+        AtomicBoolean fim = new AtomicBoolean();
+        ExecutorService leitores = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] futuros = new Future<?>[4];
+            for (int t = 0; t < futuros.length; t++) {
+                futuros[t] = leitores.submit(() -> {
+                    long i = 0;
+                    while (!fim.get()) {
+                        long limite = publicado.get();
+                        int n = (int) (i++ % (limite + 1));
+                        Optional<ElegibilidadeDTO> resposta = replica.consultar(cartoes[n], HOJE);
+                        if (resposta.isPresent()) {
+                            assertThat(resposta.get().isElegivel()).isTrue();
+                            assertThat(resposta.get().getBeneficiarioId()).isEqualTo("BEN-" + n);
+                        }
+                    }
+                    return null;
+                });
+            }
+
+            for (int i = 1; i < cartoes.length; i++) {
+                replica.aplicar(registro(cartoes[i], "BEN-" + i, StatusPlano.ATIVO, null), 0, i);
+                replica.confirmar(0, i, relogio.agora);
+                publicado.set(i);
+            }
+            fim.set(true);
+            for (Future<?> futuro : futuros) {
+                futuro.get();
+            }
+        } finally {
+            leitores.shutdownNow();
+        }
+
+        assertThat(replica.getTamanho()).isEqualTo(cartoes.length);
+        for (int i = 0; i < cartoes.length; i += 997) {
+            assertThat(replica.consultar(cartoes[i], HOJE).get().getBeneficiarioId()).isEqualTo("BEN-" + i);
+        }
+    }
+
+    private static RegistroElegibilidade registro(String cartao, String beneficiarioId, StatusPlano status,
+                                                  LocalDate fimVigencia) {
+        return new RegistroElegibilidade(cartao, beneficiarioId, status, "PLANO-OURO", INICIO, fimVigencia);
+    }
+
+    private static final class RelogioManual extends Clock {
+
+        long agora;
+
+        RelogioManual(Instant inicio) {
+            this.agora = inicio.toEpochMilli();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(agora);
+        }
+
+        @Override
+        public long millis() {
+            return agora;
+        }
+    }
+}
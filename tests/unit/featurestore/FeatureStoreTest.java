@@ -0,0 +1,205 @@
+package com.austa.saude.experiencia.test.unit.featurestore;
+
+import br.com.austa.experiencia.service.featurestore.Feature;
+import br.com.austa.experiencia.service.featurestore.FeatureStore;
+import br.com.austa.experiencia.service.featurestore.FeatureVector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the memory-mapped Feature Store
+ *
+ * Coverage:
+ * - Incremental updates and derived features
+ * - Point-in-time reads by version (training/serving parity)
+ * - Reads as of before an event, whether or not it was consumed yet
+ * - Recovery of the index after reopening the files, past slots left empty
+ * - Skipping topic events already applied before a restart
+ * - Counting versions not retained once the history is full
+ * - Concurrent writers on the same beneficiary
+ */
+@DisplayName("Feature Store Tests")
+class FeatureStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private FeatureStore abrir() throws Exception {
+        return new FeatureStore(dir.toString(), 1000, 1 << 20);
+    }
+
+    private static void nps(double[] v, int score) {
+        v[Feature.NPS_PENULTIMO.ordinal()] = v[Feature.NPS_ULTIMO.ordinal()];
+        v[Feature.NPS_ULTIMO.ordinal()] = score;
+        v[Feature.NPS_TOTAL_RESPOSTAS.ordinal()] += 1;
+        v[Feature.NPS_SOMA.ordinal()] += score;
+    }
+
+    @Test
+    @DisplayName("Should accumulate NPS answers and derive mean and trend")
+    void shouldAccumulateNps() throws Exception {
+        FeatureStore store = abrir();
+
+        store.atualizar("BEN-001", 1L, v -> nps(v, 9));
+        FeatureVector vetor = store.atualizar("BEN-001", 2L, v -> nps(v, 5));
+
+        assertThat(vetor.getVersao()).isEqualTo(2);
+        assertThat(vetor.getNpsMedio()).isEqualTo(7.0);
+        assertThat(vetor.getTendenciaNps()).isEqualTo("PIORANDO");
+        assertThat(store.buscar("BEN-001")).get()
+            .extracting(FeatureVector::getVersao).isEqualTo(2L);
+        assertThat(store.buscar("BEN-999")).isEmpty();
+        store.fechar();
+    }
+
+    @Test
+    @DisplayName("Should read back any previous version unchanged")
+    void shouldReadPreviousVersion() throws Exception {
+        FeatureStore store = abrir();
+
+        store.atualizar("BEN-001", 1L, v -> nps(v, 10));
+        store.atualizar("BEN-001", 2L, v -> nps(v, 2));
+        store.atualizar("BEN-001", 3L, v -> nps(v, 8));
+
+        FeatureVector v1 = store.buscarVersao("BEN-001", 1).orElseThrow();
+        assertThat(v1.get(Feature.NPS_SOMA)).isEqualTo(10.0);
+        assertThat(v1.getAtualizadoEm()).isEqualTo(1L);
+        assertThat(store.buscarVersao("BEN-001", 2).orElseThrow().getNpsMedio()).isEqualTo(6.0);
+        assertThat(store.buscarVersao("BEN-001", 4)).isEmpty();
+        store.fechar();
+    }
+
+    @Test
+    @DisplayName("Should read the vector as it was before a given instant")
+    void shouldReadVectorBeforeInstant() throws Exception {
+        FeatureStore store = abrir();
+
+        store.atualizar("BEN-001", 100L, v -> nps(v, 10));
+        assertThat(store.buscarAntes("BEN-001", 200L).orElseThrow().get(Feature.NPS_TOTAL_RESPOSTAS))
+            .isEqualTo(1.0);
+
+        // the answer at 200 is consumed: reading before it must not include it
+        store.atualizar("BEN-001", 200L, v -> nps(v, 4));
+        FeatureVector antes = store.buscarAntes("BEN-001", 200L).orElseThrow();
+        assertThat(antes.getVersao()).isEqualTo(1);
+        assertThat(antes.get(Feature.NPS_SOMA)).isEqualTo(10.0);
+        assertThat(store.buscarAntes("BEN-001", 100L)).isEmpty();
+        assertThat(store.buscarAntes("BEN-999", 200L)).isEmpty();
+        store.fechar();
+    }
+
+    @Test
+    @DisplayName("Should keep vectors and versions after reopening")
+    void shouldPersistAcrossReopen() throws Exception {
+        FeatureStore store = abrir();
+        store.atualizar("BEN-001", 1L, v -> nps(v, 7));
+        store.atualizar("BEN-002", 1L, v -> v[Feature.AUTORIZACOES_TOTAL.ordinal()] = 3);
+        store.fechar();
+
+        FeatureStore reaberto = abrir();
+        assertThat(reaberto.tamanho()).isEqualTo(2);
+        assertThat(reaberto.buscar("BEN-002").orElseThrow().get(Feature.AUTORIZACOES_TOTAL)).isEqualTo(3.0);
+        FeatureVector v = reaberto.atualizar("BEN-001", 2L, x -> nps(x, 9));
+        assertThat(v.getVersao()).isEqualTo(2);
+        assertThat(v.getTendenciaNps()).isEqualTo("MELHORANDO");
+        reaberto.fechar();
+    }
+
+    @Test
+    @DisplayName("Should find every beneficiary after a slot left empty by a dead writer")
+    void shouldSkipEmptySlotsOnReopen() throws Exception {
+        FeatureStore store = abrir();
+        store.atualizar("BEN-001", 1L, v -> nps(v, 7));
+        store.atualizar("BEN-002", 1L, v -> nps(v, 8));
+        store.atualizar("BEN-003", 1L, v -> nps(v, 9));
+        store.fechar();
+
+        // first slot allocated but its key never written
+        try (FileChannel canal = FileChannel.open(dir.resolve("vetores.dat"), StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.allocate(4), 64);
+        }
+
+        FeatureStore reaberto = abrir();
+        assertThat(reaberto.tamanho()).isEqualTo(2);
+        assertThat(reaberto.buscar("BEN-001")).isEmpty();
+        assertThat(reaberto.buscar("BEN-003").orElseThrow().get(Feature.NPS_ULTIMO)).isEqualTo(9.0);
+        reaberto.atualizar("BEN-004", 2L, v -> nps(v, 6));
+        assertThat(reaberto.buscar("BEN-002").orElseThrow().get(Feature.NPS_ULTIMO)).isEqualTo(8.0);
+        assertThat(reaberto.buscar("BEN-004").orElseThrow().getVersao()).isEqualTo(1);
+        reaberto.fechar();
+    }
+
+    @Test
+    @DisplayName("Should skip topic events applied before a restart")
+    void shouldSkipAppliedOffsetsAfterReopen() throws Exception {
+        FeatureStore store = abrir();
+        assertThat(store.aplicar("nps-feedback", 0, 0, "BEN-001", 1L, v -> nps(v, 9))).isPresent();
+        assertThat(store.aplicar("nps-feedback", 0, 1, "BEN-001", 2L, v -> nps(v, 5))).isPresent();
+        assertThat(store.aplicar("jornada-concluida", 0, 0, "BEN-001", 3L,
+            v -> v[Feature.JORNADAS_CONCLUIDAS.ordinal()] += 1)).isPresent();
+        store.fechar();
+
+        // per-instance group: the topics are replayed from the beginning
+        FeatureStore reaberto = abrir();
+        assertThat(reaberto.aplicar("nps-feedback", 0, 0, "BEN-001", 1L, v -> nps(v, 9))).isEmpty();
+        assertThat(reaberto.aplicar("nps-feedback", 0, 1, "BEN-001", 2L, v -> nps(v, 5))).isEmpty();
+        assertThat(reaberto.aplicar("jornada-concluida", 0, 0, "BEN-001", 3L,
+            v -> v[Feature.JORNADAS_CONCLUIDAS.ordinal()] += 1)).isEmpty();
+        assertThat(reaberto.aplicar("nps-feedback", 1, 0, "BEN-001", 4L, v -> nps(v, 10))).isPresent();
+
+        FeatureVector vetor = reaberto.buscar("BEN-001").orElseThrow();
+        assertThat(vetor.get(Feature.NPS_TOTAL_RESPOSTAS)).isEqualTo(3.0);
+        assertThat(vetor.get(Feature.JORNADAS_CONCLUIDAS)).isEqualTo(1.0);
+        assertThat(vetor.getVersao()).isEqualTo(4);
+        reaberto.fechar();
+    }
+
+    @Test
+    @DisplayName("Should keep serving and count versions once the history is full")
+    void shouldCountVersionsNotRetained() throws Exception {
+        // header plus room for two history entries
+        FeatureStore store = new FeatureStore(dir.toString(), 1000, 64 + 2 * (32 + Feature.quantidade() * 8));
+
+        store.atualizar("BEN-001", 1L, v -> nps(v, 9));
+        store.atualizar("BEN-001", 2L, v -> nps(v, 5));
+        FeatureVector vetor = store.atualizar("BEN-001", 3L, v -> nps(v, 7));
+
+        assertThat(vetor.getVersao()).isEqualTo(3);
+        assertThat(store.buscar("BEN-001").orElseThrow().get(Feature.NPS_ULTIMO)).isEqualTo(7.0);
+        assertThat(store.getVersoesNaoRetidas()).isEqualTo(1);
+        assertThat(store.getBytesLivresHistorico()).isZero();
+        assertThat(store.buscarVersao("BEN-001", 3)).isEmpty();
+        assertThat(store.buscarVersao("BEN-001", 2)).isPresent();
+        store.fechar();
+    }
+
+    @Test
+    @DisplayName("Should not lose increments under concurrent writers")
+    void shouldSerializeConcurrentUpdates() throws Exception {
+        FeatureStore store = abrir();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int i = 0; i < 4000; i++) {
+            executor.submit(() -> store.atualizar("BEN-001", 1L,
+                v -> v[Feature.JORNADAS_CONCLUIDAS.ordinal()] += 1));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        FeatureVector vetor = store.buscar("BEN-001").orElseThrow();
+        assertThat(vetor.get(Feature.JORNADAS_CONCLUIDAS)).isEqualTo(4000.0);
+        assertThat(vetor.getVersao()).isEqualTo(4000);
+        store.fechar();
+    }
+}
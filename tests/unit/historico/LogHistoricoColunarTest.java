@@ -0,0 +1,268 @@
+package com.austa.saude.experiencia.test.unit.historico;
+
+import br.com.austa.experiencia.service.historico.ConsultasHistorico;
+import br.com.austa.experiencia.service.historico.DuracaoAtividade;
+import br.com.austa.experiencia.service.historico.EventoHistorico;
+import br.com.austa.experiencia.service.historico.IncidenteHistorico;
+import br.com.austa.experiencia.service.historico.LogHistoricoColunar;
+import br.com.austa.experiencia.service.historico.ResumoDefinicao;
+import br.com.austa.experiencia.service.historico.TipoEventoHistorico;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the columnar history log and the operations queries over it
+ *
+ * Coverage:
+ * - Instances per definition, activity durations and incidents from the log
+ * - Queries restricted to the requested period and partition
+ * - No event lost when many engine threads publish at once through a small ring
+ * - Parts of a past day merged into one without changing query results
+ */
+@DisplayName("Log Historico Colunar Tests")
+class LogHistoricoColunarTest {
+
+    private static final Instant DIA_1 = Instant.parse("2026-03-10T00:00:00Z");
+    private static final Instant DIA_2 = Instant.parse("2026-03-11T00:00:00Z");
+
+    private Path diretorio;
+    private RelogioManual relogio;
+    private final List<LogHistoricoColunar> abertos = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        diretorio = Files.createTempDirectory("historico");
+        relogio = new RelogioManual(DIA_2.plus(Duration.ofHours(12)).toEpochMilli());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (LogHistoricoColunar log : abertos) {
+            log.parar();
+        }
+    }
+
+    @Test
+    @DisplayName("Should count instances per definition within the period")
+    void shouldSummarizeInstancesPerDefinition() throws Exception {
+        LogHistoricoColunar log = abrir(65536, 50000);
+        for (int i = 0; i < 10; i++) {
+            Instant inicio = DIA_1.plus(Duration.ofMinutes(i));
+            log.publicar(processo("PI-" + i, "start", "autorizacao", null, inicio, -1));
+            if (i < 8) {
+                String estado = i < 6 ? "COMPLETED" : "EXTERNALLY_TERMINATED";
+                log.publicar(processo("PI-" + i, "end", "autorizacao", estado, inicio.plusSeconds(30), 30_000));
+            }
+        }
+        log.publicar(processo("PI-X", "start", "onboarding", null, DIA_2.plusSeconds(5), -1));
+        log.descarregar();
+
+        ConsultasHistorico consultas = new ConsultasHistorico(log);
+        List<ResumoDefinicao> dia1 = consultas.instanciasPorDefinicao(DIA_1, DIA_2);
+        assertThat(dia1).hasSize(1);
+        ResumoDefinicao autorizacao = dia1.get(0);
+        assertThat(autorizacao.getDefinicaoKey()).isEqualTo("autorizacao");
+        assertThat(autorizacao.getIniciadas()).isEqualTo(10L);
+        assertThat(autorizacao.getConcluidas()).isEqualTo(6L);
+        assertThat(autorizacao.getEncerradas()).isEqualTo(2L);
+        assertThat(autorizacao.getDuracaoMediaMs()).isEqualTo(30_000.0);
+
+        assertThat(consultas.instanciasPorDefinicao(null, null)).extracting(ResumoDefinicao::getDefinicaoKey)
+            .containsExactly("autorizacao", "onboarding");
+        assertThat(consultas.instanciasPorDefinicao(DIA_2, null)).extracting(ResumoDefinicao::getDefinicaoKey)
+            .containsExactly("onboarding");
+    }
+
+    @Test
+    @DisplayName("Should report activity duration percentiles, slowest first")
+    void shouldReportActivityDurations() throws Exception {
+        LogHistoricoColunar log = abrir(65536, 50000);
+        for (int i = 1; i <= 100; i++) {
+            Instant quando = DIA_1.plusSeconds(i);
+            log.publicar(atividade("autorizacao", "Task_ValidarElegibilidade", "start", quando, -1));
+            log.publicar(atividade("autorizacao", "Task_ValidarElegibilidade", "end", quando, i * 10L));
+            log.publicar(atividade("autorizacao", "Task_AnalisarRegulacao", "end", quando, 5_000));
+            log.publicar(atividade("onboarding", "Task_Boasvindas", "end", quando, 1));
+        }
+        log.descarregar();
+
+        ConsultasHistorico consultas = new ConsultasHistorico(log);
+        List<DuracaoAtividade> duracoes = consultas.duracoesAtividades("autorizacao", DIA_1, DIA_2);
+        assertThat(duracoes).extracting(DuracaoAtividade::getActivityId)
+            .containsExactly("Task_AnalisarRegulacao", "Task_ValidarElegibilidade");
+        DuracaoAtividade validacao = duracoes.get(1);
+        assertThat(validacao.getExecucoes()).isEqualTo(100L);
+        assertThat(validacao.getMediaMs()).isEqualTo(505.0);
+        assertThat(validacao.getP50Ms()).isBetween(490L, 510L);
+        assertThat(validacao.getP95Ms()).isBetween(940L, 960L);
+        assertThat(validacao.getMaximoMs()).isEqualTo(1000L);
+
+        assertThat(consultas.duracoesAtividades(null, null, null)).hasSize(3);
+        assertThat(consultas.duracoesAtividades("autorizacao", DIA_2, null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should list incidents of the period and tell which are still open")
+    void shouldTrackIncidents() throws Exception {
+        LogHistoricoColunar log = abrir(65536, 50000);
+        log.publicar(incidente("INC-1", "create", DIA_1.plusSeconds(10), "failedJob", "Tasy timeout"));
+        log.publicar(incidente("INC-2", "create", DIA_1.plusSeconds(20), "failedExternalTask", "OCR down"));
+        log.publicar(incidente("INC-3", "create", DIA_2.plusSeconds(30), "failedJob", "Tasy timeout"));
+        log.publicar(incidente("INC-1", "resolve", DIA_2.plusSeconds(40), "failedJob", null));
+        log.descarregar();
+
+        ConsultasHistorico consultas = new ConsultasHistorico(log);
+        List<IncidenteHistorico> dia1 = consultas.incidentes(DIA_1, DIA_2, false);
+        assertThat(dia1).extracting(IncidenteHistorico::getId).containsExactly("INC-1", "INC-2");
+        assertThat(dia1.get(0).isAberto()).isFalse();
+        assertThat(dia1.get(0).getEncerradoEm()).isEqualTo(DIA_2.plusSeconds(40));
+        assertThat(dia1.get(1).getTipoIncidente()).isEqualTo("failedExternalTask");
+        assertThat(dia1.get(1).getMensagem()).isEqualTo("OCR down");
+
+        assertThat(consultas.incidentes(null, null, true)).extracting(IncidenteHistorico::getId)
+            .containsExactly("INC-2", "INC-3");
+    }
+
+    @Test
+    @DisplayName("Should keep every event published concurrently through a small ring")
+    void shouldNotLoseEventsUnderConcurrentPublishing() throws Exception {
+        LogHistoricoColunar log = abrir(256, 5000);
+        int threads = 16;
+        int porThread = 5000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            tarefas.add(executor.submit(() -> {
+                for (int i = 0; i < porThread; i++) {
+                    log.publicar(atividade("def-" + thread, "Task_" + (i % 7), "end",
+                        DIA_1.plusMillis(i), i % 100));
+                }
+            }));
+        }
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        executor.shutdown();
+        log.descarregar();
+
+        long total = 0;
+        for (DuracaoAtividade duracao : new ConsultasHistorico(log).duracoesAtividades(null, null, null)) {
+            total += duracao.getExecucoes();
+        }
+        assertThat(total).isEqualTo((long) threads * porThread);
+        assertThat(log.getEventosGravados()).isEqualTo((long) threads * porThread);
+        assertThat(log.getFalhasGravacao()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should merge the parts of a past day without changing query results")
+    void shouldCompactPastDays() throws Exception {
+        LogHistoricoColunar log = abrir(65536, 100);
+        for (int lote = 0; lote < 5; lote++) {
+            for (int i = 0; i < 250; i++) {
+                log.publicar(atividade("autorizacao", "Task_" + (i % 3), "end",
+                    DIA_1.plusSeconds(lote * 1000L + i), i));
+            }
+            log.descarregar();
+        }
+        log.publicar(atividade("autorizacao", "Task_0", "end", DIA_2.plusSeconds(1), 1));
+        log.publicar(atividade("autorizacao", "Task_0", "end", DIA_2.plusSeconds(2), 1));
+        log.descarregar();
+
+        ConsultasHistorico consultas = new ConsultasHistorico(log);
+        List<DuracaoAtividade> antes = consultas.duracoesAtividades(null, DIA_1, DIA_2);
+        Path dia1 = diretorio.resolve("atividade").resolve("dia=2026-03-10");
+        Path dia2 = diretorio.resolve("atividade").resolve("dia=2026-03-11");
+        assertThat(contarPartes(dia1)).isGreaterThan(5L);
+        assertThat(contarPartes(dia2)).isEqualTo(1L);
+
+        log.compactar();
+
+        assertThat(contarPartes(dia1)).isEqualTo(1L);
+        assertThat(contarPartes(dia2)).isEqualTo(1L);
+        List<DuracaoAtividade> depois = consultas.duracoesAtividades(null, DIA_1, DIA_2);
+        assertThat(depois.stream().map(DuracaoAtividade::toMap).toList())
+            .isEqualTo(antes.stream().map(DuracaoAtividade::toMap).toList());
+        assertThat(depois.stream().mapToLong(DuracaoAtividade::getExecucoes).sum()).isEqualTo(1250L);
+    }
+
+    private LogHistoricoColunar abrir(int anel, int linhasPorParte) throws IOException {
+        LogHistoricoColunar log = new LogHistoricoColunar(diretorio, anel, linhasPorParte, 3_600_000L, relogio);
+        log.iniciar();
+        abertos.add(log);
+        return log;
+    }
+
+    private static long contarPartes(Path dia) throws IOException {
+        try (Stream<Path> arquivos = Files.list(dia)) {
+            return arquivos.filter(p -> p.toString().endsWith(".col")).count();
+        }
+    }
+
+    private static EventoHistorico processo(String pid, String tipo, String chave, String estado, Instant quando,
+                                            long duracao) {
+        return new EventoHistorico(pid, TipoEventoHistorico.PROCESSO, tipo, chave, chave + ":1:1", pid,
+            "StartEvent_1", estado, quando.toEpochMilli(), duracao, null);
+    }
+
+    private static EventoHistorico atividade(String chave, String atividade, String tipo, Instant quando,
+                                             long duracao) {
+        return new EventoHistorico(atividade + "-" + quando.toEpochMilli(), TipoEventoHistorico.ATIVIDADE, tipo,
+            chave, chave + ":1:1", "PI-" + quando.toEpochMilli(), atividade, "serviceTask", quando.toEpochMilli(),
+            duracao, null);
+    }
+
+    private static EventoHistorico incidente(String id, String tipo, Instant quando, String tipoIncidente,
+                                             String mensagem) {
+        return new EventoHistorico(id, TipoEventoHistorico.INCIDENTE, tipo, "autorizacao", "autorizacao:1:1",
+            "PI-" + id, "Task_ConsultarTasy", tipoIncidente, quando.toEpochMilli(), -1, mensagem);
+    }
+
+    private static final class RelogioManual extends Clock {
+        private long agora;
+
+        RelogioManual(long agora) {
+            this.agora = agora;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public long millis() {
+            return agora;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(agora);
+        }
+    }
+}
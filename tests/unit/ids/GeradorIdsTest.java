@@ -0,0 +1,201 @@
+package com.austa.saude.experiencia.test.unit.ids;
+
+import br.com.austa.experiencia.service.ids.GeradorIds;
+import br.com.austa.experiencia.service.ids.Snowflake;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the shared id generator
+ *
+ * Coverage:
+ * - Snowflake ids unique and strictly increasing per thread under multi-threaded stress
+ * - Ids keep increasing when the clock steps backwards; node and instant are recoverable
+ * - TISS authorization numbers match TissService's format, carry valid check digits, never collide
+ * - ANS protocols: 20 digits, operator prefix, day rollover, nodes never overlap
+ */
+@DisplayName("Gerador Ids Tests")
+class GeradorIdsTest {
+
+    private static final ZoneId ZONA = ZoneId.of("America/Sao_Paulo");
+    private static final Pattern TISS_PATTERN = Pattern.compile("^\\d{8}-\\d{8}-\\d{2}$");
+    private static final int THREADS = 8;
+
+    @Test
+    @DisplayName("Should generate unique, per-thread increasing Snowflake ids under contention")
+    void shouldGenerateUniqueIdsUnderStress() throws Exception {
+        GeradorIds gerador = new GeradorIds(7, 8, "123456", ZONA, Clock.systemUTC());
+        int porThread = 250_000;
+
+        List<long[]> resultados = emParalelo(() -> {
+            long[] ids = new long[porThread];
+            for (int i = 0; i < porThread; i++) {
+                ids[i] = gerador.proximoId();
+            }
+            return ids;
+        });
+
+        long[] todos = new long[THREADS * porThread];
+        int n = 0;
+        for (long[] ids : resultados) {
+            for (int i = 1; i < ids.length; i++) {
+                assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+            }
+            System.arraycopy(ids, 0, todos, n, ids.length);
+            n += ids.length;
+        }
+        Arrays.sort(todos);
+        for (int i = 1; i < todos.length; i++) {
+            assertThat(todos[i]).isNotEqualTo(todos[i - 1]);
+        }
+        assertThat(Snowflake.no(todos[0])).isEqualTo(7);
+        assertThat(Snowflake.instante(todos[todos.length - 1]))
+            .isBetween(Instant.now().minusSeconds(60), Instant.now().plusSeconds(60));
+    }
+
+    @Test
+    @DisplayName("Should keep ids increasing when the clock steps backwards")
+    void shouldSurviveClockRollback() {
+        RelogioManual relogio = new RelogioManual(instante(2025, 12, 11, 10, 0));
+        GeradorIds gerador = new GeradorIds(3, 4, "123456", ZONA, relogio);
+
+        long antes = gerador.proximoId();
+        relogio.agora -= 5_000;
+        long depois = gerador.proximoId();
+
+        assertThat(depois).isGreaterThan(antes);
+        assertThat(Snowflake.instante(depois)).isEqualTo(instante(2025, 12, 11, 10, 0));
+
+        String textoAntes = Snowflake.texto(antes);
+        assertThat(textoAntes).hasSize(13);
+        assertThat(Snowflake.texto(depois).compareTo(textoAntes)).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should issue valid, collision-free TISS authorization numbers from all threads")
+    void shouldIssueTissAuthorizationNumbers() throws Exception {
+        RelogioManual relogio = new RelogioManual(instante(2025, 12, 11, 10, 0));
+        GeradorIds gerador = new GeradorIds(0, 4, "123456", ZONA, relogio);
+        int porThread = 50_000;
+
+        List<List<String>> resultados = emParalelo(() -> {
+            List<String> numeros = new ArrayList<>(porThread);
+            for (int i = 0; i < porThread; i++) {
+                numeros.add(gerador.proximoNumeroAutorizacao());
+            }
+            return numeros;
+        });
+
+        Set<String> unicos = new HashSet<>();
+        for (List<String> numeros : resultados) {
+            for (int i = 0; i < numeros.size(); i++) {
+                String numero = numeros.get(i);
+                assertThat(TISS_PATTERN.matcher(numero).matches()).isTrue();
+                assertThat(GeradorIds.numeroAutorizacaoValido(numero)).isTrue();
+                assertThat(numero).startsWith("20251211-");
+                if (i > 0) {
+                    assertThat(numero.compareTo(numeros.get(i - 1))).isPositive();
+                }
+                unicos.add(numero);
+            }
+        }
+        assertThat(unicos).hasSize(THREADS * porThread);
+
+        // node 0 of 4: every sequence is a multiple of 4
+        assertThat(unicos).allSatisfy(n -> assertThat(Long.parseLong(n.substring(9, 17)) % 4).isZero());
+        assertThat(GeradorIds.numeroAutorizacaoValido("20251211-00000004-00")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should issue 20-digit ANS protocols, roll over at midnight and never overlap nodes")
+    void shouldIssueAnsProtocols() {
+        RelogioManual relogio = new RelogioManual(LocalDateTime.of(2025, 12, 11, 23, 59, 59)
+            .atZone(ZONA).toInstant());
+        GeradorIds no0 = new GeradorIds(0, 2, "123456", ZONA, relogio);
+        GeradorIds no1 = new GeradorIds(1, 2, "123456", ZONA, relogio);
+
+        Set<String> protocolos = new HashSet<>();
+        String anterior = "";
+        for (int i = 0; i < 20; i++) {
+            String protocolo = no0.proximoProtocoloAns();
+            assertThat(protocolo).hasSize(20).startsWith("123456").matches("\\d{20}");
+            assertThat(protocolo.compareTo(anterior)).isPositive();
+            anterior = protocolo;
+            protocolos.add(protocolo);
+            protocolos.add(no1.proximoProtocoloAns());
+        }
+
+        assertThat(protocolos).hasSize(40);
+        // 500k slots a day per node: ~5.8 per second, so 20 in the last second borrow into the next day
+        assertThat(anterior.substring(6, 14)).isEqualTo("20251212");
+        assertThat(protocolos).anyMatch(p -> p.substring(6, 14).equals("20251211"));
+    }
+
+    private static <T> List<T> emParalelo(Callable<T> tarefa) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<T>> futuros = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futuros.add(executor.submit(tarefa));
+            }
+            List<T> resultados = new ArrayList<>();
+            for (Future<T> futuro : futuros) {
+                resultados.add(futuro.get());
+            }
+            return resultados;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Instant instante(int ano, int mes, int dia, int hora, int minuto) {
+        return LocalDateTime.of(ano, mes, dia, hora, minuto).atZone(ZONA).toInstant();
+    }
+
+    private static final class RelogioManual extends Clock {
+
+        volatile long agora;
+
+        RelogioManual(Instant inicio) {
+            this.agora = inicio.toEpochMilli();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(agora);
+        }
+
+        @Override
+        public long millis() {
+            return agora;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.austa.saude.experiencia.test.unit.instrumentacao;
+
+import br.com.austa.experiencia.service.instrumentacao.CategoriaMedidor;
+import br.com.austa.experiencia.service.instrumentacao.Medidor;
+import br.com.austa.experiencia.service.instrumentacao.RegistroInstrumentacao;
+import br.com.austa.experiencia.service.instrumentacao.TipoChamadaExterna;
+import br.com.austa.experiencia.service.metricas.HistogramaLatencia;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for per-task latency, variable and outbound-call instrumentation
+ *
+ * Coverage:
+ * - HDR histogram percentiles within bucket precision across magnitudes
+ * - Percentiles follow the recent windows while count and sum stay cumulative
+ * - Variables and outbound calls are charged to the task running on the thread
+ * - A nested task that never ended counts as a failure of its own, not of its parent
+ * - Medidores are announced to listeners registered before and after creation
+ *
+ * Overhead per instrumented task is measured in InstrumentacaoPerformanceTest.
+ */
+@DisplayName("Instrumentacao Tests")
+class InstrumentacaoTest {
+
+    private RegistroInstrumentacao registro;
+
+    @BeforeEach
+    void setUp() {
+        registro = new RegistroInstrumentacao();
+    }
+
+    @Test
+    @DisplayName("Should report percentiles within bucket precision from microseconds to seconds")
+    void shouldReportPercentilesWithinPrecision() {
+        HistogramaLatencia histograma = new HistogramaLatencia();
+        for (int i = 1; i <= 10_000; i++) {
+            histograma.registrar(TimeUnit.MICROSECONDS.toNanos(i * 100L));
+        }
+
+        assertThat(histograma.getContagem()).isEqualTo(10_000L);
+        assertThat(histograma.percentilMillis(0.5)).isBetween(500.0, 500.0 * 1.0625);
+        assertThat(histograma.percentilMillis(0.99)).isBetween(990.0, 990.0 * 1.0625);
+        assertThat(histograma.getMaximoMillis()).isEqualTo(1000.0);
+
+        HistogramaLatencia rapido = new HistogramaLatencia();
+        for (int i = 0; i < 100; i++) {
+            rapido.registrar(3_000);
+        }
+        assertThat(rapido.percentilMillis(0.99)).isBetween(0.003, 0.003 * 1.0625);
+    }
+
+    @Test
+    @DisplayName("Should forget old windows in percentiles but keep cumulative count and sum")
+    void shouldRotateWindows() {
+        long[] agora = {0};
+        HistogramaLatencia histograma = new HistogramaLatencia(TimeUnit.MILLISECONDS.toNanos(40), () -> agora[0]);
+        histograma.registrar(TimeUnit.MILLISECONDS.toNanos(900));
+
+        agora[0] += TimeUnit.MILLISECONDS.toNanos(50);
+        histograma.registrar(TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(histograma.getMaximoMillis()).isEqualTo(900.0);
+
+        agora[0] += TimeUnit.MILLISECONDS.toNanos(50);
+        histograma.registrar(TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(histograma.getMaximoMillis()).isEqualTo(10.0);
+        assertThat(histograma.percentilMillis(0.99)).isLessThan(11.0);
+        assertThat(histograma.getContagem()).isEqualTo(3L);
+        assertThat(histograma.getSomaNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(920));
+
+        agora[0] += TimeUnit.MILLISECONDS.toNanos(100);
+        assertThat(histograma.percentilMillis(0.5)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should charge variables and outbound calls to the running task")
+    void shouldChargeRunningTask() {
+        Medidor atividade = registro.atividade("SUB-004", "Task_ConsultarDados", "serviceTask", "selfServiceService");
+        Medidor delegate = registro.delegate("selfServiceService");
+
+        registro.variavelEscrita(100);
+        registro.iniciar(atividade, delegate, "ai-1");
+        registro.variavelEscrita(200);
+        registro.variavelEscrita(56);
+        registro.chamadaExterna(TipoChamadaExterna.HTTP, "tasy.austa.local", TimeUnit.MILLISECONDS.toNanos(30));
+        registro.chamadaExterna(TipoChamadaExterna.KAFKA, "austa.jornada", TimeUnit.MILLISECONDS.toNanos(2));
+        registro.concluir("ai-1");
+
+        assertThat(atividade.getLatencia().getContagem()).isEqualTo(1L);
+        assertThat(atividade.getVariaveisEscritas()).isEqualTo(2L);
+        assertThat(atividade.getBytesVariaveis()).isEqualTo(256L);
+        assertThat(atividade.getChamadasExternas()).isEqualTo(2L);
+        assertThat(atividade.getTempoExternoNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(32));
+        assertThat(delegate.getBytesVariaveis()).isEqualTo(256L);
+        assertThat(atividade.getTags()).containsEntry("processo", "SUB-004").containsEntry("delegate", "selfServiceService");
+
+        Medidor tasy = registro.destino(TipoChamadaExterna.HTTP, "tasy.austa.local");
+        assertThat(tasy.getLatencia().getContagem()).isEqualTo(1L);
+        assertThat(tasy.getLatencia().getMaximoMillis()).isEqualTo(30.0);
+    }
+
+    @Test
+    @DisplayName("Should count a nested task that never ended as failed and still close its parent")
+    void shouldCountUnfinishedNestedTaskAsFailure() {
+        Medidor pai = registro.atividade("SUB-006", "Task_Autorizar", "serviceTask", "autorizacaoService");
+        Medidor filho = registro.atividade("SUB-006", "Task_Regras", "businessRuleTask", "dmn:regras");
+
+        registro.iniciar(pai, registro.delegate("autorizacaoService"), "ai-pai");
+        registro.iniciar(filho, registro.delegate("dmn:regras"), "ai-filho");
+        registro.variavelEscrita(10);
+        registro.concluir("ai-pai");
+
+        assertThat(filho.getFalhas()).isEqualTo(1L);
+        assertThat(filho.getLatencia().getContagem()).isZero();
+        assertThat(pai.getFalhas()).isZero();
+        assertThat(pai.getLatencia().getContagem()).isEqualTo(1L);
+        assertThat(pai.getVariaveisEscritas()).isZero();
+
+        // An end without a start (instrumented after the task began) is ignored
+        registro.concluir("ai-desconhecida");
+        assertThat(pai.getLatencia().getContagem()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should announce existing and new medidores to listeners")
+    void shouldAnnounceMedidores() {
+        registro.atividade("SUB-001", "Task_A", "serviceTask", "a");
+        List<Medidor> anunciados = new ArrayList<>();
+        registro.aoRegistrar(anunciados::add);
+
+        registro.delegate("b");
+        registro.destino(TipoChamadaExterna.KAFKA, "austa.alertas");
+        registro.delegate("b");
+
+        assertThat(anunciados).hasSize(3);
+        assertThat(anunciados.get(0).getCategoria()).isEqualTo(CategoriaMedidor.ATIVIDADE);
+        assertThat(anunciados.get(1).getCategoria()).isEqualTo(CategoriaMedidor.DELEGATE);
+        assertThat(anunciados.get(2).getCategoria()).isEqualTo(CategoriaMedidor.CHAMADA_EXTERNA);
+    }
+}
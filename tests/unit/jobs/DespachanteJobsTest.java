@@ -0,0 +1,209 @@
+package com.austa.saude.experiencia.test.unit.jobs;
+
+import br.com.austa.experiencia.service.jobs.ClassePrioridadeJob;
+import br.com.austa.experiencia.service.jobs.DespachanteJobs;
+import br.com.austa.experiencia.service.jobs.JobClassificado;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for priority-class job dispatching
+ *
+ * Coverage:
+ * - Job priorities mapped to classes
+ * - Critical jobs run at once while a batch backlog is queued
+ * - Fair share: one definition cannot take more than its quota of a class
+ * - Full class queue rejects; queue wait tracked per class
+ * - Queued jobs whose lock is about to lapse are released, not run
+ *
+ * How long a critical job waits behind a batch backlog is measured in DespachanteJobsPerformanceTest.
+ */
+@DisplayName("Despachante Jobs Tests")
+class DespachanteJobsTest {
+
+    private DespachanteJobs despachante;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (despachante != null) {
+            despachante.parar();
+        }
+    }
+
+    @Test
+    @DisplayName("Should map job priorities to priority classes")
+    void shouldMapPrioritiesToClasses() {
+        assertThat(ClassePrioridadeJob.deValor(1000)).isEqualTo(ClassePrioridadeJob.CRITICA);
+        assertThat(ClassePrioridadeJob.deValor(500)).isEqualTo(ClassePrioridadeJob.ALTA);
+        assertThat(ClassePrioridadeJob.deValor(300)).isEqualTo(ClassePrioridadeJob.NORMAL);
+        assertThat(ClassePrioridadeJob.deValor(100)).isEqualTo(ClassePrioridadeJob.NORMAL);
+        assertThat(ClassePrioridadeJob.deValor(10)).isEqualTo(ClassePrioridadeJob.LOTE);
+        assertThat(ClassePrioridadeJob.deValor(-5)).isEqualTo(ClassePrioridadeJob.LOTE);
+    }
+
+    @Test
+    @DisplayName("Should run a critical job at once while thousands of batch jobs are queued")
+    void shouldNotQueueCriticalBehindBatch() throws Exception {
+        despachante = iniciar(2, 2, 5000);
+        AtomicInteger loteExecutados = new AtomicInteger();
+        for (int i = 0; i < 3000; i++) {
+            assertThat(despachante.despachar(job("LOTE-" + i, 10, "SUB-002_Motor_Proativo"), () -> {
+                dormir(2);
+                loteExecutados.incrementAndGet();
+            })).isTrue();
+        }
+
+        CountDownLatch critico = new CountDownLatch(1);
+        AtomicLong loteAntesDoCritico = new AtomicLong(-1);
+        despachante.despachar(job("URG-1", 1000, "SUB-003_Recepcao_Classificacao"), () -> {
+            loteAntesDoCritico.set(loteExecutados.get());
+            critico.countDown();
+        });
+
+        assertThat(critico.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(loteAntesDoCritico.get()).isLessThan(500L);
+        assertThat(despachante.getPendentes(ClassePrioridadeJob.LOTE)).isGreaterThan(2000);
+    }
+
+    @Test
+    @DisplayName("Should keep one definition within its quota and serve the others alongside it")
+    void shouldShareBatchThreadsAcrossDefinitions() throws Exception {
+        despachante = iniciar(4, 2, 5000);
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicInteger campanhaRodando = new AtomicInteger();
+        AtomicInteger campanhaMaximo = new AtomicInteger();
+        for (int i = 0; i < 100; i++) {
+            despachante.despachar(job("CAMP-" + i, 10, "SUB-002_Motor_Proativo"), () -> {
+                campanhaMaximo.accumulateAndGet(campanhaRodando.incrementAndGet(), Math::max);
+                aguardar(liberar);
+                campanhaRodando.decrementAndGet();
+            });
+        }
+        CountDownLatch followUps = new CountDownLatch(5);
+        for (int i = 0; i < 5; i++) {
+            despachante.despachar(job("FUP-" + i, 50, "SUB-010_Follow_Up_Feedback"), followUps::countDown);
+        }
+
+        // the campaign holds its quota (2 of 4 threads) and is blocked; follow-ups still run
+        assertThat(followUps.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(campanhaMaximo.get()).isEqualTo(2);
+
+        liberar.countDown();
+        long limite = System.currentTimeMillis() + 5000;
+        while (despachante.getExecutados(ClassePrioridadeJob.LOTE) < 105 && System.currentTimeMillis() < limite) {
+            Thread.sleep(5);
+        }
+        assertThat(despachante.getExecutados(ClassePrioridadeJob.LOTE)).isEqualTo(105L);
+        assertThat(campanhaMaximo.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should reject when a class queue is full and report queue wait per class")
+    void shouldRejectWhenFullAndTrackWait() throws Exception {
+        despachante = iniciar(1, 1, 3);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch rodando = new CountDownLatch(1);
+        despachante.despachar(job("A-0", 10, "def"), () -> {
+            rodando.countDown();
+            aguardar(liberar);
+        });
+        assertThat(rodando.await(1, TimeUnit.SECONDS)).isTrue();
+        for (int i = 1; i <= 3; i++) {
+            assertThat(despachante.despachar(job("A-" + i, 10, "def"), () -> { })).isTrue();
+        }
+        assertThat(despachante.despachar(job("A-4", 10, "def"), () -> { })).isFalse();
+        assertThat(despachante.getRejeitados(ClassePrioridadeJob.LOTE)).isEqualTo(1L);
+
+        // a critical job that became due 1.5s ago
+        CountDownLatch critico = new CountDownLatch(1);
+        despachante.despachar(new JobClassificado("URG", 1000, "SUB-003_Recepcao_Classificacao",
+            System.currentTimeMillis() - 1500), critico::countDown);
+        assertThat(critico.await(1, TimeUnit.SECONDS)).isTrue();
+        liberar.countDown();
+
+        assertThat(despachante.getEspera(ClassePrioridadeJob.CRITICA).getContagem()).isEqualTo(1L);
+        assertThat(despachante.getEspera(ClassePrioridadeJob.CRITICA).getMaximoMillis()).isGreaterThanOrEqualTo(1500.0);
+        Map<String, Object> metricas = despachante.metricas();
+        assertThat(metricas).containsKeys("CRITICA", "ALTA", "NORMAL", "LOTE");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> lote = (Map<String, Object>) metricas.get("LOTE");
+        assertThat(lote.get("rejeitados")).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should release instead of run a queued job whose lock lapses before it could finish")
+    void shouldReleaseJobsWhoseLockIsAboutToLapse() throws Exception {
+        despachante = new DespachanteJobs(Map.of(ClassePrioridadeJob.LOTE, 1), Map.of(),
+            Map.of(ClassePrioridadeJob.LOTE, 2), 1000, Clock.systemUTC());
+        despachante.iniciar();
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch rodando = new CountDownLatch(1);
+        despachante.despachar(job("A-0", 10, "def"), () -> {
+            rodando.countDown();
+            aguardar(liberar);
+        });
+        assertThat(rodando.await(1, TimeUnit.SECONDS)).isTrue();
+
+        long agora = System.currentTimeMillis();
+        AtomicInteger executados = new AtomicInteger();
+        CountDownLatch liberados = new CountDownLatch(1);
+        // lock lapses 1.3s from now: queued behind A-0, it is dropped once less than 1s is left
+        assertThat(despachante.despachar(new JobClassificado("A-1", 10, "def", agora, agora + 1300),
+            executados::incrementAndGet, liberados::countDown)).isTrue();
+        assertThat(despachante.despachar(new JobClassificado("A-2", 10, "def", agora, agora + 60_000),
+            executados::incrementAndGet, () -> { })).isTrue();
+        // already inside the margin: not even queued
+        assertThat(despachante.despachar(new JobClassificado("A-3", 10, "def", agora, agora + 500),
+            executados::incrementAndGet, () -> { })).isFalse();
+
+        Thread.sleep(400);
+        liberar.countDown();
+        assertThat(liberados.await(2, TimeUnit.SECONDS)).isTrue();
+        long limite = System.currentTimeMillis() + 2000;
+        while (executados.get() < 1 && System.currentTimeMillis() < limite) {
+            Thread.sleep(5);
+        }
+        assertThat(executados.get()).isEqualTo(1);
+        assertThat(despachante.getExpirados(ClassePrioridadeJob.LOTE)).isEqualTo(1L);
+        assertThat(despachante.getRejeitados(ClassePrioridadeJob.LOTE)).isEqualTo(1L);
+    }
+
+    private static DespachanteJobs iniciar(int threadsLote, int quotaLote, int capacidade) {
+        DespachanteJobs despachante = new DespachanteJobs(
+            Map.of(ClassePrioridadeJob.CRITICA, 2, ClassePrioridadeJob.ALTA, 2,
+                ClassePrioridadeJob.NORMAL, 2, ClassePrioridadeJob.LOTE, threadsLote),
+            Map.of(ClassePrioridadeJob.LOTE, quotaLote), capacidade, Clock.systemUTC());
+        despachante.iniciar();
+        return despachante;
+    }
+
+    private static JobClassificado job(String id, long prioridade, String definicao) {
+        return new JobClassificado(id, prioridade, definicao, System.currentTimeMillis());
+    }
+
+    private static void dormir(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
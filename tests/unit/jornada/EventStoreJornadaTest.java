@@ -0,0 +1,150 @@
+package com.austa.saude.experiencia.test.unit.jornada;
+
+import br.com.austa.experiencia.service.jornada.EventStoreJornada;
+import br.com.austa.experiencia.service.jornada.EventoJornada;
+import br.com.austa.experiencia.service.jornada.ResumoEtapasJornada;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the journey event store
+ *
+ * Coverage:
+ * - Milestones appended and streamed back in order, across segments
+ * - Retried and rolled-back steps not delivered twice
+ * - Streaming consolidation summary
+ * - Milestone topic offsets applied before a restart skipped on replay
+ *
+ * The 500-milestone journey against the etapasPercorridas variable approach
+ * is measured in EventStoreJornadaPerformanceTest.
+ */
+@DisplayName("Event Store Jornada Tests")
+class EventStoreJornadaTest {
+
+    private Path diretorio;
+    private EventStoreJornada store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        diretorio = Files.createTempDirectory("jornadas");
+        store = new EventStoreJornada(new ObjectMapper(), diretorio, 4096, false, Clock.systemUTC());
+        store.iniciar();
+    }
+
+    @Test
+    @DisplayName("Should stream milestones back in order across segments")
+    void shouldAppendAndStreamInOrder() throws Exception {
+        for (int i = 1; i <= 200; i++) {
+            store.registrar("PROC-1", i, etapa(i));
+        }
+        store.registrar("PROC-2", 1, etapa(1));
+
+        List<EventoJornada> eventos = store.listar("PROC-1", 200);
+        assertThat(eventos).hasSize(200);
+        assertThat(eventos.get(0).getSequencia()).isEqualTo(1L);
+        assertThat(eventos.get(199).getSequencia()).isEqualTo(200L);
+        assertThat(eventos.get(41).getDados().get("nome")).isEqualTo("ETAPA_42");
+        assertThat(store.listar("PROC-2", 1)).hasSize(1);
+        assertThat(store.listar("PROC-INEXISTENTE", 10)).isEmpty();
+
+        long segmentos;
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            segmentos = arquivos.filter(p -> p.toString().endsWith(".jor")).count();
+        }
+        assertThat(segmentos).isGreaterThan(3L);
+    }
+
+    @Test
+    @DisplayName("Should keep only the last attempt of a retried step and drop rolled-back ones")
+    void shouldSkipRetriedAndRolledBackMilestones() throws Exception {
+        store.registrar("PROC-1", 1, etapa(1));
+        store.registrar("PROC-1", 2, Map.of("nome", "TENTATIVA_1"));
+        store.registrar("PROC-1", 3, Map.of("nome", "TENTATIVA_1_B"));
+        // transaction rolled back, job retried: counter was still 1
+        store.registrar("PROC-1", 2, Map.of("nome", "TENTATIVA_2"));
+        store.registrar("PROC-1", 3, etapa(3));
+        // a step whose transaction rolled back and was not retried yet
+        store.registrar("PROC-1", 4, Map.of("nome", "NAO_CONFIRMADA"));
+
+        List<EventoJornada> eventos = store.listar("PROC-1", 3);
+        assertThat(eventos).extracting(EventoJornada::getSequencia).containsExactly(1L, 2L, 3L);
+        assertThat(eventos.get(1).getDados().get("nome")).isEqualTo("TENTATIVA_2");
+        assertThat(eventos.get(2).getDados().get("nome")).isEqualTo("ETAPA_3");
+        assertThat(store.getEventosDescartados()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Should consolidate the journey summary while streaming")
+    void shouldSummarizeWhileStreaming() throws Exception {
+        for (int i = 1; i <= 10; i++) {
+            Map<String, Object> etapa = etapa(i);
+            etapa.put("status", i <= 8 ? "CONCLUIDA" : "PENDENTE");
+            etapa.put("canal", i % 2 == 0 ? "APP" : "WHATSAPP");
+            store.registrar("PROC-1", i, etapa);
+        }
+
+        ResumoEtapasJornada resumo = new ResumoEtapasJornada();
+        assertThat(store.percorrer("PROC-1", 10, resumo)).isEqualTo(10L);
+
+        Map<String, Object> mapa = resumo.toMap();
+        assertThat(mapa.get("numeroEtapas")).isEqualTo(10L);
+        assertThat(mapa.get("etapasPorStatus")).isEqualTo(Map.of("CONCLUIDA", 8L, "PENDENTE", 2L));
+        assertThat(mapa.get("tempoTotalNasEtapas")).isEqualTo(550L);
+        assertThat(mapa.get("ultimaEtapa")).isEqualTo("ETAPA_10");
+        assertThat((Iterable<?>) mapa.get("canaisEtapas")).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should skip milestone topic records already applied before a restart")
+    void shouldSkipAppliedOffsetsAfterRestart() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            assertThat(store.aplicar("PROC-1", i, 1_000L * i, etapa(i), 0, 100 + i)).isTrue();
+        }
+        store.aplicar("PROC-2", 1, 1_000L, etapa(1), 1, 7);
+        store.parar();
+
+        EventStoreJornada reiniciado = new EventStoreJornada(new ObjectMapper(), diretorio, 4096, false,
+            Clock.systemUTC());
+        reiniciado.iniciar();
+        // replay from the beginning of the topic, then one new milestone
+        for (int i = 1; i <= 5; i++) {
+            assertThat(reiniciado.aplicar("PROC-1", i, 1_000L * i, etapa(i), 0, 100 + i)).isFalse();
+        }
+        assertThat(reiniciado.aplicar("PROC-2", 1, 1_000L, etapa(1), 1, 7)).isFalse();
+        assertThat(reiniciado.aplicar("PROC-1", 6, 6_000L, etapa(6), 0, 106)).isTrue();
+
+        List<EventoJornada> eventos = reiniciado.listar("PROC-1", 6);
+        assertThat(eventos).extracting(EventoJornada::getSequencia).containsExactly(1L, 2L, 3L, 4L, 5L, 6L);
+        assertThat(eventos.get(5).getDataEvento().toEpochMilli()).isEqualTo(6_000L);
+        assertThat(reiniciado.getMarcosRepetidos()).isEqualTo(6L);
+        assertThat(reiniciado.getEventosDescartados()).isZero();
+    }
+
+    private static Map<String, Object> etapa(int i) {
+        Map<String, Object> etapa = new HashMap<>();
+        etapa.put("nome", "ETAPA_" + i);
+        etapa.put("descricao", "Etapa " + i + " do plano de cuidado");
+        etapa.put("status", "CONCLUIDA");
+        etapa.put("timestamp", LocalDateTime.now().toString());
+        etapa.put("activityId", "Task_RegistrarEtapa");
+        etapa.put("activityName", "Registrar Conclusão da Etapa");
+        etapa.put("canal", "APP");
+        etapa.put("agenteResponsavel", "navegador-" + (i % 7));
+        etapa.put("tempoNaEtapa", i * 10);
+        return etapa;
+    }
+}
@@ -0,0 +1,279 @@
+package com.austa.saude.experiencia.test.unit.jornada;
+
+import br.com.austa.experiencia.service.jornada.IntervencaoJornada;
+import br.com.austa.experiencia.service.jornada.MonitorSlaJornada;
+import br.com.austa.experiencia.service.jornada.MotivoIntervencaoJornada;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the event-driven journey SLA monitor
+ *
+ * Coverage:
+ * - Stage deadline crossed: one intervention at 120%, none before
+ * - Adherence threshold: emitted once per crossing, re-armed on recovery
+ * - 80% of the deadline with critical adherence
+ * - State, timers and emitted alerts recovered from the changelog
+ * - 200,000 open journeys untouched by ticks with no checkpoint due
+ * - Nothing emitted or reported during the replay; a conclusion replayed
+ *   ahead of its milestones keeps the journey closed
+ * - Intervention key shared by the copies other instances detect
+ *
+ * Time per idle tick with 200,000 open journeys is measured in MonitorSlaJornadaPerformanceTest.
+ */
+@DisplayName("Monitor SLA Jornada Tests")
+class MonitorSlaJornadaTest {
+
+    private static final long MINUTO = 60_000L;
+    private static final long DIA = 86_400_000L;
+
+    private Path diretorio;
+    private RelogioManual relogio;
+    private List<IntervencaoJornada> intervencoes;
+    private MonitorSlaJornada monitor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        diretorio = Files.createTempDirectory("jornada-sla");
+        relogio = new RelogioManual(Instant.parse("2025-12-01T12:00:00Z"));
+        intervencoes = new ArrayList<>();
+        monitor = novoMonitor();
+    }
+
+    @Test
+    @DisplayName("Should emit a single delay intervention once the stage passes 120% of its deadline")
+    void shouldEmitDelayOnceWhenDeadlineCrossed() throws Exception {
+        marco("PROC-1", 1, "CONCLUIDA", null, 10);
+        assertThat(monitor.getTimersPendentes()).isEqualTo(1);
+
+        avancarDias(11);
+        assertThat(monitor.processarVencidos()).isZero();
+        assertThat(monitor.situacao("PROC-1").get().get("statusEtapa")).isEqualTo("AT_RISK");
+
+        avancarDias(2);
+        assertThat(monitor.processarVencidos()).isEqualTo(1);
+        assertThat(intervencoes).hasSize(1);
+        IntervencaoJornada intervencao = intervencoes.get(0);
+        assertThat(intervencao.getMotivo()).isEqualTo(MotivoIntervencaoJornada.ATRASO_ETAPA);
+        assertThat(intervencao.getStatusEtapa()).isEqualTo("DELAYED");
+        assertThat(intervencao.getDiasPassados()).isEqualTo(13);
+        assertThat(intervencao.toVariaveis().get("intervencaoNecessaria")).isEqualTo(true);
+
+        // no timer left for the late stage, nothing repeats
+        assertThat(monitor.getTimersPendentes()).isZero();
+        avancarDias(30);
+        assertThat(monitor.processarVencidos()).isZero();
+
+        // the next milestone opens a new stage with a fresh deadline
+        marco("PROC-1", 2, "CONCLUIDA", null, 10);
+        assertThat(monitor.getTimersPendentes()).isEqualTo(1);
+        assertThat(monitor.situacao("PROC-1").get().get("statusEtapa")).isEqualTo("ON_TIME");
+
+        monitor.encerrar("PROC-1");
+        assertThat(monitor.getJornadasMonitoradas()).isZero();
+        assertThat(monitor.getTimersPendentes()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should emit low adherence once per crossing of the 70% threshold")
+    void shouldEmitAdherenceOncePerCrossing() throws Exception {
+        marco("PROC-1", 1, "CONCLUIDA", true, 30);
+        marco("PROC-1", 2, "CONCLUIDA", false, 30);
+        // 100% milestones, 50% appointments -> 80%
+        assertThat(intervencoes).isEmpty();
+
+        marco("PROC-1", 3, "PENDENTE", false, 30);
+        // 66.7% milestones, 33.3% appointments -> 53.3%
+        assertThat(intervencoes).hasSize(1);
+        assertThat(intervencoes.get(0).getMotivo()).isEqualTo(MotivoIntervencaoJornada.ADERENCIA_BAIXA);
+        assertThat(intervencoes.get(0).getAderencia()).isLessThan(70.0);
+
+        marco("PROC-1", 4, "PENDENTE", null, 30);
+        assertThat(intervencoes).hasSize(1);
+
+        // back above the threshold, then below again
+        for (int i = 5; i <= 12; i++) {
+            marco("PROC-1", i, "CONCLUIDA", true, 30);
+        }
+        assertThat((Double) monitor.situacao("PROC-1").get().get("aderencia")).isGreaterThanOrEqualTo(70.0);
+        for (int i = 13; i <= 20; i++) {
+            marco("PROC-1", i, "PENDENTE", false, 30);
+        }
+        assertThat(intervencoes).hasSize(2);
+
+        // redelivered milestone is not applied twice
+        assertThat(monitor.registrarMarco("PROC-1", "BEN-1", 20, "ETAPA_20", "PENDENTE", false, 30,
+            relogio.millis())).isFalse();
+        assertThat(monitor.getMarcosDuplicados()).isEqualTo(1L);
+        assertThat(monitor.getIntervencoesEmitidas()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Should flag the stage at 80% of its deadline only when adherence is critical")
+    void shouldFlagCriticalAdherenceAtEightyPercent() throws Exception {
+        marco("PROC-BOM", 1, "CONCLUIDA", true, 10);
+        marco("PROC-RUIM", 1, "PENDENTE", false, 10);
+        intervencoes.clear();
+
+        avancarDias(7);
+        assertThat(monitor.processarVencidos()).isZero();
+
+        relogio.agora += DIA + MINUTO;
+        assertThat(monitor.processarVencidos()).isEqualTo(1);
+        assertThat(intervencoes.get(0).getProcessInstanceId()).isEqualTo("PROC-RUIM");
+        assertThat(intervencoes.get(0).getMotivo()).isEqualTo(MotivoIntervencaoJornada.PRAZO_CRITICO);
+        assertThat(intervencoes.get(0).getStatusEtapa()).isEqualTo("ON_TIME");
+
+        // both journeys still have their 120% checkpoint armed
+        assertThat(monitor.getTimersPendentes()).isEqualTo(2);
+        avancarDias(5);
+        assertThat(monitor.processarVencidos()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should recover state and timers from the changelog without repeating interventions")
+    void shouldRecoverFromChangelog() throws Exception {
+        marco("PROC-1", 1, "PENDENTE", false, 10);
+        marco("PROC-2", 1, "CONCLUIDA", true, 10);
+        marco("PROC-3", 1, "CONCLUIDA", true, 10);
+        monitor.encerrar("PROC-3");
+        assertThat(intervencoes).hasSize(1);
+
+        avancarDias(9);
+        assertThat(monitor.processarVencidos()).isEqualTo(1);
+        assertThat(intervencoes).hasSize(2);
+        monitor.parar();
+
+        // restart after 5 more days: only the delays are still due
+        intervencoes.clear();
+        avancarDias(5);
+        monitor = novoMonitor();
+        assertThat(monitor.getJornadasMonitoradas()).isEqualTo(2);
+        assertThat(monitor.situacao("PROC-3")).isEmpty();
+        assertThat(monitor.situacao("PROC-1").get().get("numeroEtapas")).isEqualTo(1);
+
+        relogio.agora += MINUTO;
+        assertThat(monitor.processarVencidos()).isEqualTo(2);
+        assertThat(intervencoes).extracting(IntervencaoJornada::getMotivo)
+            .containsOnly(MotivoIntervencaoJornada.ATRASO_ETAPA);
+
+        // milestones replayed by the consumer after the restart are skipped
+        assertThat(monitor.registrarMarco("PROC-2", "BEN-2", 1, "ETAPA_1", "CONCLUIDA", true, 10,
+            relogio.millis())).isFalse();
+        monitor.parar();
+    }
+
+    @Test
+    @DisplayName("Should leave 200,000 open journeys untouched while no checkpoint is due")
+    void shouldCostNothingBetweenEvents() throws Exception {
+        int jornadas = 200_000;
+        for (int i = 0; i < jornadas; i++) {
+            monitor.registrarMarco("PROC-" + i, "BEN-" + i, 1, "ETAPA_1", "CONCLUIDA", true, 30 + i % 60,
+                relogio.millis());
+        }
+
+        // one day of one-minute ticks
+        int emitidas = 0;
+        for (int tick = 0; tick < 1440; tick++) {
+            relogio.agora += MINUTO;
+            emitidas += monitor.processarVencidos();
+        }
+
+        assertThat(emitidas).isZero();
+        assertThat(monitor.getTimersPendentes()).isEqualTo(jornadas);
+        assertThat(monitor.getJornadasMonitoradas()).isEqualTo(jornadas);
+    }
+
+    @Test
+    @DisplayName("Should hold interventions and status back until the journey topics are replayed")
+    void shouldWaitForReplay() throws Exception {
+        monitor.setReplicado(false);
+        monitor.encerrar("PROC-2");
+        assertThat(monitor.registrarMarco("PROC-2", "BEN-2", 1, "ETAPA_1", "CONCLUIDA", true, 10,
+            relogio.millis())).isFalse();
+
+        marco("PROC-1", 1, "CONCLUIDA", true, 10);
+        marco("PROC-1", 2, "PENDENTE", false, 10);
+        marco("PROC-1", 3, "PENDENTE", false, 10);
+        assertThat(monitor.situacao("PROC-1")).isEmpty();
+        avancarDias(13);
+        assertThat(monitor.processarVencidos()).isZero();
+        assertThat(intervencoes).isEmpty();
+
+        monitor.setReplicado(true);
+        assertThat(monitor.getJornadasMonitoradas()).isEqualTo(1);
+        assertThat(monitor.situacao("PROC-1").get().get("statusEtapa")).isEqualTo("DELAYED");
+        assertThat(monitor.processarVencidos()).isEqualTo(1);
+        IntervencaoJornada intervencao = intervencoes.get(0);
+        assertThat(intervencao.getMotivo()).isEqualTo(MotivoIntervencaoJornada.ATRASO_ETAPA);
+
+        // every instance detecting this delay builds the same key
+        long inicioEtapa = relogio.millis() - 13 * DIA;
+        assertThat(intervencao.getChave()).isEqualTo("ATRASO_ETAPA@" + inicioEtapa);
+        assertThat(intervencao.toVariaveis()).containsEntry(intervencao.getVariavelChave(), intervencao.getChave());
+        IntervencaoJornada copia = IntervencaoJornada.deEvento(intervencao.toEvento());
+        assertThat(copia.getChave()).isEqualTo(intervencao.getChave());
+        assertThat(copia.getProcessInstanceId()).isEqualTo("PROC-1");
+
+        // after the replay an unknown journey's milestones are applied again
+        assertThat(monitor.registrarMarco("PROC-2", "BEN-2", 1, "ETAPA_1", "CONCLUIDA", true, 10,
+            relogio.millis())).isTrue();
+    }
+
+    private MonitorSlaJornada novoMonitor() throws IOException {
+        return new MonitorSlaJornada(diretorio, MINUTO, 30, 100_000, relogio, intervencoes::add);
+    }
+
+    private void marco(String processInstanceId, long sequencia, String status, Boolean comparecimento,
+                       int prazoDias) throws IOException {
+        monitor.registrarMarco(processInstanceId, "BEN-" + processInstanceId, sequencia, "ETAPA_" + sequencia,
+            status, comparecimento, prazoDias, relogio.millis());
+    }
+
+    private void avancarDias(int dias) {
+        relogio.agora += dias * DIA;
+    }
+
+    private static final class RelogioManual extends Clock {
+
+        long agora;
+
+        RelogioManual(Instant inicio) {
+            this.agora = inicio.toEpochMilli();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(agora);
+        }
+
+        @Override
+        public long millis() {
+            return agora;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.austa.saude.experiencia.test.unit.kafka;
+
+import br.com.austa.experiencia.service.kafka.ReposicaoTopico;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the first-replay tracker of per-instance topic views
+ *
+ * Coverage:
+ * - Replay ends once every partition reached its startup end offset
+ * - Empty topics and partitions are done from the start
+ * - Completion is reported exactly once
+ */
+@DisplayName("Reposicao Topico Tests")
+class ReposicaoTopicoTest {
+
+    @Test
+    @DisplayName("Should end the replay when every partition reached its end offset")
+    void shouldEndWhenAllPartitionsReachTheirEnd() {
+        ReposicaoTopico reposicao = new ReposicaoTopico("contratos-beneficiario", 3, Map.of(0, 3L, 1, 1L, 2, 0L));
+
+        assertThat(reposicao.avancar(0, 0)).isFalse();
+        assertThat(reposicao.avancar(1, 0)).isFalse();
+        assertThat(reposicao.isConcluida()).isFalse();
+        assertThat(reposicao.avancar(0, 2)).isTrue();
+        assertThat(reposicao.isConcluida()).isTrue();
+
+        // records produced after startup do not report completion again
+        assertThat(reposicao.avancar(1, 5)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should treat a topic with nothing to replay as replayed")
+    void shouldTreatEmptyTopicAsReplayed() {
+        assertThat(new ReposicaoTopico("rol-cobertura", 0, Map.of()).isConcluida()).isTrue();
+        assertThat(new ReposicaoTopico("rol-cobertura", 1, Map.of(0, 0L)).isConcluida()).isTrue();
+    }
+}
@@ -0,0 +1,257 @@
+package com.austa.saude.experiencia.test.unit.lembretes;
+
+import br.com.austa.experiencia.service.lembretes.LembreteMedicacao;
+import br.com.austa.experiencia.service.lembretes.LembreteMedicacaoScheduler;
+import br.com.austa.experiencia.service.lembretes.MedicamentoAgendado;
+import br.com.austa.experiencia.service.lembretes.TimingWheel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the timing-wheel medication reminder scheduler
+ *
+ * Coverage:
+ * - Timing wheel fires every timer exactly on its tick across all levels, and never a cancelled one
+ * - Reminders fire once per day, antecedência before the dose, and are re-armed
+ * - Re-synchronizing an unchanged schedule is a no-op; removed doses stop firing
+ * - Batches never split the reminders of one beneficiary
+ * - Recovery from snapshot + log without re-sending dispatched reminders
+ * - Dropping the schedules of beneficiaries owned by another instance
+ */
+@DisplayName("Lembrete Medicacao Scheduler Tests")
+class LembreteMedicacaoSchedulerTest {
+
+    private static final ZoneId ZONA = ZoneId.of("America/Sao_Paulo");
+    private static final long MINUTO = 60_000L;
+
+    private static final MedicamentoAgendado METFORMINA_MANHA =
+        new MedicamentoAgendado("Metformina", "500mg", "Tomar com café da manhã", LocalTime.of(8, 0));
+    private static final MedicamentoAgendado METFORMINA_NOITE =
+        new MedicamentoAgendado("Metformina", "500mg", "Tomar com jantar", LocalTime.of(20, 0));
+    private static final MedicamentoAgendado LOSARTANA =
+        new MedicamentoAgendado("Losartana", "50mg", "Tomar pela manhã", LocalTime.of(8, 0));
+
+    @TempDir
+    Path dir;
+
+    private final List<LembreteMedicacao> enviados = new CopyOnWriteArrayList<>();
+    private final List<Integer> tamanhosLote = new CopyOnWriteArrayList<>();
+
+    @Test
+    @DisplayName("Timing wheel should fire every timer on its tick and skip cancelled ones")
+    void timingWheelShouldFireExactly() {
+        long inicio = 1_700_000_000_000L / MINUTO * MINUTO;
+        TimingWheel roda = new TimingWheel(MINUTO, inicio, 16);
+        Random random = new Random(3);
+
+        int timers = 50_000;
+        long[] prazos = new long[timers];
+        int[] handles = new int[timers];
+        for (int i = 0; i < timers; i++) {
+            // from a few minutes up to ~8 months: exercises all four levels
+            prazos[i] = inicio + (1 + (long) (Math.pow(random.nextDouble(), 4) * 350_000)) * MINUTO;
+            handles[i] = roda.agendar(prazos[i], i);
+        }
+        for (int i = 0; i < timers; i += 10) {
+            roda.cancelar(handles[i]);
+        }
+        assertThat(roda.tamanho()).isEqualTo(timers - timers / 10);
+
+        int[] disparos = new int[timers];
+        long agora = inicio;
+        long fim = inicio + 351_000 * MINUTO;
+        while (agora < fim) {
+            agora += (1 + random.nextInt(180)) * MINUTO;
+            long instante = agora;
+            roda.avancar(instante, h -> {
+                int i = roda.ref(h);
+                disparos[i]++;
+                assertThat(prazos[i]).isLessThanOrEqualTo(instante).isGreaterThan(instante - 180 * MINUTO);
+                roda.liberar(h);
+            });
+        }
+
+        for (int i = 0; i < timers; i++) {
+            assertThat(disparos[i]).as("timer %d", i).isEqualTo(i % 10 == 0 ? 0 : 1);
+        }
+        assertThat(roda.tamanho()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should remind before each dose once a day and re-arm for the next day")
+    void shouldRemindDailyBeforeDose() throws Exception {
+        RelogioManual relogio = new RelogioManual(local(2025, 12, 11, 6, 0));
+        LembreteMedicacaoScheduler scheduler = novoScheduler(relogio);
+
+        scheduler.sincronizar("BEN-001", List.of(METFORMINA_MANHA, METFORMINA_NOITE, LOSARTANA));
+        assertThat(scheduler.getDosesAgendadas()).isEqualTo(3);
+        assertThat(scheduler.proximoLembrete("BEN-001")).contains(local(2025, 12, 11, 7, 30));
+
+        avancarAte(scheduler, relogio, local(2025, 12, 11, 7, 29));
+        assertThat(enviados).isEmpty();
+
+        avancarAte(scheduler, relogio, local(2025, 12, 11, 7, 30));
+        assertThat(enviados).extracting(l -> l.getMedicamento().getNome())
+            .containsExactlyInAnyOrder("Metformina", "Losartana");
+        assertThat(tamanhosLote).containsExactly(2);
+
+        avancarAte(scheduler, relogio, local(2025, 12, 12, 7, 30));
+        assertThat(enviados).hasSize(5);
+        assertThat(enviados.get(2).getHorarioDose()).isEqualTo(local(2025, 12, 11, 20, 0));
+        assertThat(scheduler.getDosesAgendadas()).isEqualTo(3);
+        assertThat(scheduler.getLembretesPerdidos()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should remind right away when synchronized inside the reminder window")
+    void shouldRemindRightAwayInsideWindow() throws Exception {
+        RelogioManual relogio = new RelogioManual(local(2025, 12, 11, 7, 45));
+        LembreteMedicacaoScheduler scheduler = novoScheduler(relogio);
+
+        scheduler.sincronizar("BEN-002", List.of(LOSARTANA));
+        avancarAte(scheduler, relogio, local(2025, 12, 11, 7, 46));
+
+        assertThat(enviados).hasSize(1);
+        assertThat(enviados.get(0).getHorarioDose()).isEqualTo(local(2025, 12, 11, 8, 0));
+    }
+
+    @Test
+    @DisplayName("Should keep timers on unchanged re-sync and drop removed doses")
+    void shouldApplyOnlyScheduleChanges() throws Exception {
+        RelogioManual relogio = new RelogioManual(local(2025, 12, 11, 6, 0));
+        LembreteMedicacaoScheduler scheduler = novoScheduler(relogio);
+
+        scheduler.sincronizar("BEN-003", List.of(METFORMINA_MANHA, LOSARTANA));
+        scheduler.sincronizar("BEN-003", List.of(LOSARTANA, METFORMINA_MANHA));
+        assertThat(scheduler.getDosesAgendadas()).isEqualTo(2);
+
+        scheduler.sincronizar("BEN-003", List.of(LOSARTANA));
+        assertThat(scheduler.getDosesAgendadas()).isEqualTo(1);
+
+        avancarAte(scheduler, relogio, local(2025, 12, 11, 7, 30));
+        assertThat(enviados).extracting(l -> l.getMedicamento().getNome()).containsExactly("Losartana");
+    }
+
+    @Test
+    @DisplayName("Should batch reminders without splitting a beneficiary across batches")
+    void shouldBatchByBeneficiary() throws Exception {
+        RelogioManual relogio = new RelogioManual(local(2025, 12, 11, 6, 0));
+        LembreteMedicacaoScheduler scheduler = novoScheduler(relogio);
+
+        for (int i = 0; i < 1_000; i++) {
+            scheduler.sincronizar("BEN-" + i, List.of(METFORMINA_MANHA, LOSARTANA));
+        }
+        avancarAte(scheduler, relogio, local(2025, 12, 11, 7, 30));
+
+        assertThat(enviados).hasSize(2_000);
+        assertThat(tamanhosLote).allSatisfy(tamanho -> assertThat(tamanho % 2).isZero());
+        assertThat(tamanhosLote.stream().mapToInt(Integer::intValue).sum()).isEqualTo(2_000);
+        assertThat(tamanhosLote.size()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should recover the schedule after restart without re-sending reminders")
+    void shouldRecoverWithoutResending() throws Exception {
+        RelogioManual relogio = new RelogioManual(local(2025, 12, 11, 6, 0));
+        LembreteMedicacaoScheduler scheduler = novoScheduler(relogio);
+        for (int i = 0; i < 300; i++) {
+            scheduler.sincronizar("BEN-" + i, List.of(METFORMINA_MANHA, METFORMINA_NOITE));
+        }
+        avancarAte(scheduler, relogio, local(2025, 12, 11, 7, 35));
+        assertThat(enviados).hasSize(300);
+        scheduler.parar();
+
+        // down from 07:35 to 19:40: the evening reminder (19:30) is still useful
+        relogio.agora = local(2025, 12, 11, 19, 40).toEpochMilli();
+        LembreteMedicacaoScheduler reaberto = novoScheduler(relogio);
+        assertThat(reaberto.getDosesAgendadas()).isEqualTo(600);
+
+        avancarAte(reaberto, relogio, local(2025, 12, 11, 19, 41));
+        assertThat(enviados).hasSize(600);
+        assertThat(enviados.subList(300, 600))
+            .allSatisfy(l -> assertThat(l.getHorarioDose()).isEqualTo(local(2025, 12, 11, 20, 0)));
+    }
+
+    @Test
+    @DisplayName("Should stop reminding beneficiaries owned by another instance, also after restart")
+    void shouldDropSchedulesOwnedElsewhere() throws Exception {
+        RelogioManual relogio = new RelogioManual(local(2025, 12, 11, 6, 0));
+        LembreteMedicacaoScheduler scheduler = novoScheduler(relogio);
+        scheduler.sincronizar("BEN-001", List.of(METFORMINA_MANHA));
+        scheduler.sincronizar("BEN-002", List.of(LOSARTANA, METFORMINA_NOITE));
+        assertThat(scheduler.proximoLembrete(List.of(METFORMINA_NOITE, LOSARTANA)))
+            .contains(local(2025, 12, 11, 7, 30));
+
+        assertThat(scheduler.reter("BEN-001"::equals)).isEqualTo(1);
+        assertThat(scheduler.getDosesAgendadas()).isEqualTo(1);
+        assertThat(scheduler.proximoLembrete("BEN-002")).isEmpty();
+        scheduler.parar();
+
+        LembreteMedicacaoScheduler reaberto = novoScheduler(relogio);
+        assertThat(reaberto.getDosesAgendadas()).isEqualTo(1);
+        avancarAte(reaberto, relogio, local(2025, 12, 11, 21, 0));
+        assertThat(enviados).extracting(LembreteMedicacao::getBeneficiarioId).containsExactly("BEN-001");
+    }
+
+    private LembreteMedicacaoScheduler novoScheduler(Clock relogio) throws Exception {
+        return new LembreteMedicacaoScheduler(dir.toString(), ZONA, 30, MINUTO, 400, 200, relogio, lote -> {
+            tamanhosLote.add(lote.size());
+            enviados.addAll(lote);
+        });
+    }
+
+    private static void avancarAte(LembreteMedicacaoScheduler scheduler, RelogioManual relogio, Instant ate)
+            throws Exception {
+        while (relogio.agora < ate.toEpochMilli()) {
+            relogio.agora = Math.min(relogio.agora + MINUTO, ate.toEpochMilli());
+            scheduler.processarVencidos();
+        }
+    }
+
+    private static Instant local(int ano, int mes, int dia, int hora, int minuto) {
+        return LocalDateTime.of(ano, mes, dia, hora, minuto).atZone(ZONA).toInstant();
+    }
+
+    private static final class RelogioManual extends Clock {
+
+        long agora;
+
+        RelogioManual(Instant inicio) {
+            this.agora = inicio.toEpochMilli();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(agora);
+        }
+
+        @Override
+        public long millis() {
+            return agora;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.austa.saude.experiencia.test.unit.performance;
+
+import br.com.austa.experiencia.model.dto.ElegibilidadeDTO;
+import br.com.austa.experiencia.service.autorizacao.AutorizacaoExpressa;
+import br.com.austa.experiencia.service.autorizacao.ConsultasAutorizacao;
+import br.com.austa.experiencia.service.autorizacao.SituacaoPrestador;
+import br.com.austa.experiencia.service.autorizacao.SolicitacaoAutorizacao;
+import br.com.austa.experiencia.service.autorizacao.TabelasDecisao;
+import br.com.austa.experiencia.service.cobertura.ContratoBeneficiario;
+import br.com.austa.experiencia.service.cobertura.GrupoCarencia;
+import br.com.austa.experiencia.service.cobertura.MotorCobertura;
+import br.com.austa.experiencia.service.cobertura.ProcedimentoRol;
+import br.com.austa.experiencia.service.cobertura.ProdutoPlano;
+import br.com.austa.experiencia.service.cobertura.Segmentacao;
+import br.com.austa.experiencia.service.domain.TissService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency of the straight-through authorization path under concurrent load
+ *
+ * Coverage:
+ * - p99 of auto-approvable guides with 3 ms remote lookups, 8 concurrent callers
+ */
+@DisplayName("Autorizacao Expressa Performance Tests")
+class AutorizacaoExpressaPerformanceTest {
+
+    private static final String CONSULTA = "10101012";
+    private static final LocalDate INICIO = LocalDate.of(2025, 3, 1);
+    private static final LocalDate HOJE = LocalDate.of(2025, 12, 11);
+
+    @Test
+    @DisplayName("Should keep p99 of auto-approvable guides under 50 ms under concurrent load")
+    void shouldMeetLatencyTarget() throws Exception {
+        MotorCobertura motor = new MotorCobertura(500);
+        motor.publicarRol("RN 465/2021", List.of(
+            new ProcedimentoRol(CONSULTA, "Consulta em consultório", EnumSet.of(Segmentacao.AMBULATORIAL),
+                GrupoCarencia.CONSULTAS_EXAMES_SIMPLES, false)),
+            List.of(new ProdutoPlano("AMB-01", EnumSet.of(Segmentacao.AMBULATORIAL), Set.of(), Set.of(),
+                Map.of(GrupoCarencia.CONSULTAS_EXAMES_SIMPLES, new BigDecimal("25.00")))));
+        motor.atualizarContratos(List.of(new ContratoBeneficiario("BEN-1", "AMB-01", INICIO, false, Map.of())));
+        AutorizacaoExpressa expressa = new AutorizacaoExpressa(new TissService(), motor, new ConsultasLentas(3),
+            new TabelasAprovacao(), 32, 256, 40);
+
+        int threads = 8;
+        int porThread = 400;
+        ExecutorService chamadores = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> futuros = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futuros.add(chamadores.submit(() -> {
+                    int aprovadas = 0;
+                    for (int i = 0; i < porThread; i++) {
+                        if (expressa.avaliar(guia()).isAprovada()) {
+                            aprovadas++;
+                        }
+                    }
+                    return aprovadas;
+                }));
+            }
+            for (Future<Integer> futuro : futuros) {
+                assertThat(futuro.get()).isEqualTo(porThread);
+            }
+        } finally {
+            chamadores.shutdownNow();
+            expressa.parar();
+        }
+
+        System.out.printf("=== Autorizacao Expressa (%d guides, %d callers) ===%n", threads * porThread, threads);
+        System.out.printf("p50 %.2f ms, p99 %.2f ms%n", expressa.getLatenciaAprovadas().percentilMillis(0.50),
+            expressa.getLatenciaAprovadas().percentilMillis(0.99));
+
+        assertThat(expressa.getLatenciaAprovadas().getContagem()).isEqualTo(threads * porThread);
+        assertThat(expressa.getLatenciaAprovadas().percentilMillis(0.99)).isLessThan(50.0);
+    }
+
+    private static SolicitacaoAutorizacao guia() {
+        Map<String, Object> variaveis = new HashMap<>();
+        variaveis.put("numeroGuia", "G-" + CONSULTA);
+        variaveis.put("tipoGuia", "CONSULTA");
+        variaveis.put("numeroAutorizacao", "20251211-00000001-55");
+        variaveis.put("procedimentos", List.of(CONSULTA));
+        variaveis.put("prestadorCodigo", "PRES-0001");
+        variaveis.put("beneficiarioCpf", "123.456.789-01");
+        variaveis.put("dataAtendimento", HOJE.toString());
+        variaveis.put("beneficiarioId", "BEN-1");
+        variaveis.put("cartaoNumero", "0001234500012");
+        variaveis.put("codigoProcedimento", CONSULTA);
+        variaveis.put("tipoProcedimento", "CONSULTA_CLINICO_GERAL");
+        variaveis.put("valorProcedimento", new BigDecimal("150.00"));
+        variaveis.put("prestadorId", "PRES-0001");
+        variaveis.put("dataProcedimento", HOJE);
+        return SolicitacaoAutorizacao.deVariaveis(variaveis);
+    }
+
+    private static final class ConsultasLentas implements ConsultasAutorizacao {
+
+        private final long latenciaMillis;
+
+        ConsultasLentas(long latenciaMillis) {
+            this.latenciaMillis = latenciaMillis;
+        }
+
+        @Override
+        public ElegibilidadeDTO elegibilidade(SolicitacaoAutorizacao solicitacao) {
+            esperar();
+            return ElegibilidadeDTO.builder()
+                .elegivel(true)
+                .statusPlano("ATIVO")
+                .beneficiarioId(solicitacao.getBeneficiarioId())
+                .nomeBeneficiario("Maria Silva")
+                .dataAdesao(INICIO)
+                .build();
+        }
+
+        @Override
+        public SituacaoPrestador situacaoPrestador(String prestadorId) {
+            esperar();
+            return new SituacaoPrestador(prestadorId, true, false, null);
+        }
+
+        private void esperar() {
+            try {
+                Thread.sleep(latenciaMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * The DMN_RegrasAutorizacao row a routine consultation reaches.
+     */
+    private static final class TabelasAprovacao implements TabelasDecisao {
+
+        @Override
+        public Map<String, Object> avaliar(String chaveDecisao, Map<String, Object> variaveis) {
+            if (PROTOCOLO_CLINICO.equals(chaveDecisao)) {
+                return Map.of("atendeProtocolo", false, "acaoNecessaria", "ENCAMINHAR_AUDITORIA_MEDICA");
+            }
+            return Map.of("decisaoAutorizacao", "APROVADO",
+                "motivoDecisao", "Procedimento de rotina coberto pelo plano", "requerAnaliseTecnica", false);
+        }
+    }
+}
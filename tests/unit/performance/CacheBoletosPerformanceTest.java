@@ -0,0 +1,108 @@
+package com.austa.saude.experiencia.test.unit.performance;
+
+import br.com.austa.experiencia.service.blobs.ArmazenamentoBlobsDisco;
+import br.com.austa.experiencia.service.blobs.RepositorioConteudo;
+import br.com.austa.experiencia.service.boletos.BoletoGerado;
+import br.com.austa.experiencia.service.boletos.CacheBoletos;
+import br.com.austa.experiencia.service.boletos.FaturaBoleto;
+import br.com.austa.experiencia.service.boletos.ResultadoPreGeracao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency of boleto second copies
+ *
+ * Coverage:
+ * - Cache read vs render on every request
+ */
+@DisplayName("Cache Boletos Performance Tests")
+class CacheBoletosPerformanceTest {
+
+    private static final YearMonth COMPETENCIA = YearMonth.of(2025, 11);
+    private static final LocalDate VENCIMENTO = LocalDate.of(2025, 11, 10);
+
+    private Path diretorio;
+    private RepositorioConteudo repositorio;
+    private CacheBoletos cache;
+    private final Clock clock = Clock.fixed(Instant.parse("2025-11-01T08:00:00Z"), ZoneOffset.UTC);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        diretorio = Files.createTempDirectory("boletos");
+        repositorio = new RepositorioConteudo(new ArmazenamentoBlobsDisco(diretorio.resolve("blobs").toString()),
+            new ObjectMapper(), 64 * 1024);
+        cache = new CacheBoletos(diretorio.resolve("indice"), repositorio, 4, 50, 100_000, clock);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        cache.parar();
+    }
+
+    @Test
+    @DisplayName("Should serve a second copy from cache faster than rendering it per request")
+    void shouldBeatRenderPerRequest() throws Exception {
+        int beneficiarios = 2_000;
+        List<FaturaBoleto> faturas = faturas(beneficiarios);
+
+        long inicio = System.nanoTime();
+        ResultadoPreGeracao resultado = cache.preGerar(faturas);
+        long nanosPreGeracao = System.nanoTime() - inicio;
+        assertThat(resultado.getGerados()).isEqualTo(beneficiarios);
+
+        // Render per request, as before: invalidated every time, own store so no chunk is deduplicated
+        RepositorioConteudo outroRepositorio = new RepositorioConteudo(
+            new ArmazenamentoBlobsDisco(diretorio.resolve("sob-demanda-blobs").toString()), new ObjectMapper(), 64 * 1024);
+        CacheBoletos semCache = new CacheBoletos(diretorio.resolve("sob-demanda"), outroRepositorio, 1, 1,
+            Integer.MAX_VALUE, clock);
+        inicio = System.nanoTime();
+        for (FaturaBoleto fatura : faturas) {
+            semCache.invalidar(fatura.getBeneficiarioId(), COMPETENCIA);
+            semCache.gerar(fatura).orElseThrow();
+        }
+        long nanosRender = System.nanoTime() - inicio;
+        semCache.parar();
+
+        inicio = System.nanoTime();
+        int lidos = 0;
+        for (FaturaBoleto fatura : faturas) {
+            Optional<BoletoGerado> boleto = cache.segundaVia(fatura.getBeneficiarioId(), COMPETENCIA);
+            lidos += boleto.isPresent() ? 1 : 0;
+        }
+        long nanosCache = System.nanoTime() - inicio;
+        assertThat(lidos).isEqualTo(beneficiarios);
+
+        System.out.println("=== Boleto Second Copy Benchmark (" + beneficiarios + " beneficiaries) ===");
+        System.out.printf("Pre-generation (4 threads, batches of 50): %.1f ms%n", nanosPreGeracao / 1e6);
+        System.out.printf("Render per request:  %.1f us per second copy%n", nanosRender / 1e3 / beneficiarios);
+        System.out.printf("Cache read:          %.2f us per second copy%n", nanosCache / 1e3 / beneficiarios);
+        assertThat(nanosCache).isLessThan(nanosRender);
+    }
+
+    private static List<FaturaBoleto> faturas(int quantidade) {
+        List<FaturaBoleto> faturas = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            faturas.add(new FaturaBoleto(String.format("BEN-%06d", i), "Beneficiário " + i, COMPETENCIA,
+                String.format("202511%08d", i), new BigDecimal("450.00"), VENCIMENTO));
+        }
+        return faturas;
+    }
+}
@@ -0,0 +1,67 @@
+package com.austa.saude.experiencia.test.unit.performance;
+
+import br.com.austa.experiencia.service.carteirinha.EmissorCarteirinha;
+import br.com.austa.experiencia.service.carteirinha.verificacao.CoberturaCarteirinha;
+import br.com.austa.experiencia.service.carteirinha.verificacao.VerificadorCarteirinha;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Offline verification throughput of signed member cards
+ *
+ * Coverage:
+ * - Verifications per second on one core
+ */
+@DisplayName("Carteirinha Assinada Performance Tests")
+class CarteirinhaAssinadaPerformanceTest {
+
+    private final Clock clock = Clock.fixed(Instant.parse("2025-11-03T12:00:00Z"), ZoneOffset.UTC);
+    private EmissorCarteirinha emissor;
+    private VerificadorCarteirinha verificador;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        emissor = new EmissorCarteirinha(Files.createTempDirectory("carteirinha"), 30, 90, 24, ZoneOffset.UTC,
+            clock);
+        verificador = new VerificadorCarteirinha(emissor.chavesPublicadas(), ZoneOffset.UTC, clock);
+        verificador.atualizar(emissor.pacoteVerificacao());
+    }
+
+    @Test
+    @DisplayName("Should report offline verifications per second on one core")
+    void shouldVerifyOffline() {
+        String[] codigos = new String[64];
+        for (int i = 0; i < codigos.length; i++) {
+            codigos[i] = emissor.emitir(String.format("00%014d", i), "123456789",
+                EnumSet.of(CoberturaCarteirinha.AMBULATORIAL, CoberturaCarteirinha.HOSPITALAR), true,
+                LocalDate.of(2026, 3, 1));
+        }
+        for (int i = 0; i < 500; i++) {
+            verificador.verificar(codigos[i % codigos.length]);
+        }
+
+        int total = 2_000;
+        long inicio = System.nanoTime();
+        int validas = 0;
+        for (int i = 0; i < total; i++) {
+            if (verificador.verificar(codigos[i % codigos.length]).isValida()) {
+                validas++;
+            }
+        }
+        long nanos = System.nanoTime() - inicio;
+
+        System.out.printf("Card verification: %d in %d ms, %.0f/s on one core, %.1f µs each, QR %d chars%n",
+            total, nanos / 1_000_000, total * 1e9 / nanos, nanos / 1e3 / total, codigos[0].length());
+        assertThat(validas).isEqualTo(total);
+    }
+}
@@ -0,0 +1,74 @@
+package com.austa.saude.experiencia.test.unit.performance;
+
+import br.com.austa.experiencia.service.consulta.ConsultaComposta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency of the composite self-service query
+ *
+ * Coverage:
+ * - Home screen (5 parts): composite fan-out vs one lookup after another
+ */
+@DisplayName("Consulta Composta Performance Tests")
+class ConsultaCompostaPerformanceTest {
+
+    private ConsultaComposta consulta;
+
+    @BeforeEach
+    void setUp() {
+        consulta = new ConsultaComposta(8, 16, 300, Map.of("HISTORICO_ATENDIMENTOS", 600L));
+    }
+
+    @AfterEach
+    void tearDown() {
+        consulta.parar();
+    }
+
+    @Test
+    @DisplayName("Home screen query should take at most half the sequential time")
+    void shouldBeatSequentialLookups() throws Exception {
+        String[] tipos = {"PLANO", "SINISTROS", "AUTORIZACOES", "FINANCEIRO", "HISTORICO_ATENDIMENTOS"};
+        long[] latencias = {40, 60, 5, 30, 80};
+        int rodadas = 10;
+
+        long inicio = System.nanoTime();
+        for (int r = 0; r < rodadas; r++) {
+            for (int i = 0; i < tipos.length; i++) {
+                lento(latencias[i], tipos[i]).call();
+            }
+        }
+        long sequencial = (System.nanoTime() - inicio) / rodadas;
+
+        inicio = System.nanoTime();
+        for (int r = 0; r < rodadas; r++) {
+            Map<String, Callable<Object>> partes = new LinkedHashMap<>();
+            for (int i = 0; i < tipos.length; i++) {
+                partes.put(tipos[i], lento(latencias[i], tipos[i]));
+            }
+            assertThat(consulta.executar(partes).isCompleta()).isTrue();
+        }
+        long composta = (System.nanoTime() - inicio) / rodadas;
+
+        System.out.printf("Home screen (5 parts): sequential %d ms, composite %d ms (%.1fx)%n",
+            TimeUnit.NANOSECONDS.toMillis(sequencial), TimeUnit.NANOSECONDS.toMillis(composta),
+            (double) sequencial / composta);
+        assertThat(composta).isLessThan(sequencial / 2);
+    }
+
+    private static Callable<Object> lento(long millis, String dados) {
+        return () -> {
+            Thread.sleep(millis);
+            return dados;
+        };
+    }
+}
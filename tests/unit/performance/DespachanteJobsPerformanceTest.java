@@ -0,0 +1,67 @@
+package com.austa.saude.experiencia.test.unit.performance;
+
+import br.com.austa.experiencia.service.jobs.ClassePrioridadeJob;
+import br.com.austa.experiencia.service.jobs.DespachanteJobs;
+import br.com.austa.experiencia.service.jobs.JobClassificado;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency of priority-class job dispatching
+ *
+ * Coverage:
+ * - Start delay of a critical job behind a backlog of batch jobs
+ */
+@DisplayName("Despachante Jobs Performance Tests")
+class DespachanteJobsPerformanceTest {
+
+    private DespachanteJobs despachante;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (despachante != null) {
+            despachante.parar();
+        }
+    }
+
+    @Test
+    @DisplayName("Should start a critical job within 200 ms while thousands of batch jobs are queued")
+    void shouldStartCriticalJobQuickly() throws Exception {
+        despachante = new DespachanteJobs(
+            Map.of(ClassePrioridadeJob.CRITICA, 2, ClassePrioridadeJob.ALTA, 2,
+                ClassePrioridadeJob.NORMAL, 2, ClassePrioridadeJob.LOTE, 2),
+            Map.of(ClassePrioridadeJob.LOTE, 2), 5000, Clock.systemUTC());
+        despachante.iniciar();
+        for (int i = 0; i < 3000; i++) {
+            despachante.despachar(job("LOTE-" + i, 10, "SUB-002_Motor_Proativo"), () -> {
+                try {
+                    Thread.sleep(2);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        CountDownLatch critico = new CountDownLatch(1);
+        long inicio = System.nanoTime();
+        despachante.despachar(job("URG-1", 1000, "SUB-003_Recepcao_Classificacao"), critico::countDown);
+
+        assertThat(critico.await(1, TimeUnit.SECONDS)).isTrue();
+        long esperaMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        System.out.printf("Critical job started after %d ms with %d batch jobs still queued%n",
+            esperaMs, despachante.getPendentes(ClassePrioridadeJob.LOTE));
+        assertThat(esperaMs).isLessThan(200L);
+    }
+
+    private static JobClassificado job(String id, long prioridade, String definicao) {
+        return new JobClassificado(id, prioridade, definicao, System.currentTimeMillis());
+    }
+}
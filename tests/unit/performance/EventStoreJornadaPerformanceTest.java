@@ -0,0 +1,118 @@
+package com.austa.saude.experiencia.test.unit.performance;
+
+import br.com.austa.experiencia.service.jornada.EventStoreJornada;
+import br.com.austa.experiencia.service.jornada.ResumoEtapasJornada;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cost of recording journey milestones
+ *
+ * Coverage:
+ * - 500-milestone journey: event store appends against the etapasPercorridas variable
+ */
+@DisplayName("Event Store Jornada Performance Tests")
+class EventStoreJornadaPerformanceTest {
+
+    private EventStoreJornada store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new EventStoreJornada(new ObjectMapper(), Files.createTempDirectory("jornadas"), 4096, false,
+            Clock.systemUTC());
+        store.iniciar();
+    }
+
+    @Test
+    @DisplayName("Should append a 500-milestone journey faster and with far fewer bytes than the variable")
+    void shouldOutpaceVariableApproachOn500Milestones() throws Exception {
+        int etapas = 500;
+        // warm-up
+        variavel(etapas);
+        jornada("PROC-AQUECIMENTO", etapas);
+
+        long inicio = System.nanoTime();
+        long[] bytesVariavel = variavel(etapas);
+        long nanosVariavel = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        jornada("PROC-500", etapas);
+        long nanosStore = System.nanoTime() - inicio;
+        long bytesStore = store.tamanho("PROC-500");
+
+        System.out.println("=== Journey Milestones Benchmark (500 milestones) ===");
+        System.out.printf("etapasPercorridas variable: %.1f ms, %d KB serialized, last write %d KB%n",
+            nanosVariavel / 1e6, bytesVariavel[0] / 1024, bytesVariavel[1] / 1024);
+        System.out.printf("Journey event store: %.1f ms, %d KB appended%n", nanosStore / 1e6, bytesStore / 1024);
+
+        assertThat(bytesStore * 20).isLessThan(bytesVariavel[0]);
+        assertThat(nanosStore).isLessThan(nanosVariavel);
+    }
+
+    /**
+     * What registrarEtapa did per milestone: read the serialized list back,
+     * append one map, serialize the whole list again; then consolidate.
+     *
+     * @return total bytes serialized, size of the last write
+     */
+    @SuppressWarnings("unchecked")
+    private static long[] variavel(int etapas) throws Exception {
+        byte[] valor = null;
+        long total = 0;
+        for (int i = 1; i <= etapas; i++) {
+            List<Map<String, Object>> lista = valor == null ? new ArrayList<>()
+                : (List<Map<String, Object>>) new ObjectInputStream(new ByteArrayInputStream(valor)).readObject();
+            lista.add(etapa(i));
+            ByteArrayOutputStream saida = new ByteArrayOutputStream();
+            try (ObjectOutputStream objetos = new ObjectOutputStream(saida)) {
+                objetos.writeObject(lista);
+            }
+            valor = saida.toByteArray();
+            total += valor.length;
+        }
+        List<Map<String, Object>> consolidadas =
+            (List<Map<String, Object>>) new ObjectInputStream(new ByteArrayInputStream(valor)).readObject();
+        assertThat(consolidadas).hasSize(etapas);
+        return new long[] {total, valor.length};
+    }
+
+    private void jornada(String processInstanceId, int etapas) throws Exception {
+        for (int i = 1; i <= etapas; i++) {
+            store.registrar(processInstanceId, i, etapa(i));
+        }
+        ResumoEtapasJornada resumo = new ResumoEtapasJornada();
+        store.percorrer(processInstanceId, etapas, resumo);
+        assertThat(resumo.getNumeroEtapas()).isEqualTo((long) etapas);
+    }
+
+    private static Map<String, Object> etapa(int i) {
+        Map<String, Object> etapa = new HashMap<>();
+        etapa.put("nome", "ETAPA_" + i);
+        etapa.put("descricao", "Etapa " + i + " do plano de cuidado");
+        etapa.put("status", "CONCLUIDA");
+        etapa.put("timestamp", LocalDateTime.now().toString());
+        etapa.put("activityId", "Task_RegistrarEtapa");
+        etapa.put("activityName", "Registrar Conclusão da Etapa");
+        etapa.put("canal", "APP");
+        etapa.put("agenteResponsavel", "navegador-" + (i % 7));
+        etapa.put("tempoNaEtapa", i * 10);
+        return etapa;
+    }
+}
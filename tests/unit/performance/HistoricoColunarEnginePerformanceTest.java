@@ -0,0 +1,147 @@
+package com.austa.saude.experiencia.test.unit.performance;
+
+import br.com.austa.experiencia.service.historico.ConsultasHistorico;
+import br.com.austa.experiencia.service.historico.DuracaoAtividade;
+import br.com.austa.experiencia.service.historico.HistoricoColunarEventHandler;
+import br.com.austa.experiencia.service.historico.LogHistoricoColunar;
+import br.com.austa.experiencia.service.historico.ResumoDefinicao;
+import br.com.austa.experiencia.service.historico.TipoEventoHistorico;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.camunda.bpm.model.bpmn.builder.AbstractFlowNodeBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Engine throughput with history in the database vs. in the columnar log
+ *
+ * Runs the same ten-step process on two in-memory engines with history level
+ * FULL: one with the stock DB history handler, one with
+ * {@link HistoricoColunarEventHandler} keeping nothing in the ACT_HI_* tables.
+ *
+ * Coverage:
+ * - Instances completed per second with and without DB history
+ * - History tables left empty and the columnar log complete in the second run
+ */
+@DisplayName("Columnar History Engine Performance Tests")
+class HistoricoColunarEnginePerformanceTest {
+
+    private static final String PROCESSO = "historicoCarga";
+    private static final int PASSOS = 10;
+    private static final int THREADS = 8;
+    private static final int INSTANCIAS = 2000;
+    private static final int AQUECIMENTO = 50;
+
+    @Test
+    @DisplayName("Should complete more instances per second without DB history")
+    void shouldCompareEngineThroughput() throws Exception {
+        ProcessEngine comDb = motor("historico-db", null);
+        double taxaDb;
+        try {
+            taxaDb = executar(comDb);
+            assertThat(comDb.getHistoryService().createHistoricActivityInstanceQuery().count())
+                .isEqualTo((long) (INSTANCIAS + AQUECIMENTO) * (PASSOS + 2));
+        } finally {
+            comDb.close();
+        }
+
+        LogHistoricoColunar log = new LogHistoricoColunar(Files.createTempDirectory("historico-carga"), 65536,
+            50000, 60_000L, Clock.systemUTC());
+        log.iniciar();
+        ProcessEngine colunar = motor("historico-colunar",
+            new HistoricoColunarEventHandler(log, EnumSet.noneOf(TipoEventoHistorico.class)));
+        double taxaColunar;
+        try {
+            taxaColunar = executar(colunar);
+            log.descarregar();
+            assertThat(colunar.getHistoryService().createHistoricProcessInstanceQuery().count()).isZero();
+            assertThat(colunar.getHistoryService().createHistoricVariableInstanceQuery().count()).isZero();
+        } finally {
+            colunar.close();
+        }
+
+        ConsultasHistorico consultas = new ConsultasHistorico(log);
+        List<ResumoDefinicao> resumos = consultas.instanciasPorDefinicao(null, null);
+        assertThat(resumos).hasSize(1);
+        assertThat(resumos.get(0).getIniciadas()).isEqualTo((long) INSTANCIAS + AQUECIMENTO);
+        assertThat(resumos.get(0).getConcluidas()).isEqualTo((long) INSTANCIAS + AQUECIMENTO);
+        List<DuracaoAtividade> duracoes = consultas.duracoesAtividades(PROCESSO, null, null);
+        assertThat(duracoes.stream().mapToLong(DuracaoAtividade::getExecucoes).sum())
+            .isEqualTo((long) (INSTANCIAS + AQUECIMENTO) * (PASSOS + 2));
+        log.parar();
+
+        System.out.println("=== Engine History Benchmark ===");
+        System.out.printf("DB history (FULL): %.0f instances/sec%n", taxaDb);
+        System.out.printf("Columnar history (FULL, nothing in DB): %.0f instances/sec (%.2fx)%n",
+            taxaColunar, taxaColunar / taxaDb);
+        System.out.printf("Columnar log: %d events in %d parts, %d full-ring waits%n",
+            log.getEventosGravados(), log.getPartesGravadas(), log.getEsperasAnelCheio());
+
+        assertThat(taxaColunar).isGreaterThan(taxaDb);
+    }
+
+    private static double executar(ProcessEngine motor) throws Exception {
+        motor.getRepositoryService().createDeployment().addModelInstance(PROCESSO + ".bpmn", modelo()).deploy();
+        // warm-up, not measured
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            motor.getRuntimeService().startProcessInstanceByKey(PROCESSO, Map.of("i", i));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long inicio = System.nanoTime();
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            tarefas.add(executor.submit(() -> {
+                for (int i = 0; i < INSTANCIAS / THREADS; i++) {
+                    motor.getRuntimeService().startProcessInstanceByKey(PROCESSO,
+                        Map.of("beneficiarioId", "BEN-" + i, "valor", i * 10, "canal", "APP"));
+                }
+                return null;
+            }));
+        }
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        executor.shutdown();
+        return INSTANCIAS / segundos;
+    }
+
+    private static BpmnModelInstance modelo() {
+        AbstractFlowNodeBuilder<?, ?> fluxo = Bpmn.createExecutableProcess(PROCESSO).startEvent("inicio");
+        for (int passo = 1; passo <= PASSOS; passo++) {
+            fluxo = fluxo.serviceTask("passo" + passo)
+                .camundaExpression("${execution.setVariable('passo" + passo + "', true)}");
+        }
+        return fluxo.endEvent("fim").done();
+    }
+
+    private static ProcessEngine motor(String nome, HistoricoColunarEventHandler handler) {
+        ProcessEngineConfigurationImpl configuracao = new StandaloneInMemProcessEngineConfiguration();
+        configuracao.setProcessEngineName(nome);
+        configuracao.setJdbcUrl("jdbc:h2:mem:" + nome + ";DB_CLOSE_DELAY=1000");
+        configuracao.setHistory(ProcessEngineConfiguration.HISTORY_FULL);
+        configuracao.setJobExecutorActivate(false);
+        configuracao.setMetricsEnabled(false);
+        if (handler != null) {
+            configuracao.setHistoryEventHandler(handler);
+        }
+        return configuracao.buildProcessEngine();
+    }
+}
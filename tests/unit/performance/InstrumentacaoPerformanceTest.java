@@ -0,0 +1,56 @@
+package com.austa.saude.experiencia.test.unit.performance;
+
+import br.com.austa.experiencia.service.instrumentacao.Medidor;
+import br.com.austa.experiencia.service.instrumentacao.RegistroInstrumentacao;
+import br.com.austa.experiencia.service.instrumentacao.TipoChamadaExterna;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cost of the per-task instrumentation
+ *
+ * Coverage:
+ * - Overhead per instrumented task (start, 4 variable writes, 1 outbound call, end)
+ */
+@DisplayName("Instrumentacao Performance Tests")
+class InstrumentacaoPerformanceTest {
+
+    private final RegistroInstrumentacao registro = new RegistroInstrumentacao();
+
+    @Test
+    @DisplayName("Should instrument a task in under 2 us")
+    void shouldKeepOverheadLow() {
+        Medidor atividade = registro.atividade("SUB-004", "Task_ConsultarDados", "serviceTask", "selfServiceService");
+        Medidor delegate = registro.delegate("selfServiceService");
+        String[] instancias = new String[1024];
+        for (int i = 0; i < instancias.length; i++) {
+            instancias[i] = "ai-" + i;
+        }
+        int execucoes = 2_000_000;
+
+        for (int i = 0; i < execucoes / 10; i++) {
+            executar(atividade, delegate, instancias[i & 1023]);
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < execucoes; i++) {
+            executar(atividade, delegate, instancias[i & 1023]);
+        }
+        double nanosPorTarefa = (System.nanoTime() - inicio) / (double) execucoes;
+
+        System.out.printf("Instrumentation overhead: %.0f ns per task (start, 4 variable writes, 1 outbound call, end)%n",
+            nanosPorTarefa);
+        assertThat(atividade.getVariaveisEscritas()).isEqualTo(4L * (execucoes + execucoes / 10));
+        assertThat(nanosPorTarefa).isLessThan(2_000.0);
+    }
+
+    private void executar(Medidor atividade, Medidor delegate, String instancia) {
+        registro.iniciar(atividade, delegate, instancia);
+        for (int v = 0; v < 4; v++) {
+            registro.variavelEscrita(64);
+        }
+        registro.chamadaExterna(TipoChamadaExterna.HTTP, "tasy.austa.local", 1_000);
+        registro.concluir(instancia);
+    }
+}
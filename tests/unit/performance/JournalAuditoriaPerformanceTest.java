@@ -0,0 +1,92 @@
+package com.austa.saude.experiencia.test.unit.performance;
+
+import br.com.austa.experiencia.service.auditoria.JournalAuditoria;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput of the group-commit audit journal
+ *
+ * Coverage:
+ * - Records per second with group commit against one commit per record
+ */
+@DisplayName("Journal Auditoria Performance Tests")
+class JournalAuditoriaPerformanceTest {
+
+    private final List<JournalAuditoria> abertos = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (JournalAuditoria journal : abertos) {
+            journal.parar();
+        }
+    }
+
+    @Test
+    @DisplayName("Should sustain more records per second with group commit than with one commit per record")
+    void shouldOutpaceOneCommitPerRecord() throws Exception {
+        int threads = 16;
+        int porThread = 300;
+
+        JournalAuditoria individual = abrir(Files.createTempDirectory("auditoria-individual"), 1);
+        double taxaIndividual = medir(individual, threads, porThread);
+
+        JournalAuditoria grupo = abrir(Files.createTempDirectory("auditoria-grupo"), 512);
+        double taxaGrupo = medir(grupo, threads, porThread);
+
+        System.out.println("=== Audit Journal Benchmark ===");
+        System.out.printf("One commit per record: %.0f records/sec (%d fsyncs)%n",
+            taxaIndividual, individual.getCommits());
+        System.out.printf("Group commit: %.0f records/sec (%d fsyncs, %.1f records per fsync)%n",
+            taxaGrupo, grupo.getCommits(), (double) grupo.getRegistros() / grupo.getCommits());
+
+        assertThat(taxaGrupo).isGreaterThan(taxaIndividual);
+    }
+
+    private double medir(JournalAuditoria journal, int threads, int porThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long inicio = System.nanoTime();
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            tarefas.add(executor.submit(() -> {
+                for (int i = 0; i < porThread; i++) {
+                    // like LogAuditoriaDelegate: each step waits for its own record to be durable
+                    journal.registrar("PROC-" + thread + "-" + i, "Task_Auditada",
+                        Map.of("tipoEvento", "EXECUCAO_ATIVIDADE", "clienteId", "BEN-" + i)).get(30, TimeUnit.SECONDS);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        executor.shutdown();
+        return threads * porThread / segundos;
+    }
+
+    private JournalAuditoria abrir(Path diretorio, int grupoMax) throws IOException {
+        JournalAuditoria journal = new JournalAuditoria(new ObjectMapper(), diretorio, 16 << 20, grupoMax,
+            4096, Clock.systemUTC());
+        journal.iniciar();
+        abertos.add(journal);
+        return journal;
+    }
+}
@@ -0,0 +1,82 @@
+package com.austa.saude.experiencia.test.unit.performance;
+
+import br.com.austa.experiencia.service.jornada.MonitorSlaJornada;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cost of the event-driven journey SLA monitor between events
+ *
+ * Coverage:
+ * - One day of one-minute ticks over 200,000 open journeys with no checkpoint due
+ */
+@DisplayName("Monitor SLA Jornada Performance Tests")
+class MonitorSlaJornadaPerformanceTest {
+
+    private static final long MINUTO = 60_000L;
+
+    @Test
+    @DisplayName("Should keep an idle tick under 1 ms with 200,000 open journeys")
+    void shouldKeepIdleTicksCheap() throws Exception {
+        RelogioManual relogio = new RelogioManual(Instant.parse("2025-12-01T12:00:00Z"));
+        MonitorSlaJornada monitor = new MonitorSlaJornada(Files.createTempDirectory("jornada-sla"), MINUTO, 30,
+            100_000, relogio, intervencao -> { });
+        int jornadas = 200_000;
+        for (int i = 0; i < jornadas; i++) {
+            monitor.registrarMarco("PROC-" + i, "BEN-" + i, 1, "ETAPA_1", "CONCLUIDA", true, 30 + i % 60,
+                relogio.millis());
+        }
+
+        long inicio = System.nanoTime();
+        int emitidas = 0;
+        for (int tick = 0; tick < 1440; tick++) {
+            relogio.agora += MINUTO;
+            emitidas += monitor.processarVencidos();
+        }
+        long nanos = System.nanoTime() - inicio;
+
+        System.out.println("=== Journey SLA Monitor (200,000 open journeys) ===");
+        System.out.printf("1440 idle ticks: %.1f ms total, %.1f us per tick, %d timers pending%n",
+            nanos / 1e6, nanos / 1440 / 1e3, monitor.getTimersPendentes());
+
+        assertThat(emitidas).isZero();
+        assertThat(nanos / 1440).isLessThan(1_000_000L);
+    }
+
+    private static final class RelogioManual extends Clock {
+
+        long agora;
+
+        RelogioManual(Instant inicio) {
+            this.agora = inicio.toEpochMilli();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(agora);
+        }
+
+        @Override
+        public long millis() {
+            return agora;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.austa.saude.experiencia.test.unit.performance;
+
+import br.com.austa.experiencia.service.blobs.ArmazenamentoBlobsDisco;
+import br.com.austa.experiencia.service.blobs.RepositorioConteudo;
+import br.com.austa.experiencia.service.variaveis.PerfilVariaveis;
+import br.com.austa.experiencia.service.variaveis.PoliticasVariaveis;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput of process-variable compression
+ *
+ * Coverage:
+ * - Write and read of a compressed 360-degree context payload
+ */
+@DisplayName("Perfil Variaveis Performance Tests")
+class PerfilVariaveisPerformanceTest {
+
+    @Test
+    @DisplayName("Should compress and restore a 360-degree context payload at more than 10 MB/s")
+    void shouldCompressContextQuickly() throws Exception {
+        RepositorioConteudo repositorio = new RepositorioConteudo(
+            new ArmazenamentoBlobsDisco(Files.createTempDirectory("variaveis").toString()), new ObjectMapper(), 64 * 1024);
+        PerfilVariaveis perfil = new PerfilVariaveis(repositorio, new PoliticasVariaveis(16 * 1024, 64 * 1024,
+            512 * 1024, PoliticasVariaveis.parseRegras("contexto360:COMPRIMIR:8192")), 100);
+        byte[] serializado = serializar(contexto(3_000));
+        int rodadas = 50;
+        byte[] armazenado = null;
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < rodadas; i++) {
+            armazenado = perfil.armazenar("SUB-004", "contexto360", serializado);
+            perfil.restaurar("SUB-004", "contexto360", armazenado);
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        double megabytesPorSegundo = rodadas * serializado.length / segundos / (1024 * 1024);
+
+        System.out.printf("contexto360: %d KB serialized, %d KB stored (%.1fx), %.0f MB/s write+read%n",
+            serializado.length / 1024, armazenado.length / 1024, (double) serializado.length / armazenado.length,
+            megabytesPorSegundo);
+        assertThat(armazenado.length).isLessThan(serializado.length / 4);
+        assertThat(megabytesPorSegundo).isGreaterThan(10.0);
+    }
+
+    private static Map<String, Object> contexto(int eventos) {
+        Random random = new Random(42);
+        List<Map<String, Object>> atendimentos = new ArrayList<>();
+        for (int i = 0; i < eventos; i++) {
+            Map<String, Object> atendimento = new LinkedHashMap<>();
+            atendimento.put("data", "2026-0" + (1 + i % 9) + "-1" + (i % 10));
+            atendimento.put("tipo", i % 3 == 0 ? "CONSULTA" : i % 3 == 1 ? "EXAME" : "INTERNACAO");
+            atendimento.put("prestador", "Hospital Austa - unidade " + (i % 7));
+            atendimento.put("cid", "J" + (10 + random.nextInt(90)));
+            atendimento.put("valor", 100 + random.nextInt(5_000));
+            atendimentos.add(atendimento);
+        }
+        Map<String, Object> contexto = new HashMap<>();
+        contexto.put("beneficiarioId", "BEN-000123");
+        contexto.put("atendimentos", atendimentos);
+        return contexto;
+    }
+
+    private static byte[] serializar(Object valor) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(saida)) {
+            out.writeObject(valor);
+        }
+        return saida.toByteArray();
+    }
+}
@@ -0,0 +1,48 @@
+package com.austa.saude.experiencia.test.unit.performance;
+
+import br.com.austa.experiencia.service.rastreamento.ColetorSpans;
+import br.com.austa.experiencia.service.rastreamento.Rastreador;
+import br.com.austa.experiencia.service.rastreamento.Span;
+import br.com.austa.experiencia.service.rastreamento.TipoSpan;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Overhead of distributed tracing
+ *
+ * Coverage:
+ * - Cost per span of an activity span with one nested client span
+ */
+@DisplayName("Rastreamento Performance Tests")
+class RastreamentoPerformanceTest {
+
+    @Test
+    @DisplayName("Should keep the overhead per span under 20 us")
+    void shouldKeepOverheadPerSpanLow() {
+        Rastreador rastreador = new Rastreador(new ColetorSpans(1000), null, 1.0, 1 << 20, 512, 1000, Clock.systemUTC());
+        int iteracoes = 200_000;
+        for (int aquecimento = 0; aquecimento < 2; aquecimento++) {
+            long inicio = System.nanoTime();
+            for (int i = 0; i < iteracoes; i++) {
+                Span atividade = rastreador.iniciar("atividade", TipoSpan.INTERNO);
+                rastreador.ativar(atividade);
+                rastreador.iniciar("GET tasy", TipoSpan.CLIENTE).atributo("server.address", "tasy").finalizar();
+                atividade.finalizar();
+                if ((i & 4095) == 0) {
+                    rastreador.descarregar();
+                }
+            }
+            long nanos = System.nanoTime() - inicio;
+            rastreador.descarregar();
+            if (aquecimento == 1) {
+                System.out.printf("Tracing: %d spans in %d ms (%.0f ns per span, %d dropped)%n",
+                    2L * iteracoes, nanos / 1_000_000, nanos / (2.0 * iteracoes), rastreador.getSpansDescartados());
+                assertThat(nanos / (2.0 * iteracoes)).isLessThan(20_000.0);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.austa.saude.experiencia.test.unit.performance;
+
+import br.com.austa.experiencia.service.utilizacao.RegistroUtilizacao;
+import br.com.austa.experiencia.service.utilizacao.TipoServicoUtilizacao;
+import br.com.austa.experiencia.service.utilizacao.UtilizacaoStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency of the utilization statement
+ *
+ * Coverage:
+ * - 2-year statement from monthly summaries vs a rebuild from raw claims
+ */
+@DisplayName("Utilizacao Store Performance Tests")
+class UtilizacaoStorePerformanceTest {
+
+    private static final LocalDate HOJE = LocalDate.of(2025, 12, 15);
+    private static final String[] PRESTADORES = {"PREST-1", "PREST-2", "PREST-3", "PREST-4"};
+
+    private UtilizacaoStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Clock clock = Clock.fixed(HOJE.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        store = new UtilizacaoStore(Files.createTempDirectory("utilizacao"), false, clock);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        store.fechar();
+    }
+
+    @Test
+    @DisplayName("Should build a 2-year statement from summaries faster than from raw claims")
+    void shouldOutpaceRawRebuild() throws Exception {
+        int beneficiarios = 200;
+        Map<String, List<RegistroUtilizacao>> porBeneficiario = new HashMap<>();
+        for (int b = 0; b < beneficiarios; b++) {
+            porBeneficiario.put("BEN-" + b, gerar("BEN-" + b, 480, new Random(b)));
+        }
+        LocalDate inicio = HOJE.minusYears(2).plusDays(1);
+
+        for (int aquecimento = 0; aquecimento < 3; aquecimento++) {
+            for (int b = 0; b < beneficiarios; b++) {
+                store.extrato("BEN-" + b, inicio, HOJE, null, "TIPO");
+                reconstruir(porBeneficiario.get("BEN-" + b), inicio, HOJE);
+            }
+        }
+
+        long t0 = System.nanoTime();
+        for (int b = 0; b < beneficiarios; b++) {
+            store.extrato("BEN-" + b, inicio, HOJE, null, "TIPO");
+        }
+        long nanosStore = System.nanoTime() - t0;
+
+        t0 = System.nanoTime();
+        for (int b = 0; b < beneficiarios; b++) {
+            reconstruir(porBeneficiario.get("BEN-" + b), inicio, HOJE);
+        }
+        long nanosBrutos = System.nanoTime() - t0;
+
+        System.out.println("=== Utilization Statement Benchmark (200 beneficiaries, 480 claims, 2 years) ===");
+        System.out.printf("Raw claims rebuild: %.1f us per statement%n", nanosBrutos / 1e3 / beneficiarios);
+        System.out.printf("Monthly summaries:  %.1f us per statement%n", nanosStore / 1e3 / beneficiarios);
+
+        assertThat(nanosStore).isLessThan(nanosBrutos);
+    }
+
+    private List<RegistroUtilizacao> gerar(String beneficiarioId, int itens, Random random) throws IOException {
+        TipoServicoUtilizacao[] tipos = TipoServicoUtilizacao.values();
+        List<RegistroUtilizacao> registrados = new ArrayList<>();
+        for (int i = 0; i < itens; i++) {
+            RegistroUtilizacao registro = new RegistroUtilizacao(beneficiarioId.hashCode() * 10_000L + i,
+                beneficiarioId, HOJE.minusDays(random.nextInt(740)), "10101012", tipos[random.nextInt(tipos.length)],
+                PRESTADORES[random.nextInt(PRESTADORES.length)],
+                BigDecimal.valueOf(1_000 + random.nextInt(90_000), 2), false);
+            if (store.registrar(registro)) {
+                registrados.add(registro);
+            }
+        }
+        return registrados;
+    }
+
+    /**
+     * What the statement took before the store: filter and group every raw claim of the period.
+     */
+    private static Map<String, BigDecimal> reconstruir(List<RegistroUtilizacao> registros, LocalDate inicio,
+                                                       LocalDate fim) {
+        Map<String, BigDecimal> linhas = new TreeMap<>();
+        for (RegistroUtilizacao registro : registros) {
+            LocalDate data = registro.getDataAtendimento();
+            if (data.isBefore(inicio) || data.isAfter(fim)) {
+                continue;
+            }
+            BigDecimal item = registro.isEstorno() ? registro.getValor().negate() : registro.getValor();
+            linhas.merge(registro.getTipoServico().name(), item, BigDecimal::add);
+        }
+        return linhas;
+    }
+}
@@ -0,0 +1,293 @@
+package com.austa.saude.experiencia.test.unit.prestadores;
+
+import br.com.austa.experiencia.service.prestadores.AgregadorNotificacoesPrestador;
+import br.com.austa.experiencia.service.prestadores.CacheContatosPrestador;
+import br.com.austa.experiencia.service.prestadores.CanalNotificacao;
+import br.com.austa.experiencia.service.prestadores.ContatoPrestador;
+import br.com.austa.experiencia.service.prestadores.EntregaDigest;
+import br.com.austa.experiencia.service.prestadores.EnvioNotificacaoPrestador;
+import br.com.austa.experiencia.service.prestadores.NotificacaoDecisao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for per-provider notification digests
+ *
+ * Coverage:
+ * - Decisions buffered per provider and flushed when the buffer is full
+ * - Time-window flush, one digest per provider and channel
+ * - Urgent denials sent immediately, taking along pending decisions
+ * - Failed digests retried without losing decisions
+ * - Decisions still waiting recovered after a restart, delivered ones not
+ * - Contact data looked up once per TTL
+ * - Redelivered decisions taken once; buffers of providers moved elsewhere flushed
+ */
+@DisplayName("Agregador Notificacoes Prestador Tests")
+class AgregadorNotificacoesPrestadorTest {
+
+    private static final Duration JANELA = Duration.ofMinutes(5);
+
+    private RelogioManual relogio;
+    private EnvioFalso envio;
+    private AtomicInteger consultasContato;
+    private CacheContatosPrestador contatos;
+    private Path diretorio;
+    private AgregadorNotificacoesPrestador agregador;
+    private int sequencia;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        diretorio = Files.createTempDirectory("prestadores-digest");
+        relogio = new RelogioManual(Instant.parse("2026-03-02T12:00:00Z"));
+        envio = new EnvioFalso();
+        consultasContato = new AtomicInteger();
+        contatos = new CacheContatosPrestador(prestadorId -> {
+            consultasContato.incrementAndGet();
+            return prestadorId.startsWith("HOSP")
+                ? new ContatoPrestador("faturamento@hospital.com", null, "https://portal", CanalNotificacao.PORTAL)
+                : new ContatoPrestador("clinica@clinica.com", "+5511999999999", null, CanalNotificacao.EMAIL);
+        }, Duration.ofHours(1), relogio);
+        agregador = novoAgregador(100);
+    }
+
+    @Test
+    @DisplayName("Should send one digest when the provider's buffer is full")
+    void shouldFlushWhenFull() {
+        NotificacaoDecisao primeira = decisao("HOSP-1", "APROVADA");
+        assertThat(agregador.registrar(primeira)).isEqualTo(CanalNotificacao.PORTAL);
+        agregador.registrar(decisao("HOSP-1", "APROVADA"));
+
+        assertThat(envio.enviados).isEmpty();
+        assertThat(agregador.getPendentes()).isEqualTo(2);
+        assertThat(agregador.entregaDaDecisao(primeira.getProtocolo())).isEmpty();
+
+        agregador.registrar(decisao("HOSP-1", "APROVADA"));
+
+        assertThat(envio.enviados).hasSize(1);
+        assertThat(envio.enviados.get(0)).hasSize(3);
+        assertThat(agregador.getPendentes()).isEqualTo(0);
+        EntregaDigest entrega = agregador.entregaDaDecisao(primeira.getProtocolo()).get();
+        assertThat(entrega.getPrestadorId()).isEqualTo("HOSP-1");
+        assertThat(entrega.getCanal()).isEqualTo(CanalNotificacao.PORTAL);
+        assertThat(entrega.getProtocolosDecisoes()).hasSize(3);
+        assertThat(entrega.getProtocolosDecisoes()).contains(primeira.getProtocolo());
+
+        assertThat(agregador.confirmarEntrega(entrega.getProtocolo())).isTrue();
+        assertThat(agregador.entrega(entrega.getProtocolo()).get().isConfirmado()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should flush each provider's digest when its window closes")
+    void shouldFlushWhenWindowCloses() {
+        agregador.registrar(decisao("HOSP-1", "APROVADA"));
+        relogio.avancar(Duration.ofMinutes(2));
+        agregador.registrar(decisao("CLIN-7", "APROVADA"));
+        agregador.registrar(decisao("CLIN-7", "PENDENTE_DOCUMENTACAO"));
+
+        relogio.avancar(Duration.ofMinutes(3));
+        agregador.descarregarVencidos();
+
+        assertThat(envio.enviados).hasSize(1);
+        assertThat(envio.canais).containsExactly(CanalNotificacao.PORTAL);
+        assertThat(agregador.getPendentes()).isEqualTo(2);
+
+        relogio.avancar(Duration.ofMinutes(2));
+        agregador.descarregarVencidos();
+
+        assertThat(envio.enviados).hasSize(2);
+        assertThat(envio.canais).containsExactly(CanalNotificacao.PORTAL, CanalNotificacao.EMAIL);
+        assertThat(envio.enviados.get(1)).hasSize(2);
+        assertThat(agregador.getDigestsEnviados()).isEqualTo(2L);
+        assertThat(agregador.getDecisoesEnviadas()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Should send denials at once together with the decisions already waiting")
+    void shouldBypassForDenials() {
+        NotificacaoDecisao aprovada = decisao("HOSP-1", "APROVADA");
+        agregador.registrar(aprovada);
+        agregador.registrar(decisao("HOSP-2", "APROVADA"));
+
+        NotificacaoDecisao negada = decisao("HOSP-1", "NEGADA");
+        agregador.registrar(negada);
+
+        assertThat(envio.enviados).hasSize(1);
+        assertThat(envio.enviados.get(0)).containsExactly(negada, aprovada);
+        assertThat(agregador.entregaDaDecisao(negada.getProtocolo()).get().getProtocolo())
+            .isEqualTo(agregador.entregaDaDecisao(aprovada.getProtocolo()).get().getProtocolo());
+        assertThat(agregador.getEnviosImediatos()).isEqualTo(1L);
+        assertThat(agregador.getPendentes()).isEqualTo(1);
+        assertThat((String) negada.toMap().get("prazoRecurso")).isEqualTo("30 dias");
+    }
+
+    @Test
+    @DisplayName("Should keep a failed digest and retry it on the next check")
+    void shouldRetryFailedDigest() {
+        agregador.registrar(decisao("HOSP-1", "APROVADA"));
+        agregador.registrar(decisao("HOSP-1", "APROVADA"));
+        relogio.avancar(JANELA);
+
+        envio.falhar = true;
+        agregador.descarregarVencidos();
+        assertThat(agregador.getFalhasEnvio()).isEqualTo(1L);
+        assertThat(agregador.getPendentes()).isEqualTo(2);
+
+        envio.falhar = false;
+        agregador.descarregarVencidos();
+
+        assertThat(envio.enviados).hasSize(1);
+        assertThat(envio.enviados.get(0)).hasSize(2);
+        assertThat(agregador.getPendentes()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("Should recover the decisions still waiting after a restart")
+    void shouldRecoverPendingAfterRestart() throws Exception {
+        agregador = novoAgregador(2);
+        NotificacaoDecisao primeira = decisao("HOSP-1", "APROVADA");
+        agregador.registrar(primeira);
+        agregador.registrar(decisao("CLIN-7", "APROVADA"));
+        for (int i = 0; i < 3; i++) {
+            agregador.registrar(decisao("HOSP-2", "APROVADA"));
+        }
+        assertThat(envio.enviados).hasSize(1);
+
+        // crash: nothing flushed, the log is simply reopened
+        relogio.avancar(Duration.ofMinutes(2));
+        AgregadorNotificacoesPrestador reiniciado = novoAgregador(2);
+        assertThat(reiniciado.getPendentes()).isEqualTo(2);
+
+        // the window keeps counting from when the decision was first queued
+        relogio.avancar(Duration.ofMinutes(3));
+        reiniciado.descarregarVencidos();
+        assertThat(envio.enviados).hasSize(3);
+        assertThat(reiniciado.getPendentes()).isZero();
+        assertThat(reiniciado.entregaDaDecisao(primeira.getProtocolo())).isPresent();
+        NotificacaoDecisao recuperada = envio.enviados.stream().flatMap(List::stream)
+            .filter(d -> d.getProtocolo().equals(primeira.getProtocolo())).findFirst().get();
+        assertThat(recuperada.getBeneficiarioId()).isEqualTo(primeira.getBeneficiarioId());
+        assertThat(recuperada.getDataDecisao()).isEqualTo(primeira.getDataDecisao());
+
+        envio.falhar = true;
+        reiniciado.registrar(decisao("HOSP-1", "APROVADA"));
+        reiniciado.parar();
+        assertThat(novoAgregador(2).getPendentes()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should look contact data up once per provider per TTL")
+    void shouldCacheContacts() {
+        for (int i = 0; i < 10; i++) {
+            agregador.registrar(decisao("HOSP-1", "APROVADA"));
+        }
+        agregador.descarregarTodos();
+        assertThat(consultasContato.get()).isEqualTo(1);
+        assertThat(agregador.getDecisoesEnviadas()).isEqualTo(10L);
+        assertThat(envio.enviados).hasSize(4);
+
+        relogio.avancar(Duration.ofMinutes(61));
+        agregador.registrar(decisao("HOSP-1", "APROVADA"));
+        assertThat(consultasContato.get()).isEqualTo(2);
+        assertThat(contatos.getAcertos()).isGreaterThan(8L);
+    }
+
+    @Test
+    @DisplayName("Should take a redelivered decision once and flush providers owned elsewhere")
+    void shouldIgnoreRedeliveriesAndFlushMovedProviders() {
+        NotificacaoDecisao pendente = decisao("HOSP-1", "APROVADA");
+        agregador.registrar(pendente);
+        agregador.registrar(pendente);
+        NotificacaoDecisao negada = decisao("HOSP-2", "NEGADA");
+        agregador.registrar(negada);
+        agregador.registrar(negada);
+        agregador.registrar(decisao("CLIN-7", "APROVADA"));
+
+        assertThat(agregador.getPendentes()).isEqualTo(2);
+        assertThat(envio.enviados).hasSize(1);
+
+        // HOSP-1 moved to another instance: its buffer goes out now, CLIN-7 keeps waiting
+        agregador.descarregar(prestadorId -> prestadorId.startsWith("HOSP"));
+
+        assertThat(envio.enviados).hasSize(2);
+        assertThat(envio.enviados.get(1)).containsExactly(pendente);
+        assertThat(agregador.getPendentes()).isEqualTo(1);
+    }
+
+    private AgregadorNotificacoesPrestador novoAgregador(int compactarApos) throws IOException {
+        return new AgregadorNotificacoesPrestador(contatos, envio, 3, JANELA, 1000, diretorio, compactarApos, relogio);
+    }
+
+    private NotificacaoDecisao decisao(String prestadorId, String decisao) {
+        sequencia++;
+        return new NotificacaoDecisao("PROV-" + sequencia, prestadorId, decisao, "AUT-" + sequencia,
+            "Justificativa " + sequencia, "SOL-" + sequencia, "BEN-" + sequencia, "40301630",
+            LocalDateTime.ofInstant(relogio.instant(), ZoneOffset.UTC));
+    }
+
+    private static final class EnvioFalso implements EnvioNotificacaoPrestador {
+
+        final List<List<NotificacaoDecisao>> enviados = new ArrayList<>();
+        final List<CanalNotificacao> canais = new ArrayList<>();
+        boolean falhar;
+
+        @Override
+        public String enviar(String prestadorId, CanalNotificacao canal, ContatoPrestador contato,
+                             List<NotificacaoDecisao> decisoes) {
+            if (falhar) {
+                throw new IllegalStateException("portal unavailable");
+            }
+            enviados.add(new ArrayList<>(decisoes));
+            canais.add(canal);
+            return "DIG-" + enviados.size();
+        }
+    }
+
+    private static final class RelogioManual extends Clock {
+
+        long agora;
+
+        RelogioManual(Instant inicio) {
+            this.agora = inicio.toEpochMilli();
+        }
+
+        void avancar(Duration duracao) {
+            agora += duracao.toMillis();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(agora);
+        }
+
+        @Override
+        public long millis() {
+            return agora;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.austa.saude.experiencia.test.unit.projecao;
+
+import br.com.austa.experiencia.model.dto.StatusAutorizacaoDTO;
+import br.com.austa.experiencia.service.projecao.AutorizacaoResumo;
+import br.com.austa.experiencia.service.projecao.ProjecaoStatusAutorizacao;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the authorization status read model used by self-service
+ *
+ * Coverage:
+ * - Generate, update and cancel events folded into one status, by authorization or guide number
+ * - Authorizations of another beneficiary are not disclosed
+ * - Redelivered and out-of-order events leave the view unchanged
+ * - Per-beneficiary list newest first and capped
+ * - Memory-mapped snapshot restores view and partition offsets
+ * - Status queries answered in microseconds
+ */
+@DisplayName("Projecao Status Autorizacao Tests")
+class ProjecaoStatusAutorizacaoTest {
+
+    private static final Instant T0 = Instant.parse("2025-12-11T12:00:00Z");
+
+    @Test
+    @DisplayName("Should fold the authorization lifecycle into its latest status")
+    void shouldFoldLifecycle() {
+        ProjecaoStatusAutorizacao projecao = new ProjecaoStatusAutorizacao("", 60_000, 100);
+
+        projecao.aplicar(new AutorizacaoResumo("20251211-00000001-7", "G-100", "BEN-1", "EXAME",
+            "PENDENTE", "Aguardando análise técnica", T0), 0, 10);
+        assertThat(projecao.consultarStatus("G-100", "BEN-1").get().getStatus()).isEqualTo("PENDENTE");
+
+        projecao.aplicar(new AutorizacaoResumo("20251211-00000001-7", null, "BEN-1", null,
+            "NEGADA", "Fora do protocolo clínico", T0.plusSeconds(60)), 0, 11);
+        StatusAutorizacaoDTO negada = projecao.consultarStatus("20251211-00000001-7", "BEN-1").get();
+        assertThat(negada.getStatus()).isEqualTo("NEGADA");
+        assertThat(negada.getObservacoes()).isEqualTo("Fora do protocolo clínico");
+        assertThat(negada.isPodeRecorrer()).isTrue();
+
+        projecao.aplicar(new AutorizacaoResumo("20251211-00000001-7", null, "BEN-1", null,
+            "CANCELADA", null, T0.plusSeconds(120)), 0, 12);
+        AutorizacaoResumo resumo = projecao.buscar("G-100").get();
+        assertThat(resumo.getStatus()).isEqualTo("CANCELADA");
+        assertThat(resumo.getTipoProcedimento()).isEqualTo("EXAME");
+        assertThat(resumo.getObservacoes()).isEqualTo("Fora do protocolo clínico");
+        assertThat(resumo.isPodeRecorrer()).isFalse();
+
+        assertThat(projecao.consultarStatus("G-100", "BEN-2")).isEmpty();
+        assertThat(projecao.consultarStatus("G-999", null)).isEmpty();
+        assertThat(projecao.offsets()).containsEntry(0, 12L);
+    }
+
+    @Test
+    @DisplayName("Should ignore redelivered and older events")
+    void shouldBeIdempotent() {
+        ProjecaoStatusAutorizacao projecao = new ProjecaoStatusAutorizacao("", 60_000, 100);
+        AutorizacaoResumo aprovada = new AutorizacaoResumo("A-1", "G-1", "BEN-1", "CONSULTA",
+            "APROVADA", null, T0.plusSeconds(30));
+
+        projecao.aplicar(aprovada);
+        projecao.aplicar(new AutorizacaoResumo("A-1", "G-1", "BEN-1", "CONSULTA", "PENDENTE", null, T0));
+        projecao.aplicar(aprovada);
+
+        assertThat(projecao.buscar("A-1").get().getStatus()).isEqualTo("APROVADA");
+        assertThat(projecao.doBeneficiario("BEN-1")).hasSize(1);
+        assertThat(projecao.getAutorizacoes()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should list the beneficiary's authorizations newest first within the cap")
+    void shouldListNewestFirstWithinCap() {
+        ProjecaoStatusAutorizacao projecao = new ProjecaoStatusAutorizacao("", 60_000, 3);
+        for (int i = 0; i < 5; i++) {
+            projecao.aplicar(new AutorizacaoResumo("A-" + i, "G-" + i, "BEN-1", "EXAME", "APROVADA", null,
+                T0.plusSeconds(i)));
+        }
+        // an update moves an old authorization back to the top
+        projecao.aplicar(new AutorizacaoResumo("A-2", null, "BEN-1", null, "CANCELADA", null, T0.plusSeconds(10)));
+
+        List<AutorizacaoResumo> lista = projecao.doBeneficiario("BEN-1");
+        assertThat(lista).extracting(AutorizacaoResumo::getNumeroAutorizacao).containsExactly("A-2", "A-4", "A-3");
+        assertThat(projecao.buscar("A-1")).isEmpty();
+        assertThat(projecao.buscar("G-0")).isEmpty();
+        assertThat(projecao.doBeneficiario("BEN-9")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should restore view and offsets from the memory-mapped snapshot")
+    void shouldRestoreFromSnapshot() throws Exception {
+        Path diretorio = Files.createTempDirectory("projecao");
+        String caminho = diretorio.resolve("status-autorizacao.snap").toString();
+
+        ProjecaoStatusAutorizacao original = new ProjecaoStatusAutorizacao(caminho, 60_000, 100);
+        original.iniciar();
+        original.aplicar(new AutorizacaoResumo("A-1", "G-1", "BEN-1", "EXAME", "NEGADA",
+            "Carência até 2026-01-10 – eletivo", T0), 0, 41);
+        original.aplicar(new AutorizacaoResumo("A-2", null, "BEN-2", null, "APROVADA", null, T0), 3, 7);
+        original.parar();
+
+        ProjecaoStatusAutorizacao restaurada = new ProjecaoStatusAutorizacao(caminho, 60_000, 100);
+        restaurada.iniciar();
+        try {
+            assertThat(restaurada.getAutorizacoes()).isEqualTo(2);
+            assertThat(restaurada.consultarStatus("G-1", "BEN-1").get().getObservacoes())
+                .isEqualTo("Carência até 2026-01-10 – eletivo");
+            assertThat(restaurada.buscar("A-2").get().getNumeroGuia()).isNull();
+            assertThat(restaurada.doBeneficiario("BEN-2")).hasSize(1);
+            Map<Integer, Long> offsets = restaurada.offsets();
+            assertThat(offsets).containsEntry(0, 41L).containsEntry(3, 7L);
+        } finally {
+            restaurada.parar();
+        }
+        assertThat(Files.exists(diretorio.resolve("status-autorizacao.snap.tmp"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should answer status queries in microseconds")
+    void shouldAnswerInMicroseconds() {
+        ProjecaoStatusAutorizacao projecao = new ProjecaoStatusAutorizacao("", 60_000, 100);
+        int autorizacoes = 100_000;
+        for (int i = 0; i < autorizacoes; i++) {
+            projecao.aplicar(new AutorizacaoResumo("A-" + i, "G-" + i, "BEN-" + (i % 20_000), "EXAME",
+                "APROVADA", null, T0.plusSeconds(i)));
+        }
+
+        String[] guias = new String[autorizacoes];
+        for (int i = 0; i < autorizacoes; i++) {
+            guias[i] = "G-" + i;
+        }
+        for (int i = 0; i < 200_000; i++) {
+            projecao.consultarStatus(guias[i % autorizacoes], null);
+        }
+
+        int consultas = 1_000_000;
+        long inicio = System.nanoTime();
+        int encontradas = 0;
+        for (int i = 0; i < consultas; i++) {
+            if (projecao.consultarStatus(guias[(int) ((i * 7919L) % autorizacoes)], null).isPresent()) {
+                encontradas++;
+            }
+        }
+        double microsPorConsulta = (System.nanoTime() - inicio) / 1_000.0 / consultas;
+
+        assertThat(encontradas).isEqualTo(consultas);
+        assertThat(microsPorConsulta).isLessThan(5.0);
+    }
+}
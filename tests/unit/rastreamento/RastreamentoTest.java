@@ -0,0 +1,256 @@
+package com.austa.saude.experiencia.test.unit.rastreamento;
+
+import br.com.austa.experiencia.service.rastreamento.ColetorSpans;
+import br.com.austa.experiencia.service.rastreamento.ContextoSpan;
+import br.com.austa.experiencia.service.rastreamento.ExportadorOtlp;
+import br.com.austa.experiencia.service.rastreamento.Rastreador;
+import br.com.austa.experiencia.service.rastreamento.Span;
+import br.com.austa.experiencia.service.rastreamento.TipoSpan;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for distributed tracing of journeys
+ *
+ * Coverage:
+ * - W3C traceparent round trip; malformed headers start a new trace
+ * - Sampling is decided at the root and inherited by children
+ * - Parent/child through the thread's active span and across a thread pool hand-off
+ * - Critical path of a trace with parallel and nested children
+ * - OTLP/JSON export to a collector; a failing collector loses no collector-side spans
+ * - A full export queue drops spans instead of blocking
+ *
+ * Overhead per span is measured in RastreamentoPerformanceTest.
+ */
+@DisplayName("Rastreamento Tests")
+class RastreamentoTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private HttpServer coletorOtlp;
+
+    @AfterEach
+    void tearDown() {
+        if (coletorOtlp != null) {
+            coletorOtlp.stop(0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should round-trip traceparent and reject malformed headers")
+    void shouldRoundTripTraceparent() {
+        Rastreador rastreador = rastreador(1.0, 100, Clock.systemUTC(), null);
+        Span span = rastreador.iniciar("raiz", TipoSpan.INTERNO, null);
+        String traceparent = span.getContexto().traceparent();
+
+        assertThat(traceparent).matches("00-[0-9a-f]{32}-[0-9a-f]{16}-01");
+        assertThat(ContextoSpan.deTraceparent(traceparent)).isEqualTo(span.getContexto());
+        assertThat(ContextoSpan.deTraceparent(traceparent).isAmostrado()).isTrue();
+        assertThat(ContextoSpan.deTraceparent("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-00").isAmostrado())
+            .isFalse();
+
+        assertThat(ContextoSpan.deTraceparent(null)).isNull();
+        assertThat(ContextoSpan.deTraceparent("00-00000000000000000000000000000000-00f067aa0ba902b7-01")).isNull();
+        assertThat(ContextoSpan.deTraceparent("00-4BF92F3577B34DA6A3CE929D0E0E4736-00f067aa0ba902b7-01")).isNull();
+        assertThat(ContextoSpan.deTraceparent("garbage")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should sample roots at the configured ratio and let children inherit the decision")
+    void shouldSampleAtRoot() {
+        Rastreador rastreador = rastreador(0.25, 100_000, Clock.systemUTC(), null);
+        int amostrados = 0;
+        for (int i = 0; i < 20_000; i++) {
+            Span raiz = rastreador.iniciar("raiz", TipoSpan.INTERNO, null);
+            Span filho = rastreador.iniciar("filho", TipoSpan.CLIENTE, raiz.getContexto());
+            assertThat(filho.getContexto().isAmostrado()).isEqualTo(raiz.getContexto().isAmostrado());
+            assertThat(filho.getTraceId()).isEqualTo(raiz.getTraceId());
+            if (raiz.getContexto().isAmostrado()) {
+                amostrados++;
+            }
+            filho.finalizar();
+            raiz.finalizar();
+        }
+        rastreador.descarregar();
+
+        assertThat(amostrados / 20_000.0).isBetween(0.23, 0.27);
+        assertThat(rastreador.getSpansExportados()).isEqualTo(2L * amostrados);
+    }
+
+    @Test
+    @DisplayName("Should nest spans under the active one and continue the trace on another thread")
+    void shouldPropagateAcrossThreads() throws Exception {
+        Rastreador rastreador = rastreador(1.0, 100, Clock.systemUTC(), null);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        AtomicReference<Span> naPool = new AtomicReference<>();
+
+        Span consumo = rastreador.iniciar("consumir topico", TipoSpan.CONSUMIDOR);
+        rastreador.ativar(consumo);
+        Span chamada = rastreador.iniciar("GET tasy", TipoSpan.CLIENTE);
+        chamada.finalizar();
+        ContextoSpan origem = rastreador.atual();
+        pool.submit(() -> rastreador.executar("correlacionar Msg", origem,
+            () -> naPool.set(rastreador.iniciar("processo", TipoSpan.INTERNO)))).get(5, TimeUnit.SECONDS);
+        consumo.finalizar();
+        naPool.get().finalizar();
+        pool.shutdown();
+
+        assertThat(rastreador.atual()).isNull();
+        assertThat(chamada.getPaiSpanId()).isEqualTo(consumo.getSpanId());
+        assertThat(naPool.get().getTraceId()).isEqualTo(consumo.getTraceId());
+
+        rastreador.descarregar();
+        List<Span> spans = rastreador.getColetor().spans(consumo.getTraceId());
+        assertThat(spans).hasSize(4);
+        Span correlacao = spans.stream().filter(s -> s.getNome().startsWith("correlacionar")).findFirst().get();
+        assertThat(correlacao.getPaiSpanId()).isEqualTo(consumo.getSpanId());
+        assertThat(naPool.get().getPaiSpanId()).isEqualTo(correlacao.getSpanId());
+    }
+
+    @Test
+    @DisplayName("Should follow the last-finishing child back from the end of the trace")
+    void shouldComputeCriticalPath() {
+        RelogioManual relogio = new RelogioManual();
+        Rastreador rastreador = rastreador(1.0, 100, relogio, null);
+
+        // raiz 0-100: A 0-30, B 10-90 (B1 20-80 inside), C 40-60 in parallel
+        Span raiz = rastreador.iniciar("raiz", TipoSpan.INTERNO, null);
+        Span a = rastreador.iniciar("A", TipoSpan.CLIENTE, raiz.getContexto());
+        relogio.em(10);
+        Span b = rastreador.iniciar("B", TipoSpan.INTERNO, raiz.getContexto());
+        relogio.em(20);
+        Span b1 = rastreador.iniciar("B1", TipoSpan.CLIENTE, b.getContexto());
+        relogio.em(30);
+        a.finalizar();
+        relogio.em(40);
+        Span c = rastreador.iniciar("C", TipoSpan.PRODUTOR, raiz.getContexto());
+        relogio.em(60);
+        c.finalizar();
+        relogio.em(80);
+        b1.finalizar();
+        relogio.em(90);
+        b.finalizar();
+        relogio.em(100);
+        raiz.finalizar();
+        rastreador.descarregar();
+
+        List<Map<String, Object>> caminho = rastreador.getColetor().caminhoCritico(raiz.getTraceId());
+
+        assertThat(caminho.stream().map(s -> s.get("nome")).toList())
+            .containsExactly("A", "B", "B1", "B", "raiz");
+        assertThat(caminho.stream().map(s -> s.get("duracaoMicros")).toList())
+            .containsExactly(10_000L, 10_000L, 60_000L, 10_000L, 10_000L);
+        assertThat(caminho.get(2).get("deslocamentoMicros")).isEqualTo(20_000L);
+        assertThat(rastreador.getColetor().caminhoCritico("desconhecido")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should export OTLP/JSON to the collector and count a failing collector")
+    void shouldExportOtlp() throws Exception {
+        List<String> recebidos = new CopyOnWriteArrayList<>();
+        AtomicInteger status = new AtomicInteger(200);
+        coletorOtlp = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        coletorOtlp.createContext("/v1/traces", troca -> {
+            recebidos.add(new String(troca.getRequestBody().readAllBytes()));
+            troca.sendResponseHeaders(status.get(), -1);
+            troca.close();
+        });
+        coletorOtlp.start();
+        URI endpoint = URI.create("http://127.0.0.1:" + coletorOtlp.getAddress().getPort() + "/v1/traces");
+        Rastreador rastreador = rastreador(1.0, 100, Clock.systemUTC(),
+            new ExportadorOtlp(endpoint, "austa-experiencia", objectMapper));
+
+        Span raiz = rastreador.iniciar("processo PROC-001", TipoSpan.INTERNO, null);
+        Span chamada = rastreador.iniciar("POST tasy", TipoSpan.CLIENTE, raiz.getContexto())
+            .atributo("http.response.status_code", 503)
+            .atributo("server.address", "tasy")
+            .erro("HTTP 503");
+        chamada.finalizar();
+        raiz.link(ContextoSpan.deTraceparent("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01")).finalizar();
+        rastreador.descarregar();
+
+        assertThat(recebidos).hasSize(1);
+        JsonNode corpo = objectMapper.readTree(recebidos.get(0));
+        JsonNode recurso = corpo.path("resourceSpans").path(0);
+        assertThat(recurso.path("resource").path("attributes").path(0).path("value").path("stringValue").asText())
+            .isEqualTo("austa-experiencia");
+        JsonNode spans = recurso.path("scopeSpans").path(0).path("spans");
+        assertThat(spans.size()).isEqualTo(2);
+        JsonNode cliente = spans.path(0);
+        assertThat(cliente.path("traceId").asText()).isEqualTo(raiz.getTraceId());
+        assertThat(cliente.path("parentSpanId").asText()).isEqualTo(raiz.getSpanId());
+        assertThat(cliente.path("kind").asInt()).isEqualTo(3);
+        assertThat(cliente.path("startTimeUnixNano").isTextual()).isTrue();
+        assertThat(cliente.path("status").path("code").asInt()).isEqualTo(2);
+        assertThat(cliente.path("attributes").path(0).path("value").path("intValue").asText()).isEqualTo("503");
+        assertThat(spans.path(1).has("parentSpanId")).isFalse();
+        assertThat(spans.path(1).path("links").path(0).path("spanId").asText()).isEqualTo("00f067aa0ba902b7");
+
+        status.set(500);
+        rastreador.iniciar("processo PROC-002", TipoSpan.INTERNO, null).finalizar();
+        rastreador.descarregar();
+        assertThat(rastreador.getFalhasExportacao()).isEqualTo(1L);
+        assertThat(rastreador.getSpansExportados()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Should drop spans when the export queue is full instead of blocking")
+    void shouldDropWhenQueueFull() {
+        Rastreador rastreador = rastreador(1.0, 2, Clock.systemUTC(), null);
+        for (int i = 0; i < 5; i++) {
+            rastreador.iniciar("span-" + i, TipoSpan.INTERNO, null).finalizar();
+        }
+        rastreador.descarregar();
+
+        assertThat(rastreador.getSpansDescartados()).isEqualTo(3L);
+        assertThat(rastreador.getSpansExportados()).isEqualTo(2L);
+    }
+
+    private static Rastreador rastreador(double amostragem, int fila, Clock relogio, ExportadorOtlp otlp) {
+        return new Rastreador(new ColetorSpans(1000), otlp, amostragem, fila, 512, 1000, relogio);
+    }
+
+    private static final class RelogioManual extends Clock {
+        private volatile Instant agora = Instant.parse("2026-01-01T00:00:00Z");
+        private final Instant base = agora;
+
+        void em(long millis) {
+            agora = base.plusMillis(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return agora;
+        }
+    }
+}
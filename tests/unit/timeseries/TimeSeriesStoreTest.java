@@ -0,0 +1,114 @@
+package com.austa.saude.experiencia.test.unit.timeseries;
+
+import br.com.austa.experiencia.service.timeseries.EstatisticasSerie;
+import br.com.austa.experiencia.service.timeseries.Marcador;
+import br.com.austa.experiencia.service.timeseries.PontoAgregado;
+import br.com.austa.experiencia.service.timeseries.TimeSeriesStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Tests for the compressed health-marker Time Series Store
+ *
+ * Coverage:
+ * - Lossless Gorilla round trip across many blocks (irregular CGM timestamps)
+ * - Range scans, downsampling and rolling windows
+ * - Recovery and continued appends after reopening the segments
+ * - Rejection of out-of-order and duplicate readings, also after reopening
+ */
+@DisplayName("Time Series Store Tests")
+class TimeSeriesStoreTest {
+
+    private static final long DIA = 86_400_000L;
+    private static final long T0 = 1_700_000_000_000L;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Should decode exactly what was written across blocks and reopen")
+    void shouldRoundTripAcrossBlocksAndReopen() throws Exception {
+        TimeSeriesStore store = new TimeSeriesStore(dir.toString(), 1 << 20);
+        Random random = new Random(42);
+        List<long[]> esperado = new ArrayList<>();
+
+        long ts = T0;
+        for (int i = 0; i < 20_000; i++) {
+            ts += 300_000 + (i % 7 == 0 ? random.nextInt(4000) - 2000 : 0);
+            double valor = 70 + random.nextInt(150) + (i % 2 == 0 ? 0.5 : 0);
+            assertThat(store.registrar("BEN-001", Marcador.GLICOSE_CGM, ts, valor)).isTrue();
+            esperado.add(new long[]{ts, Double.doubleToLongBits(valor)});
+        }
+        store.fechar();
+
+        TimeSeriesStore reaberto = new TimeSeriesStore(dir.toString(), 1 << 20);
+        List<long[]> lido = new ArrayList<>();
+        reaberto.scan("BEN-001", Marcador.GLICOSE_CGM, Long.MIN_VALUE, Long.MAX_VALUE,
+            (t, v) -> lido.add(new long[]{t, Double.doubleToLongBits(v)}));
+
+        assertThat(lido).hasSize(esperado.size());
+        for (int i = 0; i < esperado.size(); i++) {
+            assertThat(lido.get(i)).containsExactly(esperado.get(i));
+        }
+
+        assertThat(reaberto.registrar("BEN-001", Marcador.GLICOSE_CGM, ts + 1000, 99.0)).isTrue();
+        EstatisticasSerie estatisticas =
+            reaberto.estatisticas("BEN-001", Marcador.GLICOSE_CGM, Long.MIN_VALUE, Long.MAX_VALUE);
+        assertThat(estatisticas.getCount()).isEqualTo(20_001);
+        reaberto.fechar();
+    }
+
+    @Test
+    @DisplayName("Should scan ranges, downsample and compute rolling windows")
+    void shouldAggregate() throws Exception {
+        TimeSeriesStore store = new TimeSeriesStore(dir.toString(), 1 << 20);
+        for (int dia = 0; dia < 30; dia++) {
+            store.registrar("BEN-001", Marcador.PESO, T0 + dia * DIA, 90.0 - dia * 0.1);
+            store.registrar("BEN-001", Marcador.PESO, T0 + dia * DIA + 3_600_000, 90.2 - dia * 0.1);
+        }
+
+        List<Double> faixa = new ArrayList<>();
+        store.scan("BEN-001", Marcador.PESO, T0 + 10 * DIA, T0 + 12 * DIA, (t, v) -> faixa.add(v));
+        assertThat(faixa).hasSize(5);
+
+        List<PontoAgregado> diario = store.downsample("BEN-001", Marcador.PESO, T0, T0 + 30 * DIA, DIA);
+        assertThat(diario).hasSize(30);
+        assertThat(diario.get(0).getMedia()).isCloseTo(90.1, within(1e-9));
+
+        List<PontoAgregado> semanal = store.janelaMovel("BEN-001", Marcador.PESO, T0, T0 + 30 * DIA, DIA, 7);
+        assertThat(semanal.get(29).getCount()).isEqualTo(14);
+
+        EstatisticasSerie estatisticas = store.estatisticas("BEN-001", Marcador.PESO, T0, T0 + 30 * DIA);
+        assertThat(estatisticas.getInclinacaoPorDia()).isNegative();
+        store.fechar();
+    }
+
+    @Test
+    @DisplayName("Should reject late and duplicate readings")
+    void shouldRejectOutOfOrder() throws Exception {
+        TimeSeriesStore store = new TimeSeriesStore(dir.toString(), 1 << 20);
+        assertThat(store.registrar("BEN-001", Marcador.HBA1C, T0, 7.2)).isTrue();
+        assertThat(store.registrar("BEN-001", Marcador.HBA1C, T0, 7.2)).isFalse();
+        assertThat(store.registrar("BEN-001", Marcador.HBA1C, T0 - DIA, 7.5)).isFalse();
+        assertThat(store.registrar("BEN-002", Marcador.HBA1C, T0 - DIA, 7.5)).isTrue();
+        assertThat(store.getDuplicadas()).isEqualTo(1);
+        store.fechar();
+
+        // replaying the marker topic after a restart stores nothing twice
+        TimeSeriesStore reaberto = new TimeSeriesStore(dir.toString(), 1 << 20);
+        assertThat(reaberto.registrar("BEN-001", Marcador.HBA1C, T0, 7.2)).isFalse();
+        assertThat(reaberto.registrar("BEN-002", Marcador.HBA1C, T0 - DIA, 7.5)).isFalse();
+        assertThat(reaberto.getDuplicadas()).isEqualTo(2);
+        assertThat(reaberto.estatisticas("BEN-001", Marcador.HBA1C, 0, Long.MAX_VALUE).getCount()).isEqualTo(1);
+        reaberto.fechar();
+    }
+}
@@ -0,0 +1,265 @@
+package com.austa.saude.experiencia.test.unit.utilizacao;
+
+import br.com.austa.experiencia.service.utilizacao.ExtratoUtilizacao;
+import br.com.austa.experiencia.service.utilizacao.RegistroUtilizacao;
+import br.com.austa.experiencia.service.utilizacao.TipoServicoUtilizacao;
+import br.com.austa.experiencia.service.utilizacao.UtilizacaoStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the utilization statement store
+ *
+ * Coverage:
+ * - Statements from monthly summaries match a rebuild from raw claims,
+ *   for every grouping, random periods and the service type filter
+ * - A period ending today reads no raw rows; a cut month reads only its rows
+ * - Duplicate deliveries ignored, reversals net out
+ * - Recovery from the log and rolling 24-month retention; the feed replayed
+ *   over the recovered log applies nothing twice
+ * - 2-year statements for many beneficiaries come from monthly summaries and match the rebuild
+ *
+ * Statement latency against the rebuild from raw claims is measured in UtilizacaoStorePerformanceTest.
+ */
+@DisplayName("Utilizacao Store Tests")
+class UtilizacaoStoreTest {
+
+    private static final LocalDate HOJE = LocalDate.of(2025, 12, 15);
+    private static final String[] PRESTADORES = {"PREST-1", "PREST-2", "PREST-3", "PREST-4"};
+
+    private Path diretorio;
+    private Clock clock;
+    private UtilizacaoStore store;
+    private List<RegistroUtilizacao> brutos;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        diretorio = Files.createTempDirectory("utilizacao");
+        clock = Clock.fixed(HOJE.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        store = new UtilizacaoStore(diretorio, false, clock);
+        brutos = new ArrayList<>();
+    }
+
+    @Test
+    @DisplayName("Should match a rebuild from raw claims for every grouping and period")
+    void shouldMatchRawRebuild() throws Exception {
+        gerar("BEN-1", 600, new Random(7));
+        Random random = new Random(11);
+        for (int i = 0; i < 200; i++) {
+            LocalDate inicio = HOJE.minusDays(random.nextInt(730));
+            LocalDate fim = inicio.plusDays(random.nextInt(400));
+            String agrupamento = new String[] {"DATA", "TIPO", "PRESTADOR"}[random.nextInt(3)];
+            String tipo = random.nextInt(3) == 0 ? "EXAME" : null;
+
+            ExtratoUtilizacao extrato = store.extrato("BEN-1", inicio, fim, tipo, agrupamento);
+            Map<String, Object> esperado = reconstruir("BEN-1", inicio, fim, tipo, agrupamento);
+
+            assertThat(porChave(extrato.getLinhas(), agrupamento)).isEqualTo(esperado.get("linhas"));
+            assertThat(extrato.getTotalUtilizacoes()).isEqualTo(esperado.get("total"));
+            assertThat(extrato.getValorTotal()).isEqualTo(esperado.get("valor"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer a period ending today from summaries and read only a cut month's rows")
+    void shouldReadRawRowsOnlyForCutMonths() throws Exception {
+        gerar("BEN-1", 600, new Random(3));
+
+        ExtratoUtilizacao ultimoAno = store.extrato("BEN-1", LocalDate.of(2024, 12, 1), HOJE, null, "DATA");
+        assertThat(ultimoAno.getLinhasLidas()).isZero();
+        assertThat(ultimoAno.getMesesResumidos()).isEqualTo(13);
+        assertThat(ultimoAno.getLinhas()).hasSize(13);
+
+        ExtratoUtilizacao cortado = store.extrato("BEN-1", LocalDate.of(2024, 12, 1), LocalDate.of(2025, 6, 10),
+            null, "TIPO");
+        long linhasJunho = brutos.stream().filter(r -> r.getDataAtendimento().getYear() == 2025
+            && r.getDataAtendimento().getMonthValue() == 6 && r.getDataAtendimento().getDayOfMonth() >= 1
+            && r.getDataAtendimento().getDayOfMonth() <= 10).count();
+        assertThat(cortado.getMesesResumidos()).isEqualTo(6);
+        assertThat((long) cortado.getLinhasLidas()).isEqualTo(linhasJunho);
+    }
+
+    @Test
+    @DisplayName("Should ignore duplicate deliveries and net out reversals")
+    void shouldIgnoreDuplicatesAndNetReversals() throws Exception {
+        RegistroUtilizacao consulta = item(1, "BEN-1", LocalDate.of(2025, 11, 3), TipoServicoUtilizacao.CONSULTA,
+            "PREST-1", "150.00", false);
+        RegistroUtilizacao exame = item(2, "BEN-1", LocalDate.of(2025, 11, 3), TipoServicoUtilizacao.EXAME,
+            "PREST-2", "80.50", false);
+        assertThat(store.registrar(consulta)).isTrue();
+        assertThat(store.registrar(exame)).isTrue();
+        assertThat(store.registrar(consulta)).isFalse();
+
+        assertThat(store.registrar(item(2, "BEN-1", LocalDate.of(2025, 11, 3), TipoServicoUtilizacao.EXAME,
+            "PREST-2", "80.50", true))).isTrue();
+        assertThat(store.registrar(item(2, "BEN-1", LocalDate.of(2025, 11, 3), TipoServicoUtilizacao.EXAME,
+            "PREST-2", "80.50", true))).isFalse();
+
+        ExtratoUtilizacao extrato = store.extrato("BEN-1", LocalDate.of(2025, 11, 1), HOJE, null, "TIPO");
+        assertThat(extrato.getTotalUtilizacoes()).isEqualTo(1);
+        assertThat(extrato.getValorTotal()).isEqualTo(new BigDecimal("150.00"));
+        assertThat(store.getRegistrosIgnorados()).isEqualTo(2L);
+        assertThat(store.extrato("BEN-2", LocalDate.of(2025, 11, 1), HOJE, null, null).getLinhas()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should recover from the log and keep a rolling 24-month window")
+    void shouldRecoverAndExpire() throws Exception {
+        gerar("BEN-1", 300, new Random(5));
+        gerar("BEN-2", 300, new Random(6));
+        assertThat(store.registrar(item(999_999, "BEN-1", LocalDate.of(2023, 11, 30),
+            TipoServicoUtilizacao.EXAME, "PREST-1", "10.00", false))).isFalse();
+        ExtratoUtilizacao antes = store.extrato("BEN-2", LocalDate.of(2024, 1, 1), HOJE, null, "PRESTADOR");
+        store.fechar();
+
+        store = new UtilizacaoStore(diretorio, false, clock);
+        ExtratoUtilizacao depois = store.extrato("BEN-2", LocalDate.of(2024, 1, 1), HOJE, null, "PRESTADOR");
+        assertThat(depois.getLinhas()).isEqualTo(antes.getLinhas());
+        assertThat(depois.getValorTotal()).isEqualTo(antes.getValorTotal());
+        assertThat(store.getBeneficiarios()).isEqualTo(2);
+
+        // each instance replays the whole feed on startup over what the log recovered
+        for (RegistroUtilizacao registro : brutos) {
+            assertThat(store.registrar(registro)).isFalse();
+        }
+        assertThat(store.getRegistrosAplicados()).isZero();
+        assertThat(store.extrato("BEN-2", LocalDate.of(2024, 1, 1), HOJE, null, "PRESTADOR").getValorTotal())
+            .isEqualTo(antes.getValorTotal());
+
+        // a year later the first year is gone
+        store.fechar();
+        Clock anoSeguinte = Clock.offset(clock, java.time.Duration.ofDays(365));
+        store = new UtilizacaoStore(diretorio, false, anoSeguinte);
+        ExtratoUtilizacao expirado = store.extrato("BEN-2", LocalDate.of(2023, 12, 1), LocalDate.of(2024, 11, 30),
+            null, "DATA");
+        assertThat(expirado.getTotalUtilizacoes()).isZero();
+        store.fechar();
+    }
+
+    @Test
+    @DisplayName("Should build a 2-year statement from monthly summaries for every beneficiary")
+    void shouldBuildTwoYearStatementFromSummaries() throws Exception {
+        int beneficiarios = 50;
+        for (int b = 0; b < beneficiarios; b++) {
+            gerar("BEN-" + b, 480, new Random(b));
+        }
+        LocalDate inicio = HOJE.minusYears(2).plusDays(1);
+
+        for (int b = 0; b < beneficiarios; b++) {
+            ExtratoUtilizacao extrato = store.extrato("BEN-" + b, inicio, HOJE, null, "TIPO");
+            Map<String, Object> esperado = reconstruir("BEN-" + b, inicio, HOJE, null, "TIPO");
+
+            assertThat(porChave(extrato.getLinhas(), "TIPO")).isEqualTo(esperado.get("linhas"));
+            assertThat(extrato.getValorTotal()).isEqualTo(esperado.get("valor"));
+            assertThat(extrato.getMesesResumidos()).isGreaterThanOrEqualTo(24);
+        }
+    }
+
+    private void gerar(String beneficiarioId, int itens, Random random) throws IOException {
+        TipoServicoUtilizacao[] tipos = TipoServicoUtilizacao.values();
+        for (int i = 0; i < itens; i++) {
+            LocalDate data = HOJE.minusDays(random.nextInt(740));
+            RegistroUtilizacao registro = item(beneficiarioId.hashCode() * 10_000L + i, beneficiarioId, data,
+                tipos[random.nextInt(tipos.length)], PRESTADORES[random.nextInt(PRESTADORES.length)],
+                BigDecimal.valueOf(1_000 + random.nextInt(90_000), 2).toPlainString(), false);
+            if (store.registrar(registro)) {
+                brutos.add(registro);
+            }
+            if (random.nextInt(20) == 0 && store.registrar(estorno(registro))) {
+                brutos.add(estorno(registro));
+            }
+        }
+    }
+
+    private Map<String, Object> reconstruir(String beneficiarioId, LocalDate inicio, LocalDate fim, String tipo,
+                                            String agrupamento) {
+        List<RegistroUtilizacao> doBeneficiario = new ArrayList<>();
+        for (RegistroUtilizacao registro : brutos) {
+            if (registro.getBeneficiarioId().equals(beneficiarioId)) {
+                doBeneficiario.add(registro);
+            }
+        }
+        return reconstruir(doBeneficiario, inicio, fim, tipo, agrupamento);
+    }
+
+    /**
+     * What the statement took before the store: filter and group every raw claim of the period.
+     */
+    private static Map<String, Object> reconstruir(List<RegistroUtilizacao> registros, LocalDate inicio,
+                                                   LocalDate fim, String tipo, String agrupamento) {
+        Map<String, List<Object>> linhas = new TreeMap<>();
+        long total = 0;
+        BigDecimal valor = BigDecimal.ZERO.setScale(2);
+        for (RegistroUtilizacao registro : registros) {
+            LocalDate data = registro.getDataAtendimento();
+            if (data.isBefore(inicio) || data.isAfter(fim)
+                    || (tipo != null && !registro.getTipoServico().name().equals(tipo))) {
+                continue;
+            }
+            String chave;
+            switch (agrupamento) {
+                case "TIPO":
+                    chave = registro.getTipoServico().name();
+                    break;
+                case "PRESTADOR":
+                    chave = registro.getPrestadorId();
+                    break;
+                default:
+                    chave = String.format("%04d-%02d", data.getYear(), data.getMonthValue());
+            }
+            long usos = registro.isEstorno() ? -1 : 1;
+            BigDecimal item = registro.isEstorno() ? registro.getValor().negate() : registro.getValor();
+            List<Object> linha = linhas.computeIfAbsent(chave, k -> new ArrayList<>(List.of(0L,
+                BigDecimal.ZERO.setScale(2))));
+            linha.set(0, (Long) linha.get(0) + usos);
+            linha.set(1, ((BigDecimal) linha.get(1)).add(item));
+            total += usos;
+            valor = valor.add(item);
+        }
+        Map<String, Object> resultado = new HashMap<>();
+        resultado.put("linhas", linhas);
+        resultado.put("total", (int) total);
+        resultado.put("valor", valor);
+        return resultado;
+    }
+
+    private static Map<String, List<Object>> porChave(List<Map<String, Object>> linhas, String agrupamento) {
+        String campo = "TIPO".equals(agrupamento) ? "tipoServico"
+            : "PRESTADOR".equals(agrupamento) ? "prestadorId" : "mes";
+        Map<String, List<Object>> mapa = new TreeMap<>();
+        for (Map<String, Object> linha : linhas) {
+            mapa.put((String) linha.get(campo), List.of(linha.get("quantidade"), linha.get("valor")));
+        }
+        return mapa;
+    }
+
+    private static RegistroUtilizacao item(long itemId, String beneficiarioId, LocalDate data,
+                                           TipoServicoUtilizacao tipo, String prestadorId, String valor,
+                                           boolean estorno) {
+        return new RegistroUtilizacao(itemId, beneficiarioId, data, "10101012", tipo, prestadorId,
+            new BigDecimal(valor), estorno);
+    }
+
+    private static RegistroUtilizacao estorno(RegistroUtilizacao registro) {
+        return new RegistroUtilizacao(registro.getItemId(), registro.getBeneficiarioId(),
+            registro.getDataAtendimento(), registro.getCodigoTuss(), registro.getTipoServico(),
+            registro.getPrestadorId(), registro.getValor(), true);
+    }
+}
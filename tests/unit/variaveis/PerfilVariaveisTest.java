@@ -0,0 +1,212 @@
+package com.austa.saude.experiencia.test.unit.variaveis;
+
+import br.com.austa.experiencia.service.blobs.ArmazenamentoBlobs;
+import br.com.austa.experiencia.service.blobs.ArmazenamentoBlobsDisco;
+import br.com.austa.experiencia.service.blobs.RepositorioConteudo;
+import br.com.austa.experiencia.service.variaveis.AcaoVariavel;
+import br.com.austa.experiencia.service.variaveis.CriterioRanking;
+import br.com.austa.experiencia.service.variaveis.EstatisticaVariavel;
+import br.com.austa.experiencia.service.variaveis.PerfilVariaveis;
+import br.com.austa.experiencia.service.variaveis.PoliticasVariaveis;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the process-variable size profiler and its policies
+ *
+ * Coverage:
+ * - Global limits and per-variable rules, which only escalate
+ * - Compressed and externalized values restored byte for byte
+ * - Stored form is deterministic, so the engine's dirty check sees no change
+ * - Incompressible values stay as they are; a failing store falls back to compression
+ * - Ranking by database I/O and largest value, bounded number of tracked pairs
+ *
+ * Compression throughput on a 360-degree context payload is measured in PerfilVariaveisPerformanceTest.
+ */
+@DisplayName("Perfil Variaveis Tests")
+class PerfilVariaveisTest {
+
+    private RepositorioConteudo repositorio;
+    private PerfilVariaveis perfil;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path diretorio = Files.createTempDirectory("variaveis");
+        repositorio = new RepositorioConteudo(new ArmazenamentoBlobsDisco(diretorio.toString()),
+            new ObjectMapper(), 64 * 1024);
+        perfil = new PerfilVariaveis(repositorio, new PoliticasVariaveis(16 * 1024, 64 * 1024, 512 * 1024,
+            PoliticasVariaveis.parseRegras("dossieAuditoria:EXTERNALIZAR:32768, contexto360:COMPRIMIR:8192")), 100);
+    }
+
+    @Test
+    @DisplayName("Should apply global limits and let per-variable rules only escalate")
+    void shouldDecideByLimitsAndRules() {
+        PoliticasVariaveis politicas = new PoliticasVariaveis(100, 1_000, 10_000,
+            PoliticasVariaveis.parseRegras("dossieAuditoria:EXTERNALIZAR:500,etapasPercorridas:AVISAR:50000"));
+
+        assertThat(politicas.decidir("resultadoConsulta", 99)).isEqualTo(AcaoVariavel.MANTER);
+        assertThat(politicas.decidir("resultadoConsulta", 100)).isEqualTo(AcaoVariavel.AVISAR);
+        assertThat(politicas.decidir("resultadoConsulta", 5_000)).isEqualTo(AcaoVariavel.COMPRIMIR);
+        assertThat(politicas.decidir("resultadoConsulta", 10_000)).isEqualTo(AcaoVariavel.EXTERNALIZAR);
+        assertThat(politicas.decidir("dossieAuditoria", 600)).isEqualTo(AcaoVariavel.EXTERNALIZAR);
+        assertThat(politicas.decidir("etapasPercorridas", 60_000)).isEqualTo(AcaoVariavel.EXTERNALIZAR);
+        assertThat(politicas.decidir(null, 200)).isEqualTo(AcaoVariavel.AVISAR);
+    }
+
+    @Test
+    @DisplayName("Should compress large objects and restore them byte for byte")
+    void shouldCompressAndRestore() throws Exception {
+        byte[] serializado = serializar(contexto(2_000));
+        assertThat(serializado.length).isGreaterThan(64 * 1024);
+
+        byte[] armazenado = perfil.armazenar("SUB-004", "contextoCompleto", serializado);
+
+        assertThat(armazenado[0]).isEqualTo((byte) 0);
+        assertThat(armazenado.length).isLessThan(serializado.length / 4);
+        assertThat(perfil.restaurar("SUB-004", "contextoCompleto", armazenado)).isEqualTo(serializado);
+        assertThat(perfil.rearmazenar(PerfilVariaveis.formaArmazenada(armazenado), serializado)).isEqualTo(armazenado);
+
+        EstatisticaVariavel estatistica = perfil.getEstatistica("SUB-004", "contextoCompleto");
+        assertThat(estatistica.getEscritas()).isEqualTo(1L);
+        assertThat(estatistica.getLeituras()).isEqualTo(1L);
+        assertThat(estatistica.getComprimidas()).isEqualTo(1L);
+        assertThat(estatistica.getMaior()).isEqualTo((long) serializado.length);
+        assertThat(estatistica.getBytesIo()).isEqualTo(2L * armazenado.length);
+        assertThat(perfil.getBytesEconomizados()).isEqualTo((long) serializado.length - armazenado.length);
+    }
+
+    @Test
+    @DisplayName("Should externalize by rule, keep only the hash and read the value back")
+    void shouldExternalizeAndRestore() throws Exception {
+        byte[] serializado = serializar(contexto(400));
+        assertThat(serializado.length).isBetween(32 * 1024, 512 * 1024);
+
+        byte[] armazenado = perfil.armazenar("SUB-009", "dossieAuditoria", serializado);
+
+        assertThat(armazenado.length).isLessThan(100);
+        assertThat(repositorio.getBytesRecebidos()).isEqualTo((long) serializado.length);
+        assertThat(perfil.restaurar("SUB-009", "dossieAuditoria", armazenado)).isEqualTo(serializado);
+        assertThat(PerfilVariaveis.formaArmazenada(armazenado)).isEqualTo(AcaoVariavel.EXTERNALIZAR);
+        assertThat(perfil.rearmazenar(AcaoVariavel.EXTERNALIZAR, serializado)).isEqualTo(armazenado);
+        assertThat(repositorio.getBlocosGravados()).isEqualTo((long) (serializado.length / (64 * 1024) + 1));
+        assertThat(perfil.getExternalizadas()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should leave small and incompressible values as they are")
+    void shouldLeaveSmallAndIncompressibleValues() throws Exception {
+        byte[] pequeno = serializar(contexto(3));
+        assertThat(perfil.armazenar("SUB-004", "resultadoConsulta", pequeno)).isSameAs(pequeno);
+        assertThat(perfil.restaurar("SUB-004", "resultadoConsulta", pequeno)).isSameAs(pequeno);
+
+        byte[] aleatorio = new byte[100 * 1024];
+        new Random(7).nextBytes(aleatorio);
+        aleatorio[0] = (byte) 0xAC;
+        assertThat(perfil.armazenar("SUB-012", "anexo", aleatorio)).isSameAs(aleatorio);
+        assertThat(perfil.getComprimidas()).isZero();
+        assertThat(perfil.getAvisos()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should compress instead when the content store fails")
+    void shouldFallBackToCompression() throws Exception {
+        ArmazenamentoBlobs indisponivel = new ArmazenamentoBlobs() {
+            @Override
+            public boolean existe(String chave) throws IOException {
+                throw new IOException("storage offline");
+            }
+
+            @Override
+            public void gravar(String chave, byte[] dados, int tamanho) throws IOException {
+                throw new IOException("storage offline");
+            }
+
+            @Override
+            public InputStream abrir(String chave) throws IOException {
+                throw new IOException("storage offline");
+            }
+        };
+        PerfilVariaveis semArmazenamento = new PerfilVariaveis(
+            new RepositorioConteudo(indisponivel, new ObjectMapper(), 64 * 1024),
+            new PoliticasVariaveis(0, 0, 1024, Map.of()), 100);
+        byte[] serializado = serializar(contexto(500));
+
+        byte[] armazenado = semArmazenamento.armazenar("SUB-009", "baseAtiva", serializado);
+
+        assertThat(armazenado.length).isLessThan(serializado.length);
+        assertThat(semArmazenamento.restaurar("SUB-009", "baseAtiva", armazenado)).isEqualTo(serializado);
+        assertThat(semArmazenamento.getFalhasArmazenamento()).isEqualTo(1L);
+        assertThat(semArmazenamento.getComprimidas()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should rank variables by I/O and largest value within a bounded number of pairs")
+    void shouldRankVariables() {
+        PerfilVariaveis pequeno = new PerfilVariaveis(repositorio, new PoliticasVariaveis(0, 0, 0, Map.of()), 3);
+        for (int i = 0; i < 50; i++) {
+            pequeno.escrita("SUB-004", "etapasPercorridas", 2_000);
+        }
+        pequeno.escrita("SUB-007", "dadosColetados", 30_000);
+        pequeno.leitura("SUB-007", "dadosColetados", 30_000);
+        pequeno.escrita("SUB-004", "statusCPT", 8);
+        pequeno.escrita("SUB-010", "novaVariavel", 10);
+        pequeno.escrita("SUB-011", "outraVariavel", 20);
+
+        List<EstatisticaVariavel> porIo = pequeno.ranking(CriterioRanking.IO, 2);
+        assertThat(porIo).hasSize(2);
+        assertThat(porIo.get(0).getNome()).isEqualTo("etapasPercorridas");
+        assertThat(porIo.get(0).getBytesIo()).isEqualTo(100_000L);
+        assertThat(porIo.get(1).getNome()).isEqualTo("dadosColetados");
+        assertThat(pequeno.ranking(CriterioRanking.MAIOR, 1).get(0).getNome()).isEqualTo("dadosColetados");
+
+        assertThat(pequeno.getEstatistica("SUB-010", "novaVariavel")).isNull();
+        assertThat(pequeno.getEstatistica(PerfilVariaveis.OUTRAS, PerfilVariaveis.OUTRAS).getEscritas()).isEqualTo(2L);
+
+        Map<String, Object> relatorio = pequeno.relatorio(CriterioRanking.ESCRITAS, 10);
+        assertThat(relatorio).containsEntry("variaveis", 4).containsEntry("bytesLidos", 30_000L);
+        assertThat((List<?>) relatorio.get("maiores")).hasSize(4);
+    }
+
+    private static Map<String, Object> contexto(int eventos) {
+        Random random = new Random(42);
+        List<Map<String, Object>> atendimentos = new ArrayList<>();
+        for (int i = 0; i < eventos; i++) {
+            Map<String, Object> atendimento = new LinkedHashMap<>();
+            atendimento.put("data", "2026-0" + (1 + i % 9) + "-1" + (i % 10));
+            atendimento.put("tipo", i % 3 == 0 ? "CONSULTA" : i % 3 == 1 ? "EXAME" : "INTERNACAO");
+            atendimento.put("prestador", "Hospital Austa - unidade " + (i % 7));
+            atendimento.put("cid", "J" + (10 + random.nextInt(90)));
+            atendimento.put("valor", 100 + random.nextInt(5_000));
+            atendimentos.add(atendimento);
+        }
+        Map<String, Object> contexto = new HashMap<>();
+        contexto.put("beneficiarioId", "BEN-000123");
+        contexto.put("atendimentos", atendimentos);
+        return contexto;
+    }
+
+    private static byte[] serializar(Object valor) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(saida)) {
+            out.writeObject(valor);
+        }
+        return saida.toByteArray();
+    }
+}
@@ -0,0 +1,256 @@
+package com.austa.saude.experiencia.test.unit.whatsapp;
+
+import br.com.austa.experiencia.exception.IntegrationException;
+import br.com.austa.experiencia.service.whatsapp.FalhaEnvioWhatsApp;
+import br.com.austa.experiencia.service.whatsapp.MensagemWhatsApp;
+import br.com.austa.experiencia.service.whatsapp.PrioridadeMensagem;
+import br.com.austa.experiencia.service.whatsapp.ReciboWhatsApp;
+import br.com.austa.experiencia.service.whatsapp.TierRemetente;
+import br.com.austa.experiencia.service.whatsapp.WhatsAppDispatcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the prioritized, rate-limited WhatsApp dispatcher
+ *
+ * Coverage:
+ * - Clinical alerts overtake queued NPS surveys
+ * - Per-sender throughput and messaging-limit tier buckets
+ * - Retry of throttled sends, failed receipt on permanent errors
+ * - Delivery receipt correlation and per-priority latency metrics
+ * - Receipts arriving before the send response; receipts of other instances ignored;
+ *   sends without a wamid
+ * - Queued messages and wamids of sent ones recovered from the changelog
+ * - Backpressure when the dispatch queue is full
+ */
+@DisplayName("WhatsApp Dispatcher Tests")
+class WhatsAppDispatcherTest {
+
+    private final List<MensagemWhatsApp> enviadas = new CopyOnWriteArrayList<>();
+    private final List<ReciboWhatsApp> recibos = new CopyOnWriteArrayList<>();
+    private WhatsAppDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (dispatcher != null) {
+            dispatcher.parar();
+        }
+    }
+
+    @Test
+    @DisplayName("Should send clinical alerts ahead of queued surveys")
+    void shouldPrioritizeClinicalAlerts() throws Exception {
+        dispatcher = novo(Map.of("5511000000001", TierRemetente.ILIMITADO), 1000, 10_000, m -> ok(m));
+        for (int i = 0; i < 200; i++) {
+            dispatcher.enfileirar(MensagemWhatsApp.template("+5511999" + i, "nps_v1", null,
+                PrioridadeMensagem.PESQUISA, null));
+        }
+        for (int i = 0; i < 5; i++) {
+            dispatcher.enfileirar(MensagemWhatsApp.texto("+5511888" + i, "Procure atendimento",
+                PrioridadeMensagem.ALERTA_CLINICO, "PI-" + i));
+        }
+        dispatcher.iniciar();
+        aguardar(() -> enviadas.size() == 205);
+
+        assertThat(enviadas.subList(0, 5)).extracting(MensagemWhatsApp::getPrioridade)
+            .containsOnly(PrioridadeMensagem.ALERTA_CLINICO);
+        assertThat(dispatcher.getLatenciaEnvio(PrioridadeMensagem.ALERTA_CLINICO).getContagem()).isEqualTo(5);
+        assertThat(dispatcher.getLatenciaEnvio(PrioridadeMensagem.PESQUISA).getContagem()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Should hold sends to the sender throughput and tier limits")
+    void shouldRateLimitPerSender() throws Exception {
+        dispatcher = novo(Map.of("5511000000001", TierRemetente.ILIMITADO,
+            "5511000000002", TierRemetente.TIER_250), 200, 10_000, m -> ok(m));
+        dispatcher.iniciar();
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < 2_000; i++) {
+            dispatcher.enfileirar(MensagemWhatsApp.texto("+55119" + i, "Olá", PrioridadeMensagem.ENGAJAMENTO, null));
+        }
+        Thread.sleep(1_500);
+        long decorridoMillis = (System.nanoTime() - inicio) / 1_000_000;
+
+        // ~1000 per sender: the unlimited one is bound by 200/s (200 burst + 200/s),
+        // the TIER_250 one stops at its 24h allowance
+        long porVazao = 200 + 200 * decorridoMillis / 1000;
+        assertThat(enviadas.size()).isLessThanOrEqualTo((int) (250 + porVazao + 10));
+        assertThat(enviadas.size()).isGreaterThan(250 + 300);
+        assertThat(dispatcher.getPendentes()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should retry throttled sends and report permanent failures")
+    void shouldRetryAndReportFailures() throws Exception {
+        List<String> tentativas = new CopyOnWriteArrayList<>();
+        dispatcher = novo(Map.of("5511000000001", TierRemetente.ILIMITADO), 1000, 10_000, m -> {
+            tentativas.add(m.getTelefone());
+            if (m.getTelefone().equals("+5511000000404")) {
+                return CompletableFuture.failedFuture(new FalhaEnvioWhatsApp("invalid recipient", 400, false));
+            }
+            if (tentativas.stream().filter(m.getTelefone()::equals).count() == 1) {
+                return CompletableFuture.failedFuture(new FalhaEnvioWhatsApp("throttled", 429, true));
+            }
+            return ok(m);
+        });
+        dispatcher.iniciar();
+
+        dispatcher.enfileirar(MensagemWhatsApp.texto("+5511000000429", "a", PrioridadeMensagem.TRANSACIONAL, "PI-1"));
+        dispatcher.enfileirar(MensagemWhatsApp.texto("+5511000000404", "b", PrioridadeMensagem.TRANSACIONAL, "PI-2"));
+        aguardar(() -> enviadas.size() == 1 && recibos.size() == 1);
+
+        assertThat(dispatcher.getRetentativas()).isEqualTo(1);
+        assertThat(dispatcher.getFalhas()).isEqualTo(1);
+        assertThat(recibos.get(0).getProcessInstanceId()).isEqualTo("PI-2");
+        assertThat(recibos.get(0).toVariaveis()).containsEntry("whatsappStatus", "failed")
+            .containsEntry("whatsappEntregue", false);
+    }
+
+    @Test
+    @DisplayName("Should correlate delivery receipts by wamid and track delivery latency")
+    void shouldCorrelateReceipts() throws Exception {
+        dispatcher = novo(Map.of("5511000000001", TierRemetente.ILIMITADO), 1000, 10_000, m -> ok(m));
+        dispatcher.iniciar();
+
+        String id = dispatcher.enfileirar(MensagemWhatsApp.texto("+5511912345678", "Autorização aprovada",
+            PrioridadeMensagem.TRANSACIONAL, "PI-42"));
+        aguardar(() -> enviadas.size() == 1);
+
+        dispatcher.registrarRecibo("wamid-" + id, "sent", 1L, null);
+        dispatcher.registrarRecibo("wamid-" + id, "delivered", 2L, null);
+        dispatcher.registrarRecibo("wamid-desconhecido", "delivered", 3L, null);
+
+        assertThat(recibos).hasSize(1);
+        assertThat(dispatcher.getRecibosIgnorados()).isEqualTo(1);
+        assertThat(recibos.get(0).getMensagemId()).isEqualTo(id);
+        assertThat(recibos.get(0).getProcessInstanceId()).isEqualTo("PI-42");
+        assertThat(recibos.get(0).toVariaveis()).containsEntry("whatsappEntregue", true);
+        assertThat(dispatcher.getLatenciaEntrega(PrioridadeMensagem.TRANSACIONAL).getContagem()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should hold a receipt that arrives before the send response")
+    void shouldHoldEarlyReceipt() throws Exception {
+        CompletableFuture<String> resposta = new CompletableFuture<>();
+        dispatcher = novo(Map.of("5511000000001", TierRemetente.ILIMITADO), 1000, 10_000, m -> {
+            enviadas.add(m);
+            return resposta;
+        });
+        dispatcher.iniciar();
+
+        String id = dispatcher.enfileirar(MensagemWhatsApp.texto("+5511912345678", "Guia liberada",
+            PrioridadeMensagem.TRANSACIONAL, "PI-7"));
+        aguardar(() -> enviadas.size() == 1);
+        dispatcher.registrarRecibo("wamid-" + id, "delivered", 2L, null);
+        assertThat(recibos).isEmpty();
+
+        resposta.complete("wamid-" + id);
+        aguardar(() -> recibos.size() == 1);
+        assertThat(recibos.get(0).getProcessInstanceId()).isEqualTo("PI-7");
+        assertThat(recibos.get(0).toVariaveis()).containsEntry("whatsappEntregue", true);
+    }
+
+    @Test
+    @DisplayName("Should send again after a restart what was queued and keep correlating what was sent")
+    void shouldRecoverFromChangelog() throws Exception {
+        Path diretorio = Files.createTempDirectory("whatsapp");
+        Map<String, TierRemetente> remetentes = Map.of("5511000000001", TierRemetente.ILIMITADO);
+        dispatcher = new WhatsAppDispatcher((remetente, mensagem) -> mensagem.getTelefone().endsWith("2")
+                ? new CompletableFuture<>() : ok(mensagem),
+            recibos::add, remetentes, 1000, 10_000, 50, 256, 3, diretorio, 10_000);
+        String enviada = dispatcher.enfileirar(MensagemWhatsApp.texto("+5511900000001", "Guia liberada",
+            PrioridadeMensagem.TRANSACIONAL, "PI-1"));
+        String pendente = dispatcher.enfileirar(MensagemWhatsApp.template("+5511900000002", "lembrete_v1",
+            Map.of("nome", "Ana"), PrioridadeMensagem.ENGAJAMENTO, "PI-2"));
+        dispatcher.iniciar();
+        aguardar(() -> enviadas.size() == 1 && dispatcher.getPendentes() == 0);
+        dispatcher.parar();
+        enviadas.clear();
+
+        // the second message never got a response before the stop
+        dispatcher = new WhatsAppDispatcher((remetente, mensagem) -> ok(mensagem), recibos::add, remetentes,
+            1000, 10_000, 50, 256, 3, diretorio, 1);
+        dispatcher.iniciar();
+        aguardar(() -> enviadas.size() == 1);
+        assertThat(enviadas.get(0).getId()).isEqualTo(pendente);
+        assertThat(enviadas.get(0).getParametros()).containsEntry("nome", "Ana");
+        assertThat(enviadas.get(0).getProcessInstanceId()).isEqualTo("PI-2");
+
+        dispatcher.registrarRecibo("wamid-" + enviada, "read", 5L, null);
+        assertThat(recibos).hasSize(1);
+        assertThat(recibos.get(0).getProcessInstanceId()).isEqualTo("PI-1");
+        dispatcher.registrarRecibo("wamid-" + pendente, "read", 6L, null);
+        dispatcher.parar();
+
+        // both read: nothing left to send or track
+        enviadas.clear();
+        dispatcher = new WhatsAppDispatcher((remetente, mensagem) -> ok(mensagem), recibos::add, remetentes,
+            1000, 10_000, 50, 256, 3, diretorio, 10_000);
+        assertThat(dispatcher.getPendentes()).isZero();
+        dispatcher.registrarRecibo("wamid-" + enviada, "read", 7L, null);
+        assertThat(recibos).hasSize(2);
+        assertThat(dispatcher.getRecibosIgnorados()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should fail a send whose response carries no wamid")
+    void shouldFailSendWithoutWamid() throws Exception {
+        dispatcher = novo(Map.of("5511000000001", TierRemetente.ILIMITADO), 1000, 10_000,
+            m -> CompletableFuture.completedFuture(""));
+        dispatcher.iniciar();
+
+        dispatcher.enfileirar(MensagemWhatsApp.texto("+5511912345678", "x", PrioridadeMensagem.TRANSACIONAL, "PI-8"));
+        aguardar(() -> recibos.size() == 1);
+
+        assertThat(dispatcher.getEnviadas()).isZero();
+        assertThat(dispatcher.getRetentativas()).isZero();
+        assertThat(recibos.get(0).toVariaveis()).containsEntry("whatsappStatus", "failed");
+    }
+
+    @Test
+    @DisplayName("Should reject new messages when the dispatch queue is full")
+    void shouldRejectWhenQueueFull() {
+        dispatcher = novo(Map.of("5511000000001", TierRemetente.ILIMITADO), 1000, 3, m -> ok(m));
+        for (int i = 0; i < 3; i++) {
+            dispatcher.enfileirar(MensagemWhatsApp.texto("+551191" + i, "x", PrioridadeMensagem.PESQUISA, null));
+        }
+
+        assertThatThrownBy(() -> dispatcher.enfileirar(
+            MensagemWhatsApp.texto("+5511919", "x", PrioridadeMensagem.PESQUISA, null)))
+            .isInstanceOf(IntegrationException.class);
+        assertThat(dispatcher.getRejeitadas()).isEqualTo(1);
+    }
+
+    private WhatsAppDispatcher novo(Map<String, TierRemetente> remetentes, double mps, int capacidade,
+                                    Function<MensagemWhatsApp, CompletableFuture<String>> canal) {
+        return new WhatsAppDispatcher((remetente, mensagem) -> canal.apply(mensagem), recibos::add,
+            remetentes, mps, capacidade, 50, 256, 3);
+    }
+
+    private CompletableFuture<String> ok(MensagemWhatsApp mensagem) {
+        enviadas.add(mensagem);
+        return CompletableFuture.completedFuture("wamid-" + mensagem.getId());
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 10_000;
+        while (!condicao.getAsBoolean() && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        assertThat(condicao.getAsBoolean()).isTrue();
+    }
+}